@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.reader;
+
+import org.apache.flink.api.connector.source.ReaderOutput;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.SourceOutput;
+import org.apache.flink.api.connector.source.SourceReader;
+import org.apache.flink.api.connector.source.SourceReaderContext;
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.base.source.reader.fetcher.SplitFetcherManager;
+import org.apache.flink.connector.base.source.reader.synchronization.FutureCompletingBlockingQueue;
+import org.apache.flink.connector.base.source.reader.synchronization.FutureNotifier;
+import org.apache.flink.core.io.InputStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An abstract implementation of {@link SourceReader} which provides some synchronization between
+ * the mail box main thread and the SourceReader internal threads. This class allows user to
+ * just provide a {@link org.apache.flink.connector.base.source.reader.splitreader.SplitReader} and
+ * snapshot the split state.
+ *
+ * <p>The split readers run in the fetcher threads of the {@link SplitFetcherManager}, and hand the
+ * fetched records over to the task thread through a bounded element queue. The task thread never
+ * blocks on the queue: it is notified through the future returned by {@link #isAvailable()} when
+ * new records arrive, which lets the task process its mailbox meanwhile. Each record is emitted
+ * to the output of the split it belongs to, so that watermarks are tracked per split.
+ *
+ * @param <E> The rich element type that contains information for split state update or timestamp extraction.
+ * @param <T> The final element type to emit.
+ * @param <SplitT> the immutable split type.
+ * @param <SplitStateT> the mutable type of split state.
+ */
+public abstract class SourceReaderBase<E, T, SplitT extends SourceSplit, SplitStateT>
+		implements SourceReader<T, SplitT> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SourceReaderBase.class);
+
+	/** A future notifier to notify when this reader requires attention. */
+	private final FutureNotifier futureNotifier;
+
+	/** A queue to buffer the elements fetched by the fetcher thread. */
+	private final FutureCompletingBlockingQueue<RecordsWithSplitIds<E>> elementsQueue;
+
+	/** The state of the splits. */
+	private final Map<String, SplitContext<T, SplitStateT>> splitStates;
+
+	/** The record emitter to handle the records read by the SplitReaders. */
+	protected final RecordEmitter<E, T, SplitStateT> recordEmitter;
+
+	/** The split fetcher manager to run split fetchers. */
+	protected final SplitFetcherManager<E, SplitT> splitFetcherManager;
+
+	/** The configuration for the reader. */
+	protected final SourceReaderOptions options;
+
+	/** The raw configurations that may be used by subclasses. */
+	protected final Configuration config;
+
+	/** The context of this source reader. */
+	protected final SourceReaderContext context;
+
+	/** The records of the current fetch, which are emitted split by split. */
+	@Nullable
+	private RecordsWithSplitIds<E> currentFetch;
+
+	@Nullable
+	private Iterator<Map.Entry<String, Collection<E>>> splitIterator;
+
+	@Nullable
+	private Iterator<E> recordIterator;
+
+	@Nullable
+	private SplitContext<T, SplitStateT> currentSplitContext;
+
+	@Nullable
+	private SourceOutput<T> currentSplitOutput;
+
+	/** Indicating whether the SourceReader will be assigned more splits or not.*/
+	private boolean noMoreSplitsAssignment;
+
+	public SourceReaderBase(
+			FutureNotifier futureNotifier,
+			FutureCompletingBlockingQueue<RecordsWithSplitIds<E>> elementsQueue,
+			SplitFetcherManager<E, SplitT> splitFetcherManager,
+			RecordEmitter<E, T, SplitStateT> recordEmitter,
+			Configuration config,
+			SourceReaderContext context) {
+		this.futureNotifier = futureNotifier;
+		this.elementsQueue = elementsQueue;
+		this.splitFetcherManager = splitFetcherManager;
+		this.recordEmitter = recordEmitter;
+		this.splitStates = new HashMap<>();
+		this.options = new SourceReaderOptions(config);
+		this.config = config;
+		this.context = context;
+		this.noMoreSplitsAssignment = false;
+	}
+
+	@Override
+	public void start() {}
+
+	@Override
+	public InputStatus pollNext(ReaderOutput<T> output) throws Exception {
+		splitFetcherManager.checkErrors();
+
+		if (currentFetch == null) {
+			currentFetch = elementsQueue.poll();
+			if (currentFetch == null) {
+				return finishedOrAvailableLater();
+			}
+			splitIterator = currentFetch.recordsBySplits().entrySet().iterator();
+		}
+
+		while (true) {
+			if (recordIterator != null && recordIterator.hasNext()) {
+				// emit one record per call, so that the task can handle other mails in between
+				final E record = recordIterator.next();
+				recordEmitter.emitRecord(record, currentSplitOutput, currentSplitContext.state);
+				return InputStatus.MORE_AVAILABLE;
+			}
+
+			if (splitIterator.hasNext()) {
+				final Map.Entry<String, Collection<E>> recordsOfSplit = splitIterator.next();
+				final String splitId = recordsOfSplit.getKey();
+				currentSplitContext = splitStates.get(splitId);
+				if (currentSplitContext == null) {
+					throw new IllegalStateException("Received records of unknown split " + splitId);
+				}
+				currentSplitOutput = currentSplitContext.getOrCreateSplitOutput(output);
+				recordIterator = recordsOfSplit.getValue().iterator();
+				continue;
+			}
+
+			// the current fetch has been emitted completely
+			finishCurrentFetch(output);
+			return elementsQueue.isEmpty() ? finishedOrAvailableLater() : InputStatus.MORE_AVAILABLE;
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> isAvailable() {
+		// The order matters here. We first get the future. After this point, if the queue
+		// is empty or the state is NOTHING_AVAILABLE, the future will be completed when the
+		// state changes. Otherwise, the elements queue is not empty so we complete the
+		// future right away.
+		final CompletableFuture<Void> future = futureNotifier.future();
+		if (!elementsQueue.isEmpty() || currentFetch != null) {
+			futureNotifier.notifyComplete();
+		}
+		return future;
+	}
+
+	@Override
+	public List<SplitT> snapshotState() {
+		final List<SplitT> splits = new ArrayList<>();
+		splitStates.forEach((id, context) -> splits.add(toSplitType(id, context.state)));
+		return splits;
+	}
+
+	@Override
+	public void addSplits(List<SplitT> splits) {
+		LOG.trace("Adding splits {}", splits);
+		// Initialize the state for each split.
+		splits.forEach(s -> splitStates.put(s.splitId(), new SplitContext<>(s.splitId(), initializedState(s))));
+		// Hand over the splits to the split fetcher to start fetch.
+		splitFetcherManager.addSplits(splits);
+	}
+
+	@Override
+	public void notifyNoMoreSplits() {
+		LOG.info("Reader received NoMoreSplits event.");
+		noMoreSplitsAssignment = true;
+		futureNotifier.notifyComplete();
+	}
+
+	@Override
+	public void handleSourceEvents(SourceEvent sourceEvent) {
+		LOG.trace("Received source event: {}", sourceEvent);
+	}
+
+	@Override
+	public void close() throws Exception {
+		LOG.info("Closing Source Reader.");
+		splitFetcherManager.close(options.sourceReaderCloseTimeout);
+	}
+
+	// -------------------- Abstract method to allow different implementations ------------------
+	/**
+	 * Handles the finished splits to clean the state if needed.
+	 */
+	protected abstract void onSplitFinished(Collection<String> finishedSplitIds);
+
+	/**
+	 * When new splits are added to the reader. The initialize the state of the new splits.
+	 *
+	 * @param split a newly added split.
+	 */
+	protected abstract SplitStateT initializedState(SplitT split);
+
+	/**
+	 * Convert a mutable SplitStateT to immutable SplitT.
+	 *
+	 * @param splitState splitState.
+	 * @return an immutable Split state.
+	 */
+	protected abstract SplitT toSplitType(String splitId, SplitStateT splitState);
+
+	// ------------------ private helper methods ---------------------
+
+	private void finishCurrentFetch(ReaderOutput<T> output) {
+		final Collection<String> finishedSplits = currentFetch.finishedSplits();
+		if (!finishedSplits.isEmpty()) {
+			for (String finishedSplitId : finishedSplits) {
+				final SplitContext<T, SplitStateT> splitContext = splitStates.remove(finishedSplitId);
+				if (splitContext != null && splitContext.sourceOutput != null) {
+					output.releaseOutputForSplit(finishedSplitId);
+				}
+			}
+			onSplitFinished(finishedSplits);
+		}
+
+		currentFetch = null;
+		splitIterator = null;
+		recordIterator = null;
+		currentSplitContext = null;
+		currentSplitOutput = null;
+	}
+
+	private InputStatus finishedOrAvailableLater() {
+		// the order matters: the fetchers are checked before the queue, because a fetcher
+		// puts its last records into the queue before it becomes idle
+		final boolean allFetchersHaveShutdown = splitFetcherManager.maybeShutdownFinishedFetchers();
+		if (noMoreSplitsAssignment && allFetchersHaveShutdown && elementsQueue.isEmpty()) {
+			return InputStatus.END_OF_INPUT;
+		} else {
+			return InputStatus.NOTHING_AVAILABLE;
+		}
+	}
+
+	/**
+	 * A container class that holds the state and the split local output of a split.
+	 */
+	private static final class SplitContext<T, SplitStateT> {
+
+		final String splitId;
+
+		final SplitStateT state;
+
+		@Nullable
+		SourceOutput<T> sourceOutput;
+
+		private SplitContext(String splitId, SplitStateT state) {
+			this.splitId = splitId;
+			this.state = state;
+		}
+
+		SourceOutput<T> getOrCreateSplitOutput(ReaderOutput<T> mainOutput) {
+			if (sourceOutput == null) {
+				sourceOutput = mainOutput.createOutputForSplit(splitId);
+			}
+			return sourceOutput;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.reader.fetcher;
+
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitReader;
+import org.apache.flink.connector.base.source.reader.synchronization.FutureCompletingBlockingQueue;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * The default fetch task that fetches the records into the element queue.
+ */
+class FetchTask<E, SplitT extends SourceSplit> implements SplitFetcherTask {
+
+	private final int fetcherIndex;
+
+	private final SplitReader<E, SplitT> splitReader;
+
+	private final FutureCompletingBlockingQueue<RecordsWithSplitIds<E>> elementsQueue;
+
+	private final Consumer<Collection<String>> splitFinishedCallback;
+
+	/** The records which have been fetched, but not yet handed over to the element queue. */
+	private RecordsWithSplitIds<E> lastRecords;
+
+	private volatile boolean wakeup;
+
+	FetchTask(
+			int fetcherIndex,
+			SplitReader<E, SplitT> splitReader,
+			FutureCompletingBlockingQueue<RecordsWithSplitIds<E>> elementsQueue,
+			Consumer<Collection<String>> splitFinishedCallback) {
+		this.fetcherIndex = fetcherIndex;
+		this.splitReader = splitReader;
+		this.elementsQueue = elementsQueue;
+		this.splitFinishedCallback = splitFinishedCallback;
+		this.lastRecords = null;
+		this.wakeup = false;
+	}
+
+	@Override
+	public boolean run() throws IOException, InterruptedException {
+		if (lastRecords == null) {
+			if (wakeup) {
+				return false;
+			}
+			lastRecords = splitReader.fetch();
+		}
+
+		if (!lastRecords.splitIds().isEmpty() || !lastRecords.finishedSplits().isEmpty()) {
+			// the put is interrupted by a wake up, the records are put again in the next run
+			if (!elementsQueue.put(fetcherIndex, lastRecords)) {
+				return false;
+			}
+		}
+
+		final Collection<String> finishedSplits = lastRecords.finishedSplits();
+		lastRecords = null;
+		if (!finishedSplits.isEmpty()) {
+			splitFinishedCallback.accept(finishedSplits);
+		}
+		return true;
+	}
+
+	@Override
+	public void wakeUp() {
+		wakeup = true;
+		splitReader.wakeUp();
+		elementsQueue.wakeUpPuttingThread(fetcherIndex);
+	}
+
+	/**
+	 * Clears a wake up of a previous run. Called by the fetcher thread before it runs this task again.
+	 */
+	void resetWakeUp() {
+		wakeup = false;
+	}
+
+	@Override
+	public String toString() {
+		return "FetchTask";
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.reader.fetcher;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitReader;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitsChange;
+import org.apache.flink.connector.base.source.reader.synchronization.FutureCompletingBlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The internal fetcher runnable responsible for polling message from the external system.
+ *
+ * <p>The fetcher runs the tasks of its task queue one by one, with the split changes taking
+ * precedence over fetching. While there are splits assigned, the fetcher fetches records from
+ * them whenever there is no other task to run. A running fetch is woken up when a new task is
+ * enqueued, so that split changes are handled promptly even if the fetch blocks. A fetcher without
+ * splits and tasks waits, and is shut down by the {@link SplitFetcherManager} once it is idle.
+ */
+public class SplitFetcher<E, SplitT extends SourceSplit> implements Runnable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SplitFetcher.class);
+
+	private final int id;
+
+	private final SplitReader<E, SplitT> splitReader;
+
+	private final Runnable shutdownHook;
+
+	private final FetchTask<E, SplitT> fetchTask;
+
+	/** The splits assigned to this fetcher, only modified by the fetcher thread. */
+	private final Map<String, SplitT> assignedSplits;
+
+	/** The split changes not yet handled by the split reader, only accessed by the fetcher thread. */
+	private final Queue<SplitsChange<SplitT>> splitChanges;
+
+	private final ReentrantLock lock;
+
+	private final Condition nonEmpty;
+
+	/** The tasks to run, guarded by the lock. */
+	private final Deque<SplitFetcherTask> taskQueue;
+
+	/** The task which is currently run by the fetcher thread, guarded by the lock. */
+	@Nullable
+	private SplitFetcherTask runningTask;
+
+	private volatile boolean closed;
+
+	SplitFetcher(
+			int id,
+			FutureCompletingBlockingQueue<RecordsWithSplitIds<E>> elementsQueue,
+			SplitReader<E, SplitT> splitReader,
+			Runnable shutdownHook) {
+		this.id = id;
+		this.splitReader = splitReader;
+		this.shutdownHook = shutdownHook;
+		this.assignedSplits = new ConcurrentHashMap<>();
+		this.splitChanges = new ArrayDeque<>();
+		this.lock = new ReentrantLock();
+		this.nonEmpty = lock.newCondition();
+		this.taskQueue = new ArrayDeque<>();
+		this.fetchTask = new FetchTask<>(
+			id,
+			splitReader,
+			elementsQueue,
+			finishedSplits -> finishedSplits.forEach(assignedSplits::remove));
+	}
+
+	@Override
+	public void run() {
+		LOG.info("Starting split fetcher {}", id);
+		try {
+			while (!closed) {
+				runOnce();
+			}
+		} catch (InterruptedException e) {
+			if (!closed) {
+				throw new RuntimeException("Split fetcher " + id + " was interrupted unexpectedly.", e);
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("Split fetcher " + id + " failed.", e);
+		} finally {
+			try {
+				splitReader.close();
+			} catch (Exception e) {
+				LOG.warn("Failed to close the split reader of split fetcher {}.", id, e);
+			}
+			shutdownHook.run();
+			LOG.info("Split fetcher {} exited.", id);
+		}
+	}
+
+	/**
+	 * Package private method to help unit test.
+	 */
+	void runOnce() throws Exception {
+		final SplitFetcherTask task;
+		lock.lockInterruptibly();
+		try {
+			while (!closed && taskQueue.isEmpty() && assignedSplits.isEmpty()) {
+				nonEmpty.await();
+			}
+			if (closed) {
+				return;
+			}
+			if (taskQueue.isEmpty()) {
+				fetchTask.resetWakeUp();
+				task = fetchTask;
+			} else {
+				task = taskQueue.poll();
+			}
+			runningTask = task;
+		} finally {
+			lock.unlock();
+		}
+
+		boolean finished = false;
+		try {
+			finished = task.run();
+		} finally {
+			lock.lock();
+			try {
+				runningTask = null;
+				// the fetch task is run whenever there are splits, any other task is
+				// run again until it has finished
+				if (!finished && task != fetchTask && !closed) {
+					taskQueue.addFirst(task);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Add splits to the split fetcher. This operation is asynchronous.
+	 *
+	 * @param splitsToAdd the splits to add.
+	 */
+	public void addSplits(List<SplitT> splitsToAdd) {
+		enqueueTask(new AddSplitsTask<>(splitReader, splitsToAdd, splitChanges, assignedSplits));
+	}
+
+	/**
+	 * Shutdown the split fetcher.
+	 */
+	public void shutdown() {
+		lock.lock();
+		try {
+			if (!closed) {
+				LOG.info("Shutting down split fetcher {}", id);
+				closed = true;
+				nonEmpty.signalAll();
+				if (runningTask != null) {
+					runningTask.wakeUp();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Package private for unit test.
+	 *
+	 * @return the assigned splits.
+	 */
+	@VisibleForTesting
+	Map<String, SplitT> assignedSplits() {
+		return assignedSplits;
+	}
+
+	/**
+	 * Checks whether the fetcher has neither splits nor tasks, so that it can be shut down.
+	 *
+	 * @return true if the fetcher is idle, false otherwise.
+	 */
+	boolean isIdle() {
+		lock.lock();
+		try {
+			return taskQueue.isEmpty() && assignedSplits.isEmpty() && runningTask == null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@VisibleForTesting
+	boolean isClosed() {
+		return closed;
+	}
+
+	private void enqueueTask(SplitFetcherTask task) {
+		lock.lock();
+		try {
+			taskQueue.add(task);
+			nonEmpty.signal();
+			// wake up a running fetch so that the task is run promptly
+			if (runningTask == fetchTask) {
+				fetchTask.wakeUp();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+}
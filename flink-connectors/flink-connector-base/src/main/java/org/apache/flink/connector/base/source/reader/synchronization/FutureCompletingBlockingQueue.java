@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.reader.synchronization;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A bounded blocking queue that hands elements over from the fetcher threads to the task thread.
+ * Whenever an element is put into the queue, the {@link FutureNotifier} is notified, which
+ * completes the availability future the task thread waits on. That way the task thread never
+ * blocks on the queue, but is woken up through its mailbox when new data arrives.
+ *
+ * <p>A fetcher thread that is blocked in {@link #put(int, Object)} because the queue is full can be
+ * woken up with {@link #wakeUpPuttingThread(int)}, for example to handle a split change.
+ *
+ * @param <T> the type of the elements in the queue.
+ */
+public class FutureCompletingBlockingQueue<T> {
+
+	private final FutureNotifier futureNotifier;
+
+	private final int capacity;
+
+	private final ReentrantLock lock;
+
+	private final Condition notFull;
+
+	/** The elements, guarded by the lock. */
+	private final Queue<T> queue;
+
+	/** The indexes of the putting threads which should stop waiting for capacity, guarded by the lock. */
+	private final Set<Integer> wakeUpFlags;
+
+	public FutureCompletingBlockingQueue(FutureNotifier futureNotifier, int capacity) {
+		checkArgument(capacity > 0, "capacity must be positive");
+		this.futureNotifier = checkNotNull(futureNotifier);
+		this.capacity = capacity;
+		this.lock = new ReentrantLock();
+		this.notFull = lock.newCondition();
+		this.queue = new ArrayDeque<>(capacity);
+		this.wakeUpFlags = new HashSet<>();
+	}
+
+	/**
+	 * Puts the element into the queue, waiting for capacity if the queue is full. Notifies the
+	 * {@link FutureNotifier} once the element is in the queue.
+	 *
+	 * @param threadIndex the index of the putting thread.
+	 * @param element the element to put.
+	 * @return true if the element was put, false if the thread was woken up before it could
+	 *         put the element.
+	 * @throws InterruptedException if the thread was interrupted while waiting for capacity.
+	 */
+	public boolean put(int threadIndex, T element) throws InterruptedException {
+		checkNotNull(element);
+		lock.lockInterruptibly();
+		try {
+			while (queue.size() >= capacity) {
+				if (wakeUpFlags.remove(threadIndex)) {
+					return false;
+				}
+				notFull.await();
+			}
+			// a wake up which arrives while there is capacity is not needed any more
+			wakeUpFlags.remove(threadIndex);
+			queue.add(element);
+		} finally {
+			lock.unlock();
+		}
+		futureNotifier.notifyComplete();
+		return true;
+	}
+
+	/**
+	 * Wakes up the thread with the given index if it is waiting in {@link #put(int, Object)}, or
+	 * makes the next wait of that thread return immediately.
+	 *
+	 * @param threadIndex the index of the thread to wake up.
+	 */
+	public void wakeUpPuttingThread(int threadIndex) {
+		lock.lock();
+		try {
+			wakeUpFlags.add(threadIndex);
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves and removes the head of the queue, without blocking.
+	 *
+	 * @return the head of the queue, or null if the queue is empty.
+	 */
+	@Nullable
+	public T poll() {
+		lock.lock();
+		try {
+			final T element = queue.poll();
+			if (element != null) {
+				notFull.signalAll();
+			}
+			return element;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves, but does not remove, the head of the queue.
+	 *
+	 * @return the head of the queue, or null if the queue is empty.
+	 */
+	@Nullable
+	public T peek() {
+		lock.lock();
+		try {
+			return queue.peek();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public boolean isEmpty() {
+		lock.lock();
+		try {
+			return queue.isEmpty();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return queue.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+}
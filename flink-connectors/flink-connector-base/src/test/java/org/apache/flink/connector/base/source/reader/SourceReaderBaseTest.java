@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.reader;
+
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.SourceReaderContext;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.base.source.reader.mocks.MockSourceReader;
+import org.apache.flink.connector.base.source.reader.mocks.MockSplitReader;
+import org.apache.flink.connector.base.source.reader.mocks.TestingReaderOutput;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitReader;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitsChange;
+import org.apache.flink.connector.base.source.reader.synchronization.FutureCompletingBlockingQueue;
+import org.apache.flink.connector.base.source.reader.synchronization.FutureNotifier;
+import org.apache.flink.core.io.InputStatus;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link SourceReaderBase}.
+ */
+public class SourceReaderBaseTest extends TestLogger {
+
+	private static final int NUM_SPLITS = 10;
+	private static final int NUM_RECORDS_PER_SPLIT = 10;
+	private static final int TOTAL_NUM_RECORDS = NUM_SPLITS * NUM_RECORDS_PER_SPLIT;
+
+	@Test
+	public void testRead() throws Exception {
+		final MockSourceReader reader = createReader(() -> new MockSplitReader(2, true));
+		reader.start();
+
+		final List<MockSourceSplit> splits = getSplits(NUM_SPLITS, NUM_RECORDS_PER_SPLIT);
+		reader.addSplits(splits);
+		reader.notifyNoMoreSplits();
+
+		final TestingReaderOutput<Integer> output = new TestingReaderOutput<>();
+		readUntilEndOfInput(reader, output);
+
+		final Set<Integer> records = new HashSet<>(output.getEmittedRecords());
+		assertEquals(TOTAL_NUM_RECORDS, output.getEmittedRecords().size());
+		assertEquals(TOTAL_NUM_RECORDS, records.size());
+		for (int i = 0; i < TOTAL_NUM_RECORDS; i++) {
+			assertTrue(records.contains(i));
+		}
+
+		// all the splits are finished and their outputs released.
+		assertEquals(NUM_SPLITS, reader.getFinishedSplitIds().size());
+		assertTrue(output.getActiveSplitOutputs().isEmpty());
+		assertEquals(NUM_SPLITS, output.getReleasedSplitOutputs().size());
+		assertTrue(reader.snapshotState().isEmpty());
+		reader.close();
+	}
+
+	@Test
+	public void testNothingAvailableBeforeNoMoreSplits() throws Exception {
+		final MockSourceReader reader = createReader(() -> new MockSplitReader(2, true));
+		reader.start();
+		reader.addSplits(getSplits(1, NUM_RECORDS_PER_SPLIT));
+
+		final TestingReaderOutput<Integer> output = new TestingReaderOutput<>();
+		while (output.getEmittedRecords().size() < NUM_RECORDS_PER_SPLIT) {
+			if (reader.pollNext(output) == InputStatus.NOTHING_AVAILABLE) {
+				reader.isAvailable().get(10, TimeUnit.SECONDS);
+			}
+		}
+
+		// the reader does not finish as long as more splits may be assigned.
+		assertEquals(InputStatus.NOTHING_AVAILABLE, reader.pollNext(output));
+		reader.notifyNoMoreSplits();
+		readUntilEndOfInput(reader, output);
+		assertEquals(NUM_RECORDS_PER_SPLIT, output.getEmittedRecords().size());
+		reader.close();
+	}
+
+	@Test
+	public void testSnapshotState() throws Exception {
+		final FutureNotifier futureNotifier = new FutureNotifier();
+		final FutureCompletingBlockingQueue<RecordsWithSplitIds<int[]>> elementsQueue =
+			new FutureCompletingBlockingQueue<>(futureNotifier, 1);
+		final MockSourceReader reader = new MockSourceReader(
+			futureNotifier,
+			elementsQueue,
+			() -> new MockSplitReader(2, true),
+			getConfig(),
+			new TestingSourceReaderContext());
+		reader.start();
+
+		final List<MockSourceSplit> splits = getSplits(2, NUM_RECORDS_PER_SPLIT);
+		reader.addSplits(splits);
+		// the split states are in the snapshot right after the splits are added.
+		assertEquals(splits, reader.snapshotState());
+
+		final TestingReaderOutput<Integer> output = new TestingReaderOutput<>();
+		// read the first fetch, which contains two records of each split.
+		while (output.getEmittedRecords().size() < 4) {
+			if (reader.pollNext(output) == InputStatus.NOTHING_AVAILABLE) {
+				reader.isAvailable().get(10, TimeUnit.SECONDS);
+			}
+		}
+
+		final List<MockSourceSplit> snapshot = new ArrayList<>(reader.snapshotState());
+		snapshot.sort((s1, s2) -> s1.splitId().compareTo(s2.splitId()));
+		assertEquals(
+			Arrays.asList(
+				new MockSourceSplit(0, 2, NUM_RECORDS_PER_SPLIT),
+				new MockSourceSplit(1, NUM_RECORDS_PER_SPLIT + 2, 2 * NUM_RECORDS_PER_SPLIT)),
+			snapshot);
+		reader.close();
+	}
+
+	@Test
+	public void testExceptionInSplitReader() throws Exception {
+		final String errMsg = "Testing Exception";
+		final MockSourceReader reader = createReader(() -> new SplitReader<int[], MockSourceSplit>() {
+			@Override
+			public RecordsWithSplitIds<int[]> fetch() throws IOException {
+				throw new IOException(errMsg);
+			}
+
+			@Override
+			public void handleSplitsChanges(Queue<SplitsChange<MockSourceSplit>> splitsChanges) {
+				splitsChanges.clear();
+			}
+
+			@Override
+			public void wakeUp() {}
+		});
+		reader.start();
+		reader.addSplits(getSplits(1, NUM_RECORDS_PER_SPLIT));
+
+		final TestingReaderOutput<Integer> output = new TestingReaderOutput<>();
+		try {
+			while (true) {
+				if (reader.pollNext(output) == InputStatus.NOTHING_AVAILABLE) {
+					reader.isAvailable().get(10, TimeUnit.SECONDS);
+				}
+			}
+		} catch (RuntimeException e) {
+			assertTrue(ExceptionUtils.findThrowableWithMessage(e, errMsg).isPresent());
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testCloseStopsFetchers() throws Exception {
+		final List<MockSplitReader> splitReaders = new ArrayList<>();
+		final MockSourceReader reader = createReader(() -> {
+			final MockSplitReader splitReader = new MockSplitReader(2, true);
+			splitReaders.add(splitReader);
+			return splitReader;
+		});
+		reader.start();
+		// a split which never finishes keeps the fetcher running.
+		reader.addSplits(Collections.singletonList(new MockSourceSplit(0)));
+
+		reader.close();
+		assertEquals(1, splitReaders.size());
+		assertTrue(splitReaders.get(0).isClosed());
+	}
+
+	// ---------------- helper methods -----------------
+
+	private static MockSourceReader createReader(Supplier<SplitReader<int[], MockSourceSplit>> splitReaderSupplier) {
+		final FutureNotifier futureNotifier = new FutureNotifier();
+		final FutureCompletingBlockingQueue<RecordsWithSplitIds<int[]>> elementsQueue =
+			new FutureCompletingBlockingQueue<>(futureNotifier, 2);
+		return new MockSourceReader(
+			futureNotifier,
+			elementsQueue,
+			splitReaderSupplier,
+			getConfig(),
+			new TestingSourceReaderContext());
+	}
+
+	private static void readUntilEndOfInput(MockSourceReader reader, TestingReaderOutput<Integer> output) throws Exception {
+		InputStatus status;
+		while ((status = reader.pollNext(output)) != InputStatus.END_OF_INPUT) {
+			if (status == InputStatus.NOTHING_AVAILABLE) {
+				reader.isAvailable().get(10, TimeUnit.SECONDS);
+			}
+		}
+	}
+
+	private static List<MockSourceSplit> getSplits(int numSplits, int numRecordsPerSplit) {
+		final List<MockSourceSplit> splits = new ArrayList<>();
+		for (int i = 0; i < numSplits; i++) {
+			splits.add(new MockSourceSplit(i, i * numRecordsPerSplit, (i + 1) * numRecordsPerSplit));
+		}
+		return splits;
+	}
+
+	private static Configuration getConfig() {
+		final Configuration config = new Configuration();
+		config.setLong(SourceReaderOptions.SOURCE_READER_CLOSE_TIMEOUT, 30000L);
+		return config;
+	}
+
+	/**
+	 * A {@link SourceReaderContext} for the tests, which ignores the communication with the enumerator.
+	 */
+	private static class TestingSourceReaderContext implements SourceReaderContext {
+
+		@Override
+		public MetricGroup metricGroup() {
+			return new UnregisteredMetricsGroup();
+		}
+
+		@Override
+		public int getIndexOfSubtask() {
+			return 0;
+		}
+
+		@Override
+		public void sendSplitRequest() {}
+
+		@Override
+		public void sendSourceEventToCoordinator(SourceEvent sourceEvent) {}
+	}
+}
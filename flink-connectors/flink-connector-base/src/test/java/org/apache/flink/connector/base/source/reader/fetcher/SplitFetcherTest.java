@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.reader.fetcher;
+
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.connector.base.source.reader.mocks.MockSplitReader;
+import org.apache.flink.connector.base.source.reader.synchronization.FutureCompletingBlockingQueue;
+import org.apache.flink.connector.base.source.reader.synchronization.FutureNotifier;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link SplitFetcher}.
+ */
+public class SplitFetcherTest extends TestLogger {
+
+	private static final int NUM_RECORDS_PER_SPLIT = 10;
+
+	@Test
+	public void testNewFetcherIsIdle() {
+		final SplitFetcher<int[], MockSourceSplit> fetcher = createFetcher(new MockSplitReader(1, true), 2);
+		assertTrue(fetcher.isIdle());
+	}
+
+	@Test
+	public void testFetchAndFinishSplit() throws Exception {
+		final FutureCompletingBlockingQueue<RecordsWithSplitIds<int[]>> elementsQueue =
+			new FutureCompletingBlockingQueue<>(new FutureNotifier(), 10);
+		final SplitFetcher<int[], MockSourceSplit> fetcher = new SplitFetcher<>(
+			0, elementsQueue, new MockSplitReader(NUM_RECORDS_PER_SPLIT / 2, true), () -> {});
+
+		fetcher.addSplits(Collections.singletonList(new MockSourceSplit(0, 0, NUM_RECORDS_PER_SPLIT)));
+		assertFalse(fetcher.isIdle());
+
+		// the first run adds the split.
+		fetcher.runOnce();
+		assertEquals(Collections.singleton("0"), fetcher.assignedSplits().keySet());
+		assertTrue(elementsQueue.isEmpty());
+
+		// the two following runs fetch the records of the split, and finish the split.
+		fetcher.runOnce();
+		fetcher.runOnce();
+		assertTrue(fetcher.assignedSplits().isEmpty());
+		assertTrue(fetcher.isIdle());
+
+		final List<Integer> records = new ArrayList<>();
+		final Set<String> finishedSplits = new HashSet<>();
+		RecordsWithSplitIds<int[]> fetch;
+		while ((fetch = elementsQueue.poll()) != null) {
+			fetch.recordsBySplits().get("0").forEach(r -> records.add(r[0]));
+			finishedSplits.addAll(fetch.finishedSplits());
+		}
+		assertEquals(NUM_RECORDS_PER_SPLIT, records.size());
+		assertEquals(Collections.singleton("0"), finishedSplits);
+	}
+
+	@Test
+	public void testWakeUpBlockingPutToAddSplits() throws Exception {
+		final FutureCompletingBlockingQueue<RecordsWithSplitIds<int[]>> elementsQueue =
+			new FutureCompletingBlockingQueue<>(new FutureNotifier(), 1);
+		final AtomicBoolean fetcherExited = new AtomicBoolean(false);
+		final SplitFetcher<int[], MockSourceSplit> fetcher = new SplitFetcher<>(
+			0, elementsQueue, new MockSplitReader(1, true), () -> fetcherExited.set(true));
+
+		final Thread fetcherThread = new Thread(fetcher, "FetcherThread");
+		fetcherThread.start();
+		try {
+			// a split that never ends, so the fetcher will block on the full element queue.
+			fetcher.addSplits(Collections.singletonList(new MockSourceSplit(0)));
+			while (elementsQueue.isEmpty()) {
+				Thread.sleep(1);
+			}
+
+			// the fetcher is woken up from the blocking put to add the new split.
+			fetcher.addSplits(Collections.singletonList(new MockSourceSplit(1, 0, NUM_RECORDS_PER_SPLIT)));
+			while (fetcher.assignedSplits().size() < 2) {
+				Thread.sleep(1);
+			}
+		} finally {
+			fetcher.shutdown();
+			fetcherThread.join();
+		}
+		assertTrue(fetcher.isClosed());
+		assertTrue(fetcherExited.get());
+	}
+
+	@Test
+	public void testShutdownWakesUpBlockingFetch() throws Exception {
+		final MockSplitReader splitReader = new MockSplitReader(1, true);
+		final SplitFetcher<int[], MockSourceSplit> fetcher = createFetcher(splitReader, 2);
+
+		final Thread fetcherThread = new Thread(fetcher, "FetcherThread");
+		fetcherThread.start();
+		fetcher.shutdown();
+		fetcherThread.join();
+
+		assertTrue(splitReader.isClosed());
+	}
+
+	@Test
+	public void testSplitFetcherManagerRemovesIdleFetchers() throws Exception {
+		final FutureNotifier futureNotifier = new FutureNotifier();
+		final FutureCompletingBlockingQueue<RecordsWithSplitIds<int[]>> elementsQueue =
+			new FutureCompletingBlockingQueue<>(futureNotifier, 10);
+		final SingleThreadFetcherManager<int[], MockSourceSplit> fetcherManager =
+			new SingleThreadFetcherManager<>(futureNotifier, elementsQueue, () -> new MockSplitReader(NUM_RECORDS_PER_SPLIT, true));
+		try {
+			fetcherManager.addSplits(Collections.singletonList(new MockSourceSplit(0, 0, NUM_RECORDS_PER_SPLIT)));
+			assertEquals(1, fetcherManager.getNumberOfFetchers());
+
+			while (!fetcherManager.maybeShutdownFinishedFetchers()) {
+				Thread.sleep(1);
+			}
+			assertEquals(0, fetcherManager.getNumberOfFetchers());
+			assertNull(fetcherManager.getRunningFetcher());
+			fetcherManager.checkErrors();
+		} finally {
+			fetcherManager.close(30000L);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static SplitFetcher<int[], MockSourceSplit> createFetcher(MockSplitReader splitReader, int queueCapacity) {
+		final FutureCompletingBlockingQueue<RecordsWithSplitIds<int[]>> elementsQueue =
+			new FutureCompletingBlockingQueue<>(new FutureNotifier(), queueCapacity);
+		return new SplitFetcher<>(0, elementsQueue, splitReader, () -> {});
+	}
+}
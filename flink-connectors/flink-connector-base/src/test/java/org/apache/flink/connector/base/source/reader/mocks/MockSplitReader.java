@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.reader.mocks;
+
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.connector.base.source.reader.RecordsBySplits;
+import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitReader;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitsAddition;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitsChange;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * A mock split reader for the unit tests. Each record is an int array holding the record value
+ * and the index of the next record in the split.
+ */
+public class MockSplitReader implements SplitReader<int[], MockSourceSplit> {
+
+	private final Map<String, MockSourceSplit> splits = new LinkedHashMap<>();
+	private final int numRecordsPerSplitPerFetch;
+	private final boolean blockingFetch;
+
+	private volatile boolean wakenUp;
+	private volatile boolean closed;
+
+	public MockSplitReader(int numRecordsPerSplitPerFetch, boolean blockingFetch) {
+		this.numRecordsPerSplitPerFetch = numRecordsPerSplitPerFetch;
+		this.blockingFetch = blockingFetch;
+	}
+
+	@Override
+	public RecordsWithSplitIds<int[]> fetch() {
+		final RecordsBySplits<int[]> records = new RecordsBySplits<>();
+		if (splits.isEmpty() && blockingFetch) {
+			// block until waken up
+			synchronized (this) {
+				try {
+					while (!wakenUp) {
+						wait();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				wakenUp = false;
+			}
+			return records;
+		}
+
+		final Iterator<Map.Entry<String, MockSourceSplit>> iterator = splits.entrySet().iterator();
+		while (iterator.hasNext()) {
+			final Map.Entry<String, MockSourceSplit> entry = iterator.next();
+			final MockSourceSplit split = entry.getValue();
+			for (int i = 0; i < numRecordsPerSplitPerFetch && !split.isFinished(); i++) {
+				final int record = split.getNext();
+				records.add(entry.getKey(), new int[] {record, split.index()});
+			}
+			if (split.isFinished()) {
+				records.addFinishedSplit(entry.getKey());
+				iterator.remove();
+			}
+		}
+		return records;
+	}
+
+	@Override
+	public void handleSplitsChanges(Queue<SplitsChange<MockSourceSplit>> splitsChanges) {
+		SplitsChange<MockSourceSplit> splitsChange;
+		while ((splitsChange = splitsChanges.poll()) != null) {
+			if (splitsChange instanceof SplitsAddition) {
+				// copy the splits, as the reader advances them while the originals belong to the caller
+				splitsChange.splits().forEach(s -> splits.put(
+					s.splitId(), new MockSourceSplit(Integer.parseInt(s.splitId()), s.index(), s.endIndex())));
+			} else {
+				throw new IllegalArgumentException("Unsupported split change " + splitsChange);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void wakeUp() {
+		wakenUp = true;
+		notifyAll();
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+}
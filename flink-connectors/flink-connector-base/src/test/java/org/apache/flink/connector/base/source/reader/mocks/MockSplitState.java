@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.reader.mocks;
+
+/**
+ * The mutable state of a {@link org.apache.flink.api.connector.source.mocks.MockSourceSplit}
+ * kept by the {@link MockSourceReader}.
+ */
+public class MockSplitState {
+
+	private final int endIndex;
+	private int nextIndex;
+
+	public MockSplitState(int nextIndex, int endIndex) {
+		this.nextIndex = nextIndex;
+		this.endIndex = endIndex;
+	}
+
+	public void setNextIndex(int nextIndex) {
+		this.nextIndex = nextIndex;
+	}
+
+	public int getNextIndex() {
+		return nextIndex;
+	}
+
+	public int getEndIndex() {
+		return endIndex;
+	}
+}
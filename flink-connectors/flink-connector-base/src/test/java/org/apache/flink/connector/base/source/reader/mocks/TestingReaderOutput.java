@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.reader.mocks;
+
+import org.apache.flink.api.connector.source.ReaderOutput;
+import org.apache.flink.api.connector.source.SourceOutput;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link ReaderOutput} for the unit tests which collects the emitted records of all splits
+ * and keeps track of the split outputs.
+ */
+public class TestingReaderOutput<E> implements ReaderOutput<E> {
+
+	private final List<E> emittedRecords = new ArrayList<>();
+	private final Set<String> activeSplitOutputs = new HashSet<>();
+	private final Set<String> releasedSplitOutputs = new HashSet<>();
+
+	@Override
+	public void collect(E record) {
+		emittedRecords.add(record);
+	}
+
+	@Override
+	public void collect(E record, long timestamp) {
+		emittedRecords.add(record);
+	}
+
+	@Override
+	public void emitWatermark(long timestamp) {}
+
+	@Override
+	public void markIdle() {}
+
+	@Override
+	public SourceOutput<E> createOutputForSplit(String splitId) {
+		activeSplitOutputs.add(splitId);
+		return this;
+	}
+
+	@Override
+	public void releaseOutputForSplit(String splitId) {
+		activeSplitOutputs.remove(splitId);
+		releasedSplitOutputs.add(splitId);
+	}
+
+	public List<E> getEmittedRecords() {
+		return emittedRecords;
+	}
+
+	public Set<String> getActiveSplitOutputs() {
+		return activeSplitOutputs;
+	}
+
+	public Set<String> getReleasedSplitOutputs() {
+		return releasedSplitOutputs;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.reader.synchronization;
+
+import org.apache.flink.core.testutils.CheckedThread;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link FutureCompletingBlockingQueue}.
+ */
+public class FutureCompletingBlockingQueueTest extends TestLogger {
+
+	@Test
+	public void testPutCompletesFuture() throws Exception {
+		final FutureNotifier futureNotifier = new FutureNotifier();
+		final FutureCompletingBlockingQueue<Integer> queue = new FutureCompletingBlockingQueue<>(futureNotifier, 2);
+
+		final CompletableFuture<Void> future = futureNotifier.future();
+		assertFalse(future.isDone());
+		assertTrue(queue.put(0, 1234));
+		assertTrue(future.isDone());
+
+		assertEquals(1, queue.size());
+		assertEquals(1234, (int) queue.peek());
+		assertEquals(1234, (int) queue.poll());
+		assertTrue(queue.isEmpty());
+		assertNull(queue.poll());
+	}
+
+	@Test
+	public void testPutBlocksUntilCapacityIsAvailable() throws Exception {
+		final FutureCompletingBlockingQueue<Integer> queue = new FutureCompletingBlockingQueue<>(new FutureNotifier(), 1);
+		queue.put(0, 1);
+
+		final CheckedThread putThread = new CheckedThread() {
+			@Override
+			public void go() throws Exception {
+				assertTrue(queue.put(0, 2));
+			}
+		};
+		putThread.start();
+
+		while (putThread.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+		assertEquals(1, queue.size());
+
+		assertEquals(1, (int) queue.poll());
+		putThread.sync();
+		assertEquals(2, (int) queue.poll());
+	}
+
+	@Test
+	public void testWakeUpPuttingThread() throws Exception {
+		final FutureCompletingBlockingQueue<Integer> queue = new FutureCompletingBlockingQueue<>(new FutureNotifier(), 1);
+		queue.put(0, 1);
+
+		final CheckedThread putThread = new CheckedThread() {
+			@Override
+			public void go() throws Exception {
+				assertFalse(queue.put(0, 2));
+			}
+		};
+		putThread.start();
+
+		while (putThread.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+		queue.wakeUpPuttingThread(0);
+		putThread.sync();
+
+		// the element was not put.
+		assertEquals(1, queue.size());
+	}
+
+	@Test
+	public void testWakeUpWithCapacityIsDropped() throws Exception {
+		final FutureCompletingBlockingQueue<Integer> queue = new FutureCompletingBlockingQueue<>(new FutureNotifier(), 1);
+		queue.wakeUpPuttingThread(0);
+
+		// a wake up that is not needed does not affect later puts.
+		assertTrue(queue.put(0, 1));
+		queue.poll();
+		assertTrue(queue.put(0, 2));
+	}
+}
@@ -116,6 +116,9 @@ public class HiveTableInputFormat extends HadoopInputFormatCommonBase<BaseRow, H
 		if (!useMapRedReader && useOrcVectorizedRead(split.getHiveTablePartition())) {
 			this.reader = new HiveVectorizedOrcSplitReader(
 					hiveVersion, jobConf, fieldNames, fieldTypes, selectedFields, split);
+		} else if (!useMapRedReader && useParquetVectorizedRead(split.getHiveTablePartition())) {
+			this.reader = new HiveVectorizedParquetSplitReader(
+					hiveVersion, jobConf, fieldNames, fieldTypes, selectedFields, split);
 		} else {
 			this.reader = new HiveMapredSplitReader(jobConf, partitionKeys, fieldTypes, selectedFields, split,
 					HiveShimLoader.loadHiveShim(hiveVersion));
@@ -126,10 +129,26 @@ public class HiveTableInputFormat extends HadoopInputFormatCommonBase<BaseRow, H
 	private boolean useOrcVectorizedRead(HiveTablePartition partition) {
 		boolean isOrc = partition.getStorageDescriptor().getSerdeInfo().getSerializationLib()
 				.toLowerCase().contains("orc");
-		if (!isOrc) {
+		if (!isOrc || !isVectorizationSupported()) {
 			return false;
 		}
 
+		LOG.info("Use flink orc ColumnarRow reader.");
+		return true;
+	}
+
+	private boolean useParquetVectorizedRead(HiveTablePartition partition) {
+		boolean isParquet = partition.getStorageDescriptor().getSerdeInfo().getSerializationLib()
+				.toLowerCase().contains("parquet");
+		if (!isParquet || !isVectorizationSupported()) {
+			return false;
+		}
+
+		LOG.info("Use flink parquet ColumnarRow reader.");
+		return true;
+	}
+
+	private boolean isVectorizationSupported() {
 		for (int i : selectedFields) {
 			switch (fieldTypes[i].getLogicalType().getTypeRoot()) {
 				case CHAR:
@@ -166,8 +185,6 @@ public class HiveTableInputFormat extends HadoopInputFormatCommonBase<BaseRow, H
 					return false;
 			}
 		}
-
-		LOG.info("Use flink orc ColumnarRow reader.");
 		return true;
 	}
 
@@ -158,6 +158,9 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 	/** This flag defines if we use compression for the state snapshot data or not. Default: false */
 	private boolean useSnapshotCompression = false;
 
+	/** This flag defines if operators that support it receive the due timers in batches. Default: false */
+	private boolean batchedTimers = false;
+
 	/**
 	 * @deprecated Should no longer be used because we would not support to let task directly fail on checkpoint error.
 	 */
@@ -956,6 +959,35 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 		this.useSnapshotCompression = useSnapshotCompression;
 	}
 
+	/**
+	 * Enables batched timers. Operators that support it, such as window and CEP operators, then receive the
+	 * due timers in batches ordered by key-group instead of one by one in the order of their timestamps.
+	 * Timers of the same key still fire in the order of their timestamps, but timers of different keys may
+	 * fire out of the order of their timestamps.
+	 */
+	public ExecutionConfig enableBatchedTimers() {
+		this.batchedTimers = true;
+		return this;
+	}
+
+	/**
+	 * Disables batched timers, so that all operators receive the due timers one by one in the order of their
+	 * timestamps. This is the default.
+	 */
+	public ExecutionConfig disableBatchedTimers() {
+		this.batchedTimers = false;
+		return this;
+	}
+
+	/**
+	 * Returns whether operators that support it receive the due timers in batches.
+	 *
+	 * @see #enableBatchedTimers()
+	 */
+	public boolean isBatchedTimersEnabled() {
+		return batchedTimers;
+	}
+
 	/**
 	 * @deprecated This method takes no effect since we would not forward the configuration from the checkpoint config
 	 * to the task, and we have not supported task to fail on checkpoint error.
@@ -1003,6 +1035,7 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 				registeredPojoTypes.equals(other.registeredPojoTypes) &&
 				taskCancellationIntervalMillis == other.taskCancellationIntervalMillis &&
 				useSnapshotCompression == other.useSnapshotCompression &&
+				batchedTimers == other.batchedTimers &&
 				defaultInputDependencyConstraint == other.defaultInputDependencyConstraint;
 
 		} else {
@@ -1031,6 +1064,7 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 			registeredPojoTypes,
 			taskCancellationIntervalMillis,
 			useSnapshotCompression,
+			batchedTimers,
 			defaultInputDependencyConstraint);
 	}
 
@@ -1057,6 +1091,7 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 			", taskCancellationIntervalMillis=" + taskCancellationIntervalMillis +
 			", taskCancellationTimeoutMillis=" + taskCancellationTimeoutMillis +
 			", useSnapshotCompression=" + useSnapshotCompression +
+			", batchedTimers=" + batchedTimers +
 			", failTaskOnCheckpointError=" + failTaskOnCheckpointError +
 			", defaultInputDependencyConstraint=" + defaultInputDependencyConstraint +
 			", globalJobParameters=" + globalJobParameters +
@@ -1195,6 +1230,8 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
 			.ifPresent(this::setTaskCancellationTimeout);
 		configuration.getOptional(ExecutionOptions.SNAPSHOT_COMPRESSION)
 			.ifPresent(this::setUseSnapshotCompression);
+		configuration.getOptional(ExecutionOptions.BATCHED_TIMERS)
+			.ifPresent(b -> this.batchedTimers = b);
 		RestartStrategies.fromConfiguration(configuration)
 			.ifPresent(this::setRestartStrategy);
 		configuration.getOptional(PipelineOptions.KRYO_DEFAULT_SERIALIZERS)
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.connector.source;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+/**
+ * The boundedness of a stream. A stream could either be "bounded" (a stream with finite records) or
+ * "unbounded" (a stream with infinite records).
+ */
+@PublicEvolving
+public enum Boundedness {
+
+	/**
+	 * A BOUNDED stream is a stream with finite records.
+	 *
+	 * <p>In the context of sources, a BOUNDED stream expects the source to put a boundary of the
+	 * records it emits. Such boundaries could be number of records, number of bytes, elapsed time,
+	 * and so on. The source finishes once it has reached the boundary.
+	 */
+	BOUNDED,
+
+	/**
+	 * A CONTINUOUS_UNBOUNDED stream is a stream with infinite records.
+	 *
+	 * <p>In the context of sources, a CONTINUOUS_UNBOUNDED stream expects the source implementation to
+	 * run without an upfront indication to Flink that they will eventually stop. The sources may
+	 * eventually be terminated when users cancel the jobs or some source-specific condition is met.
+	 */
+	CONTINUOUS_UNBOUNDED
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.connector.source;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+/**
+ * The interface provided by the Flink runtime to the {@link SourceReader} to emit records, and
+ * optionally watermarks, to downstream operators for message processing.
+ *
+ * <p>Readers which consume multiple splits in an interleaved fashion can create a dedicated
+ * {@link SourceOutput} per split via {@link #createOutputForSplit(String)}. The watermarks of the
+ * split local outputs are tracked individually, and the watermark of the reader only advances as
+ * far as the minimum watermark across all non-idle splits. That way, a split which is ahead in
+ * event time does not cause the records of a slower split to become late.
+ */
+@PublicEvolving
+public interface ReaderOutput<T> extends SourceOutput<T> {
+
+	/**
+	 * Creates a {@code SourceOutput} for a specific source split. The split local output has its
+	 * own watermark, which is combined with the watermarks of the other split local outputs.
+	 *
+	 * <p>When the split has been fully consumed, {@link #releaseOutputForSplit(String)} must be
+	 * called, so that the split does not hold back the watermark of the reader any more.
+	 *
+	 * @param splitId The id of the split for which to create the output.
+	 * @return The split local output.
+	 */
+	SourceOutput<T> createOutputForSplit(String splitId);
+
+	/**
+	 * Releases the {@code SourceOutput} created for the split with the given ID.
+	 *
+	 * @param splitId The id of the split to release.
+	 */
+	void releaseOutputForSplit(String splitId);
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.connector.source;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+/**
+ * The interface provided by the Flink runtime to the {@link SourceReader} to emit records, and
+ * optionally watermarks, to downstream operators for message processing.
+ *
+ * <p>Watermarks are interpreted per output: once a watermark with timestamp {@code t} has been
+ * emitted, the output promises that no more records with a timestamp {@code <= t} follow.
+ */
+@PublicEvolving
+public interface SourceOutput<T> {
+
+	/**
+	 * Emit a record without a timestamp. The record carries no timestamp.
+	 *
+	 * @param record the record to emit.
+	 */
+	void collect(T record);
+
+	/**
+	 * Emit a record with timestamp.
+	 *
+	 * @param record the record to emit.
+	 * @param timestamp the timestamp of the record.
+	 */
+	void collect(T record, long timestamp);
+
+	/**
+	 * Emits the given watermark. Watermarks that are not larger than a previously emitted
+	 * watermark are ignored.
+	 *
+	 * @param timestamp the timestamp of the watermark.
+	 */
+	void emitWatermark(long timestamp);
+
+	/**
+	 * Marks this output as idle, meaning that it does not hold back the event time progress of the
+	 * other outputs. The output becomes active again once it emits a record or a watermark.
+	 */
+	void markIdle();
+}
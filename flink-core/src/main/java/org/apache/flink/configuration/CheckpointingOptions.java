@@ -152,4 +152,17 @@ public class CheckpointingOptions {
 		.withDescription(String.format("The default size of the write buffer for the checkpoint streams that write to file systems. " +
 			"The actual write buffer size is determined to be the maximum of the value of this option and option '%s'.", FS_SMALL_FILE_THRESHOLD.key()));
 
+	/**
+	 * The maximum number of delta files of the incremental checkpoints of the heap keyed state backend that may
+	 * follow a file with all state, before a checkpoint writes all state again.
+	 */
+	@Documentation.Section(Documentation.Sections.EXPERT_STATE_BACKENDS)
+	public static final ConfigOption<Integer> FS_INCREMENTAL_MAX_DELTAS = ConfigOptions
+		.key("state.backend.fs.incremental.max-deltas")
+		.defaultValue(10)
+		.withDescription("The maximum number of delta files of the incremental checkpoints of the heap keyed state " +
+			"backend that may follow a file with all state. Once the chain of files gets longer, or the deltas get " +
+			"larger than the first file, a checkpoint writes all state again. Fewer deltas mean faster recovery, " +
+			"more deltas mean smaller checkpoints.");
+
 }
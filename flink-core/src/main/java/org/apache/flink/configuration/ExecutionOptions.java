@@ -55,4 +55,13 @@ public class ExecutionOptions {
 						"throughput")
 				)
 				.build());
+
+	public static final ConfigOption<Boolean> BATCHED_TIMERS =
+		ConfigOptions.key("execution.batched-timers")
+			.booleanType()
+			.defaultValue(false)
+			.withDescription("Tells if operators that support it, such as window and CEP operators, should receive " +
+				"the due timers in batches ordered by key-group instead of one by one in the order of their " +
+				"timestamps. Timers of the same key still fire in the order of their timestamps, but timers of " +
+				"different keys may fire out of the order of their timestamps.");
 }
@@ -69,14 +69,33 @@ public class NettyShuffleEnvironmentOptions {
 				" more effective for IO bounded scenario when data compression ratio is high. Currently, shuffle data " +
 				"compression is an experimental feature and the config option can be changed in the future.");
 
+	/**
+	 * Boolean flag indicating whether the shuffle data will be compressed for pipelined shuffle mode.
+	 *
+	 * <p>Note: Compressing pipelined shuffle data trades CPU cycles on the sender and the receiver for network
+	 * bandwidth, so it only pays off when the network is the bottleneck. Currently, shuffle data compression is an
+	 * experimental feature and the config option can be changed in the future.
+	 */
+	@Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+	public static final ConfigOption<Boolean> PIPELINED_SHUFFLE_COMPRESSION_ENABLED =
+		key("taskmanager.network.pipelined-shuffle.compression.enabled")
+			.defaultValue(false)
+			.withDescription("Boolean flag indicating whether the shuffle data will be compressed for pipelined shuffle" +
+				" mode. Note that data is compressed per buffer and compression costs CPU on both the sender and the" +
+				" receiver, so it only pays off when the network bandwidth is the bottleneck. Data of consumers in the" +
+				" same TaskManager is not compressed. Currently, shuffle data" +
+				" compression is an experimental feature and the config option can be changed in the future.");
+
 	/**
 	 * The codec to be used when compressing shuffle data.
 	 */
-	@Documentation.ExcludeFromDocumentation("Currently, LZ4 is the only legal option.")
+	@Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
 	public static final ConfigOption<String> SHUFFLE_COMPRESSION_CODEC =
 		key("taskmanager.network.compression.codec")
 			.defaultValue("LZ4")
-			.withDescription("The codec to be used when compressing shuffle data.");
+			.withDescription("The codec to be used when compressing shuffle data. Supported codecs are LZ4, ZSTD and" +
+				" SNAPPY. LZ4 and SNAPPY are fast with a moderate compression ratio, while ZSTD achieves a higher" +
+				" compression ratio at a higher CPU cost.");
 
 	/**
 	 * Boolean flag to enable/disable more detailed metrics about inbound/outbound network queue
@@ -185,6 +204,34 @@ public class NettyShuffleEnvironmentOptions {
 					" by configured memory limits, but some resource frameworks like yarn would track this memory usage and kill the container once" +
 					" memory exceeding some threshold. Also note that this option is experimental and might be changed future.");
 
+	/**
+	 * Parallelism threshold from which blocking result partitions use the sort-merge shuffle.
+	 */
+	@Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+	public static final ConfigOption<Integer> NETWORK_SORT_SHUFFLE_MIN_PARALLELISM =
+		key("taskmanager.network.sort-shuffle.min-parallelism")
+			.intType()
+			.defaultValue(Integer.MAX_VALUE)
+			.withDescription("Parallelism threshold to switch between the sort-merge blocking shuffle and the default" +
+				" blocking shuffle, which writes one file per subpartition. Blocking result partitions with at least this" +
+				" number of subpartitions sort their data by subpartition in memory and spill it to a single data file and" +
+				" a single index file, which reduces the number of files and turns the I/O into mostly sequential I/O" +
+				" for large parallelisms. By default, the sort-merge blocking shuffle is disabled. Note that this option is" +
+				" experimental and might be changed in the future.");
+
+	/**
+	 * Size of the in-memory sort buffer of each sort-merge blocking result partition.
+	 */
+	@Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+	public static final ConfigOption<MemorySize> NETWORK_SORT_SHUFFLE_BUFFER_SIZE =
+		key("taskmanager.network.sort-shuffle.buffer-size")
+			.memoryType()
+			.defaultValue(MemorySize.parse("8m"))
+			.withDescription("Size of the off-heap buffer in which each sort-merge blocking result partition sorts its data" +
+				" before spilling it to disk. It must be larger than a network buffer. Larger buffers lead to fewer and" +
+				" larger regions in the data file and hence to more sequential reads. Note that this memory is allocated" +
+				" in addition to the network memory and should be accounted for in the task off-heap memory.");
+
 	// ------------------------------------------------------------------------
 	//  Netty Options
 	// ------------------------------------------------------------------------
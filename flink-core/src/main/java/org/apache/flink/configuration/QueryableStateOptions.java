@@ -112,6 +112,22 @@ public class QueryableStateOptions {
 			.withDescription("Number of query Threads for queryable state server. Uses the number of slots if set to 0.")
 			.withDeprecatedKeys("query.server.query-threads");
 
+	/** Time-to-live of cached query results of the KvStateServerHandler in milliseconds (0 => disabled). */
+	public static final ConfigOption<Long> SERVER_CACHE_TTL =
+		key("queryable-state.server.cache.ttl")
+			.defaultValue(0L)
+			.withDescription("Time in milliseconds for which the queryable state server answers repeated queries" +
+				" for the same key and namespace from a cache instead of reading the state again. A cached result" +
+				" is never older than this value. Caching is disabled if set to 0.");
+
+	/** Maximum number of cached query results of the KvStateServerHandler. */
+	public static final ConfigOption<Integer> SERVER_CACHE_MAX_ENTRIES =
+		key("queryable-state.server.cache.max-entries")
+			.defaultValue(10000)
+			.withDescription("Maximum number of query results cached by the queryable state server. The least" +
+				" recently used result is evicted once the limit is reached. Only used if '" +
+				"queryable-state.server.cache.ttl' is larger than 0.");
+
 	/** Option whether the queryable state proxy and server should be enabled where possible and configurable.
 	 *
 	 * <p>Queryable state proxy and server are still more experimental features, hence disabled unless they are enable
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.connector.source.mocks;
+
+import org.apache.flink.api.connector.source.ReaderOutput;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.SourceReader;
+import org.apache.flink.core.io.InputStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A mock {@link SourceReader} for unit tests. It reads the assigned {@link MockSourceSplit}s
+ * one by one in the order in which they were assigned.
+ */
+public class MockSourceReader implements SourceReader<Integer, MockSourceSplit> {
+
+	private final List<MockSourceSplit> assignedSplits = new ArrayList<>();
+	private final List<SourceEvent> receivedSourceEvents = new ArrayList<>();
+
+	private int currentSplitIndex = 0;
+	private boolean started;
+	private boolean closed;
+	private boolean noMoreSplits;
+
+	private CompletableFuture<Void> availableFuture = CompletableFuture.completedFuture(null);
+
+	@Override
+	public void start() {
+		this.started = true;
+	}
+
+	@Override
+	public InputStatus pollNext(ReaderOutput<Integer> sourceOutput) throws Exception {
+		// Move to the next available split.
+		while (currentSplitIndex < assignedSplits.size()) {
+			final MockSourceSplit split = assignedSplits.get(currentSplitIndex);
+			final Integer record = split.getNext();
+			if (record != null) {
+				sourceOutput.collect(record);
+				return InputStatus.MORE_AVAILABLE;
+			}
+			currentSplitIndex++;
+		}
+
+		if (noMoreSplits) {
+			return InputStatus.END_OF_INPUT;
+		}
+		// no split available at the moment, wait for new splits
+		availableFuture = new CompletableFuture<>();
+		return InputStatus.NOTHING_AVAILABLE;
+	}
+
+	@Override
+	public List<MockSourceSplit> snapshotState() {
+		return new ArrayList<>(assignedSplits);
+	}
+
+	@Override
+	public CompletableFuture<Void> isAvailable() {
+		return availableFuture;
+	}
+
+	@Override
+	public void addSplits(List<MockSourceSplit> splits) {
+		assignedSplits.addAll(splits);
+		availableFuture.complete(null);
+	}
+
+	@Override
+	public void notifyNoMoreSplits() {
+		noMoreSplits = true;
+		availableFuture.complete(null);
+	}
+
+	@Override
+	public void handleSourceEvents(SourceEvent sourceEvent) {
+		receivedSourceEvents.add(sourceEvent);
+	}
+
+	@Override
+	public void close() throws Exception {
+		this.closed = true;
+	}
+
+	// --------------- methods for unit tests ---------------
+
+	public boolean isStarted() {
+		return started;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	public List<MockSourceSplit> getAssignedSplits() {
+		return assignedSplits;
+	}
+
+	public List<SourceEvent> getReceivedSourceEvents() {
+		return receivedSourceEvents;
+	}
+}
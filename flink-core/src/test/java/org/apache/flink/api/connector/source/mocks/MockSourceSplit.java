@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.connector.source.mocks;
+
+import org.apache.flink.api.connector.source.SourceSplit;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A mock {@link SourceSplit} for unit tests. The split produces the integers in the range
+ * [startingIndex, endIndex) and remembers the index of the next integer to produce.
+ */
+public class MockSourceSplit implements SourceSplit, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int id;
+	private final int endIndex;
+	private int index;
+
+	public MockSourceSplit(int id) {
+		this(id, 0, Integer.MAX_VALUE);
+	}
+
+	public MockSourceSplit(int id, int startingIndex, int endIndex) {
+		this.id = id;
+		this.index = startingIndex;
+		this.endIndex = endIndex;
+	}
+
+	@Override
+	public String splitId() {
+		return Integer.toString(id);
+	}
+
+	public int index() {
+		return index;
+	}
+
+	public int endIndex() {
+		return endIndex;
+	}
+
+	public boolean isFinished() {
+		return index >= endIndex;
+	}
+
+	/**
+	 * Returns the next integer of this split, or null if the split has been exhausted.
+	 */
+	public Integer getNext() {
+		return isFinished() ? null : index++;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		final MockSourceSplit that = (MockSourceSplit) obj;
+		return id == that.id && index == that.index && endIndex == that.endIndex;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, index, endIndex);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MockSourceSplit(id=%d, index=%d, endIndex=%d)", id, index, endIndex);
+	}
+}
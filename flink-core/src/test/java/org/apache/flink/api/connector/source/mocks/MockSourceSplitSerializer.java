@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.connector.source.mocks;
+
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A mock {@link SimpleVersionedSerializer} for {@link MockSourceSplit}.
+ */
+public class MockSourceSplitSerializer implements SimpleVersionedSerializer<MockSourceSplit> {
+
+	@Override
+	public int getVersion() {
+		return 0;
+	}
+
+	@Override
+	public byte[] serialize(MockSourceSplit split) throws IOException {
+		try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(baos)) {
+			out.writeInt(Integer.parseInt(split.splitId()));
+			out.writeInt(split.index());
+			out.writeInt(split.endIndex());
+			out.flush();
+			return baos.toByteArray();
+		}
+	}
+
+	@Override
+	public MockSourceSplit deserialize(int version, byte[] serialized) throws IOException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(serialized))) {
+			final int id = in.readInt();
+			final int index = in.readInt();
+			final int endIndex = in.readInt();
+			return new MockSourceSplit(id, index, endIndex);
+		}
+	}
+}
@@ -77,6 +77,7 @@ public class ConfigOptionsDocGenerator {
 		new OptionsClassLocation("flink-state-backends/flink-statebackend-rocksdb", "org.apache.flink.contrib.streaming.state"),
 		new OptionsClassLocation("flink-table/flink-table-api-java", "org.apache.flink.table.api.config"),
 		new OptionsClassLocation("flink-python", "org.apache.flink.python"),
+		new OptionsClassLocation("flink-libraries/flink-cep", "org.apache.flink.cep.configuration"),
 		new OptionsClassLocation("flink-kubernetes", "org.apache.flink.kubernetes.configuration")
 	};
 
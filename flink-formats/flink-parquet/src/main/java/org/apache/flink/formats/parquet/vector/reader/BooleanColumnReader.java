@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.formats.parquet.vector.reader;
+
+import org.apache.flink.table.dataformat.vector.writable.WritableBooleanVector;
+import org.apache.flink.table.dataformat.vector.writable.WritableIntVector;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.io.IOException;
+
+/**
+ * Boolean {@link ColumnReader}. The plain encoded booleans are bit packed, least significant
+ * bit first.
+ */
+public class BooleanColumnReader extends AbstractColumnReader<WritableBooleanVector> {
+
+	/**
+	 * Next bit to read of {@link #currentByte}.
+	 */
+	private int bitOffset;
+
+	private byte currentByte = 0;
+
+	public BooleanColumnReader(ColumnDescriptor descriptor, PageReader pageReader) throws IOException {
+		super(descriptor, pageReader);
+		checkTypeName(PrimitiveType.PrimitiveTypeName.BOOLEAN);
+	}
+
+	@Override
+	protected boolean supportLazyDecode() {
+		return false;
+	}
+
+	@Override
+	protected void afterReadPage() {
+		bitOffset = 0;
+		currentByte = 0;
+	}
+
+	@Override
+	protected void readValue(WritableBooleanVector column, int rowId) {
+		if (bitOffset == 0) {
+			currentByte = readDataBuffer(1).get();
+		}
+
+		column.setBoolean(rowId, (currentByte & (1 << bitOffset)) != 0);
+		bitOffset = (bitOffset + 1) & 7;
+	}
+
+	@Override
+	protected void readBatchFromDictionaryIds(
+			int rowId,
+			int num,
+			WritableBooleanVector column,
+			WritableIntVector dictionaryIds) {
+		throw new UnsupportedOperationException("Boolean is not supported with dictionary encoding.");
+	}
+}
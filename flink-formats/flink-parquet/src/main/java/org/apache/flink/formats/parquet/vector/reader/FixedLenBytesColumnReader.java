@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.formats.parquet.vector.reader;
+
+import org.apache.flink.table.dataformat.Decimal;
+import org.apache.flink.table.dataformat.vector.writable.WritableBytesVector;
+import org.apache.flink.table.dataformat.vector.writable.WritableColumnVector;
+import org.apache.flink.table.dataformat.vector.writable.WritableIntVector;
+import org.apache.flink.table.dataformat.vector.writable.WritableLongVector;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed length bytes {@link ColumnReader}, just for decimal. Depending on the precision, the
+ * big endian unscaled value is written to an int, a long or a bytes vector, see
+ * {@link org.apache.flink.formats.parquet.vector.ParquetDecimalVector}.
+ */
+public class FixedLenBytesColumnReader<VECTOR extends WritableColumnVector>
+		extends AbstractColumnReader<VECTOR> {
+
+	private final int precision;
+
+	private final int typeLength;
+
+	public FixedLenBytesColumnReader(
+			ColumnDescriptor descriptor,
+			PageReader pageReader,
+			int precision) throws IOException {
+		super(descriptor, pageReader);
+		checkTypeName(PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY);
+		this.precision = precision;
+		this.typeLength = descriptor.getPrimitiveType().getTypeLength();
+	}
+
+	@Override
+	protected boolean supportLazyDecode() {
+		// only the bytes vector decodes binaries from the dictionary.
+		return Decimal.isByteArrayDecimal(precision);
+	}
+
+	@Override
+	protected void readValue(VECTOR column, int rowId) {
+		ByteBuffer buffer = readDataBuffer(typeLength);
+		byte[] bytes;
+		int offset;
+		if (buffer.hasArray()) {
+			bytes = buffer.array();
+			offset = buffer.arrayOffset() + buffer.position();
+		} else {
+			bytes = new byte[typeLength];
+			buffer.get(bytes);
+			offset = 0;
+		}
+		setDecimal(column, rowId, bytes, offset, typeLength);
+	}
+
+	@Override
+	protected void readBatchFromDictionaryIds(
+			int rowId,
+			int num,
+			VECTOR column,
+			WritableIntVector dictionaryIds) {
+		for (int i = rowId; i < rowId + num; ++i) {
+			if (!column.isNullAt(i)) {
+				Binary v = dictionary.decodeToBinary(dictionaryIds.getInt(i));
+				byte[] bytes = v.getBytesUnsafe();
+				setDecimal(column, i, bytes, 0, bytes.length);
+			}
+		}
+	}
+
+	private void setDecimal(VECTOR column, int rowId, byte[] bytes, int offset, int length) {
+		if (Decimal.is32BitDecimal(precision)) {
+			((WritableIntVector) column).setInt(rowId, (int) heapBinaryToLong(bytes, offset, length));
+		} else if (Decimal.is64BitDecimal(precision)) {
+			((WritableLongVector) column).setLong(rowId, heapBinaryToLong(bytes, offset, length));
+		} else {
+			((WritableBytesVector) column).appendBytes(rowId, bytes, offset, length);
+		}
+	}
+
+	/**
+	 * Converts the big endian two's complement representation of the unscaled value to long.
+	 */
+	private static long heapBinaryToLong(byte[] bytes, int offset, int length) {
+		long unscaled = 0L;
+		for (int i = offset; i < offset + length; i++) {
+			unscaled = (unscaled << 8) | (bytes[i] & 0xff);
+		}
+		// sign extend.
+		int bits = 8 * length;
+		return (unscaled << (64 - bits)) >> (64 - bits);
+	}
+}
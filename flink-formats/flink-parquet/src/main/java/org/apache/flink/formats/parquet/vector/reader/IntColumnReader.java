@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.formats.parquet.vector.reader;
+
+import org.apache.flink.table.dataformat.vector.writable.WritableIntVector;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Int {@link ColumnReader}.
+ */
+public class IntColumnReader extends AbstractColumnReader<WritableIntVector> {
+
+	public IntColumnReader(ColumnDescriptor descriptor, PageReader pageReader) throws IOException {
+		super(descriptor, pageReader);
+		checkTypeName(PrimitiveType.PrimitiveTypeName.INT32);
+	}
+
+	@Override
+	protected void readValues(int total, WritableIntVector column, int rowId) {
+		int requiredBytes = total * 4;
+		ByteBuffer buffer = readDataBuffer(requiredBytes);
+
+		if (buffer.hasArray()) {
+			int offset = buffer.arrayOffset() + buffer.position();
+			column.setIntsFromBinary(rowId, total, buffer.array(), offset);
+		} else {
+			for (int i = 0; i < total; i++) {
+				column.setInt(rowId + i, buffer.getInt());
+			}
+		}
+	}
+
+	@Override
+	protected void readValue(WritableIntVector column, int rowId) {
+		column.setInt(rowId, readDataBuffer(4).getInt());
+	}
+
+	@Override
+	protected void readBatchFromDictionaryIds(
+			int rowId,
+			int num,
+			WritableIntVector column,
+			WritableIntVector dictionaryIds) {
+		for (int i = rowId; i < rowId + num; ++i) {
+			if (!column.isNullAt(i)) {
+				column.setInt(i, dictionary.decodeToInt(dictionaryIds.getInt(i)));
+			}
+		}
+	}
+}
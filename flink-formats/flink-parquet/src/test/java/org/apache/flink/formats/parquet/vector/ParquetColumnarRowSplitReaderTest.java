@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.formats.parquet.vector;
+
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.dataformat.BaseRow;
+import org.apache.flink.table.dataformat.Decimal;
+import org.apache.flink.table.types.DataType;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link ParquetColumnarRowSplitReader}.
+ */
+public class ParquetColumnarRowSplitReaderTest {
+
+	private static final int NUM_ROWS = 1000;
+
+	private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+			"message test { " +
+					"optional int32 f0; " +
+					"optional int64 f1; " +
+					"optional double f2; " +
+					"optional binary f3 (UTF8); " +
+					"optional boolean f4; " +
+					"optional int32 f5 (DECIMAL(5,2)); " +
+					"}");
+
+	private static final String[] FIELD_NAMES = {"f0", "f1", "f2", "f3", "f4", "f5"};
+
+	private static final DataType[] FIELD_TYPES = {
+			DataTypes.INT(),
+			DataTypes.BIGINT(),
+			DataTypes.DOUBLE(),
+			DataTypes.STRING(),
+			DataTypes.BOOLEAN(),
+			DataTypes.DECIMAL(5, 2)};
+
+	@ClassRule
+	public static final TemporaryFolder TEMPORARY_FOLDER = new TemporaryFolder();
+
+	@Test
+	public void testReadPlain() throws IOException {
+		testReadAllFields(false);
+	}
+
+	@Test
+	public void testReadDictionary() throws IOException {
+		testReadAllFields(true);
+	}
+
+	private void testReadAllFields(boolean dictionary) throws IOException {
+		Path path = writeFile(dictionary);
+		ParquetColumnarRowSplitReader reader = createReader(
+				path, Collections.emptyMap(), new int[] {0, 1, 2, 3, 4, 5}, null);
+
+		int i = 0;
+		while (!reader.reachedEnd()) {
+			BaseRow row = reader.nextRecord();
+			if (i % 5 == 0) {
+				for (int field = 0; field < FIELD_NAMES.length; field++) {
+					assertTrue(row.isNullAt(field));
+				}
+			} else {
+				assertEquals(i, row.getInt(0));
+				assertEquals(i * 10L, row.getLong(1));
+				assertEquals(i / 2.0, row.getDouble(2), 0.0);
+				assertEquals(String.valueOf(i % 10), row.getString(3).toString());
+				assertEquals(i % 2 == 0, row.getBoolean(4));
+				assertEquals(
+						Decimal.fromUnscaledLong(5, 2, i),
+						row.getDecimal(5, 5, 2));
+			}
+			i++;
+		}
+		reader.close();
+		assertEquals(NUM_ROWS, i);
+	}
+
+	@Test
+	public void testProjectionAndPartition() throws IOException {
+		Path path = writeFile(true);
+		String[] fieldNames = {"f0", "f3", "part"};
+		DataType[] fieldTypes = {DataTypes.INT(), DataTypes.STRING(), DataTypes.STRING()};
+		Map<String, Object> partSpec = new HashMap<>();
+		partSpec.put("part", "p1");
+
+		ParquetColumnarRowSplitReader reader = ParquetSplitReaderUtil.genPartColumnarRowReader(
+				false,
+				true,
+				new Configuration(),
+				fieldNames,
+				fieldTypes,
+				partSpec,
+				new int[] {2, 1},
+				null,
+				10,
+				path,
+				0,
+				Long.MAX_VALUE);
+
+		int i = 0;
+		while (!reader.reachedEnd()) {
+			BaseRow row = reader.nextRecord();
+			assertEquals(2, row.getArity());
+			assertEquals("p1", row.getString(0).toString());
+			if (i % 5 == 0) {
+				assertTrue(row.isNullAt(1));
+			} else {
+				assertEquals(String.valueOf(i % 10), row.getString(1).toString());
+			}
+			i++;
+		}
+		reader.close();
+		assertEquals(NUM_ROWS, i);
+	}
+
+	@Test
+	public void testFilterRowGroups() throws IOException {
+		Path path = writeFile(false);
+		FilterPredicate predicate = FilterApi.gt(FilterApi.intColumn("f0"), NUM_ROWS - 10);
+		ParquetColumnarRowSplitReader reader = createReader(
+				path, Collections.emptyMap(), new int[] {0}, predicate);
+
+		int numRead = 0;
+		int numMatched = 0;
+		while (!reader.reachedEnd()) {
+			BaseRow row = reader.nextRecord();
+			numRead++;
+			if (!row.isNullAt(0) && row.getInt(0) > NUM_ROWS - 10) {
+				numMatched++;
+			}
+		}
+		reader.close();
+
+		// row groups not matching the filter are skipped, the residual rows are filtered later.
+		assertTrue(numRead < NUM_ROWS);
+		assertEquals(8, numMatched);
+	}
+
+	private ParquetColumnarRowSplitReader createReader(
+			Path path,
+			Map<String, Object> partSpec,
+			int[] selectedFields,
+			FilterPredicate predicate) throws IOException {
+		return ParquetSplitReaderUtil.genPartColumnarRowReader(
+				false,
+				true,
+				new Configuration(),
+				FIELD_NAMES,
+				FIELD_TYPES,
+				partSpec,
+				selectedFields,
+				predicate,
+				// a small batch size to cover the batches crossing pages and row groups.
+				13,
+				path,
+				0,
+				Long.MAX_VALUE);
+	}
+
+	private static Path writeFile(boolean dictionary) throws IOException {
+		File file = new File(TEMPORARY_FOLDER.newFolder(), "test.parquet");
+		Configuration conf = new Configuration();
+		SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+		try (ParquetWriter<Group> writer = ExampleParquetWriter
+				.builder(new org.apache.hadoop.fs.Path(file.getPath()))
+				.withConf(conf)
+				.withType(SCHEMA)
+				.withDictionaryEncoding(dictionary)
+				.withPageSize(512)
+				.withRowGroupSize(1024)
+				.build()) {
+			for (int i = 0; i < NUM_ROWS; i++) {
+				Group group = factory.newGroup();
+				if (i % 5 != 0) {
+					group.append("f0", i)
+							.append("f1", i * 10L)
+							.append("f2", i / 2.0)
+							.append("f3", String.valueOf(i % 10))
+							.append("f4", i % 2 == 0)
+							.append("f5", i);
+				}
+				writer.write(group);
+			}
+		}
+		return new Path(file.getPath());
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.cep.configuration;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.configuration.ConfigOption;
+
+import static org.apache.flink.configuration.ConfigOptions.key;
+
+/**
+ * The set of configuration options relating to the caches of the shared buffer of the CEP operator.
+ *
+ * <p>The options are read from the global job parameters of the
+ * {@link org.apache.flink.api.common.ExecutionConfig}, so that they can be tuned per job.
+ */
+@PublicEvolving
+public class SharedBufferCacheOptions {
+
+	/**
+	 * The number of shared buffer entries that are cached across records.
+	 */
+	public static final ConfigOption<Integer> ENTRY_CACHE_SLOTS =
+		key("cep.shared-buffer.entry-cache-slots")
+			.intType()
+			.defaultValue(0)
+			.withDescription("The number of entries of the shared buffer of CEP operators that are kept " +
+				"deserialized in a cache across records and keys. Modified entries are written to the state " +
+				"when they are evicted or before a checkpoint. If 0, entries are only cached while processing " +
+				"one record. Set in the global job parameters of the job.");
+
+	/**
+	 * The number of shared buffer events that are cached across records.
+	 */
+	public static final ConfigOption<Integer> EVENT_CACHE_SLOTS =
+		key("cep.shared-buffer.event-cache-slots")
+			.intType()
+			.defaultValue(0)
+			.withDescription("The number of events of the shared buffer of CEP operators that are kept " +
+				"deserialized in a cache across records and keys. Modified events are written to the state " +
+				"when they are evicted or before a checkpoint. If 0, events are only cached while processing " +
+				"one record. Set in the global job parameters of the job.");
+
+	private SharedBufferCacheOptions() {}
+}
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.cep.nfa;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.functions.util.FunctionUtils;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.ListSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.runtime.TupleSerializer;
+import org.apache.flink.cep.pattern.conditions.IterativeCondition;
+import org.apache.flink.cep.time.TimerService;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Preconditions;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches a pattern that is a strict sequence of single patterns with stateless conditions, e.g.
+ * {@code begin("a").where(...).next("b").where(...)}, without an {@link NFA} and a shared buffer.
+ *
+ * <p>A sequence of n patterns matches n consecutive events of a key, which fulfill the conditions of the patterns
+ * in order. For each key, the matcher keeps the partial matches as a bit set: bit i is set if the last i + 1
+ * events fulfill the conditions of the first i + 1 patterns. The next event extends a partial match if it fulfills
+ * the condition of the next pattern, so only the conditions of patterns that can be extended are evaluated.
+ * Besides the bit set, only the events of the longest partial match are kept.
+ *
+ * <p>The matches are the same as the ones of an {@link NFA} compiled from the pattern with no skip, skip to next or
+ * skip past last event {@link org.apache.flink.cep.nfa.aftermatch.AfterMatchSkipStrategy}. Partial matches that
+ * exceed the window time are discarded when the next event arrives or when the time is advanced with
+ * {@link #advanceTime(ValueState, long)}, so timed out partial matches cannot be reported.
+ *
+ * @param <T> Type of the processed events
+ */
+public class StrictSequenceMatcher<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The maximum number of patterns in a sequence, bounded by the bits of the partial matches. */
+	public static final int MAX_SEQUENCE_LENGTH = Long.SIZE;
+
+	private final String[] names;
+
+	private final IterativeCondition<T>[] conditions;
+
+	private final long windowTime;
+
+	private final boolean skipPastLastEvent;
+
+	public StrictSequenceMatcher(
+			List<String> names,
+			List<IterativeCondition<T>> conditions,
+			long windowTime,
+			boolean skipPastLastEvent) {
+		Preconditions.checkArgument(!names.isEmpty() && names.size() <= MAX_SEQUENCE_LENGTH,
+			"The sequence must consist of 1 to " + MAX_SEQUENCE_LENGTH + " patterns.");
+		Preconditions.checkArgument(names.size() == conditions.size(),
+			"There must be a condition for each pattern.");
+
+		this.names = names.toArray(new String[0]);
+		@SuppressWarnings("unchecked")
+		IterativeCondition<T>[] conditionsArray = conditions.toArray(new IterativeCondition[0]);
+		this.conditions = conditionsArray;
+		this.windowTime = windowTime;
+		this.skipPastLastEvent = skipPastLastEvent;
+	}
+
+	/**
+	 * Creates the serializer for the state of the matcher for a key. The state consists of the bit set of the
+	 * partial matches and the timestamped events of the longest partial match.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> TypeSerializer<Tuple2<Long, List<Tuple2<Long, T>>>> createStateSerializer(
+			TypeSerializer<T> eventSerializer) {
+		final TupleSerializer<Tuple2<Long, T>> timestampedEventSerializer = new TupleSerializer<>(
+			(Class<Tuple2<Long, T>>) (Class<?>) Tuple2.class,
+			new TypeSerializer<?>[] {LongSerializer.INSTANCE, eventSerializer});
+
+		return new TupleSerializer<>(
+			(Class<Tuple2<Long, List<Tuple2<Long, T>>>>) (Class<?>) Tuple2.class,
+			new TypeSerializer<?>[] {LongSerializer.INSTANCE, new ListSerializer<>(timestampedEventSerializer)});
+	}
+
+	/**
+	 * Initialization method for the matcher, see {@link NFA#open(RuntimeContext, Configuration)}.
+	 */
+	public void open(RuntimeContext cepRuntimeContext, Configuration conf) throws Exception {
+		for (IterativeCondition<T> condition : conditions) {
+			FunctionUtils.setFunctionRuntimeContext(condition, cepRuntimeContext);
+			FunctionUtils.openFunction(condition, conf);
+		}
+	}
+
+	/**
+	 * Tear-down method for the matcher.
+	 */
+	public void close() throws Exception {
+		for (IterativeCondition<T> condition : conditions) {
+			FunctionUtils.closeFunction(condition);
+		}
+	}
+
+	/**
+	 * Processes the next event of the current key.
+	 *
+	 * @param state the state of the matcher for the current key
+	 * @param event the current event to be processed
+	 * @param timestamp the timestamp of the current event
+	 * @param timerService gives access to processing time, needed for condition evaluation
+	 * @return the match that ends with the event, or {@code null} if there is none
+	 * @throws Exception Thrown if the system cannot access the state or a condition fails.
+	 */
+	@Nullable
+	public Map<String, List<T>> process(
+			ValueState<Tuple2<Long, List<Tuple2<Long, T>>>> state,
+			T event,
+			long timestamp,
+			TimerService timerService) throws Exception {
+
+		final Tuple2<Long, List<Tuple2<Long, T>>> partialMatches = state.value();
+		final List<Tuple2<Long, T>> events = partialMatches != null ? partialMatches.f1 : new ArrayList<>();
+		long partialMatchBits = partialMatches != null ? partialMatches.f0 : 0L;
+
+		if (windowTime > 0L) {
+			partialMatchBits = pruneTimedOutPartialMatches(partialMatchBits, events, timestamp);
+		}
+
+		// the event can extend every partial match that has not matched all patterns yet, or start a new one
+		long candidates = (partialMatchBits << 1) | 1L;
+		if (conditions.length < Long.SIZE) {
+			candidates &= (1L << conditions.length) - 1;
+		}
+
+		final ConditionContext context = new ConditionContext(timerService, timestamp);
+		long matchBits = 0L;
+		while (candidates != 0L) {
+			final int patternIndex = Long.numberOfTrailingZeros(candidates);
+			candidates &= candidates - 1;
+			if (conditions[patternIndex].filter(event, context)) {
+				matchBits |= 1L << patternIndex;
+			}
+		}
+
+		events.add(Tuple2.of(timestamp, event));
+
+		final long completeMatchBit = 1L << (conditions.length - 1);
+		Map<String, List<T>> match = null;
+		if ((matchBits & completeMatchBit) != 0L) {
+			match = materializeMatch(events);
+			matchBits = skipPastLastEvent ? 0L : matchBits & ~completeMatchBit;
+		}
+
+		if (matchBits == 0L) {
+			if (partialMatches != null) {
+				state.clear();
+			}
+		} else {
+			updateState(state, matchBits, events);
+		}
+
+		return match;
+	}
+
+	/**
+	 * Discards the partial matches of the current key that time out at the given time, and clears the state if
+	 * none remains. This lets the caller clean up the state of keys that receive no more events.
+	 *
+	 * @param state the state of the matcher for the current key
+	 * @param timestamp the current time, no more events with a lower timestamp are processed afterwards
+	 * @return the time at which the remaining partial matches time out, or {@link Long#MAX_VALUE} if there is no
+	 *         partial match or no window time
+	 * @throws IOException Thrown if the system cannot access the state.
+	 */
+	public long advanceTime(
+			ValueState<Tuple2<Long, List<Tuple2<Long, T>>>> state,
+			long timestamp) throws IOException {
+		if (windowTime <= 0L) {
+			return Long.MAX_VALUE;
+		}
+
+		final Tuple2<Long, List<Tuple2<Long, T>>> partialMatches = state.value();
+		if (partialMatches == null) {
+			return Long.MAX_VALUE;
+		}
+
+		final List<Tuple2<Long, T>> events = partialMatches.f1;
+		final long remainingBits = pruneTimedOutPartialMatches(partialMatches.f0, events, timestamp);
+		if (remainingBits == 0L) {
+			state.clear();
+			return Long.MAX_VALUE;
+		}
+		if (remainingBits != partialMatches.f0) {
+			updateState(state, remainingBits, events);
+		}
+
+		// the shortest partial match started last and is the last one to time out
+		final int shortestLength = Long.numberOfTrailingZeros(remainingBits) + 1;
+		final long startTimestamp = events.get(events.size() - shortestLength).f0;
+		final long cleanupTime = startTimestamp + windowTime;
+		// protect against overflow
+		return cleanupTime > startTimestamp ? cleanupTime : Long.MAX_VALUE;
+	}
+
+	private void updateState(
+			ValueState<Tuple2<Long, List<Tuple2<Long, T>>>> state,
+			long partialMatchBits,
+			List<Tuple2<Long, T>> events) throws IOException {
+		// keep only the events of the longest partial match
+		final int eventsToKeep = Long.SIZE - Long.numberOfLeadingZeros(partialMatchBits);
+		final List<Tuple2<Long, T>> retainedEvents = events.size() == eventsToKeep ?
+			events : new ArrayList<>(events.subList(events.size() - eventsToKeep, events.size()));
+		state.update(Tuple2.of(partialMatchBits, retainedEvents));
+	}
+
+	private long pruneTimedOutPartialMatches(long partialMatchBits, List<Tuple2<Long, T>> events, long timestamp) {
+		long remainingBits = partialMatchBits;
+		while (remainingBits != 0L) {
+			final int length = Long.SIZE - Long.numberOfLeadingZeros(remainingBits);
+			final long startTimestamp = events.get(events.size() - length).f0;
+			if (timestamp - startTimestamp < windowTime) {
+				// shorter partial matches started later and did not time out either
+				break;
+			}
+			remainingBits &= ~(1L << (length - 1));
+		}
+		return remainingBits;
+	}
+
+	private Map<String, List<T>> materializeMatch(List<Tuple2<Long, T>> events) {
+		final Map<String, List<T>> match = new LinkedHashMap<>(names.length);
+		final int offset = events.size() - names.length;
+		for (int i = 0; i < names.length; i++) {
+			final List<T> patternEvents = new ArrayList<>(1);
+			patternEvents.add(events.get(offset + i).f1);
+			match.put(names[i], patternEvents);
+		}
+		return match;
+	}
+
+	/**
+	 * The context of the stateless conditions of a strict sequence, which do not access previous events.
+	 */
+	private class ConditionContext implements IterativeCondition.Context<T> {
+
+		private final TimerService timerService;
+
+		private final long eventTimestamp;
+
+		ConditionContext(TimerService timerService, long eventTimestamp) {
+			this.timerService = timerService;
+			this.eventTimestamp = eventTimestamp;
+		}
+
+		@Override
+		public Iterable<T> getEventsForPattern(String name) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public long timestamp() {
+			return eventTimestamp;
+		}
+
+		@Override
+		public long currentProcessingTime() {
+			return timerService.currentProcessingTime();
+		}
+	}
+}
@@ -23,7 +23,11 @@ import org.apache.flink.cep.nfa.NFA;
 import org.apache.flink.cep.nfa.State;
 import org.apache.flink.cep.nfa.StateTransition;
 import org.apache.flink.cep.nfa.StateTransitionAction;
+import org.apache.flink.cep.nfa.StrictSequenceMatcher;
 import org.apache.flink.cep.nfa.aftermatch.AfterMatchSkipStrategy;
+import org.apache.flink.cep.nfa.aftermatch.NoSkipStrategy;
+import org.apache.flink.cep.nfa.aftermatch.SkipPastLastStrategy;
+import org.apache.flink.cep.nfa.aftermatch.SkipToNextStrategy;
 import org.apache.flink.cep.pattern.GroupPattern;
 import org.apache.flink.cep.pattern.MalformedPatternException;
 import org.apache.flink.cep.pattern.Pattern;
@@ -32,15 +36,21 @@ import org.apache.flink.cep.pattern.Quantifier.Times;
 import org.apache.flink.cep.pattern.conditions.BooleanConditions;
 import org.apache.flink.cep.pattern.conditions.IterativeCondition;
 import org.apache.flink.cep.pattern.conditions.RichAndCondition;
+import org.apache.flink.cep.pattern.conditions.RichCompositeIterativeCondition;
 import org.apache.flink.cep.pattern.conditions.RichNotCondition;
+import org.apache.flink.cep.pattern.conditions.RichOrCondition;
+import org.apache.flink.cep.pattern.conditions.SimpleCondition;
 import org.apache.flink.streaming.api.windowing.time.Time;
 
+import javax.annotation.Nullable;
+
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -75,10 +85,91 @@ public class NFACompiler {
 		} else {
 			final NFAFactoryCompiler<T> nfaFactoryCompiler = new NFAFactoryCompiler<>(pattern);
 			nfaFactoryCompiler.compileFactory();
-			return new NFAFactoryImpl<>(nfaFactoryCompiler.getWindowTime(), nfaFactoryCompiler.getStates(), timeoutHandling);
+			return new NFAFactoryImpl<>(
+				nfaFactoryCompiler.getWindowTime(),
+				nfaFactoryCompiler.getStates(),
+				timeoutHandling,
+				compileStrictSequenceMatcher(pattern, nfaFactoryCompiler.getWindowTime(), timeoutHandling));
 		}
 	}
 
+	/**
+	 * Compiles the given pattern into a {@link StrictSequenceMatcher} if it is a strict sequence of single patterns
+	 * with stateless conditions, i.e. a sequence built with {@link Pattern#begin(String)} and
+	 * {@link Pattern#next(String)} and conditions composed of {@link SimpleCondition SimpleConditions}.
+	 *
+	 * @param pattern Definition of sequence pattern
+	 * @param windowTime The window time of the pattern, 0 if there is none
+	 * @param timeoutHandling True if timed out event patterns shall be returned
+	 * @param <T> Type of the input events
+	 * @return The matcher, or {@code null} if the pattern needs an {@link NFA}
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	static <T> StrictSequenceMatcher<T> compileStrictSequenceMatcher(
+			final Pattern<T, ?> pattern,
+			long windowTime,
+			boolean timeoutHandling) {
+		// the matcher discards timed out partial matches instead of reporting them
+		if (timeoutHandling && windowTime > 0L) {
+			return null;
+		}
+
+		// for a strict sequence, no skip and skip to next only prune the partial match of the emitted match itself
+		final AfterMatchSkipStrategy afterMatchSkipStrategy = pattern.getAfterMatchSkipStrategy();
+		final boolean skipPastLastEvent = afterMatchSkipStrategy instanceof SkipPastLastStrategy;
+		if (!(afterMatchSkipStrategy instanceof NoSkipStrategy ||
+				afterMatchSkipStrategy instanceof SkipToNextStrategy ||
+				skipPastLastEvent)) {
+			return null;
+		}
+
+		final LinkedList<String> names = new LinkedList<>();
+		final LinkedList<IterativeCondition<T>> conditions = new LinkedList<>();
+		for (Pattern<T, ?> currentPattern = pattern; currentPattern != null; currentPattern = currentPattern.getPrevious()) {
+			final Quantifier quantifier = currentPattern.getQuantifier();
+			if (currentPattern instanceof GroupPattern ||
+					!quantifier.hasProperty(Quantifier.QuantifierProperty.SINGLE) ||
+					quantifier.hasProperty(Quantifier.QuantifierProperty.OPTIONAL) ||
+					quantifier.getConsumingStrategy() != Quantifier.ConsumingStrategy.STRICT ||
+					currentPattern.getUntilCondition() != null ||
+					!isStateless(currentPattern.getCondition())) {
+				return null;
+			}
+
+			names.addFirst(currentPattern.getName());
+			conditions.addFirst((IterativeCondition<T>) currentPattern.getCondition());
+		}
+
+		if (names.size() > StrictSequenceMatcher.MAX_SEQUENCE_LENGTH) {
+			return null;
+		}
+
+		return new StrictSequenceMatcher<>(names, conditions, windowTime, skipPastLastEvent);
+	}
+
+	/**
+	 * Checks if the given condition never accesses previously accepted events.
+	 */
+	private static boolean isStateless(IterativeCondition<?> condition) {
+		if (condition instanceof SimpleCondition) {
+			return true;
+		}
+
+		if (condition instanceof RichAndCondition ||
+				condition instanceof RichOrCondition ||
+				condition instanceof RichNotCondition) {
+			for (IterativeCondition<?> nestedCondition : ((RichCompositeIterativeCondition<?>) condition).getNestedConditions()) {
+				if (!isStateless(nestedCondition)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		return false;
+	}
+
 	/**
 	 * Verifies if the provided pattern can possibly generate empty match. Example of patterns that can possibly
 	 * generate empty matches are: A*, A?, A* B? etc.
@@ -908,6 +999,17 @@ public class NFACompiler {
 	 */
 	public interface NFAFactory<T> extends Serializable {
 		NFA<T> createNFA();
+
+		/**
+		 * Creates a {@link StrictSequenceMatcher} that can be used instead of the {@link NFA} if the pattern is a
+		 * strict sequence of stateless conditions.
+		 *
+		 * @return the matcher, or {@code null} if the pattern needs an {@link NFA}
+		 */
+		@Nullable
+		default StrictSequenceMatcher<T> createStrictSequenceMatcher() {
+			return null;
+		}
 	}
 
 	/**
@@ -925,20 +1027,34 @@ public class NFACompiler {
 		private final long windowTime;
 		private final Collection<State<T>> states;
 		private final boolean timeoutHandling;
+		@Nullable
+		private final StrictSequenceMatcher<T> strictSequenceMatcher;
+
+		private NFAFactoryImpl(long windowTime, Collection<State<T>> states, boolean timeoutHandling) {
+			this(windowTime, states, timeoutHandling, null);
+		}
 
 		private NFAFactoryImpl(
 				long windowTime,
 				Collection<State<T>> states,
-				boolean timeoutHandling) {
+				boolean timeoutHandling,
+				@Nullable StrictSequenceMatcher<T> strictSequenceMatcher) {
 
 			this.windowTime = windowTime;
 			this.states = states;
 			this.timeoutHandling = timeoutHandling;
+			this.strictSequenceMatcher = strictSequenceMatcher;
 		}
 
 		@Override
 		public NFA<T> createNFA() {
 			return new NFA<>(states, windowTime, timeoutHandling);
 		}
+
+		@Nullable
+		@Override
+		public StrictSequenceMatcher<T> createStrictSequenceMatcher() {
+			return strictSequenceMatcher;
+		}
 	}
 }
@@ -25,11 +25,13 @@ import org.apache.flink.api.common.state.MapStateDescriptor;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
 import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.streaming.api.operators.KeyContext;
 import org.apache.flink.util.WrappingRuntimeException;
 
 import org.apache.flink.shaded.guava18.com.google.common.collect.Iterables;
 
-import java.util.HashMap;
+import javax.annotation.Nullable;
+
 import java.util.Iterator;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -45,6 +47,11 @@ import java.util.stream.Collectors;
  * relations between different entries. A dewey versioning scheme allows to discriminate between
  * different relations (e.g. preceding element).
  *
+ * <p>Accessed events and entries are cached deserialized. By default, the caches only live for the duration of
+ * one {@link SharedBufferAccessor}. If cache slots are given, the caches are shared by all keys, keep up to the
+ * given number of events and entries across records and write modified ones back lazily, on eviction or when
+ * the caches are {@link #flushCache() flushed}.
+ *
  * <p>The implementation is strongly based on the paper "Efficient Pattern Matching over Event Streams".
  *
  * @param <V> Type of the values
@@ -63,12 +70,36 @@ public class SharedBuffer<V> {
 	private MapState<NodeId, Lockable<SharedBufferNode>> entries;
 
 	/** The cache of eventsBuffer State. */
-	private Map<EventId, Lockable<V>> eventsBufferCache = new HashMap<>();
+	private final SharedBufferCache<EventId, Lockable<V>> eventsBufferCache;
 
 	/** The cache of sharedBufferNode. */
-	private Map<NodeId, Lockable<SharedBufferNode>> entryCache = new HashMap<>();
+	private final SharedBufferCache<NodeId, Lockable<SharedBufferNode>> entryCache;
+
+	/** Serializer of the events, used to copy cached events before they are passed to user code. */
+	private final TypeSerializer<V> valueSerializer;
+
+	/** Whether events are cached across records, so that user code must not see the cached instances. */
+	private final boolean cachesEventsAcrossRecords;
 
 	public SharedBuffer(KeyedStateStore stateStore, TypeSerializer<V> valueSerializer) {
+		this(stateStore, valueSerializer, null, 0, 0);
+	}
+
+	/**
+	 * Creates a shared buffer whose caches keep events and entries across records.
+	 *
+	 * @param stateStore the store of the state of the shared buffer
+	 * @param valueSerializer serializer of the events
+	 * @param keyContext the context to switch the current key, needed if there are cache slots
+	 * @param entryCacheSlots the number of entries that are cached across records, 0 to disable
+	 * @param eventCacheSlots the number of events that are cached across records, 0 to disable
+	 */
+	public SharedBuffer(
+			KeyedStateStore stateStore,
+			TypeSerializer<V> valueSerializer,
+			@Nullable KeyContext keyContext,
+			int entryCacheSlots,
+			int eventCacheSlots) {
 		this.eventsBuffer = stateStore.getMapState(
 			new MapStateDescriptor<>(
 				eventsStateName,
@@ -86,6 +117,11 @@ public class SharedBuffer<V> {
 				eventsCountStateName,
 				LongSerializer.INSTANCE,
 				IntSerializer.INSTANCE));
+
+		this.eventsBufferCache = new SharedBufferCache<>(eventsBuffer, keyContext, eventCacheSlots);
+		this.entryCache = new SharedBufferCache<>(entries, keyContext, entryCacheSlots);
+		this.valueSerializer = valueSerializer;
+		this.cachesEventsAcrossRecords = eventCacheSlots > 0;
 	}
 
 	/**
@@ -150,7 +186,7 @@ public class SharedBuffer<V> {
 	 * @throws Exception Thrown if the system cannot access the state.
 	 */
 	public boolean isEmpty() throws Exception {
-		return Iterables.isEmpty(eventsBufferCache.keySet()) && Iterables.isEmpty(eventsBuffer.keys());
+		return eventsBufferCache.isEmpty();
 	}
 
 	/**
@@ -180,7 +216,6 @@ public class SharedBuffer<V> {
 	 */
 	void removeEvent(EventId eventId) throws Exception {
 		this.eventsBufferCache.remove(eventId);
-		this.eventsBuffer.remove(eventId);
 	}
 
 	/**
@@ -190,7 +225,6 @@ public class SharedBuffer<V> {
 	 */
 	void removeEntry(NodeId nodeId) throws Exception {
 		this.entryCache.remove(nodeId);
-		this.entries.remove(nodeId);
 	}
 
 	/**
@@ -200,13 +234,11 @@ public class SharedBuffer<V> {
 	 * @return SharedBufferNode
 	 */
 	Lockable<SharedBufferNode> getEntry(NodeId nodeId) {
-		return entryCache.computeIfAbsent(nodeId, id -> {
-			try {
-				return entries.get(id);
-			} catch (Exception ex) {
-				throw new WrappingRuntimeException(ex);
-			}
-		});
+		try {
+			return entryCache.get(nodeId);
+		} catch (Exception ex) {
+			throw new WrappingRuntimeException(ex);
+		}
 	}
 
 	/**
@@ -216,29 +248,60 @@ public class SharedBuffer<V> {
 	 * @return event
 	 */
 	Lockable<V> getEvent(EventId eventId) {
-		return eventsBufferCache.computeIfAbsent(eventId, id -> {
-			try {
-				return eventsBuffer.get(id);
-			} catch (Exception ex) {
-				throw new WrappingRuntimeException(ex);
-			}
-		});
+		try {
+			return eventsBufferCache.get(eventId);
+		} catch (Exception ex) {
+			throw new WrappingRuntimeException(ex);
+		}
 	}
 
 	/**
-	 * Flush the event and node from cache to state.
+	 * Returns the event with the given id to be passed to user code, e.g. in a match. If events are cached across
+	 * records, a copy of the cached event is returned, so that modifications of the event by user code cannot corrupt
+	 * the cache or the matches of later records.
+	 *
+	 * @param eventId id of the event
+	 * @return event
+	 */
+	V getEventForUserCode(EventId eventId) {
+		final V event = getEvent(eventId).getElement();
+		return cachesEventsAcrossRecords ? valueSerializer.copy(event) : event;
+	}
+
+	/**
+	 * Evicts the events and nodes that exceed the cache slots from cache to state. Without cache slots, all of
+	 * them are evicted.
 	 *
 	 * @throws Exception Thrown if the system cannot access the state.
 	 */
-	void flushCache() throws Exception {
-		if (!entryCache.isEmpty()) {
-			entries.putAll(entryCache);
-			entryCache.clear();
-		}
-		if (!eventsBufferCache.isEmpty()) {
-			eventsBuffer.putAll(eventsBufferCache);
-			eventsBufferCache.clear();
-		}
+	void evictCache() throws Exception {
+		entryCache.evict();
+		eventsBufferCache.evict();
+	}
+
+	/**
+	 * Flush the modified events and nodes of all keys from cache to state. Must be called before the state is
+	 * snapshotted.
+	 *
+	 * @throws Exception Thrown if the system cannot access the state.
+	 */
+	public void flushCache() throws Exception {
+		entryCache.flush();
+		eventsBufferCache.flush();
+	}
+
+	/**
+	 * Returns the ratio of accesses to nodes that were served from the cache.
+	 */
+	public double getEntryCacheHitRate() {
+		return entryCache.getHitRate();
+	}
+
+	/**
+	 * Returns the ratio of accesses to events that were served from the cache.
+	 */
+	public double getEventsBufferCacheHitRate() {
+		return eventsBufferCache.getHitRate();
 	}
 
 	@VisibleForTesting
@@ -201,7 +201,7 @@ public class SharedBufferAccessor<V> implements AutoCloseable {
 			List<V> events = new ArrayList<>(pattern.getValue().size());
 			for (EventId eventId : pattern.getValue()) {
 				try {
-					V event = sharedBuffer.getEvent(eventId).getElement();
+					V event = sharedBuffer.getEventForUserCode(eventId);
 					events.add(event);
 				} catch (Exception ex) {
 					throw new WrappingRuntimeException(ex);
@@ -299,12 +299,12 @@ public class SharedBufferAccessor<V> implements AutoCloseable {
 	}
 
 	/**
-	 * Persists the entry in the cache to the underlay state.
+	 * Persists the entries in the cache that exceed the cache slots to the underlay state.
 	 *
 	 * @throws Exception Thrown if the system cannot access the state.
 	 */
 	public void close() throws Exception {
-		sharedBuffer.flushCache();
+		sharedBuffer.evictCache();
 	}
 
 	/**
@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.cep.nfa.sharedbuffer;
+
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.streaming.api.operators.KeyContext;
+import org.apache.flink.util.Preconditions;
+
+import org.apache.flink.shaded.guava18.com.google.common.collect.Iterables;
+
+import javax.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A cache of the deserialized values of one of the {@link MapState MapStates} of a {@link SharedBuffer}.
+ *
+ * <p>Without slots, the cache only holds the values that were accessed until the current access to the
+ * {@link SharedBuffer} is finished, and then writes all of them back to the state.
+ *
+ * <p>With slots, the cache is shared by all keys and keeps up to the given number of values across
+ * records, evicting the least recently used ones. Only values that were modified in the cache are written
+ * back to the state, when they are evicted or when the cache is {@link #flush() flushed}.
+ *
+ * @param <K> Type of the ids of the values
+ * @param <V> Type of the values
+ */
+class SharedBufferCache<K, V> {
+
+	private final MapState<K, V> state;
+
+	/** The context to switch to the key of a value before it is written back. Only needed with slots. */
+	@Nullable
+	private final KeyContext keyContext;
+
+	private final int slots;
+
+	/** The cached values, in the order of their last access. */
+	private final LinkedHashMap<CacheKey<K>, CachedValue<V>> cache;
+
+	private long hits;
+
+	private long misses;
+
+	SharedBufferCache(MapState<K, V> state, @Nullable KeyContext keyContext, int slots) {
+		Preconditions.checkArgument(slots >= 0, "The number of cache slots must not be negative.");
+		Preconditions.checkArgument(slots == 0 || keyContext != null, "A cache with slots needs a key context.");
+		this.state = Preconditions.checkNotNull(state);
+		this.keyContext = keyContext;
+		this.slots = slots;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	/**
+	 * Returns the value with the given id for the current key, either from the cache or from the state.
+	 *
+	 * @param id id of the value
+	 * @return the value, or {@code null} if there is none
+	 * @throws Exception Thrown if the system cannot access the state.
+	 */
+	@Nullable
+	V get(K id) throws Exception {
+		final CacheKey<K> cacheKey = cacheKey(id);
+		final CachedValue<V> cachedValue = cache.get(cacheKey);
+		if (cachedValue != null) {
+			hits++;
+			return cachedValue.value;
+		}
+
+		misses++;
+		final V value = state.get(id);
+		if (value != null) {
+			cache.put(cacheKey, new CachedValue<>(value, false));
+		}
+		return value;
+	}
+
+	/**
+	 * Inserts or updates the value with the given id for the current key in the cache.
+	 *
+	 * @param id id of the value
+	 * @param value the value
+	 */
+	void put(K id, V value) {
+		cache.put(cacheKey(id), new CachedValue<>(value, true));
+	}
+
+	/**
+	 * Removes the value with the given id for the current key from the cache and the state.
+	 *
+	 * @param id id of the value
+	 * @throws Exception Thrown if the system cannot access the state.
+	 */
+	void remove(K id) throws Exception {
+		cache.remove(cacheKey(id));
+		state.remove(id);
+	}
+
+	/**
+	 * Checks if there are no values for the current key, neither in the cache nor in the state.
+	 *
+	 * @return true if there are no values for the current key
+	 * @throws Exception Thrown if the system cannot access the state.
+	 */
+	boolean isEmpty() throws Exception {
+		final Object currentKey = currentKey();
+		for (CacheKey<K> cacheKey : cache.keySet()) {
+			if (Objects.equals(cacheKey.key, currentKey)) {
+				return false;
+			}
+		}
+		return Iterables.isEmpty(state.keys());
+	}
+
+	/**
+	 * Ends an access to the {@link SharedBuffer}. Writes back and removes the least recently used values
+	 * until no more values than the number of slots remain in the cache.
+	 *
+	 * @throws Exception Thrown if the system cannot access the state.
+	 */
+	void evict() throws Exception {
+		if (cache.isEmpty()) {
+			return;
+		}
+
+		if (slots == 0) {
+			final Map<K, V> values = new HashMap<>(cache.size());
+			for (Map.Entry<CacheKey<K>, CachedValue<V>> entry : cache.entrySet()) {
+				values.put(entry.getKey().id, entry.getValue().value);
+			}
+			state.putAll(values);
+			cache.clear();
+			return;
+		}
+
+		int numValuesToEvict = cache.size() - slots;
+		if (numValuesToEvict <= 0) {
+			return;
+		}
+
+		final Object currentKey = currentKey();
+		try {
+			final Iterator<Map.Entry<CacheKey<K>, CachedValue<V>>> iterator = cache.entrySet().iterator();
+			while (numValuesToEvict-- > 0) {
+				final Map.Entry<CacheKey<K>, CachedValue<V>> entry = iterator.next();
+				if (entry.getValue().dirty) {
+					writeBack(entry.getKey(), entry.getValue().value);
+				}
+				iterator.remove();
+			}
+		} finally {
+			restoreKey(currentKey);
+		}
+	}
+
+	/**
+	 * Writes back all modified values of all keys to the state. The values remain in the cache.
+	 *
+	 * @throws Exception Thrown if the system cannot access the state.
+	 */
+	void flush() throws Exception {
+		if (slots == 0) {
+			evict();
+			return;
+		}
+
+		final Object currentKey = currentKey();
+		try {
+			for (Map.Entry<CacheKey<K>, CachedValue<V>> entry : cache.entrySet()) {
+				final CachedValue<V> cachedValue = entry.getValue();
+				if (cachedValue.dirty) {
+					writeBack(entry.getKey(), cachedValue.value);
+					cachedValue.dirty = false;
+				}
+			}
+		} finally {
+			restoreKey(currentKey);
+		}
+	}
+
+	int size() {
+		return cache.size();
+	}
+
+	/**
+	 * Returns the ratio of accesses that were served from the cache, or {@code 0} if there was no access yet.
+	 */
+	double getHitRate() {
+		final long accesses = hits + misses;
+		return accesses == 0 ? 0.0 : (double) hits / accesses;
+	}
+
+	private void writeBack(CacheKey<K> cacheKey, V value) throws Exception {
+		if (!Objects.equals(keyContext.getCurrentKey(), cacheKey.key)) {
+			keyContext.setCurrentKey(cacheKey.key);
+		}
+		state.put(cacheKey.id, value);
+	}
+
+	private void restoreKey(@Nullable Object key) {
+		if (key != null && !Objects.equals(keyContext.getCurrentKey(), key)) {
+			keyContext.setCurrentKey(key);
+		}
+	}
+
+	@Nullable
+	private Object currentKey() {
+		return keyContext != null ? keyContext.getCurrentKey() : null;
+	}
+
+	private CacheKey<K> cacheKey(K id) {
+		return new CacheKey<>(currentKey(), id);
+	}
+
+	/**
+	 * The key of a cached value, made of the key of the stream and the id of the value.
+	 */
+	private static final class CacheKey<K> {
+
+		@Nullable
+		private final Object key;
+
+		private final K id;
+
+		CacheKey(@Nullable Object key, K id) {
+			this.key = key;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			CacheKey<?> that = (CacheKey<?>) o;
+			return Objects.equals(key, that.key) && id.equals(that.id);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Objects.hashCode(key) + id.hashCode();
+		}
+	}
+
+	/**
+	 * A cached value together with the flag whether it was modified since it was last written to the state.
+	 */
+	private static final class CachedValue<V> {
+
+		private final V value;
+
+		private boolean dirty;
+
+		CachedValue(V value, boolean dirty) {
+			this.value = value;
+			this.dirty = dirty;
+		}
+	}
+}
@@ -20,6 +20,7 @@ package org.apache.flink.cep.operator;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.functions.util.FunctionUtils;
 import org.apache.flink.api.common.state.MapState;
 import org.apache.flink.api.common.state.MapStateDescriptor;
@@ -30,12 +31,14 @@ import org.apache.flink.api.common.typeutils.base.ListSerializer;
 import org.apache.flink.api.common.typeutils.base.LongSerializer;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.cep.EventComparator;
+import org.apache.flink.cep.configuration.SharedBufferCacheOptions;
 import org.apache.flink.cep.functions.PatternProcessFunction;
 import org.apache.flink.cep.functions.TimedOutPartialMatchHandler;
 import org.apache.flink.cep.nfa.NFA;
 import org.apache.flink.cep.nfa.NFA.MigratedNFA;
 import org.apache.flink.cep.nfa.NFAState;
 import org.apache.flink.cep.nfa.NFAStateSerializer;
+import org.apache.flink.cep.nfa.StrictSequenceMatcher;
 import org.apache.flink.cep.nfa.aftermatch.AfterMatchSkipStrategy;
 import org.apache.flink.cep.nfa.compiler.NFACompiler;
 import org.apache.flink.cep.nfa.sharedbuffer.SharedBuffer;
@@ -43,18 +46,20 @@ import org.apache.flink.cep.nfa.sharedbuffer.SharedBufferAccessor;
 import org.apache.flink.cep.time.TimerService;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
 import org.apache.flink.runtime.state.KeyedStateFunction;
 import org.apache.flink.runtime.state.StateInitializationContext;
+import org.apache.flink.runtime.state.StateSnapshotContext;
 import org.apache.flink.runtime.state.VoidNamespace;
 import org.apache.flink.runtime.state.VoidNamespaceSerializer;
 import org.apache.flink.streaming.api.graph.StreamConfig;
 import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
+import org.apache.flink.streaming.api.operators.BatchedTriggerable;
 import org.apache.flink.streaming.api.operators.InternalTimer;
 import org.apache.flink.streaming.api.operators.InternalTimerService;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.operators.Output;
 import org.apache.flink.streaming.api.operators.TimestampedCollector;
-import org.apache.flink.streaming.api.operators.Triggerable;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.streaming.runtime.tasks.StreamTask;
 import org.apache.flink.util.OutputTag;
@@ -65,6 +70,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
@@ -82,11 +88,13 @@ import java.util.stream.Stream;
 @Internal
 public class CepOperator<IN, KEY, OUT>
 		extends AbstractUdfStreamOperator<OUT, PatternProcessFunction<IN, OUT>>
-		implements OneInputStreamOperator<IN, OUT>, Triggerable<KEY, VoidNamespace> {
+		implements OneInputStreamOperator<IN, OUT>, BatchedTriggerable<KEY, VoidNamespace> {
 
 	private static final long serialVersionUID = -4166778210774160757L;
 
 	private static final String LATE_ELEMENTS_DROPPED_METRIC_NAME = "numLateRecordsDropped";
+	private static final String ENTRY_CACHE_HIT_RATE_METRIC_NAME = "sharedBufferEntryCacheHitRate";
+	private static final String EVENT_CACHE_HIT_RATE_METRIC_NAME = "sharedBufferEventCacheHitRate";
 
 	private final boolean isProcessingTime;
 
@@ -96,6 +104,7 @@ public class CepOperator<IN, KEY, OUT>
 
 	private static final String NFA_STATE_NAME = "nfaStateName";
 	private static final String EVENT_QUEUE_STATE_NAME = "eventQueuesStateName";
+	private static final String STRICT_SEQUENCE_STATE_NAME = "strictSequenceStateName";
 
 	private final NFACompiler.NFAFactory<IN> nfaFactory;
 
@@ -107,6 +116,15 @@ public class CepOperator<IN, KEY, OUT>
 
 	private transient NFA<IN> nfa;
 
+	/**
+	 * The matcher that is used instead of the {@link NFA} if the pattern is a strict sequence of stateless conditions,
+	 * or {@code null} if the {@link NFA} is used.
+	 */
+	@Nullable
+	private transient StrictSequenceMatcher<IN> strictSequenceMatcher;
+
+	private transient ValueState<Tuple2<Long, List<Tuple2<Long, IN>>>> strictSequenceState;
+
 	/**
 	 * The last seen watermark. This will be used to
 	 * decide if an incoming element is late or not.
@@ -184,7 +202,13 @@ public class CepOperator<IN, KEY, OUT>
 				NFA_STATE_NAME,
 				new NFAStateSerializer()));
 
-		partialMatches = new SharedBuffer<>(context.getKeyedStateStore(), inputSerializer);
+		final Configuration jobParameters = getJobParameters();
+		partialMatches = new SharedBuffer<>(
+			context.getKeyedStateStore(),
+			inputSerializer,
+			this,
+			jobParameters.getInteger(SharedBufferCacheOptions.ENTRY_CACHE_SLOTS),
+			jobParameters.getInteger(SharedBufferCacheOptions.EVENT_CACHE_SLOTS));
 
 		elementQueueState = context.getKeyedStateStore().getMapState(
 				new MapStateDescriptor<>(
@@ -193,6 +217,37 @@ public class CepOperator<IN, KEY, OUT>
 						new ListSerializer<>(inputSerializer)));
 
 		migrateOldState();
+
+		strictSequenceMatcher = nfaFactory.createStrictSequenceMatcher();
+		if (strictSequenceMatcher != null) {
+			if (context.isRestored() && hasNFAState()) {
+				// keep using the NFA for the restored partial matches
+				strictSequenceMatcher = null;
+			} else {
+				strictSequenceState = context.getKeyedStateStore().getState(
+					new ValueStateDescriptor<>(
+						STRICT_SEQUENCE_STATE_NAME,
+						StrictSequenceMatcher.createStateSerializer(inputSerializer)));
+			}
+		}
+	}
+
+	/**
+	 * Returns the global job parameters as a {@link Configuration}, to read the options of the operator per job.
+	 */
+	private Configuration getJobParameters() {
+		final Configuration jobParameters = new Configuration();
+		final ExecutionConfig.GlobalJobParameters globalJobParameters = getExecutionConfig().getGlobalJobParameters();
+		if (globalJobParameters != null) {
+			globalJobParameters.toMap().forEach(jobParameters::setString);
+		}
+		return jobParameters;
+	}
+
+	private boolean hasNFAState() {
+		try (Stream<Object> keys = getKeyedStateBackend().getKeys(NFA_STATE_NAME, VoidNamespace.INSTANCE)) {
+			return keys.findAny().isPresent();
+		}
 	}
 
 	private void migrateOldState() throws Exception {
@@ -224,8 +279,12 @@ public class CepOperator<IN, KEY, OUT>
 				VoidNamespaceSerializer.INSTANCE,
 				this);
 
-		nfa = nfaFactory.createNFA();
-		nfa.open(cepRuntimeContext, new Configuration());
+		if (strictSequenceMatcher != null) {
+			strictSequenceMatcher.open(cepRuntimeContext, new Configuration());
+		} else {
+			nfa = nfaFactory.createNFA();
+			nfa.open(cepRuntimeContext, new Configuration());
+		}
 
 		context = new ContextFunctionImpl();
 		collector = new TimestampedCollector<>(output);
@@ -233,6 +292,15 @@ public class CepOperator<IN, KEY, OUT>
 
 		// metrics
 		this.numLateRecordsDropped = metrics.counter(LATE_ELEMENTS_DROPPED_METRIC_NAME);
+		metrics.gauge(ENTRY_CACHE_HIT_RATE_METRIC_NAME, (Gauge<Double>) partialMatches::getEntryCacheHitRate);
+		metrics.gauge(EVENT_CACHE_HIT_RATE_METRIC_NAME, (Gauge<Double>) partialMatches::getEventsBufferCacheHitRate);
+	}
+
+	@Override
+	public void snapshotState(StateSnapshotContext context) throws Exception {
+		super.snapshotState(context);
+		// write the cached modifications of the shared buffer to the state before the state is snapshotted
+		partialMatches.flushCache();
 	}
 
 	@Override
@@ -241,6 +309,9 @@ public class CepOperator<IN, KEY, OUT>
 		if (nfa != null) {
 			nfa.close();
 		}
+		if (strictSequenceMatcher != null) {
+			strictSequenceMatcher.close();
+		}
 	}
 
 	@Override
@@ -253,6 +324,9 @@ public class CepOperator<IN, KEY, OUT>
 				advanceTime(nfaState, timestamp);
 				processEvent(nfaState, element.getValue(), timestamp);
 				updateNFA(nfaState);
+				if (strictSequenceMatcher != null) {
+					advanceStrictSequenceTime(timestamp);
+				}
 			} else {
 				long currentTime = timerService.currentProcessingTime();
 				bufferEvent(element.getValue(), currentTime);
@@ -310,6 +384,35 @@ public class CepOperator<IN, KEY, OUT>
 		elementQueueState.put(currentTime, elementsForTimestamp);
 	}
 
+	/**
+	 * Fires a batch of event-time timers. The timers are ordered by key-group, so the buffered elements and the
+	 * NFA states of the keys are accessed with a better locality when a watermark fires the timers of many keys.
+	 */
+	@Override
+	public void onEventTimeBatch(Iterable<InternalTimer<KEY, VoidNamespace>> timers) throws Exception {
+		for (InternalTimer<KEY, VoidNamespace> timer : timers) {
+			setCurrentKey(timer.getKey());
+			onEventTime(timer);
+		}
+	}
+
+	@Override
+	public void onProcessingTimeBatch(Iterable<InternalTimer<KEY, VoidNamespace>> timers) throws Exception {
+		for (InternalTimer<KEY, VoidNamespace> timer : timers) {
+			setCurrentKey(timer.getKey());
+			onProcessingTime(timer);
+		}
+	}
+
+	/**
+	 * Batches the timers only if enabled in the {@link ExecutionConfig}, because
+	 * the matches of different keys are then emitted out of the order of their timestamps.
+	 */
+	@Override
+	public boolean isTimerBatchingEnabled() {
+		return getExecutionConfig().isBatchedTimersEnabled();
+	}
+
 	@Override
 	public void onEventTime(InternalTimer<KEY, VoidNamespace> timer) throws Exception {
 
@@ -345,11 +448,14 @@ public class CepOperator<IN, KEY, OUT>
 
 		// STEP 3
 		advanceTime(nfaState, timerService.currentWatermark());
+		if (strictSequenceMatcher != null) {
+			advanceStrictSequenceTime(timerService.currentWatermark());
+		}
 
 		// STEP 4
 		updateNFA(nfaState);
 
-		if (!sortedTimestamps.isEmpty() || !partialMatches.isEmpty()) {
+		if (!sortedTimestamps.isEmpty() || (strictSequenceMatcher == null && !partialMatches.isEmpty())) {
 			saveRegisterWatermarkTimer();
 		}
 
@@ -389,6 +495,9 @@ public class CepOperator<IN, KEY, OUT>
 
 		// STEP 3
 		updateNFA(nfa);
+		if (strictSequenceMatcher != null) {
+			advanceStrictSequenceTime(timer.getTimestamp());
+		}
 	}
 
 	private Stream<IN> sort(Collection<IN> elements) {
@@ -400,13 +509,19 @@ public class CepOperator<IN, KEY, OUT>
 		this.lastWatermark = timestamp;
 	}
 
+	/**
+	 * Returns the state of the NFA for the current key, or {@code null} if the strict sequence matcher is used.
+	 */
 	private NFAState getNFAState() throws IOException {
+		if (strictSequenceMatcher != null) {
+			return null;
+		}
 		NFAState nfaState = computationStates.value();
 		return nfaState != null ? nfaState : nfa.createInitialNFAState();
 	}
 
 	private void updateNFA(NFAState nfaState) throws IOException {
-		if (nfaState.isStateChanged()) {
+		if (nfaState != null && nfaState.isStateChanged()) {
 			nfaState.resetStateChanged();
 			computationStates.update(nfaState);
 		}
@@ -429,6 +544,14 @@ public class CepOperator<IN, KEY, OUT>
 	 * @param timestamp The timestamp of the event
 	 */
 	private void processEvent(NFAState nfaState, IN event, long timestamp) throws Exception {
+		if (strictSequenceMatcher != null) {
+			Map<String, List<IN>> match = strictSequenceMatcher.process(strictSequenceState, event, timestamp, cepTimerService);
+			if (match != null) {
+				processMatchedSequences(Collections.singletonList(match), timestamp);
+			}
+			return;
+		}
+
 		try (SharedBufferAccessor<IN> sharedBufferAccessor = partialMatches.getAccessor()) {
 			Collection<Map<String, List<IN>>> patterns =
 				nfa.process(sharedBufferAccessor, nfaState, event, timestamp, afterMatchSkipStrategy, cepTimerService);
@@ -441,6 +564,12 @@ public class CepOperator<IN, KEY, OUT>
 	 * <b>lower</b> than the given timestamp should be passed to the nfa, This can lead to pruning and timeouts.
 	 */
 	private void advanceTime(NFAState nfaState, long timestamp) throws Exception {
+		if (strictSequenceMatcher != null) {
+			// the strict sequence matcher discards timed out partial matches when the next event arrives,
+			// and in advanceStrictSequenceTime() once the events of a batch are processed
+			return;
+		}
+
 		try (SharedBufferAccessor<IN> sharedBufferAccessor = partialMatches.getAccessor()) {
 			Collection<Tuple2<Map<String, List<IN>>, Long>> timedOut =
 					nfa.advanceTime(sharedBufferAccessor, nfaState, timestamp);
@@ -450,6 +579,24 @@ public class CepOperator<IN, KEY, OUT>
 		}
 	}
 
+	/**
+	 * Discards the partial matches of the strict sequence matcher that time out at the given time, and registers a
+	 * timer for the time at which the remaining ones time out. Otherwise the partial matches of keys that receive
+	 * no more events would be kept forever.
+	 */
+	private void advanceStrictSequenceTime(long timestamp) throws Exception {
+		final long cleanupTime = strictSequenceMatcher.advanceTime(strictSequenceState, timestamp);
+		if (cleanupTime == Long.MAX_VALUE) {
+			return;
+		}
+
+		if (isProcessingTime) {
+			timerService.registerProcessingTimeTimer(VoidNamespace.INSTANCE, cleanupTime);
+		} else {
+			timerService.registerEventTimeTimer(VoidNamespace.INSTANCE, cleanupTime);
+		}
+	}
+
 	private void processMatchedSequences(Iterable<Map<String, List<IN>>> matchingSequences, long timestamp) throws Exception {
 		PatternProcessFunction<IN, OUT> function = getUserFunction();
 		setTimestamp(timestamp);
@@ -547,6 +694,12 @@ public class CepOperator<IN, KEY, OUT>
 		return !elementQueueState.isEmpty();
 	}
 
+	@VisibleForTesting
+	boolean hasNonEmptyStrictSequenceState(KEY key) throws Exception {
+		setCurrentKey(key);
+		return strictSequenceState != null && strictSequenceState.value() != null;
+	}
+
 	@VisibleForTesting
 	int getPQSize(KEY key) throws Exception {
 		setCurrentKey(key);
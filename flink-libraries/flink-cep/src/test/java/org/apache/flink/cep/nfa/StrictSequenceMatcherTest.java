@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.cep.nfa;
+
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.cep.Event;
+import org.apache.flink.cep.nfa.aftermatch.AfterMatchSkipStrategy;
+import org.apache.flink.cep.nfa.compiler.NFACompiler;
+import org.apache.flink.cep.pattern.Pattern;
+import org.apache.flink.cep.pattern.conditions.SimpleCondition;
+import org.apache.flink.cep.utils.NFATestHarness;
+import org.apache.flink.cep.utils.TestTimerService;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link StrictSequenceMatcher}.
+ */
+public class StrictSequenceMatcherTest extends TestLogger {
+
+	@Test
+	public void testOverlappingMatches() throws Exception {
+		final Pattern<Event, ?> pattern = Pattern.<Event>begin("first").where(new NameFilter("a"))
+			.next("second").where(new NameFilter("a"));
+
+		final List<StreamRecord<Event>> records = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			records.add(new StreamRecord<>(new Event(i, "a", 1.0), i));
+		}
+
+		final List<Map<String, List<Event>>> matches = feedMatcher(pattern, records);
+
+		assertEquals(3, matches.size());
+		assertEquals(records.get(2).getValue(), matches.get(1).get("first").get(0));
+		assertEquals(records.get(3).getValue(), matches.get(2).get("second").get(0));
+	}
+
+	@Test
+	public void testSameMatchesAsNFA() throws Exception {
+		final AfterMatchSkipStrategy[] skipStrategies = {
+			AfterMatchSkipStrategy.noSkip(),
+			AfterMatchSkipStrategy.skipToNext(),
+			AfterMatchSkipStrategy.skipPastLastEvent()
+		};
+
+		final List<StreamRecord<Event>> records = createRandomRecords(1000);
+		for (AfterMatchSkipStrategy skipStrategy : skipStrategies) {
+			for (long windowTime : new long[] {0L, 3L, 6L}) {
+				Pattern<Event, ?> pattern = Pattern.<Event>begin("start", skipStrategy).where(new NameFilter("a"))
+					.next("middle").where(new NameFilter("b"))
+					.next("end").where(new NameFilter("a"));
+				if (windowTime > 0L) {
+					pattern = pattern.within(Time.milliseconds(windowTime));
+				}
+
+				final NFATestHarness nfaTestHarness = NFATestHarness.forPattern(pattern).build();
+				final Collection<Map<String, List<Event>>> expected = nfaTestHarness.consumeRecords(records);
+
+				assertEquals(new ArrayList<>(expected), feedMatcher(pattern, records));
+			}
+		}
+	}
+
+	@Test
+	public void testAdvanceTimeDiscardsTimedOutPartialMatches() throws Exception {
+		final Pattern<Event, ?> pattern = Pattern.<Event>begin("first").where(new NameFilter("a"))
+			.next("second").where(new NameFilter("a"))
+			.next("third").where(new NameFilter("b"))
+			.within(Time.milliseconds(10));
+		final StrictSequenceMatcher<Event> matcher = NFACompiler.compileFactory(pattern, false)
+			.createStrictSequenceMatcher();
+		assertNotNull(matcher);
+
+		final TestValueState<Tuple2<Long, List<Tuple2<Long, Event>>>> state = new TestValueState<>();
+		final TestTimerService timerService = new TestTimerService();
+		assertEquals(Long.MAX_VALUE, matcher.advanceTime(state, 0L));
+
+		// two partial matches, started at 1 and at 4
+		assertNull(matcher.process(state, new Event(1, "a", 1.0), 1L, timerService));
+		assertNull(matcher.process(state, new Event(2, "a", 1.0), 4L, timerService));
+
+		// nothing timed out yet, the partial match started at 4 times out last
+		assertEquals(14L, matcher.advanceTime(state, 10L));
+		assertEquals(2, state.value().f1.size());
+
+		// the partial match started at 1 timed out
+		assertEquals(14L, matcher.advanceTime(state, 11L));
+		assertEquals(1L, (long) state.value().f0);
+		assertEquals(1, state.value().f1.size());
+
+		// all partial matches timed out
+		assertEquals(Long.MAX_VALUE, matcher.advanceTime(state, 14L));
+		assertNull(state.value());
+	}
+
+	private static List<Map<String, List<Event>>> feedMatcher(
+			Pattern<Event, ?> pattern,
+			List<StreamRecord<Event>> records) throws Exception {
+		final StrictSequenceMatcher<Event> matcher = NFACompiler.compileFactory(pattern, false)
+			.createStrictSequenceMatcher();
+		assertNotNull(matcher);
+
+		final TestValueState<Tuple2<Long, List<Tuple2<Long, Event>>>> state = new TestValueState<>();
+		final TestTimerService timerService = new TestTimerService();
+		final List<Map<String, List<Event>>> matches = new ArrayList<>();
+		for (StreamRecord<Event> record : records) {
+			final Map<String, List<Event>> match =
+				matcher.process(state, record.getValue(), record.getTimestamp(), timerService);
+			if (match != null) {
+				matches.add(match);
+			}
+		}
+		return matches;
+	}
+
+	private static List<StreamRecord<Event>> createRandomRecords(int numRecords) {
+		final Random random = new Random(42L);
+		final String[] names = {"a", "b", "c"};
+		final List<StreamRecord<Event>> records = new ArrayList<>(numRecords);
+		long timestamp = 0L;
+		for (int i = 0; i < numRecords; i++) {
+			timestamp += random.nextInt(3);
+			records.add(new StreamRecord<>(new Event(i, names[random.nextInt(names.length)], 1.0), timestamp));
+		}
+		return records;
+	}
+
+	private static class NameFilter extends SimpleCondition<Event> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String name;
+
+		NameFilter(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public boolean filter(Event value) throws Exception {
+			return value.getName().equals(name);
+		}
+	}
+
+	private static class TestValueState<T> implements ValueState<T> {
+
+		private T value;
+
+		@Override
+		public T value() {
+			return value;
+		}
+
+		@Override
+		public void update(T value) {
+			this.value = value;
+		}
+
+		@Override
+		public void clear() {
+			value = null;
+		}
+	}
+}
@@ -25,10 +25,13 @@ import org.apache.flink.cep.nfa.NFA;
 import org.apache.flink.cep.nfa.State;
 import org.apache.flink.cep.nfa.StateTransition;
 import org.apache.flink.cep.nfa.StateTransitionAction;
+import org.apache.flink.cep.nfa.StrictSequenceMatcher;
 import org.apache.flink.cep.nfa.aftermatch.AfterMatchSkipStrategy;
 import org.apache.flink.cep.pattern.MalformedPatternException;
 import org.apache.flink.cep.pattern.Pattern;
+import org.apache.flink.cep.pattern.conditions.IterativeCondition;
 import org.apache.flink.cep.pattern.conditions.SimpleCondition;
+import org.apache.flink.streaming.api.windowing.time.Time;
 import org.apache.flink.util.TestLogger;
 
 import org.apache.flink.shaded.guava18.com.google.common.collect.Sets;
@@ -45,6 +48,8 @@ import java.util.Set;
 
 import static org.apache.flink.cep.utils.NFAUtils.compile;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -238,4 +243,42 @@ public class NFACompilerTest extends TestLogger {
 		assertThat(NFACompiler.canProduceEmptyMatches(Pattern.begin("a").oneOrMore()), is(false));
 		assertThat(NFACompiler.canProduceEmptyMatches(Pattern.begin("a").oneOrMore().next("b").optional()), is(false));
 	}
+
+	@Test
+	public void testCompilingStrictSequenceMatcher() {
+		final Pattern<Event, ?> sequence = Pattern.<Event>begin("start").where(startFilter)
+			.next("end").where(endFilter);
+
+		assertThat(compileStrictSequenceMatcher(sequence, false), is(notNullValue()));
+		assertThat(compileStrictSequenceMatcher(sequence.within(Time.milliseconds(10)), false), is(notNullValue()));
+		assertThat(compileStrictSequenceMatcher(
+			Pattern.<Event>begin("start", AfterMatchSkipStrategy.skipPastLastEvent()).where(startFilter)
+				.next("end").where(startFilter).or(endFilter), false), is(notNullValue()));
+
+		// timed out partial matches are only reported by the NFA
+		assertThat(compileStrictSequenceMatcher(sequence.within(Time.milliseconds(10)), true), is(nullValue()));
+		assertThat(compileStrictSequenceMatcher(
+			Pattern.<Event>begin("start").where(startFilter).followedBy("end").where(endFilter), false), is(nullValue()));
+		assertThat(compileStrictSequenceMatcher(
+			Pattern.<Event>begin("start").where(startFilter).next("end").where(endFilter).optional(), false),
+			is(nullValue()));
+		assertThat(compileStrictSequenceMatcher(
+			Pattern.<Event>begin("start").where(startFilter).next("end").where(endFilter).times(2), false),
+			is(nullValue()));
+		assertThat(compileStrictSequenceMatcher(
+			Pattern.<Event>begin("start", AfterMatchSkipStrategy.skipToFirst("end")).where(startFilter)
+				.next("end").where(endFilter), false), is(nullValue()));
+		assertThat(compileStrictSequenceMatcher(
+			Pattern.<Event>begin("start").where(startFilter).next("end").where(new IterativeCondition<Event>() {
+				@Override
+				public boolean filter(Event value, Context<Event> ctx) throws Exception {
+					return ctx.getEventsForPattern("start").iterator().hasNext();
+				}
+			}), false), is(nullValue()));
+	}
+
+	private static StrictSequenceMatcher<Event> compileStrictSequenceMatcher(Pattern<Event, ?> pattern, boolean timeoutHandling) {
+		final long windowTime = pattern.getWindowTime() != null ? pattern.getWindowTime().toMilliseconds() : 0L;
+		return NFACompiler.compileStrictSequenceMatcher(pattern, windowTime, timeoutHandling);
+	}
 }
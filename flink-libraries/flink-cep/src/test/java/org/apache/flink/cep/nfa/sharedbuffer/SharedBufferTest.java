@@ -21,11 +21,13 @@ package org.apache.flink.cep.nfa.sharedbuffer;
 import org.apache.flink.cep.Event;
 import org.apache.flink.cep.nfa.DeweyNumber;
 import org.apache.flink.cep.utils.TestSharedBuffer;
+import org.apache.flink.streaming.api.operators.KeyContext;
 import org.apache.flink.util.TestLogger;
 
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -34,6 +36,7 @@ import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -318,4 +321,72 @@ public class SharedBufferTest extends TestLogger {
 		assertTrue(sharedBuffer.isEmpty());
 	}
 
+	@Test
+	public void testCacheSlotsKeepEventsAcrossAccessors() throws Exception {
+		TestSharedBuffer<Event> sharedBuffer =
+			TestSharedBuffer.createTestBuffer(Event.createTypeSerializer(), new SingleKeyContext(), 2);
+		int numberEvents = 4;
+		EventId[] eventIds = new EventId[numberEvents];
+
+		try (SharedBufferAccessor<Event> sharedBufferAccessor = sharedBuffer.getAccessor()) {
+			for (int i = 0; i < numberEvents; i++) {
+				eventIds[i] = sharedBufferAccessor.registerEvent(new Event(i + 1, "e" + (i + 1), i), 1L);
+			}
+		}
+
+		// only the least recently used events were written to the state
+		assertEquals(2, sharedBuffer.getEventsBufferCacheSize());
+		assertEquals(2, sharedBuffer.getEventsBufferSize());
+
+		long stateReads = sharedBuffer.getStateReads();
+		try (SharedBufferAccessor<Event> sharedBufferAccessor = sharedBuffer.getAccessor()) {
+			sharedBufferAccessor.releaseEvent(eventIds[3]);
+		}
+
+		// the released event was served from the cache
+		assertEquals(stateReads, sharedBuffer.getStateReads());
+		assertEquals(1.0, sharedBuffer.getEventsBufferCacheHitRate(), 0.0);
+		assertEquals(1, sharedBuffer.getEventsBufferCacheSize());
+		assertEquals(2, sharedBuffer.getEventsBufferSize());
+
+		sharedBuffer.flushCache();
+
+		assertEquals(1, sharedBuffer.getEventsBufferCacheSize());
+		assertEquals(3, sharedBuffer.getEventsBufferSize());
+		assertFalse(sharedBuffer.isEmpty());
+	}
+
+	@Test
+	public void testEventsCachedAcrossRecordsAreCopiedForMatches() throws Exception {
+		TestSharedBuffer<Event> sharedBuffer =
+			TestSharedBuffer.createTestBuffer(Event.createTypeSerializer(), new SingleKeyContext(), 2);
+		Event event = new Event(1, "e1", 1.0);
+
+		try (SharedBufferAccessor<Event> sharedBufferAccessor = sharedBuffer.getAccessor()) {
+			EventId eventId = sharedBufferAccessor.registerEvent(event, 1L);
+
+			Map<String, List<EventId>> match = new HashMap<>();
+			match.put("start", Collections.singletonList(eventId));
+			Event matchedEvent = sharedBufferAccessor.materializeMatch(match).get("start").get(0);
+
+			// user code must not be able to modify the cached instance
+			assertEquals(event, matchedEvent);
+			assertNotSame(sharedBuffer.getEvent(eventId).getElement(), matchedEvent);
+
+			sharedBufferAccessor.releaseEvent(eventId);
+		}
+	}
+
+	private static class SingleKeyContext implements KeyContext {
+
+		@Override
+		public void setCurrentKey(Object key) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object getCurrentKey() {
+			return 42;
+		}
+	}
 }
@@ -69,6 +69,7 @@ import java.util.Map;
 import java.util.Queue;
 
 import static org.apache.flink.cep.utils.CepOperatorBuilder.createOperatorForNFA;
+import static org.apache.flink.cep.utils.CepOperatorBuilder.createOperatorForNFAFactory;
 import static org.apache.flink.cep.utils.EventBuilder.event;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -655,6 +656,48 @@ public class CEPOperatorTest extends TestLogger {
 		}
 	}
 
+	@Test
+	public void testStrictSequenceStateCleanupOfIdleKeys() throws Exception {
+		Pattern<Event, ?> pattern = Pattern.<Event>begin("start").where(new SimpleCondition<Event>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean filter(Event value) throws Exception {
+				return value.getName().equals("start");
+			}
+		}).next("end").where(new SimpleCondition<Event>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean filter(Event value) throws Exception {
+				return value.getName().equals("end");
+			}
+		}).within(Time.milliseconds(10L));
+
+		CepOperator<Event, Integer, Map<String, List<Event>>> operator =
+			createOperatorForNFAFactory(NFACompiler.compileFactory(pattern, false)).inEventTime().build();
+		OneInputStreamOperatorTestHarness<Event, Map<String, List<Event>>> harness = CepOperatorTestUtilities.getCepTestHarness(operator);
+
+		try {
+			harness.open();
+
+			harness.processElement(new StreamRecord<>(new Event(42, "start", 1.0), 1L));
+			harness.processWatermark(new Watermark(2L));
+
+			// the partial match is kept, and a timer is registered for when it times out
+			assertTrue(operator.hasNonEmptyStrictSequenceState(42));
+			assertEquals(1L, harness.numEventTimeTimers());
+
+			// no more events arrive for the key, the timer clears its state
+			harness.processWatermark(new Watermark(11L));
+
+			assertFalse(operator.hasNonEmptyStrictSequenceState(42));
+			assertEquals(0L, harness.numEventTimeTimers());
+		} finally {
+			harness.close();
+		}
+	}
+
 	@Test
 	public void testCEPOperatorCleanupEventTimeWithSameElements() throws Exception {
 
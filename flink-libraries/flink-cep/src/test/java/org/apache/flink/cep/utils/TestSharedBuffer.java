@@ -33,6 +33,7 @@ import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.cep.nfa.sharedbuffer.SharedBuffer;
+import org.apache.flink.streaming.api.operators.KeyContext;
 
 import org.apache.flink.shaded.guava18.com.google.common.collect.Iterators;
 
@@ -50,8 +51,13 @@ public class TestSharedBuffer<V> extends SharedBuffer<V> {
 
 	private final MockKeyedStateStore keyedStateStore;
 
-	private TestSharedBuffer(MockKeyedStateStore stateStore, TypeSerializer<V> valueSerializer) {
-		super(stateStore, valueSerializer);
+	private TestSharedBuffer(
+			MockKeyedStateStore stateStore,
+			TypeSerializer<V> valueSerializer,
+			KeyContext keyContext,
+			int entryCacheSlots,
+			int eventCacheSlots) {
+		super(stateStore, valueSerializer, keyContext, entryCacheSlots, eventCacheSlots);
 		this.keyedStateStore = stateStore;
 	}
 
@@ -75,7 +81,23 @@ public class TestSharedBuffer<V> extends SharedBuffer<V> {
 	 * @return TestSharedBuffer instance
 	 */
 	public static <T> TestSharedBuffer<T> createTestBuffer(TypeSerializer<T> typeSerializer) {
-		return new TestSharedBuffer<>(new MockKeyedStateStore(), typeSerializer);
+		return new TestSharedBuffer<>(new MockKeyedStateStore(), typeSerializer, null, 0, 0);
+	}
+
+	/**
+	 * Creates instance of {@link TestSharedBuffer} that caches entries and events across accesses.
+	 *
+	 * @param typeSerializer serializer used to serialize incoming events
+	 * @param keyContext     context of the current key
+	 * @param cacheSlots     number of entries and of events that are cached across accesses
+	 * @param <T>            type of incoming events
+	 * @return TestSharedBuffer instance
+	 */
+	public static <T> TestSharedBuffer<T> createTestBuffer(
+			TypeSerializer<T> typeSerializer,
+			KeyContext keyContext,
+			int cacheSlots) {
+		return new TestSharedBuffer<>(new MockKeyedStateStore(), typeSerializer, keyContext, cacheSlots, cacheSlots);
 	}
 
 	private static class MockKeyedStateStore implements KeyedStateStore {
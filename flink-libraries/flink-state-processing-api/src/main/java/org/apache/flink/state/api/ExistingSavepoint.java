@@ -35,6 +35,7 @@ import org.apache.flink.runtime.state.StateBackend;
 import org.apache.flink.runtime.state.VoidNamespace;
 import org.apache.flink.state.api.functions.KeyedStateReaderFunction;
 import org.apache.flink.state.api.input.BroadcastStateInputFormat;
+import org.apache.flink.state.api.input.KeyedStateEntryInputFormat;
 import org.apache.flink.state.api.input.KeyedStateInputFormat;
 import org.apache.flink.state.api.input.ListStateInputFormat;
 import org.apache.flink.state.api.input.UnionStateInputFormat;
@@ -284,4 +285,26 @@ public class ExistingSavepoint extends WritableSavepoint<ExistingSavepoint> {
 
 		return env.createInput(inputFormat, outTypeInfo);
 	}
+
+	/**
+	 * Bulk read the keyed state of an operator in a {@code Savepoint} as raw key/value pairs.
+	 *
+	 * <p>In contrast to {@link #readKeyedState(String, KeyedStateReaderFunction)} this does not restore
+	 * a state backend. The key/value pairs are streamed straight from the snapshot files and the work is
+	 * split at key-group granularity, which makes it suitable for scanning very large savepoints. Keys and
+	 * values are returned in their serialized form, see {@link KeyedStateEntry}.
+	 *
+	 * <p><b>NOTE:</b> This is supported for savepoints written by the {@code RocksDBStateBackend} and the heap
+	 * state backends. The layout of a heap savepoint is only readable if the serializers of the keys, namespaces
+	 * and values are on the classpath.
+	 *
+	 * @param uid The uid of the operator.
+	 * @return A {@code DataSet} of the serialized key/value pairs in keyed state.
+	 * @throws IOException If the savepoint does not contain operator state with the given uid.
+	 */
+	public DataSet<KeyedStateEntry> readKeyedStateEntries(String uid) throws IOException {
+		OperatorState operatorState = metadata.getOperatorState(uid);
+		KeyedStateEntryInputFormat inputFormat = new KeyedStateEntryInputFormat(operatorState);
+		return env.createInput(inputFormat, TypeInformation.of(KeyedStateEntry.class));
+	}
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.state.api;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+import java.util.Arrays;
+
+/**
+ * A single key/value pair of keyed state as it is stored in a savepoint, read without
+ * restoring a state backend.
+ *
+ * <p>The key contains the serialized key followed by the serialized namespace (and, for map state
+ * in RocksDB savepoints, the serialized user key), without the key-group prefix. The value is the
+ * serialized state value in the format of the state backend that wrote the savepoint, i.e. heap
+ * savepoints store a whole list or map as one value. Elements of priority queues (e.g. timers) are
+ * stored in the key and have an empty value.
+ */
+@PublicEvolving
+public class KeyedStateEntry {
+
+	/** The name of the state this entry belongs to. */
+	public String stateName;
+
+	/** The key-group of the key. */
+	public int keyGroup;
+
+	/** The serialized key and namespace. */
+	public byte[] key;
+
+	/** The serialized value. */
+	public byte[] value;
+
+	public KeyedStateEntry() {
+	}
+
+	public KeyedStateEntry(String stateName, int keyGroup, byte[] key, byte[] value) {
+		this.stateName = stateName;
+		this.keyGroup = keyGroup;
+		this.key = key;
+		this.value = value;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		KeyedStateEntry that = (KeyedStateEntry) o;
+		return keyGroup == that.keyGroup &&
+			stateName.equals(that.stateName) &&
+			Arrays.equals(key, that.key) &&
+			Arrays.equals(value, that.value);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = stateName.hashCode();
+		result = 31 * result + keyGroup;
+		result = 31 * result + Arrays.hashCode(key);
+		result = 31 * result + Arrays.hashCode(value);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "KeyedStateEntry{" +
+			"stateName='" + stateName + '\'' +
+			", keyGroup=" + keyGroup +
+			", key=" + Arrays.toString(key) +
+			", value=" + Arrays.toString(value) +
+			'}';
+	}
+}
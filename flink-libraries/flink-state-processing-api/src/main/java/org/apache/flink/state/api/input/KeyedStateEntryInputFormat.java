@@ -0,0 +1,435 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.state.api.input;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.io.DefaultInputSplitAssigner;
+import org.apache.flink.api.common.io.RichInputFormat;
+import org.apache.flink.api.common.io.statistics.BaseStatistics;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.io.InputSplitAssigner;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.runtime.checkpoint.OperatorState;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
+import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.SnappyStreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
+import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
+import org.apache.flink.state.api.KeyedStateEntry;
+import org.apache.flink.state.api.input.splits.KeyGroupRangeInputSplit;
+import org.apache.flink.util.IOUtils;
+import org.apache.flink.util.Preconditions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Input format for bulk reading partitioned state as raw {@link KeyedStateEntry KeyedStateEntries}.
+ *
+ * <p>Unlike {@link KeyedStateInputFormat}, this format does not restore a state backend. It streams the
+ * key/value pairs directly from the key-group offsets of the snapshot files, so every split only reads
+ * the bytes of the key-groups assigned to it. Splits are created at key-group granularity.
+ *
+ * <p>The format understands the full snapshot layouts written by the RocksDB state backend and by the
+ * heap state backends, which are the layouts of all savepoints. The layout is detected from the data at
+ * the key-group offsets: the heap backends start every key-group with the id of the key-group, RocksDB
+ * starts it with the id of the first state. The entries of heap savepoints are copied with the serializers
+ * restored from the meta data of the savepoint, so the serializer classes must be on the classpath.
+ */
+@Internal
+public class KeyedStateEntryInputFormat extends RichInputFormat<KeyedStateEntry, KeyGroupRangeInputSplit> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Bit in the first byte of a key which signals that meta data follows the key/value pair. */
+	private static final int FIRST_BIT_IN_BYTE_MASK = 0x80;
+
+	/** Meta data that marks the end of a key-group. */
+	private static final int END_OF_KEY_GROUP_MARK = 0xFFFF;
+
+	/** The oldest version of the heap snapshot layout which stores one entry per key and namespace. */
+	private static final int MIN_HEAP_LAYOUT_VERSION = 2;
+
+	private static final byte[] EMPTY_VALUE = new byte[0];
+
+	private final OperatorState operatorState;
+
+	private transient Iterator<KeyedStateHandle> stateHandles;
+
+	private transient FSDataInputStream currentStateHandleInStream;
+
+	private transient long currentStateHandleSize;
+
+	private transient List<StateMetaInfoSnapshot> currentMetaInfoSnapshots;
+
+	private transient StreamCompressionDecorator currentCompressionDecorator;
+
+	private transient boolean currentHeapLayout;
+
+	private transient TypeSerializer<Object> currentKeySerializer;
+
+	private transient TypeSerializer<Object>[] currentNamespaceSerializers;
+
+	private transient TypeSerializer<Object>[] currentValueSerializers;
+
+	private transient Iterator<Tuple2<Integer, Long>> currentKeyGroupOffsets;
+
+	private transient InputStream currentKeyGroupInStream;
+
+	private transient DataInputView currentKeyGroupInView;
+
+	private transient int currentKeyGroup;
+
+	private transient int currentStateId;
+
+	private transient boolean keyGroupHasMoreKeys;
+
+	/** Number of states of the current heap key-group which were not read yet. */
+	private transient int remainingStatesInKeyGroup;
+
+	/** Number of entries of the current state in the current heap key-group which were not read yet. */
+	private transient int remainingEntriesInState;
+
+	private transient int keyGroupPrefixBytes;
+
+	private transient DataOutputSerializer keyBuffer;
+
+	private transient DataOutputSerializer namespaceBuffer;
+
+	private transient DataOutputSerializer valueBuffer;
+
+	private transient KeyedStateEntry nextEntry;
+
+	/**
+	 * Creates an input format for bulk reading partitioned state from an operator in a savepoint.
+	 *
+	 * @param operatorState The state to be queried.
+	 */
+	public KeyedStateEntryInputFormat(OperatorState operatorState) {
+		this.operatorState = Preconditions.checkNotNull(operatorState, "The operator state cannot be null");
+	}
+
+	@Override
+	public void configure(Configuration parameters) {
+	}
+
+	@Override
+	public InputSplitAssigner getInputSplitAssigner(KeyGroupRangeInputSplit[] inputSplits) {
+		return new DefaultInputSplitAssigner(inputSplits);
+	}
+
+	@Override
+	public BaseStatistics getStatistics(BaseStatistics cachedStatistics) {
+		return cachedStatistics;
+	}
+
+	@Override
+	public KeyGroupRangeInputSplit[] createInputSplits(int minNumSplits) {
+		return KeyedStateInputFormat.createKeyGroupRangeInputSplits(operatorState, minNumSplits);
+	}
+
+	@Override
+	public void open(KeyGroupRangeInputSplit split) throws IOException {
+		stateHandles = split.getManagedKeyedState().iterator();
+		keyGroupPrefixBytes = split.getNumKeyGroups() > (Byte.MAX_VALUE + 1) ? 2 : 1;
+		keyGroupHasMoreKeys = false;
+		currentKeyGroupOffsets = null;
+		keyBuffer = new DataOutputSerializer(64);
+		namespaceBuffer = new DataOutputSerializer(16);
+		valueBuffer = new DataOutputSerializer(64);
+		nextEntry = readNextEntry();
+	}
+
+	@Override
+	public boolean reachedEnd() {
+		return nextEntry == null;
+	}
+
+	@Override
+	public KeyedStateEntry nextRecord(KeyedStateEntry reuse) throws IOException {
+		KeyedStateEntry entry = nextEntry;
+		nextEntry = readNextEntry();
+		return entry;
+	}
+
+	@Override
+	public void close() throws IOException {
+		closeCurrentStateHandle();
+	}
+
+	private KeyedStateEntry readNextEntry() throws IOException {
+		while (true) {
+			if (keyGroupHasMoreKeys) {
+				KeyedStateEntry entry = currentHeapLayout ? readHeapEntryInKeyGroup() : readEntryInKeyGroup();
+				if (entry != null) {
+					return entry;
+				}
+				continue;
+			}
+
+			if (currentKeyGroupOffsets != null && currentKeyGroupOffsets.hasNext()) {
+				openKeyGroup(currentKeyGroupOffsets.next());
+				continue;
+			}
+
+			closeCurrentStateHandle();
+			if (!stateHandles.hasNext()) {
+				return null;
+			}
+			openStateHandle(stateHandles.next());
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  RocksDB layout
+	// ------------------------------------------------------------------------
+
+	private KeyedStateEntry readEntryInKeyGroup() throws IOException {
+		final byte[] key = readByteArray(currentKeyGroupInView);
+		final byte[] value = readByteArray(currentKeyGroupInView);
+		final String stateName = currentMetaInfoSnapshots.get(currentStateId).getName();
+
+		if (key.length == 0) {
+			throw new IOException("Unexpected empty key in key-group " + currentKeyGroup + '.');
+		}
+
+		if ((key[0] & FIRST_BIT_IN_BYTE_MASK) != 0) {
+			// the flag is only a marker in the stream, it is not part of the key-group prefix
+			key[0] &= ~FIRST_BIT_IN_BYTE_MASK;
+
+			final int kvStateId = END_OF_KEY_GROUP_MARK & currentKeyGroupInView.readShort();
+			if (kvStateId == END_OF_KEY_GROUP_MARK) {
+				keyGroupHasMoreKeys = false;
+				IOUtils.closeQuietly(currentKeyGroupInStream);
+			} else {
+				currentStateId = checkStateId(kvStateId);
+			}
+		}
+
+		final byte[] keyWithoutPrefix = new byte[Math.max(0, key.length - keyGroupPrefixBytes)];
+		System.arraycopy(key, key.length - keyWithoutPrefix.length, keyWithoutPrefix, 0, keyWithoutPrefix.length);
+		return new KeyedStateEntry(stateName, currentKeyGroup, keyWithoutPrefix, value);
+	}
+
+	/**
+	 * Reads a byte array which is prefixed with its length. The length is checked against the size of the
+	 * state handle, so that corrupt data fails with an exception instead of a huge allocation.
+	 */
+	private byte[] readByteArray(DataInputView in) throws IOException {
+		final int length = in.readInt();
+		if (length < 0 || length > currentStateHandleSize) {
+			throw new IOException("Invalid length " + length + " of a key or value in key-group " + currentKeyGroup +
+				". The savepoint is corrupt or was not written in the full snapshot layout of the RocksDB state backend.");
+		}
+		final byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Heap layout
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Reads the next entry of the current heap key-group. Returns null if the current state has no more
+	 * entries, or the key-group is finished.
+	 */
+	private KeyedStateEntry readHeapEntryInKeyGroup() throws IOException {
+		if (remainingEntriesInState == 0) {
+			if (remainingStatesInKeyGroup == 0) {
+				keyGroupHasMoreKeys = false;
+				IOUtils.closeQuietly(currentKeyGroupInStream);
+			} else {
+				remainingStatesInKeyGroup--;
+				currentStateId = checkStateId(currentKeyGroupInView.readShort());
+				remainingEntriesInState = currentKeyGroupInView.readInt();
+				if (remainingEntriesInState < 0) {
+					throw new IOException("Invalid number of entries " + remainingEntriesInState + " in key-group " +
+						currentKeyGroup + '.');
+				}
+			}
+			return null;
+		}
+
+		remainingEntriesInState--;
+		final StateMetaInfoSnapshot metaInfoSnapshot = currentMetaInfoSnapshots.get(currentStateId);
+
+		keyBuffer.clear();
+		valueBuffer.clear();
+		if (metaInfoSnapshot.getBackendStateType() == StateMetaInfoSnapshot.BackendStateType.PRIORITY_QUEUE) {
+			// like in RocksDB, the elements of priority queues (e.g. timers) are the keys of entries without a value
+			currentValueSerializers[currentStateId].copy(currentKeyGroupInView, keyBuffer);
+			return new KeyedStateEntry(metaInfoSnapshot.getName(), currentKeyGroup, keyBuffer.getCopyOfBuffer(), EMPTY_VALUE);
+		}
+
+		// the heap backends write the namespace before the key
+		namespaceBuffer.clear();
+		currentNamespaceSerializers[currentStateId].copy(currentKeyGroupInView, namespaceBuffer);
+		currentKeySerializer.copy(currentKeyGroupInView, keyBuffer);
+		keyBuffer.write(namespaceBuffer.getSharedBuffer(), 0, namespaceBuffer.length());
+		currentValueSerializers[currentStateId].copy(currentKeyGroupInView, valueBuffer);
+
+		return new KeyedStateEntry(
+			metaInfoSnapshot.getName(),
+			currentKeyGroup,
+			keyBuffer.getCopyOfBuffer(),
+			valueBuffer.getCopyOfBuffer());
+	}
+
+	// ------------------------------------------------------------------------
+
+	private int checkStateId(int stateId) throws IOException {
+		if (stateId < 0 || stateId >= currentMetaInfoSnapshots.size()) {
+			throw new IOException("Invalid state id " + stateId + " in key-group " + currentKeyGroup + ". The savepoint " +
+				"is corrupt or was not written in the full snapshot layout of the RocksDB or heap state backends.");
+		}
+		return stateId;
+	}
+
+	private void openKeyGroup(Tuple2<Integer, Long> keyGroupOffset) throws IOException {
+		final long offset = keyGroupOffset.f1;
+		currentKeyGroup = keyGroupOffset.f0;
+		if (offset == 0L) {
+			// empty key-group
+			return;
+		}
+
+		currentStateHandleInStream.seek(offset);
+		if (currentHeapLayout) {
+			final int writtenKeyGroup = new DataInputViewStreamWrapper(currentStateHandleInStream).readInt();
+			if (writtenKeyGroup != currentKeyGroup) {
+				throw new IOException("Unexpected key-group " + writtenKeyGroup + ", expected " + currentKeyGroup + '.');
+			}
+		}
+
+		currentKeyGroupInStream = currentCompressionDecorator.decorateWithCompression(currentStateHandleInStream);
+		currentKeyGroupInView = new DataInputViewStreamWrapper(currentKeyGroupInStream);
+		if (currentHeapLayout) {
+			remainingStatesInKeyGroup = currentMetaInfoSnapshots.size();
+			remainingEntriesInState = 0;
+		} else {
+			currentStateId = checkStateId(currentKeyGroupInView.readShort());
+		}
+		keyGroupHasMoreKeys = true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void openStateHandle(KeyedStateHandle stateHandle) throws IOException {
+		if (!(stateHandle instanceof KeyGroupsStateHandle)) {
+			throw new IOException("Unexpected state handle type " + stateHandle.getClass() +
+				". Only full snapshots can be bulk read, expected " + KeyGroupsStateHandle.class + '.');
+		}
+
+		final KeyGroupsStateHandle keyGroupsStateHandle = (KeyGroupsStateHandle) stateHandle;
+		currentStateHandleInStream = keyGroupsStateHandle.openInputStream();
+		currentStateHandleSize = keyGroupsStateHandle.getStateSize();
+
+		final KeyedBackendSerializationProxy<Object> serializationProxy =
+			new KeyedBackendSerializationProxy<>(getRuntimeContext().getUserCodeClassLoader());
+		serializationProxy.read(new DataInputViewStreamWrapper(currentStateHandleInStream));
+
+		currentCompressionDecorator = serializationProxy.isUsingKeyGroupCompression() ?
+			SnappyStreamCompressionDecorator.INSTANCE : UncompressedStreamCompressionDecorator.INSTANCE;
+		currentMetaInfoSnapshots = serializationProxy.getStateMetaInfoSnapshots();
+		currentHeapLayout = isHeapLayout(keyGroupsStateHandle, serializationProxy.isUsingKeyGroupCompression());
+
+		if (currentHeapLayout) {
+			if (serializationProxy.getReadVersion() < MIN_HEAP_LAYOUT_VERSION) {
+				throw new IOException("Savepoints of the heap state backends written with version " +
+					serializationProxy.getReadVersion() + " of the snapshot layout cannot be bulk read.");
+			}
+
+			final int numStates = currentMetaInfoSnapshots.size();
+			currentKeySerializer = serializationProxy.getKeySerializerSnapshot().restoreSerializer();
+			currentNamespaceSerializers = new TypeSerializer[numStates];
+			currentValueSerializers = new TypeSerializer[numStates];
+			for (int i = 0; i < numStates; i++) {
+				final StateMetaInfoSnapshot metaInfoSnapshot = currentMetaInfoSnapshots.get(i);
+				if (metaInfoSnapshot.getBackendStateType() == StateMetaInfoSnapshot.BackendStateType.KEY_VALUE) {
+					currentNamespaceSerializers[i] = (TypeSerializer<Object>) metaInfoSnapshot
+						.getTypeSerializerSnapshot(StateMetaInfoSnapshot.CommonSerializerKeys.NAMESPACE_SERIALIZER)
+						.restoreSerializer();
+				}
+				currentValueSerializers[i] = (TypeSerializer<Object>) metaInfoSnapshot
+					.getTypeSerializerSnapshot(StateMetaInfoSnapshot.CommonSerializerKeys.VALUE_SERIALIZER)
+					.restoreSerializer();
+			}
+		}
+
+		currentKeyGroupOffsets = keyGroupsStateHandle.getGroupRangeOffsets().iterator();
+	}
+
+	/**
+	 * Returns whether the state handle was written by a heap state backend. The heap backends write the id of
+	 * the key-group uncompressed at the offset of every key-group. RocksDB starts a key-group with a (possibly
+	 * compressed) short state id, followed by the length of the first key. Key-groups other than 0 can therefore
+	 * be told apart exactly, because key-group ids are smaller than {@code 2^16}.
+	 */
+	private boolean isHeapLayout(KeyGroupsStateHandle stateHandle, boolean compressed) throws IOException {
+		final DataInputView in = new DataInputViewStreamWrapper(currentStateHandleInStream);
+		Tuple2<Integer, Long> firstKeyGroupOffset = null;
+		for (Tuple2<Integer, Long> keyGroupOffset : stateHandle.getGroupRangeOffsets()) {
+			if (keyGroupOffset.f1 == 0L) {
+				continue;
+			}
+			if (keyGroupOffset.f0 != 0) {
+				currentStateHandleInStream.seek(keyGroupOffset.f1);
+				return in.readInt() == keyGroupOffset.f0;
+			}
+			firstKeyGroupOffset = keyGroupOffset;
+		}
+
+		if (firstKeyGroupOffset == null) {
+			// no data at all
+			return false;
+		}
+
+		// only key-group 0 has data
+		currentStateHandleInStream.seek(firstKeyGroupOffset.f1);
+		if (in.readInt() != 0) {
+			return false;
+		} else if (compressed || currentMetaInfoSnapshots.isEmpty()) {
+			// compressed RocksDB key-groups start with the header of the compression format
+			return true;
+		} else {
+			// the heap layout continues with the id of the first state, which is always 0, the RocksDB layout
+			// with the lower bytes of the length of the first key, which includes the key-group prefix
+			return in.readShort() == 0;
+		}
+	}
+
+	private void closeCurrentStateHandle() {
+		keyGroupHasMoreKeys = false;
+		currentKeyGroupOffsets = null;
+		IOUtils.closeQuietly(currentKeyGroupInStream);
+		currentKeyGroupInStream = null;
+		IOUtils.closeQuietly(currentStateHandleInStream);
+		currentStateHandleInStream = null;
+	}
+}
@@ -112,6 +112,13 @@ public class KeyedStateInputFormat<K, N, OUT> extends RichInputFormat<OUT, KeyGr
 
 	@Override
 	public KeyGroupRangeInputSplit[] createInputSplits(int minNumSplits) throws IOException {
+		return createKeyGroupRangeInputSplits(operatorState, minNumSplits);
+	}
+
+	/**
+	 * Splits the keyed state of the operator into at most {@code minNumSplits} contiguous key-group ranges.
+	 */
+	static KeyGroupRangeInputSplit[] createKeyGroupRangeInputSplits(OperatorState operatorState, int minNumSplits) {
 		final int maxParallelism = operatorState.getMaxParallelism();
 
 		final List<KeyGroupRange> keyGroups = sortedKeyGroupRanges(minNumSplits, maxParallelism);
@@ -74,6 +74,10 @@ public final class KeyGroupRangeInputSplit implements InputSplit {
 		).build();
 	}
 
+	public List<KeyedStateHandle> getManagedKeyedState() {
+		return managedKeyedState;
+	}
+
 	public int getNumKeyGroups() {
 		return numKeyGroups;
 	}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.state.api.input;
+
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.api.common.typeutils.base.VoidSerializer;
+import org.apache.flink.contrib.streaming.state.RocksDBStateBackend;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.runtime.checkpoint.OperatorState;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.runtime.state.StateBackend;
+import org.apache.flink.runtime.state.memory.MemoryStateBackend;
+import org.apache.flink.state.api.KeyedStateEntry;
+import org.apache.flink.state.api.input.KeyedStateInputFormatTest.StatefulFunction;
+import org.apache.flink.state.api.input.splits.KeyGroupRangeInputSplit;
+import org.apache.flink.state.api.runtime.OperatorIDGenerator;
+import org.apache.flink.streaming.api.operators.StreamFlatMap;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.MockStreamingRuntimeContext;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tests for {@link KeyedStateEntryInputFormat} with savepoints of the RocksDB and heap state backends.
+ */
+@RunWith(Parameterized.class)
+public class KeyedStateEntryInputFormatTest {
+
+	private static final int MAX_PARALLELISM = 128;
+
+	@Parameterized.Parameters(name = "backend = {0}, compression = {1}")
+	public static Collection<Object[]> parameters() {
+		return Arrays.asList(
+			new Object[]{"rocksdb", false},
+			new Object[]{"rocksdb", true},
+			new Object[]{"heap", false},
+			new Object[]{"heap", true});
+	}
+
+	@Parameterized.Parameter
+	public String backend;
+
+	@Parameterized.Parameter(1)
+	public boolean compression;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testReadEntries() throws Exception {
+		OperatorState operatorState = createOperatorState();
+
+		KeyedStateEntryInputFormat format = new KeyedStateEntryInputFormat(operatorState);
+		KeyGroupRangeInputSplit[] splits = format.createInputSplits(1);
+		Assert.assertEquals(1, splits.length);
+
+		List<KeyedStateEntry> entries = readInputSplit(splits[0]);
+		Assert.assertEquals("Incorrect number of entries read from input split", 3, entries.size());
+
+		List<Integer> keys = new ArrayList<>();
+		for (KeyedStateEntry entry : entries) {
+			Assert.assertEquals("state", entry.stateName);
+
+			// ints are serialized with a fixed length, so the key is directly followed by the namespace
+			int key = new DataInputDeserializer(entry.key).readInt();
+			int value = new DataInputDeserializer(entry.value).readInt();
+
+			Assert.assertEquals(KeyGroupRangeAssignment.assignToKeyGroup(key, MAX_PARALLELISM), entry.keyGroup);
+			Assert.assertEquals("The value of the state is the key itself", key, value);
+			keys.add(key);
+		}
+
+		keys.sort(Integer::compareTo);
+		Assert.assertEquals(Arrays.asList(1, 2, 3), keys);
+	}
+
+	@Test
+	public void testSplitsPartitionEntriesByKeyGroup() throws Exception {
+		OperatorState operatorState = createOperatorState();
+
+		KeyedStateEntryInputFormat format = new KeyedStateEntryInputFormat(operatorState);
+		KeyGroupRangeInputSplit[] splits = format.createInputSplits(MAX_PARALLELISM);
+		Assert.assertEquals(MAX_PARALLELISM, splits.length);
+
+		List<KeyedStateEntry> entries = new ArrayList<>();
+		for (KeyGroupRangeInputSplit split : splits) {
+			List<KeyedStateEntry> splitEntries = readInputSplit(split);
+			for (KeyedStateEntry entry : splitEntries) {
+				Assert.assertEquals(
+					"Every split must only read its own key-group",
+					splitEntries.get(0).keyGroup,
+					entry.keyGroup);
+			}
+			entries.addAll(splitEntries);
+		}
+
+		Assert.assertEquals("Incorrect number of entries read from all input splits", 3, entries.size());
+	}
+
+	private List<KeyedStateEntry> readInputSplit(KeyGroupRangeInputSplit split) throws IOException {
+		KeyedStateEntryInputFormat format = new KeyedStateEntryInputFormat(
+			new OperatorState(OperatorIDGenerator.fromUid("uid"), 1, MAX_PARALLELISM));
+		format.setRuntimeContext(new MockStreamingRuntimeContext(false, 1, 0));
+
+		List<KeyedStateEntry> entries = new ArrayList<>();
+
+		format.openInputFormat();
+		format.open(split);
+
+		while (!format.reachedEnd()) {
+			entries.add(format.nextRecord(null));
+		}
+
+		format.close();
+		format.closeInputFormat();
+
+		return entries;
+	}
+
+	private OperatorState createOperatorState() throws Exception {
+		OperatorID operatorID = OperatorIDGenerator.fromUid("uid");
+
+		OperatorState operatorState = new OperatorState(operatorID, 1, MAX_PARALLELISM);
+		operatorState.putState(0, createOperatorSubtaskState());
+		return operatorState;
+	}
+
+	private OperatorSubtaskState createOperatorSubtaskState() throws Exception {
+		try (KeyedOneInputStreamOperatorTestHarness<Integer, Integer, Void> testHarness =
+				new KeyedOneInputStreamOperatorTestHarness<>(
+					new StreamFlatMap<>(new StatefulFunction()), id -> id, Types.INT, MAX_PARALLELISM, 1, 0)) {
+
+			testHarness.setStateBackend(createStateBackend());
+			testHarness.getExecutionConfig().setUseSnapshotCompression(compression);
+			testHarness.setup(VoidSerializer.INSTANCE);
+			testHarness.open();
+
+			testHarness.processElement(1, 0);
+			testHarness.processElement(2, 0);
+			testHarness.processElement(3, 0);
+
+			return testHarness.snapshot(0, 0);
+		}
+	}
+
+	private StateBackend createStateBackend() throws IOException {
+		switch (backend) {
+			case "rocksdb":
+				return new RocksDBStateBackend(folder.newFolder().toURI());
+			case "heap":
+				return new MemoryStateBackend();
+			default:
+				throw new IllegalArgumentException("Unknown state backend " + backend);
+		}
+	}
+}
@@ -57,6 +57,8 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -229,6 +231,51 @@ public class QueryableStateClient {
 				keyTypeInfo, VoidNamespaceTypeInfo.INSTANCE, stateDescriptor);
 	}
 
+	/**
+	 * Returns a future holding the request results for a batch of keys.
+	 *
+	 * <p>This is a convenience wrapper around {@link #getKvState(JobID, String, Object, TypeInformation, StateDescriptor)}:
+	 * it issues one independent request per distinct key without waiting for the previous ones, and combines the
+	 * results. There is no multi-key request in the protocol, so the batch is not answered from one consistent view
+	 * of the state. The results of different keys may reflect the state at different points in time, and results
+	 * of the server-side cache may be as old as its time-to-live. The returned future fails if the request for any
+	 * key fails.
+	 *
+	 * <p>A multi-key request message, and a server-side executor that reads the keys of such a request at once,
+	 * are not implemented. Each key is read separately by the query threads of the state server.
+	 *
+	 * @param jobId                     JobID of the job the queryable state belongs to.
+	 * @param queryableStateName        Name under which the state is queryable.
+	 * @param keys			            The keys we are interested in.
+	 * @param keyTypeInfo				The {@link TypeInformation} of the keys.
+	 * @param stateDescriptor			The {@link StateDescriptor} of the state we want to query.
+	 * @return Future holding the immutable {@link State} objects containing the results, keyed by the queried key.
+	 */
+	@PublicEvolving
+	public <K, S extends State, V> CompletableFuture<Map<K, S>> getKvStates(
+			final JobID jobId,
+			final String queryableStateName,
+			final Collection<K> keys,
+			final TypeInformation<K> keyTypeInfo,
+			final StateDescriptor<S, V> stateDescriptor) {
+
+		Preconditions.checkNotNull(keys);
+
+		final Map<K, CompletableFuture<S>> futures = new LinkedHashMap<>(keys.size());
+		for (K key : keys) {
+			futures.computeIfAbsent(key, k -> getKvState(jobId, queryableStateName, k, keyTypeInfo, stateDescriptor));
+		}
+
+		return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+			.thenApply(ignored -> {
+				final Map<K, S> results = new LinkedHashMap<>(futures.size());
+				for (Map.Entry<K, CompletableFuture<S>> entry : futures.entrySet()) {
+					results.put(entry.getKey(), entry.getValue().join());
+				}
+				return results;
+			});
+	}
+
 	/**
 	 * Returns a future holding the request result.
 	 * @param jobId                     JobID of the job the queryable state belongs to.
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.queryablestate.server;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.queryablestate.KvStateID;
+import org.apache.flink.runtime.util.clock.Clock;
+import org.apache.flink.util.Preconditions;
+
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size bounded cache for serialized query results of the {@link KvStateServerHandler}.
+ *
+ * <p>Results are keyed by the {@link KvStateID} and the serialized key and namespace of
+ * the request. An entry is served for at most the configured time-to-live after it has
+ * been read from the state, so a cached answer is never older than the TTL. Once the
+ * maximum number of entries is reached, the least recently used entry is evicted.
+ */
+@Internal
+public class KvStateResponseCache {
+
+	private final long ttlNanos;
+
+	private final Clock clock;
+
+	private final LinkedHashMap<CacheKey, CacheEntry> entries;
+
+	public KvStateResponseCache(final long ttlMillis, final int maxEntries, final Clock clock) {
+		Preconditions.checkArgument(ttlMillis > 0L, "The TTL must be positive.");
+		Preconditions.checkArgument(maxEntries > 0, "The maximum number of entries must be positive.");
+
+		this.ttlNanos = ttlMillis * 1_000_000L;
+		this.clock = Preconditions.checkNotNull(clock);
+		this.entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached serialized value for the given request or {@code null} if there
+	 * is no entry or the entry has expired.
+	 */
+	@Nullable
+	public byte[] get(final KvStateID kvStateId, final byte[] serializedKeyAndNamespace) {
+		final CacheKey key = new CacheKey(kvStateId, serializedKeyAndNamespace);
+		final long now = clock.relativeTimeNanos();
+
+		synchronized (entries) {
+			final CacheEntry entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			} else if (now - entry.timestampNanos >= ttlNanos) {
+				entries.remove(key);
+				return null;
+			} else {
+				return entry.serializedValue;
+			}
+		}
+	}
+
+	/**
+	 * Caches the serialized value that was read for the given request.
+	 */
+	public void put(final KvStateID kvStateId, final byte[] serializedKeyAndNamespace, final byte[] serializedValue) {
+		final CacheKey key = new CacheKey(kvStateId, serializedKeyAndNamespace);
+		final CacheEntry entry = new CacheEntry(serializedValue, clock.relativeTimeNanos());
+
+		synchronized (entries) {
+			entries.put(key, entry);
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static final class CacheKey {
+
+		private final KvStateID kvStateId;
+
+		private final byte[] serializedKeyAndNamespace;
+
+		private final int hashCode;
+
+		CacheKey(final KvStateID kvStateId, final byte[] serializedKeyAndNamespace) {
+			this.kvStateId = Preconditions.checkNotNull(kvStateId);
+			this.serializedKeyAndNamespace = Preconditions.checkNotNull(serializedKeyAndNamespace);
+			this.hashCode = 31 * kvStateId.hashCode() + Arrays.hashCode(serializedKeyAndNamespace);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			CacheKey that = (CacheKey) o;
+			return kvStateId.equals(that.kvStateId) &&
+					Arrays.equals(serializedKeyAndNamespace, that.serializedKeyAndNamespace);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private static final class CacheEntry {
+
+		private final byte[] serializedValue;
+
+		private final long timestampNanos;
+
+		CacheEntry(final byte[] serializedValue, final long timestampNanos) {
+			this.serializedValue = Preconditions.checkNotNull(serializedValue);
+			this.timestampNanos = timestampNanos;
+		}
+	}
+}
@@ -35,6 +35,8 @@ import org.apache.flink.util.Preconditions;
 
 import org.apache.flink.shaded.netty4.io.netty.channel.ChannelHandler;
 
+import javax.annotation.Nullable;
+
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -44,6 +46,10 @@ import java.util.concurrent.CompletableFuture;
  * <p>The network threads receive the message, deserialize it and dispatch the
  * query task. The actual query is handled in a separate thread as it might
  * otherwise block the network threads (file I/O etc.).
+ *
+ * <p>If a {@link KvStateResponseCache} is given, successful results are cached and
+ * repeated queries for the same key and namespace are answered from the cache until
+ * the cached entry expires.
  */
 @Internal
 @ChannelHandler.Sharable
@@ -52,6 +58,10 @@ public class KvStateServerHandler extends AbstractServerHandler<KvStateInternalR
 	/** KvState registry holding references to the KvState instances. */
 	private final KvStateRegistry registry;
 
+	/** Optional cache for serialized results, {@code null} if caching is disabled. */
+	@Nullable
+	private final KvStateResponseCache responseCache;
+
 	/**
 	 * Create the handler used by the {@link KvStateServerImpl}.
 	 *
@@ -66,8 +76,28 @@ public class KvStateServerHandler extends AbstractServerHandler<KvStateInternalR
 			final MessageSerializer<KvStateInternalRequest, KvStateResponse> serializer,
 			final KvStateRequestStats stats) {
 
+		this(server, kvStateRegistry, serializer, stats, null);
+	}
+
+	/**
+	 * Create the handler used by the {@link KvStateServerImpl}.
+	 *
+	 * @param server the {@link KvStateServerImpl} using the handler.
+	 * @param kvStateRegistry registry to query.
+	 * @param serializer the {@link MessageSerializer} used to (de-) serialize the different messages.
+	 * @param stats server statistics collector.
+	 * @param responseCache cache for serialized results or {@code null} to disable caching.
+	 */
+	public KvStateServerHandler(
+			final KvStateServerImpl server,
+			final KvStateRegistry kvStateRegistry,
+			final MessageSerializer<KvStateInternalRequest, KvStateResponse> serializer,
+			final KvStateRequestStats stats,
+			@Nullable final KvStateResponseCache responseCache) {
+
 		super(server, serializer, stats);
 		this.registry = Preconditions.checkNotNull(kvStateRegistry);
+		this.responseCache = responseCache;
 	}
 
 	@Override
@@ -81,7 +111,17 @@ public class KvStateServerHandler extends AbstractServerHandler<KvStateInternalR
 			} else {
 				byte[] serializedKeyAndNamespace = request.getSerializedKeyAndNamespace();
 
-				byte[] serializedResult = getSerializedValue(kvState, serializedKeyAndNamespace);
+				byte[] serializedResult = responseCache != null
+						? responseCache.get(request.getKvStateId(), serializedKeyAndNamespace)
+						: null;
+
+				if (serializedResult == null) {
+					serializedResult = getSerializedValue(kvState, serializedKeyAndNamespace);
+					if (serializedResult != null && responseCache != null) {
+						responseCache.put(request.getKvStateId(), serializedKeyAndNamespace, serializedResult);
+					}
+				}
+
 				if (serializedResult != null) {
 					responseFuture.complete(new KvStateResponse(serializedResult));
 				} else {
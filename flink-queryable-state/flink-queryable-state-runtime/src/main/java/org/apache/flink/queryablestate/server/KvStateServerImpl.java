@@ -27,6 +27,7 @@ import org.apache.flink.queryablestate.network.messages.MessageSerializer;
 import org.apache.flink.queryablestate.network.stats.KvStateRequestStats;
 import org.apache.flink.runtime.query.KvStateRegistry;
 import org.apache.flink.runtime.query.KvStateServer;
+import org.apache.flink.runtime.util.clock.SystemClock;
 import org.apache.flink.util.Preconditions;
 
 import java.net.InetAddress;
@@ -47,12 +48,42 @@ public class KvStateServerImpl extends AbstractServerBase<KvStateInternalRequest
 
 	private MessageSerializer<KvStateInternalRequest, KvStateResponse> serializer;
 
+	/** The time-to-live of cached query results in milliseconds, {@code 0} if caching is disabled. */
+	private final long cacheTtlMillis;
+
+	/** The maximum number of cached query results. */
+	private final int cacheMaxEntries;
+
+	/**
+	 * Creates the state server without a result cache.
+	 *
+	 * <p>The server needs to be started via {@link #start()} in order to bind
+	 * to the configured bind address.
+	 *
+	 * @param bindAddress the address to listen to.
+	 * @param bindPortIterator the port range to try to bind to.
+	 * @param numEventLoopThreads number of event loop threads.
+	 * @param numQueryThreads number of query threads.
+	 * @param kvStateRegistry {@link KvStateRegistry} to query for state instances.
+	 * @param stats the statistics collector.
+	 */
+	public KvStateServerImpl(
+			final InetAddress bindAddress,
+			final Iterator<Integer> bindPortIterator,
+			final Integer numEventLoopThreads,
+			final Integer numQueryThreads,
+			final KvStateRegistry kvStateRegistry,
+			final KvStateRequestStats stats) {
+
+		this(bindAddress, bindPortIterator, numEventLoopThreads, numQueryThreads, kvStateRegistry, stats, 0L, 0);
+	}
+
 	/**
 	 * Creates the state server.
 	 *
 	 * <p>The server is instantiated using reflection by the
-	 * {@link org.apache.flink.runtime.query.QueryableStateUtils#createKvStateServer(InetAddress, Iterator, int, int, KvStateRegistry, KvStateRequestStats)
-	 * QueryableStateUtils.createKvStateServer(InetAddress, Iterator, int, int, KvStateRegistry, KvStateRequestStats)}.
+	 * {@link org.apache.flink.runtime.query.QueryableStateUtils#createKvStateServer(InetAddress, Iterator, int, int, KvStateRegistry, KvStateRequestStats, long, int)
+	 * QueryableStateUtils.createKvStateServer(InetAddress, Iterator, int, int, KvStateRegistry, KvStateRequestStats, long, int)}.
 	 *
 	 * <p>The server needs to be started via {@link #start()} in order to bind
 	 * to the configured bind address.
@@ -63,6 +94,8 @@ public class KvStateServerImpl extends AbstractServerBase<KvStateInternalRequest
 	 * @param numQueryThreads number of query threads.
 	 * @param kvStateRegistry {@link KvStateRegistry} to query for state instances.
 	 * @param stats the statistics collector.
+	 * @param cacheTtlMillis the time-to-live of cached query results in milliseconds ({@code 0} disables the cache).
+	 * @param cacheMaxEntries the maximum number of cached query results.
 	 */
 	public KvStateServerImpl(
 			final InetAddress bindAddress,
@@ -70,11 +103,19 @@ public class KvStateServerImpl extends AbstractServerBase<KvStateInternalRequest
 			final Integer numEventLoopThreads,
 			final Integer numQueryThreads,
 			final KvStateRegistry kvStateRegistry,
-			final KvStateRequestStats stats) {
+			final KvStateRequestStats stats,
+			final Long cacheTtlMillis,
+			final Integer cacheMaxEntries) {
 
 		super("Queryable State Server", bindAddress, bindPortIterator, numEventLoopThreads, numQueryThreads);
 		this.stats = Preconditions.checkNotNull(stats);
 		this.kvStateRegistry = Preconditions.checkNotNull(kvStateRegistry);
+
+		Preconditions.checkArgument(cacheTtlMillis >= 0L, "The cache TTL must not be negative.");
+		Preconditions.checkArgument(cacheTtlMillis == 0L || cacheMaxEntries > 0,
+				"The maximum number of cache entries must be positive if caching is enabled.");
+		this.cacheTtlMillis = cacheTtlMillis;
+		this.cacheMaxEntries = cacheMaxEntries;
 	}
 
 	@Override
@@ -82,7 +123,10 @@ public class KvStateServerImpl extends AbstractServerBase<KvStateInternalRequest
 		this.serializer = new MessageSerializer<>(
 				new KvStateInternalRequest.KvStateInternalRequestDeserializer(),
 				new KvStateResponse.KvStateResponseDeserializer());
-		return new KvStateServerHandler(this, kvStateRegistry, serializer, stats);
+		final KvStateResponseCache responseCache = cacheTtlMillis > 0L
+				? new KvStateResponseCache(cacheTtlMillis, cacheMaxEntries, SystemClock.getInstance())
+				: null;
+		return new KvStateServerHandler(this, kvStateRegistry, serializer, stats, responseCache);
 	}
 
 	public MessageSerializer<KvStateInternalRequest, KvStateResponse> getSerializer() {
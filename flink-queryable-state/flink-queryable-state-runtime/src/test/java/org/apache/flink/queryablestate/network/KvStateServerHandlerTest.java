@@ -43,6 +43,7 @@ import org.apache.flink.queryablestate.network.stats.AtomicKvStateRequestStats;
 import org.apache.flink.queryablestate.network.stats.DisabledKvStateRequestStats;
 import org.apache.flink.queryablestate.network.stats.KvStateRequestStats;
 import org.apache.flink.queryablestate.server.KvStateServerHandler;
+import org.apache.flink.queryablestate.server.KvStateResponseCache;
 import org.apache.flink.queryablestate.server.KvStateServerImpl;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.operators.testutils.DummyEnvironment;
@@ -55,6 +56,7 @@ import org.apache.flink.runtime.state.KeyedStateBackend;
 import org.apache.flink.runtime.state.internal.InternalKvState;
 import org.apache.flink.runtime.state.memory.MemoryStateBackend;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.runtime.util.clock.ManualClock;
 import org.apache.flink.util.TestLogger;
 
 import org.apache.flink.shaded.netty4.io.netty.buffer.ByteBuf;
@@ -187,6 +189,66 @@ public class KvStateServerHandlerTest extends TestLogger {
 		assertEquals(stats.toString(), 1L, stats.getNumSuccessful());
 	}
 
+	/**
+	 * Tests that results are served from the {@link KvStateResponseCache} until the
+	 * cached entry expires.
+	 */
+	@Test
+	public void testCachedQuery() throws Exception {
+		KvStateRegistry registry = new KvStateRegistry();
+		AtomicKvStateRequestStats stats = new AtomicKvStateRequestStats();
+
+		MessageSerializer<KvStateInternalRequest, KvStateResponse> serializer =
+				new MessageSerializer<>(new KvStateInternalRequest.KvStateInternalRequestDeserializer(), new KvStateResponse.KvStateResponseDeserializer());
+
+		ManualClock clock = new ManualClock();
+		KvStateResponseCache cache = new KvStateResponseCache(1000L, 10, clock);
+
+		KvStateServerHandler handler = new KvStateServerHandler(testServer, registry, serializer, stats, cache);
+		EmbeddedChannel channel = new EmbeddedChannel(getFrameDecoder(), handler);
+
+		// Register state
+		ValueStateDescriptor<Integer> desc = new ValueStateDescriptor<>("any", IntSerializer.INSTANCE);
+		desc.setQueryable("vanilla");
+
+		int numKeyGroups = 1;
+		AbstractStateBackend abstractBackend = new MemoryStateBackend();
+		DummyEnvironment dummyEnv = new DummyEnvironment("test", 1, 0);
+		dummyEnv.setKvStateRegistry(registry);
+		AbstractKeyedStateBackend<Integer> backend = createKeyedStateBackend(registry, numKeyGroups, abstractBackend, dummyEnv);
+
+		final TestRegistryListener registryListener = new TestRegistryListener();
+		registry.registerListener(dummyEnv.getJobID(), registryListener);
+
+		int key = 99812822;
+		backend.setCurrentKey(key);
+		ValueState<Integer> state = backend.getPartitionedState(
+				VoidNamespace.INSTANCE,
+				VoidNamespaceSerializer.INSTANCE,
+				desc);
+
+		byte[] serializedKeyAndNamespace = KvStateSerializer.serializeKeyAndNamespace(
+				key,
+				IntSerializer.INSTANCE,
+				VoidNamespace.INSTANCE,
+				VoidNamespaceSerializer.INSTANCE);
+
+		KvStateInternalRequest request = new KvStateInternalRequest(
+				registryListener.kvStateId, serializedKeyAndNamespace);
+
+		state.update(1);
+		assertEquals(1, queryIntValue(channel, serializer, 1L, request));
+		assertEquals(1, cache.size());
+
+		// the cached result is returned although the state has changed
+		state.update(2);
+		assertEquals(1, queryIntValue(channel, serializer, 2L, request));
+
+		// once the entry has expired, the state is read again
+		clock.advanceTime(1000L, TimeUnit.MILLISECONDS);
+		assertEquals(2, queryIntValue(channel, serializer, 3L, request));
+	}
+
 	/**
 	 * Tests the failure response with {@link UnknownKvStateIdException} as cause on
 	 * queries for unregistered KvStateIDs.
@@ -700,6 +762,28 @@ public class KvStateServerHandlerTest extends TestLogger {
 
 	// ------------------------------------------------------------------------
 
+	/**
+	 * Sends the request through the embedded channel and returns the deserialized value.
+	 */
+	private int queryIntValue(
+			EmbeddedChannel channel,
+			MessageSerializer<KvStateInternalRequest, KvStateResponse> serializer,
+			long requestId,
+			KvStateInternalRequest request) throws Exception {
+
+		ByteBuf serRequest = MessageSerializer.serializeRequest(channel.alloc(), requestId, request);
+		channel.writeInbound(serRequest);
+
+		ByteBuf buf = (ByteBuf) readInboundBlocking(channel);
+		buf.skipBytes(4); // skip frame length
+
+		assertEquals(MessageType.REQUEST_RESULT, MessageSerializer.deserializeHeader(buf));
+		assertEquals(requestId, MessageSerializer.getRequestId(buf));
+		KvStateResponse response = serializer.deserializeResponse(buf);
+
+		return KvStateSerializer.deserializeValue(response.getContent(), IntSerializer.INSTANCE);
+	}
+
 	/**
 	 * Queries the embedded channel for data.
 	 */
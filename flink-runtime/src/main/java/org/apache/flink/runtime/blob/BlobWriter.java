@@ -70,6 +70,20 @@ public interface BlobWriter {
 	 */
 	PermanentBlobKey putPermanent(JobID jobId, InputStream inputStream) throws IOException;
 
+	/**
+	 * Deletes the permanent BLOB of the given job from the BLOB server and the HA store. The BLOB
+	 * must no longer be referenced by any deployment which still has to retrieve it.
+	 *
+	 * @param jobId
+	 * 		ID of the job this blob belongs to
+	 * @param key
+	 * 		blob key associated with the BLOB to be deleted
+	 *
+	 * @return  <tt>true</tt> if the given blob is successfully deleted or non-existing;
+	 *          <tt>false</tt> otherwise
+	 */
+	boolean deletePermanent(JobID jobId, PermanentBlobKey key);
+
 	/**
 	 * Returns the min size before data will be offloaded to the BLOB store.
 	 *
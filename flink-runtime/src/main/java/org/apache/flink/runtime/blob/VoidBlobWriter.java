@@ -44,6 +44,12 @@ public class VoidBlobWriter implements BlobWriter {
 		throw new IOException("The VoidBlobWriter cannot write data to the BLOB store.");
 	}
 
+	@Override
+	public boolean deletePermanent(JobID jobId, PermanentBlobKey key) {
+		// nothing is ever written, so there is nothing to delete
+		return true;
+	}
+
 	@Override
 	public int getMinOffloadingSize() {
 		return Integer.MAX_VALUE;
@@ -55,6 +55,8 @@ import javax.annotation.Nullable;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -149,6 +151,9 @@ public class CheckpointCoordinator {
 	/** The master checkpoint hooks executed by this checkpoint coordinator. */
 	private final HashMap<String, MasterTriggerRestoreHook<?>> masterHooks;
 
+	/** The operator coordinators checkpointed by this checkpoint coordinator, by the name of their state. */
+	private final LinkedHashMap<String, OperatorCoordinatorCheckpointContext> coordinatorsToCheckpoint;
+
 	/** Actor that receives status updates from the execution graph this coordinator works for. */
 	private JobStatusListener jobStatusListener;
 
@@ -185,6 +190,9 @@ public class CheckpointCoordinator {
 
 	private boolean isPreferCheckpointForRecovery;
 
+	/** Whether the checkpoint barriers are allowed to overtake in-flight data. */
+	private final boolean isUnalignedCheckpointsEnabled;
+
 	private final CheckpointFailureManager failureManager;
 
 	private final Clock clock;
@@ -274,11 +282,13 @@ public class CheckpointCoordinator {
 		this.sharedStateRegistryFactory = checkNotNull(sharedStateRegistryFactory);
 		this.sharedStateRegistry = sharedStateRegistryFactory.create(executor);
 		this.isPreferCheckpointForRecovery = chkConfig.isPreferCheckpointForRecovery();
+		this.isUnalignedCheckpointsEnabled = chkConfig.isUnalignedCheckpointsEnabled();
 		this.failureManager = checkNotNull(failureManager);
 		this.clock = checkNotNull(clock);
 
 		this.recentPendingCheckpoints = new ArrayDeque<>(NUM_GHOST_CHECKPOINT_IDS);
 		this.masterHooks = new HashMap<>();
+		this.coordinatorsToCheckpoint = new LinkedHashMap<>();
 		this.triggerRequestQueue = new ArrayDeque<>();
 
 		this.timer = timer;
@@ -331,6 +341,25 @@ public class CheckpointCoordinator {
 		}
 	}
 
+	/**
+	 * Adds the given operator coordinator to the checkpoint coordinator. The coordinator is
+	 * checkpointed before the checkpoint is triggered on the tasks, notified when a checkpoint
+	 * completes, and reset to its checkpointed state when the job is restored from a checkpoint
+	 * or savepoint.
+	 *
+	 * @param coordinator The operator coordinator to add.
+	 */
+	public void addOperatorCoordinator(OperatorCoordinatorCheckpointContext coordinator) {
+		checkNotNull(coordinator);
+
+		synchronized (lock) {
+			checkArgument(
+				!coordinatorsToCheckpoint.containsKey(coordinator.stateName()),
+				"The coordinator of operator %s is already registered", coordinator.operatorId());
+			coordinatorsToCheckpoint.put(coordinator.stateName(), coordinator);
+		}
+	}
+
 	/**
 	 * Gets the number of currently register master hooks.
 	 */
@@ -634,7 +663,7 @@ public class CheckpointCoordinator {
 			checkpointID,
 			timestamp,
 			ackTasks,
-			masterHooks.keySet(),
+			getMasterStateIdentifiers(),
 			props,
 			checkpointStorageLocation,
 			executor,
@@ -668,13 +697,13 @@ public class CheckpointCoordinator {
 	}
 
 	/**
-	 * Snapshot master hook states asynchronously.
+	 * Snapshot master hook and operator coordinator states asynchronously.
 	 *
 	 * @param checkpoint the pending checkpoint
-	 * @return the future represents master hook states are finished or not
+	 * @return the future represents master hook and coordinator states are finished or not
 	 */
 	private CompletableFuture<Void> snapshotMasterState(PendingCheckpoint checkpoint) {
-		if (masterHooks.isEmpty()) {
+		if (masterHooks.isEmpty() && coordinatorsToCheckpoint.isEmpty()) {
 			return CompletableFuture.completedFuture(null);
 		}
 
@@ -683,38 +712,61 @@ public class CheckpointCoordinator {
 
 		final CompletableFuture<Void> masterStateCompletableFuture = new CompletableFuture<>();
 		for (MasterTriggerRestoreHook<?> masterHook : masterHooks.values()) {
-			MasterHooks
-				.triggerHook(masterHook, checkpointID, timestamp, executor)
-				.whenCompleteAsync(
-					(masterState, throwable) -> {
-						try {
-							synchronized (lock) {
-								if (masterStateCompletableFuture.isDone()) {
-									return;
-								}
-								if (checkpoint.isDiscarded()) {
-									throw new IllegalStateException(
-										"Checkpoint " + checkpointID + " has been discarded");
-								}
-								if (throwable == null) {
-									checkpoint.acknowledgeMasterState(
-										masterHook.getIdentifier(), masterState);
-									if (checkpoint.areMasterStatesFullyAcknowledged()) {
-										masterStateCompletableFuture.complete(null);
-									}
-								} else {
-									masterStateCompletableFuture.completeExceptionally(throwable);
-								}
-							}
-						} catch (Throwable t) {
-							masterStateCompletableFuture.completeExceptionally(t);
-						}
-					},
-					timer);
+			acknowledgeMasterStateWhenDone(
+				checkpoint,
+				masterHook.getIdentifier(),
+				MasterHooks.triggerHook(masterHook, checkpointID, timestamp, executor),
+				masterStateCompletableFuture);
+		}
+		for (OperatorCoordinatorCheckpointContext coordinator : coordinatorsToCheckpoint.values()) {
+			acknowledgeMasterStateWhenDone(
+				checkpoint,
+				coordinator.stateName(),
+				coordinator.checkpointCoordinator(checkpointID),
+				masterStateCompletableFuture);
 		}
 		return masterStateCompletableFuture;
 	}
 
+	private void acknowledgeMasterStateWhenDone(
+			PendingCheckpoint checkpoint,
+			String identifier,
+			CompletableFuture<MasterState> masterStateFuture,
+			CompletableFuture<Void> masterStateCompletableFuture) {
+
+		masterStateFuture.whenCompleteAsync(
+			(masterState, throwable) -> {
+				try {
+					synchronized (lock) {
+						if (masterStateCompletableFuture.isDone()) {
+							return;
+						}
+						if (checkpoint.isDiscarded()) {
+							throw new IllegalStateException(
+								"Checkpoint " + checkpoint.getCheckpointId() + " has been discarded");
+						}
+						if (throwable == null) {
+							checkpoint.acknowledgeMasterState(identifier, masterState);
+							if (checkpoint.areMasterStatesFullyAcknowledged()) {
+								masterStateCompletableFuture.complete(null);
+							}
+						} else {
+							masterStateCompletableFuture.completeExceptionally(throwable);
+						}
+					}
+				} catch (Throwable t) {
+					masterStateCompletableFuture.completeExceptionally(t);
+				}
+			},
+			timer);
+	}
+
+	private Set<String> getMasterStateIdentifiers() {
+		final Set<String> identifiers = new HashSet<>(masterHooks.keySet());
+		identifiers.addAll(coordinatorsToCheckpoint.keySet());
+		return identifiers;
+	}
+
 	/**
 	 * Snapshot task state.
 	 *
@@ -736,7 +788,8 @@ public class CheckpointCoordinator {
 
 		final CheckpointOptions checkpointOptions = new CheckpointOptions(
 			props.getCheckpointType(),
-			checkpointStorageLocation.getLocationReference());
+			checkpointStorageLocation.getLocationReference(),
+			isUnalignedCheckpointsEnabled);
 
 		// send the messages to the tasks that trigger their checkpoint
 		for (Execution execution: executions) {
@@ -1089,6 +1142,16 @@ public class CheckpointCoordinator {
 				ee.notifyCheckpointComplete(checkpointId, timestamp);
 			}
 		}
+
+		for (OperatorCoordinatorCheckpointContext coordinator : coordinatorsToCheckpoint.values()) {
+			try {
+				coordinator.checkpointComplete(checkpointId);
+			} catch (Throwable t) {
+				ExceptionUtils.rethrowIfFatalErrorOrOOM(t);
+				LOG.warn("Failed to notify the coordinator of operator {} of completed checkpoint {}.",
+					coordinator.operatorId(), checkpointId, t);
+			}
+		}
 	}
 
 	/**
@@ -1204,6 +1267,32 @@ public class CheckpointCoordinator {
 			final boolean errorIfNoCheckpoint,
 			final boolean allowNonRestoredState) throws Exception {
 
+		return restoreLatestCheckpointedStateInternal(tasks, false, errorIfNoCheckpoint, allowNonRestoredState);
+	}
+
+	/**
+	 * Restores the latest checkpointed state when the job is started, for example after a
+	 * JobManager failover. Unlike {@link #restoreLatestCheckpointedState(Set, boolean, boolean)},
+	 * this also resets the operator coordinators to their checkpointed state, so it must be
+	 * called before the coordinators are started.
+	 *
+	 * <p>Failovers of a running job must not reset the coordinators. The coordinators learn about
+	 * the failed subtasks through {@link org.apache.flink.runtime.operators.coordination.OperatorCoordinator#subtaskFailed(int)} instead.
+	 *
+	 * @param tasks Set of job vertices to restore. State for these vertices is
+	 * restored via {@link Execution#setInitialState(JobManagerTaskRestore)}.
+	 * @return <code>true</code> if state was restored, <code>false</code> otherwise.
+	 */
+	public boolean restoreInitialCheckpointIfPresent(final Set<ExecutionJobVertex> tasks) throws Exception {
+		return restoreLatestCheckpointedStateInternal(tasks, true, false, false);
+	}
+
+	private boolean restoreLatestCheckpointedStateInternal(
+			final Set<ExecutionJobVertex> tasks,
+			final boolean restoreCoordinators,
+			final boolean errorIfNoCheckpoint,
+			final boolean allowNonRestoredState) throws Exception {
+
 		synchronized (lock) {
 			if (shutdown) {
 				throw new IllegalStateException("CheckpointCoordinator is shut down");
@@ -1249,11 +1338,19 @@ public class CheckpointCoordinator {
 
 			stateAssignmentOperation.assignStates();
 
+			// reset the operator coordinators
+
+			final Collection<MasterState> masterHookStates = restoreOperatorCoordinators(
+					latest.getMasterHookStates(),
+					tasks,
+					restoreCoordinators,
+					allowNonRestoredState);
+
 			// call master hooks for restore
 
 			MasterHooks.restoreMasterHooks(
 					masterHooks,
-					latest.getMasterHookStates(),
+					masterHookStates,
 					latest.getCheckpointID(),
 					allowNonRestoredState,
 					LOG);
@@ -1312,7 +1409,43 @@ public class CheckpointCoordinator {
 
 		LOG.info("Reset the checkpoint ID of job {} to {}.", job, nextCheckpointId);
 
-		return restoreLatestCheckpointedState(new HashSet<>(tasks.values()), true, allowNonRestored);
+		return restoreLatestCheckpointedStateInternal(new HashSet<>(tasks.values()), true, true, allowNonRestored);
+	}
+
+	/**
+	 * Resets the coordinators of the given tasks to their checkpointed state, if requested.
+	 *
+	 * @return The remaining master states, which belong to the master hooks.
+	 */
+	private Collection<MasterState> restoreOperatorCoordinators(
+			Collection<MasterState> masterStates,
+			Set<ExecutionJobVertex> tasks,
+			boolean restoreCoordinators,
+			boolean allowNonRestoredState) throws Exception {
+
+		final List<MasterState> masterHookStates = new ArrayList<>(masterStates.size());
+		for (MasterState state : masterStates) {
+			if (!OperatorCoordinatorCheckpointContext.isCoordinatorState(state)) {
+				masterHookStates.add(state);
+				continue;
+			}
+			if (!restoreCoordinators) {
+				continue;
+			}
+
+			final OperatorCoordinatorCheckpointContext coordinator = coordinatorsToCheckpoint.get(state.name());
+			if (coordinator == null) {
+				if (!allowNonRestoredState) {
+					throw new IllegalStateException("Found state '" + state.name() +
+						"' which is not resumed by any operator coordinator.");
+				}
+				LOG.info("Dropping unmatched operator coordinator state '{}'.", state.name());
+			} else if (tasks.contains(coordinator.jobVertex())) {
+				LOG.info("Resetting the coordinator of operator {} to the checkpointed state.", coordinator.operatorId());
+				coordinator.resetToCheckpoint(state);
+			}
+		}
+		return masterHookStates;
 	}
 
 	// ------------------------------------------------------------------------
@@ -42,12 +42,23 @@ public class CheckpointOptions implements Serializable {
 	/** Target location for the checkpoint. */
 	private final CheckpointStorageLocationReference targetLocation;
 
+	/** Whether the barriers of this checkpoint may overtake in-flight data. */
+	private final boolean isUnalignedCheckpoint;
+
 	public CheckpointOptions(
 			CheckpointType checkpointType,
 			CheckpointStorageLocationReference targetLocation) {
+		this(checkpointType, targetLocation, false);
+	}
+
+	public CheckpointOptions(
+			CheckpointType checkpointType,
+			CheckpointStorageLocationReference targetLocation,
+			boolean isUnalignedCheckpoint) {
 
 		this.checkpointType = checkNotNull(checkpointType);
 		this.targetLocation = checkNotNull(targetLocation);
+		this.isUnalignedCheckpoint = isUnalignedCheckpoint;
 	}
 
 	// ------------------------------------------------------------------------
@@ -66,11 +77,22 @@ public class CheckpointOptions implements Serializable {
 		return targetLocation;
 	}
 
+	/**
+	 * Returns whether the checkpoint barriers are sent with priority, overtaking the buffered
+	 * in-flight data, which then becomes part of the checkpoint as channel state.
+	 */
+	public boolean isUnalignedCheckpoint() {
+		return isUnalignedCheckpoint;
+	}
+
 	// ------------------------------------------------------------------------
 
 	@Override
 	public int hashCode() {
-		return 31 * targetLocation.hashCode() + checkpointType.hashCode();
+		int result = targetLocation.hashCode();
+		result = 31 * result + checkpointType.hashCode();
+		result = 31 * result + (isUnalignedCheckpoint ? 1 : 0);
+		return result;
 	}
 
 	@Override
@@ -81,7 +103,8 @@ public class CheckpointOptions implements Serializable {
 		else if (obj != null && obj.getClass() == CheckpointOptions.class) {
 			final CheckpointOptions that = (CheckpointOptions) obj;
 			return this.checkpointType == that.checkpointType &&
-					this.targetLocation.equals(that.targetLocation);
+					this.targetLocation.equals(that.targetLocation) &&
+					this.isUnalignedCheckpoint == that.isUnalignedCheckpoint;
 		}
 		else {
 			return false;
@@ -90,7 +113,8 @@ public class CheckpointOptions implements Serializable {
 
 	@Override
 	public String toString() {
-		return "CheckpointOptions: " + checkpointType + " @ " + targetLocation;
+		return "CheckpointOptions: " + checkpointType + " @ " + targetLocation +
+				(isUnalignedCheckpoint ? " (unaligned)" : "");
 	}
 
 	// ------------------------------------------------------------------------
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint;
+
+import org.apache.flink.runtime.concurrent.FutureUtils;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.FlinkException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * An {@link OperatorCoordinator} as it is checkpointed by the {@link CheckpointCoordinator}.
+ *
+ * <p>The coordinator checkpoints are stored as {@link MasterState} in the checkpoint metadata,
+ * under a name derived from the {@link OperatorID}. They are taken before the checkpoint is
+ * triggered on the tasks, so that every event the coordinator sends after its checkpoint reaches
+ * the tasks after the checkpoint, too.
+ */
+public final class OperatorCoordinatorCheckpointContext {
+
+	/** The prefix of the names under which the coordinator checkpoints are stored. */
+	private static final String STATE_NAME_PREFIX = "OperatorCoordinator-";
+
+	/** The version of the stored state. The bytes are the ones returned by the coordinator. */
+	private static final int STATE_VERSION = 1;
+
+	private final OperatorCoordinator coordinator;
+
+	private final OperatorID operatorId;
+
+	private final ExecutionJobVertex jobVertex;
+
+	private final String stateName;
+
+	public OperatorCoordinatorCheckpointContext(
+			OperatorCoordinator coordinator,
+			OperatorID operatorId,
+			ExecutionJobVertex jobVertex) {
+		this.coordinator = checkNotNull(coordinator);
+		this.operatorId = checkNotNull(operatorId);
+		this.jobVertex = checkNotNull(jobVertex);
+		this.stateName = STATE_NAME_PREFIX + operatorId;
+	}
+
+	public OperatorCoordinator coordinator() {
+		return coordinator;
+	}
+
+	public OperatorID operatorId() {
+		return operatorId;
+	}
+
+	public ExecutionJobVertex jobVertex() {
+		return jobVertex;
+	}
+
+	/**
+	 * Gets the name under which the checkpoints of this coordinator are stored.
+	 */
+	public String stateName() {
+		return stateName;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Takes a checkpoint of the coordinator.
+	 *
+	 * @return A future with the coordinator checkpoint as master state.
+	 */
+	CompletableFuture<MasterState> checkpointCoordinator(long checkpointId) {
+		try {
+			return coordinator.checkpointCoordinator(checkpointId)
+				.thenApply(bytes -> new MasterState(stateName, bytes, STATE_VERSION))
+				.exceptionally(throwable -> {
+					throw new CompletionException(new FlinkException(
+						"Failed to checkpoint the coordinator of operator " + operatorId,
+						ExceptionUtils.stripCompletionException(throwable)));
+				});
+		}
+		catch (Throwable t) {
+			ExceptionUtils.rethrowIfFatalErrorOrOOM(t);
+			return FutureUtils.completedExceptionally(new FlinkException(
+				"Failed to trigger the checkpoint of the coordinator of operator " + operatorId, t));
+		}
+	}
+
+	/**
+	 * Notifies the coordinator that a checkpoint completed.
+	 */
+	void checkpointComplete(long checkpointId) throws Exception {
+		coordinator.checkpointComplete(checkpointId);
+	}
+
+	/**
+	 * Resets the coordinator to the given coordinator checkpoint. This must happen before the
+	 * coordinator is started.
+	 */
+	void resetToCheckpoint(MasterState state) throws Exception {
+		if (state.version() != STATE_VERSION) {
+			throw new FlinkException(String.format(
+				"Unsupported version %d of the checkpoint of the coordinator of operator %s.",
+				state.version(), operatorId));
+		}
+		coordinator.resetToCheckpoint(state.bytes());
+	}
+
+	/**
+	 * Checks whether the given master state is the checkpoint of an operator coordinator.
+	 */
+	static boolean isCoordinatorState(MasterState state) {
+		return state.name().startsWith(STATE_NAME_PREFIX);
+	}
+}
@@ -19,8 +19,10 @@
 package org.apache.flink.runtime.checkpoint;
 
 import org.apache.flink.runtime.state.CompositeStateHandle;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.OperatorStateHandle;
+import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
 import org.apache.flink.runtime.state.SharedStateRegistry;
 import org.apache.flink.runtime.state.StateObject;
 import org.apache.flink.runtime.state.StateUtil;
@@ -80,6 +82,18 @@ public class OperatorSubtaskState implements CompositeStateHandle {
 	@Nonnull
 	private final StateObjectCollection<KeyedStateHandle> rawKeyedState;
 
+	/**
+	 * In-flight data of the input channels, persisted by unaligned checkpoints.
+	 */
+	@Nonnull
+	private final StateObjectCollection<InputChannelStateHandle> inputChannelState;
+
+	/**
+	 * In-flight data of the result subpartitions, persisted by unaligned checkpoints.
+	 */
+	@Nonnull
+	private final StateObjectCollection<ResultSubpartitionStateHandle> resultSubpartitionState;
+
 	/**
 	 * The state size. This is also part of the deserialized state handle.
 	 * We store it here in order to not deserialize the state handle when
@@ -104,15 +118,36 @@ public class OperatorSubtaskState implements CompositeStateHandle {
 		@Nonnull StateObjectCollection<KeyedStateHandle> managedKeyedState,
 		@Nonnull StateObjectCollection<KeyedStateHandle> rawKeyedState) {
 
+		this(
+			managedOperatorState,
+			rawOperatorState,
+			managedKeyedState,
+			rawKeyedState,
+			StateObjectCollection.empty(),
+			StateObjectCollection.empty());
+	}
+
+	public OperatorSubtaskState(
+		@Nonnull StateObjectCollection<OperatorStateHandle> managedOperatorState,
+		@Nonnull StateObjectCollection<OperatorStateHandle> rawOperatorState,
+		@Nonnull StateObjectCollection<KeyedStateHandle> managedKeyedState,
+		@Nonnull StateObjectCollection<KeyedStateHandle> rawKeyedState,
+		@Nonnull StateObjectCollection<InputChannelStateHandle> inputChannelState,
+		@Nonnull StateObjectCollection<ResultSubpartitionStateHandle> resultSubpartitionState) {
+
 		this.managedOperatorState = Preconditions.checkNotNull(managedOperatorState);
 		this.rawOperatorState = Preconditions.checkNotNull(rawOperatorState);
 		this.managedKeyedState = Preconditions.checkNotNull(managedKeyedState);
 		this.rawKeyedState = Preconditions.checkNotNull(rawKeyedState);
+		this.inputChannelState = Preconditions.checkNotNull(inputChannelState);
+		this.resultSubpartitionState = Preconditions.checkNotNull(resultSubpartitionState);
 
 		long calculateStateSize = managedOperatorState.getStateSize();
 		calculateStateSize += rawOperatorState.getStateSize();
 		calculateStateSize += managedKeyedState.getStateSize();
 		calculateStateSize += rawKeyedState.getStateSize();
+		calculateStateSize += inputChannelState.getStateSize();
+		calculateStateSize += resultSubpartitionState.getStateSize();
 		stateSize = calculateStateSize;
 	}
 
@@ -171,6 +206,22 @@ public class OperatorSubtaskState implements CompositeStateHandle {
 		return rawKeyedState;
 	}
 
+	/**
+	 * Returns the handles to the in-flight data of the input channels.
+	 */
+	@Nonnull
+	public StateObjectCollection<InputChannelStateHandle> getInputChannelState() {
+		return inputChannelState;
+	}
+
+	/**
+	 * Returns the handles to the in-flight data of the result subpartitions.
+	 */
+	@Nonnull
+	public StateObjectCollection<ResultSubpartitionStateHandle> getResultSubpartitionState() {
+		return resultSubpartitionState;
+	}
+
 	@Override
 	public void discardState() {
 		try {
@@ -179,11 +230,15 @@ public class OperatorSubtaskState implements CompositeStateHandle {
 						managedOperatorState.size() +
 						rawOperatorState.size() +
 						managedKeyedState.size() +
-						rawKeyedState.size());
+						rawKeyedState.size() +
+						inputChannelState.size() +
+						resultSubpartitionState.size());
 			toDispose.addAll(managedOperatorState);
 			toDispose.addAll(rawOperatorState);
 			toDispose.addAll(managedKeyedState);
 			toDispose.addAll(rawKeyedState);
+			toDispose.addAll(inputChannelState);
+			toDispose.addAll(resultSubpartitionState);
 			StateUtil.bestEffortDiscardAllStateObjects(toDispose);
 		} catch (Exception e) {
 			LOG.warn("Error while discarding operator states.", e);
@@ -236,7 +291,13 @@ public class OperatorSubtaskState implements CompositeStateHandle {
 		if (!getManagedKeyedState().equals(that.getManagedKeyedState())) {
 			return false;
 		}
-		return getRawKeyedState().equals(that.getRawKeyedState());
+		if (!getRawKeyedState().equals(that.getRawKeyedState())) {
+			return false;
+		}
+		if (!getInputChannelState().equals(that.getInputChannelState())) {
+			return false;
+		}
+		return getResultSubpartitionState().equals(that.getResultSubpartitionState());
 	}
 
 	@Override
@@ -245,6 +306,8 @@ public class OperatorSubtaskState implements CompositeStateHandle {
 		result = 31 * result + getRawOperatorState().hashCode();
 		result = 31 * result + getManagedKeyedState().hashCode();
 		result = 31 * result + getRawKeyedState().hashCode();
+		result = 31 * result + getInputChannelState().hashCode();
+		result = 31 * result + getResultSubpartitionState().hashCode();
 		result = 31 * result + (int) (getStateSize() ^ (getStateSize() >>> 32));
 		return result;
 	}
@@ -256,6 +319,8 @@ public class OperatorSubtaskState implements CompositeStateHandle {
 			", operatorStateFromStream=" + rawOperatorState +
 			", keyedStateFromBackend=" + managedKeyedState +
 			", keyedStateFromStream=" + rawKeyedState +
+			", inputChannelState=" + inputChannelState +
+			", resultSubpartitionState=" + resultSubpartitionState +
 			", stateSize=" + stateSize +
 			'}';
 	}
@@ -264,6 +329,8 @@ public class OperatorSubtaskState implements CompositeStateHandle {
 		return managedOperatorState.hasState()
 			|| rawOperatorState.hasState()
 			|| managedKeyedState.hasState()
-			|| rawKeyedState.hasState();
+			|| rawKeyedState.hasState()
+			|| inputChannelState.hasState()
+			|| resultSubpartitionState.hasState();
 	}
 }
@@ -19,8 +19,10 @@
 package org.apache.flink.runtime.checkpoint;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.OperatorStateHandle;
+import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
 import org.apache.flink.runtime.state.StateObject;
 
 import org.apache.commons.lang3.BooleanUtils;
@@ -60,6 +62,12 @@ public class PrioritizedOperatorSubtaskState {
 	/** List of prioritized snapshot alternatives for raw keyed state. */
 	private final List<StateObjectCollection<KeyedStateHandle>> prioritizedRawKeyedState;
 
+	/** In-flight data of the input channels, only available from the job manager. */
+	private final StateObjectCollection<InputChannelStateHandle> inputChannelState;
+
+	/** In-flight data of the result subpartitions, only available from the job manager. */
+	private final StateObjectCollection<ResultSubpartitionStateHandle> resultSubpartitionState;
+
 	/** Signal flag if this represents state for a restored operator. */
 	private final boolean restored;
 
@@ -68,12 +76,16 @@ public class PrioritizedOperatorSubtaskState {
 		@Nonnull List<StateObjectCollection<KeyedStateHandle>> prioritizedRawKeyedState,
 		@Nonnull List<StateObjectCollection<OperatorStateHandle>> prioritizedManagedOperatorState,
 		@Nonnull List<StateObjectCollection<OperatorStateHandle>> prioritizedRawOperatorState,
+		@Nonnull StateObjectCollection<InputChannelStateHandle> inputChannelState,
+		@Nonnull StateObjectCollection<ResultSubpartitionStateHandle> resultSubpartitionState,
 		boolean restored) {
 
 		this.prioritizedManagedOperatorState = prioritizedManagedOperatorState;
 		this.prioritizedRawOperatorState = prioritizedRawOperatorState;
 		this.prioritizedManagedKeyedState = prioritizedManagedKeyedState;
 		this.prioritizedRawKeyedState = prioritizedRawKeyedState;
+		this.inputChannelState = inputChannelState;
+		this.resultSubpartitionState = resultSubpartitionState;
 		this.restored = restored;
 	}
 
@@ -153,6 +165,24 @@ public class PrioritizedOperatorSubtaskState {
 		return lastElement(prioritizedRawKeyedState);
 	}
 
+	/**
+	 * Returns the in-flight data of the input channels from the job manager. Channel state is never stored
+	 * task-locally, so there are no alternatives to it.
+	 */
+	@Nonnull
+	public StateObjectCollection<InputChannelStateHandle> getInputChannelState() {
+		return inputChannelState;
+	}
+
+	/**
+	 * Returns the in-flight data of the result subpartitions from the job manager. Channel state is never stored
+	 * task-locally, so there are no alternatives to it.
+	 */
+	@Nonnull
+	public StateObjectCollection<ResultSubpartitionStateHandle> getResultSubpartitionState() {
+		return resultSubpartitionState;
+	}
+
 	// -----------------------------------------------------------------------------------------------------------------
 
 	/**
@@ -249,6 +279,8 @@ public class PrioritizedOperatorSubtaskState {
 					jobManagerState.getRawOperatorState(),
 					rawOperatorAlternatives,
 					operatorStateApprover),
+				jobManagerState.getInputChannelState(),
+				jobManagerState.getResultSubpartitionState(),
 				restored);
 		}
 
@@ -24,11 +24,13 @@ import org.apache.flink.runtime.executiongraph.Execution;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.jobgraph.OperatorInstanceID;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
 import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.OperatorStateHandle;
+import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
 import org.apache.flink.util.Preconditions;
 
 import org.slf4j.Logger;
@@ -77,6 +79,8 @@ public class StateAssignmentOperation {
 
 		checkStateMappingCompleteness(allowNonRestoredState, operatorStates, tasks);
 
+		final boolean hasChannelState = hasChannelState(operatorStates.values());
+
 		for (ExecutionJobVertex executionJobVertex : this.tasks) {
 
 			// find the states of all operators belonging to this task
@@ -104,6 +108,10 @@ public class StateAssignmentOperation {
 				continue;
 			}
 
+			if (hasChannelState) {
+				checkChannelStatePreconditions(operatorStates, executionJobVertex);
+			}
+
 			assignAttemptState(executionJobVertex, operatorStates);
 		}
 
@@ -168,6 +176,21 @@ public class StateAssignmentOperation {
 			newManagedKeyedState,
 			newRawKeyedState);
 
+		/*
+		 * In-flight data of unaligned checkpoints is bound to the physical channels of a subtask, so it is only
+		 * passed through to the same subtask index. Rescaling has been ruled out before.
+		 */
+		Map<OperatorInstanceID, List<InputChannelStateHandle>> newInputChannelState =
+			new HashMap<>(expectedNumberOfSubTasks);
+		Map<OperatorInstanceID, List<ResultSubpartitionStateHandle>> newResultSubpartitionState =
+			new HashMap<>(expectedNumberOfSubTasks);
+
+		reDistributeChannelStates(
+			operatorStates,
+			operatorIDs,
+			newInputChannelState,
+			newResultSubpartitionState);
+
 		/*
 		 *  An executionJobVertex's all state handles needed to restore are something like a matrix
 		 *
@@ -184,6 +207,8 @@ public class StateAssignmentOperation {
 			newRawOperatorStates,
 			newManagedKeyedState,
 			newRawKeyedState,
+			newInputChannelState,
+			newResultSubpartitionState,
 			newParallelism);
 	}
 
@@ -193,6 +218,8 @@ public class StateAssignmentOperation {
 			Map<OperatorInstanceID, List<OperatorStateHandle>> subRawOperatorState,
 			Map<OperatorInstanceID, List<KeyedStateHandle>> subManagedKeyedState,
 			Map<OperatorInstanceID, List<KeyedStateHandle>> subRawKeyedState,
+			Map<OperatorInstanceID, List<InputChannelStateHandle>> subInputChannelState,
+			Map<OperatorInstanceID, List<ResultSubpartitionStateHandle>> subResultSubpartitionState,
 			int newParallelism) {
 
 		List<OperatorID> operatorIDs = executionJobVertex.getOperatorIDs();
@@ -213,7 +240,9 @@ public class StateAssignmentOperation {
 					subManagedOperatorState,
 					subRawOperatorState,
 					subManagedKeyedState,
-					subRawKeyedState);
+					subRawKeyedState,
+					subInputChannelState,
+					subResultSubpartitionState);
 
 				if (operatorSubtaskState.hasState()) {
 					statelessTask = false;
@@ -235,10 +264,31 @@ public class StateAssignmentOperation {
 			Map<OperatorInstanceID, List<KeyedStateHandle>> subManagedKeyedState,
 			Map<OperatorInstanceID, List<KeyedStateHandle>> subRawKeyedState) {
 
+		return operatorSubtaskStateFrom(
+			instanceID,
+			subManagedOperatorState,
+			subRawOperatorState,
+			subManagedKeyedState,
+			subRawKeyedState,
+			Collections.emptyMap(),
+			Collections.emptyMap());
+	}
+
+	public static OperatorSubtaskState operatorSubtaskStateFrom(
+			OperatorInstanceID instanceID,
+			Map<OperatorInstanceID, List<OperatorStateHandle>> subManagedOperatorState,
+			Map<OperatorInstanceID, List<OperatorStateHandle>> subRawOperatorState,
+			Map<OperatorInstanceID, List<KeyedStateHandle>> subManagedKeyedState,
+			Map<OperatorInstanceID, List<KeyedStateHandle>> subRawKeyedState,
+			Map<OperatorInstanceID, List<InputChannelStateHandle>> subInputChannelState,
+			Map<OperatorInstanceID, List<ResultSubpartitionStateHandle>> subResultSubpartitionState) {
+
 		if (!subManagedOperatorState.containsKey(instanceID) &&
 			!subRawOperatorState.containsKey(instanceID) &&
 			!subManagedKeyedState.containsKey(instanceID) &&
-			!subRawKeyedState.containsKey(instanceID)) {
+			!subRawKeyedState.containsKey(instanceID) &&
+			!subInputChannelState.containsKey(instanceID) &&
+			!subResultSubpartitionState.containsKey(instanceID)) {
 
 			return new OperatorSubtaskState();
 		}
@@ -249,7 +299,9 @@ public class StateAssignmentOperation {
 			new StateObjectCollection<>(subManagedOperatorState.getOrDefault(instanceID, Collections.emptyList())),
 			new StateObjectCollection<>(subRawOperatorState.getOrDefault(instanceID, Collections.emptyList())),
 			new StateObjectCollection<>(subManagedKeyedState.getOrDefault(instanceID, Collections.emptyList())),
-			new StateObjectCollection<>(subRawKeyedState.getOrDefault(instanceID, Collections.emptyList())));
+			new StateObjectCollection<>(subRawKeyedState.getOrDefault(instanceID, Collections.emptyList())),
+			new StateObjectCollection<>(subInputChannelState.getOrDefault(instanceID, Collections.emptyList())),
+			new StateObjectCollection<>(subResultSubpartitionState.getOrDefault(instanceID, Collections.emptyList())));
 	}
 
 	public void checkParallelismPreconditions(List<OperatorState> operatorStates, ExecutionJobVertex executionJobVertex) {
@@ -538,6 +590,66 @@ public class StateAssignmentOperation {
 		}
 	}
 
+	private static void reDistributeChannelStates(
+			List<OperatorState> oldOperatorStates,
+			List<OperatorID> newOperatorIDs,
+			Map<OperatorInstanceID, List<InputChannelStateHandle>> newInputChannelState,
+			Map<OperatorInstanceID, List<ResultSubpartitionStateHandle>> newResultSubpartitionState) {
+
+		for (int operatorIndex = 0; operatorIndex < newOperatorIDs.size(); operatorIndex++) {
+			OperatorState operatorState = oldOperatorStates.get(operatorIndex);
+			OperatorID operatorID = newOperatorIDs.get(operatorIndex);
+
+			for (Map.Entry<Integer, OperatorSubtaskState> entry : operatorState.getSubtaskStates().entrySet()) {
+				OperatorInstanceID instanceID = OperatorInstanceID.of(entry.getKey(), operatorID);
+				OperatorSubtaskState subtaskState = entry.getValue();
+
+				if (subtaskState.getInputChannelState().hasState()) {
+					newInputChannelState.put(instanceID, subtaskState.getInputChannelState().asList());
+				}
+				if (subtaskState.getResultSubpartitionState().hasState()) {
+					newResultSubpartitionState.put(instanceID, subtaskState.getResultSubpartitionState().asList());
+				}
+			}
+		}
+	}
+
+	private static boolean hasChannelState(Collection<OperatorState> operatorStates) {
+		for (OperatorState operatorState : operatorStates) {
+			for (OperatorSubtaskState subtaskState : operatorState.getStates()) {
+				if (subtaskState.getInputChannelState().hasState() ||
+					subtaskState.getResultSubpartitionState().hasState()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Verifies that the parallelism of a task has not changed if the restored checkpoint contains in-flight data of
+	 * unaligned checkpoints. The in-flight data refers to the physical channels between the subtasks and can
+	 * currently not be redistributed.
+	 *
+	 * @param operatorStates     states of the operators of the task to restore
+	 * @param executionJobVertex task for which the state should be restored
+	 */
+	private static void checkChannelStatePreconditions(
+			List<OperatorState> operatorStates,
+			ExecutionJobVertex executionJobVertex) {
+
+		for (OperatorState operatorState : operatorStates) {
+			if (!operatorState.getSubtaskStates().isEmpty() &&
+				operatorState.getParallelism() != executionJobVertex.getParallelism()) {
+
+				throw new IllegalStateException("The state for task " + executionJobVertex.getJobVertexId() +
+					" can not be restored. The restored checkpoint contains in-flight data of an unaligned " +
+					"checkpoint, which does not support changing the parallelism from " +
+					operatorState.getParallelism() + " to " + executionJobVertex.getParallelism() + ".");
+			}
+		}
+	}
+
 	/**
 	 * Verifies that all operator states can be mapped to an execution job vertex.
 	 *
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint.channel;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
+import org.apache.flink.runtime.io.network.buffer.NetworkBuffer;
+import org.apache.flink.runtime.state.AbstractChannelStateHandle;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
+import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the channel state written by {@link ChannelStateWriterImpl} back into heap buffers.
+ *
+ * <p>The buffers are read eagerly when the reader is created. The in-flight data of a task is
+ * bounded by the number of its network buffers, so it comfortably fits into the heap.
+ */
+@Internal
+public class ChannelStateReader {
+
+	/** A reader without any channel state, used by tasks that are not restored. */
+	public static final ChannelStateReader NO_OP = new ChannelStateReader(Collections.emptyMap(), Collections.emptyMap());
+
+	private final Map<InputChannelInfo, List<Buffer>> inputData;
+
+	private final Map<ResultSubpartitionInfo, List<Buffer>> outputData;
+
+	private ChannelStateReader(
+			Map<InputChannelInfo, List<Buffer>> inputData,
+			Map<ResultSubpartitionInfo, List<Buffer>> outputData) {
+		this.inputData = inputData;
+		this.outputData = outputData;
+	}
+
+	public static ChannelStateReader read(
+			Collection<InputChannelStateHandle> inputChannelState,
+			Collection<ResultSubpartitionStateHandle> resultSubpartitionState) throws IOException {
+		if (inputChannelState.isEmpty() && resultSubpartitionState.isEmpty()) {
+			return NO_OP;
+		}
+
+		Map<InputChannelInfo, List<Buffer>> inputData = new HashMap<>();
+		for (InputChannelStateHandle handle : inputChannelState) {
+			inputData.computeIfAbsent(handle.getInfo(), ignored -> new ArrayList<>()).addAll(readBuffers(handle));
+		}
+
+		Map<ResultSubpartitionInfo, List<Buffer>> outputData = new HashMap<>();
+		for (ResultSubpartitionStateHandle handle : resultSubpartitionState) {
+			outputData.computeIfAbsent(handle.getInfo(), ignored -> new ArrayList<>()).addAll(readBuffers(handle));
+		}
+		return new ChannelStateReader(inputData, outputData);
+	}
+
+	/**
+	 * Returns and removes the recovered buffers of the given input channel, in the order in which
+	 * they have been received before the checkpoint.
+	 */
+	public List<Buffer> readInputData(InputChannelInfo info) {
+		List<Buffer> buffers = inputData.remove(info);
+		return buffers == null ? Collections.emptyList() : buffers;
+	}
+
+	/**
+	 * Returns and removes the recovered buffers of the given result subpartition, in the order in
+	 * which they have been produced before the checkpoint.
+	 */
+	public List<Buffer> readOutputData(ResultSubpartitionInfo info) {
+		List<Buffer> buffers = outputData.remove(info);
+		return buffers == null ? Collections.emptyList() : buffers;
+	}
+
+	public boolean hasInputData() {
+		return !inputData.isEmpty();
+	}
+
+	public boolean hasOutputData() {
+		return !outputData.isEmpty();
+	}
+
+	private static List<Buffer> readBuffers(AbstractChannelStateHandle<?> handle) throws IOException {
+		List<Buffer> buffers = new ArrayList<>(handle.getOffsets().size());
+		try (FSDataInputStream in = handle.getDelegate().openInputStream()) {
+			DataInputStream dataInputStream = new DataInputStream(in);
+			for (long offset : handle.getOffsets()) {
+				in.seek(offset);
+				byte[] data = new byte[dataInputStream.readInt()];
+				dataInputStream.readFully(data);
+				buffers.add(new NetworkBuffer(
+					MemorySegmentFactory.wrap(data),
+					FreeingBufferRecycler.INSTANCE,
+					true,
+					data.length));
+			}
+		}
+		return buffers;
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint.channel;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
+import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes the in-flight data of the channels of a task (channel state) that is persisted as part
+ * of an unaligned checkpoint.
+ *
+ * <p>The writer takes the ownership of all buffers passed to it and recycles them once their
+ * content has been written. The result of a checkpoint becomes available once both the input and
+ * the output side have been {@link #finishInput(long) finished}.
+ *
+ * <p>Implementations are not thread-safe and are supposed to be used by the task thread only,
+ * except for waiting on the {@link #getWriteResult(long) write result}.
+ */
+@Internal
+public interface ChannelStateWriter extends Closeable {
+
+	/**
+	 * Starts writing the channel state of the given checkpoint to the given stream factory.
+	 */
+	void start(long checkpointId, CheckpointStreamFactory streamFactory);
+
+	/**
+	 * Adds the given buffers of an input channel to the channel state of the given checkpoint.
+	 */
+	void addInputData(long checkpointId, InputChannelInfo info, Buffer... data);
+
+	/**
+	 * Adds the given buffers of a result subpartition to the channel state of the given checkpoint.
+	 */
+	void addOutputData(long checkpointId, ResultSubpartitionInfo info, Buffer... data);
+
+	/**
+	 * Signals that no more input data will be added for the given checkpoint.
+	 */
+	void finishInput(long checkpointId);
+
+	/**
+	 * Signals that no more output data will be added for the given checkpoint.
+	 */
+	void finishOutput(long checkpointId);
+
+	/**
+	 * Aborts writing the channel state of the given checkpoint and discards the data written so far.
+	 */
+	void abort(long checkpointId, Throwable cause);
+
+	/**
+	 * Returns the future result of the given checkpoint, which must have been {@link #start started}.
+	 */
+	CompletableFuture<ChannelStateWriteResult> getWriteResult(long checkpointId);
+
+	/**
+	 * The handles to the channel state of a single checkpoint.
+	 */
+	final class ChannelStateWriteResult {
+
+		static final ChannelStateWriteResult EMPTY =
+			new ChannelStateWriteResult(Collections.emptyList(), Collections.emptyList());
+
+		private final Collection<InputChannelStateHandle> inputChannelStateHandles;
+
+		private final Collection<ResultSubpartitionStateHandle> resultSubpartitionStateHandles;
+
+		ChannelStateWriteResult(
+				Collection<InputChannelStateHandle> inputChannelStateHandles,
+				Collection<ResultSubpartitionStateHandle> resultSubpartitionStateHandles) {
+			this.inputChannelStateHandles = inputChannelStateHandles;
+			this.resultSubpartitionStateHandles = resultSubpartitionStateHandles;
+		}
+
+		public Collection<InputChannelStateHandle> getInputChannelStateHandles() {
+			return inputChannelStateHandles;
+		}
+
+		public Collection<ResultSubpartitionStateHandle> getResultSubpartitionStateHandles() {
+			return resultSubpartitionStateHandles;
+		}
+	}
+
+	/**
+	 * A {@link ChannelStateWriter} for tasks that do not take unaligned checkpoints.
+	 */
+	ChannelStateWriter NO_OP = new ChannelStateWriter() {
+
+		@Override
+		public void start(long checkpointId, CheckpointStreamFactory streamFactory) {
+		}
+
+		@Override
+		public void addInputData(long checkpointId, InputChannelInfo info, Buffer... data) {
+			for (Buffer buffer : data) {
+				buffer.recycleBuffer();
+			}
+		}
+
+		@Override
+		public void addOutputData(long checkpointId, ResultSubpartitionInfo info, Buffer... data) {
+			for (Buffer buffer : data) {
+				buffer.recycleBuffer();
+			}
+		}
+
+		@Override
+		public void finishInput(long checkpointId) {
+		}
+
+		@Override
+		public void finishOutput(long checkpointId) {
+		}
+
+		@Override
+		public void abort(long checkpointId, Throwable cause) {
+		}
+
+		@Override
+		public CompletableFuture<ChannelStateWriteResult> getWriteResult(long checkpointId) {
+			return CompletableFuture.completedFuture(ChannelStateWriteResult.EMPTY);
+		}
+
+		@Override
+		public void close() {
+		}
+	};
+}
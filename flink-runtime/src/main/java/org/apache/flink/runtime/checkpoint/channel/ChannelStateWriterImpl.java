@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint.channel;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.CheckpointStreamFactory.CheckpointStateOutputStream;
+import org.apache.flink.runtime.state.CheckpointedStateScope;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
+import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
+import org.apache.flink.runtime.state.StreamStateHandle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * {@link ChannelStateWriter} that synchronously writes the channel state of each checkpoint into
+ * a single {@link CheckpointStateOutputStream}.
+ *
+ * <p>Every buffer is written as its length followed by its readable bytes. The handles of a
+ * channel remember the offsets of its entries, so that the entries of different channels can be
+ * interleaved in the stream.
+ */
+@Internal
+public class ChannelStateWriterImpl implements ChannelStateWriter {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ChannelStateWriterImpl.class);
+
+	private static final int COPY_BUFFER_SIZE = 4096;
+
+	private final String taskName;
+
+	private final Map<Long, CheckpointWriter> writers = new HashMap<>();
+
+	/** Reused to copy the content of off-heap buffers into the checkpoint stream. */
+	private final byte[] copyBuffer = new byte[COPY_BUFFER_SIZE];
+
+	public ChannelStateWriterImpl(String taskName) {
+		this.taskName = checkNotNull(taskName);
+	}
+
+	@Override
+	public void start(long checkpointId, CheckpointStreamFactory streamFactory) {
+		LOG.debug("{} starting channel state of checkpoint {}.", taskName, checkpointId);
+		CheckpointWriter writer = new CheckpointWriter(checkpointId);
+		CheckpointWriter previous = writers.put(checkpointId, writer);
+		checkArgument(previous == null, "Channel state of checkpoint %s was already started.", checkpointId);
+		try {
+			writer.open(streamFactory);
+		} catch (Exception e) {
+			writer.fail(e);
+		}
+	}
+
+	@Override
+	public void addInputData(long checkpointId, InputChannelInfo info, Buffer... data) {
+		CheckpointWriter writer = writers.get(checkpointId);
+		write(writer, writer == null ? null : writer.inputOffsets, info, data);
+	}
+
+	@Override
+	public void addOutputData(long checkpointId, ResultSubpartitionInfo info, Buffer... data) {
+		CheckpointWriter writer = writers.get(checkpointId);
+		write(writer, writer == null ? null : writer.outputOffsets, info, data);
+	}
+
+	private <I> void write(@Nullable CheckpointWriter writer, Map<I, ChannelOffsets> offsets, I info, Buffer[] data) {
+		try {
+			if (writer != null && !writer.isFailed()) {
+				ChannelOffsets channelOffsets = offsets.computeIfAbsent(info, ignored -> new ChannelOffsets());
+				for (Buffer buffer : data) {
+					writer.write(buffer, channelOffsets, copyBuffer);
+				}
+			}
+		} catch (Exception e) {
+			writer.fail(e);
+		} finally {
+			for (Buffer buffer : data) {
+				buffer.recycleBuffer();
+			}
+		}
+	}
+
+	@Override
+	public void finishInput(long checkpointId) {
+		CheckpointWriter writer = writers.get(checkpointId);
+		if (writer != null) {
+			writer.inputFinished = true;
+			completeIfFinished(writer);
+		}
+	}
+
+	@Override
+	public void finishOutput(long checkpointId) {
+		CheckpointWriter writer = writers.get(checkpointId);
+		if (writer != null) {
+			writer.outputFinished = true;
+			completeIfFinished(writer);
+		}
+	}
+
+	private void completeIfFinished(CheckpointWriter writer) {
+		if (writer.inputFinished && writer.outputFinished) {
+			writers.remove(writer.checkpointId);
+			writer.complete();
+			LOG.debug("{} finished channel state of checkpoint {}.", taskName, writer.checkpointId);
+		}
+	}
+
+	@Override
+	public void abort(long checkpointId, Throwable cause) {
+		CheckpointWriter writer = writers.remove(checkpointId);
+		if (writer != null) {
+			LOG.debug("{} aborting channel state of checkpoint {}.", taskName, checkpointId);
+			writer.fail(cause);
+		}
+	}
+
+	@Override
+	public CompletableFuture<ChannelStateWriteResult> getWriteResult(long checkpointId) {
+		CheckpointWriter writer = writers.get(checkpointId);
+		checkArgument(writer != null, "Channel state of checkpoint %s has not been started or is already finished.", checkpointId);
+		return writer.result;
+	}
+
+	@Override
+	public void close() {
+		List<Long> pending = new ArrayList<>(writers.keySet());
+		for (long checkpointId : pending) {
+			abort(checkpointId, new IllegalStateException("Channel state writer of " + taskName + " was closed."));
+		}
+	}
+
+	@VisibleForTesting
+	int getNumberOfPendingCheckpoints() {
+		return writers.size();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Offsets and size of the entries of a single channel.
+	 */
+	private static final class ChannelOffsets {
+		private final List<Long> offsets = new ArrayList<>();
+		private long size;
+	}
+
+	/**
+	 * The state of writing the channel state of one checkpoint.
+	 */
+	private static final class CheckpointWriter {
+
+		private final long checkpointId;
+
+		private final CompletableFuture<ChannelStateWriteResult> result = new CompletableFuture<>();
+
+		private final Map<InputChannelInfo, ChannelOffsets> inputOffsets = new LinkedHashMap<>();
+
+		private final Map<ResultSubpartitionInfo, ChannelOffsets> outputOffsets = new LinkedHashMap<>();
+
+		private CheckpointStateOutputStream stream;
+
+		private DataOutputStream dataStream;
+
+		private boolean inputFinished;
+
+		private boolean outputFinished;
+
+		CheckpointWriter(long checkpointId) {
+			this.checkpointId = checkpointId;
+		}
+
+		void open(CheckpointStreamFactory streamFactory) throws IOException {
+			stream = streamFactory.createCheckpointStateOutputStream(CheckpointedStateScope.EXCLUSIVE);
+			dataStream = new DataOutputStream(stream);
+		}
+
+		boolean isFailed() {
+			return result.isCompletedExceptionally();
+		}
+
+		void write(Buffer buffer, ChannelOffsets channelOffsets, byte[] copyBuffer) throws IOException {
+			if (!buffer.isBuffer() || buffer.readableBytes() == 0) {
+				return;
+			}
+			// the data stream does not buffer, so the position of the underlying stream is exact
+			final long offset = stream.getPos();
+			final ByteBuffer readable = buffer.getNioBufferReadable();
+			final int length = readable.remaining();
+
+			dataStream.writeInt(length);
+			while (readable.hasRemaining()) {
+				int chunk = Math.min(copyBuffer.length, readable.remaining());
+				readable.get(copyBuffer, 0, chunk);
+				dataStream.write(copyBuffer, 0, chunk);
+			}
+
+			channelOffsets.offsets.add(offset);
+			channelOffsets.size += Integer.BYTES + length;
+		}
+
+		void complete() {
+			if (isFailed()) {
+				return;
+			}
+			try {
+				if (!hasData(inputOffsets) && !hasData(outputOffsets)) {
+					stream.close();
+					result.complete(ChannelStateWriteResult.EMPTY);
+					return;
+				}
+				StreamStateHandle delegate = stream.closeAndGetHandle();
+				result.complete(new ChannelStateWriteResult(
+					buildHandles(inputOffsets, delegate, InputChannelStateHandle::new),
+					buildHandles(outputOffsets, delegate, ResultSubpartitionStateHandle::new)));
+			} catch (Exception e) {
+				fail(e);
+			}
+		}
+
+		void fail(Throwable cause) {
+			result.completeExceptionally(cause);
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+					LOG.warn("Could not close the channel state stream of checkpoint {}.", checkpointId, e);
+				}
+			}
+		}
+
+		private static boolean hasData(Map<?, ChannelOffsets> offsets) {
+			for (ChannelOffsets channelOffsets : offsets.values()) {
+				if (!channelOffsets.offsets.isEmpty()) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private static <I, H> List<H> buildHandles(
+				Map<I, ChannelOffsets> offsets,
+				StreamStateHandle delegate,
+				HandleFactory<I, H> handleFactory) {
+			List<H> handles = new ArrayList<>(offsets.size());
+			for (Map.Entry<I, ChannelOffsets> entry : offsets.entrySet()) {
+				if (!entry.getValue().offsets.isEmpty()) {
+					handles.add(handleFactory.create(
+						entry.getKey(),
+						delegate,
+						entry.getValue().offsets,
+						entry.getValue().size));
+				}
+			}
+			return handles;
+		}
+	}
+
+	/**
+	 * Factory for the handles of one side of the channel state.
+	 */
+	@FunctionalInterface
+	private interface HandleFactory<I, H> {
+		H create(I info, StreamStateHandle delegate, List<Long> offsets, long size);
+	}
+}
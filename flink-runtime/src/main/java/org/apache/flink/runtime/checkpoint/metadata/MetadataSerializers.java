@@ -28,11 +28,12 @@ import java.util.Map;
  */
 public class MetadataSerializers {
 
-	private static final Map<Integer, MetadataSerializer> SERIALIZERS = new HashMap<>(2);
+	private static final Map<Integer, MetadataSerializer> SERIALIZERS = new HashMap<>(3);
 
 	static {
 		SERIALIZERS.put(MetadataV1Serializer.VERSION, MetadataV1Serializer.INSTANCE);
 		SERIALIZERS.put(MetadataV2Serializer.VERSION, MetadataV2Serializer.INSTANCE);
+		SERIALIZERS.put(MetadataV3Serializer.VERSION, MetadataV3Serializer.INSTANCE);
 	}
 
 	private MetadataSerializers() {
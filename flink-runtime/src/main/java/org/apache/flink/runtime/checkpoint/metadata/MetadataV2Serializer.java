@@ -89,8 +89,8 @@ public class MetadataV2Serializer implements MetadataSerializer {
 
 	// ------------------------------------------------------------------------
 
-	/** Singleton, not meant to be instantiated. */
-	private MetadataV2Serializer() {}
+	/** Singleton, not meant to be instantiated except by the serializers of later format versions. */
+	MetadataV2Serializer() {}
 
 	@Override
 	public int getVersion() {
@@ -102,6 +102,10 @@ public class MetadataV2Serializer implements MetadataSerializer {
 	// ------------------------------------------------------------------------
 
 	public static void serialize(CheckpointMetadata checkpointMetadata, DataOutputStream dos) throws IOException {
+		INSTANCE.serializeMetadata(checkpointMetadata, dos);
+	}
+
+	void serializeMetadata(CheckpointMetadata checkpointMetadata, DataOutputStream dos) throws IOException {
 		// first: checkpoint ID
 		dos.writeLong(checkpointMetadata.getCheckpointId());
 
@@ -132,7 +136,7 @@ public class MetadataV2Serializer implements MetadataSerializer {
 			dos.writeInt(subtaskStateMap.size());
 			for (Map.Entry<Integer, OperatorSubtaskState> entry : subtaskStateMap.entrySet()) {
 				dos.writeInt(entry.getKey());
-				serializeSubtaskState(entry.getValue(), dos);
+				serializeOperatorSubtaskState(entry.getValue(), dos);
 			}
 		}
 	}
@@ -182,7 +186,7 @@ public class MetadataV2Serializer implements MetadataSerializer {
 			for (int j = 0; j < numSubTaskStates; j++) {
 				int subtaskIndex = dis.readInt();
 
-				OperatorSubtaskState subtaskState = deserializeSubtaskState(dis);
+				OperatorSubtaskState subtaskState = deserializeOperatorSubtaskState(dis);
 				taskState.putState(subtaskIndex, subtaskState);
 			}
 		}
@@ -263,6 +267,14 @@ public class MetadataV2Serializer implements MetadataSerializer {
 		}
 	}
 
+	void serializeOperatorSubtaskState(OperatorSubtaskState subtaskState, DataOutputStream dos) throws IOException {
+		serializeSubtaskState(subtaskState, dos);
+	}
+
+	OperatorSubtaskState deserializeOperatorSubtaskState(DataInputStream dis) throws IOException {
+		return deserializeSubtaskState(dis);
+	}
+
 	private static void serializeSubtaskState(OperatorSubtaskState subtaskState, DataOutputStream dos) throws IOException {
 
 		dos.writeLong(-1);
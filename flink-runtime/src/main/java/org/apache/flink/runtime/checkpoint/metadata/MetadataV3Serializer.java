@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint.metadata;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.checkpoint.StateObjectCollection;
+import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
+import org.apache.flink.runtime.checkpoint.channel.ResultSubpartitionInfo;
+import org.apache.flink.runtime.state.AbstractChannelStateHandle;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
+import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
+import org.apache.flink.runtime.state.StreamStateHandle;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * (De)serializer for checkpoint metadata format version 3.
+ *
+ * <p>This format version adds the in-flight data of unaligned checkpoints to every operator subtask state.
+ * The layout is otherwise identical to {@link MetadataV2Serializer format version 2}; the channel state
+ * is appended to each subtask state:
+ * <pre>
+ *  +-------------------+------------------------+---------------------------------+
+ *  | V2 subtask state  | input channel handles  | result subpartition handles     |
+ *  +-------------------+------------------------+---------------------------------+
+ *
+ *  Channel state handle:
+ *  +-------+-------+---------------+-------------+---------+------+
+ *  | index | index | stream handle | num offsets | offsets | size |
+ *  +-------+-------+---------------+-------------+---------+------+
+ * </pre>
+ */
+@Internal
+public class MetadataV3Serializer extends MetadataV2Serializer {
+
+	/** The metadata format version. */
+	public static final int VERSION = 3;
+
+	/** The singleton instance of the serializer. */
+	public static final MetadataV3Serializer INSTANCE = new MetadataV3Serializer();
+
+	/** Singleton, not meant to be instantiated. */
+	private MetadataV3Serializer() {}
+
+	@Override
+	public int getVersion() {
+		return VERSION;
+	}
+
+	// ------------------------------------------------------------------------
+	//  (De)serialization entry points
+	// ------------------------------------------------------------------------
+
+	public static void serialize(CheckpointMetadata checkpointMetadata, DataOutputStream dos) throws IOException {
+		INSTANCE.serializeMetadata(checkpointMetadata, dos);
+	}
+
+	// ------------------------------------------------------------------------
+	//  task state (de)serialization methods
+	// ------------------------------------------------------------------------
+
+	@Override
+	void serializeOperatorSubtaskState(OperatorSubtaskState subtaskState, DataOutputStream dos) throws IOException {
+		super.serializeOperatorSubtaskState(subtaskState, dos);
+
+		Collection<InputChannelStateHandle> inputChannelState = nullToEmpty(subtaskState.getInputChannelState());
+		dos.writeInt(inputChannelState.size());
+		for (InputChannelStateHandle handle : inputChannelState) {
+			dos.writeInt(handle.getInfo().getGateIdx());
+			dos.writeInt(handle.getInfo().getInputChannelIdx());
+			serializeChannelStateHandle(handle, dos);
+		}
+
+		Collection<ResultSubpartitionStateHandle> resultSubpartitionState = nullToEmpty(subtaskState.getResultSubpartitionState());
+		dos.writeInt(resultSubpartitionState.size());
+		for (ResultSubpartitionStateHandle handle : resultSubpartitionState) {
+			dos.writeInt(handle.getInfo().getPartitionIdx());
+			dos.writeInt(handle.getInfo().getSubPartitionIdx());
+			serializeChannelStateHandle(handle, dos);
+		}
+	}
+
+	@Override
+	OperatorSubtaskState deserializeOperatorSubtaskState(DataInputStream dis) throws IOException {
+		OperatorSubtaskState subtaskState = super.deserializeOperatorSubtaskState(dis);
+
+		int numInputChannelHandles = dis.readInt();
+		List<InputChannelStateHandle> inputChannelState = new ArrayList<>(numInputChannelHandles);
+		for (int i = 0; i < numInputChannelHandles; i++) {
+			InputChannelInfo info = new InputChannelInfo(dis.readInt(), dis.readInt());
+			StreamStateHandle delegate = deserializeStreamStateHandle(dis);
+			List<Long> offsets = deserializeOffsets(dis);
+			inputChannelState.add(new InputChannelStateHandle(info, delegate, offsets, dis.readLong()));
+		}
+
+		int numResultSubpartitionHandles = dis.readInt();
+		List<ResultSubpartitionStateHandle> resultSubpartitionState = new ArrayList<>(numResultSubpartitionHandles);
+		for (int i = 0; i < numResultSubpartitionHandles; i++) {
+			ResultSubpartitionInfo info = new ResultSubpartitionInfo(dis.readInt(), dis.readInt());
+			StreamStateHandle delegate = deserializeStreamStateHandle(dis);
+			List<Long> offsets = deserializeOffsets(dis);
+			resultSubpartitionState.add(new ResultSubpartitionStateHandle(info, delegate, offsets, dis.readLong()));
+		}
+
+		return new OperatorSubtaskState(
+			subtaskState.getManagedOperatorState(),
+			subtaskState.getRawOperatorState(),
+			subtaskState.getManagedKeyedState(),
+			subtaskState.getRawKeyedState(),
+			new StateObjectCollection<>(inputChannelState),
+			new StateObjectCollection<>(resultSubpartitionState));
+	}
+
+	private static void serializeChannelStateHandle(
+			AbstractChannelStateHandle<?> handle, DataOutputStream dos) throws IOException {
+
+		serializeStreamStateHandle(handle.getDelegate(), dos);
+		dos.writeInt(handle.getOffsets().size());
+		for (long offset : handle.getOffsets()) {
+			dos.writeLong(offset);
+		}
+		dos.writeLong(handle.getStateSize());
+	}
+
+	private static <T> Collection<T> nullToEmpty(Collection<T> collection) {
+		return collection == null ? Collections.emptyList() : collection;
+	}
+
+	private static List<Long> deserializeOffsets(DataInputStream dis) throws IOException {
+		int numOffsets = dis.readInt();
+		List<Long> offsets = new ArrayList<>(numOffsets);
+		for (int i = 0; i < numOffsets; i++) {
+			offsets.add(dis.readLong());
+		}
+		return offsets;
+	}
+}
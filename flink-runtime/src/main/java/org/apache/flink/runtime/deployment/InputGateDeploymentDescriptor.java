@@ -18,14 +18,26 @@
 
 package org.apache.flink.runtime.deployment;
 
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.runtime.blob.PermanentBlobKey;
+import org.apache.flink.runtime.blob.PermanentBlobService;
+import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor.MaybeOffloaded;
+import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor.NonOffloaded;
+import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor.Offloaded;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.io.network.partition.consumer.SingleInputGate;
 import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
+import org.apache.flink.util.FileUtils;
+import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.SerializedValue;
 
 import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
 
@@ -59,8 +71,16 @@ public class InputGateDeploymentDescriptor implements Serializable {
 	@Nonnegative
 	private final int consumedSubpartitionIndex;
 
-	/** An input channel for each consumed subpartition. */
-	private final ShuffleDescriptor[] inputChannels;
+	/**
+	 * The serialized input channels, which may be offloaded to the blob store. The same instance
+	 * is shared by the descriptors of all consumers that consume all partitions of a result.
+	 */
+	@Nullable
+	private MaybeOffloaded<ShuffleDescriptor[]> serializedInputChannels;
+
+	/** An input channel for each consumed subpartition, deserialized on first access. */
+	@Nullable
+	private ShuffleDescriptor[] inputChannels;
 
 	public InputGateDeploymentDescriptor(
 			IntermediateDataSetID consumedResultId,
@@ -71,6 +91,19 @@ public class InputGateDeploymentDescriptor implements Serializable {
 		this.consumedPartitionType = checkNotNull(consumedPartitionType);
 		this.consumedSubpartitionIndex = consumedSubpartitionIndex;
 		this.inputChannels = checkNotNull(inputChannels);
+		this.serializedInputChannels = null;
+	}
+
+	public InputGateDeploymentDescriptor(
+			IntermediateDataSetID consumedResultId,
+			ResultPartitionType consumedPartitionType,
+			@Nonnegative int consumedSubpartitionIndex,
+			MaybeOffloaded<ShuffleDescriptor[]> serializedInputChannels) {
+		this.consumedResultId = checkNotNull(consumedResultId);
+		this.consumedPartitionType = checkNotNull(consumedPartitionType);
+		this.consumedSubpartitionIndex = consumedSubpartitionIndex;
+		this.inputChannels = null;
+		this.serializedInputChannels = checkNotNull(serializedInputChannels);
 	}
 
 	public IntermediateDataSetID getConsumedResultId() {
@@ -91,15 +124,56 @@ public class InputGateDeploymentDescriptor implements Serializable {
 		return consumedSubpartitionIndex;
 	}
 
+	/**
+	 * Returns the input channels, deserializing them if necessary.
+	 *
+	 * @throws IllegalStateException If the input channels are offloaded to the blob store and
+	 * {@link #loadBigData(PermanentBlobService, JobID)} was not called beforehand.
+	 */
 	public ShuffleDescriptor[] getShuffleDescriptors() {
+		if (inputChannels == null) {
+			if (serializedInputChannels instanceof NonOffloaded) {
+				try {
+					inputChannels = ((NonOffloaded<ShuffleDescriptor[]>) serializedInputChannels)
+						.serializedValue
+						.deserializeValue(getClass().getClassLoader());
+				} catch (IOException | ClassNotFoundException e) {
+					throw new IllegalStateException("Could not deserialize the input channels.", e);
+				}
+			} else {
+				throw new IllegalStateException("Trying to work with offloaded input channels.");
+			}
+		}
 		return inputChannels;
 	}
 
+	/**
+	 * Loads the input channels from the blob store if they are offloaded.
+	 *
+	 * @param blobService the blob store to use (may be <tt>null</tt> if the input channels are not
+	 * offloaded)
+	 * @param jobId the job the input channels belong to
+	 */
+	public void loadBigData(@Nullable PermanentBlobService blobService, JobID jobId) throws IOException {
+		if (serializedInputChannels instanceof Offloaded) {
+			PermanentBlobKey blobKey = ((Offloaded<ShuffleDescriptor[]>) serializedInputChannels).serializedValueKey;
+
+			Preconditions.checkNotNull(blobService);
+
+			// NOTE: Do not delete the BLOB since it is shared with the other consumers of the result.
+			//       (it is deleted automatically on the BLOB server and cache when the job
+			//       enters a terminal state)
+			final File dataFile = blobService.getFile(jobId, blobKey);
+			serializedInputChannels = new NonOffloaded<>(
+				SerializedValue.fromBytes(FileUtils.readAllBytes(dataFile.toPath())));
+		}
+	}
+
 	@Override
 	public String toString() {
 		return String.format("InputGateDeploymentDescriptor [result id: %s, " +
 						"consumed subpartition index: %d, input channels: %s]",
 				consumedResultId.toString(), consumedSubpartitionIndex,
-				Arrays.toString(inputChannels));
+				inputChannels != null ? Arrays.toString(inputChannels) : "<serialized>");
 	}
 }
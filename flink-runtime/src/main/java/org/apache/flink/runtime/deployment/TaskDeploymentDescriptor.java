@@ -277,8 +277,8 @@ public final class TaskDeploymentDescriptor implements Serializable {
 	 * Loads externalized data from the BLOB store back to the object.
 	 *
 	 * @param blobService
-	 * 		the blob store to use (may be <tt>null</tt> if {@link #serializedJobInformation} and {@link
-	 * 		#serializedTaskInformation} are non-<tt>null</tt>)
+	 * 		the blob store to use (may be <tt>null</tt> if {@link #serializedJobInformation}, {@link
+	 * 		#serializedTaskInformation} and the input channels of the input gates are not offloaded)
 	 *
 	 * @throws IOException
 	 * 		during errors retrieving or reading the BLOBs
@@ -319,6 +319,11 @@ public final class TaskDeploymentDescriptor implements Serializable {
 			serializedTaskInformation = new NonOffloaded<>(serializedValue);
 		}
 
+		// re-integrate offloaded input channels from blob
+		for (InputGateDeploymentDescriptor inputGate : inputGates) {
+			inputGate.loadBigData(blobService, jobId);
+		}
+
 		// make sure that the serialized job and task information fields are filled
 		Preconditions.checkNotNull(serializedJobInformation);
 		Preconditions.checkNotNull(serializedTaskInformation);
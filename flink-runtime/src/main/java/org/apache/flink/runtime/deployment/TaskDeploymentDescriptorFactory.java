@@ -20,10 +20,12 @@ package org.apache.flink.runtime.deployment;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.JobID;
+import org.apache.flink.runtime.blob.BlobWriter;
 import org.apache.flink.runtime.blob.PermanentBlobKey;
 import org.apache.flink.runtime.checkpoint.JobManagerTaskRestore;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor.MaybeOffloaded;
+import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor.NonOffloaded;
 import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.executiongraph.Execution;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
@@ -62,6 +64,7 @@ public class TaskDeploymentDescriptorFactory {
 	private final boolean allowUnknownPartitions;
 	private final int subtaskIndex;
 	private final ExecutionEdge[][] inputEdges;
+	private final BlobWriter blobWriter;
 
 	private TaskDeploymentDescriptorFactory(
 			ExecutionAttemptID executionId,
@@ -71,7 +74,8 @@ public class TaskDeploymentDescriptorFactory {
 			JobID jobID,
 			boolean allowUnknownPartitions,
 			int subtaskIndex,
-			ExecutionEdge[][] inputEdges) {
+			ExecutionEdge[][] inputEdges,
+			BlobWriter blobWriter) {
 		this.executionId = executionId;
 		this.attemptNumber = attemptNumber;
 		this.serializedJobInformation = serializedJobInformation;
@@ -80,13 +84,14 @@ public class TaskDeploymentDescriptorFactory {
 		this.allowUnknownPartitions = allowUnknownPartitions;
 		this.subtaskIndex = subtaskIndex;
 		this.inputEdges = inputEdges;
+		this.blobWriter = blobWriter;
 	}
 
 	public TaskDeploymentDescriptor createDeploymentDescriptor(
 			AllocationID allocationID,
 			int targetSlotNumber,
 			@Nullable JobManagerTaskRestore taskRestore,
-			Collection<ResultPartitionDeploymentDescriptor> producedPartitions) {
+			Collection<ResultPartitionDeploymentDescriptor> producedPartitions) throws IOException {
 		return new TaskDeploymentDescriptor(
 			jobID,
 			serializedJobInformation,
@@ -101,7 +106,7 @@ public class TaskDeploymentDescriptorFactory {
 			createInputGateDeploymentDescriptors());
 	}
 
-	private List<InputGateDeploymentDescriptor> createInputGateDeploymentDescriptors() {
+	private List<InputGateDeploymentDescriptor> createInputGateDeploymentDescriptors() throws IOException {
 		List<InputGateDeploymentDescriptor> inputGates = new ArrayList<>(inputEdges.length);
 
 		for (ExecutionEdge[] edges : inputEdges) {
@@ -120,12 +125,61 @@ public class TaskDeploymentDescriptorFactory {
 				resultId,
 				partitionType,
 				queueToRequest,
-				getConsumedPartitionShuffleDescriptors(edges)));
+				getConsumedPartitionShuffleDescriptors(consumedIntermediateResult, edges)));
 		}
 
 		return inputGates;
 	}
 
+	/**
+	 * Returns the serialized shuffle descriptors of the consumed partitions. The descriptors of a
+	 * consumer that consumes all partitions of a result, e.g. of an all-to-all edge, are the same
+	 * for all consumers. They are serialized and possibly offloaded to the blob store once, and
+	 * shared by all consumers as long as no partition is reset.
+	 */
+	private MaybeOffloaded<ShuffleDescriptor[]> getConsumedPartitionShuffleDescriptors(
+			IntermediateResult consumedIntermediateResult,
+			ExecutionEdge[] edges) throws IOException {
+		boolean consumesAllPartitions = edges.length == consumedIntermediateResult.getNumberOfAssignedPartitions();
+		if (consumesAllPartitions) {
+			MaybeOffloaded<ShuffleDescriptor[]> cached = consumedIntermediateResult.getCachedShuffleDescriptors();
+			if (cached != null) {
+				return cached;
+			}
+		}
+
+		ShuffleDescriptor[] shuffleDescriptors = getConsumedPartitionShuffleDescriptors(edges);
+		// descriptors of partitions which are not registered yet will change, so they are not shared
+		if (consumesAllPartitions && !containsUnknownShuffleDescriptor(shuffleDescriptors)) {
+			MaybeOffloaded<ShuffleDescriptor[]> serializedShuffleDescriptors =
+				serializeAndTryOffloadShuffleDescriptors(shuffleDescriptors);
+			consumedIntermediateResult.cacheShuffleDescriptors(serializedShuffleDescriptors);
+			return serializedShuffleDescriptors;
+		} else {
+			return new NonOffloaded<>(new SerializedValue<>(shuffleDescriptors));
+		}
+	}
+
+	private MaybeOffloaded<ShuffleDescriptor[]> serializeAndTryOffloadShuffleDescriptors(
+			ShuffleDescriptor[] shuffleDescriptors) throws IOException {
+		Either<SerializedValue<ShuffleDescriptor[]>, PermanentBlobKey> serializedValueOrBlobKey =
+			BlobWriter.serializeAndTryOffload(shuffleDescriptors, jobID, blobWriter);
+		if (serializedValueOrBlobKey.isLeft()) {
+			return new NonOffloaded<>(serializedValueOrBlobKey.left());
+		} else {
+			return new TaskDeploymentDescriptor.Offloaded<>(serializedValueOrBlobKey.right());
+		}
+	}
+
+	private static boolean containsUnknownShuffleDescriptor(ShuffleDescriptor[] shuffleDescriptors) {
+		for (ShuffleDescriptor shuffleDescriptor : shuffleDescriptors) {
+			if (shuffleDescriptor instanceof UnknownShuffleDescriptor) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private ShuffleDescriptor[] getConsumedPartitionShuffleDescriptors(ExecutionEdge[] edges) {
 		ShuffleDescriptor[] shuffleDescriptors = new ShuffleDescriptor[edges.length];
 		// Each edge is connected to a different result partition
@@ -148,7 +202,8 @@ public class TaskDeploymentDescriptorFactory {
 			executionGraph.getJobID(),
 			executionGraph.getScheduleMode().allowLazyDeployment(),
 			executionVertex.getParallelSubtaskIndex(),
-			executionVertex.getAllInputEdges());
+			executionVertex.getAllInputEdges(),
+			executionGraph.getBlobWriter());
 	}
 
 	private static MaybeOffloaded<JobInformation> getSerializedJobInformation(ExecutionGraph executionGraph) {
@@ -406,6 +406,10 @@ public class ExecutionJobVertex implements AccessExecutionJobVertex, Archiveable
 		return Collections.unmodifiableCollection(operatorCoordinators.values());
 	}
 
+	public Map<OperatorID, OperatorCoordinator> getOperatorCoordinatorMap() {
+		return Collections.unmodifiableMap(operatorCoordinators);
+	}
+
 	public Either<SerializedValue<TaskInformation>, PermanentBlobKey> getTaskInformationOrBlobKey() throws IOException {
 		// only one thread should offload the task information, so let's also let only one thread
 		// serialize the task information!
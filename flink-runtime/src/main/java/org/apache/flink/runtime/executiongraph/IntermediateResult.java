@@ -19,9 +19,15 @@
 package org.apache.flink.runtime.executiongraph;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.blob.PermanentBlobKey;
+import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor.MaybeOffloaded;
+import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor.Offloaded;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
+
+import javax.annotation.Nullable;
 
 import java.util.HashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -57,6 +63,14 @@ public class IntermediateResult {
 
 	private final ResultPartitionType resultType;
 
+	/**
+	 * The serialized shuffle descriptors of all partitions, shared by the deployment descriptors of
+	 * all consumers that consume all partitions. Cleared when a partition is reset, which also
+	 * deletes the descriptors from the blob store if they were offloaded.
+	 */
+	@Nullable
+	private MaybeOffloaded<ShuffleDescriptor[]> cachedShuffleDescriptors;
+
 	public IntermediateResult(
 			IntermediateDataSetID id,
 			ExecutionJobVertex producer,
@@ -155,6 +169,26 @@ public class IntermediateResult {
 		return connectionIndex;
 	}
 
+	@Nullable
+	public MaybeOffloaded<ShuffleDescriptor[]> getCachedShuffleDescriptors() {
+		return cachedShuffleDescriptors;
+	}
+
+	public void cacheShuffleDescriptors(MaybeOffloaded<ShuffleDescriptor[]> shuffleDescriptors) {
+		this.cachedShuffleDescriptors = checkNotNull(shuffleDescriptors);
+	}
+
+	@SuppressWarnings("unchecked")
+	void clearCachedShuffleDescriptors() {
+		if (cachedShuffleDescriptors instanceof Offloaded) {
+			// the consumers which were deployed with the cached descriptors have been reset as well,
+			// new consumers are deployed with newly offloaded descriptors
+			PermanentBlobKey blobKey = ((Offloaded<ShuffleDescriptor[]>) cachedShuffleDescriptors).serializedValueKey;
+			producer.getGraph().getBlobWriter().deletePermanent(producer.getJobId(), blobKey);
+		}
+		this.cachedShuffleDescriptors = null;
+	}
+
 	@VisibleForTesting
 	void resetForNewExecution() {
 		for (IntermediateResultPartition partition : partitions) {
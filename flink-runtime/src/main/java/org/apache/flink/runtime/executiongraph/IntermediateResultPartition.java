@@ -92,6 +92,8 @@ public class IntermediateResultPartition {
 			totalResult.incrementNumberOfRunningProducersAndGetRemaining();
 		}
 		hasDataProduced = false;
+		// the new execution produces the partition with a new shuffle descriptor
+		totalResult.clearCachedShuffleDescriptors();
 	}
 
 	int addConsumerGroup() {
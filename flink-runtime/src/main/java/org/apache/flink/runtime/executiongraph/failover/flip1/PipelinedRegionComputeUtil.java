@@ -22,6 +22,7 @@ package org.apache.flink.runtime.executiongraph.failover.flip1;
 import org.apache.flink.runtime.executiongraph.failover.flip1.partitionrelease.PipelinedRegion;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingExecutionVertex;
+import org.apache.flink.runtime.topology.ConsumedPartitionGroup;
 import org.apache.flink.runtime.topology.Result;
 import org.apache.flink.runtime.topology.Topology;
 import org.apache.flink.runtime.topology.Vertex;
@@ -70,43 +71,32 @@ public final class PipelinedRegionComputeUtil {
 
 		final Map<V, Set<V>> vertexToRegion = new IdentityHashMap<>();
 
+		// pipelined partition groups whose producers have already been merged into one region,
+		// mapped to any one of these producers; consumers of such a group only need a single merge
+		final Map<ConsumedPartitionGroup<R>, V> mergedGroups = new IdentityHashMap<>();
+
 		// iterate all the vertices which are topologically sorted
 		for (V vertex : topology.getVertices()) {
 			Set<V> currentRegion = new HashSet<>(1);
 			currentRegion.add(vertex);
 			vertexToRegion.put(vertex, currentRegion);
 
-			for (R consumedResult : vertex.getConsumedResults()) {
-				if (consumedResult.getResultType().isPipelined()) {
-					final V producerVertex = consumedResult.getProducer();
-					final Set<V> producerRegion = vertexToRegion.get(producerVertex);
-
-					if (producerRegion == null) {
-						throw new IllegalStateException("Producer task " + producerVertex.getId()
-							+ " failover region is null while calculating failover region for the consumer task "
-							+ vertex.getId() + ". This should be a failover region building bug.");
-					}
+			for (ConsumedPartitionGroup<R> consumedGroup : vertex.getConsumedPartitionGroups()) {
+				if (!consumedGroup.getResultType().isPipelined()) {
+					continue;
+				}
 
-					// check if it is the same as the producer region, if so skip the merge
-					// this check can significantly reduce compute complexity in All-to-All PIPELINED edge case
-					if (currentRegion != producerRegion) {
-						// merge current region and producer region
-						// merge the smaller region into the larger one to reduce the cost
-						final Set<V> smallerSet;
-						final Set<V> largerSet;
-						if (currentRegion.size() < producerRegion.size()) {
-							smallerSet = currentRegion;
-							largerSet = producerRegion;
-						} else {
-							smallerSet = producerRegion;
-							largerSet = currentRegion;
-						}
-						for (V v : smallerSet) {
-							vertexToRegion.put(v, largerSet);
-						}
-						largerSet.addAll(smallerSet);
-						currentRegion = largerSet;
+				final V groupRepresentative = mergedGroups.get(consumedGroup);
+				if (groupRepresentative != null) {
+					currentRegion = mergeRegions(
+						vertexToRegion, currentRegion, getProducerRegion(vertexToRegion, groupRepresentative, vertex));
+				} else {
+					for (R consumedResult : consumedGroup) {
+						final V producerVertex = consumedResult.getProducer();
+						currentRegion = mergeRegions(
+							vertexToRegion, currentRegion, getProducerRegion(vertexToRegion, producerVertex, vertex));
 					}
+					mergedGroups.put(consumedGroup, consumedGroup.getFirst().getProducer());
 				}
 			}
 		}
@@ -114,6 +104,48 @@ public final class PipelinedRegionComputeUtil {
 		return uniqueRegions(vertexToRegion);
 	}
 
+	private static <V extends Vertex<?, ?, V, ?>> Set<V> getProducerRegion(
+			final Map<V, Set<V>> vertexToRegion,
+			final V producerVertex,
+			final V consumerVertex) {
+
+		final Set<V> producerRegion = vertexToRegion.get(producerVertex);
+		if (producerRegion == null) {
+			throw new IllegalStateException("Producer task " + producerVertex.getId()
+				+ " failover region is null while calculating failover region for the consumer task "
+				+ consumerVertex.getId() + ". This should be a failover region building bug.");
+		}
+		return producerRegion;
+	}
+
+	private static <V> Set<V> mergeRegions(
+			final Map<V, Set<V>> vertexToRegion,
+			final Set<V> currentRegion,
+			final Set<V> producerRegion) {
+
+		// check if it is the same as the producer region, if so skip the merge
+		// this check can significantly reduce compute complexity in All-to-All PIPELINED edge case
+		if (currentRegion == producerRegion) {
+			return currentRegion;
+		}
+
+		// merge the smaller region into the larger one to reduce the cost
+		final Set<V> smallerSet;
+		final Set<V> largerSet;
+		if (currentRegion.size() < producerRegion.size()) {
+			smallerSet = currentRegion;
+			largerSet = producerRegion;
+		} else {
+			smallerSet = producerRegion;
+			largerSet = currentRegion;
+		}
+		for (V v : smallerSet) {
+			vertexToRegion.put(v, largerSet);
+		}
+		largerSet.addAll(smallerSet);
+		return largerSet;
+	}
+
 	private static <V extends Vertex<?, ?, V, ?>> Map<V, Set<V>> buildOneRegionForAllVertices(
 			final Topology<?, ?, V, ?> topology) {
 
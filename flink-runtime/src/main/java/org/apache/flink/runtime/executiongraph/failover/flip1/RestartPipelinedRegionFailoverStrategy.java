@@ -21,6 +21,7 @@ import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.runtime.io.network.partition.PartitionException;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+import org.apache.flink.runtime.topology.ConsumedPartitionGroup;
 import org.apache.flink.util.ExceptionUtils;
 
 import org.slf4j.Logger;
@@ -187,26 +188,41 @@ public class RestartPipelinedRegionFailoverStrategy implements FailoverStrategy
 			regionsToRestart.add(regionToRestart);
 
 			// if a needed input result partition is not available, its producer region is involved
+			// partition groups shared by several vertices of the region (all-to-all inputs) are checked only once
+			final Set<ConsumedPartitionGroup<?>> visitedConsumedGroups = Collections.newSetFromMap(new IdentityHashMap<>());
 			for (FailoverVertex<?, ?> vertex : regionToRestart.getAllExecutionVertices()) {
-				for (FailoverResultPartition<?, ?> consumedPartition : vertex.getConsumedResults()) {
-					if (!resultPartitionAvailabilityChecker.isAvailable(consumedPartition.getId())) {
-						FailoverRegion producerRegion = vertexToRegionMap.get(consumedPartition.getProducer().getId());
-						if (!visitedRegions.contains(producerRegion)) {
-							visitedRegions.add(producerRegion);
-							regionsToVisit.add(producerRegion);
+				for (ConsumedPartitionGroup<? extends FailoverResultPartition<?, ?>> consumedGroup : vertex.getConsumedPartitionGroups()) {
+					if (!visitedConsumedGroups.add(consumedGroup)) {
+						continue;
+					}
+					for (FailoverResultPartition<?, ?> consumedPartition : consumedGroup) {
+						if (!resultPartitionAvailabilityChecker.isAvailable(consumedPartition.getId())) {
+							FailoverRegion producerRegion = vertexToRegionMap.get(consumedPartition.getProducer().getId());
+							if (!visitedRegions.contains(producerRegion)) {
+								visitedRegions.add(producerRegion);
+								regionsToVisit.add(producerRegion);
+							}
 						}
 					}
 				}
 			}
 
 			// all consumer regions of an involved region should be involved
+			// consumer groups shared by several partitions (all-to-all outputs) are visited only once
+			final Set<Iterable<? extends FailoverVertex<?, ?>>> visitedConsumerGroups =
+				Collections.newSetFromMap(new IdentityHashMap<>());
 			for (FailoverVertex<?, ?> vertex : regionToRestart.getAllExecutionVertices()) {
 				for (FailoverResultPartition<?, ?> producedPartition : vertex.getProducedResults()) {
-					for (FailoverVertex<?, ?> consumerVertex : producedPartition.getConsumers()) {
-						FailoverRegion consumerRegion = vertexToRegionMap.get(consumerVertex.getId());
-						if (!visitedRegions.contains(consumerRegion)) {
-							visitedRegions.add(consumerRegion);
-							regionsToVisit.add(consumerRegion);
+					for (Iterable<? extends FailoverVertex<?, ?>> consumerGroup : producedPartition.getConsumerGroups()) {
+						if (!visitedConsumerGroups.add(consumerGroup)) {
+							continue;
+						}
+						for (FailoverVertex<?, ?> consumerVertex : consumerGroup) {
+							FailoverRegion consumerRegion = vertexToRegionMap.get(consumerVertex.getId());
+							if (!visitedRegions.contains(consumerRegion)) {
+								visitedRegions.add(consumerRegion);
+								regionsToVisit.add(consumerRegion);
+							}
 						}
 					}
 				}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.compression;
+
+import io.airlift.compress.Compressor;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.apache.flink.runtime.io.compression.CompressorUtils.HEADER_LENGTH;
+import static org.apache.flink.runtime.io.compression.CompressorUtils.writeIntLE;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Flink compressor that wraps a {@link Compressor} of the aircompressor library. The compressed blocks
+ * use the same layout as the {@link Lz4BlockCompressor}: a header with the compressed and the original
+ * length followed by the compressed data.
+ */
+public class AirBlockCompressor implements BlockCompressor {
+
+	private final Compressor internalCompressor;
+
+	public AirBlockCompressor(Compressor internalCompressor) {
+		this.internalCompressor = checkNotNull(internalCompressor);
+	}
+
+	@Override
+	public int getMaxCompressedSize(int srcSize) {
+		return HEADER_LENGTH + internalCompressor.maxCompressedLength(srcSize);
+	}
+
+	@Override
+	public int compress(ByteBuffer src, int srcOff, int srcLen, ByteBuffer dst, int dstOff)
+			throws InsufficientBufferException {
+		final int prevSrcOff = src.position() + srcOff;
+		final int prevDstOff = dst.position() + dstOff;
+
+		if (dst.capacity() - prevDstOff < getMaxCompressedSize(srcLen)) {
+			throw new InsufficientBufferException("Buffer length too small");
+		}
+
+		final int compressedLength;
+		try {
+			if (isAccessible(src)) {
+				ByteBuffer input = src.duplicate();
+				input.limit(prevSrcOff + srcLen);
+				input.position(prevSrcOff);
+
+				ByteBuffer output = dst.duplicate();
+				output.limit(output.capacity());
+				output.position(prevDstOff + HEADER_LENGTH);
+
+				internalCompressor.compress(input, output);
+				compressedLength = output.position() - prevDstOff - HEADER_LENGTH;
+			} else {
+				// read-only heap buffers expose neither an array nor an address, copy the data out
+				byte[] input = new byte[srcLen];
+				ByteBuffer duplicate = src.duplicate();
+				duplicate.position(prevSrcOff);
+				duplicate.get(input);
+
+				byte[] output = new byte[internalCompressor.maxCompressedLength(srcLen)];
+				compressedLength = internalCompressor.compress(input, 0, srcLen, output, 0, output.length);
+
+				ByteBuffer target = dst.duplicate();
+				target.position(prevDstOff + HEADER_LENGTH);
+				target.put(output, 0, compressedLength);
+			}
+		} catch (IllegalArgumentException | IndexOutOfBoundsException | BufferOverflowException e) {
+			throw new InsufficientBufferException(e);
+		}
+
+		src.position(prevSrcOff + srcLen);
+
+		dst.position(prevDstOff);
+		dst.order(ByteOrder.LITTLE_ENDIAN);
+		dst.putInt(compressedLength);
+		dst.putInt(srcLen);
+		dst.position(prevDstOff + compressedLength + HEADER_LENGTH);
+
+		return HEADER_LENGTH + compressedLength;
+	}
+
+	@Override
+	public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+			throws InsufficientBufferException {
+		if (dst.length - dstOff < getMaxCompressedSize(srcLen)) {
+			throw new InsufficientBufferException("Buffer length too small");
+		}
+
+		try {
+			int compressedLength = internalCompressor.compress(
+				src,
+				srcOff,
+				srcLen,
+				dst,
+				dstOff + HEADER_LENGTH,
+				dst.length - dstOff - HEADER_LENGTH);
+			writeIntLE(compressedLength, dst, dstOff);
+			writeIntLE(srcLen, dst, dstOff + 4);
+			return HEADER_LENGTH + compressedLength;
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new InsufficientBufferException(e);
+		}
+	}
+
+	/**
+	 * The aircompressor library accesses {@link ByteBuffer}s either through their backing array or
+	 * through the native address of direct buffers.
+	 */
+	static boolean isAccessible(ByteBuffer buffer) {
+		return buffer.isDirect() || buffer.hasArray();
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.compression;
+
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.MalformedInputException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.apache.flink.runtime.io.compression.AirBlockCompressor.isAccessible;
+import static org.apache.flink.runtime.io.compression.CompressorUtils.HEADER_LENGTH;
+import static org.apache.flink.runtime.io.compression.CompressorUtils.readIntLE;
+import static org.apache.flink.runtime.io.compression.CompressorUtils.validateLength;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Flink decompressor that wraps a {@link Decompressor} of the aircompressor library and decodes
+ * data written with {@link AirBlockCompressor}.
+ */
+public class AirBlockDecompressor implements BlockDecompressor {
+
+	private final Decompressor internalDecompressor;
+
+	public AirBlockDecompressor(Decompressor internalDecompressor) {
+		this.internalDecompressor = checkNotNull(internalDecompressor);
+	}
+
+	@Override
+	public int decompress(ByteBuffer src, int srcOff, int srcLen, ByteBuffer dst, int dstOff)
+			throws DataCorruptionException {
+		final int prevSrcOff = src.position() + srcOff;
+		final int prevDstOff = dst.position() + dstOff;
+
+		src.order(ByteOrder.LITTLE_ENDIAN);
+		final int compressedLen = src.getInt(prevSrcOff);
+		final int originalLen = src.getInt(prevSrcOff + 4);
+		validateLength(compressedLen, originalLen);
+
+		if (dst.capacity() - prevDstOff < originalLen) {
+			throw new InsufficientBufferException("Buffer length too small");
+		}
+
+		if (src.limit() - prevSrcOff - HEADER_LENGTH < compressedLen) {
+			throw new DataCorruptionException("Source data is not integral for decompression.");
+		}
+
+		final int decompressedLen;
+		try {
+			if (isAccessible(src)) {
+				ByteBuffer input = src.duplicate();
+				input.limit(prevSrcOff + HEADER_LENGTH + compressedLen);
+				input.position(prevSrcOff + HEADER_LENGTH);
+
+				ByteBuffer output = dst.duplicate();
+				output.limit(prevDstOff + originalLen);
+				output.position(prevDstOff);
+
+				internalDecompressor.decompress(input, output);
+				decompressedLen = output.position() - prevDstOff;
+			} else {
+				// read-only heap buffers expose neither an array nor an address, copy the data out
+				byte[] input = new byte[compressedLen];
+				ByteBuffer duplicate = src.duplicate();
+				duplicate.position(prevSrcOff + HEADER_LENGTH);
+				duplicate.get(input);
+
+				byte[] output = new byte[originalLen];
+				decompressedLen = internalDecompressor.decompress(input, 0, compressedLen, output, 0, originalLen);
+
+				ByteBuffer target = dst.duplicate();
+				target.position(prevDstOff);
+				target.put(output, 0, decompressedLen);
+			}
+		} catch (MalformedInputException | IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new DataCorruptionException("Input is corrupted", e);
+		}
+
+		if (decompressedLen != originalLen) {
+			throw new DataCorruptionException("Input is corrupted, unexpected original length.");
+		}
+
+		src.position(prevSrcOff + compressedLen + HEADER_LENGTH);
+		dst.position(prevDstOff + originalLen);
+
+		return originalLen;
+	}
+
+	@Override
+	public int decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+			throws InsufficientBufferException, DataCorruptionException {
+		final int compressedLen = readIntLE(src, srcOff);
+		final int originalLen = readIntLE(src, srcOff + 4);
+		validateLength(compressedLen, originalLen);
+
+		if (dst.length - dstOff < originalLen) {
+			throw new InsufficientBufferException("Buffer length too small");
+		}
+
+		if (src.length - srcOff - HEADER_LENGTH < compressedLen) {
+			throw new DataCorruptionException("Source data is not integral for decompression.");
+		}
+
+		final int decompressedLen;
+		try {
+			decompressedLen = internalDecompressor.decompress(
+				src,
+				srcOff + HEADER_LENGTH,
+				compressedLen,
+				dst,
+				dstOff,
+				originalLen);
+		} catch (MalformedInputException | IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new DataCorruptionException("Input is corrupted", e);
+		}
+
+		if (decompressedLen != originalLen) {
+			throw new DataCorruptionException("Input is corrupted, unexpected original length.");
+		}
+
+		return originalLen;
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.compression;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+
+import java.util.function.Supplier;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Implementation of {@link BlockCompressionFactory} for the pure Java codecs of the airlift
+ * aircompressor library, e.g. ZSTD and Snappy.
+ */
+public class AirCompressionFactory implements BlockCompressionFactory {
+
+	private final Supplier<Compressor> compressorFactory;
+
+	private final Supplier<Decompressor> decompressorFactory;
+
+	public AirCompressionFactory(Supplier<Compressor> compressorFactory, Supplier<Decompressor> decompressorFactory) {
+		this.compressorFactory = checkNotNull(compressorFactory);
+		this.decompressorFactory = checkNotNull(decompressorFactory);
+	}
+
+	@Override
+	public BlockCompressor getCompressor() {
+		// the underlying compressors are not guaranteed to be thread-safe (Snappy keeps a hash table
+		// as instance state), so each block compressor gets its own instance
+		return new AirBlockCompressor(compressorFactory.get());
+	}
+
+	@Override
+	public BlockDecompressor getDecompressor() {
+		return new AirBlockDecompressor(decompressorFactory.get());
+	}
+}
@@ -20,6 +20,11 @@ package org.apache.flink.runtime.io.compression;
 
 import org.apache.flink.configuration.IllegalConfigurationException;
 
+import io.airlift.compress.snappy.SnappyCompressor;
+import io.airlift.compress.snappy.SnappyDecompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /**
@@ -36,7 +41,9 @@ public interface BlockCompressionFactory {
 	 * Name of {@link BlockCompressionFactory}.
 	 */
 	enum CompressionFactoryName {
-		LZ4
+		LZ4,
+		ZSTD,
+		SNAPPY
 	}
 
 	/**
@@ -61,6 +68,12 @@ public interface BlockCompressionFactory {
 				case LZ4:
 					blockCompressionFactory = new Lz4BlockCompressionFactory();
 					break;
+				case ZSTD:
+					blockCompressionFactory = new AirCompressionFactory(ZstdCompressor::new, ZstdDecompressor::new);
+					break;
+				case SNAPPY:
+					blockCompressionFactory = new AirCompressionFactory(SnappyCompressor::new, SnappyDecompressor::new);
+					break;
 				default:
 					throw new IllegalStateException("Unknown CompressionMethod " + compressionName);
 			}
@@ -26,7 +26,8 @@ import net.jpountz.util.SafeUtils;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
-import static org.apache.flink.runtime.io.compression.Lz4BlockCompressionFactory.HEADER_LENGTH;
+import static org.apache.flink.runtime.io.compression.CompressorUtils.HEADER_LENGTH;
+import static org.apache.flink.runtime.io.compression.CompressorUtils.validateLength;
 
 /**
  * Decode data written with {@link Lz4BlockCompressor}.
@@ -116,13 +117,4 @@ public class Lz4BlockDecompressor implements BlockDecompressor {
 
 		return originalLen;
 	}
-
-	private void validateLength(int compressedLen, int originalLen) throws DataCorruptionException {
-		if (originalLen < 0
-			|| compressedLen < 0
-			|| (originalLen == 0 && compressedLen != 0)
-			|| (originalLen != 0 && compressedLen == 0)) {
-			throw new DataCorruptionException("Input is corrupted, invalid length.");
-		}
-	}
 }
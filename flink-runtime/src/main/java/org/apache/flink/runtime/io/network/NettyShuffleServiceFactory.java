@@ -107,7 +107,10 @@ public class NettyShuffleServiceFactory implements ShuffleServiceFactory<NettySh
 			config.networkBufferSize(),
 			config.isForcePartitionReleaseOnConsumption(),
 			config.isBlockingShuffleCompressionEnabled(),
-			config.getCompressionCodec());
+			config.isPipelinedShuffleCompressionEnabled(),
+			config.getCompressionCodec(),
+			config.getSortShuffleMinParallelism(),
+			config.getSortShuffleBufferSize());
 
 		SingleInputGateFactory singleInputGateFactory = new SingleInputGateFactory(
 			taskExecutorResourceId,
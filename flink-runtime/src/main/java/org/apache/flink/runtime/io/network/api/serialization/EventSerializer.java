@@ -208,7 +208,7 @@ public class EventSerializer {
 		final byte[] locationBytes = checkpointOptions.getTargetLocation().isDefaultReference() ?
 				null : checkpointOptions.getTargetLocation().getReferenceBytes();
 
-		final ByteBuffer buf = ByteBuffer.allocate(28 + (locationBytes == null ? 0 : locationBytes.length));
+		final ByteBuffer buf = ByteBuffer.allocate(29 + (locationBytes == null ? 0 : locationBytes.length));
 
 		// we do not use checkpointType.ordinal() here to make the serialization robust
 		// against changes in the enum (such as changes in the order of the values)
@@ -234,6 +234,7 @@ public class EventSerializer {
 			buf.putInt(locationBytes.length);
 			buf.put(locationBytes);
 		}
+		buf.put((byte) (checkpointOptions.isUnalignedCheckpoint() ? 1 : 0));
 
 		buf.flip();
 		return buf;
@@ -265,8 +266,9 @@ public class EventSerializer {
 			buffer.get(bytes);
 			locationRef = new CheckpointStorageLocationReference(bytes);
 		}
+		final boolean isUnalignedCheckpoint = buffer.get() != 0;
 
-		return new CheckpointBarrier(id, timestamp, new CheckpointOptions(checkpointType, locationRef));
+		return new CheckpointBarrier(id, timestamp, new CheckpointOptions(checkpointType, locationRef, isUnalignedCheckpoint));
 	}
 
 	// ------------------------------------------------------------------------
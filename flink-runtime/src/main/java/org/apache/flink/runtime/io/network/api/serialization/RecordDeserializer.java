@@ -22,6 +22,7 @@ import org.apache.flink.core.io.IOReadableWritable;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Interface for turning sequences of memory segments into records.
@@ -63,4 +64,15 @@ public interface RecordDeserializer<T extends IOReadableWritable> {
 	void clear();
 
 	boolean hasUnfinishedData();
+
+	/**
+	 * Gets the data which has been handed to this deserializer, but has not been turned into records yet, e.g.
+	 * the beginning of a record spanning multiple buffers. Feeding the returned buffer into a fresh deserializer
+	 * restores the state of this one. The state of this deserializer is not changed by this method.
+	 *
+	 * <p>This is used to persist the in-flight data of unaligned checkpoints.
+	 *
+	 * @return the unconsumed data, or an empty optional if there is none.
+	 */
+	Optional<Buffer> getUnconsumedBuffer() throws IOException;
 }
@@ -22,8 +22,12 @@ import org.apache.flink.core.io.IOReadableWritable;
 import org.apache.flink.core.memory.DataInputDeserializer;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputSerializer;
 import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
+import org.apache.flink.runtime.io.network.buffer.NetworkBuffer;
 import org.apache.flink.util.FileUtils;
 import org.apache.flink.util.StringUtils;
 
@@ -38,6 +42,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.Random;
 
 /**
@@ -164,6 +169,28 @@ public class SpillingAdaptiveSpanningRecordDeserializer<T extends IOReadableWrit
 		return this.nonSpanningWrapper.remaining() > 0 || this.spanningWrapper.getNumGatheredBytes() > 0;
 	}
 
+	@Override
+	public Optional<Buffer> getUnconsumedBuffer() throws IOException {
+		if (!hasUnfinishedData()) {
+			return Optional.empty();
+		}
+
+		// the spanning wrapper always holds data which precedes the data of the non-spanning wrapper
+		final DataOutputSerializer unconsumed = new DataOutputSerializer(
+			this.spanningWrapper.getNumGatheredBytes() + this.nonSpanningWrapper.remaining());
+		this.spanningWrapper.writeUnconsumedData(unconsumed);
+		this.nonSpanningWrapper.writeUnconsumedData(unconsumed);
+
+		if (unconsumed.length() == 0) {
+			return Optional.empty();
+		}
+		return Optional.of(new NetworkBuffer(
+			MemorySegmentFactory.wrap(unconsumed.getCopyOfBuffer()),
+			FreeingBufferRecycler.INSTANCE,
+			true,
+			unconsumed.length()));
+	}
+
 
 	// -----------------------------------------------------------------------------------------------------------------
 
@@ -194,6 +221,12 @@ public class SpillingAdaptiveSpanningRecordDeserializer<T extends IOReadableWrit
 			this.limit = leftOverLimit;
 		}
 
+		void writeUnconsumedData(DataOutputSerializer out) throws IOException {
+			if (remaining() > 0) {
+				this.segment.get(out, this.position, remaining());
+			}
+		}
+
 		// -------------------------------------------------------------------------------------------------------------
 		//                                       DataInput specific methods
 		// -------------------------------------------------------------------------------------------------------------
@@ -565,6 +598,24 @@ public class SpillingAdaptiveSpanningRecordDeserializer<T extends IOReadableWrit
 			}
 		}
 
+		private void writeUnconsumedData(DataOutputSerializer out) throws IOException {
+			if (this.recordLength >= 0) {
+				if (this.spillingChannel != null || this.spillFileReader != null) {
+					throw new UnsupportedOperationException(
+						"Records larger than " + THRESHOLD_FOR_SPILLING + " bytes which are spilled to disk " +
+						"can not be persisted as part of an unaligned checkpoint.");
+				}
+				out.writeInt(this.recordLength);
+				out.write(this.buffer, 0, this.accumulatedRecordBytes);
+
+				if (this.leftOverData != null) {
+					this.leftOverData.get(out, this.leftOverStart, this.leftOverLimit - this.leftOverStart);
+				}
+			} else if (this.lengthBuffer.position() > 0) {
+				out.write(this.lengthBuffer.array(), 0, this.lengthBuffer.position());
+			}
+		}
+
 		private boolean hasFullRecord() {
 			return this.recordLength >= 0 && this.accumulatedRecordBytes >= this.recordLength;
 		}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.api.writer;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.util.ExecutorThreadFactory;
+import org.apache.flink.util.ExecutorUtils;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Periodically flushes the outputs of the {@link RecordWriter}s, to give an upper latency bound.
+ *
+ * <p>One flusher is owned by the {@link org.apache.flink.runtime.io.network.partition.ResultPartitionManager}
+ * of a TaskManager, so that all the record writers of the TaskManager share a single daemon thread instead
+ * of running a dedicated thread per writer. The thread is started with the first registered flush and
+ * stopped when the last flush is unregistered again or the flusher is closed.
+ *
+ * <p>The flushes run with the fixed interval of the buffer timeout, the interval does not adapt to the
+ * rate in which the output buffers fill up.
+ */
+public final class OutputFlusher implements AutoCloseable {
+
+	/**
+	 * Time to wait for a running flush to complete when the thread of the flusher is stopped.
+	 */
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000L;
+
+	private final Object lock = new Object();
+
+	@GuardedBy("lock")
+	private final Set<ScheduledFuture<?>> registeredFlushes = new HashSet<>();
+
+	@GuardedBy("lock")
+	@Nullable
+	private ScheduledThreadPoolExecutor executor;
+
+	@GuardedBy("lock")
+	private boolean isClosed;
+
+	/**
+	 * Registers the given flush action of the given task to be run repeatedly with the given delay between
+	 * two runs. While the action runs, the flusher thread carries the name of the task.
+	 *
+	 * <p>An exception thrown by the flush action suppresses its subsequent runs, the caller must still
+	 * {@link #unregister(ScheduledFuture) unregister} the returned future in that case.
+	 */
+	ScheduledFuture<?> register(Runnable flushAction, long intervalMillis, String taskName) {
+		checkNotNull(flushAction);
+		checkNotNull(taskName);
+		checkArgument(intervalMillis > 0, "The flush interval must be positive.");
+
+		final String threadName = RecordWriter.DEFAULT_OUTPUT_FLUSH_THREAD_NAME + " for " + taskName;
+
+		synchronized (lock) {
+			checkState(!isClosed, "The output flusher has already been closed.");
+
+			if (executor == null) {
+				executor = new ScheduledThreadPoolExecutor(
+					1,
+					new ExecutorThreadFactory(RecordWriter.DEFAULT_OUTPUT_FLUSH_THREAD_NAME));
+				executor.setRemoveOnCancelPolicy(true);
+			}
+
+			ScheduledFuture<?> flush = executor.scheduleWithFixedDelay(
+				() -> runNamed(flushAction, threadName),
+				intervalMillis,
+				intervalMillis,
+				TimeUnit.MILLISECONDS);
+			registeredFlushes.add(flush);
+			return flush;
+		}
+	}
+
+	/**
+	 * Cancels the given registered flush. The thread of the flusher is stopped if this was the last
+	 * registered flush. Unregistering a flush more than once has no effect.
+	 */
+	void unregister(ScheduledFuture<?> flush) {
+		final ScheduledThreadPoolExecutor stoppedExecutor;
+		synchronized (lock) {
+			if (!registeredFlushes.remove(flush)) {
+				return;
+			}
+
+			flush.cancel(false);
+			stoppedExecutor = registeredFlushes.isEmpty() ? detachExecutor() : null;
+		}
+		shutdown(stoppedExecutor);
+	}
+
+	/**
+	 * Cancels all the registered flushes and stops the thread of the flusher. No flush can be registered
+	 * afterwards.
+	 */
+	@Override
+	public void close() {
+		final ScheduledThreadPoolExecutor stoppedExecutor;
+		synchronized (lock) {
+			isClosed = true;
+			for (ScheduledFuture<?> flush : registeredFlushes) {
+				flush.cancel(false);
+			}
+			registeredFlushes.clear();
+			stoppedExecutor = detachExecutor();
+		}
+		shutdown(stoppedExecutor);
+	}
+
+	@GuardedBy("lock")
+	@Nullable
+	private ScheduledThreadPoolExecutor detachExecutor() {
+		final ScheduledThreadPoolExecutor detachedExecutor = executor;
+		executor = null;
+		return detachedExecutor;
+	}
+
+	/**
+	 * Stops the given executor and waits for a running flush to complete, instead of interrupting it in
+	 * the middle of writing to the partition. Waits outside of the lock, so that flushes can be registered
+	 * with a new executor in the meantime.
+	 */
+	private static void shutdown(@Nullable ScheduledThreadPoolExecutor stoppedExecutor) {
+		if (stoppedExecutor != null) {
+			ExecutorUtils.gracefulShutdown(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, stoppedExecutor);
+		}
+	}
+
+	@VisibleForTesting
+	int getNumberOfRegisteredFlushes() {
+		synchronized (lock) {
+			return registeredFlushes.size();
+		}
+	}
+
+	@VisibleForTesting
+	boolean isRunning() {
+		synchronized (lock) {
+			return executor != null;
+		}
+	}
+
+	private static void runNamed(Runnable action, String threadName) {
+		final Thread thread = Thread.currentThread();
+		final String originalName = thread.getName();
+		thread.setName(threadName);
+		try {
+			action.run();
+		} finally {
+			thread.setName(originalName);
+		}
+	}
+}
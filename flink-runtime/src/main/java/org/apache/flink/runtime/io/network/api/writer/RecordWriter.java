@@ -30,6 +30,7 @@ import org.apache.flink.runtime.io.network.api.serialization.SpanningRecordSeria
 import org.apache.flink.runtime.io.network.buffer.BufferBuilder;
 import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
 import org.apache.flink.runtime.metrics.groups.TaskIOMetricGroup;
+import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.XORShiftRandom;
 
 import org.slf4j.Logger;
@@ -40,6 +41,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 
 import static org.apache.flink.runtime.io.network.api.serialization.RecordSerializer.SerializationResult;
 import static org.apache.flink.util.Preconditions.checkArgument;
@@ -80,16 +82,29 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
 
 	private final boolean flushAlways;
 
-	/** The thread that periodically flushes the output, to give an upper latency bound. */
+	private final String taskName;
+
+	/**
+	 * The flusher which runs the periodic flush of this writer, either the one shared by the TaskManager or
+	 * one owned by this writer if the target partition does not provide a flusher.
+	 */
 	@Nullable
 	private final OutputFlusher outputFlusher;
 
+	/** Whether this writer created {@link #outputFlusher} and thus has to close it. */
+	private final boolean ownsOutputFlusher;
+
+	/** The periodic flush registered with the {@link #outputFlusher}, to give an upper latency bound. */
+	@Nullable
+	private final ScheduledFuture<?> outputFlush;
+
 	/** To avoid synchronization overhead on the critical path, best-effort error tracking is enough here.*/
 	private Throwable flusherException;
 
 	RecordWriter(ResultPartitionWriter writer, long timeout, String taskName) {
 		this.targetPartition = writer;
 		this.numberOfChannels = writer.getNumberOfSubpartitions();
+		this.taskName = taskName == null ? DEFAULT_OUTPUT_FLUSH_THREAD_NAME : taskName;
 
 		this.serializer = new SpanningRecordSerializer<T>();
 
@@ -97,13 +112,13 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
 		this.flushAlways = (timeout == 0);
 		if (timeout == -1 || timeout == 0) {
 			outputFlusher = null;
+			ownsOutputFlusher = false;
+			outputFlush = null;
 		} else {
-			String threadName = taskName == null ?
-				DEFAULT_OUTPUT_FLUSH_THREAD_NAME :
-				DEFAULT_OUTPUT_FLUSH_THREAD_NAME + " for " + taskName;
-
-			outputFlusher = new OutputFlusher(threadName, timeout);
-			outputFlusher.start();
+			OutputFlusher sharedFlusher = writer.getOutputFlusher();
+			ownsOutputFlusher = sharedFlusher == null;
+			outputFlusher = ownsOutputFlusher ? new OutputFlusher() : sharedFlusher;
+			outputFlush = outputFlusher.register(this::periodicFlush, timeout, this.taskName);
 		}
 	}
 
@@ -154,12 +169,20 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
 	}
 
 	public void broadcastEvent(AbstractEvent event) throws IOException {
+		broadcastEvent(event, false);
+	}
+
+	/**
+	 * Broadcasts the given event to all channels. Priority events overtake the buffers which are already enqueued
+	 * in the subpartitions, see {@link ResultPartitionWriter#addBufferConsumer(BufferConsumer, int, boolean)}.
+	 */
+	public void broadcastEvent(AbstractEvent event, boolean isPriorityEvent) throws IOException {
 		try (BufferConsumer eventBufferConsumer = EventSerializer.toBufferConsumer(event)) {
 			for (int targetChannel = 0; targetChannel < numberOfChannels; targetChannel++) {
 				tryFinishCurrentBufferBuilder(targetChannel);
 
 				// Retain the buffer so that it can be recycled by each channel of targetPartition
-				targetPartition.addBufferConsumer(eventBufferConsumer.copy(), targetChannel);
+				targetPartition.addBufferConsumer(eventBufferConsumer.copy(), targetChannel, isPriorityEvent);
 			}
 
 			if (flushAlways) {
@@ -176,6 +199,19 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
 		targetPartition.flush(targetChannel);
 	}
 
+	/**
+	 * The periodic flush run by the {@link OutputFlusher}. Any error stops the periodic flush and is
+	 * recognized by the writer.
+	 */
+	private void periodicFlush() {
+		try {
+			flushAll();
+		} catch (Throwable t) {
+			notifyFlusherException(t);
+			ExceptionUtils.rethrow(t);
+		}
+	}
+
 	/**
 	 * Sets the metric group for this RecordWriter.
      */
@@ -241,19 +277,15 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
 	public abstract void clearBuffers();
 
 	/**
-	 * Closes the writer. This stops the flushing thread (if there is one).
+	 * Closes the writer. This stops the periodic flush (if there is one).
 	 */
 	public void close() {
 		clearBuffers();
-		// make sure we terminate the thread in any case
-		if (outputFlusher != null) {
-			outputFlusher.terminate();
-			try {
-				outputFlusher.join();
-			} catch (InterruptedException e) {
-				// ignore on close
-				// restore interrupt flag to fast exit further blocking calls
-				Thread.currentThread().interrupt();
+		// make sure we stop the periodic flush in any case
+		if (outputFlush != null) {
+			outputFlusher.unregister(outputFlush);
+			if (ownsOutputFlusher) {
+				outputFlusher.close();
 			}
 		}
 	}
@@ -265,7 +297,7 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
 	 */
 	private void notifyFlusherException(Throwable t) {
 		if (flusherException == null) {
-			LOG.error("An exception happened while flushing the outputs", t);
+			LOG.error("An exception happened while flushing the outputs of {}", taskName, t);
 			flusherException = t;
 		}
 	}
@@ -275,52 +307,4 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
 			throw new IOException("An exception happened while flushing the outputs", flusherException);
 		}
 	}
-
-	// ------------------------------------------------------------------------
-
-	/**
-	 * A dedicated thread that periodically flushes the output buffers, to set upper latency bounds.
-	 *
-	 * <p>The thread is daemonic, because it is only a utility thread.
-	 */
-	private class OutputFlusher extends Thread {
-
-		private final long timeout;
-
-		private volatile boolean running = true;
-
-		OutputFlusher(String name, long timeout) {
-			super(name);
-			setDaemon(true);
-			this.timeout = timeout;
-		}
-
-		public void terminate() {
-			running = false;
-			interrupt();
-		}
-
-		@Override
-		public void run() {
-			try {
-				while (running) {
-					try {
-						Thread.sleep(timeout);
-					} catch (InterruptedException e) {
-						// propagate this if we are still running, because it should not happen
-						// in that case
-						if (running) {
-							throw new Exception(e);
-						}
-					}
-
-					// any errors here should let the thread come to a halt and be
-					// recognized by the writer
-					flushAll();
-				}
-			} catch (Throwable t) {
-				notifyFlusherException(t);
-			}
-		}
-	}
 }
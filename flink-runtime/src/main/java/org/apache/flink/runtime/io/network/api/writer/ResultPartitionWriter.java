@@ -19,6 +19,7 @@
 package org.apache.flink.runtime.io.network.api.writer;
 
 import org.apache.flink.runtime.io.AvailabilityProvider;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferBuilder;
 import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
@@ -26,6 +27,8 @@ import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import javax.annotation.Nullable;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * A buffer-oriented runtime result writer API for producing results.
@@ -66,6 +69,29 @@ public interface ResultPartitionWriter extends AutoCloseable, AvailabilityProvid
 	 */
 	boolean addBufferConsumer(BufferConsumer bufferConsumer, int subpartitionIndex) throws IOException;
 
+	/**
+	 * Adds the bufferConsumer to the subpartition with the given index, optionally as a priority event which
+	 * overtakes the buffers already enqueued in that subpartition.
+	 *
+	 * <p>Writers that do not support priority events enqueue them like any other buffer.
+	 *
+	 * @return true if operation succeeded and bufferConsumer was enqueued for consumption.
+	 */
+	default boolean addBufferConsumer(
+			BufferConsumer bufferConsumer,
+			int subpartitionIndex,
+			boolean isPriorityEvent) throws IOException {
+		return addBufferConsumer(bufferConsumer, subpartitionIndex);
+	}
+
+	/**
+	 * Returns the data buffers of the subpartition with the given index which have been overtaken by the last
+	 * priority event. The caller takes the ownership of the returned buffers.
+	 */
+	default List<Buffer> requestInflightBufferSnapshot(int subpartitionIndex) {
+		return Collections.emptyList();
+	}
+
 	/**
 	 * Manually trigger consumption from enqueued {@link BufferConsumer BufferConsumers} in all subpartitions.
 	 */
@@ -76,6 +102,16 @@ public interface ResultPartitionWriter extends AutoCloseable, AvailabilityProvid
 	 */
 	void flush(int subpartitionIndex);
 
+	/**
+	 * Returns the {@link OutputFlusher} which periodically flushes the outputs written to this partition, or
+	 * {@code null} if the writer does not provide one. The flusher is shared with the other partitions of the
+	 * TaskManager and owned by it, so it must not be closed by the caller.
+	 */
+	@Nullable
+	default OutputFlusher getOutputFlusher() {
+		return null;
+	}
+
 	/**
 	 * Fail the production of the partition.
 	 *
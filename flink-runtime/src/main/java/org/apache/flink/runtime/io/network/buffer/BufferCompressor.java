@@ -23,30 +23,60 @@ import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.runtime.io.compression.BlockCompressionFactory;
 import org.apache.flink.runtime.io.compression.BlockCompressor;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.flink.util.Preconditions.checkState;
 
 /**
  * Compressor for {@link Buffer}.
+ *
+ * <p>This class is not thread-safe, except for {@link #compressToBuffer(Buffer, Buffer)} which can be called
+ * concurrently by multiple threads.
  */
 public class BufferCompressor {
 
+	/**
+	 * The intermediate heap buffer of each thread which calls {@link #compressToBuffer(Buffer, Buffer)}, shared
+	 * by all compressors.
+	 */
+	private static final ThreadLocal<byte[]> THREAD_LOCAL_INTERMEDIATE_BUFFER = new ThreadLocal<>();
+
 	/** The backing block compressor for data compression. */
 	private final BlockCompressor blockCompressor;
 
+	/** The block compressor of each thread which calls {@link #compressToBuffer(Buffer, Buffer)}. */
+	private final ThreadLocal<BlockCompressor> threadLocalBlockCompressor;
+
 	/** The intermediate buffer for the compressed data. */
 	private final NetworkBuffer internalBuffer;
 
+	/** The name of the compression codec, used to identify the compression metrics. */
+	private final String compressionCodec;
+
+	/** Total number of bytes handed to this compressor, including those which could not be compressed. */
+	private final LongAdder numBytesBeforeCompression = new LongAdder();
+
+	/** Total number of bytes which remained after compression, uncompressible buffers count with their size. */
+	private final LongAdder numBytesAfterCompression = new LongAdder();
+
+	/** Total time in nanoseconds spent compressing data. */
+	private final LongAdder compressionTimeNanos = new LongAdder();
+
 	public BufferCompressor(int bufferSize, String factoryName) {
 		checkArgument(bufferSize > 0);
 		checkNotNull(factoryName);
 		// the size of this intermediate heap buffer will be gotten from the
 		// plugin configuration in the future, and currently, double size of
-		// the input buffer is enough for lz4-java compression library.
+		// the input buffer is enough for all the supported compression codecs.
 		final byte[] heapBuffer = new byte[2 * bufferSize];
 		this.internalBuffer = new NetworkBuffer(MemorySegmentFactory.wrap(heapBuffer), FreeingBufferRecycler.INSTANCE);
-		this.blockCompressor = BlockCompressionFactory.createBlockCompressionFactory(factoryName).getCompressor();
+		final BlockCompressionFactory compressionFactory = BlockCompressionFactory.createBlockCompressionFactory(factoryName);
+		this.blockCompressor = compressionFactory.getCompressor();
+		this.threadLocalBlockCompressor = ThreadLocal.withInitial(compressionFactory::getCompressor);
+		this.compressionCodec = factoryName;
 	}
 
 	/**
@@ -58,7 +88,7 @@ public class BufferCompressor {
 	 */
 	public Buffer compressToIntermediateBuffer(Buffer buffer) {
 		int compressedLen;
-		if ((compressedLen = compress(buffer)) == 0) {
+		if ((compressedLen = compressToInternalBuffer(buffer)) == 0) {
 			return buffer;
 		}
 
@@ -75,7 +105,7 @@ public class BufferCompressor {
 	 */
 	public Buffer compressToOriginalBuffer(Buffer buffer) {
 		int compressedLen;
-		if ((compressedLen = compress(buffer)) == 0) {
+		if ((compressedLen = compressToInternalBuffer(buffer)) == 0) {
 			return buffer;
 		}
 
@@ -87,30 +117,94 @@ public class BufferCompressor {
 		return new ReadOnlySlicedNetworkBuffer(buffer.asByteBuf(), 0, compressedLen, memorySegmentOffset, true);
 	}
 
+	/**
+	 * The difference between this method and {@link #compressToOriginalBuffer(Buffer)} is that this method leaves
+	 * the input {@link Buffer} untouched and copies the compressed data to the given target {@link Buffer}, which
+	 * is usually taken from a buffer pool. If the input {@link Buffer} could be compressed, it is recycled and the
+	 * target {@link Buffer} is returned. Otherwise, the target {@link Buffer} is recycled and the input
+	 * {@link Buffer} is returned.
+	 *
+	 * <p>This is needed if the memory of the input {@link Buffer} may be shared with other readers, e.g. for the
+	 * pipelined subpartitions of a broadcast. The compression uses a block compressor and an intermediate buffer
+	 * of the calling thread, so this method can be called concurrently.
+	 */
+	public Buffer compressToBuffer(Buffer buffer, Buffer target) {
+		checkArgument(target.isBuffer() && target.getSize() == 0, "The target buffer must be empty.");
+
+		final BlockCompressor compressor = threadLocalBlockCompressor.get();
+		final byte[] intermediateBuffer = getThreadLocalIntermediateBuffer(compressor.getMaxCompressedSize(buffer.getSize()));
+		final int compressedLen = compress(buffer, compressor, ByteBuffer.wrap(intermediateBuffer));
+		if (compressedLen == 0 || compressedLen > target.getMaxCapacity()) {
+			target.recycleBuffer();
+			return buffer;
+		}
+
+		target.getMemorySegment().put(target.getMemorySegmentOffset(), intermediateBuffer, 0, compressedLen);
+		target.setSize(compressedLen);
+		target.setCompressed(true);
+		buffer.recycleBuffer();
+		return target;
+	}
+
+	public String getCompressionCodec() {
+		return compressionCodec;
+	}
+
+	public long getNumBytesBeforeCompression() {
+		return numBytesBeforeCompression.sum();
+	}
+
+	public long getNumBytesAfterCompression() {
+		return numBytesAfterCompression.sum();
+	}
+
+	public long getCompressionTimeNanos() {
+		return compressionTimeNanos.sum();
+	}
+
 	/**
 	 * Compresses the given {@link Buffer} into the intermediate buffer and returns the compressed data size.
 	 */
-	private int compress(Buffer buffer) {
+	private int compressToInternalBuffer(Buffer buffer) {
+		checkState(internalBuffer.refCnt() == 1, "Illegal reference count, buffer need to be released.");
+
+		return compress(buffer, blockCompressor, internalBuffer.getNioBuffer(0, internalBuffer.capacity()));
+	}
+
+	/**
+	 * Compresses the given {@link Buffer} into the given target with the given {@link BlockCompressor} and
+	 * returns the compressed data size, or 0 if the data could not be compressed.
+	 */
+	private int compress(Buffer buffer, BlockCompressor compressor, ByteBuffer target) {
 		checkArgument(buffer != null, "The input buffer must not be null.");
 		checkArgument(buffer.isBuffer(), "Event can not be compressed.");
 		checkArgument(!buffer.isCompressed(), "Buffer already compressed.");
 		checkArgument(buffer.getReaderIndex() == 0, "Reader index of the input buffer must be 0.");
 		checkArgument(buffer.readableBytes() > 0, "No data to be compressed.");
-		checkState(internalBuffer.refCnt() == 1, "Illegal reference count, buffer need to be released.");
 
+		final int length = buffer.getSize();
+		final long startTime = System.nanoTime();
+		int compressedLen;
 		try {
-			int length = buffer.getSize();
-			// compress the given buffer into the internal heap buffer
-			int compressedLen = blockCompressor.compress(
-				buffer.getNioBuffer(0, length),
-				0,
-				length,
-				internalBuffer.getNioBuffer(0, internalBuffer.capacity()),
-				0);
-			return compressedLen < length ? compressedLen : 0;
+			compressedLen = compressor.compress(buffer.getNioBuffer(0, length), 0, length, target, 0);
+			compressedLen = compressedLen < length ? compressedLen : 0;
 		} catch (Throwable throwable) {
 			// return the original buffer if failed to compress
-			return 0;
+			compressedLen = 0;
+		}
+
+		compressionTimeNanos.add(System.nanoTime() - startTime);
+		numBytesBeforeCompression.add(length);
+		numBytesAfterCompression.add(compressedLen == 0 ? length : compressedLen);
+		return compressedLen;
+	}
+
+	private static byte[] getThreadLocalIntermediateBuffer(int minSize) {
+		byte[] intermediateBuffer = THREAD_LOCAL_INTERMEDIATE_BUFFER.get();
+		if (intermediateBuffer == null || intermediateBuffer.length < minSize) {
+			intermediateBuffer = new byte[minSize];
+			THREAD_LOCAL_INTERMEDIATE_BUFFER.set(intermediateBuffer);
 		}
+		return intermediateBuffer;
 	}
 }
@@ -57,7 +57,8 @@ public class BufferDecompressor {
 	 * <p>Notes that the decompression will always start from offset 0 to the size of the input {@link Buffer}.
 	 */
 	public Buffer decompressToIntermediateBuffer(Buffer buffer) {
-		int decompressedLen = decompress(buffer);
+		checkState(internalBuffer.refCnt() == 1, "Illegal reference count, buffer need to be released.");
+		int decompressedLen = decompress(buffer, internalBuffer);
 		internalBuffer.setSize(decompressedLen);
 
 		return internalBuffer.retainBuffer();
@@ -71,7 +72,8 @@ public class BufferDecompressor {
 	 */
 	@VisibleForTesting
 	public Buffer decompressToOriginalBuffer(Buffer buffer) {
-		int decompressedLen = decompress(buffer);
+		checkState(internalBuffer.refCnt() == 1, "Illegal reference count, buffer need to be released.");
+		int decompressedLen = decompress(buffer, internalBuffer);
 
 		// copy the decompressed data back
 		int memorySegmentOffset = buffer.getMemorySegmentOffset();
@@ -82,15 +84,27 @@ public class BufferDecompressor {
 	}
 
 	/**
-	 * Decompresses the input {@link Buffer} into the intermediate buffer and returns the decompressed data size.
+	 * The difference between this method and {@link #decompressToIntermediateBuffer(Buffer)} is that this method
+	 * decompresses the data to a new heap buffer which stays valid independently of further calls to this
+	 * {@link BufferDecompressor}, e.g. to persist in-flight data as channel state. The input {@link Buffer} is left
+	 * untouched.
+	 */
+	public Buffer decompressToNewBuffer(Buffer buffer) {
+		NetworkBuffer decompressedBuffer = new NetworkBuffer(
+			MemorySegmentFactory.wrap(new byte[internalBuffer.capacity()]), FreeingBufferRecycler.INSTANCE);
+		decompressedBuffer.setSize(decompress(buffer, decompressedBuffer));
+		return decompressedBuffer;
+	}
+
+	/**
+	 * Decompresses the input {@link Buffer} into the given target buffer and returns the decompressed data size.
 	 */
-	private int decompress(Buffer buffer) {
+	private int decompress(Buffer buffer, NetworkBuffer target) {
 		checkArgument(buffer != null, "The input buffer must not be null.");
 		checkArgument(buffer.isBuffer(), "Event can not be decompressed.");
 		checkArgument(buffer.isCompressed(), "Buffer not compressed.");
 		checkArgument(buffer.getReaderIndex() == 0, "Reader index of the input buffer must be 0.");
 		checkArgument(buffer.readableBytes() > 0, "No data to be decompressed.");
-		checkState(internalBuffer.refCnt() == 1, "Illegal reference count, buffer need to be released.");
 
 		int length = buffer.getSize();
 		// decompress the given buffer into the internal heap buffer
@@ -98,7 +112,7 @@ public class BufferDecompressor {
 			buffer.getNioBuffer(0, length),
 			0,
 			length,
-			internalBuffer.getNioBuffer(0, internalBuffer.capacity()),
+			target.getNioBuffer(0, target.capacity()),
 			0);
 	}
 }
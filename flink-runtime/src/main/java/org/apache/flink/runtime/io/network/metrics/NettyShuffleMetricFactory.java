@@ -140,6 +140,7 @@ public class NettyShuffleMetricFactory {
 			outputGroup,
 			outputGroup.addGroup(METRIC_GROUP_BUFFERS),
 			resultPartitions);
+		ResultPartitionMetrics.registerCompressionMetrics(outputGroup, resultPartitions);
 	}
 
 	private static void registerOutputMetrics(
@@ -20,6 +20,7 @@ package org.apache.flink.runtime.io.network.metrics;
 
 import org.apache.flink.metrics.Gauge;
 import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.io.network.buffer.BufferCompressor;
 import org.apache.flink.runtime.io.network.partition.ResultPartition;
 import org.apache.flink.runtime.io.network.partition.ResultSubpartition;
 
@@ -156,6 +157,36 @@ public class ResultPartitionMetrics {
 		};
 	}
 
+	private static Gauge<Double> getCompressionRatioGauge(BufferCompressor compressor) {
+		return new Gauge<Double>() {
+			@Override
+			public Double getValue() {
+				long numBytesAfterCompression = compressor.getNumBytesAfterCompression();
+				return numBytesAfterCompression == 0
+					? 1.0
+					: compressor.getNumBytesBeforeCompression() / (double) numBytesAfterCompression;
+			}
+		};
+	}
+
+	private static Gauge<Long> getCompressionTimeGauge(BufferCompressor compressor) {
+		return new Gauge<Long>() {
+			@Override
+			public Long getValue() {
+				return compressor.getCompressionTimeNanos() / 1_000_000;
+			}
+		};
+	}
+
+	private static Gauge<Long> getNumBytesBeforeCompressionGauge(BufferCompressor compressor) {
+		return new Gauge<Long>() {
+			@Override
+			public Long getValue() {
+				return compressor.getNumBytesBeforeCompression();
+			}
+		};
+	}
+
 	// ------------------------------------------------------------------------
 	//  Static access
 	// ------------------------------------------------------------------------
@@ -171,4 +202,24 @@ public class ResultPartitionMetrics {
 			group.gauge("avgQueueLen", metrics.getAvgQueueLenGauge());
 		}
 	}
+
+	/**
+	 * Registers the compression metrics of all partitions which compress their data, grouped by the
+	 * compression codec, i.e. <tt>&lt;partition index&gt;.compression.&lt;codec&gt;.&lt;metric&gt;</tt>.
+	 */
+	public static void registerCompressionMetrics(MetricGroup parent, ResultPartition[] partitions) {
+		for (int i = 0; i < partitions.length; i++) {
+			BufferCompressor compressor = partitions[i].getBufferCompressor();
+			if (compressor == null) {
+				continue;
+			}
+
+			MetricGroup group = parent.addGroup(i)
+				.addGroup("compression")
+				.addGroup(compressor.getCompressionCodec());
+			group.gauge("compressionRatio", getCompressionRatioGauge(compressor));
+			group.gauge("compressionTimeMs", getCompressionTimeGauge(compressor));
+			group.gauge("numBytesBeforeCompression", getNumBytesBeforeCompressionGauge(compressor));
+		}
+	}
 }
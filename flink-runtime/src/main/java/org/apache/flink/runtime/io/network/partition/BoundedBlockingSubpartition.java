@@ -303,4 +303,15 @@ final class BoundedBlockingSubpartition extends ResultSubpartition {
 		final FileChannelMemoryMappedBoundedData bd = FileChannelMemoryMappedBoundedData.create(tempFile.toPath());
 		return new BoundedBlockingSubpartition(index, parent, bd);
 	}
+
+	/**
+	 * Creates a BoundedBlockingSubpartition that stores the partition data in the data file shared by
+	 * all subpartitions of the result partition. The data is sorted by subpartition in memory before it
+	 * is spilled, so that it can be read region by region.
+	 */
+	public static BoundedBlockingSubpartition createWithSortMergeData(
+			int index, ResultPartition parent, SortMergeBoundedData sortMergeData) {
+
+		return new BoundedBlockingSubpartition(index, parent, sortMergeData.getSubpartitionData(index));
+	}
 }
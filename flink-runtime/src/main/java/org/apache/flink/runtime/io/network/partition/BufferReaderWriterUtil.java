@@ -175,6 +175,46 @@ final class BufferReaderWriterUtil {
 		return new NetworkBuffer(memorySegment, bufferRecycler, !isEvent, isCompressed, size);
 	}
 
+	/**
+	 * Reads the buffer at the given position of the channel. Unlike
+	 * {@link #readFromByteChannel(FileChannel, ByteBuffer, MemorySegment, BufferRecycler)}, this does
+	 * not change the position of the channel, so multiple readers can share the channel concurrently.
+	 * The next buffer starts at {@code position + HEADER_LENGTH + buffer.getSize()}.
+	 */
+	static Buffer readFromByteChannel(
+			FileChannel channel,
+			long position,
+			ByteBuffer headerBuffer,
+			MemorySegment memorySegment,
+			BufferRecycler bufferRecycler) throws IOException {
+
+		headerBuffer.clear();
+		readByteBufferFully(channel, headerBuffer, position);
+		headerBuffer.flip();
+
+		final ByteBuffer targetBuf;
+		final boolean isEvent;
+		final boolean isCompressed;
+		final int size;
+
+		try {
+			isEvent = headerBuffer.getShort() == HEADER_VALUE_IS_EVENT;
+			isCompressed = headerBuffer.getShort() == BUFFER_IS_COMPRESSED;
+			size = headerBuffer.getInt();
+			targetBuf = memorySegment.wrap(0, size);
+		}
+		catch (BufferUnderflowException | IllegalArgumentException e) {
+			// buffer underflow if header buffer is undersized
+			// IllegalArgumentException if size is outside memory segment size
+			throwCorruptDataException();
+			return null; // silence compiler
+		}
+
+		readByteBufferFully(channel, targetBuf, position + HEADER_LENGTH);
+
+		return new NetworkBuffer(memorySegment, bufferRecycler, !isEvent, isCompressed, size);
+	}
+
 	static ByteBuffer allocatedHeaderBuffer() {
 		ByteBuffer bb = ByteBuffer.allocateDirect(HEADER_LENGTH);
 		configureByteBuffer(bb);
@@ -209,13 +249,24 @@ final class BufferReaderWriterUtil {
 		while (b.hasRemaining());
 	}
 
+	private static void readByteBufferFully(FileChannel channel, ByteBuffer b, long position) throws IOException {
+		do {
+			final int bytesRead = channel.read(b, position);
+			if (bytesRead == -1) {
+				throwPrematureEndOfFile();
+			}
+			position += bytesRead;
+		}
+		while (b.hasRemaining());
+	}
+
 	private static void writeBuffer(FileChannel channel, ByteBuffer buffer) throws IOException {
 		while (buffer.hasRemaining()) {
 			channel.write(buffer);
 		}
 	}
 
-	private static void writeBuffers(FileChannel channel, ByteBuffer... buffers) throws IOException {
+	static void writeBuffers(FileChannel channel, ByteBuffer... buffers) throws IOException {
 		for (ByteBuffer buffer : buffers) {
 			writeBuffer(channel, buffer);
 		}
@@ -23,6 +23,7 @@ import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
 import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
+import org.apache.flink.runtime.io.network.partition.consumer.LocalInputChannel;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +33,8 @@ import javax.annotation.concurrent.GuardedBy;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.flink.util.Preconditions.checkState;
@@ -51,6 +54,10 @@ import static org.apache.flink.util.Preconditions.checkState;
  * <p>Explicit calls to {@link #flush()} will force this
  * {@link PipelinedSubpartitionView#notifyDataAvailable() notification} for any
  * {@link BufferConsumer} present in the queue.
+ *
+ * <p>Priority events, i.e. barriers of unaligned checkpoints, are added to the head of the queue and thereby
+ * overtake all enqueued buffers. The overtaken data is kept as an in-flight snapshot until it is requested via
+ * {@link #requestInflightBufferSnapshot()}.
  */
 class PipelinedSubpartition extends ResultSubpartition {
 
@@ -65,9 +72,19 @@ class PipelinedSubpartition extends ResultSubpartition {
 	@GuardedBy("buffers")
 	private int buffersInBacklog;
 
+	/** The data buffers overtaken by the last priority event. Access is synchronized on {@link #buffers}. */
+	@GuardedBy("buffers")
+	private final List<Buffer> inflightBufferSnapshot = new ArrayList<>();
+
 	/** The read view to consume this subpartition. */
 	private PipelinedSubpartitionView readView;
 
+	/**
+	 * Whether the polled buffers are compressed, i.e. compression is enabled and the subpartition is consumed
+	 * by a remote consumer. Buffers of consumers in the same TaskManager do not go over the network.
+	 */
+	private volatile boolean compressBuffers;
+
 	/** Flag indicating whether the subpartition has been finished. */
 	private boolean isFinished;
 
@@ -91,16 +108,30 @@ class PipelinedSubpartition extends ResultSubpartition {
 
 	@Override
 	public boolean add(BufferConsumer bufferConsumer) {
-		return add(bufferConsumer, false);
+		return add(bufferConsumer, false, false);
+	}
+
+	@Override
+	public boolean add(BufferConsumer bufferConsumer, boolean isPriorityEvent) {
+		return add(bufferConsumer, false, isPriorityEvent);
 	}
 
 	@Override
 	public void finish() throws IOException {
-		add(EventSerializer.toBufferConsumer(EndOfPartitionEvent.INSTANCE), true);
+		add(EventSerializer.toBufferConsumer(EndOfPartitionEvent.INSTANCE), true, false);
 		LOG.debug("{}: Finished {}.", parent.getOwningTaskName(), this);
 	}
 
-	private boolean add(BufferConsumer bufferConsumer, boolean finish) {
+	@Override
+	public List<Buffer> requestInflightBufferSnapshot() {
+		synchronized (buffers) {
+			List<Buffer> snapshot = new ArrayList<>(inflightBufferSnapshot);
+			inflightBufferSnapshot.clear();
+			return snapshot;
+		}
+	}
+
+	private boolean add(BufferConsumer bufferConsumer, boolean finish, boolean isPriorityEvent) {
 		checkNotNull(bufferConsumer);
 
 		final boolean notifyDataAvailable;
@@ -110,11 +141,17 @@ class PipelinedSubpartition extends ResultSubpartition {
 				return false;
 			}
 
-			// Add the bufferConsumer and update the stats
-			buffers.add(bufferConsumer);
+			if (isPriorityEvent) {
+				// the event overtakes all enqueued buffers, whose unconsumed data has to be persisted instead
+				snapshotInflightBuffers();
+				buffers.addFirst(bufferConsumer);
+			} else {
+				// Add the bufferConsumer and update the stats
+				buffers.add(bufferConsumer);
+			}
 			updateStatistics(bufferConsumer);
 			increaseBuffersInBacklog(bufferConsumer);
-			notifyDataAvailable = shouldNotifyDataAvailable() || finish;
+			notifyDataAvailable = shouldNotifyDataAvailable() || finish || isPriorityEvent;
 
 			isFinished |= finish;
 		}
@@ -142,6 +179,11 @@ class PipelinedSubpartition extends ResultSubpartition {
 			}
 			buffers.clear();
 
+			for (Buffer buffer : inflightBufferSnapshot) {
+				buffer.recycleBuffer();
+			}
+			inflightBufferSnapshot.clear();
+
 			view = readView;
 			readView = null;
 
@@ -156,8 +198,68 @@ class PipelinedSubpartition extends ResultSubpartition {
 		}
 	}
 
+	@GuardedBy("buffers")
+	private void snapshotInflightBuffers() {
+		assert Thread.holdsLock(buffers);
+
+		// buffers of a previous, unrequested snapshot belong to an aborted checkpoint
+		for (Buffer buffer : inflightBufferSnapshot) {
+			buffer.recycleBuffer();
+		}
+		inflightBufferSnapshot.clear();
+
+		for (BufferConsumer bufferConsumer : buffers) {
+			if (bufferConsumer.isBuffer()) {
+				try (BufferConsumer copy = bufferConsumer.copy()) {
+					Buffer buffer = copy.build();
+					if (buffer.readableBytes() > 0) {
+						inflightBufferSnapshot.add(buffer);
+					} else {
+						buffer.recycleBuffer();
+					}
+				}
+			}
+		}
+	}
+
 	@Nullable
 	BufferAndBacklog pollBuffer() {
+		BufferAndBacklog bufferAndBacklog = pollUncompressedBuffer();
+		if (bufferAndBacklog == null || !compressBuffers || !canBeCompressed(bufferAndBacklog.buffer())) {
+			return bufferAndBacklog;
+		}
+
+		// compress outside of the buffers lock to not block the producer, the memory of the buffer may be
+		// shared by the other subpartitions of a broadcast, so the compressed data is written to a pooled buffer
+		Buffer target = requestCompressionTarget();
+		if (target == null) {
+			return bufferAndBacklog;
+		}
+
+		Buffer compressedBuffer = parent.bufferCompressor.compressToBuffer(bufferAndBacklog.buffer(), target);
+		return new BufferAndBacklog(
+			compressedBuffer,
+			bufferAndBacklog.isMoreAvailable(),
+			bufferAndBacklog.buffersInBacklog(),
+			bufferAndBacklog.nextBufferIsEvent());
+	}
+
+	/**
+	 * Requests a buffer for the compressed data from the buffer pool of the partition without blocking. Returns
+	 * {@code null} if no buffer is available, in which case the data is sent uncompressed.
+	 */
+	@Nullable
+	private Buffer requestCompressionTarget() {
+		try {
+			return parent.getBufferPool().requestBuffer();
+		} catch (IOException | IllegalStateException e) {
+			// the buffer pool has been destroyed by a concurrent release
+			return null;
+		}
+	}
+
+	@Nullable
+	private BufferAndBacklog pollUncompressedBuffer() {
 		synchronized (buffers) {
 			Buffer buffer = null;
 
@@ -246,6 +348,7 @@ class PipelinedSubpartition extends ResultSubpartition {
 				parent.getOwningTaskName(), index, parent.getPartitionId());
 
 			readView = new PipelinedSubpartitionView(this, availabilityListener);
+			compressBuffers = parent.bufferCompressor != null && !(availabilityListener instanceof LocalInputChannel);
 			notifyDataAvailable = !buffers.isEmpty();
 		}
 		if (notifyDataAvailable) {
@@ -62,8 +62,14 @@ public class ResultPartitionFactory {
 
 	private final boolean blockingShuffleCompressionEnabled;
 
+	private final boolean pipelinedShuffleCompressionEnabled;
+
 	private final String compressionCodec;
 
+	private final int sortShuffleMinParallelism;
+
+	private final int sortShuffleBufferSize;
+
 	public ResultPartitionFactory(
 		ResultPartitionManager partitionManager,
 		FileChannelManager channelManager,
@@ -74,7 +80,10 @@ public class ResultPartitionFactory {
 		int networkBufferSize,
 		boolean forcePartitionReleaseOnConsumption,
 		boolean blockingShuffleCompressionEnabled,
-		String compressionCodec) {
+		boolean pipelinedShuffleCompressionEnabled,
+		String compressionCodec,
+		int sortShuffleMinParallelism,
+		int sortShuffleBufferSize) {
 
 		this.partitionManager = partitionManager;
 		this.channelManager = channelManager;
@@ -85,7 +94,10 @@ public class ResultPartitionFactory {
 		this.networkBufferSize = networkBufferSize;
 		this.forcePartitionReleaseOnConsumption = forcePartitionReleaseOnConsumption;
 		this.blockingShuffleCompressionEnabled = blockingShuffleCompressionEnabled;
+		this.pipelinedShuffleCompressionEnabled = pipelinedShuffleCompressionEnabled;
 		this.compressionCodec = compressionCodec;
+		this.sortShuffleMinParallelism = sortShuffleMinParallelism;
+		this.sortShuffleBufferSize = sortShuffleBufferSize;
 	}
 
 	public ResultPartition create(
@@ -109,7 +121,7 @@ public class ResultPartitionFactory {
 			int maxParallelism,
 			FunctionWithException<BufferPoolOwner, BufferPool, IOException> bufferPoolFactory) {
 		BufferCompressor bufferCompressor = null;
-		if (type.isBlocking() && blockingShuffleCompressionEnabled) {
+		if (type.isBlocking() ? blockingShuffleCompressionEnabled : pipelinedShuffleCompressionEnabled) {
 			bufferCompressor = new BufferCompressor(networkBufferSize, compressionCodec);
 		}
 
@@ -147,7 +159,14 @@ public class ResultPartitionFactory {
 			BoundedBlockingSubpartitionType blockingSubpartitionType,
 			ResultSubpartition[] subpartitions) {
 		// Create the subpartitions.
-		if (type.isBlocking()) {
+		if (type.isBlocking() && subpartitions.length >= sortShuffleMinParallelism) {
+			initializeSortMergePartitions(
+				subpartitions,
+				partition,
+				sortShuffleBufferSize,
+				networkBufferSize,
+				channelManager);
+		} else if (type.isBlocking()) {
 			initializeBoundedBlockingPartitions(
 				subpartitions,
 				partition,
@@ -186,6 +205,31 @@ public class ResultPartitionFactory {
 		}
 	}
 
+	private static void initializeSortMergePartitions(
+			ResultSubpartition[] subpartitions,
+			ResultPartition parent,
+			int sortBufferSize,
+			int networkBufferSize,
+			FileChannelManager channelManager) {
+		try {
+			// all subpartitions share one data file and one index file
+			final File dataFile = channelManager.createChannel().getPathFile();
+			final SortMergeBoundedData sortMergeData = SortMergeBoundedData.create(
+				dataFile.toPath(),
+				subpartitions.length,
+				sortBufferSize,
+				networkBufferSize);
+
+			for (int i = 0; i < subpartitions.length; i++) {
+				subpartitions[i] = BoundedBlockingSubpartition.createWithSortMergeData(i, parent, sortMergeData);
+			}
+		}
+		catch (IOException e) {
+			// see initializeBoundedBlockingPartitions() for why this is wrapped in a runtime exception
+			throw new FlinkRuntimeException(e);
+		}
+	}
+
 	private static void releasePartitionsQuietly(ResultSubpartition[] partitions, int until) {
 		for (int i = 0; i < until; i++) {
 			final ResultSubpartition subpartition = partitions[i];
@@ -18,6 +18,8 @@
 
 package org.apache.flink.runtime.io.network.partition;
 
+import org.apache.flink.runtime.io.network.api.writer.OutputFlusher;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +40,9 @@ public class ResultPartitionManager implements ResultPartitionProvider {
 
 	private final Map<ResultPartitionID, ResultPartition> registeredPartitions = new HashMap<>(16);
 
+	/** Periodically flushes the outputs of the record writers of all the partitions of the task manager. */
+	private final OutputFlusher outputFlusher = new OutputFlusher();
+
 	private boolean isShutdown;
 
 	public void registerResultPartition(ResultPartition partition) {
@@ -98,10 +103,16 @@ public class ResultPartitionManager implements ResultPartitionProvider {
 
 			isShutdown = true;
 
+			outputFlusher.close();
+
 			LOG.debug("Successful shutdown.");
 		}
 	}
 
+	public OutputFlusher getOutputFlusher() {
+		return outputFlusher;
+	}
+
 	// ------------------------------------------------------------------------
 	// Notifications
 	// ------------------------------------------------------------------------
@@ -23,6 +23,8 @@ import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
@@ -83,6 +85,33 @@ public abstract class ResultSubpartition {
 	 */
 	public abstract boolean add(BufferConsumer bufferConsumer) throws IOException;
 
+	/**
+	 * Adds the given buffer, which may be a priority event.
+	 *
+	 * <p>Priority events (i.e. barriers of unaligned checkpoints) may overtake the buffers that are already
+	 * enqueued, if the subpartition supports it. The overtaken data buffers can then be obtained via
+	 * {@link #requestInflightBufferSnapshot()}. By default, priority events are enqueued like any other buffer.
+	 *
+	 * @param bufferConsumer
+	 * 		the buffer to add (transferring ownership to this writer)
+	 * @param isPriorityEvent
+	 * 		whether the buffer is a priority event that may overtake the enqueued buffers
+	 * @return true if operation succeeded and bufferConsumer was enqueued for consumption.
+	 * @throws IOException
+	 * 		thrown in case of errors while adding the buffer
+	 */
+	public boolean add(BufferConsumer bufferConsumer, boolean isPriorityEvent) throws IOException {
+		return add(bufferConsumer);
+	}
+
+	/**
+	 * Returns the data buffers which have been overtaken by the last priority event and transfers their ownership
+	 * to the caller. The returned buffers have to be recycled.
+	 */
+	public List<Buffer> requestInflightBufferSnapshot() {
+		return Collections.emptyList();
+	}
+
 	public abstract void flush();
 
 	public abstract void finish() throws IOException;
@@ -0,0 +1,435 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferRecycler;
+import org.apache.flink.runtime.util.IntArrayList;
+import org.apache.flink.util.IOUtils;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * The data of all subpartitions of a blocking result partition, stored in one data file and one
+ * index file (sort-merge blocking shuffle). Each subpartition accesses its part of the data through
+ * the {@link BoundedData} returned by {@link #getSubpartitionData(int)}.
+ *
+ * <p>The buffers written by the subpartitions are first copied into an in-memory sort buffer, in
+ * which they are grouped by subpartition. Whenever the sort buffer is full, and once all
+ * subpartitions finished writing, its content is spilled as one <i>region</i> to the data file,
+ * subpartition by subpartition. For each region, the index file stores the offset and the number
+ * of buffers of every subpartition within the data file:
+ * <pre>
+ *  data file:  | region 0: sp 0 | sp 1 | ... | sp n | region 1: sp 0 | sp 1 | ... | sp n | ...
+ *  index file: | region 0: (offset, numBuffers) * (n + 1) | region 1: (offset, numBuffers) * (n + 1) | ...
+ * </pre>
+ *
+ * <p>Compared to one file per subpartition, the number of files of a result partition is constant
+ * and all writes are sequential. A reader of a subpartition reads one contiguous section per region.
+ *
+ * <h2>Thread Safety and Concurrency</h2>
+ *
+ * <p>Like {@link BoundedBlockingSubpartition}, this class assumes a single writer thread. After all
+ * subpartitions finished writing, the readers read concurrently from the shared file channels, using
+ * positional reads only. The files are deleted once the data of all subpartitions has been closed.
+ */
+final class SortMergeBoundedData {
+
+	/** The size of an index entry: the offset (long) and number of buffers (int) of a subpartition in a region. */
+	static final int INDEX_ENTRY_SIZE = 12;
+
+	/** This lock guards the disposal of the files. */
+	private final Object lock = new Object();
+
+	private final Path dataFilePath;
+
+	private final Path indexFilePath;
+
+	private final FileChannel dataFileChannel;
+
+	private final FileChannel indexFileChannel;
+
+	/** The size of the memory segments which the readers read the buffers into. */
+	private final int memorySegmentSize;
+
+	private final SubpartitionData[] subpartitionData;
+
+	/** The buffers (including headers) which were written since the last spill. */
+	@Nullable
+	private MemorySegment sortBufferSegment;
+
+	private final ByteBuffer sortBuffer;
+
+	/** The (offset, length) pairs of the buffers in the sort buffer, grouped by subpartition. */
+	private final IntArrayList[] sortedBufferEntries;
+
+	/** Buffer for the index entries of one region. */
+	private final ByteBuffer indexBuffer;
+
+	/** The number of bytes written per subpartition, including the buffer headers. */
+	private final long[] numSubpartitionBytes;
+
+	private long dataFileSize;
+
+	private int numRegions;
+
+	private int numFinishedSubpartitions;
+
+	/** Flag indicating whether all subpartitions finished writing and the data can be read. */
+	private volatile boolean isWriteFinished;
+
+	@GuardedBy("lock")
+	private int numClosedSubpartitions;
+
+	private SortMergeBoundedData(
+			Path dataFilePath,
+			Path indexFilePath,
+			FileChannel dataFileChannel,
+			FileChannel indexFileChannel,
+			int numSubpartitions,
+			int sortBufferSize,
+			int memorySegmentSize) {
+
+		checkArgument(numSubpartitions > 0, "There must be at least one subpartition.");
+
+		this.dataFilePath = checkNotNull(dataFilePath);
+		this.indexFilePath = checkNotNull(indexFilePath);
+		this.dataFileChannel = checkNotNull(dataFileChannel);
+		this.indexFileChannel = checkNotNull(indexFileChannel);
+		this.memorySegmentSize = memorySegmentSize;
+
+		this.sortBufferSegment = MemorySegmentFactory.allocateUnpooledOffHeapMemory(sortBufferSize, null);
+		this.sortBuffer = sortBufferSegment.wrap(0, sortBufferSize);
+		BufferReaderWriterUtil.configureByteBuffer(sortBuffer);
+
+		this.indexBuffer = ByteBuffer.allocateDirect(numSubpartitions * INDEX_ENTRY_SIZE);
+		BufferReaderWriterUtil.configureByteBuffer(indexBuffer);
+
+		this.sortedBufferEntries = new IntArrayList[numSubpartitions];
+		this.subpartitionData = new SubpartitionData[numSubpartitions];
+		for (int i = 0; i < numSubpartitions; i++) {
+			sortedBufferEntries[i] = new IntArrayList(16);
+			subpartitionData[i] = new SubpartitionData(i);
+		}
+		this.numSubpartitionBytes = new long[numSubpartitions];
+	}
+
+	/**
+	 * Gets the data of the given subpartition.
+	 */
+	BoundedData getSubpartitionData(int subpartitionIndex) {
+		return subpartitionData[subpartitionIndex];
+	}
+
+	int getNumberOfRegions() {
+		return numRegions;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Writing
+	// ------------------------------------------------------------------------
+
+	private void writeBuffer(int subpartitionIndex, Buffer buffer) throws IOException {
+		checkState(!isWriteFinished, "data already finished");
+
+		final int entrySize = BufferReaderWriterUtil.HEADER_LENGTH + buffer.getSize();
+		if (sortBuffer.remaining() < entrySize) {
+			spillSortBuffer();
+			checkArgument(sortBuffer.remaining() >= entrySize, "The buffer does not fit into the sort buffer.");
+		}
+
+		final int offset = sortBuffer.position();
+		BufferReaderWriterUtil.writeBuffer(buffer, sortBuffer);
+
+		sortedBufferEntries[subpartitionIndex].add(offset);
+		sortedBufferEntries[subpartitionIndex].add(entrySize);
+		numSubpartitionBytes[subpartitionIndex] += entrySize;
+	}
+
+	private void finishWrite() throws IOException {
+		checkState(!isWriteFinished, "data already finished");
+
+		if (++numFinishedSubpartitions == subpartitionData.length) {
+			spillSortBuffer();
+			releaseSortBuffer();
+			isWriteFinished = true;
+		}
+	}
+
+	/**
+	 * Writes the content of the sort buffer as a new region to the data file, subpartition by
+	 * subpartition, and appends the index entries of the region to the index file.
+	 */
+	private void spillSortBuffer() throws IOException {
+		if (sortBuffer.position() == 0) {
+			return;
+		}
+
+		indexBuffer.clear();
+		for (IntArrayList bufferEntries : sortedBufferEntries) {
+			final int[] entries = bufferEntries.toArray();
+			final ByteBuffer[] buffers = new ByteBuffer[entries.length / 2];
+			for (int i = 0; i < buffers.length; i++) {
+				final ByteBuffer entry = sortBuffer.duplicate();
+				entry.limit(entries[2 * i] + entries[2 * i + 1]);
+				entry.position(entries[2 * i]);
+				buffers[i] = entry;
+			}
+
+			indexBuffer.putLong(dataFileSize);
+			indexBuffer.putInt(buffers.length);
+
+			BufferReaderWriterUtil.writeBuffers(dataFileChannel, buffers);
+			for (int i = 0; i < buffers.length; i++) {
+				dataFileSize += entries[2 * i + 1];
+			}
+			bufferEntries.clear();
+		}
+
+		indexBuffer.flip();
+		BufferReaderWriterUtil.writeBuffers(indexFileChannel, indexBuffer);
+
+		sortBuffer.clear();
+		numRegions++;
+	}
+
+	private void releaseSortBuffer() {
+		if (sortBufferSegment != null) {
+			sortBufferSegment.free();
+			sortBufferSegment = null;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  Disposal
+	// ------------------------------------------------------------------------
+
+	private void closeSubpartitionData() throws IOException {
+		synchronized (lock) {
+			if (++numClosedSubpartitions < subpartitionData.length) {
+				return;
+			}
+		}
+
+		// all subpartitions are released, there cannot be any writer or reader anymore
+		releaseSortBuffer();
+		IOUtils.closeQuietly(dataFileChannel);
+		IOUtils.closeQuietly(indexFileChannel);
+		Files.delete(dataFilePath);
+		Files.delete(indexFilePath);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Creates the data file at the given path, and the index file next to it.
+	 */
+	static SortMergeBoundedData create(
+			Path dataFilePath,
+			int numSubpartitions,
+			int sortBufferSize,
+			int memorySegmentSize) throws IOException {
+
+		final Path indexFilePath = Paths.get(dataFilePath + ".index");
+
+		final FileChannel dataFileChannel = FileChannel.open(
+			dataFilePath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.READ);
+		final FileChannel indexFileChannel;
+		try {
+			indexFileChannel = FileChannel.open(
+				indexFilePath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.READ);
+		}
+		catch (IOException e) {
+			IOUtils.closeQuietly(dataFileChannel);
+			Files.deleteIfExists(dataFilePath);
+			throw e;
+		}
+
+		return new SortMergeBoundedData(
+			dataFilePath,
+			indexFilePath,
+			dataFileChannel,
+			indexFileChannel,
+			numSubpartitions,
+			sortBufferSize,
+			memorySegmentSize);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The {@link BoundedData} of a single subpartition.
+	 */
+	private final class SubpartitionData implements BoundedData {
+
+		private final int subpartitionIndex;
+
+		private boolean isClosed;
+
+		SubpartitionData(int subpartitionIndex) {
+			this.subpartitionIndex = subpartitionIndex;
+		}
+
+		@Override
+		public void writeBuffer(Buffer buffer) throws IOException {
+			SortMergeBoundedData.this.writeBuffer(subpartitionIndex, buffer);
+		}
+
+		@Override
+		public void finishWrite() throws IOException {
+			SortMergeBoundedData.this.finishWrite();
+		}
+
+		@Override
+		public Reader createReader(ResultSubpartitionView subpartitionView) {
+			checkState(isWriteFinished, "writing of the result partition not yet finished");
+
+			return new SubpartitionReader(subpartitionIndex, subpartitionView);
+		}
+
+		@Override
+		public long getSize() {
+			return numSubpartitionBytes[subpartitionIndex];
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!isClosed) {
+				isClosed = true;
+				closeSubpartitionData();
+			}
+		}
+	}
+
+	/**
+	 * Reads the buffers of a single subpartition, region by region, using a simple dedicated buffer pool.
+	 */
+	private final class SubpartitionReader implements BoundedData.Reader, BufferRecycler {
+
+		private static final int NUM_BUFFERS = 2;
+
+		private final int subpartitionIndex;
+
+		private final ByteBuffer headerBuffer;
+
+		private final ByteBuffer indexEntryBuffer;
+
+		private final ArrayDeque<MemorySegment> buffers;
+
+		private final ResultSubpartitionView subpartitionView;
+
+		/** The region of the next index entry to read. */
+		private int nextRegion;
+
+		/** The position of the next buffer to read in the data file. */
+		private long nextBufferOffset;
+
+		/** The number of buffers left to read in the current region. */
+		private int numRemainingBuffersInRegion;
+
+		/** The tag indicates whether we have read all regions. */
+		private boolean isFinished;
+
+		SubpartitionReader(int subpartitionIndex, ResultSubpartitionView subpartitionView) {
+			this.subpartitionIndex = subpartitionIndex;
+			this.headerBuffer = BufferReaderWriterUtil.allocatedHeaderBuffer();
+			this.indexEntryBuffer = ByteBuffer.allocateDirect(INDEX_ENTRY_SIZE);
+			BufferReaderWriterUtil.configureByteBuffer(indexEntryBuffer);
+			this.buffers = new ArrayDeque<>(NUM_BUFFERS);
+
+			for (int i = 0; i < NUM_BUFFERS; i++) {
+				buffers.addLast(MemorySegmentFactory.allocateUnpooledOffHeapMemory(memorySegmentSize, null));
+			}
+
+			this.subpartitionView = checkNotNull(subpartitionView);
+		}
+
+		@Nullable
+		@Override
+		public Buffer nextBuffer() throws IOException {
+			final MemorySegment memory = buffers.pollFirst();
+			if (memory == null) {
+				return null;
+			}
+
+			while (numRemainingBuffersInRegion == 0) {
+				if (nextRegion == numRegions) {
+					isFinished = true;
+					recycle(memory);
+					return null;
+				}
+				readIndexEntry(nextRegion++);
+			}
+
+			final Buffer next = BufferReaderWriterUtil.readFromByteChannel(
+				dataFileChannel, nextBufferOffset, headerBuffer, memory, this);
+			nextBufferOffset += BufferReaderWriterUtil.HEADER_LENGTH + next.getSize();
+			numRemainingBuffersInRegion--;
+
+			return next;
+		}
+
+		private void readIndexEntry(int region) throws IOException {
+			long position = ((long) region * subpartitionData.length + subpartitionIndex) * INDEX_ENTRY_SIZE;
+
+			indexEntryBuffer.clear();
+			while (indexEntryBuffer.hasRemaining()) {
+				final int bytesRead = indexFileChannel.read(indexEntryBuffer, position);
+				if (bytesRead == -1) {
+					throw new IOException("The index file is corrupt: premature end of file");
+				}
+				position += bytesRead;
+			}
+			indexEntryBuffer.flip();
+
+			nextBufferOffset = indexEntryBuffer.getLong();
+			numRemainingBuffersInRegion = indexEntryBuffer.getInt();
+		}
+
+		@Override
+		public void close() {
+			// the file channels are shared and closed once all subpartitions are closed
+		}
+
+		@Override
+		public void recycle(MemorySegment memorySegment) {
+			buffers.addLast(memorySegment);
+
+			if (!isFinished) {
+				subpartitionView.notifyDataAvailable();
+			}
+		}
+	}
+}
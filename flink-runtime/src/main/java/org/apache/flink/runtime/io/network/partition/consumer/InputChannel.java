@@ -27,6 +27,8 @@ import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.io.network.partition.ResultSubpartitionView;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -144,6 +146,15 @@ public abstract class InputChannel {
 	 */
 	abstract Optional<BufferAndAvailability> getNextBuffer() throws IOException, InterruptedException;
 
+	/**
+	 * Returns the received buffers which have been overtaken by the last barrier of an unaligned checkpoint and
+	 * transfers their ownership to the caller. Channels which do not let barriers overtake buffers return an empty
+	 * list.
+	 */
+	public List<Buffer> requestInflightBufferSnapshot() {
+		return Collections.emptyList();
+	}
+
 	// ------------------------------------------------------------------------
 	// Task events
 	// ------------------------------------------------------------------------
@@ -75,6 +75,11 @@ public abstract class InputGate implements PullingAsyncDataInput<BufferOrEvent>,
 
 	public abstract int getNumberOfInputChannels();
 
+	/**
+	 * Returns the channel of this gate with the given index.
+	 */
+	public abstract InputChannel getChannel(int channelIndex);
+
 	public abstract boolean isFinished();
 
 	/**
@@ -21,10 +21,13 @@ package org.apache.flink.runtime.io.network.partition.consumer;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.core.memory.MemorySegmentProvider;
+import org.apache.flink.runtime.event.AbstractEvent;
 import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.io.network.ConnectionID;
 import org.apache.flink.runtime.io.network.ConnectionManager;
 import org.apache.flink.runtime.io.network.PartitionRequestClient;
+import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferListener;
 import org.apache.flink.runtime.io.network.buffer.BufferProvider;
@@ -73,6 +76,13 @@ public class RemoteInputChannel extends InputChannel implements BufferRecycler,
 	 */
 	private final ArrayDeque<Buffer> receivedBuffers = new ArrayDeque<>();
 
+	/**
+	 * The received buffers which have been overtaken by the last barrier of an unaligned checkpoint.
+	 * Access is synchronized on {@link #receivedBuffers}.
+	 */
+	@GuardedBy("receivedBuffers")
+	private final List<Buffer> inflightBufferSnapshot = new ArrayList<>();
+
 	/**
 	 * Flag indicating whether this channel has been released. Either called by the receiving task
 	 * thread or the task manager actor.
@@ -241,6 +251,9 @@ public class RemoteInputChannel extends InputChannel implements BufferRecycler,
 			final List<MemorySegment> exclusiveRecyclingSegments = new ArrayList<>();
 
 			synchronized (receivedBuffers) {
+				// the snapshot shares the memory segments with the received buffers
+				releaseInflightBufferSnapshot();
+
 				Buffer buffer;
 				while ((buffer = receivedBuffers.poll()) != null) {
 					if (buffer.getRecycler() == this) {
@@ -513,6 +526,7 @@ public class RemoteInputChannel extends InputChannel implements BufferRecycler,
 		boolean recycleBuffer = true;
 
 		try {
+			final boolean isPriorityEvent = isUnalignedCheckpointBarrier(buffer);
 
 			final boolean wasEmpty;
 			synchronized (receivedBuffers) {
@@ -529,7 +543,13 @@ public class RemoteInputChannel extends InputChannel implements BufferRecycler,
 				}
 
 				wasEmpty = receivedBuffers.isEmpty();
-				receivedBuffers.add(buffer);
+				if (isPriorityEvent) {
+					// the barrier overtakes all received buffers, which have to be persisted instead
+					snapshotInflightBuffers();
+					receivedBuffers.addFirst(buffer);
+				} else {
+					receivedBuffers.add(buffer);
+				}
 				recycleBuffer = false;
 			}
 
@@ -549,6 +569,53 @@ public class RemoteInputChannel extends InputChannel implements BufferRecycler,
 		}
 	}
 
+	@Override
+	public List<Buffer> requestInflightBufferSnapshot() {
+		List<Buffer> snapshot;
+		synchronized (receivedBuffers) {
+			snapshot = new ArrayList<>(inflightBufferSnapshot);
+			inflightBufferSnapshot.clear();
+		}
+
+		// buffers of compressed pipelined shuffles are received compressed
+		for (int i = 0; i < snapshot.size(); i++) {
+			if (snapshot.get(i).isCompressed()) {
+				snapshot.set(i, inputGate.decompressToNewBuffer(snapshot.get(i)));
+			}
+		}
+		return snapshot;
+	}
+
+	private boolean isUnalignedCheckpointBarrier(Buffer buffer) throws IOException {
+		if (buffer.isBuffer()) {
+			return false;
+		}
+		AbstractEvent event = EventSerializer.fromBuffer(buffer, getClass().getClassLoader());
+		return event instanceof CheckpointBarrier &&
+			((CheckpointBarrier) event).getCheckpointOptions().isUnalignedCheckpoint();
+	}
+
+	@GuardedBy("receivedBuffers")
+	private void snapshotInflightBuffers() {
+		// buffers of a previous, unrequested snapshot belong to an aborted checkpoint
+		releaseInflightBufferSnapshot();
+
+		for (Buffer buffer : receivedBuffers) {
+			if (buffer.isBuffer()) {
+				// compressed buffers can not be sliced but their content is never modified in place either
+				inflightBufferSnapshot.add(buffer.isCompressed() ? buffer.retainBuffer() : buffer.readOnlySlice().retainBuffer());
+			}
+		}
+	}
+
+	@GuardedBy("receivedBuffers")
+	private void releaseInflightBufferSnapshot() {
+		for (Buffer buffer : inflightBufferSnapshot) {
+			buffer.recycleBuffer();
+		}
+		inflightBufferSnapshot.clear();
+	}
+
 	public void onEmptyBuffer(int sequenceNumber, int backlog) throws IOException {
 		boolean success = false;
 
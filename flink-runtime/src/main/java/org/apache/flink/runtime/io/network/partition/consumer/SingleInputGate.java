@@ -56,6 +56,7 @@ import java.util.Timer;
 import java.util.concurrent.CompletableFuture;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkElementIndex;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.flink.util.Preconditions.checkState;
 
@@ -254,6 +255,20 @@ public class SingleInputGate extends InputGate {
 		return numberOfInputChannels;
 	}
 
+	@Override
+	public InputChannel getChannel(int channelIndex) {
+		checkElementIndex(channelIndex, numberOfInputChannels);
+
+		synchronized (requestLock) {
+			for (InputChannel inputChannel : inputChannels.values()) {
+				if (inputChannel.getChannelIndex() == channelIndex) {
+					return inputChannel;
+				}
+			}
+		}
+		throw new IllegalStateException("There is no input channel with index " + channelIndex + " yet.");
+	}
+
 	/**
 	 * Returns the type of this input channel's consumed result partition.
 	 *
@@ -585,6 +600,19 @@ public class SingleInputGate extends InputGate {
 		return buffer;
 	}
 
+	/**
+	 * Decompresses a compressed buffer of an in-flight data snapshot into a new buffer, so that channel state
+	 * is always persisted uncompressed. The input buffer is recycled.
+	 */
+	Buffer decompressToNewBuffer(Buffer buffer) {
+		try {
+			checkNotNull(bufferDecompressor, "Buffer decompressor not set.");
+			return bufferDecompressor.decompressToNewBuffer(buffer);
+		} finally {
+			buffer.recycleBuffer();
+		}
+	}
+
 	private void markAvailable() {
 		CompletableFuture<?> toNotify;
 		synchronized (inputChannelsWithData) {
@@ -33,6 +33,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkElementIndex;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.flink.util.Preconditions.checkState;
 
@@ -133,6 +134,19 @@ public class UnionInputGate extends InputGate {
 		return totalNumberOfInputChannels;
 	}
 
+	@Override
+	public InputChannel getChannel(int channelIndex) {
+		checkElementIndex(channelIndex, totalNumberOfInputChannels);
+
+		for (Map.Entry<InputGate, Integer> entry : inputGateToIndexOffsetMap.entrySet()) {
+			int offset = entry.getValue();
+			if (channelIndex >= offset && channelIndex < offset + entry.getKey().getNumberOfInputChannels()) {
+				return entry.getKey().getChannel(channelIndex - offset);
+			}
+		}
+		throw new IllegalStateException("There is no input channel with index " + channelIndex + ".");
+	}
+
 	@Override
 	public boolean isFinished() {
 		return inputGatesWithRemainingData.isEmpty();
@@ -60,6 +60,12 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
 
 	private final boolean isPreferCheckpointForRecovery;
 
+	/**
+	 * Flag indicating whether checkpoint barriers overtake in-flight data, which is then
+	 * persisted as channel state instead of being aligned at the receiving tasks.
+	 */
+	private final boolean isUnalignedCheckpointsEnabled;
+
 	public CheckpointCoordinatorConfiguration(
 			long checkpointInterval,
 			long checkpointTimeout,
@@ -69,6 +75,28 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
 			boolean isExactlyOnce,
 			boolean isPreferCheckpointForRecovery,
 			int tolerableCpFailureNumber) {
+		this(
+			checkpointInterval,
+			checkpointTimeout,
+			minPauseBetweenCheckpoints,
+			maxConcurrentCheckpoints,
+			checkpointRetentionPolicy,
+			isExactlyOnce,
+			isPreferCheckpointForRecovery,
+			tolerableCpFailureNumber,
+			false);
+	}
+
+	public CheckpointCoordinatorConfiguration(
+			long checkpointInterval,
+			long checkpointTimeout,
+			long minPauseBetweenCheckpoints,
+			int maxConcurrentCheckpoints,
+			CheckpointRetentionPolicy checkpointRetentionPolicy,
+			boolean isExactlyOnce,
+			boolean isPreferCheckpointForRecovery,
+			int tolerableCpFailureNumber,
+			boolean isUnalignedCheckpointsEnabled) {
 
 		// sanity checks
 		if (checkpointInterval < MINIMAL_CHECKPOINT_TIME || checkpointTimeout < MINIMAL_CHECKPOINT_TIME ||
@@ -85,6 +113,7 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
 		this.isExactlyOnce = isExactlyOnce;
 		this.isPreferCheckpointForRecovery = isPreferCheckpointForRecovery;
 		this.tolerableCheckpointFailureNumber = tolerableCpFailureNumber;
+		this.isUnalignedCheckpointsEnabled = isUnalignedCheckpointsEnabled;
 	}
 
 	public long getCheckpointInterval() {
@@ -119,6 +148,10 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
 		return tolerableCheckpointFailureNumber;
 	}
 
+	public boolean isUnalignedCheckpointsEnabled() {
+		return isUnalignedCheckpointsEnabled;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -135,7 +168,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
 			isExactlyOnce == that.isExactlyOnce &&
 			checkpointRetentionPolicy == that.checkpointRetentionPolicy &&
 			isPreferCheckpointForRecovery == that.isPreferCheckpointForRecovery &&
-			tolerableCheckpointFailureNumber == that.tolerableCheckpointFailureNumber;
+			tolerableCheckpointFailureNumber == that.tolerableCheckpointFailureNumber &&
+			isUnalignedCheckpointsEnabled == that.isUnalignedCheckpointsEnabled;
 	}
 
 	@Override
@@ -148,7 +182,8 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
 				checkpointRetentionPolicy,
 				isExactlyOnce,
 				isPreferCheckpointForRecovery,
-				tolerableCheckpointFailureNumber);
+				tolerableCheckpointFailureNumber,
+				isUnalignedCheckpointsEnabled);
 	}
 
 	@Override
@@ -160,6 +195,7 @@ public class CheckpointCoordinatorConfiguration implements Serializable {
 			", maxConcurrentCheckpoints=" + maxConcurrentCheckpoints +
 			", checkpointRetentionPolicy=" + checkpointRetentionPolicy +
 			", tolerableCheckpointFailureNumber=" + tolerableCheckpointFailureNumber +
+			", isUnalignedCheckpointsEnabled=" + isUnalignedCheckpointsEnabled +
 			'}';
 	}
 }
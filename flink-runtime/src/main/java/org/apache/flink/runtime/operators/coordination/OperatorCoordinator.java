@@ -87,6 +87,11 @@ public interface OperatorCoordinator extends AutoCloseable {
 		void failTask(int subtask, Throwable cause);
 
 		void failJob(Throwable cause);
+
+		/**
+		 * Gets the current parallelism with which this operator is executed.
+		 */
+		int currentParallelism();
 	}
 
 	// ------------------------------------------------------------------------
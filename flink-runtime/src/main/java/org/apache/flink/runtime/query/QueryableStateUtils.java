@@ -105,6 +105,9 @@ public final class QueryableStateUtils {
 	 * @param queryThreads the number of threads to be used to send the actual state.
 	 * @param kvStateRegistry the registry with the queryable state.
 	 * @param stats statistics to be gathered about the incoming requests.
+	 * @param cacheTtlMillis the time-to-live of cached query results in milliseconds
+	 *                       ({@code 0} disables the cache).
+	 * @param cacheMaxEntries the maximum number of cached query results.
 	 * @return the {@link KvStateServer state server}.
 	 */
 	public static KvStateServer createKvStateServer(
@@ -113,7 +116,9 @@ public final class QueryableStateUtils {
 			final int eventLoopThreads,
 			final int queryThreads,
 			final KvStateRegistry kvStateRegistry,
-			final KvStateRequestStats stats) {
+			final KvStateRequestStats stats,
+			final long cacheTtlMillis,
+			final int cacheMaxEntries) {
 
 		Preconditions.checkNotNull(address, "address");
 		Preconditions.checkNotNull(kvStateRegistry, "registry");
@@ -121,6 +126,7 @@ public final class QueryableStateUtils {
 
 		Preconditions.checkArgument(eventLoopThreads >= 1);
 		Preconditions.checkArgument(queryThreads >= 1);
+		Preconditions.checkArgument(cacheTtlMillis >= 0L);
 
 		try {
 			String classname = "org.apache.flink.queryablestate.server.KvStateServerImpl";
@@ -131,8 +137,10 @@ public final class QueryableStateUtils {
 					Integer.class,
 					Integer.class,
 					KvStateRegistry.class,
-					KvStateRequestStats.class);
-			return constructor.newInstance(address, ports, eventLoopThreads, queryThreads, kvStateRegistry, stats);
+					KvStateRequestStats.class,
+					Long.class,
+					Integer.class);
+			return constructor.newInstance(address, ports, eventLoopThreads, queryThreads, kvStateRegistry, stats, cacheTtlMillis, cacheMaxEntries);
 		} catch (ClassNotFoundException e) {
 			final String msg = "Could not load Queryable State Server. " + ERROR_MESSAGE_ON_LOAD_FAILURE;
 			if (LOG.isDebugEnabled()) {
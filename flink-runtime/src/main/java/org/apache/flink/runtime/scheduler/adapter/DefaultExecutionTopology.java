@@ -22,12 +22,15 @@ import org.apache.flink.runtime.executiongraph.ExecutionEdge;
 import org.apache.flink.runtime.executiongraph.ExecutionGraph;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.executiongraph.IntermediateResult;
 import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
 import org.apache.flink.runtime.executiongraph.failover.flip1.FailoverTopology;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.ResultPartitionState;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingTopology;
+import org.apache.flink.runtime.topology.ConsumedPartitionGroup;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -76,7 +79,7 @@ public class DefaultExecutionTopology implements SchedulingTopology<DefaultExecu
 		}
 		this.resultPartitionsById = tmpResultPartitionsById;
 
-		connectVerticesToConsumedPartitions(executionVertexMap, tmpResultPartitionsById);
+		connectVerticesToConsumedPartitions(graph.getVerticesTopologically(), executionVertexMap, tmpResultPartitionsById);
 	}
 
 	@Override
@@ -131,20 +134,83 @@ public class DefaultExecutionTopology implements SchedulingTopology<DefaultExecu
 	}
 
 	private static void connectVerticesToConsumedPartitions(
+		Iterable<ExecutionJobVertex> jobVertices,
 		Map<ExecutionVertex, DefaultExecutionVertex> executionVertexMap,
 		Map<IntermediateResultPartitionID, DefaultResultPartition> resultPartitions) {
 
-		for (Map.Entry<ExecutionVertex, DefaultExecutionVertex> mapEntry : executionVertexMap.entrySet()) {
-			final DefaultExecutionVertex schedulingVertex = mapEntry.getValue();
-			final ExecutionVertex executionVertex = mapEntry.getKey();
+		for (ExecutionJobVertex jobVertex : jobVertices) {
+			final List<IntermediateResult> inputs = jobVertex.getInputs();
 
-			for (int index = 0; index < executionVertex.getNumberOfInputs(); index++) {
-				for (ExecutionEdge edge : executionVertex.getInputEdges(index)) {
-					DefaultResultPartition partition = resultPartitions.get(edge.getSource().getPartitionId());
-					schedulingVertex.addConsumedResult(partition);
-					partition.addConsumer(schedulingVertex);
+			for (int index = 0; index < inputs.size(); index++) {
+				final DistributionPattern distributionPattern =
+					jobVertex.getJobVertex().getInputs().get(index).getDistributionPattern();
+
+				if (distributionPattern == DistributionPattern.ALL_TO_ALL) {
+					connectAllToAll(jobVertex, inputs.get(index), executionVertexMap, resultPartitions);
+				} else {
+					connectPointwise(jobVertex, index, executionVertexMap, resultPartitions);
 				}
 			}
 		}
 	}
+
+	/**
+	 * All consumers of an all-to-all connection consume the same partitions, so they share one
+	 * {@link ConsumedPartitionGroup} and all partitions share one group of consumers. This keeps the
+	 * connection linear in size instead of creating one link per producer/consumer pair.
+	 */
+	private static void connectAllToAll(
+		ExecutionJobVertex jobVertex,
+		IntermediateResult consumedResult,
+		Map<ExecutionVertex, DefaultExecutionVertex> executionVertexMap,
+		Map<IntermediateResultPartitionID, DefaultResultPartition> resultPartitions) {
+
+		final IntermediateResultPartition[] partitions = consumedResult.getPartitions();
+		final List<DefaultResultPartition> consumedPartitions = new ArrayList<>(partitions.length);
+		for (IntermediateResultPartition partition : partitions) {
+			consumedPartitions.add(resultPartitions.get(partition.getPartitionId()));
+		}
+		final ConsumedPartitionGroup<DefaultResultPartition> consumedPartitionGroup =
+			new ConsumedPartitionGroup<>(consumedPartitions, consumedResult.getResultType());
+
+		final ExecutionVertex[] taskVertices = jobVertex.getTaskVertices();
+		final List<DefaultExecutionVertex> consumerGroup = new ArrayList<>(taskVertices.length);
+		for (ExecutionVertex executionVertex : taskVertices) {
+			final DefaultExecutionVertex schedulingVertex = executionVertexMap.get(executionVertex);
+			schedulingVertex.addConsumedPartitionGroup(consumedPartitionGroup);
+			consumerGroup.add(schedulingVertex);
+		}
+
+		for (DefaultResultPartition partition : consumedPartitions) {
+			partition.addConsumerGroup(consumerGroup);
+		}
+	}
+
+	private static void connectPointwise(
+		ExecutionJobVertex jobVertex,
+		int inputIndex,
+		Map<ExecutionVertex, DefaultExecutionVertex> executionVertexMap,
+		Map<IntermediateResultPartitionID, DefaultResultPartition> resultPartitions) {
+
+		final Map<DefaultResultPartition, List<DefaultExecutionVertex>> consumerGroups = new HashMap<>();
+
+		for (ExecutionVertex executionVertex : jobVertex.getTaskVertices()) {
+			final DefaultExecutionVertex schedulingVertex = executionVertexMap.get(executionVertex);
+			final ExecutionEdge[] inputEdges = executionVertex.getInputEdges(inputIndex);
+
+			final List<DefaultResultPartition> consumedPartitions = new ArrayList<>(inputEdges.length);
+			for (ExecutionEdge edge : inputEdges) {
+				final DefaultResultPartition partition = resultPartitions.get(edge.getSource().getPartitionId());
+				consumedPartitions.add(partition);
+				consumerGroups.computeIfAbsent(partition, ignored -> new ArrayList<>()).add(schedulingVertex);
+			}
+
+			if (!consumedPartitions.isEmpty()) {
+				schedulingVertex.addConsumedPartitionGroup(
+					new ConsumedPartitionGroup<>(consumedPartitions, consumedPartitions.get(0).getResultType()));
+			}
+		}
+
+		consumerGroups.forEach(DefaultResultPartition::addConsumerGroup);
+	}
 }
@@ -23,8 +23,10 @@ import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.executiongraph.failover.flip1.FailoverVertex;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingExecutionVertex;
+import org.apache.flink.runtime.topology.ConsumedPartitionGroup;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Supplier;
 
@@ -40,6 +42,8 @@ class DefaultExecutionVertex implements SchedulingExecutionVertex<DefaultExecuti
 
 	private final List<DefaultResultPartition> consumedResults;
 
+	private final List<ConsumedPartitionGroup<DefaultResultPartition>> consumedPartitionGroups;
+
 	private final List<DefaultResultPartition> producedResults;
 
 	private final Supplier<ExecutionState> stateSupplier;
@@ -53,6 +57,7 @@ class DefaultExecutionVertex implements SchedulingExecutionVertex<DefaultExecuti
 			InputDependencyConstraint constraint) {
 		this.executionVertexId = checkNotNull(executionVertexId);
 		this.consumedResults = new ArrayList<>();
+		this.consumedPartitionGroups = new ArrayList<>();
 		this.stateSupplier = checkNotNull(stateSupplier);
 		this.producedResults = checkNotNull(producedPartitions);
 		this.inputDependencyConstraint = checkNotNull(constraint);
@@ -73,6 +78,11 @@ class DefaultExecutionVertex implements SchedulingExecutionVertex<DefaultExecuti
 		return consumedResults;
 	}
 
+	@Override
+	public Iterable<ConsumedPartitionGroup<DefaultResultPartition>> getConsumedPartitionGroups() {
+		return consumedPartitionGroups;
+	}
+
 	@Override
 	public Iterable<DefaultResultPartition> getProducedResults() {
 		return producedResults;
@@ -84,6 +94,13 @@ class DefaultExecutionVertex implements SchedulingExecutionVertex<DefaultExecuti
 	}
 
 	void addConsumedResult(DefaultResultPartition result) {
-			consumedResults.add(result);
+		addConsumedPartitionGroup(new ConsumedPartitionGroup<>(
+			Collections.singletonList(result),
+			result.getResultType()));
+	}
+
+	void addConsumedPartitionGroup(ConsumedPartitionGroup<DefaultResultPartition> group) {
+		consumedPartitionGroups.add(group);
+		consumedResults.addAll(group.getResults());
 	}
 }
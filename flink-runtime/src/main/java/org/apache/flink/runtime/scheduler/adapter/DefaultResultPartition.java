@@ -25,6 +25,8 @@ import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.scheduler.strategy.ResultPartitionState;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingResultPartition;
 
+import org.apache.flink.shaded.guava18.com.google.common.collect.Iterables;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
@@ -47,7 +49,7 @@ class DefaultResultPartition implements SchedulingResultPartition<DefaultExecuti
 
 	private DefaultExecutionVertex producer;
 
-	private final List<DefaultExecutionVertex> consumers;
+	private final List<List<DefaultExecutionVertex>> consumerGroups;
 
 	DefaultResultPartition(
 			IntermediateResultPartitionID partitionId,
@@ -58,7 +60,7 @@ class DefaultResultPartition implements SchedulingResultPartition<DefaultExecuti
 		this.intermediateDataSetId = checkNotNull(intermediateDataSetId);
 		this.partitionType = checkNotNull(partitionType);
 		this.resultPartitionStateSupplier = checkNotNull(resultPartitionStateSupplier);
-		this.consumers = new ArrayList<>();
+		this.consumerGroups = new ArrayList<>(1);
 	}
 
 	@Override
@@ -88,11 +90,19 @@ class DefaultResultPartition implements SchedulingResultPartition<DefaultExecuti
 
 	@Override
 	public Iterable<DefaultExecutionVertex> getConsumers() {
-		return consumers;
+		return Iterables.concat(consumerGroups);
+	}
+
+	@Override
+	public List<List<DefaultExecutionVertex>> getConsumerGroups() {
+		return consumerGroups;
 	}
 
-	void addConsumer(DefaultExecutionVertex vertex) {
-		consumers.add(checkNotNull(vertex));
+	/**
+	 * Adds a group of consumers. All partitions of an all-to-all connection share the same group instance.
+	 */
+	void addConsumerGroup(List<DefaultExecutionVertex> consumerGroup) {
+		consumerGroups.add(checkNotNull(consumerGroup));
 	}
 
 	void setProducer(DefaultExecutionVertex vertex) {
@@ -22,6 +22,7 @@ import org.apache.flink.api.common.InputDependencyConstraint;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSet;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.topology.ConsumedPartitionGroup;
 
 import org.apache.flink.shaded.guava18.com.google.common.collect.Iterables;
 
@@ -71,8 +72,9 @@ public class InputDependencyConstraintChecker {
 	}
 
 	private boolean checkAll(final SchedulingExecutionVertex<?, ?> schedulingExecutionVertex) {
-		for (SchedulingResultPartition<?, ?> consumedResultPartition : schedulingExecutionVertex.getConsumedResults()) {
-			if (!partitionConsumable(consumedResultPartition)) {
+		for (ConsumedPartitionGroup<? extends SchedulingResultPartition<?, ?>> consumedGroup :
+				schedulingExecutionVertex.getConsumedPartitionGroups()) {
+			if (!allPartitionsConsumable(consumedGroup)) {
 				return false;
 			}
 		}
@@ -80,7 +82,40 @@ public class InputDependencyConstraintChecker {
 	}
 
 	private boolean checkAny(final SchedulingExecutionVertex<?, ?> schedulingExecutionVertex) {
-		for (SchedulingResultPartition<?, ?> consumedResultPartition : schedulingExecutionVertex.getConsumedResults()) {
+		for (ConsumedPartitionGroup<? extends SchedulingResultPartition<?, ?>> consumedGroup :
+				schedulingExecutionVertex.getConsumedPartitionGroups()) {
+			if (anyPartitionConsumable(consumedGroup)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * All partitions of a group belong to the same intermediate data set. Blocking partitions only become
+	 * consumable once the whole data set is finished, so a blocking group is checked with a single lookup.
+	 */
+	private boolean allPartitionsConsumable(
+			final ConsumedPartitionGroup<? extends SchedulingResultPartition<?, ?>> consumedGroup) {
+
+		if (BLOCKING.equals(consumedGroup.getResultType())) {
+			return intermediateDataSetManager.allPartitionsFinished(consumedGroup.getFirst());
+		}
+		for (SchedulingResultPartition<?, ?> consumedResultPartition : consumedGroup) {
+			if (!partitionConsumable(consumedResultPartition)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean anyPartitionConsumable(
+			final ConsumedPartitionGroup<? extends SchedulingResultPartition<?, ?>> consumedGroup) {
+
+		if (BLOCKING.equals(consumedGroup.getResultType())) {
+			return intermediateDataSetManager.allPartitionsFinished(consumedGroup.getFirst());
+		}
+		for (SchedulingResultPartition<?, ?> consumedResultPartition : consumedGroup) {
 			if (partitionConsumable(consumedResultPartition)) {
 				return true;
 			}
@@ -27,7 +27,10 @@ import org.apache.flink.util.IterableUtils;
 
 import org.apache.flink.shaded.guava18.com.google.common.collect.Iterables;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -101,12 +104,27 @@ public class LazyFromSourcesSchedulingStrategy implements SchedulingStrategy {
 			return;
 		}
 
-		final Set<SchedulingExecutionVertex<?, ?>> verticesToSchedule = IterableUtils
-			.toStream(schedulingTopology.getVertexOrThrow(executionVertexId).getProducedResults())
-			.filter(partition -> partition.getResultType().isBlocking())
-			.flatMap(partition -> inputConstraintChecker.markSchedulingResultPartitionFinished(partition).stream())
-			.flatMap(partition -> IterableUtils.toStream(partition.getConsumers()))
-			.collect(Collectors.toSet());
+		// partitions of an all-to-all connection share their consumer groups, so de-duplicating the groups
+		// by identity avoids visiting every consumer once per finished partition
+		final Set<Iterable<? extends SchedulingExecutionVertex<?, ?>>> consumerGroups =
+			Collections.newSetFromMap(new IdentityHashMap<>());
+		for (SchedulingResultPartition<?, ?> producedPartition :
+				schedulingTopology.getVertexOrThrow(executionVertexId).getProducedResults()) {
+			if (!producedPartition.getResultType().isBlocking()) {
+				continue;
+			}
+			for (SchedulingResultPartition<?, ?> finishedPartition :
+					inputConstraintChecker.markSchedulingResultPartitionFinished(producedPartition)) {
+				for (Iterable<? extends SchedulingExecutionVertex<?, ?>> consumerGroup : finishedPartition.getConsumerGroups()) {
+					consumerGroups.add(consumerGroup);
+				}
+			}
+		}
+
+		final Set<SchedulingExecutionVertex<?, ?>> verticesToSchedule = new HashSet<>();
+		for (Iterable<? extends SchedulingExecutionVertex<?, ?>> consumerGroup : consumerGroups) {
+			Iterables.addAll(verticesToSchedule, consumerGroup);
+		}
 
 		allocateSlotsAndDeployExecutionVertices(verticesToSchedule);
 	}
@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.source.coordinator;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.connector.source.ReaderInfo;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.api.connector.source.SplitEnumerator;
+import org.apache.flink.api.connector.source.SplitEnumeratorContext;
+import org.apache.flink.api.connector.source.SplitsAssignment;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
+import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+import org.apache.flink.runtime.operators.coordination.TaskNotRunningException;
+import org.apache.flink.runtime.source.event.AddSplitEvent;
+import org.apache.flink.runtime.source.event.NoMoreSplitsEvent;
+import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * A context class for the {@link OperatorCoordinator}. Compared with {@link SplitEnumeratorContext} this class
+ * allows interaction with state and sending {@link OperatorEvent} to the SourceOperator while
+ * {@link SplitEnumeratorContext} only allows sending {@link SourceEvent}.
+ *
+ * <p>The context serves a few purposes:
+ * <ul>
+ *     <li>
+ *         Information provider - The context provides necessary information to the enumerator for it to
+ *         know what is the status of the source readers and their split assignments. These information
+ *         allows the split enumerator to do the coordination.
+ *     </li>
+ *     <li>
+ *         Action taker - The context also provides a few actions that the enumerator can take to carry
+ *         out the coordination. So far there are two actions: 1) assign splits to the source readers.
+ *         and 2) send custom {@link SourceEvent SourceEvents} to the source readers.
+ *     </li>
+ *     <li>
+ *         Thread model enforcement - The context ensures that all the manipulations to the coordinator state
+ *         are handled by the same thread. The asynchronous calls of the enumerator are executed by a
+ *         shared worker thread, and only their results are handed over to the coordinator thread.
+ *     </li>
+ * </ul>
+ *
+ * @param <SplitT> the type of the splits.
+ */
+@Internal
+public class SourceCoordinatorContext<SplitT extends SourceSplit> implements SplitEnumeratorContext<SplitT> {
+
+	private final ExecutorService coordinatorExecutor;
+
+	private final ScheduledExecutorService workerExecutor;
+
+	private final OperatorCoordinator.Context operatorCoordinatorContext;
+
+	private final SimpleVersionedSerializer<SplitT> splitSerializer;
+
+	private final ConcurrentMap<Integer, ReaderInfo> registeredReaders;
+
+	private final SplitAssignmentTracker<SplitT> assignmentTracker;
+
+	private final MetricGroup metricGroup;
+
+	public SourceCoordinatorContext(
+			ExecutorService coordinatorExecutor,
+			ScheduledExecutorService workerExecutor,
+			OperatorCoordinator.Context operatorCoordinatorContext,
+			SimpleVersionedSerializer<SplitT> splitSerializer) {
+		this(coordinatorExecutor, workerExecutor, operatorCoordinatorContext, splitSerializer, new SplitAssignmentTracker<>());
+	}
+
+	@VisibleForTesting
+	SourceCoordinatorContext(
+			ExecutorService coordinatorExecutor,
+			ScheduledExecutorService workerExecutor,
+			OperatorCoordinator.Context operatorCoordinatorContext,
+			SimpleVersionedSerializer<SplitT> splitSerializer,
+			SplitAssignmentTracker<SplitT> splitAssignmentTracker) {
+		this.coordinatorExecutor = coordinatorExecutor;
+		this.workerExecutor = workerExecutor;
+		this.operatorCoordinatorContext = operatorCoordinatorContext;
+		this.splitSerializer = splitSerializer;
+		this.registeredReaders = new ConcurrentHashMap<>();
+		this.assignmentTracker = splitAssignmentTracker;
+		this.metricGroup = new UnregisteredMetricsGroup();
+	}
+
+	@Override
+	public MetricGroup metricGroup() {
+		return metricGroup;
+	}
+
+	@Override
+	public void sendEventToSourceReader(int subtaskId, SourceEvent event) {
+		checkSubtaskIndex(subtaskId);
+		sendEvent(new SourceEventWrapper(event), subtaskId);
+	}
+
+	@Override
+	public int currentParallelism() {
+		return operatorCoordinatorContext.currentParallelism();
+	}
+
+	@Override
+	public Map<Integer, ReaderInfo> registeredReaders() {
+		return Collections.unmodifiableMap(registeredReaders);
+	}
+
+	@Override
+	public void assignSplits(SplitsAssignment<SplitT> assignment) {
+		// Ensure all the subtasks in the assignment have registered.
+		for (Integer subtaskId : assignment.assignment().keySet()) {
+			checkState(
+				registeredReaders.containsKey(subtaskId),
+				"Cannot assign splits %s to subtask %s because the subtask is not registered.",
+				assignment.assignment().get(subtaskId),
+				subtaskId);
+		}
+
+		assignmentTracker.recordSplitAssignment(assignment);
+		for (Map.Entry<Integer, List<SplitT>> entry : assignment.assignment().entrySet()) {
+			final AddSplitEvent<SplitT> addSplitEvent;
+			try {
+				addSplitEvent = new AddSplitEvent<>(entry.getValue(), splitSerializer);
+			} catch (IOException e) {
+				throw new FlinkRuntimeException("Failed to serialize splits.", e);
+			}
+			sendEvent(addSplitEvent, entry.getKey());
+		}
+	}
+
+	@Override
+	public void signalNoMoreSplits(int subtask) {
+		checkSubtaskIndex(subtask);
+		sendEvent(NoMoreSplitsEvent.INSTANCE, subtask);
+	}
+
+	@Override
+	public <T> void callAsync(Callable<T> callable, BiConsumer<T, Throwable> handler) {
+		workerExecutor.execute(() -> callAndNotify(callable, handler));
+	}
+
+	@Override
+	public <T> void callAsync(Callable<T> callable, BiConsumer<T, Throwable> handler, long initialDelay, long period) {
+		workerExecutor.scheduleAtFixedRate(
+			() -> callAndNotify(callable, handler),
+			initialDelay,
+			period,
+			TimeUnit.MILLISECONDS);
+	}
+
+	// --------- Package private additional methods for the SourceCoordinator ------------
+
+	/**
+	 * Fail the job with the given cause.
+	 *
+	 * @param cause the cause of the job failure.
+	 */
+	void failJob(Throwable cause) {
+		operatorCoordinatorContext.failJob(cause);
+	}
+
+	/**
+	 * Register a source reader.
+	 *
+	 * @param readerInfo the reader information of the source reader.
+	 */
+	void registerSourceReader(ReaderInfo readerInfo) {
+		final ReaderInfo previousReader = registeredReaders.put(readerInfo.getSubtaskId(), readerInfo);
+		checkState(
+			previousReader == null,
+			"Subtask %s has already registered a reader %s.",
+			readerInfo.getSubtaskId(),
+			previousReader);
+	}
+
+	/**
+	 * Unregister a source reader.
+	 *
+	 * @param subtaskId the subtask id of the source reader.
+	 */
+	void unregisterSourceReader(int subtaskId) {
+		registeredReaders.remove(subtaskId);
+	}
+
+	/**
+	 * Get the split to put back. This only happens when a source reader subtask has failed.
+	 *
+	 * @param failedSubtaskId the failed subtask id.
+	 * @return A list of splits that needs to be added back to the {@link SplitEnumerator}.
+	 */
+	List<SplitT> getAndRemoveUncheckpointedAssignment(int failedSubtaskId) {
+		return assignmentTracker.getAndRemoveUncheckpointedAssignment(failedSubtaskId);
+	}
+
+	/**
+	 * Take a snapshot of this SourceCoordinatorContext.
+	 *
+	 * @param checkpointId The id of the ongoing checkpoint.
+	 * @param out The output to write the snapshot to.
+	 */
+	void snapshotState(long checkpointId, DataOutputStream out) throws IOException {
+		assignmentTracker.snapshotState(checkpointId, splitSerializer, out);
+	}
+
+	/**
+	 * Restore the state of the context.
+	 *
+	 * @param in the input from which the states are read.
+	 */
+	void restoreState(DataInputStream in) throws IOException {
+		registeredReaders.clear();
+		assignmentTracker.restoreState(splitSerializer, in);
+	}
+
+	/**
+	 * Invoked when a successful checkpoint has been taken.
+	 *
+	 * @param checkpointId the id of the successful checkpoint.
+	 */
+	void onCheckpointComplete(long checkpointId) {
+		assignmentTracker.onCheckpointComplete(checkpointId);
+	}
+
+	/**
+	 * Stops the asynchronous calls of the enumerator.
+	 */
+	void close() throws InterruptedException {
+		workerExecutor.shutdownNow();
+		workerExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+	}
+
+	// ---------------- private helper methods -----------------
+
+	private <T> void callAndNotify(Callable<T> callable, BiConsumer<T, Throwable> handler) {
+		T result = null;
+		Throwable error = null;
+		try {
+			result = callable.call();
+		} catch (Throwable t) {
+			error = t;
+		}
+
+		final T finalResult = result;
+		final Throwable finalError = error;
+		coordinatorExecutor.execute(() -> {
+			try {
+				handler.accept(finalResult, finalError);
+			} catch (Throwable t) {
+				failJob(t);
+			}
+		});
+	}
+
+	private void sendEvent(OperatorEvent event, int subtaskId) {
+		try {
+			operatorCoordinatorContext.sendEvent(event, subtaskId);
+		} catch (TaskNotRunningException e) {
+			throw new FlinkRuntimeException(
+				String.format("Failed to send event %s to subtask %d", event, subtaskId), e);
+		}
+	}
+
+	private void checkSubtaskIndex(int subtaskIndex) {
+		if (subtaskIndex < 0 || subtaskIndex >= currentParallelism()) {
+			throw new IllegalArgumentException("Subtask index " + subtaskIndex + " is out of bounds [0, "
+				+ currentParallelism() + ')');
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.source.coordinator;
+
+import org.apache.flink.api.connector.source.Source;
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
+import org.apache.flink.runtime.util.ExecutorThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The provider of {@link SourceCoordinator}.
+ *
+ * <p>Each source coordinator gets a single thread to run the split enumerator on, and a single
+ * worker thread which runs the asynchronous calls of the enumerator, such as the periodic split
+ * discovery.
+ */
+public class SourceCoordinatorProvider<SplitT extends SourceSplit> implements OperatorCoordinator.Provider {
+
+	private static final long serialVersionUID = -1921681440009738462L;
+
+	private final String operatorName;
+
+	private final OperatorID operatorID;
+
+	private final Source<?, SplitT, ?> source;
+
+	/**
+	 * Construct the {@link SourceCoordinatorProvider}.
+	 *
+	 * @param operatorName the name of the operator.
+	 * @param operatorID the ID of the operator this coordinator corresponds to.
+	 * @param source the Source that will be used for this coordinator.
+	 */
+	public SourceCoordinatorProvider(
+			String operatorName,
+			OperatorID operatorID,
+			Source<?, SplitT, ?> source) {
+		this.operatorName = operatorName;
+		this.operatorID = operatorID;
+		this.source = source;
+	}
+
+	@Override
+	public OperatorID getOperatorId() {
+		return operatorID;
+	}
+
+	@Override
+	public OperatorCoordinator create(OperatorCoordinator.Context context) {
+		final String coordinatorThreadName = "SourceCoordinator-" + operatorName;
+		final ExecutorService coordinatorExecutor =
+			Executors.newSingleThreadExecutor(new ExecutorThreadFactory(coordinatorThreadName));
+		final ScheduledExecutorService workerExecutor =
+			Executors.newSingleThreadScheduledExecutor(new ExecutorThreadFactory(coordinatorThreadName + "-worker"));
+
+		final SourceCoordinatorContext<SplitT> sourceCoordinatorContext = new SourceCoordinatorContext<>(
+			coordinatorExecutor,
+			workerExecutor,
+			context,
+			source.getSplitSerializer());
+		return new SourceCoordinator<>(operatorName, coordinatorExecutor, source, sourceCoordinatorContext);
+	}
+}
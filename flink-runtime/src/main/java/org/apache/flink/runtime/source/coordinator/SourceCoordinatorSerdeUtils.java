@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.source.coordinator;
+
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * A serialization util class for the {@link SourceCoordinator}.
+ */
+public class SourceCoordinatorSerdeUtils {
+
+	/** The current source coordinator serde version. */
+	private static final int CURRENT_VERSION = 0;
+
+	/** Private constructor for utility class. */
+	private SourceCoordinatorSerdeUtils() {}
+
+	/**
+	 * Write the current serde version.
+	 */
+	static void writeCoordinatorSerdeVersion(DataOutputStream out) throws IOException {
+		out.writeInt(CURRENT_VERSION);
+	}
+
+	/**
+	 * Read and verify the serde version.
+	 */
+	static void readAndVerifyCoordinatorSerdeVersion(DataInputStream in) throws IOException {
+		final int version = in.readInt();
+		if (version > CURRENT_VERSION) {
+			throw new IOException("Trying to deserialize SourceCoordinator snapshot of unknown version " + version);
+		}
+	}
+
+	/**
+	 * Serialize the given object with the given versioned serializer, prefixed by the serializer version.
+	 */
+	static <T> void writeVersionedObject(
+			T obj,
+			SimpleVersionedSerializer<T> serializer,
+			DataOutputStream out) throws IOException {
+		final byte[] serialized = serializer.serialize(obj);
+		out.writeInt(serializer.getVersion());
+		out.writeInt(serialized.length);
+		out.write(serialized);
+	}
+
+	/**
+	 * Deserialize an object written by {@link #writeVersionedObject(Object, SimpleVersionedSerializer, DataOutputStream)}.
+	 */
+	static <T> T readVersionedObject(SimpleVersionedSerializer<T> serializer, DataInputStream in) throws IOException {
+		final int version = in.readInt();
+		final byte[] serialized = new byte[in.readInt()];
+		in.readFully(serialized);
+		return serializer.deserialize(version, serialized);
+	}
+
+	/**
+	 * Serialize the assignments of splits to subtasks.
+	 */
+	static <SplitT> void writeAssignments(
+			Map<Integer, ? extends Collection<SplitT>> assignments,
+			SimpleVersionedSerializer<SplitT> splitSerializer,
+			DataOutputStream out) throws IOException {
+		out.writeInt(splitSerializer.getVersion());
+		out.writeInt(assignments.size());
+		for (Map.Entry<Integer, ? extends Collection<SplitT>> entry : assignments.entrySet()) {
+			out.writeInt(entry.getKey());
+			out.writeInt(entry.getValue().size());
+			for (SplitT split : entry.getValue()) {
+				final byte[] serializedSplit = splitSerializer.serialize(split);
+				out.writeInt(serializedSplit.length);
+				out.write(serializedSplit);
+			}
+		}
+	}
+
+	/**
+	 * Deserialize the assignments written by {@link #writeAssignments(Map, SimpleVersionedSerializer, DataOutputStream)}.
+	 */
+	static <SplitT> Map<Integer, LinkedHashSet<SplitT>> readAssignments(
+			SimpleVersionedSerializer<SplitT> splitSerializer,
+			DataInputStream in) throws IOException {
+		final int version = in.readInt();
+		final int numSubtasks = in.readInt();
+		final Map<Integer, LinkedHashSet<SplitT>> assignments = new HashMap<>(numSubtasks);
+		for (int i = 0; i < numSubtasks; i++) {
+			final int subtaskId = in.readInt();
+			final int numSplits = in.readInt();
+			final LinkedHashSet<SplitT> splits = new LinkedHashSet<>(numSplits);
+			for (int j = 0; j < numSplits; j++) {
+				final byte[] serializedSplit = new byte[in.readInt()];
+				in.readFully(serializedSplit);
+				splits.add(splitSerializer.deserialize(version, serializedSplit));
+			}
+			assignments.put(subtaskId, splits);
+		}
+		return assignments;
+	}
+}
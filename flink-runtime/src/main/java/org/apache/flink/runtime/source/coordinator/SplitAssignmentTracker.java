@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.source.coordinator;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.api.connector.source.SplitEnumerator;
+import org.apache.flink.api.connector.source.SplitsAssignment;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.apache.flink.runtime.source.coordinator.SourceCoordinatorSerdeUtils.readAssignments;
+import static org.apache.flink.runtime.source.coordinator.SourceCoordinatorSerdeUtils.writeAssignments;
+
+/**
+ * A class that is responsible for tracking the past split assignments made by
+ * {@link SplitEnumerator}.
+ *
+ * <p>The splits assigned since the last completed checkpoint are not part of the state of the
+ * source readers yet. They are handed back to the enumerator when a reader fails, so that they can
+ * be reassigned.
+ */
+@Internal
+public class SplitAssignmentTracker<SplitT extends SourceSplit> {
+
+	/** The split assignments made since the last completed checkpoint, by the checkpoint which covers them. */
+	private final SortedMap<Long, Map<Integer, LinkedHashSet<SplitT>>> assignmentsByCheckpointId;
+
+	/** The split assignments made since the last checkpoint. */
+	private Map<Integer, LinkedHashSet<SplitT>> uncheckpointedAssignments;
+
+	public SplitAssignmentTracker() {
+		this.assignmentsByCheckpointId = new TreeMap<>();
+		this.uncheckpointedAssignments = new HashMap<>();
+	}
+
+	/**
+	 * Take a snapshot of the uncheckpointed split assignments.
+	 *
+	 * @param checkpointId the id of the ongoing checkpoint
+	 * @param splitSerializer the serializer of the splits
+	 * @param out the output to write the snapshot to
+	 */
+	public void snapshotState(
+			long checkpointId,
+			SimpleVersionedSerializer<SplitT> splitSerializer,
+			DataOutputStream out) throws IOException {
+		// Include the uncheckpointed assignments to the snapshot.
+		assignmentsByCheckpointId.put(checkpointId, uncheckpointedAssignments);
+		uncheckpointedAssignments = new HashMap<>();
+
+		out.writeInt(assignmentsByCheckpointId.size());
+		for (Map.Entry<Long, Map<Integer, LinkedHashSet<SplitT>>> entry : assignmentsByCheckpointId.entrySet()) {
+			out.writeLong(entry.getKey());
+			writeAssignments(entry.getValue(), splitSerializer, out);
+		}
+	}
+
+	/**
+	 * Restore the state of the SplitAssignmentTracker.
+	 *
+	 * @param splitSerializer The serializer of the splits.
+	 * @param in The input to read the state from.
+	 */
+	public void restoreState(SimpleVersionedSerializer<SplitT> splitSerializer, DataInputStream in) throws IOException {
+		assignmentsByCheckpointId.clear();
+		uncheckpointedAssignments = new HashMap<>();
+
+		final int numCheckpoints = in.readInt();
+		for (int i = 0; i < numCheckpoints; i++) {
+			final long checkpointId = in.readLong();
+			assignmentsByCheckpointId.put(checkpointId, readAssignments(splitSerializer, in));
+		}
+	}
+
+	/**
+	 * When a checkpoint has been successfully completed, the split assignments up to this
+	 * checkpoint are part of the state of the source readers and no longer need to be tracked.
+	 *
+	 * @param checkpointId the id of the successful checkpoint.
+	 */
+	public void onCheckpointComplete(long checkpointId) {
+		assignmentsByCheckpointId.entrySet().removeIf(entry -> entry.getKey() <= checkpointId);
+	}
+
+	/**
+	 * Record a new split assignment.
+	 *
+	 * @param splitsAssignment the new split assignment.
+	 */
+	public void recordSplitAssignment(SplitsAssignment<SplitT> splitsAssignment) {
+		addSplitAssignment(splitsAssignment.assignment(), uncheckpointedAssignments);
+	}
+
+	/**
+	 * This method is invoked when a source reader fails over. In this case, the source reader will
+	 * restore its split assignment to the last successful checkpoint. Any split assignment to that
+	 * source reader after the last successful checkpoint will be lost on the source reader side as
+	 * if those splits were never assigned. To handle this case, the coordinator needs to find those
+	 * splits and return them back to the SplitEnumerator for re-assignment.
+	 *
+	 * @param subtaskId the subtask id of the reader that failed over.
+	 * @return A list of splits that needs to be added back to the {@link SplitEnumerator}.
+	 */
+	public List<SplitT> getAndRemoveUncheckpointedAssignment(int subtaskId) {
+		final List<SplitT> splits = new ArrayList<>();
+
+		final Iterator<Map<Integer, LinkedHashSet<SplitT>>> iterator = assignmentsByCheckpointId.values().iterator();
+		while (iterator.hasNext()) {
+			final Map<Integer, LinkedHashSet<SplitT>> assignments = iterator.next();
+			removeFromAssignment(subtaskId, assignments, splits);
+			if (assignments.isEmpty()) {
+				iterator.remove();
+			}
+		}
+		removeFromAssignment(subtaskId, uncheckpointedAssignments, splits);
+
+		return splits;
+	}
+
+	// ------------- Methods visible for testing ----------------
+
+	@VisibleForTesting
+	SortedMap<Long, Map<Integer, LinkedHashSet<SplitT>>> assignmentsByCheckpointId() {
+		return assignmentsByCheckpointId;
+	}
+
+	@VisibleForTesting
+	Map<Integer, LinkedHashSet<SplitT>> uncheckpointedAssignments() {
+		return uncheckpointedAssignments;
+	}
+
+	// -------------- private helpers ---------------
+
+	private void removeFromAssignment(
+			int subtaskId,
+			Map<Integer, LinkedHashSet<SplitT>> assignments,
+			List<SplitT> toPutBack) {
+		final LinkedHashSet<SplitT> splitForSubtask = assignments.remove(subtaskId);
+		if (splitForSubtask != null) {
+			toPutBack.addAll(splitForSubtask);
+		}
+	}
+
+	private void addSplitAssignment(
+			Map<Integer, List<SplitT>> additionalAssignment,
+			Map<Integer, LinkedHashSet<SplitT>> assignments) {
+		additionalAssignment.forEach((id, splits) ->
+			assignments.computeIfAbsent(id, ignored -> new LinkedHashSet<>()).addAll(splits));
+	}
+}
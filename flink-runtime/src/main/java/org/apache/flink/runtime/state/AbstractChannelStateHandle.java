@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state;
+
+import org.apache.flink.annotation.Internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Abstract channel state handle. The in-flight data of all channels of a task is written to a
+ * single stream; each handle references the entries of one channel within that stream.
+ *
+ * @param <Info> type of channel info (e.g. input channel or result subpartition).
+ */
+@Internal
+public abstract class AbstractChannelStateHandle<Info> implements StateObject {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Info info;
+
+	private final StreamStateHandle delegate;
+
+	/** Start offsets of the buffers written for the channel, in the order they were written. */
+	private final List<Long> offsets;
+
+	/** Number of bytes written for the channel, including the length headers. */
+	private final long size;
+
+	AbstractChannelStateHandle(StreamStateHandle delegate, List<Long> offsets, Info info, long size) {
+		this.info = checkNotNull(info);
+		this.delegate = checkNotNull(delegate);
+		this.offsets = Collections.unmodifiableList(new ArrayList<>(checkNotNull(offsets)));
+		this.size = size;
+	}
+
+	@Override
+	public void discardState() throws Exception {
+		delegate.discardState();
+	}
+
+	@Override
+	public long getStateSize() {
+		return size;
+	}
+
+	public List<Long> getOffsets() {
+		return offsets;
+	}
+
+	public StreamStateHandle getDelegate() {
+		return delegate;
+	}
+
+	public Info getInfo() {
+		return info;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		final AbstractChannelStateHandle<?> that = (AbstractChannelStateHandle<?>) o;
+		return size == that.size &&
+			info.equals(that.info) &&
+			delegate.equals(that.delegate) &&
+			offsets.equals(that.offsets);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = info.hashCode();
+		result = 31 * result + delegate.hashCode();
+		result = 31 * result + offsets.hashCode();
+		result = 31 * result + (int) (size ^ (size >>> 32));
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "{" +
+			"info=" + info +
+			", delegate=" + delegate +
+			", offsets=" + offsets +
+			", size=" + size +
+			'}';
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Function to extract a timestamp from a given object.
+ *
+ * @param <T> type of the element from which we extract the timestamp.
+ */
+@FunctionalInterface
+public interface TimestampExtractorFunction<T> {
+
+	TimestampExtractorFunction<? extends Timestamped> FOR_TIMESTAMPED_OBJECTS = new TimestampExtractorFunction<Timestamped>() {
+		@Override
+		public long extractTimestampFromElement(@Nonnull Timestamped element) {
+			return element.getTimestamp();
+		}
+	};
+
+	/**
+	 * Returns the timestamp for the given element.
+	 */
+	long extractTimestampFromElement(@Nonnull T element);
+
+	@SuppressWarnings("unchecked")
+	static <T extends Timestamped> TimestampExtractorFunction<T> forTimestampedObjects() {
+		return (TimestampExtractorFunction<T>) FOR_TIMESTAMPED_OBJECTS;
+	}
+}
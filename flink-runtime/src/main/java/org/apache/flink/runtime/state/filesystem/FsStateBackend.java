@@ -113,6 +113,14 @@ public class FsStateBackend extends AbstractFileStateBackend implements Configur
 	 * A value of 'undefined' means not yet configured, in which case the default will be used. */
 	private final TernaryBoolean asynchronousSnapshots;
 
+	/** Switch to enable incremental checkpoints of the keyed state.
+	 * A value of 'undefined' means not yet configured, in which case the default will be used. */
+	private final TernaryBoolean incrementalCheckpoints;
+
+	/** The maximum number of delta files of incremental checkpoints that may follow a file with all state.
+	 * A value of '-1' means not yet configured, in which case the default will be used. */
+	private final int maxIncrementalDeltas;
+
 	/**
 	 * The write buffer size for created checkpoint stream, this should not be less than file state threshold when we want
 	 * state below that threshold stored as part of metadata not files.
@@ -333,10 +341,57 @@ public class FsStateBackend extends AbstractFileStateBackend implements Configur
 			int fileStateSizeThreshold,
 			int writeBufferSize,
 			TernaryBoolean asynchronousSnapshots) {
+		this(
+			checkpointDirectory,
+			defaultSavepointDirectory,
+			fileStateSizeThreshold,
+			writeBufferSize,
+			asynchronousSnapshots,
+			TernaryBoolean.UNDEFINED);
+	}
+
+	/**
+	 * Creates a new state backend that stores its checkpoint data in the file system and location
+	 * defined by the given URI.
+	 *
+	 * <p>A file system for the file system scheme in the URI (e.g., 'file://', 'hdfs://', or 'S3://')
+	 * must be accessible via {@link FileSystem#get(URI)}.
+	 *
+	 * <p>For a state backend targeting HDFS, this means that the URI must either specify the authority
+	 * (host and port), or that the Hadoop configuration that describes that information must be in the
+	 * classpath.
+	 *
+	 * @param checkpointDirectory        The path to write checkpoint metadata to.
+	 * @param defaultSavepointDirectory  The path to write savepoints to. If null, the value from
+	 *                                   the runtime configuration will be used, or savepoint
+	 *                                   target locations need to be passed when triggering a savepoint.
+	 * @param fileStateSizeThreshold     State below this size will be stored as part of the metadata,
+	 *                                   rather than in files. If -1, the value configured in the
+	 *                                   runtime configuration will be used, or the default value (1KB)
+	 *                                   if nothing is configured.
+	 * @param writeBufferSize            Write buffer size used to serialize state. If -1, the value configured in the
+	 *                                   runtime configuration will be used, or the default value (4KB)
+	 *                                   if nothing is configured.
+	 * @param asynchronousSnapshots      Flag to switch between synchronous and asynchronous
+	 *                                   snapshot mode. If UNDEFINED, the value configured in the
+	 *                                   runtime configuration will be used.
+	 * @param incrementalCheckpoints     Flag to enable incremental checkpoints of the keyed state, which
+	 *                                   only write the state that changed since the last completed checkpoint.
+	 *                                   Requires asynchronous snapshots. If UNDEFINED, the value configured
+	 *                                   in the runtime configuration will be used.
+	 */
+	public FsStateBackend(
+			URI checkpointDirectory,
+			@Nullable URI defaultSavepointDirectory,
+			int fileStateSizeThreshold,
+			int writeBufferSize,
+			TernaryBoolean asynchronousSnapshots,
+			TernaryBoolean incrementalCheckpoints) {
 
 		super(checkNotNull(checkpointDirectory, "checkpoint directory is null"), defaultSavepointDirectory);
 
 		checkNotNull(asynchronousSnapshots, "asynchronousSnapshots");
+		checkNotNull(incrementalCheckpoints, "incrementalCheckpoints");
 		checkArgument(fileStateSizeThreshold >= -1 && fileStateSizeThreshold <= MAX_FILE_STATE_THRESHOLD,
 				"The threshold for file state size must be in [-1, %s], where '-1' means to use " +
 						"the value from the deployment's configuration.", MAX_FILE_STATE_THRESHOLD);
@@ -347,6 +402,8 @@ public class FsStateBackend extends AbstractFileStateBackend implements Configur
 		this.fileStateThreshold = fileStateSizeThreshold;
 		this.writeBufferSize = writeBufferSize;
 		this.asynchronousSnapshots = asynchronousSnapshots;
+		this.incrementalCheckpoints = incrementalCheckpoints;
+		this.maxIncrementalDeltas = -1;
 	}
 
 	/**
@@ -363,6 +420,9 @@ public class FsStateBackend extends AbstractFileStateBackend implements Configur
 		this.asynchronousSnapshots = original.asynchronousSnapshots.resolveUndefined(
 				configuration.getBoolean(CheckpointingOptions.ASYNC_SNAPSHOTS));
 
+		this.incrementalCheckpoints = original.incrementalCheckpoints.resolveUndefined(
+				configuration.getBoolean(CheckpointingOptions.INCREMENTAL_CHECKPOINTS));
+
 		final int sizeThreshold = original.fileStateThreshold >= 0 ?
 				original.fileStateThreshold :
 				configuration.getInteger(CheckpointingOptions.FS_SMALL_FILE_THRESHOLD);
@@ -386,6 +446,22 @@ public class FsStateBackend extends AbstractFileStateBackend implements Configur
 			configuration.getInteger(CheckpointingOptions.FS_WRITE_BUFFER_SIZE);
 
 		this.writeBufferSize = Math.max(bufferSize, this.fileStateThreshold);
+
+		final int maxDeltas = original.maxIncrementalDeltas >= 0 ?
+			original.maxIncrementalDeltas :
+			configuration.getInteger(CheckpointingOptions.FS_INCREMENTAL_MAX_DELTAS);
+
+		if (maxDeltas >= 0) {
+			this.maxIncrementalDeltas = maxDeltas;
+		}
+		else {
+			this.maxIncrementalDeltas = CheckpointingOptions.FS_INCREMENTAL_MAX_DELTAS.defaultValue();
+
+			LoggerFactory.getLogger(AbstractFileStateBackend.class).warn(
+					"Ignoring invalid maximum number of incremental deltas ({}): {} - using default value {} instead.",
+					CheckpointingOptions.FS_INCREMENTAL_MAX_DELTAS.key(), maxDeltas,
+					CheckpointingOptions.FS_INCREMENTAL_MAX_DELTAS.defaultValue());
+		}
 	}
 
 	// ------------------------------------------------------------------------
@@ -459,6 +535,30 @@ public class FsStateBackend extends AbstractFileStateBackend implements Configur
 		return asynchronousSnapshots.getOrDefault(CheckpointingOptions.ASYNC_SNAPSHOTS.defaultValue());
 	}
 
+	/**
+	 * Gets whether incremental checkpoints are enabled for the key/value data structures. Incremental
+	 * checkpoints are only taken if asynchronous snapshots are used as well.
+	 *
+	 * <p>If not explicitly configured, this is the default value of
+	 * {@link CheckpointingOptions#INCREMENTAL_CHECKPOINTS}.
+	 */
+	public boolean isIncrementalCheckpointsEnabled() {
+		return incrementalCheckpoints.getOrDefault(CheckpointingOptions.INCREMENTAL_CHECKPOINTS.defaultValue());
+	}
+
+	/**
+	 * Gets the maximum number of delta files of incremental checkpoints that may follow a file with all state,
+	 * before a checkpoint writes all state again.
+	 *
+	 * <p>If not explicitly configured, this is the default value of
+	 * {@link CheckpointingOptions#FS_INCREMENTAL_MAX_DELTAS}.
+	 */
+	public int getMaxIncrementalDeltas() {
+		return maxIncrementalDeltas >= 0 ?
+			maxIncrementalDeltas :
+			CheckpointingOptions.FS_INCREMENTAL_MAX_DELTAS.defaultValue();
+	}
+
 	// ------------------------------------------------------------------------
 	//  Reconfiguration
 	// ------------------------------------------------------------------------
@@ -526,6 +626,8 @@ public class FsStateBackend extends AbstractFileStateBackend implements Configur
 			localRecoveryConfig,
 			priorityQueueSetFactory,
 			isUsingAsynchronousSnapshots(),
+			isIncrementalCheckpointsEnabled(),
+			getMaxIncrementalDeltas(),
 			cancelStreamRegistry).build();
 	}
 
@@ -554,6 +656,7 @@ public class FsStateBackend extends AbstractFileStateBackend implements Configur
 				"checkpoints: '" + getCheckpointPath() +
 				"', savepoints: '" + getSavepointPath() +
 				"', asynchronous: " + asynchronousSnapshots +
+				", incremental: " + incrementalCheckpoints +
 				", fileStateThreshold: " + fileStateThreshold + ")";
 	}
 }
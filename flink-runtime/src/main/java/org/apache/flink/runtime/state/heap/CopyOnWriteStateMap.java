@@ -34,6 +34,7 @@ import javax.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -195,6 +196,19 @@ public class CopyOnWriteStateMap<K, N, S> extends StateMap<K, N, S> {
 	 */
 	private N lastNamespace;
 
+	/**
+	 * The version of the snapshot on which the next incremental snapshot is based. Entries with a higher or equal
+	 * version were changed after that snapshot.
+	 */
+	private int incrementalBaseVersion;
+
+	/**
+	 * Entries that were removed from this map since the base of the incremental snapshots, ordered by their removal
+	 * version. The entries only hold key and namespace. This is null as long as no incremental snapshot was taken.
+	 */
+	@Nullable
+	private ArrayList<StateMapEntry<K, N, S>> removedEntries;
+
 	/**
 	 * The {@link CopyOnWriteStateMap} is rehashed when its size exceeds this threshold.
 	 * The value of this field is generally .75 * capacity, except when
@@ -242,6 +256,8 @@ public class CopyOnWriteStateMap<K, N, S> extends StateMap<K, N, S> {
 		this.stateMapVersion = 0;
 		this.highestRequiredSnapshotVersion = 0;
 		this.snapshotVersions = new TreeSet<>();
+		this.incrementalBaseVersion = 0;
+		this.removedEntries = null;
 
 		if (capacity < 0) {
 			throw new IllegalArgumentException("Capacity: " + capacity);
@@ -444,6 +460,9 @@ public class CopyOnWriteStateMap<K, N, S> extends StateMap<K, N, S> {
 				} else {
 					--incrementalRehashTableSize;
 				}
+				if (removedEntries != null) {
+					removedEntries.add(new StateMapEntry<>(e.key, e.namespace, null, e.hash, null, stateMapVersion, stateMapVersion));
+				}
 				return e;
 			}
 		}
@@ -767,6 +786,54 @@ public class CopyOnWriteStateMap<K, N, S> extends StateMap<K, N, S> {
 		return new CopyOnWriteStateMapSnapshot<>(this);
 	}
 
+	/**
+	 * Creates a snapshot of this {@link CopyOnWriteStateMap} that only writes the entries which were changed or
+	 * removed since the base of the incremental snapshots. Removed entries are tracked from the first incremental
+	 * snapshot on. This method must be called by the same Thread that does modifications to the map.
+	 *
+	 * @param full whether the snapshot should contain all entries instead of only the changes since the base.
+	 * @return a snapshot of the changes of this map.
+	 */
+	@Nonnull
+	CopyOnWriteStateMapSnapshot<K, N, S> incrementalStateSnapshot(boolean full) {
+		if (removedEntries == null) {
+			removedEntries = new ArrayList<>();
+		}
+
+		if (full) {
+			return new CopyOnWriteStateMapSnapshot<>(this, 0, Collections.emptyList());
+		}
+
+		final int baseVersion = incrementalBaseVersion;
+		int index = removedEntries.size();
+		while (index > 0 && removedEntries.get(index - 1).entryVersion >= baseVersion) {
+			index--;
+		}
+		return new CopyOnWriteStateMapSnapshot<>(
+			this, baseVersion, new ArrayList<>(removedEntries.subList(index, removedEntries.size())));
+	}
+
+	/**
+	 * Sets the version of the snapshot on which the next incremental snapshots are based, typically once the
+	 * checkpoint of that snapshot was completed. Removed entries that are older than the base are dropped.
+	 *
+	 * @param baseVersion the version of the new base snapshot.
+	 */
+	void setIncrementalBaseVersion(int baseVersion) {
+		if (baseVersion <= incrementalBaseVersion) {
+			return;
+		}
+
+		incrementalBaseVersion = baseVersion;
+		if (removedEntries != null) {
+			int index = 0;
+			while (index < removedEntries.size() && removedEntries.get(index).entryVersion < baseVersion) {
+				index++;
+			}
+			removedEntries.subList(0, index).clear();
+		}
+	}
+
 	/**
 	 * Releases a snapshot for this {@link CopyOnWriteStateMap}. This method should be called once a snapshot is no more needed,
 	 * so that the {@link CopyOnWriteStateMap} can stop considering this snapshot for copy-on-write, thus avoiding unnecessary
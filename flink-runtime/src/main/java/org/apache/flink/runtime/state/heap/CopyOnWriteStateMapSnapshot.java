@@ -29,9 +29,11 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
@@ -70,6 +72,19 @@ public class CopyOnWriteStateMapSnapshot<K, N, S>
 	@Nonnegative
 	private final int numberOfEntriesInSnapshotData;
 
+	/**
+	 * The version of the snapshot on which this snapshot is based if it is written incrementally. Entries with a lower
+	 * version have not been changed since then.
+	 */
+	private final int incrementalBaseVersion;
+
+	/**
+	 * The entries that were removed from the {@link CopyOnWriteStateMap} since the base of this snapshot, if it is
+	 * written incrementally.
+	 */
+	@Nonnull
+	private final List<CopyOnWriteStateMap.StateMapEntry<K, N, S>> removedEntries;
+
 	/**
 	 * Whether this snapshot has been released.
 	 */
@@ -81,11 +96,27 @@ public class CopyOnWriteStateMapSnapshot<K, N, S>
 	 * @param owningStateMap the {@link CopyOnWriteStateMap} for which this object represents a snapshot.
 	 */
 	CopyOnWriteStateMapSnapshot(CopyOnWriteStateMap<K, N, S> owningStateMap) {
+		this(owningStateMap, 0, Collections.emptyList());
+	}
+
+	/**
+	 * Creates a new {@link CopyOnWriteStateMapSnapshot} that can be written incrementally.
+	 *
+	 * @param owningStateMap the {@link CopyOnWriteStateMap} for which this object represents a snapshot.
+	 * @param incrementalBaseVersion the version of the snapshot on which this snapshot is based.
+	 * @param removedEntries the entries that were removed since the base snapshot.
+	 */
+	CopyOnWriteStateMapSnapshot(
+		CopyOnWriteStateMap<K, N, S> owningStateMap,
+		int incrementalBaseVersion,
+		@Nonnull List<CopyOnWriteStateMap.StateMapEntry<K, N, S>> removedEntries) {
 		super(owningStateMap);
 
 		this.snapshotData = owningStateMap.snapshotMapArrays();
 		this.snapshotVersion = owningStateMap.getStateMapVersion();
 		this.numberOfEntriesInSnapshotData = owningStateMap.size();
+		this.incrementalBaseVersion = incrementalBaseVersion;
+		this.removedEntries = removedEntries;
 		this.released = false;
 	}
 
@@ -130,6 +161,60 @@ public class CopyOnWriteStateMapSnapshot<K, N, S>
 		}
 	}
 
+	/**
+	 * Writes the entries that were removed or changed since the base of this snapshot. The removed entries are
+	 * written first, followed by the changed entries. Entries which are filtered out by the transformer are written
+	 * as removed entries.
+	 */
+	void writeStateChanges(
+		TypeSerializer<K> keySerializer,
+		TypeSerializer<N> namespaceSerializer,
+		TypeSerializer<S> stateSerializer,
+		@Nonnull DataOutputView dov,
+		@Nullable StateSnapshotTransformer<S> stateSnapshotTransformer) throws IOException {
+
+		final List<StateEntry<K, N, S>> removed = new ArrayList<>(removedEntries);
+		final List<StateEntry<K, N, S>> changed = new ArrayList<>();
+
+		SnapshotIterator<K, N, S> snapshotIterator =
+			new NonTransformSnapshotIterator<>(numberOfEntriesInSnapshotData, snapshotData);
+		while (snapshotIterator.hasNext()) {
+			CopyOnWriteStateMap.StateMapEntry<K, N, S> entry = snapshotIterator.next();
+			if (entry.entryVersion < incrementalBaseVersion && entry.stateVersion < incrementalBaseVersion) {
+				continue;
+			}
+
+			if (stateSnapshotTransformer == null) {
+				changed.add(entry);
+			} else {
+				S transformedValue = stateSnapshotTransformer.filterOrTransform(entry.state);
+				if (transformedValue == null) {
+					removed.add(entry);
+				} else if (transformedValue != entry.state) {
+					CopyOnWriteStateMap.StateMapEntry<K, N, S> filteredEntry =
+						new CopyOnWriteStateMap.StateMapEntry<>(entry, entry.entryVersion);
+					filteredEntry.state = transformedValue;
+					changed.add(filteredEntry);
+				} else {
+					changed.add(entry);
+				}
+			}
+		}
+
+		dov.writeInt(removed.size());
+		for (StateEntry<K, N, S> stateEntry : removed) {
+			namespaceSerializer.serialize(stateEntry.getNamespace(), dov);
+			keySerializer.serialize(stateEntry.getKey(), dov);
+		}
+
+		dov.writeInt(changed.size());
+		for (StateEntry<K, N, S> stateEntry : changed) {
+			namespaceSerializer.serialize(stateEntry.getNamespace(), dov);
+			keySerializer.serialize(stateEntry.getKey(), dov);
+			stateSerializer.serialize(stateEntry.getState(), dov);
+		}
+	}
+
 	/**
 	 * Iterator over state entries in a {@link CopyOnWriteStateMapSnapshot}.
 	 */
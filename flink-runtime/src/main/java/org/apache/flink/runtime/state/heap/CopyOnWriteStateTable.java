@@ -35,6 +35,12 @@ import java.util.List;
  */
 public class CopyOnWriteStateTable<K, N, S> extends StateTable<K, N, S> {
 
+	/**
+	 * Whether the state maps track changed states for incremental snapshots, which requires that states modified
+	 * in place are written back.
+	 */
+	private boolean changesTracked;
+
 	/**
 	 * Constructs a new {@code CopyOnWriteStateTable}.
 	 *
@@ -54,6 +60,11 @@ public class CopyOnWriteStateTable<K, N, S> extends StateTable<K, N, S> {
 		return new CopyOnWriteStateMap<>(getStateSerializer());
 	}
 
+	@Override
+	public boolean requiresWriteBack() {
+		return changesTracked;
+	}
+
 	// Snapshotting ----------------------------------------------------------------------------------------------------
 
 	/**
@@ -72,6 +83,46 @@ public class CopyOnWriteStateTable<K, N, S> extends StateTable<K, N, S> {
 			getMetaInfo().getStateSnapshotTransformFactory().createForDeserializedState().orElse(null));
 	}
 
+	/**
+	 * Creates a snapshot of this {@link CopyOnWriteStateTable} that only writes the changes since the base of the
+	 * incremental snapshots, to be written in incremental checkpointing.
+	 *
+	 * @param full whether the snapshot should contain all state instead of only the changes since the base.
+	 * @return an incremental snapshot from this {@link CopyOnWriteStateTable}.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	CopyOnWriteStateTableSnapshot<K, N, S> incrementalStateSnapshot(boolean full) {
+		changesTracked = true;
+		List<CopyOnWriteStateMapSnapshot<K, N, S>> snapshotList = new ArrayList<>(keyGroupedStateMaps.length);
+		for (int i = 0; i < keyGroupedStateMaps.length; i++) {
+			CopyOnWriteStateMap<K, N, S> stateMap = (CopyOnWriteStateMap<K, N, S>) keyGroupedStateMaps[i];
+			snapshotList.add(stateMap.incrementalStateSnapshot(full));
+		}
+
+		return new CopyOnWriteStateTableSnapshot<>(
+			this,
+			getKeySerializer().duplicate(),
+			getNamespaceSerializer().duplicate(),
+			getStateSerializer().duplicate(),
+			getMetaInfo().getStateSnapshotTransformFactory().createForDeserializedState().orElse(null),
+			snapshotList,
+			true);
+	}
+
+	/**
+	 * Sets the versions of the snapshots on which the next incremental snapshots of the state maps are based.
+	 *
+	 * @param baseVersions the versions of the base snapshots, by key-group offset.
+	 */
+	@SuppressWarnings("unchecked")
+	void setIncrementalBaseVersions(int[] baseVersions) {
+		changesTracked = true;
+		for (int i = 0; i < keyGroupedStateMaps.length && i < baseVersions.length; i++) {
+			((CopyOnWriteStateMap<K, N, S>) keyGroupedStateMaps[i]).setIncrementalBaseVersion(baseVersions[i]);
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	List<CopyOnWriteStateMapSnapshot<K, N, S>> getStateMapSnapshotList() {
 		List<CopyOnWriteStateMapSnapshot<K, N, S>> snapshotList = new ArrayList<>(keyGroupedStateMaps.length);
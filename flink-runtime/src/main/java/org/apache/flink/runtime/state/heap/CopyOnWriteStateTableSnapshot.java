@@ -20,10 +20,12 @@ package org.apache.flink.runtime.state.heap;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.runtime.state.StateSnapshotTransformer;
 
 import javax.annotation.Nonnull;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -48,6 +50,11 @@ public class CopyOnWriteStateTableSnapshot<K, N, S> extends AbstractStateTableSn
 	@Nonnull
 	private final List<CopyOnWriteStateMapSnapshot<K, N, S>> stateMapSnapshots;
 
+	/**
+	 * Whether only the changes since the base of the incremental snapshots are written.
+	 */
+	private final boolean incremental;
+
 	/**
 	 * Creates a new {@link CopyOnWriteStateTableSnapshot}.
 	 *
@@ -59,6 +66,23 @@ public class CopyOnWriteStateTableSnapshot<K, N, S> extends AbstractStateTableSn
 		TypeSerializer<N> localNamespaceSerializer,
 		TypeSerializer<S> localStateSerializer,
 		StateSnapshotTransformer<S> stateSnapshotTransformer) {
+		this(owningStateTable,
+			localKeySerializer,
+			localNamespaceSerializer,
+			localStateSerializer,
+			stateSnapshotTransformer,
+			owningStateTable.getStateMapSnapshotList(),
+			false);
+	}
+
+	CopyOnWriteStateTableSnapshot(
+		CopyOnWriteStateTable<K, N, S> owningStateTable,
+		TypeSerializer<K> localKeySerializer,
+		TypeSerializer<N> localNamespaceSerializer,
+		TypeSerializer<S> localStateSerializer,
+		StateSnapshotTransformer<S> stateSnapshotTransformer,
+		@Nonnull List<CopyOnWriteStateMapSnapshot<K, N, S>> stateMapSnapshots,
+		boolean incremental) {
 		super(owningStateTable,
 			localKeySerializer,
 			localNamespaceSerializer,
@@ -66,7 +90,8 @@ public class CopyOnWriteStateTableSnapshot<K, N, S> extends AbstractStateTableSn
 			stateSnapshotTransformer);
 
 		this.keyGroupOffset = owningStateTable.getKeyGroupOffset();
-		this.stateMapSnapshots = owningStateTable.getStateMapSnapshotList();
+		this.stateMapSnapshots = stateMapSnapshots;
+		this.incremental = incremental;
 	}
 
 	@Override
@@ -80,6 +105,36 @@ public class CopyOnWriteStateTableSnapshot<K, N, S> extends AbstractStateTableSn
 		return stateMapSnapshot;
 	}
 
+	/**
+	 * Writes the state of the key-group. Incremental snapshots only write the entries which were removed or changed
+	 * since the base of the incremental snapshots.
+	 */
+	@Override
+	public void writeStateInKeyGroup(@Nonnull DataOutputView dov, int keyGroupId) throws IOException {
+		if (!incremental) {
+			super.writeStateInKeyGroup(dov, keyGroupId);
+			return;
+		}
+
+		CopyOnWriteStateMapSnapshot<K, N, S> stateMapSnapshot =
+			(CopyOnWriteStateMapSnapshot<K, N, S>) getStateMapSnapshotForKeyGroup(keyGroupId);
+		stateMapSnapshot.writeStateChanges(
+			localKeySerializer, localNamespaceSerializer, localStateSerializer, dov, stateSnapshotTransformer);
+		stateMapSnapshot.release();
+	}
+
+	/**
+	 * Returns the versions of the state map snapshots by key-group offset. They are the base of later incremental
+	 * snapshots once the checkpoint of this snapshot is completed.
+	 */
+	int[] getSnapshotVersions() {
+		int[] snapshotVersions = new int[stateMapSnapshots.size()];
+		for (int i = 0; i < snapshotVersions.length; i++) {
+			snapshotVersions[i] = stateMapSnapshots.get(i).getSnapshotVersion();
+		}
+		return snapshotVersions;
+	}
+
 	@Override
 	public void release() {
 		for (CopyOnWriteStateMapSnapshot snapshot : stateMapSnapshots) {
@@ -0,0 +1,405 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.core.fs.CloseableRegistry;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.state.AsyncSnapshotCallable;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.CheckpointedStateScope;
+import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
+import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.LocalRecoveryConfig;
+import org.apache.flink.runtime.state.PlaceholderStreamStateHandle;
+import org.apache.flink.runtime.state.SnapshotResult;
+import org.apache.flink.runtime.state.StateHandleID;
+import org.apache.flink.runtime.state.StateSerializerProvider;
+import org.apache.flink.runtime.state.StateSnapshot;
+import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
+import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+
+/**
+ * Snapshot strategy of the heap backend for incremental checkpoints.
+ *
+ * <p>Every checkpoint writes one delta file with the entries that were changed or removed since the last completed
+ * checkpoint. The changes are found through the versions that the {@link CopyOnWriteStateMap} keeps for
+ * copy-on-write. The delta files of the last completed checkpoint are referenced as shared state of an
+ * {@link IncrementalRemoteKeyedStateHandle}, and a small meta data file lists the chain of delta files with their
+ * key-group offsets. The chain always starts with a delta file that holds all state, and it is compacted by writing
+ * all state again once it becomes too long or the deltas become larger than the full state.
+ *
+ * <p>Priority queue states are written completely into every delta file, so that only the last file of a chain is
+ * needed to restore them. Savepoints are always written as full snapshots.
+ */
+class HeapIncrementalSnapshotStrategy<K> extends HeapSnapshotStrategy<K> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(HeapIncrementalSnapshotStrategy.class);
+
+	/** The maximum number of delta files that may follow the first file of a chain before it is compacted. */
+	private final int maxNumberOfDeltas;
+
+	/** The unique identifier of this backend, used to register the delta files as shared state. */
+	@Nonnull
+	private final UUID backendUID;
+
+	/** The snapshots of the checkpoints which are not completed yet, by checkpoint id. */
+	@Nonnull
+	private final SortedMap<Long, PendingSnapshot> pendingSnapshots;
+
+	/** The chain of delta files of the last completed checkpoint. Empty if no checkpoint was completed yet. */
+	@Nonnull
+	private List<DeltaFile> completedChain;
+
+	/** The identifier of the last completed checkpoint. */
+	private long lastCompletedCheckpointId;
+
+	HeapIncrementalSnapshotStrategy(
+		SnapshotStrategySynchronicityBehavior<K> snapshotStrategySynchronicityTrait,
+		Map<String, StateTable<K, ?, ?>> registeredKVStates,
+		Map<String, HeapPriorityQueueSnapshotRestoreWrapper> registeredPQStates,
+		StreamCompressionDecorator keyGroupCompressionDecorator,
+		LocalRecoveryConfig localRecoveryConfig,
+		KeyGroupRange keyGroupRange,
+		CloseableRegistry cancelStreamRegistry,
+		StateSerializerProvider<K> keySerializerProvider,
+		int maxNumberOfDeltas) {
+		super(
+			snapshotStrategySynchronicityTrait,
+			registeredKVStates,
+			registeredPQStates,
+			keyGroupCompressionDecorator,
+			localRecoveryConfig,
+			keyGroupRange,
+			cancelStreamRegistry,
+			keySerializerProvider);
+		Preconditions.checkArgument(maxNumberOfDeltas >= 0, "The maximum number of deltas must not be negative.");
+		this.maxNumberOfDeltas = maxNumberOfDeltas;
+		this.backendUID = UUID.randomUUID();
+		this.pendingSnapshots = new TreeMap<>();
+		this.completedChain = Collections.emptyList();
+		this.lastCompletedCheckpointId = -1L;
+	}
+
+	@Nonnull
+	@Override
+	public RunnableFuture<SnapshotResult<KeyedStateHandle>> snapshot(
+		long checkpointId,
+		long timestamp,
+		@Nonnull CheckpointStreamFactory primaryStreamFactory,
+		@Nonnull CheckpointOptions checkpointOptions) throws IOException {
+
+		if (checkpointOptions.getCheckpointType().isSavepoint() || !hasRegisteredState()) {
+			return super.snapshot(checkpointId, timestamp, primaryStreamFactory, checkpointOptions);
+		}
+
+		final List<DeltaFile> baseChain;
+		synchronized (pendingSnapshots) {
+			baseChain = completedChain;
+		}
+		final boolean full = requiresFullSnapshot(baseChain);
+
+		int numStates = registeredKVStates.size() + registeredPQStates.size();
+
+		Preconditions.checkState(numStates <= Short.MAX_VALUE,
+			"Too many states: " + numStates +
+				". Currently at most " + Short.MAX_VALUE + " states are supported");
+
+		final List<StateMetaInfoSnapshot> metaInfoSnapshots = new ArrayList<>(numStates);
+		final Map<StateUID, Integer> stateNamesToId = new HashMap<>(numStates);
+		// key/value states must be written before priority queue states, see HeapRestoreOperation
+		final Map<StateUID, StateSnapshot> cowStateStableSnapshots = new LinkedHashMap<>(numStates);
+		final Map<CopyOnWriteStateTable<K, ?, ?>, int[]> snapshotVersions = new HashMap<>(registeredKVStates.size());
+
+		for (Map.Entry<String, StateTable<K, ?, ?>> kvState : registeredKVStates.entrySet()) {
+			StateTable<K, ?, ?> stateTable = kvState.getValue();
+			Preconditions.checkState(stateTable instanceof CopyOnWriteStateTable,
+				"Incremental snapshots require copy-on-write state tables.");
+
+			final StateUID stateUid = StateUID.of(kvState.getKey(), StateMetaInfoSnapshot.BackendStateType.KEY_VALUE);
+			final CopyOnWriteStateTable<K, ?, ?> cowStateTable = (CopyOnWriteStateTable<K, ?, ?>) stateTable;
+			final CopyOnWriteStateTableSnapshot<K, ?, ?> stateSnapshot = cowStateTable.incrementalStateSnapshot(full);
+			stateNamesToId.put(stateUid, stateNamesToId.size());
+			metaInfoSnapshots.add(stateSnapshot.getMetaInfoSnapshot());
+			cowStateStableSnapshots.put(stateUid, stateSnapshot);
+			snapshotVersions.put(cowStateTable, stateSnapshot.getSnapshotVersions());
+		}
+
+		processSnapshotMetaInfoForAllStates(
+			metaInfoSnapshots,
+			cowStateStableSnapshots,
+			stateNamesToId,
+			registeredPQStates,
+			StateMetaInfoSnapshot.BackendStateType.PRIORITY_QUEUE);
+
+		final KeyedBackendSerializationProxy<K> serializationProxy =
+			new KeyedBackendSerializationProxy<>(
+				getKeySerializer(),
+				metaInfoSnapshots,
+				!Objects.equals(UncompressedStreamCompressionDecorator.INSTANCE, keyGroupCompressionDecorator));
+
+		final PendingSnapshot pendingSnapshot = new PendingSnapshot(snapshotVersions);
+		synchronized (pendingSnapshots) {
+			pendingSnapshots.put(checkpointId, pendingSnapshot);
+		}
+
+		LOG.trace("Taking {} snapshot for checkpoint {} based on last completed checkpoint {} with {} delta files.",
+			full ? "full incremental" : "incremental", checkpointId, lastCompletedCheckpointId, baseChain.size());
+
+		//--------------------------------------------------- this becomes the end of sync part
+
+		final AsyncSnapshotCallable<SnapshotResult<KeyedStateHandle>> asyncSnapshotCallable =
+			new AsyncSnapshotCallable<SnapshotResult<KeyedStateHandle>>() {
+				@Override
+				protected SnapshotResult<KeyedStateHandle> callInternal() throws Exception {
+
+					final StateHandleID deltaFileId = new StateHandleID(checkpointId + ".delta");
+					final CheckpointStreamFactory.CheckpointStateOutputStream deltaStream =
+						primaryStreamFactory.createCheckpointStateOutputStream(CheckpointedStateScope.SHARED);
+					snapshotCloseableRegistry.registerCloseable(deltaStream);
+
+					serializationProxy.write(new DataOutputViewStreamWrapper(deltaStream));
+					final long[] keyGroupRangeOffsets =
+						writeKeyGroups(deltaStream, cowStateStableSnapshots, stateNamesToId);
+
+					final StreamStateHandle deltaStateHandle = closeAndGetHandle(deltaStream);
+
+					final List<DeltaFile> chain = new ArrayList<>(full ? 1 : baseChain.size() + 1);
+					if (!full) {
+						chain.addAll(baseChain);
+					}
+					chain.add(new DeltaFile(
+						deltaFileId,
+						new KeyGroupRangeOffsets(keyGroupRange, keyGroupRangeOffsets),
+						deltaStateHandle.getStateSize()));
+
+					final CheckpointStreamFactory.CheckpointStateOutputStream metaStream =
+						primaryStreamFactory.createCheckpointStateOutputStream(CheckpointedStateScope.EXCLUSIVE);
+					snapshotCloseableRegistry.registerCloseable(metaStream);
+
+					writeChain(new DataOutputViewStreamWrapper(metaStream), chain);
+
+					final StreamStateHandle metaStateHandle = closeAndGetHandle(metaStream);
+
+					final Map<StateHandleID, StreamStateHandle> sharedState = new HashMap<>(chain.size());
+					for (DeltaFile deltaFile : chain) {
+						// files of the last completed checkpoint are already registered in the shared state registry
+						sharedState.put(deltaFile.getHandleId(), new PlaceholderStreamStateHandle());
+					}
+					sharedState.put(deltaFileId, deltaStateHandle);
+
+					synchronized (pendingSnapshots) {
+						pendingSnapshot.chain = chain;
+					}
+
+					return SnapshotResult.of(
+						new IncrementalRemoteKeyedStateHandle(
+							backendUID,
+							keyGroupRange,
+							checkpointId,
+							sharedState,
+							Collections.emptyMap(),
+							metaStateHandle));
+				}
+
+				@Override
+				protected void cleanupProvidedResources() {
+					for (StateSnapshot tableSnapshot : cowStateStableSnapshots.values()) {
+						tableSnapshot.release();
+					}
+				}
+
+				@Override
+				protected void logAsyncSnapshotComplete(long startTime) {
+					logAsyncCompleted(primaryStreamFactory, startTime);
+				}
+
+				private StreamStateHandle closeAndGetHandle(
+					CheckpointStreamFactory.CheckpointStateOutputStream outputStream) throws IOException {
+					if (snapshotCloseableRegistry.unregisterCloseable(outputStream)) {
+						return outputStream.closeAndGetHandle();
+					} else {
+						throw new IOException("Stream already unregistered.");
+					}
+				}
+			};
+
+		final FutureTask<SnapshotResult<KeyedStateHandle>> task =
+			asyncSnapshotCallable.toAsyncSnapshotFutureTask(cancelStreamRegistry);
+		finalizeSnapshotBeforeReturnHook(task);
+
+		return task;
+	}
+
+	@Override
+	public void notifyCheckpointComplete(long completedCheckpointId) {
+		synchronized (pendingSnapshots) {
+			if (completedCheckpointId <= lastCompletedCheckpointId) {
+				return;
+			}
+
+			final PendingSnapshot pendingSnapshot = pendingSnapshots.get(completedCheckpointId);
+			if (pendingSnapshot != null && pendingSnapshot.chain != null) {
+				for (Map.Entry<CopyOnWriteStateTable<K, ?, ?>, int[]> entry : pendingSnapshot.snapshotVersions.entrySet()) {
+					entry.getKey().setIncrementalBaseVersions(entry.getValue());
+				}
+				completedChain = pendingSnapshot.chain;
+				lastCompletedCheckpointId = completedCheckpointId;
+			}
+
+			pendingSnapshots.headMap(completedCheckpointId + 1).clear();
+		}
+	}
+
+	/**
+	 * Checks whether the next snapshot must contain all state, because there is no completed checkpoint to build
+	 * on, or because the chain of delta files has become too long or too large.
+	 */
+	private boolean requiresFullSnapshot(List<DeltaFile> baseChain) {
+		if (baseChain.isEmpty() || baseChain.size() > maxNumberOfDeltas) {
+			return true;
+		}
+
+		long deltaSize = 0L;
+		for (int i = 1; i < baseChain.size(); i++) {
+			deltaSize += baseChain.get(i).getStateSize();
+		}
+		return deltaSize > baseChain.get(0).getStateSize();
+	}
+
+	// ------------------------------------------------------------------------
+	//  meta data of incremental snapshots
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Writes the chain of delta files of an incremental snapshot to its meta data.
+	 */
+	static void writeChain(DataOutputView out, List<DeltaFile> chain) throws IOException {
+		out.writeInt(chain.size());
+		for (DeltaFile deltaFile : chain) {
+			out.writeUTF(deltaFile.getHandleId().getKeyString());
+			out.writeLong(deltaFile.getStateSize());
+
+			KeyGroupRange keyGroupRange = deltaFile.getKeyGroupRangeOffsets().getKeyGroupRange();
+			out.writeInt(keyGroupRange.getStartKeyGroup());
+			out.writeInt(keyGroupRange.getNumberOfKeyGroups());
+			for (int keyGroup : keyGroupRange) {
+				out.writeLong(deltaFile.getKeyGroupRangeOffsets().getKeyGroupOffset(keyGroup));
+			}
+		}
+	}
+
+	/**
+	 * Reads the chain of delta files of an incremental snapshot from its meta data.
+	 */
+	static List<DeltaFile> readChain(DataInputView in) throws IOException {
+		final int numberOfFiles = in.readInt();
+		final List<DeltaFile> chain = new ArrayList<>(numberOfFiles);
+		for (int i = 0; i < numberOfFiles; i++) {
+			StateHandleID handleId = new StateHandleID(in.readUTF());
+			long stateSize = in.readLong();
+
+			int startKeyGroup = in.readInt();
+			int numberOfKeyGroups = in.readInt();
+			long[] offsets = new long[numberOfKeyGroups];
+			for (int j = 0; j < numberOfKeyGroups; j++) {
+				offsets[j] = in.readLong();
+			}
+
+			KeyGroupRange keyGroupRange = numberOfKeyGroups == 0 ?
+				KeyGroupRange.EMPTY_KEY_GROUP_RANGE :
+				new KeyGroupRange(startKeyGroup, startKeyGroup + numberOfKeyGroups - 1);
+			chain.add(new DeltaFile(handleId, new KeyGroupRangeOffsets(keyGroupRange, offsets), stateSize));
+		}
+		return chain;
+	}
+
+	/**
+	 * A delta file of an incremental snapshot, with the offsets of the key-groups in the file.
+	 */
+	static final class DeltaFile {
+
+		private final StateHandleID handleId;
+
+		private final KeyGroupRangeOffsets keyGroupRangeOffsets;
+
+		private final long stateSize;
+
+		DeltaFile(StateHandleID handleId, KeyGroupRangeOffsets keyGroupRangeOffsets, long stateSize) {
+			this.handleId = handleId;
+			this.keyGroupRangeOffsets = keyGroupRangeOffsets;
+			this.stateSize = stateSize;
+		}
+
+		StateHandleID getHandleId() {
+			return handleId;
+		}
+
+		KeyGroupRangeOffsets getKeyGroupRangeOffsets() {
+			return keyGroupRangeOffsets;
+		}
+
+		long getStateSize() {
+			return stateSize;
+		}
+	}
+
+	/**
+	 * A snapshot of a checkpoint which is not completed yet.
+	 */
+	private final class PendingSnapshot {
+
+		/** The versions of the state map snapshots, which become the base of later snapshots. */
+		private final Map<CopyOnWriteStateTable<K, ?, ?>, int[]> snapshotVersions;
+
+		/** The chain of delta files of the snapshot, set once the snapshot was written. */
+		private List<DeltaFile> chain;
+
+		PendingSnapshot(Map<CopyOnWriteStateTable<K, ?, ?>, int[]> snapshotVersions) {
+			this.snapshotVersions = snapshotVersions;
+		}
+	}
+}
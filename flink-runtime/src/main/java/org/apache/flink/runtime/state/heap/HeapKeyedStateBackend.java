@@ -307,8 +307,8 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 	}
 
 	@Override
-	public void notifyCheckpointComplete(long checkpointId) {
-		//Nothing to do
+	public void notifyCheckpointComplete(long checkpointId) throws Exception {
+		snapshotStrategy.notifyCheckpointComplete(checkpointId);
 	}
 
 	@Override
@@ -20,6 +20,7 @@ package org.apache.flink.runtime.state.heap;
 
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
 import org.apache.flink.runtime.state.AbstractKeyedStateBackendBuilder;
@@ -29,8 +30,11 @@ import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.LocalRecoveryConfig;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.util.IOUtils;
 
 import javax.annotation.Nonnull;
+
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -53,7 +57,47 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
 	 * Whether asynchronous snapshot is enabled.
 	 */
 	private final boolean asynchronousSnapshots;
+	/**
+	 * Whether incremental checkpoints are enabled. This requires asynchronous snapshots.
+	 */
+	private final boolean incrementalCheckpoints;
+	/**
+	 * The maximum number of delta files of incremental checkpoints that may follow a file with all state.
+	 */
+	private final int maxIncrementalDeltas;
+
 
+	public HeapKeyedStateBackendBuilder(
+		TaskKvStateRegistry kvStateRegistry,
+		TypeSerializer<K> keySerializer,
+		ClassLoader userCodeClassLoader,
+		int numberOfKeyGroups,
+		KeyGroupRange keyGroupRange,
+		ExecutionConfig executionConfig,
+		TtlTimeProvider ttlTimeProvider,
+		@Nonnull Collection<KeyedStateHandle> stateHandles,
+		StreamCompressionDecorator keyGroupCompressionDecorator,
+		LocalRecoveryConfig localRecoveryConfig,
+		HeapPriorityQueueSetFactory priorityQueueSetFactory,
+		boolean asynchronousSnapshots,
+		CloseableRegistry cancelStreamRegistry) {
+		this(
+			kvStateRegistry,
+			keySerializer,
+			userCodeClassLoader,
+			numberOfKeyGroups,
+			keyGroupRange,
+			executionConfig,
+			ttlTimeProvider,
+			stateHandles,
+			keyGroupCompressionDecorator,
+			localRecoveryConfig,
+			priorityQueueSetFactory,
+			asynchronousSnapshots,
+			false,
+			CheckpointingOptions.FS_INCREMENTAL_MAX_DELTAS.defaultValue(),
+			cancelStreamRegistry);
+	}
 
 	public HeapKeyedStateBackendBuilder(
 		TaskKvStateRegistry kvStateRegistry,
@@ -68,6 +112,8 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
 		LocalRecoveryConfig localRecoveryConfig,
 		HeapPriorityQueueSetFactory priorityQueueSetFactory,
 		boolean asynchronousSnapshots,
+		boolean incrementalCheckpoints,
+		int maxIncrementalDeltas,
 		CloseableRegistry cancelStreamRegistry) {
 		super(
 			kvStateRegistry,
@@ -83,6 +129,8 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
 		this.localRecoveryConfig = localRecoveryConfig;
 		this.priorityQueueSetFactory = priorityQueueSetFactory;
 		this.asynchronousSnapshots = asynchronousSnapshots;
+		this.incrementalCheckpoints = incrementalCheckpoints;
+		this.maxIncrementalDeltas = maxIncrementalDeltas;
 	}
 
 	@Override
@@ -92,8 +140,14 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
 		// Map of registered priority queue set states
 		Map<String, HeapPriorityQueueSnapshotRestoreWrapper> registeredPQStates = new HashMap<>();
 		CloseableRegistry cancelStreamRegistryForBackend = new CloseableRegistry();
-		HeapSnapshotStrategy<K> snapshotStrategy = initSnapshotStrategy(
-			asynchronousSnapshots, registeredKVStates, registeredPQStates, cancelStreamRegistryForBackend);
+		HeapSnapshotStrategy<K> snapshotStrategy;
+		try {
+			snapshotStrategy = initSnapshotStrategy(
+				registeredKVStates, registeredPQStates, cancelStreamRegistryForBackend);
+		} catch (IOException e) {
+			IOUtils.closeQuietly(cancelStreamRegistryForBackend);
+			throw new BackendBuildingException("Failed to initialize the snapshot strategy of heap backend", e);
+		}
 		InternalKeyContext<K> keyContext = new InternalKeyContextImpl<>(
 			keyGroupRange,
 			numberOfKeyGroups
@@ -113,6 +167,7 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
 		try {
 			restoreOperation.restore();
 		} catch (Exception e) {
+			IOUtils.closeQuietly(cancelStreamRegistryForBackend);
 			throw new BackendBuildingException("Failed when trying to restore heap backend", e);
 		}
 		return new HeapKeyedStateBackend<>(
@@ -132,13 +187,23 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
 	}
 
 	private HeapSnapshotStrategy<K> initSnapshotStrategy(
-		boolean asynchronousSnapshots,
 		Map<String, StateTable<K, ?, ?>> registeredKVStates,
 		Map<String, HeapPriorityQueueSnapshotRestoreWrapper> registeredPQStates,
-		CloseableRegistry cancelStreamRegistry) {
-		SnapshotStrategySynchronicityBehavior<K> synchronicityTrait = asynchronousSnapshots ?
-			new AsyncSnapshotStrategySynchronicityBehavior<>() :
-			new SyncSnapshotStrategySynchronicityBehavior<>();
+		CloseableRegistry cancelStreamRegistry) throws IOException {
+		SnapshotStrategySynchronicityBehavior<K> synchronicityTrait =
+			createSnapshotStrategySynchronicityBehavior(cancelStreamRegistry);
+		if (incrementalCheckpoints && synchronicityTrait instanceof AsyncSnapshotStrategySynchronicityBehavior) {
+			return new HeapIncrementalSnapshotStrategy<>(
+				synchronicityTrait,
+				registeredKVStates,
+				registeredPQStates,
+				keyGroupCompressionDecorator,
+				localRecoveryConfig,
+				keyGroupRange,
+				cancelStreamRegistry,
+				keySerializerProvider,
+				maxIncrementalDeltas);
+		}
 		return new HeapSnapshotStrategy<>(
 			synchronicityTrait,
 			registeredKVStates,
@@ -149,4 +214,18 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
 			cancelStreamRegistry,
 			keySerializerProvider);
 	}
+
+	/**
+	 * Creates the behavior that decides on the synchronicity of snapshots and the {@link StateTable}
+	 * implementation of the backend. Resources that live as long as the backend can be registered
+	 * with the given registry, which is closed when the backend is disposed.
+	 *
+	 * @param cancelStreamRegistryForBackend the registry that is closed when the backend is disposed.
+	 */
+	SnapshotStrategySynchronicityBehavior<K> createSnapshotStrategySynchronicityBehavior(
+		CloseableRegistry cancelStreamRegistryForBackend) throws IOException {
+		return asynchronousSnapshots ?
+			new AsyncSnapshotStrategySynchronicityBehavior<>() :
+			new SyncSnapshotStrategySynchronicityBehavior<>();
+	}
 }
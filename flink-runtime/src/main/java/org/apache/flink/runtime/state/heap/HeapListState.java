@@ -86,19 +86,31 @@ class HeapListState<K, N, V>
 	}
 
 	@Override
-	public void add(V value) {
+	public void add(V value) throws Exception {
 		Preconditions.checkNotNull(value, "You cannot add null to a ListState.");
 
-		final N namespace = currentNamespace;
+		if (!stateTable.requiresWriteBack()) {
+			final N namespace = currentNamespace;
 
-		final StateTable<K, N, List<V>> map = stateTable;
-		List<V> list = map.get(namespace);
+			final StateTable<K, N, List<V>> map = stateTable;
+			List<V> list = map.get(namespace);
 
-		if (list == null) {
-			list = new ArrayList<>();
-			map.put(namespace, list);
+			if (list == null) {
+				list = new ArrayList<>();
+				map.put(namespace, list);
+			}
+			list.add(value);
+			return;
 		}
-		list.add(value);
+
+		// the list is modified through the state table, so that the table sees the change
+		stateTable.transform(currentNamespace, value, (previousState, v) -> {
+			if (previousState == null) {
+				previousState = new ArrayList<>();
+			}
+			previousState.add(v);
+			return previousState;
+		});
 	}
 
 	@Override
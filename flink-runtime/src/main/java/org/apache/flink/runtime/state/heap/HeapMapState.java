@@ -28,9 +28,12 @@ import org.apache.flink.queryablestate.client.state.serialization.KvStateSeriali
 import org.apache.flink.runtime.state.internal.InternalMapState;
 import org.apache.flink.util.Preconditions;
 
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Heap-backed partitioned {@link MapState} that is snapshotted into files.
@@ -92,28 +95,50 @@ class HeapMapState<K, N, UK, UV>
 	}
 
 	@Override
-	public void put(UK userKey, UV userValue) {
+	public void put(UK userKey, UV userValue) throws Exception {
 
-		Map<UK, UV> userMap = stateTable.get(currentNamespace);
-		if (userMap == null) {
-			userMap = new HashMap<>();
-			stateTable.put(currentNamespace, userMap);
+		if (!stateTable.requiresWriteBack()) {
+			Map<UK, UV> userMap = stateTable.get(currentNamespace);
+			if (userMap == null) {
+				userMap = new HashMap<>();
+				stateTable.put(currentNamespace, userMap);
+			}
+
+			userMap.put(userKey, userValue);
+			return;
 		}
 
-		userMap.put(userKey, userValue);
+		stateTable.transform(currentNamespace, Tuple2.of(userKey, userValue), (userMap, entry) -> {
+			if (userMap == null) {
+				userMap = new HashMap<>();
+			}
+			userMap.put(entry.f0, entry.f1);
+			return userMap;
+		});
 	}
 
 	@Override
-	public void putAll(Map<UK, UV> value) {
+	public void putAll(Map<UK, UV> value) throws Exception {
 
-		Map<UK, UV> userMap = stateTable.get(currentNamespace);
+		if (!stateTable.requiresWriteBack()) {
+			Map<UK, UV> userMap = stateTable.get(currentNamespace);
 
-		if (userMap == null) {
-			userMap = new HashMap<>();
-			stateTable.put(currentNamespace, userMap);
+			if (userMap == null) {
+				userMap = new HashMap<>();
+				stateTable.put(currentNamespace, userMap);
+			}
+
+			userMap.putAll(value);
+			return;
 		}
 
-		userMap.putAll(value);
+		stateTable.transform(currentNamespace, value, (userMap, entries) -> {
+			if (userMap == null) {
+				userMap = new HashMap<>();
+			}
+			userMap.putAll(entries);
+			return userMap;
+		});
 	}
 
 	@Override
@@ -128,6 +153,8 @@ class HeapMapState<K, N, UK, UV>
 
 		if (userMap.isEmpty()) {
 			clear();
+		} else if (stateTable.requiresWriteBack()) {
+			stateTable.put(currentNamespace, userMap);
 		}
 	}
 
@@ -140,25 +167,57 @@ class HeapMapState<K, N, UK, UV>
 	@Override
 	public Iterable<Map.Entry<UK, UV>> entries() {
 		Map<UK, UV> userMap = stateTable.get(currentNamespace);
-		return userMap == null ? null : userMap.entrySet();
+		if (userMap == null) {
+			return null;
+		} else if (!stateTable.requiresWriteBack()) {
+			return userMap.entrySet();
+		}
+		return new UserMapSet<>(new UserMapView(userMap), entry -> entry);
 	}
 
 	@Override
 	public Iterable<UK> keys() {
 		Map<UK, UV> userMap = stateTable.get(currentNamespace);
-		return userMap == null ? null : userMap.keySet();
+		if (userMap == null) {
+			return null;
+		} else if (!stateTable.requiresWriteBack()) {
+			return userMap.keySet();
+		}
+		return new UserMapSet<>(new UserMapView(userMap), Map.Entry::getKey);
 	}
 
 	@Override
 	public Iterable<UV> values() {
 		Map<UK, UV> userMap = stateTable.get(currentNamespace);
-		return userMap == null ? null : userMap.values();
+		if (userMap == null) {
+			return null;
+		} else if (!stateTable.requiresWriteBack()) {
+			return userMap.values();
+		}
+
+		final UserMapView view = new UserMapView(userMap);
+		return new AbstractCollection<UV>() {
+			@Override
+			public Iterator<UV> iterator() {
+				return view.iterator(Map.Entry::getValue);
+			}
+
+			@Override
+			public int size() {
+				return view.userMap.size();
+			}
+		};
 	}
 
 	@Override
 	public Iterator<Map.Entry<UK, UV>> iterator() {
 		Map<UK, UV> userMap = stateTable.get(currentNamespace);
-		return userMap == null ? null : userMap.entrySet().iterator();
+		if (userMap == null) {
+			return null;
+		} else if (!stateTable.requiresWriteBack()) {
+			return userMap.entrySet().iterator();
+		}
+		return new UserMapView(userMap).iterator(entry -> entry);
 	}
 
 	@Override
@@ -208,4 +267,120 @@ class HeapMapState<K, N, UK, UV>
 			stateTable.getNamespaceSerializer(),
 			(Map<UK, UV>) stateDesc.getDefaultValue());
 	}
+
+	/**
+	 * View on the user map of the current key and namespace. Modifications through the view are written
+	 * back to the state table, for tables which require it.
+	 */
+	private class UserMapView {
+
+		private final K key;
+
+		private final int keyGroup;
+
+		private final N namespace;
+
+		private final Map<UK, UV> userMap;
+
+		UserMapView(Map<UK, UV> userMap) {
+			this.key = stateTable.keyContext.getCurrentKey();
+			this.keyGroup = stateTable.keyContext.getCurrentKeyGroupIndex();
+			this.namespace = currentNamespace;
+			this.userMap = userMap;
+		}
+
+		<T> Iterator<T> iterator(Function<Map.Entry<UK, UV>, T> resultFunction) {
+			final Iterator<Map.Entry<UK, UV>> iterator = userMap.entrySet().iterator();
+			return new Iterator<T>() {
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public T next() {
+					return resultFunction.apply(new UserMapEntry(iterator.next()));
+				}
+
+				@Override
+				public void remove() {
+					iterator.remove();
+					writeBack();
+				}
+			};
+		}
+
+		private void writeBack() {
+			stateTable.put(key, keyGroup, namespace, userMap);
+		}
+
+		/**
+		 * Entry of the user map which writes the user map back when its value is updated.
+		 */
+		private class UserMapEntry implements Map.Entry<UK, UV> {
+
+			private final Map.Entry<UK, UV> entry;
+
+			UserMapEntry(Map.Entry<UK, UV> entry) {
+				this.entry = entry;
+			}
+
+			@Override
+			public UK getKey() {
+				return entry.getKey();
+			}
+
+			@Override
+			public UV getValue() {
+				return entry.getValue();
+			}
+
+			@Override
+			public UV setValue(UV value) {
+				UV oldValue = entry.setValue(value);
+				writeBack();
+				return oldValue;
+			}
+
+			@Override
+			public boolean equals(Object o) {
+				return entry.equals(o);
+			}
+
+			@Override
+			public int hashCode() {
+				return entry.hashCode();
+			}
+
+			@Override
+			public String toString() {
+				return entry.toString();
+			}
+		}
+	}
+
+	/**
+	 * Set of the keys or entries of a {@link UserMapView}.
+	 */
+	private class UserMapSet<T> extends AbstractSet<T> {
+
+		private final UserMapView view;
+
+		private final Function<Map.Entry<UK, UV>, T> resultFunction;
+
+		UserMapSet(UserMapView view, Function<Map.Entry<UK, UV>, T> resultFunction) {
+			this.view = view;
+			this.resultFunction = resultFunction;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return view.iterator(resultFunction);
+		}
+
+		@Override
+		public int size() {
+			return view.userMap.size();
+		}
+	}
 }
@@ -19,11 +19,14 @@
 package org.apache.flink.runtime.state.heap;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyExtractorFunction;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
@@ -40,6 +43,7 @@ import org.apache.flink.runtime.state.StateSerializerProvider;
 import org.apache.flink.runtime.state.StateSnapshotKeyGroupReader;
 import org.apache.flink.runtime.state.StateSnapshotRestore;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
 import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
 import org.apache.flink.util.Preconditions;
@@ -115,6 +119,13 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
 				continue;
 			}
 
+			if (keyedStateHandle instanceof IncrementalRemoteKeyedStateHandle) {
+				keySerializerRestored = restoreIncrementalStateHandle(
+					(IncrementalRemoteKeyedStateHandle) keyedStateHandle,
+					keySerializerRestored);
+				continue;
+			}
+
 			if (!(keyedStateHandle instanceof KeyGroupsStateHandle)) {
 				throw new IllegalStateException("Unexpected state handle type, " +
 					"expected: " + KeyGroupsStateHandle.class +
@@ -134,14 +145,7 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
 				serializationProxy.read(inView);
 
 				if (!keySerializerRestored) {
-					// check for key serializer compatibility; this also reconfigures the
-					// key serializer to be compatible, if it is required and is possible
-					TypeSerializerSchemaCompatibility<K> keySerializerSchemaCompat =
-						keySerializerProvider.setPreviousSerializerSnapshotForRestoredState(serializationProxy.getKeySerializerSnapshot());
-					if (keySerializerSchemaCompat.isCompatibleAfterMigration() || keySerializerSchemaCompat.isIncompatible()) {
-						throw new StateMigrationException("The new key serializer must be compatible.");
-					}
-
+					restoreKeySerializer(serializationProxy);
 					keySerializerRestored = true;
 				}
 
@@ -166,6 +170,157 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
 		return null;
 	}
 
+	private void restoreKeySerializer(KeyedBackendSerializationProxy<K> serializationProxy) throws StateMigrationException {
+		// check for key serializer compatibility; this also reconfigures the
+		// key serializer to be compatible, if it is required and is possible
+		TypeSerializerSchemaCompatibility<K> keySerializerSchemaCompat =
+			keySerializerProvider.setPreviousSerializerSnapshotForRestoredState(serializationProxy.getKeySerializerSnapshot());
+		if (keySerializerSchemaCompat.isCompatibleAfterMigration() || keySerializerSchemaCompat.isIncompatible()) {
+			throw new StateMigrationException("The new key serializer must be compatible.");
+		}
+	}
+
+	/**
+	 * Restores the state of an incremental snapshot by applying the changes of all delta files in the chain of the
+	 * snapshot in order, see {@link HeapIncrementalSnapshotStrategy}.
+	 *
+	 * @return whether the key serializer was restored.
+	 */
+	private boolean restoreIncrementalStateHandle(
+		IncrementalRemoteKeyedStateHandle stateHandle,
+		boolean keySerializerRestored) throws Exception {
+
+		final List<HeapIncrementalSnapshotStrategy.DeltaFile> chain;
+		FSDataInputStream metaInputStream = stateHandle.getMetaStateHandle().openInputStream();
+		cancelStreamRegistry.registerCloseable(metaInputStream);
+		try {
+			chain = HeapIncrementalSnapshotStrategy.readChain(new DataInputViewStreamWrapper(metaInputStream));
+		} finally {
+			if (cancelStreamRegistry.unregisterCloseable(metaInputStream)) {
+				IOUtils.closeQuietly(metaInputStream);
+			}
+		}
+
+		for (int i = 0; i < chain.size(); i++) {
+			final HeapIncrementalSnapshotStrategy.DeltaFile deltaFile = chain.get(i);
+			final StreamStateHandle deltaStateHandle = stateHandle.getSharedState().get(deltaFile.getHandleId());
+			Preconditions.checkState(deltaStateHandle != null,
+				"Missing delta file " + deltaFile.getHandleId() + " of incremental snapshot.");
+
+			FSDataInputStream fsDataInputStream = deltaStateHandle.openInputStream();
+			cancelStreamRegistry.registerCloseable(fsDataInputStream);
+
+			try {
+				DataInputViewStreamWrapper inView = new DataInputViewStreamWrapper(fsDataInputStream);
+
+				KeyedBackendSerializationProxy<K> serializationProxy =
+					new KeyedBackendSerializationProxy<>(userCodeClassLoader);
+
+				serializationProxy.read(inView);
+
+				if (!keySerializerRestored) {
+					restoreKeySerializer(serializationProxy);
+					keySerializerRestored = true;
+				}
+
+				List<StateMetaInfoSnapshot> restoredMetaInfos =
+					serializationProxy.getStateMetaInfoSnapshots();
+
+				createOrCheckStateForMetaInfo(restoredMetaInfos, new HashMap<>());
+
+				readDeltaFileStateData(
+					fsDataInputStream,
+					inView,
+					deltaFile.getKeyGroupRangeOffsets(),
+					restoredMetaInfos,
+					serializationProxy.getReadVersion(),
+					serializationProxy.isUsingKeyGroupCompression(),
+					i == chain.size() - 1);
+			} finally {
+				if (cancelStreamRegistry.unregisterCloseable(fsDataInputStream)) {
+					IOUtils.closeQuietly(fsDataInputStream);
+				}
+			}
+		}
+		return keySerializerRestored;
+	}
+
+	private void readDeltaFileStateData(
+		FSDataInputStream fsDataInputStream,
+		DataInputViewStreamWrapper inView,
+		KeyGroupRangeOffsets keyGroupOffsets,
+		List<StateMetaInfoSnapshot> restoredMetaInfos,
+		int readVersion,
+		boolean isCompressed,
+		boolean isLastFile) throws IOException {
+
+		final StreamCompressionDecorator streamCompressionDecorator = isCompressed ?
+			SnappyStreamCompressionDecorator.INSTANCE : UncompressedStreamCompressionDecorator.INSTANCE;
+
+		for (Tuple2<Integer, Long> groupOffset : keyGroupOffsets) {
+			int keyGroupIndex = groupOffset.f0;
+
+			// incremental snapshots are not split by key-group when rescaling
+			if (!keyGroupRange.contains(keyGroupIndex)) {
+				continue;
+			}
+
+			fsDataInputStream.seek(groupOffset.f1);
+
+			int writtenKeyGroupIndex = inView.readInt();
+			Preconditions.checkState(writtenKeyGroupIndex == keyGroupIndex,
+				"Unexpected key-group in restore.");
+
+			try (InputStream kgCompressionInStream =
+					 streamCompressionDecorator.decorateWithCompression(fsDataInputStream)) {
+
+				DataInputViewStreamWrapper kgInView = new DataInputViewStreamWrapper(kgCompressionInStream);
+
+				for (int i = 0; i < restoredMetaInfos.size(); i++) {
+					final StateMetaInfoSnapshot stateMetaInfoSnapshot = restoredMetaInfos.get(kgInView.readShort());
+
+					if (stateMetaInfoSnapshot.getBackendStateType() == StateMetaInfoSnapshot.BackendStateType.KEY_VALUE) {
+						readStateChangesInKeyGroup(
+							registeredKVStates.get(stateMetaInfoSnapshot.getName()), kgInView, keyGroupIndex);
+					} else if (isLastFile) {
+						registeredPQStates.get(stateMetaInfoSnapshot.getName())
+							.keyGroupReader(readVersion)
+							.readMappingsInKeyGroup(kgInView, keyGroupIndex);
+					} else {
+						// priority queue states are written after all key/value states, and they are only
+						// restored from the last file of the chain
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	private <N, S> void readStateChangesInKeyGroup(
+		StateTable<K, N, S> stateTable,
+		DataInputView inView,
+		int keyGroupIndex) throws IOException {
+
+		final TypeSerializer<K> keySerializer = stateTable.keySerializer;
+		final TypeSerializer<N> namespaceSerializer = stateTable.getNamespaceSerializer();
+		final TypeSerializer<S> stateSerializer = stateTable.getStateSerializer();
+
+		int numberOfRemovedEntries = inView.readInt();
+		for (int i = 0; i < numberOfRemovedEntries; i++) {
+			N namespace = namespaceSerializer.deserialize(inView);
+			K key = keySerializer.deserialize(inView);
+			stateTable.remove(key, keyGroupIndex, namespace);
+		}
+
+		int numberOfChangedEntries = inView.readInt();
+		for (int i = 0; i < numberOfChangedEntries; i++) {
+			N namespace = namespaceSerializer.deserialize(inView);
+			K key = keySerializer.deserialize(inView);
+			S state = stateSerializer.deserialize(inView);
+			stateTable.put(key, keyGroupIndex, namespace, state);
+		}
+	}
+
 	private void createOrCheckStateForMetaInfo(
 		List<StateMetaInfoSnapshot> restoredMetaInfo,
 		Map<Integer, StateMetaInfoSnapshot> kvStatesById) {
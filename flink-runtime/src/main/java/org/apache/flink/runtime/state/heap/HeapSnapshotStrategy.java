@@ -24,6 +24,7 @@ import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.state.AbstractSnapshotStrategy;
 import org.apache.flink.runtime.state.AsyncSnapshotCallable;
+import org.apache.flink.runtime.state.CheckpointListener;
 import org.apache.flink.runtime.state.CheckpointStreamFactory;
 import org.apache.flink.runtime.state.CheckpointStreamWithResultProvider;
 import org.apache.flink.runtime.state.CheckpointedStateScope;
@@ -61,15 +62,16 @@ import java.util.concurrent.RunnableFuture;
  * the concrete strategies. Subclasses must be threadsafe.
  */
 class HeapSnapshotStrategy<K>
-	extends AbstractSnapshotStrategy<KeyedStateHandle> implements SnapshotStrategySynchronicityBehavior<K> {
+	extends AbstractSnapshotStrategy<KeyedStateHandle>
+	implements SnapshotStrategySynchronicityBehavior<K>, CheckpointListener {
 
-	private final SnapshotStrategySynchronicityBehavior<K> snapshotStrategySynchronicityTrait;
-	private final Map<String, StateTable<K, ?, ?>> registeredKVStates;
-	private final Map<String, HeapPriorityQueueSnapshotRestoreWrapper> registeredPQStates;
-	private final StreamCompressionDecorator keyGroupCompressionDecorator;
+	protected final SnapshotStrategySynchronicityBehavior<K> snapshotStrategySynchronicityTrait;
+	protected final Map<String, StateTable<K, ?, ?>> registeredKVStates;
+	protected final Map<String, HeapPriorityQueueSnapshotRestoreWrapper> registeredPQStates;
+	protected final StreamCompressionDecorator keyGroupCompressionDecorator;
 	private final LocalRecoveryConfig localRecoveryConfig;
-	private final KeyGroupRange keyGroupRange;
-	private final CloseableRegistry cancelStreamRegistry;
+	protected final KeyGroupRange keyGroupRange;
+	protected final CloseableRegistry cancelStreamRegistry;
 	private final StateSerializerProvider<K> keySerializerProvider;
 
 	HeapSnapshotStrategy(
@@ -170,28 +172,8 @@ class HeapSnapshotStrategy<K>
 					final DataOutputViewStreamWrapper outView = new DataOutputViewStreamWrapper(localStream);
 					serializationProxy.write(outView);
 
-					final long[] keyGroupRangeOffsets = new long[keyGroupRange.getNumberOfKeyGroups()];
-
-					for (int keyGroupPos = 0; keyGroupPos < keyGroupRange.getNumberOfKeyGroups(); ++keyGroupPos) {
-						int keyGroupId = keyGroupRange.getKeyGroupId(keyGroupPos);
-						keyGroupRangeOffsets[keyGroupPos] = localStream.getPos();
-						outView.writeInt(keyGroupId);
-
-						for (Map.Entry<StateUID, StateSnapshot> stateSnapshot :
-							cowStateStableSnapshots.entrySet()) {
-							StateSnapshot.StateKeyGroupWriter partitionedSnapshot =
-
-								stateSnapshot.getValue().getKeyGroupWriter();
-							try (
-								OutputStream kgCompressionOut =
-									keyGroupCompressionDecorator.decorateWithCompression(localStream)) {
-								DataOutputViewStreamWrapper kgCompressionView =
-									new DataOutputViewStreamWrapper(kgCompressionOut);
-								kgCompressionView.writeShort(stateNamesToId.get(stateSnapshot.getKey()));
-								partitionedSnapshot.writeStateInKeyGroup(kgCompressionView, keyGroupId);
-							} // this will just close the outer compression stream
-						}
-					}
+					final long[] keyGroupRangeOffsets =
+						writeKeyGroups(localStream, cowStateStableSnapshots, stateNamesToId);
 
 					if (snapshotCloseableRegistry.unregisterCloseable(streamWithResultProvider)) {
 						KeyGroupRangeOffsets kgOffs = new KeyGroupRangeOffsets(keyGroupRange, keyGroupRangeOffsets);
@@ -225,6 +207,47 @@ class HeapSnapshotStrategy<K>
 		return task;
 	}
 
+	/**
+	 * Writes the state of all key-groups to the given stream, in the order of the given state snapshots.
+	 *
+	 * @return the offsets of the key-groups in the stream.
+	 */
+	long[] writeKeyGroups(
+		CheckpointStreamFactory.CheckpointStateOutputStream localStream,
+		Map<StateUID, StateSnapshot> cowStateStableSnapshots,
+		Map<StateUID, Integer> stateNamesToId) throws IOException {
+
+		final DataOutputViewStreamWrapper outView = new DataOutputViewStreamWrapper(localStream);
+		final long[] keyGroupRangeOffsets = new long[keyGroupRange.getNumberOfKeyGroups()];
+
+		for (int keyGroupPos = 0; keyGroupPos < keyGroupRange.getNumberOfKeyGroups(); ++keyGroupPos) {
+			int keyGroupId = keyGroupRange.getKeyGroupId(keyGroupPos);
+			keyGroupRangeOffsets[keyGroupPos] = localStream.getPos();
+			outView.writeInt(keyGroupId);
+
+			for (Map.Entry<StateUID, StateSnapshot> stateSnapshot :
+				cowStateStableSnapshots.entrySet()) {
+				StateSnapshot.StateKeyGroupWriter partitionedSnapshot =
+
+					stateSnapshot.getValue().getKeyGroupWriter();
+				try (
+					OutputStream kgCompressionOut =
+						keyGroupCompressionDecorator.decorateWithCompression(localStream)) {
+					DataOutputViewStreamWrapper kgCompressionView =
+						new DataOutputViewStreamWrapper(kgCompressionOut);
+					kgCompressionView.writeShort(stateNamesToId.get(stateSnapshot.getKey()));
+					partitionedSnapshot.writeStateInKeyGroup(kgCompressionView, keyGroupId);
+				} // this will just close the outer compression stream
+			}
+		}
+		return keyGroupRangeOffsets;
+	}
+
+	@Override
+	public void notifyCheckpointComplete(long checkpointId) throws Exception {
+		// nothing to do for full snapshots
+	}
+
 	@Override
 	public void finalizeSnapshotBeforeReturnHook(Runnable runnable) {
 		snapshotStrategySynchronicityTrait.finalizeSnapshotBeforeReturnHook(runnable);
@@ -243,7 +266,7 @@ class HeapSnapshotStrategy<K>
 		return snapshotStrategySynchronicityTrait.newStateTable(keyContext, newMetaInfo, keySerializer);
 	}
 
-	private void processSnapshotMetaInfoForAllStates(
+	void processSnapshotMetaInfoForAllStates(
 		List<StateMetaInfoSnapshot> metaInfoSnapshots,
 		Map<StateUID, StateSnapshot> cowStateStableSnapshots,
 		Map<StateUID, Integer> stateNamesToId,
@@ -262,7 +285,7 @@ class HeapSnapshotStrategy<K>
 		}
 	}
 
-	private boolean hasRegisteredState() {
+	boolean hasRegisteredState() {
 		return !(registeredKVStates.isEmpty() && registeredPQStates.isEmpty());
 	}
 
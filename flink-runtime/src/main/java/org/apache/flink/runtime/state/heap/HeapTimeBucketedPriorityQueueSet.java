@@ -0,0 +1,505 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.state.KeyExtractorFunction;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.runtime.state.KeyGroupedInternalPriorityQueue;
+import org.apache.flink.runtime.state.PriorityComparator;
+import org.apache.flink.runtime.state.TimestampExtractorFunction;
+import org.apache.flink.util.CloseableIterator;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A heap-based priority queue with set semantics for elements that are ordered by a timestamp, e.g. timers. Instead
+ * of keeping all elements in one binary heap, elements are put into buckets that cover a fixed range of timestamps,
+ * and only the buckets are ordered.
+ *
+ * <p>The elements of a bucket are kept unordered until the bucket becomes the head bucket of the queue. Then the
+ * whole bucket is sorted at once, and its elements can be polled in constant time. Adding and removing an element
+ * therefore only requires a lookup of its bucket and of its key-group deduplication map, instead of O(log n) moves in
+ * a heap. This pays off for a large number of elements with timestamps close to each other, e.g. many per-key timers.
+ * Once the head bucket is sorted, it stays sorted: elements are inserted at the position found by a binary search,
+ * and removed elements are closed up, each by shifting the smaller part of the bucket.
+ *
+ * <p>The priority of the elements must be consistent with their timestamps: an element with a smaller timestamp must
+ * never have a lower priority than an element with a larger timestamp.
+ *
+ * <p>Like {@link HeapPriorityQueueSet}, this queue keeps one deduplication map per key-group, so that the elements
+ * of a key-group can be obtained for snapshots.
+ *
+ * @param <T> type of the contained elements.
+ */
+public class HeapTimeBucketedPriorityQueueSet<T extends HeapPriorityQueueElement>
+	implements KeyGroupedInternalPriorityQueue<T> {
+
+	/** Function to extract the key from contained elements. */
+	private final KeyExtractorFunction<T> keyExtractor;
+
+	/** Function to extract the timestamp from contained elements, which determines their bucket. */
+	private final TimestampExtractorFunction<T> timestampExtractor;
+
+	/** Comparator that sorts the elements of a bucket from the lowest to the highest priority. */
+	private final Comparator<T> reversePriorityComparator;
+
+	/** The width of the range of timestamps covered by each bucket. */
+	private final long bucketWidth;
+
+	/** All non-empty buckets, by their index. */
+	private final TreeMap<Long, Bucket> buckets;
+
+	/** One deduplication map per key-group in the local range, to provide set semantics and the key-group subsets. */
+	private final HashMap<T, T>[] deduplicationMapsByKeyGroup;
+
+	private final KeyGroupRange keyGroupRange;
+
+	private final int totalNumberOfKeyGroups;
+
+	/** The bucket with the smallest index, or {@code null} if the queue is empty. */
+	@Nullable
+	private Bucket headBucket;
+
+	/** The bucket to which an element was added last, to skip the lookup for subsequent elements of the bucket. */
+	@Nullable
+	private Bucket lastAccessedBucket;
+
+	/** The number of elements in this queue. */
+	private int size;
+
+	/**
+	 * Creates an empty {@link HeapTimeBucketedPriorityQueueSet} with the requested initial capacity.
+	 *
+	 * @param elementPriorityComparator comparator for the priority of contained elements.
+	 * @param keyExtractor function to extract a key from the contained elements.
+	 * @param timestampExtractor function to extract the timestamp from the contained elements.
+	 * @param minimumCapacity the minimum and initial capacity of the deduplication maps.
+	 * @param bucketWidth the width of the range of timestamps covered by each bucket.
+	 * @param keyGroupRange the key-group range of the elements in this set.
+	 * @param totalNumberOfKeyGroups the total number of key-groups of the job.
+	 */
+	@SuppressWarnings("unchecked")
+	public HeapTimeBucketedPriorityQueueSet(
+		@Nonnull PriorityComparator<T> elementPriorityComparator,
+		@Nonnull KeyExtractorFunction<T> keyExtractor,
+		@Nonnull TimestampExtractorFunction<T> timestampExtractor,
+		@Nonnegative int minimumCapacity,
+		long bucketWidth,
+		@Nonnull KeyGroupRange keyGroupRange,
+		@Nonnegative int totalNumberOfKeyGroups) {
+
+		checkArgument(bucketWidth > 0, "The bucket width must be positive.");
+
+		this.keyExtractor = keyExtractor;
+		this.timestampExtractor = timestampExtractor;
+		this.reversePriorityComparator = (left, right) -> elementPriorityComparator.comparePriority(right, left);
+		this.bucketWidth = bucketWidth;
+		this.buckets = new TreeMap<>();
+
+		this.totalNumberOfKeyGroups = totalNumberOfKeyGroups;
+		this.keyGroupRange = keyGroupRange;
+
+		final int keyGroupsInLocalRange = keyGroupRange.getNumberOfKeyGroups();
+		final int deduplicationSetSize = 1 + minimumCapacity / keyGroupsInLocalRange;
+		this.deduplicationMapsByKeyGroup = new HashMap[keyGroupsInLocalRange];
+		for (int i = 0; i < keyGroupsInLocalRange; ++i) {
+			deduplicationMapsByKeyGroup[i] = new HashMap<>(deduplicationSetSize);
+		}
+	}
+
+	@Nullable
+	@Override
+	public T poll() {
+		if (headBucket == null) {
+			return null;
+		}
+
+		final Bucket bucket = headBucket;
+		final T head = bucket.poll();
+		if (bucket.isEmpty()) {
+			removeBucket(bucket);
+		}
+
+		--size;
+		getDedupMapForElement(head).remove(head);
+		return head;
+	}
+
+	@Nullable
+	@Override
+	public T peek() {
+		return headBucket != null ? headBucket.peek() : null;
+	}
+
+	@Override
+	public boolean add(@Nonnull T toAdd) {
+		if (getDedupMapForElement(toAdd).putIfAbsent(toAdd, toAdd) != null) {
+			return false;
+		}
+
+		final Bucket bucket = getOrCreateBucket(getBucketIndex(toAdd));
+		bucket.add(toAdd);
+		++size;
+
+		// the head element only changes if the element was added to the head bucket
+		return bucket == headBucket;
+	}
+
+	@Override
+	public boolean remove(@Nonnull T toRemove) {
+		final T storedElement = getDedupMapForElement(toRemove).remove(toRemove);
+		if (storedElement == null) {
+			return false;
+		}
+
+		final Bucket bucket = getBucket(getBucketIndex(storedElement));
+		final boolean isHeadBucket = bucket == headBucket;
+		bucket.remove(storedElement);
+		if (bucket.isEmpty()) {
+			removeBucket(bucket);
+		}
+
+		--size;
+		return isHeadBucket;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void addAll(@Nullable Collection<? extends T> toAdd) {
+		if (toAdd == null) {
+			return;
+		}
+
+		for (T element : toAdd) {
+			add(element);
+		}
+	}
+
+	@Nonnull
+	@Override
+	public CloseableIterator<T> iterator() {
+		return CloseableIterator.adapterForIterator(new BucketsIterator());
+	}
+
+	@Nonnull
+	@Override
+	public Set<T> getSubsetForKeyGroup(int keyGroupId) {
+		return getDedupMapForKeyGroup(keyGroupId).keySet();
+	}
+
+	/**
+	 * Returns the number of non-empty buckets.
+	 */
+	public int getNumberOfBuckets() {
+		return buckets.size();
+	}
+
+	private long getBucketIndex(T element) {
+		return Math.floorDiv(timestampExtractor.extractTimestampFromElement(element), bucketWidth);
+	}
+
+	private Bucket getBucket(long bucketIndex) {
+		if (lastAccessedBucket != null && lastAccessedBucket.index == bucketIndex) {
+			return lastAccessedBucket;
+		}
+
+		final Bucket bucket = buckets.get(bucketIndex);
+		lastAccessedBucket = bucket;
+		return bucket;
+	}
+
+	private Bucket getOrCreateBucket(long bucketIndex) {
+		Bucket bucket = getBucket(bucketIndex);
+		if (bucket == null) {
+			bucket = new Bucket(bucketIndex);
+			buckets.put(bucketIndex, bucket);
+			if (headBucket == null || bucketIndex < headBucket.index) {
+				headBucket = bucket;
+			}
+			lastAccessedBucket = bucket;
+		}
+		return bucket;
+	}
+
+	private void removeBucket(Bucket bucket) {
+		buckets.remove(bucket.index);
+		if (lastAccessedBucket == bucket) {
+			lastAccessedBucket = null;
+		}
+		if (headBucket == bucket) {
+			headBucket = buckets.isEmpty() ? null : buckets.firstEntry().getValue();
+		}
+	}
+
+	private HashMap<T, T> getDedupMapForKeyGroup(
+		@Nonnegative int keyGroupId) {
+		return deduplicationMapsByKeyGroup[globalKeyGroupToLocalIndex(keyGroupId)];
+	}
+
+	private HashMap<T, T> getDedupMapForElement(T element) {
+		int keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(
+			keyExtractor.extractKeyFromElement(element),
+			totalNumberOfKeyGroups);
+		return getDedupMapForKeyGroup(keyGroup);
+	}
+
+	private int globalKeyGroupToLocalIndex(int keyGroup) {
+		checkArgument(keyGroupRange.contains(keyGroup), "%s does not contain key group %s", keyGroupRange, keyGroup);
+		return keyGroup - keyGroupRange.getStartKeyGroup();
+	}
+
+	/**
+	 * Returns whether the head bucket is currently sorted, or {@code true} if the queue is empty.
+	 */
+	@VisibleForTesting
+	boolean isHeadBucketSorted() {
+		return headBucket == null || headBucket.sorted;
+	}
+
+	/**
+	 * The elements with timestamps in the range of one bucket. The elements are stored in a range of an array, in which
+	 * each element knows its index through {@link HeapPriorityQueueElement#getInternalIndex()}. When the bucket is
+	 * sorted, the range is ordered from the lowest to the highest priority, so that the head element is the last
+	 * element. The range can start after the beginning of the array, so that elements can be inserted into a sorted
+	 * bucket by shifting either the elements before or after their position.
+	 */
+	private final class Bucket {
+
+		private static final int INITIAL_CAPACITY = 8;
+
+		private final long index;
+
+		private T[] elements;
+
+		/** The index of the first element in {@link #elements}. */
+		private int first;
+
+		/** The index after the last element in {@link #elements}. */
+		private int end;
+
+		/** Whether the elements are currently ordered by priority. */
+		private boolean sorted;
+
+		@SuppressWarnings("unchecked")
+		Bucket(long index) {
+			this.index = index;
+			this.elements = (T[]) new HeapPriorityQueueElement[INITIAL_CAPACITY];
+			this.first = 0;
+			this.end = 0;
+			this.sorted = true;
+		}
+
+		boolean isEmpty() {
+			return first == end;
+		}
+
+		void add(T element) {
+			// appending keeps the order if the element does not have a lower priority than the current head
+			if (sorted && !isEmpty() && reversePriorityComparator.compare(element, elements[end - 1]) < 0) {
+				if (this == headBucket) {
+					// keep the head bucket sorted, so that the next access to its head does not sort it again
+					insertSorted(element);
+					return;
+				}
+				sorted = false;
+			}
+
+			if (end == elements.length) {
+				resize();
+			}
+			moveElementToIdx(element, end++);
+		}
+
+		void remove(T element) {
+			final int elementIndex = element.getInternalIndex();
+			if (elementIndex == end - 1) {
+				elements[--end] = null;
+			} else if (elementIndex == first) {
+				elements[first++] = null;
+			} else if (sorted && this == headBucket) {
+				// close the gap by shifting the smaller part, which keeps the order
+				if (elementIndex - first < end - 1 - elementIndex) {
+					shift(first, elementIndex, 1);
+					elements[first++] = null;
+				} else {
+					shift(elementIndex + 1, end, -1);
+					elements[--end] = null;
+				}
+			} else {
+				// filling the gap with the last element breaks the order
+				moveElementToIdx(elements[end - 1], elementIndex);
+				elements[--end] = null;
+				sorted = false;
+			}
+			element.setInternalIndex(HeapPriorityQueueElement.NOT_CONTAINED);
+		}
+
+		T peek() {
+			sortIfRequired();
+			return elements[end - 1];
+		}
+
+		T poll() {
+			final T head = peek();
+			elements[--end] = null;
+			head.setInternalIndex(HeapPriorityQueueElement.NOT_CONTAINED);
+			return head;
+		}
+
+		/**
+		 * Inserts the element into the sorted elements, behind all elements with the same or a lower priority. The
+		 * element must have a lower priority than the head element.
+		 */
+		private void insertSorted(T element) {
+			if (first == 0 && end == elements.length) {
+				resize();
+			}
+
+			// binary search for the first element with a higher priority, the head element is known to be one
+			int low = first;
+			int high = end - 1;
+			while (low < high) {
+				final int mid = (low + high) >>> 1;
+				if (reversePriorityComparator.compare(elements[mid], element) > 0) {
+					high = mid;
+				} else {
+					low = mid + 1;
+				}
+			}
+
+			final int position = low;
+			if (first > 0 && (position - first <= end - position || end == elements.length)) {
+				shift(first, position, -1);
+				--first;
+				moveElementToIdx(element, position - 1);
+			} else {
+				shift(position, end, 1);
+				++end;
+				moveElementToIdx(element, position);
+			}
+		}
+
+		/**
+		 * Moves the elements in the range {@code [from, to)} by {@code distance} positions.
+		 */
+		private void shift(int from, int to, int distance) {
+			System.arraycopy(elements, from, elements, from + distance, to - from);
+			for (int i = from + distance; i < to + distance; ++i) {
+				elements[i].setInternalIndex(i);
+			}
+		}
+
+		/**
+		 * Moves the elements into a new array with room at both ends, which is twice as large if the current array is
+		 * more than half full.
+		 */
+		@SuppressWarnings("unchecked")
+		private void resize() {
+			final int numElements = end - first;
+			final int capacity = numElements > elements.length / 2 ? elements.length * 2 : elements.length;
+			final T[] resized = (T[]) new HeapPriorityQueueElement[capacity];
+			final int newFirst = (capacity - numElements) / 2;
+			System.arraycopy(elements, first, resized, newFirst, numElements);
+			elements = resized;
+			first = newFirst;
+			end = newFirst + numElements;
+			for (int i = first; i < end; ++i) {
+				elements[i].setInternalIndex(i);
+			}
+		}
+
+		private void sortIfRequired() {
+			if (!sorted) {
+				Arrays.sort(elements, first, end, reversePriorityComparator);
+				for (int i = first; i < end; ++i) {
+					elements[i].setInternalIndex(i);
+				}
+				sorted = true;
+			}
+		}
+
+		private void moveElementToIdx(T element, int idx) {
+			elements[idx] = element;
+			element.setInternalIndex(idx);
+		}
+	}
+
+	/**
+	 * {@link Iterator} over the elements of all buckets, in no particular order. {@link Iterator#remove()} is not
+	 * supported.
+	 */
+	private final class BucketsIterator implements Iterator<T> {
+
+		private final Iterator<Bucket> bucketIterator;
+
+		private Bucket currentBucket;
+
+		private int runningIdx;
+
+		BucketsIterator() {
+			this.bucketIterator = buckets.values().iterator();
+			this.currentBucket = null;
+			this.runningIdx = 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (currentBucket == null || runningIdx >= currentBucket.end) {
+				if (!bucketIterator.hasNext()) {
+					return false;
+				}
+				currentBucket = bucketIterator.next();
+				runningIdx = currentBucket.first;
+			}
+			return true;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("Iterator has no next element.");
+			}
+			return currentBucket.elements[runningIdx++];
+		}
+	}
+}
@@ -24,6 +24,10 @@ import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.runtime.state.internal.InternalValueState;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Heap-backed partitioned {@link ValueState} that is snapshotted into files.
  *
@@ -90,6 +94,29 @@ class HeapValueState<K, N, V>
 		stateTable.put(currentNamespace, value);
 	}
 
+	@Override
+	public Map<K, V> multiGet(Collection<K> keys) {
+		final Map<K, V> result = new HashMap<>(keys.size());
+
+		for (K key : keys) {
+			final V value = stateTable.get(key, currentNamespace);
+			result.put(key, value != null ? value : getDefaultValue());
+		}
+
+		return result;
+	}
+
+	@Override
+	public void multiPut(Map<K, V> values) {
+		for (Map.Entry<K, V> entry : values.entrySet()) {
+			if (entry.getValue() == null) {
+				stateTable.remove(entry.getKey(), currentNamespace);
+			} else {
+				stateTable.put(entry.getKey(), currentNamespace, entry.getValue());
+			}
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	static <K, N, SV, S extends State, IS extends S> IS create(
 		StateDescriptor<S, SV> stateDesc,
@@ -101,6 +101,15 @@ public abstract class StateTable<K, N, S>
 
 	protected abstract StateMap<K, N, S> createStateMap();
 
+	/**
+	 * Returns whether modifications of a state returned by this table must be written back to the table, because
+	 * the table stores copies of the states or tracks the changed states. Otherwise, the returned states are the
+	 * stored ones, which are modified in place.
+	 */
+	public boolean requiresWriteBack() {
+		return false;
+	}
+
 	// Main interface methods of StateTable -------------------------------------------------------
 
 	/**
@@ -219,6 +228,35 @@ public abstract class StateTable<K, N, S>
 		return get(key, keyGroup, namespace);
 	}
 
+	// For batched access ------------------------------------------------------------------------
+
+	/**
+	 * Maps the composite of the given key and namespace to the specified state, independently of the
+	 * current key. This is used for batched updates of the state.
+	 *
+	 * @param key       the key. Not null.
+	 * @param namespace the namespace. Not null.
+	 * @param state     the state. Can be null.
+	 */
+	public void put(K key, N namespace, S state) {
+		int keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(key, keyContext.getNumberOfKeyGroups());
+		put(key, keyGroup, namespace, state);
+	}
+
+	/**
+	 * Removes the mapping for the composite of the given key and namespace, independently of the
+	 * current key. This is used for batched updates of the state.
+	 *
+	 * @param key       the key. Not null.
+	 * @param namespace the namespace. Not null.
+	 */
+	public void remove(K key, N namespace) {
+		int keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(key, keyContext.getNumberOfKeyGroups());
+		remove(key, keyGroup, namespace);
+	}
+
+	// ------------------------------------------------------------------------
+
 	public Stream<K> getKeys(N namespace) {
 		return Arrays.stream(keyGroupedStateMaps)
 			.flatMap(stateMap -> StreamSupport.stream(Spliterators.spliteratorUnknownSize(stateMap.iterator(), 0), false))
@@ -257,7 +295,7 @@ public abstract class StateTable<K, N, S>
 		Preconditions.checkNotNull(namespace, "Provided namespace is null.");
 	}
 
-	private void remove(K key, int keyGroupIndex, N namespace) {
+	void remove(K key, int keyGroupIndex, N namespace) {
 		checkKeyNamespacePreconditions(key, namespace);
 
 		StateMap<K, N, S> stateMap = getMapForKeyGroup(keyGroupIndex);
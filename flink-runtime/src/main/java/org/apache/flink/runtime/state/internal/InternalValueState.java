@@ -20,6 +20,10 @@ package org.apache.flink.runtime.state.internal;
 
 import org.apache.flink.api.common.state.ValueState;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * The peer to the {@link ValueState} in the internal state type hierarchy.
  * 
@@ -29,4 +33,27 @@ import org.apache.flink.api.common.state.ValueState;
  * @param <N> The type of the namespace
  * @param <T> The type of elements in the list
  */
-public interface InternalValueState<K, N, T> extends InternalKvState<K, N, T>, ValueState<T> {}
+public interface InternalValueState<K, N, T> extends InternalKvState<K, N, T>, ValueState<T> {
+
+	/**
+	 * Returns the values of the given keys in the current namespace, without changing the current key.
+	 * This is equivalent to calling {@link #value()} for each of the keys, but allows the state backend
+	 * to batch the accesses to its underlying store.
+	 *
+	 * @param keys The keys to look up.
+	 * @return A map from each of the given keys to its value, or to the default value of the state if
+	 * the key has no value.
+	 * @throws IOException Thrown if the system cannot access the state.
+	 */
+	Map<K, T> multiGet(Collection<K> keys) throws IOException;
+
+	/**
+	 * Updates the values of the given keys in the current namespace, without changing the current key.
+	 * This is equivalent to calling {@link #update(Object)} for each of the keys, so a null value clears
+	 * the state of its key, but allows the state backend to batch the writes to its underlying store.
+	 *
+	 * @param values A map from the keys to update to their new values.
+	 * @throws IOException Thrown if the system cannot access the state.
+	 */
+	void multiPut(Map<K, T> values) throws IOException;
+}
@@ -23,6 +23,9 @@ import org.apache.flink.runtime.state.internal.InternalValueState;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This class wraps value state with TTL logic.
@@ -50,6 +53,36 @@ class TtlValueState<K, N, T>
 		original.update(wrapWithTs(value));
 	}
 
+	@Override
+	public Map<K, T> multiGet(Collection<K> keys) throws IOException {
+		Map<K, TtlValue<T>> ttlValues = original.multiGet(keys);
+		Map<K, T> result = new HashMap<>(ttlValues.size());
+		// expired values are cleared and read values are renewed with a single batched update
+		Map<K, TtlValue<T>> updates = new HashMap<>();
+		for (Map.Entry<K, TtlValue<T>> entry : ttlValues.entrySet()) {
+			accessCallback.run();
+			K key = entry.getKey();
+			result.put(key, getWithTtlCheckAndUpdate(
+				entry::getValue,
+				ttlValue -> updates.put(key, ttlValue),
+				() -> updates.put(key, null)));
+		}
+		if (!updates.isEmpty()) {
+			original.multiPut(updates);
+		}
+		return result;
+	}
+
+	@Override
+	public void multiPut(Map<K, T> values) throws IOException {
+		Map<K, TtlValue<T>> ttlValues = new HashMap<>(values.size());
+		for (Map.Entry<K, T> entry : values.entrySet()) {
+			accessCallback.run();
+			ttlValues.put(entry.getKey(), entry.getValue() == null ? null : wrapWithTs(entry.getValue()));
+		}
+		original.multiPut(ttlValues);
+	}
+
 	@Nullable
 	@Override
 	public TtlValue<T> getUnexpiredOrNull(@Nonnull TtlValue<T> ttlValue) {
@@ -186,7 +186,9 @@ public class KvStateService {
 				numStateServerNetworkThreads,
 				numStateServerQueryThreads,
 				kvStateRegistry,
-				new DisabledKvStateRequestStats());
+				new DisabledKvStateRequestStats(),
+				qsConfig.getStateServerCacheTtl(),
+				qsConfig.getStateServerCacheMaxEntries());
 		}
 
 		return new KvStateService(kvStateRegistry, kvStateServer, kvClientProxy);
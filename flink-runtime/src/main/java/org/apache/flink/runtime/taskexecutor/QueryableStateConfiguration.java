@@ -43,13 +43,19 @@ public class QueryableStateConfiguration {
 
 	private final int numSQueryThreads;
 
+	private final long serverCacheTtl;
+
+	private final int serverCacheMaxEntries;
+
 	public QueryableStateConfiguration(
 			Iterator<Integer> proxyPortRange,
 			Iterator<Integer> qserverPortRange,
 			int numProxyThreads,
 			int numPQueryThreads,
 			int numServerThreads,
-			int numSQueryThreads) {
+			int numSQueryThreads,
+			long serverCacheTtl,
+			int serverCacheMaxEntries) {
 
 		checkArgument(proxyPortRange != null && proxyPortRange.hasNext());
 		checkArgument(qserverPortRange != null && qserverPortRange.hasNext());
@@ -57,6 +63,9 @@ public class QueryableStateConfiguration {
 		checkArgument(numPQueryThreads >= 0, "queryable state number of proxy query threads must be zero or larger");
 		checkArgument(numServerThreads >= 0, "queryable state number of server threads must be zero or larger");
 		checkArgument(numSQueryThreads >= 0, "queryable state number of query threads must be zero or larger");
+		checkArgument(serverCacheTtl >= 0L, "queryable state server cache TTL must be zero or larger");
+		checkArgument(serverCacheTtl == 0L || serverCacheMaxEntries > 0,
+			"queryable state server cache size must be larger than zero if the cache is enabled");
 
 		this.proxyPortRange = proxyPortRange;
 		this.qserverPortRange = qserverPortRange;
@@ -64,6 +73,8 @@ public class QueryableStateConfiguration {
 		this.numPQueryThreads = numPQueryThreads;
 		this.numServerThreads = numServerThreads;
 		this.numSQueryThreads = numSQueryThreads;
+		this.serverCacheTtl = serverCacheTtl;
+		this.serverCacheMaxEntries = serverCacheMaxEntries;
 	}
 
 	// ------------------------------------------------------------------------
@@ -115,6 +126,21 @@ public class QueryableStateConfiguration {
 		return numSQueryThreads;
 	}
 
+	/**
+	 * Returns the time-to-live in milliseconds of query results cached by the queryable state server.
+	 * A value of zero means that results are not cached.
+	 */
+	public long getStateServerCacheTtl() {
+		return serverCacheTtl;
+	}
+
+	/**
+	 * Returns the maximum number of query results cached by the queryable state server.
+	 */
+	public int getStateServerCacheMaxEntries() {
+		return serverCacheMaxEntries;
+	}
+
 	// ------------------------------------------------------------------------
 
 	@Override
@@ -124,6 +150,8 @@ public class QueryableStateConfiguration {
 				", numProxyQueryThreads=" + numPQueryThreads +
 				", numStateServerThreads=" + numServerThreads +
 				", numStateQueryThreads=" + numSQueryThreads +
+				", stateServerCacheTtl=" + serverCacheTtl +
+				", stateServerCacheMaxEntries=" + serverCacheMaxEntries +
 				'}';
 	}
 
@@ -135,7 +163,7 @@ public class QueryableStateConfiguration {
 	public static QueryableStateConfiguration disabled() {
 		final Iterator<Integer> proxyPorts = NetUtils.getPortRangeFromString(QueryableStateOptions.PROXY_PORT_RANGE.defaultValue());
 		final Iterator<Integer> serverPorts = NetUtils.getPortRangeFromString(QueryableStateOptions.SERVER_PORT_RANGE.defaultValue());
-		return new QueryableStateConfiguration(proxyPorts, serverPorts, 0, 0, 0, 0);
+		return new QueryableStateConfiguration(proxyPorts, serverPorts, 0, 0, 0, 0, 0L, 0);
 	}
 
 	/**
@@ -157,12 +185,17 @@ public class QueryableStateConfiguration {
 		final int numStateServerNetworkThreads = config.getInteger(QueryableStateOptions.SERVER_NETWORK_THREADS);
 		final int numStateServerQueryThreads = config.getInteger(QueryableStateOptions.SERVER_ASYNC_QUERY_THREADS);
 
+		final long stateServerCacheTtl = config.getLong(QueryableStateOptions.SERVER_CACHE_TTL);
+		final int stateServerCacheMaxEntries = config.getInteger(QueryableStateOptions.SERVER_CACHE_MAX_ENTRIES);
+
 		return new QueryableStateConfiguration(
 			proxyPorts,
 			serverPorts,
 			numProxyServerNetworkThreads,
 			numProxyServerQueryThreads,
 			numStateServerNetworkThreads,
-			numStateServerQueryThreads);
+			numStateServerQueryThreads,
+			stateServerCacheTtl,
+			stateServerCacheMaxEntries);
 	}
 }
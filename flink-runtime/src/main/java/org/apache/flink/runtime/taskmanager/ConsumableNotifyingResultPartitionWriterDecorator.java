@@ -20,7 +20,9 @@ package org.apache.flink.runtime.taskmanager;
 
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.runtime.deployment.ResultPartitionDeploymentDescriptor;
+import org.apache.flink.runtime.io.network.api.writer.OutputFlusher;
 import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferBuilder;
 import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionConsumableNotifier;
@@ -28,6 +30,7 @@ import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -98,6 +101,24 @@ public class ConsumableNotifyingResultPartitionWriterDecorator implements Result
 		return success;
 	}
 
+	@Override
+	public boolean addBufferConsumer(
+			BufferConsumer bufferConsumer,
+			int subpartitionIndex,
+			boolean isPriorityEvent) throws IOException {
+		boolean success = partitionWriter.addBufferConsumer(bufferConsumer, subpartitionIndex, isPriorityEvent);
+		if (success) {
+			notifyPipelinedConsumers();
+		}
+
+		return success;
+	}
+
+	@Override
+	public List<Buffer> requestInflightBufferSnapshot(int subpartitionIndex) {
+		return partitionWriter.requestInflightBufferSnapshot(subpartitionIndex);
+	}
+
 	@Override
 	public void flushAll() {
 		partitionWriter.flushAll();
@@ -108,6 +129,11 @@ public class ConsumableNotifyingResultPartitionWriterDecorator implements Result
 		partitionWriter.flush(subpartitionIndex);
 	}
 
+	@Override
+	public OutputFlusher getOutputFlusher() {
+		return partitionWriter.getOutputFlusher();
+	}
+
 	@Override
 	public void finish() throws IOException {
 		partitionWriter.finish();
@@ -21,6 +21,7 @@ package org.apache.flink.runtime.taskmanager;
 import org.apache.flink.metrics.Counter;
 import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.io.network.partition.consumer.BufferOrEvent;
+import org.apache.flink.runtime.io.network.partition.consumer.InputChannel;
 import org.apache.flink.runtime.io.network.partition.consumer.InputGate;
 import org.apache.flink.runtime.metrics.groups.TaskIOMetricGroup;
 
@@ -55,6 +56,11 @@ public class InputGateWithMetrics extends InputGate {
 		return inputGate.getNumberOfInputChannels();
 	}
 
+	@Override
+	public InputChannel getChannel(int channelIndex) {
+		return inputGate.getChannel(channelIndex);
+	}
+
 	@Override
 	public boolean isFinished() {
 		return inputGate.isFinished();
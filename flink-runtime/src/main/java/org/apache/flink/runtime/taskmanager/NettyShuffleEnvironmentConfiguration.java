@@ -72,8 +72,14 @@ public class NettyShuffleEnvironmentConfiguration {
 
 	private final boolean blockingShuffleCompressionEnabled;
 
+	private final boolean pipelinedShuffleCompressionEnabled;
+
 	private final String compressionCodec;
 
+	private final int sortShuffleMinParallelism;
+
+	private final int sortShuffleBufferSize;
+
 	public NettyShuffleEnvironmentConfiguration(
 			int numNetworkBuffers,
 			int networkBufferSize,
@@ -88,7 +94,10 @@ public class NettyShuffleEnvironmentConfiguration {
 			BoundedBlockingSubpartitionType blockingSubpartitionType,
 			boolean forcePartitionReleaseOnConsumption,
 			boolean blockingShuffleCompressionEnabled,
-			String compressionCodec) {
+			boolean pipelinedShuffleCompressionEnabled,
+			String compressionCodec,
+			int sortShuffleMinParallelism,
+			int sortShuffleBufferSize) {
 
 		this.numNetworkBuffers = numNetworkBuffers;
 		this.networkBufferSize = networkBufferSize;
@@ -103,7 +112,10 @@ public class NettyShuffleEnvironmentConfiguration {
 		this.blockingSubpartitionType = Preconditions.checkNotNull(blockingSubpartitionType);
 		this.forcePartitionReleaseOnConsumption = forcePartitionReleaseOnConsumption;
 		this.blockingShuffleCompressionEnabled = blockingShuffleCompressionEnabled;
+		this.pipelinedShuffleCompressionEnabled = pipelinedShuffleCompressionEnabled;
 		this.compressionCodec = Preconditions.checkNotNull(compressionCodec);
+		this.sortShuffleMinParallelism = sortShuffleMinParallelism;
+		this.sortShuffleBufferSize = sortShuffleBufferSize;
 	}
 
 	// ------------------------------------------------------------------------
@@ -160,10 +172,22 @@ public class NettyShuffleEnvironmentConfiguration {
 		return blockingShuffleCompressionEnabled;
 	}
 
+	public boolean isPipelinedShuffleCompressionEnabled() {
+		return pipelinedShuffleCompressionEnabled;
+	}
+
 	public String getCompressionCodec() {
 		return compressionCodec;
 	}
 
+	public int getSortShuffleMinParallelism() {
+		return sortShuffleMinParallelism;
+	}
+
+	public int getSortShuffleBufferSize() {
+		return sortShuffleBufferSize;
+	}
+
 	// ------------------------------------------------------------------------
 
 	/**
@@ -213,8 +237,13 @@ public class NettyShuffleEnvironmentConfiguration {
 
 		boolean blockingShuffleCompressionEnabled =
 			configuration.get(NettyShuffleEnvironmentOptions.BLOCKING_SHUFFLE_COMPRESSION_ENABLED);
+		boolean pipelinedShuffleCompressionEnabled =
+			configuration.get(NettyShuffleEnvironmentOptions.PIPELINED_SHUFFLE_COMPRESSION_ENABLED);
 		String compressionCodec = configuration.getString(NettyShuffleEnvironmentOptions.SHUFFLE_COMPRESSION_CODEC);
 
+		int sortShuffleMinParallelism = configuration.get(NettyShuffleEnvironmentOptions.NETWORK_SORT_SHUFFLE_MIN_PARALLELISM);
+		int sortShuffleBufferSize = getSortShuffleBufferSize(configuration, pageSize);
+
 		return new NettyShuffleEnvironmentConfiguration(
 			numberOfNetworkBuffers,
 			pageSize,
@@ -229,7 +258,10 @@ public class NettyShuffleEnvironmentConfiguration {
 			blockingSubpartitionType,
 			forcePartitionReleaseOnConsumption,
 			blockingShuffleCompressionEnabled,
-			compressionCodec);
+			pipelinedShuffleCompressionEnabled,
+			compressionCodec,
+			sortShuffleMinParallelism,
+			sortShuffleBufferSize);
 	}
 
 	/**
@@ -325,6 +357,18 @@ public class NettyShuffleEnvironmentConfiguration {
 		}
 	}
 
+	private static int getSortShuffleBufferSize(Configuration config, int pageSize) {
+		final long sortShuffleBufferSize = config.get(NettyShuffleEnvironmentOptions.NETWORK_SORT_SHUFFLE_BUFFER_SIZE).getBytes();
+
+		ConfigurationParserUtils.checkConfigParameter(
+			sortShuffleBufferSize > pageSize && sortShuffleBufferSize <= Integer.MAX_VALUE,
+			sortShuffleBufferSize,
+			NettyShuffleEnvironmentOptions.NETWORK_SORT_SHUFFLE_BUFFER_SIZE.key(),
+			"The sort buffer must be larger than a network buffer and smaller than 2 GB.");
+
+		return (int) sortShuffleBufferSize;
+	}
+
 	// ------------------------------------------------------------------------
 
 	@Override
@@ -341,7 +385,10 @@ public class NettyShuffleEnvironmentConfiguration {
 		result = 31 * result + Arrays.hashCode(tempDirs);
 		result = 31 * result + (forcePartitionReleaseOnConsumption ? 1 : 0);
 		result = 31 * result + (blockingShuffleCompressionEnabled ? 1 : 0);
+		result = 31 * result + (pipelinedShuffleCompressionEnabled ? 1 : 0);
 		result = 31 * result + Objects.hashCode(compressionCodec);
+		result = 31 * result + sortShuffleMinParallelism;
+		result = 31 * result + sortShuffleBufferSize;
 		return result;
 	}
 
@@ -367,7 +414,10 @@ public class NettyShuffleEnvironmentConfiguration {
 					Arrays.equals(this.tempDirs, that.tempDirs) &&
 					this.forcePartitionReleaseOnConsumption == that.forcePartitionReleaseOnConsumption &&
 					this.blockingShuffleCompressionEnabled == that.blockingShuffleCompressionEnabled &&
-					Objects.equals(this.compressionCodec, that.compressionCodec);
+					this.pipelinedShuffleCompressionEnabled == that.pipelinedShuffleCompressionEnabled &&
+					Objects.equals(this.compressionCodec, that.compressionCodec) &&
+					this.sortShuffleMinParallelism == that.sortShuffleMinParallelism &&
+					this.sortShuffleBufferSize == that.sortShuffleBufferSize;
 		}
 	}
 
@@ -385,7 +435,10 @@ public class NettyShuffleEnvironmentConfiguration {
 				", tempDirs=" + Arrays.toString(tempDirs) +
 				", forcePartitionReleaseOnConsumption=" + forcePartitionReleaseOnConsumption +
 				", blockingShuffleCompressionEnabled=" + blockingShuffleCompressionEnabled +
+				", pipelinedShuffleCompressionEnabled=" + pipelinedShuffleCompressionEnabled +
 				", compressionCodec=" + compressionCodec +
+				", sortShuffleMinParallelism=" + sortShuffleMinParallelism +
+				", sortShuffleBufferSize=" + sortShuffleBufferSize +
 				'}';
 	}
 }
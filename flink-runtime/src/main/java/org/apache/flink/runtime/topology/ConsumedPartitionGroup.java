@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.topology;
+
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A group of {@link Result}s of the same type which are consumed together by a vertex.
+ *
+ * <p>For an all-to-all connection, every consumer vertex consumes all partitions of the producing
+ * intermediate result. Instead of expanding this into one edge per producer/consumer pair, all consumer
+ * vertices share the same group instance, so that algorithms working on the topology can process such
+ * a connection once per group instead of once per edge. Groups are therefore compared by identity.
+ *
+ * @param <R> type of the grouped results
+ */
+public final class ConsumedPartitionGroup<R> implements Iterable<R> {
+
+	private final List<R> results;
+
+	private final ResultPartitionType resultType;
+
+	public ConsumedPartitionGroup(List<R> results, ResultPartitionType resultType) {
+		checkArgument(!results.isEmpty(), "A consumed partition group must not be empty.");
+		this.results = Collections.unmodifiableList(results);
+		this.resultType = checkNotNull(resultType);
+	}
+
+	/**
+	 * Returns the type shared by all results of this group.
+	 */
+	public ResultPartitionType getResultType() {
+		return resultType;
+	}
+
+	public List<R> getResults() {
+		return results;
+	}
+
+	public R getFirst() {
+		return results.get(0);
+	}
+
+	public int size() {
+		return results.size();
+	}
+
+	@Override
+	public Iterator<R> iterator() {
+		return results.iterator();
+	}
+}
@@ -20,6 +20,8 @@ package org.apache.flink.runtime.topology;
 
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 
+import java.util.Collections;
+
 /**
  * Represents a data set produced by a {@link Vertex}
  * Each result is produced by one {@link Vertex}.
@@ -35,4 +37,17 @@ public interface Result<VID extends VertexID, RID extends ResultID,
 	V getProducer();
 
 	Iterable<V> getConsumers();
+
+	/**
+	 * Returns the consumers grouped by the connection they consume this result through. Results which
+	 * are consumed via the same all-to-all connection return the same group instances, so callers can
+	 * de-duplicate the groups by identity instead of visiting every consumer of every result.
+	 *
+	 * <p>The default implementation returns all consumers as a single group.
+	 *
+	 * @return groups of the consumers
+	 */
+	default Iterable<? extends Iterable<V>> getConsumerGroups() {
+		return Collections.singletonList(getConsumers());
+	}
 }
@@ -18,6 +18,10 @@
 
 package org.apache.flink.runtime.topology;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Represents a logical or execution task.
  * Each vertex can consume data from multiple {@link Result}.
@@ -30,5 +34,23 @@ public interface Vertex<VID extends VertexID, RID extends ResultID,
 
 	Iterable<R> getConsumedResults();
 
+	/**
+	 * Returns the consumed results grouped by the connection they are consumed through. Results which
+	 * are consumed via an all-to-all connection form a single group which is shared by all consumers.
+	 *
+	 * <p>The default implementation puts each consumed result into a group of its own.
+	 *
+	 * @return groups of the consumed results
+	 */
+	default Iterable<ConsumedPartitionGroup<R>> getConsumedPartitionGroups() {
+		final List<ConsumedPartitionGroup<R>> groups = new ArrayList<>();
+		for (R consumedResult : getConsumedResults()) {
+			groups.add(new ConsumedPartitionGroup<>(
+				Collections.singletonList(consumedResult),
+				consumedResult.getResultType()));
+		}
+		return groups;
+	}
+
 	Iterable<R> getProducedResults();
 }
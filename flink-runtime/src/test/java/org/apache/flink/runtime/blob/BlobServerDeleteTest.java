@@ -36,6 +36,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
@@ -52,6 +53,7 @@ import static org.apache.flink.runtime.blob.BlobServerGetTest.verifyDeleted;
 import static org.apache.flink.runtime.blob.BlobServerPutTest.put;
 import static org.apache.flink.runtime.blob.BlobServerPutTest.verifyContents;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -148,6 +150,42 @@ public class BlobServerDeleteTest extends TestLogger {
 		}
 	}
 
+	/**
+	 * Uploads two permanent BLOBs for a job and verifies that deleting one of them removes it from the
+	 * local storage and the HA store without affecting the other.
+	 */
+	@Test
+	public void testDeletePermanent() throws IOException {
+		final Configuration config = new Configuration();
+		config.setString(BlobServerOptions.STORAGE_DIRECTORY, temporaryFolder.newFolder().getAbsolutePath());
+
+		final List<BlobKey> deletedFromBlobStore = new ArrayList<>();
+		final BlobStore blobStore = new TestingBlobStoreBuilder()
+			.setDeleteFunction((jobId, blobKey) -> deletedFromBlobStore.add(blobKey))
+			.createTestingBlobStore();
+
+		try (BlobServer server = new BlobServer(config, blobStore)) {
+
+			server.start();
+
+			final JobID jobId = new JobID();
+			byte[] data = new byte[2000000];
+			rnd.nextBytes(data);
+
+			PermanentBlobKey key1 = (PermanentBlobKey) put(server, jobId, data, PERMANENT_BLOB);
+			PermanentBlobKey key2 = (PermanentBlobKey) put(server, jobId, data, PERMANENT_BLOB);
+
+			assertTrue(server.deletePermanent(jobId, key1));
+
+			assertFalse(server.getStorageLocation(jobId, key1).exists());
+			assertEquals(Collections.singletonList(key1), deletedFromBlobStore);
+			verifyContents(server, jobId, key2, data);
+
+			// deleting a BLOB which does not exist any more should not fail
+			assertTrue(server.deletePermanent(jobId, key1));
+		}
+	}
+
 	@Test
 	public void testDeleteTransientAlreadyDeletedNoJob() throws IOException {
 		testDeleteTransientAlreadyDeleted(null);
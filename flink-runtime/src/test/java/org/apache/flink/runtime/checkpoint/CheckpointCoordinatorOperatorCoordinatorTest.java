@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.runtime.concurrent.Executors;
+import org.apache.flink.runtime.concurrent.ManuallyTriggeredScheduledExecutor;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.jobgraph.tasks.CheckpointCoordinatorConfiguration;
+import org.apache.flink.runtime.messages.checkpoint.AcknowledgeCheckpoint;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
+import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.memory.MemoryStateBackend;
+import org.apache.flink.runtime.state.testutils.TestCompletedCheckpointStorageLocation;
+
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.apache.flink.runtime.checkpoint.CheckpointCoordinatorTestingUtils.mockExecutionJobVertex;
+import static org.apache.flink.runtime.checkpoint.CheckpointCoordinatorTestingUtils.mockExecutionVertex;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that the checkpoint coordinator checkpoints, notifies and restores the
+ * {@link OperatorCoordinator operator coordinators}.
+ */
+public class CheckpointCoordinatorOperatorCoordinatorTest {
+
+	private static final byte[] COORDINATOR_STATE = new byte[] {1, 2, 3, 4};
+
+	@Test
+	public void testCoordinatorIsCheckpointedAndNotified() throws Exception {
+		final JobID jid = new JobID();
+		final ExecutionAttemptID execId = new ExecutionAttemptID();
+		final ManuallyTriggeredScheduledExecutor timer = new ManuallyTriggeredScheduledExecutor();
+		final CheckpointCoordinator cc = instantiateCheckpointCoordinator(jid, timer, mockExecutionVertex(execId));
+
+		final OperatorCoordinator coordinator = mock(OperatorCoordinator.class);
+		when(coordinator.checkpointCoordinator(anyLong())).thenReturn(CompletableFuture.completedFuture(COORDINATOR_STATE));
+		final OperatorCoordinatorCheckpointContext context = createContext(coordinator, new JobVertexID());
+		cc.addOperatorCoordinator(context);
+
+		final CompletableFuture<CompletedCheckpoint> checkpointFuture = cc.triggerCheckpoint(System.currentTimeMillis(), false);
+		timer.triggerAll();
+		assertEquals(1, cc.getNumberOfPendingCheckpoints());
+
+		final long checkpointId = cc.getPendingCheckpoints().keySet().iterator().next();
+		verify(coordinator).checkpointCoordinator(checkpointId);
+		verify(coordinator, never()).checkpointComplete(anyLong());
+
+		cc.receiveAcknowledgeMessage(new AcknowledgeCheckpoint(jid, execId, checkpointId), "Unknown location");
+		assertTrue(checkpointFuture.isDone());
+		verify(coordinator).checkpointComplete(checkpointId);
+
+		final Collection<MasterState> masterStates = cc.getCheckpointStore().getLatestCheckpoint(false).getMasterHookStates();
+		assertEquals(1, masterStates.size());
+		final MasterState state = masterStates.iterator().next();
+		assertEquals(context.stateName(), state.name());
+		assertArrayEquals(COORDINATOR_STATE, state.bytes());
+	}
+
+	@Test
+	public void testFailedCoordinatorCheckpointFailsCheckpoint() throws Exception {
+		final ManuallyTriggeredScheduledExecutor timer = new ManuallyTriggeredScheduledExecutor();
+		final CheckpointCoordinator cc = instantiateCheckpointCoordinator(
+			new JobID(), timer, mockExecutionVertex(new ExecutionAttemptID()));
+
+		final OperatorCoordinator coordinator = mock(OperatorCoordinator.class);
+		final CompletableFuture<byte[]> failedCheckpoint = new CompletableFuture<>();
+		failedCheckpoint.completeExceptionally(new Exception("test failure"));
+		when(coordinator.checkpointCoordinator(anyLong())).thenReturn(failedCheckpoint);
+		cc.addOperatorCoordinator(createContext(coordinator, new JobVertexID()));
+
+		final CompletableFuture<CompletedCheckpoint> checkpointFuture = cc.triggerCheckpoint(System.currentTimeMillis(), false);
+		timer.triggerAll();
+
+		assertTrue(checkpointFuture.isCompletedExceptionally());
+		assertEquals(0, cc.getNumberOfPendingCheckpoints());
+	}
+
+	@Test
+	public void testCoordinatorIsResetOnInitialRestore() throws Exception {
+		final JobID jid = new JobID();
+		final JobVertexID jobVertexId = new JobVertexID();
+		final CheckpointCoordinator cc = instantiateCheckpointCoordinator(jid, new ManuallyTriggeredScheduledExecutor());
+
+		final OperatorCoordinator coordinator = mock(OperatorCoordinator.class);
+		final OperatorCoordinatorCheckpointContext context = createContext(coordinator, jobVertexId);
+		cc.addOperatorCoordinator(context);
+		cc.getCheckpointStore().addCheckpoint(createCheckpoint(jid, new MasterState(context.stateName(), COORDINATOR_STATE, 1)));
+
+		assertTrue(cc.restoreInitialCheckpointIfPresent(Collections.singleton(context.jobVertex())));
+
+		verify(coordinator).resetToCheckpoint(eq(COORDINATOR_STATE));
+	}
+
+	@Test
+	public void testCoordinatorIsNotResetOnFailoverRestore() throws Exception {
+		final JobID jid = new JobID();
+		final CheckpointCoordinator cc = instantiateCheckpointCoordinator(jid, new ManuallyTriggeredScheduledExecutor());
+
+		final OperatorCoordinator coordinator = mock(OperatorCoordinator.class);
+		final OperatorCoordinatorCheckpointContext context = createContext(coordinator, new JobVertexID());
+		cc.addOperatorCoordinator(context);
+		cc.getCheckpointStore().addCheckpoint(createCheckpoint(jid, new MasterState(context.stateName(), COORDINATOR_STATE, 1)));
+
+		assertTrue(cc.restoreLatestCheckpointedState(Collections.singleton(context.jobVertex()), true, false));
+
+		verify(coordinator, never()).resetToCheckpoint(any(byte[].class));
+	}
+
+	@Test
+	public void testUnmatchedCoordinatorStateFailsRestore() throws Exception {
+		final JobID jid = new JobID();
+		final CheckpointCoordinator cc = instantiateCheckpointCoordinator(jid, new ManuallyTriggeredScheduledExecutor());
+
+		final OperatorCoordinatorCheckpointContext unknownContext =
+			createContext(mock(OperatorCoordinator.class), new JobVertexID());
+		cc.getCheckpointStore().addCheckpoint(createCheckpoint(jid, new MasterState(unknownContext.stateName(), COORDINATOR_STATE, 1)));
+
+		try {
+			cc.restoreInitialCheckpointIfPresent(Collections.emptySet());
+			fail("expected an exception");
+		} catch (IllegalStateException ignored) {}
+	}
+
+	// ------------------------------------------------------------------------
+	//  utilities
+	// ------------------------------------------------------------------------
+
+	private static OperatorCoordinatorCheckpointContext createContext(
+			OperatorCoordinator coordinator,
+			JobVertexID jobVertexId) throws Exception {
+
+		final ExecutionJobVertex jobVertex = mockExecutionJobVertex(jobVertexId, 1, 1);
+		return new OperatorCoordinatorCheckpointContext(coordinator, OperatorID.fromJobVertexID(jobVertexId), jobVertex);
+	}
+
+	private static CompletedCheckpoint createCheckpoint(JobID jid, MasterState masterState) {
+		return new CompletedCheckpoint(
+			jid, 13L, 123L, 125L,
+			Collections.<OperatorID, OperatorState>emptyMap(),
+			Collections.singletonList(masterState),
+			CheckpointProperties.forCheckpoint(CheckpointRetentionPolicy.NEVER_RETAIN_AFTER_TERMINATION),
+			new TestCompletedCheckpointStorageLocation());
+	}
+
+	private static CheckpointCoordinator instantiateCheckpointCoordinator(
+			JobID jid,
+			ManuallyTriggeredScheduledExecutor timer,
+			ExecutionVertex... ackVertices) {
+
+		final CheckpointCoordinatorConfiguration chkConfig = new CheckpointCoordinatorConfiguration(
+			10000000L,
+			600000L,
+			0L,
+			1,
+			CheckpointRetentionPolicy.NEVER_RETAIN_AFTER_TERMINATION,
+			true,
+			false,
+			0);
+		return new CheckpointCoordinator(
+			jid,
+			chkConfig,
+			new ExecutionVertex[0],
+			ackVertices,
+			new ExecutionVertex[0],
+			new StandaloneCheckpointIDCounter(),
+			new StandaloneCompletedCheckpointStore(10),
+			new MemoryStateBackend(),
+			Executors.directExecutor(),
+			timer,
+			SharedStateRegistry.DEFAULT_FACTORY,
+			new CheckpointFailureManager(0, NoOpFailJobCall.INSTANCE));
+	}
+}
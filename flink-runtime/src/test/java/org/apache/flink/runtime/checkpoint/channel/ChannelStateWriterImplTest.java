@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint.channel;
+
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter.ChannelStateWriteResult;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
+import org.apache.flink.runtime.io.network.buffer.NetworkBuffer;
+import org.apache.flink.runtime.state.memory.MemCheckpointStreamFactory;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link ChannelStateWriterImpl} and reading its results with {@link ChannelStateReader}.
+ */
+public class ChannelStateWriterImplTest extends TestLogger {
+
+	private static final long CHECKPOINT_ID = 42L;
+
+	@Test
+	public void testWriteAndRead() throws Exception {
+		ChannelStateWriterImpl writer = new ChannelStateWriterImpl("test");
+		InputChannelInfo inputChannel1 = new InputChannelInfo(0, 1);
+		InputChannelInfo inputChannel2 = new InputChannelInfo(1, 0);
+		ResultSubpartitionInfo subpartition = new ResultSubpartitionInfo(0, 3);
+
+		writer.start(CHECKPOINT_ID, new MemCheckpointStreamFactory(1024));
+		CompletableFuture<ChannelStateWriteResult> result = writer.getWriteResult(CHECKPOINT_ID);
+
+		Buffer buffer1 = createBuffer(1, 2, 3);
+		Buffer buffer2 = createBuffer(4);
+		Buffer buffer3 = createBuffer(5, 6);
+		Buffer buffer4 = createBuffer(7, 8, 9, 10);
+		writer.addInputData(CHECKPOINT_ID, inputChannel1, buffer1);
+		writer.addOutputData(CHECKPOINT_ID, subpartition, buffer2);
+		writer.addInputData(CHECKPOINT_ID, inputChannel2, buffer3);
+		writer.addInputData(CHECKPOINT_ID, inputChannel1, buffer4);
+
+		// the writer takes over the buffers
+		assertTrue(buffer1.isRecycled());
+		assertTrue(buffer4.isRecycled());
+
+		writer.finishInput(CHECKPOINT_ID);
+		assertFalse(result.isDone());
+		writer.finishOutput(CHECKPOINT_ID);
+		assertTrue(result.isDone());
+		assertEquals(0, writer.getNumberOfPendingCheckpoints());
+
+		ChannelStateWriteResult writeResult = result.get();
+		assertEquals(2, writeResult.getInputChannelStateHandles().size());
+		assertEquals(1, writeResult.getResultSubpartitionStateHandles().size());
+
+		ChannelStateReader reader = ChannelStateReader.read(
+			writeResult.getInputChannelStateHandles(),
+			writeResult.getResultSubpartitionStateHandles());
+
+		assertBuffers(reader.readInputData(inputChannel1), new byte[] {1, 2, 3}, new byte[] {7, 8, 9, 10});
+		assertBuffers(reader.readInputData(inputChannel2), new byte[] {5, 6});
+		assertBuffers(reader.readOutputData(subpartition), new byte[] {4});
+		assertFalse(reader.hasInputData());
+		assertFalse(reader.hasOutputData());
+		assertTrue(reader.readInputData(inputChannel1).isEmpty());
+	}
+
+	@Test
+	public void testNoDataResultsInEmptyResult() throws Exception {
+		ChannelStateWriterImpl writer = new ChannelStateWriterImpl("test");
+
+		writer.start(CHECKPOINT_ID, new MemCheckpointStreamFactory(1024));
+		CompletableFuture<ChannelStateWriteResult> result = writer.getWriteResult(CHECKPOINT_ID);
+		writer.addInputData(CHECKPOINT_ID, new InputChannelInfo(0, 0), createBuffer());
+		writer.finishOutput(CHECKPOINT_ID);
+		writer.finishInput(CHECKPOINT_ID);
+
+		assertTrue(result.get().getInputChannelStateHandles().isEmpty());
+		assertTrue(result.get().getResultSubpartitionStateHandles().isEmpty());
+	}
+
+	@Test
+	public void testAbort() throws Exception {
+		ChannelStateWriterImpl writer = new ChannelStateWriterImpl("test");
+
+		writer.start(CHECKPOINT_ID, new MemCheckpointStreamFactory(1024));
+		CompletableFuture<ChannelStateWriteResult> result = writer.getWriteResult(CHECKPOINT_ID);
+		writer.abort(CHECKPOINT_ID, new Exception("test"));
+
+		// data of an aborted checkpoint is dropped
+		Buffer buffer = createBuffer(1);
+		writer.addInputData(CHECKPOINT_ID, new InputChannelInfo(0, 0), buffer);
+		assertTrue(buffer.isRecycled());
+		assertEquals(0, writer.getNumberOfPendingCheckpoints());
+
+		try {
+			result.get();
+			fail("The result of an aborted checkpoint should fail.");
+		} catch (ExecutionException expected) {
+			assertEquals("test", expected.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testCloseAbortsPendingCheckpoints() {
+		ChannelStateWriterImpl writer = new ChannelStateWriterImpl("test");
+
+		writer.start(CHECKPOINT_ID, new MemCheckpointStreamFactory(1024));
+		writer.start(CHECKPOINT_ID + 1, new MemCheckpointStreamFactory(1024));
+		CompletableFuture<ChannelStateWriteResult> result = writer.getWriteResult(CHECKPOINT_ID);
+		writer.close();
+
+		assertTrue(result.isCompletedExceptionally());
+		assertEquals(0, writer.getNumberOfPendingCheckpoints());
+	}
+
+	@Test
+	public void testFailureOfStreamFailsResult() throws Exception {
+		ChannelStateWriterImpl writer = new ChannelStateWriterImpl("test");
+
+		// the memory stream factory fails on close if the state exceeds the maximum size
+		writer.start(CHECKPOINT_ID, new MemCheckpointStreamFactory(4));
+		CompletableFuture<ChannelStateWriteResult> result = writer.getWriteResult(CHECKPOINT_ID);
+		writer.addOutputData(CHECKPOINT_ID, new ResultSubpartitionInfo(0, 0), createBuffer(1, 2, 3, 4, 5, 6, 7, 8));
+		writer.finishInput(CHECKPOINT_ID);
+		writer.finishOutput(CHECKPOINT_ID);
+
+		assertTrue(result.isCompletedExceptionally());
+	}
+
+	private static Buffer createBuffer(int... data) {
+		byte[] bytes = new byte[data.length];
+		for (int i = 0; i < data.length; i++) {
+			bytes[i] = (byte) data[i];
+		}
+		return new NetworkBuffer(MemorySegmentFactory.wrap(bytes), FreeingBufferRecycler.INSTANCE, true, bytes.length);
+	}
+
+	private static void assertBuffers(List<Buffer> buffers, byte[]... expected) {
+		List<byte[]> actual = new ArrayList<>();
+		for (Buffer buffer : buffers) {
+			byte[] bytes = new byte[buffer.readableBytes()];
+			buffer.getNioBufferReadable().get(bytes);
+			actual.add(bytes);
+			buffer.recycleBuffer();
+		}
+		assertEquals(expected.length, actual.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertArrayEquals(expected[i], actual.get(i));
+		}
+	}
+}
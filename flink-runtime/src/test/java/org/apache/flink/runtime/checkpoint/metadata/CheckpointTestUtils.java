@@ -22,24 +22,30 @@ import org.apache.flink.configuration.ConfigConstants;
 import org.apache.flink.runtime.checkpoint.MasterState;
 import org.apache.flink.runtime.checkpoint.OperatorState;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.checkpoint.StateObjectCollection;
 import org.apache.flink.runtime.checkpoint.SubtaskState;
 import org.apache.flink.runtime.checkpoint.TaskState;
+import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
+import org.apache.flink.runtime.checkpoint.channel.ResultSubpartitionInfo;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.state.ChainedStateHandle;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
 import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.OperatorStateHandle;
 import org.apache.flink.runtime.state.OperatorStreamStateHandle;
+import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
 import org.apache.flink.runtime.state.StateHandleID;
 import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
 import org.apache.flink.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -135,6 +141,51 @@ public class CheckpointTestUtils {
 		return taskStates;
 	}
 
+	/**
+	 * Creates a random collection of OperatorState objects whose subtask states also contain the
+	 * in-flight data of unaligned checkpoints.
+	 */
+	public static Collection<OperatorState> createOperatorStatesWithChannelState(
+			Random random,
+			int numTaskStates,
+			int numSubtasksPerTask) {
+
+		Collection<OperatorState> operatorStates = createOperatorStates(random, numTaskStates, numSubtasksPerTask);
+
+		for (OperatorState operatorState : operatorStates) {
+			for (Map.Entry<Integer, OperatorSubtaskState> entry : new HashMap<>(operatorState.getSubtaskStates()).entrySet()) {
+				OperatorSubtaskState subtaskState = entry.getValue();
+
+				List<InputChannelStateHandle> inputChannelState = new ArrayList<>();
+				List<ResultSubpartitionStateHandle> resultSubpartitionState = new ArrayList<>();
+				for (int channelIdx = random.nextInt(3); channelIdx > 0; channelIdx--) {
+					inputChannelState.add(new InputChannelStateHandle(
+						new InputChannelInfo(random.nextInt(4), channelIdx),
+						createDummyStreamStateHandle(random),
+						Arrays.asList(0L, (long) random.nextInt(1024) + 1),
+						random.nextInt(1 << 20)));
+				}
+				for (int subpartitionIdx = random.nextInt(3); subpartitionIdx > 0; subpartitionIdx--) {
+					resultSubpartitionState.add(new ResultSubpartitionStateHandle(
+						new ResultSubpartitionInfo(random.nextInt(4), subpartitionIdx),
+						createDummyStreamStateHandle(random),
+						Arrays.asList(0L, (long) random.nextInt(1024) + 1),
+						random.nextInt(1 << 20)));
+				}
+
+				operatorState.putState(entry.getKey(), new OperatorSubtaskState(
+					subtaskState.getManagedOperatorState(),
+					subtaskState.getRawOperatorState(),
+					subtaskState.getManagedKeyedState(),
+					subtaskState.getRawKeyedState(),
+					new StateObjectCollection<>(inputChannelState),
+					new StateObjectCollection<>(resultSubpartitionState)));
+			}
+		}
+
+		return operatorStates;
+	}
+
 	/**
 	 * Creates a random collection of TaskState objects containing various types of state handles.
 	 */
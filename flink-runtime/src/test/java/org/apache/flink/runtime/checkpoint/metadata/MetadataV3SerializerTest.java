@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint.metadata;
+
+import org.apache.flink.core.memory.ByteArrayInputStreamWithPos;
+import org.apache.flink.core.memory.ByteArrayOutputStreamWithPos;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.checkpoint.MasterState;
+import org.apache.flink.runtime.checkpoint.OperatorState;
+
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Various tests for the version 3 format serializer of a checkpoint.
+ */
+public class MetadataV3SerializerTest {
+
+	@Test
+	public void testCheckpointWithTaskStateWithoutChannelState() throws Exception {
+		final Random rnd = new Random();
+
+		for (int i = 0; i < 100; ++i) {
+			final long checkpointId = rnd.nextLong() & 0x7fffffffffffffffL;
+			final Collection<OperatorState> operatorStates =
+					CheckpointTestUtils.createOperatorStates(rnd, rnd.nextInt(20) + 1, rnd.nextInt(20) + 1);
+
+			testCheckpointSerialization(checkpointId, operatorStates, Collections.emptyList());
+		}
+	}
+
+	@Test
+	public void testCheckpointWithChannelState() throws Exception {
+		final Random rnd = new Random();
+
+		for (int i = 0; i < 100; ++i) {
+			final long checkpointId = rnd.nextLong() & 0x7fffffffffffffffL;
+			final Collection<OperatorState> operatorStates =
+					CheckpointTestUtils.createOperatorStatesWithChannelState(rnd, rnd.nextInt(20) + 1, rnd.nextInt(20) + 1);
+			final Collection<MasterState> masterStates =
+					CheckpointTestUtils.createRandomMasterStates(rnd, rnd.nextInt(5));
+
+			testCheckpointSerialization(checkpointId, operatorStates, masterStates);
+		}
+	}
+
+	@Test
+	public void testVersion2MetadataCanBeReadByMetadataSerializers() throws Exception {
+		final Random rnd = new Random();
+		final Collection<OperatorState> operatorStates = CheckpointTestUtils.createOperatorStates(rnd, 5, 5);
+
+		ByteArrayOutputStreamWithPos baos = new ByteArrayOutputStreamWithPos();
+		DataOutputStream out = new DataOutputViewStreamWrapper(baos);
+		MetadataV2Serializer.serialize(new CheckpointMetadata(42L, operatorStates, Collections.emptyList()), out);
+		out.close();
+
+		DataInputStream in = new DataInputViewStreamWrapper(new ByteArrayInputStreamWithPos(baos.toByteArray()));
+		CheckpointMetadata deserialized = MetadataSerializers.getSerializer(MetadataV2Serializer.VERSION)
+			.deserialize(in, getClass().getClassLoader());
+
+		assertEquals(operatorStates, deserialized.getOperatorStates());
+	}
+
+	private void testCheckpointSerialization(
+			long checkpointId,
+			Collection<OperatorState> operatorStates,
+			Collection<MasterState> masterStates) throws IOException {
+
+		MetadataV3Serializer serializer = MetadataV3Serializer.INSTANCE;
+
+		ByteArrayOutputStreamWithPos baos = new ByteArrayOutputStreamWithPos();
+		DataOutputStream out = new DataOutputViewStreamWrapper(baos);
+
+		MetadataV3Serializer.serialize(new CheckpointMetadata(checkpointId, operatorStates, masterStates), out);
+		out.close();
+
+		DataInputStream in = new DataInputViewStreamWrapper(new ByteArrayInputStreamWithPos(baos.toByteArray()));
+		CheckpointMetadata deserialized = serializer.deserialize(in, getClass().getClassLoader());
+
+		assertEquals(checkpointId, deserialized.getCheckpointId());
+		assertEquals(operatorStates, deserialized.getOperatorStates());
+		assertEquals(masterStates.size(), deserialized.getMasterStates().size());
+	}
+}
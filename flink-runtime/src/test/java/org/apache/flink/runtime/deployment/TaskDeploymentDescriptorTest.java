@@ -29,9 +29,14 @@ import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.executiongraph.JobInformation;
 import org.apache.flink.runtime.executiongraph.TaskInformation;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.operators.BatchTask;
+import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
+import org.apache.flink.runtime.shuffle.UnknownShuffleDescriptor;
 import org.apache.flink.util.SerializedValue;
 import org.apache.flink.util.TestLogger;
 
@@ -129,6 +134,43 @@ public class TaskDeploymentDescriptorTest extends TestLogger {
 		}
 	}
 
+	@Test
+	public void testSerializedInputChannels() throws Exception {
+		final ShuffleDescriptor[] inputChannels = new ShuffleDescriptor[] {
+			new UnknownShuffleDescriptor(new ResultPartitionID()),
+			new UnknownShuffleDescriptor(new ResultPartitionID())
+		};
+		final TaskDeploymentDescriptor.MaybeOffloaded<ShuffleDescriptor[]> serializedInputChannels =
+			new TaskDeploymentDescriptor.NonOffloaded<>(new SerializedValue<>(inputChannels));
+
+		final InputGateDeploymentDescriptor orig = new InputGateDeploymentDescriptor(
+			new IntermediateDataSetID(), ResultPartitionType.PIPELINED, 0, serializedInputChannels);
+		final InputGateDeploymentDescriptor copy = CommonTestUtils.createCopySerializable(orig);
+
+		assertEquals(inputChannels.length, copy.getShuffleDescriptors().length);
+		for (int i = 0; i < inputChannels.length; i++) {
+			assertEquals(
+				inputChannels[i].getResultPartitionID(),
+				copy.getShuffleDescriptors()[i].getResultPartitionID());
+		}
+	}
+
+	@Test
+	public void testOffloadedInputChannels() throws Exception {
+		final InputGateDeploymentDescriptor inputGate = new InputGateDeploymentDescriptor(
+			new IntermediateDataSetID(),
+			ResultPartitionType.BLOCKING,
+			0,
+			new TaskDeploymentDescriptor.Offloaded<>(new PermanentBlobKey()));
+
+		try {
+			inputGate.getShuffleDescriptors();
+			fail("Expected to fail since the input channels should be offloaded.");
+		} catch (IllegalStateException expected) {
+			// expected
+		}
+	}
+
 	@Nonnull
 	private TaskDeploymentDescriptor createTaskDeploymentDescriptor(TaskDeploymentDescriptor.MaybeOffloaded<JobInformation> jobInformation, TaskDeploymentDescriptor.MaybeOffloaded<TaskInformation> taskInformation) {
 		return new TaskDeploymentDescriptor(
@@ -43,6 +43,54 @@ public class BlockCompressionTest {
 		runByteBufferTest(factory, true, 16);
 	}
 
+	@Test
+	public void testZstd() {
+		runAllTests(BlockCompressionFactory.createBlockCompressionFactory("ZSTD"));
+	}
+
+	@Test
+	public void testSnappy() {
+		runAllTests(BlockCompressionFactory.createBlockCompressionFactory("SNAPPY"));
+	}
+
+	@Test
+	public void testReadOnlyHeapByteBuffer() {
+		BlockCompressionFactory factory = BlockCompressionFactory.createBlockCompressionFactory("ZSTD");
+		BlockCompressor compressor = factory.getCompressor();
+		BlockDecompressor decompressor = factory.getDecompressor();
+
+		int originalLen = 32768;
+		ByteBuffer data = ByteBuffer.allocate(originalLen);
+		for (int i = 0; i < originalLen; i++) {
+			data.put((byte) i);
+		}
+		data.flip();
+
+		ByteBuffer compressedData = ByteBuffer.allocate(compressor.getMaxCompressedSize(originalLen));
+		int compressedLen = compressor.compress(data.asReadOnlyBuffer(), 0, originalLen, compressedData, 0);
+		compressedData.flip();
+
+		ByteBuffer decompressedData = ByteBuffer.allocate(originalLen);
+		int decompressedLen = decompressor.decompress(
+				compressedData.asReadOnlyBuffer(), 0, compressedLen, decompressedData, 0);
+		assertEquals(originalLen, decompressedLen);
+		decompressedData.flip();
+
+		for (int i = 0; i < decompressedLen; i++) {
+			assertEquals((byte) i, decompressedData.get());
+		}
+	}
+
+	private void runAllTests(BlockCompressionFactory factory) {
+		runArrayTest(factory, 32768);
+		runArrayTest(factory, 16);
+
+		runByteBufferTest(factory, false, 32768);
+		runByteBufferTest(factory, false, 16);
+		runByteBufferTest(factory, true, 32768);
+		runByteBufferTest(factory, true, 16);
+	}
+
 	private void runArrayTest(BlockCompressionFactory factory, int originalLen) {
 		BlockCompressor compressor = factory.getCompressor();
 		BlockDecompressor decompressor = factory.getDecompressor();
@@ -39,6 +39,8 @@ public class NettyShuffleEnvironmentBuilder {
 	private static final String[] DEFAULT_TEMP_DIRS = {EnvironmentInformation.getTemporaryFileDirectory()};
 	private static final Duration DEFAULT_REQUEST_SEGMENTS_TIMEOUT = Duration.ofMillis(30000L);
 
+	private static final int DEFAULT_SORT_SHUFFLE_BUFFER_SIZE = 8 << 20;
+
 	private int numNetworkBuffers = DEFAULT_NUM_NETWORK_BUFFERS;
 
 	private int partitionRequestInitialBackoff;
@@ -51,6 +53,8 @@ public class NettyShuffleEnvironmentBuilder {
 
 	private boolean blockingShuffleCompressionEnabled = false;
 
+	private boolean pipelinedShuffleCompressionEnabled = false;
+
 	private String compressionCodec = "LZ4";
 
 	private ResourceID taskManagerLocation = ResourceID.generate();
@@ -94,6 +98,11 @@ public class NettyShuffleEnvironmentBuilder {
 		return this;
 	}
 
+	public NettyShuffleEnvironmentBuilder setPipelinedShuffleCompressionEnabled(boolean pipelinedShuffleCompressionEnabled) {
+		this.pipelinedShuffleCompressionEnabled = pipelinedShuffleCompressionEnabled;
+		return this;
+	}
+
 	public NettyShuffleEnvironmentBuilder setCompressionCodec(String compressionCodec) {
 		this.compressionCodec = compressionCodec;
 		return this;
@@ -125,7 +134,10 @@ public class NettyShuffleEnvironmentBuilder {
 				BoundedBlockingSubpartitionType.AUTO,
 				false,
 				blockingShuffleCompressionEnabled,
-				compressionCodec),
+				pipelinedShuffleCompressionEnabled,
+				compressionCodec,
+				Integer.MAX_VALUE,
+				DEFAULT_SORT_SHUFFLE_BUFFER_SIZE),
 			taskManagerLocation,
 			new TaskEventDispatcher(),
 			metricGroup);
@@ -18,10 +18,14 @@
 
 package org.apache.flink.runtime.io.network.api.serialization;
 
+import org.apache.flink.core.memory.DataOutputSerializer;
 import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferBuilder;
 import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
+import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
+import org.apache.flink.runtime.io.network.buffer.NetworkBuffer;
 import org.apache.flink.runtime.io.network.serialization.types.LargeObjectType;
 import org.apache.flink.runtime.io.network.util.DeserializationUtils;
 import org.apache.flink.testutils.serialization.types.IntType;
@@ -38,7 +42,9 @@ import org.junit.rules.TemporaryFolder;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 
 import static org.apache.flink.runtime.io.network.buffer.BufferBuilderTestUtils.buildSingleBuffer;
@@ -105,6 +111,91 @@ public class SpanningRecordSerializationTest extends TestLogger {
 		testSerializationRoundTrip(originalRecords, segmentSize);
 	}
 
+	/**
+	 * Verifies that the unconsumed data of a deserializer, followed by the data that was not yet
+	 * handed to it, yields the remaining records in a new deserializer.
+	 */
+	@Test
+	public void testUnconsumedBufferResumesDeserialization() throws Exception {
+		final List<SerializationTestType> records = new ArrayList<>();
+		for (SerializationTestType record : Util.randomRecords(500)) {
+			records.add(record);
+		}
+		final byte[] serializedRecords = serializeRecords(records);
+
+		for (int segmentSize : new int[] {1, 3, 31, 127, 1024}) {
+			final int numSegments = (serializedRecords.length + segmentSize - 1) / segmentSize;
+			for (int splitSegment = 0; splitSegment <= numSegments; splitSegment += 1 + numSegments / 20) {
+				testUnconsumedBuffer(records, serializedRecords, segmentSize, splitSegment);
+			}
+		}
+	}
+
+	private void testUnconsumedBuffer(
+			List<SerializationTestType> records,
+			byte[] serializedRecords,
+			int segmentSize,
+			int splitSegment) throws Exception {
+		final ArrayDeque<SerializationTestType> expectedRecords = new ArrayDeque<>(records);
+		final RecordDeserializer<SerializationTestType> deserializer = createDeserializer();
+
+		int position = 0;
+		for (int i = 0; i < splitSegment && position < serializedRecords.length; i++) {
+			position = feedSegment(serializedRecords, position, segmentSize, deserializer, expectedRecords);
+		}
+
+		final Optional<Buffer> unconsumedBuffer = deserializer.getUnconsumedBuffer();
+		Assert.assertEquals(deserializer.hasUnfinishedData(), unconsumedBuffer.isPresent());
+		final Buffer currentBuffer = deserializer.getCurrentBuffer();
+		if (currentBuffer != null) {
+			currentBuffer.recycleBuffer();
+		}
+		deserializer.clear();
+
+		final RecordDeserializer<SerializationTestType> restoredDeserializer = createDeserializer();
+		if (unconsumedBuffer.isPresent()) {
+			restoredDeserializer.setNextBuffer(unconsumedBuffer.get());
+			DeserializationUtils.deserializeRecords(expectedRecords, restoredDeserializer);
+		}
+		while (position < serializedRecords.length) {
+			position = feedSegment(serializedRecords, position, segmentSize, restoredDeserializer, expectedRecords);
+		}
+
+		Assert.assertTrue(expectedRecords.isEmpty());
+		Assert.assertFalse(restoredDeserializer.hasUnfinishedData());
+	}
+
+	private static int feedSegment(
+			byte[] serializedRecords,
+			int position,
+			int segmentSize,
+			RecordDeserializer<SerializationTestType> deserializer,
+			ArrayDeque<SerializationTestType> expectedRecords) throws Exception {
+		final int end = Math.min(serializedRecords.length, position + segmentSize);
+		final byte[] segment = Arrays.copyOfRange(serializedRecords, position, end);
+		deserializer.setNextBuffer(new NetworkBuffer(
+			MemorySegmentFactory.wrap(segment), FreeingBufferRecycler.INSTANCE, true, segment.length));
+		DeserializationUtils.deserializeRecords(expectedRecords, deserializer);
+		return end;
+	}
+
+	private static byte[] serializeRecords(List<SerializationTestType> records) throws IOException {
+		final DataOutputSerializer recordSerializer = new DataOutputSerializer(128);
+		final DataOutputSerializer out = new DataOutputSerializer(1024);
+		for (SerializationTestType record : records) {
+			recordSerializer.clear();
+			record.write(recordSerializer);
+			out.writeInt(recordSerializer.length());
+			out.write(recordSerializer.getSharedBuffer(), 0, recordSerializer.length());
+		}
+		return out.getCopyOfBuffer();
+	}
+
+	private RecordDeserializer<SerializationTestType> createDeserializer() {
+		return new SpillingAdaptiveSpanningRecordDeserializer<>(
+			new String[]{ tempFolder.getRoot().getAbsolutePath() });
+	}
+
 	// -----------------------------------------------------------------------------------------------------------------
 
 	private void testSerializationRoundTrip(Iterable<SerializationTestType> records, int segmentSize) throws Exception {
@@ -68,6 +68,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
 import java.util.Random;
@@ -80,9 +81,12 @@ import java.util.concurrent.Future;
 
 import static org.apache.flink.runtime.io.AvailabilityProvider.AVAILABLE;
 import static org.apache.flink.runtime.io.network.buffer.BufferBuilderTestUtils.buildSingleBuffer;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -468,6 +472,51 @@ public class RecordWriterTest {
 		}
 	}
 
+	/**
+	 * Tests that the record writers share the {@link OutputFlusher} of their partitions, run the periodic
+	 * flushes under the name of their task and unregister the flushes on close.
+	 */
+	@Test
+	public void testOutputFlusherIsSharedAndUnregisteredOnClose() throws Exception {
+		final CountDownLatch flushes = new CountDownLatch(2);
+		final List<String> flushThreadNames = Collections.synchronizedList(new ArrayList<>());
+
+		try (OutputFlusher outputFlusher = new OutputFlusher()) {
+			@SuppressWarnings("unchecked")
+			final Queue<BufferConsumer>[] queues = new Queue[]{new ArrayDeque<>()};
+			final ResultPartitionWriter partitionWriter = new CollectingPartitionWriter(
+				queues, new TestPooledBufferProvider(Integer.MAX_VALUE)) {
+				@Override
+				public void flushAll() {
+					flushThreadNames.add(Thread.currentThread().getName());
+					flushes.countDown();
+				}
+
+				@Override
+				public OutputFlusher getOutputFlusher() {
+					return outputFlusher;
+				}
+			};
+
+			final RecordWriter<IntValue> writer1 = createRecordWriter(partitionWriter, 1L, "task");
+			final RecordWriter<IntValue> writer2 = createRecordWriter(partitionWriter, 1L, "task");
+			try {
+				assertEquals(2, outputFlusher.getNumberOfRegisteredFlushes());
+				flushes.await();
+				assertThat(flushThreadNames, everyItem(equalTo("OutputFlusher for task")));
+			} finally {
+				writer1.close();
+				writer2.close();
+			}
+
+			assertEquals(0, outputFlusher.getNumberOfRegisteredFlushes());
+			assertFalse(outputFlusher.isRunning());
+			// closing twice must not unregister any other flush
+			writer1.close();
+			assertEquals(0, outputFlusher.getNumberOfRegisteredFlushes());
+		}
+	}
+
 	private void verifyBroadcastBufferOrEventIndependence(boolean broadcastEvent) throws Exception {
 		@SuppressWarnings("unchecked")
 		ArrayDeque<BufferConsumer>[] queues = new ArrayDeque[]{new ArrayDeque(), new ArrayDeque()};
@@ -524,6 +573,16 @@ public class RecordWriterTest {
 		}
 	}
 
+	private RecordWriter createRecordWriter(ResultPartitionWriter writer, long timeout, String taskName) {
+		final RecordWriterBuilder builder = new RecordWriterBuilder()
+			.setTimeout(timeout)
+			.setTaskName(taskName);
+		if (isBroadcastWriter) {
+			builder.setChannelSelector(new OutputEmitter(ShipStrategyType.BROADCAST, 0));
+		}
+		return builder.build(writer);
+	}
+
 	// ---------------------------------------------------------------------------------------------
 	// Helpers
 	// ---------------------------------------------------------------------------------------------
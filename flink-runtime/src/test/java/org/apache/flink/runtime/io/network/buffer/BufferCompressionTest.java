@@ -67,6 +67,18 @@ public class BufferCompressionTest {
 			{false, "LZ4", true, false},
 			{false, "LZ4", false, true},
 			{false, "LZ4", false, false},
+			{true, "ZSTD", true, false},
+			{true, "ZSTD", false, true},
+			{true, "ZSTD", false, false},
+			{false, "ZSTD", true, false},
+			{false, "ZSTD", false, true},
+			{false, "ZSTD", false, false},
+			{true, "SNAPPY", true, false},
+			{true, "SNAPPY", false, true},
+			{true, "SNAPPY", false, false},
+			{false, "SNAPPY", true, false},
+			{false, "SNAPPY", false, true},
+			{false, "SNAPPY", false, false},
 		});
 	}
 
@@ -108,6 +120,53 @@ public class BufferCompressionTest {
 		verifyDecompressionResult(decompressedBuffer, NUM_LONGS / 4, NUM_LONGS / 2);
 	}
 
+	@Test
+	public void testCompressToTargetBufferAndDecompressToNewBuffer() {
+		int offset = NUM_LONGS / 4 * 8;
+		int length = NUM_LONGS / 2 * 8;
+
+		// the input buffer is recycled by the compressor
+		Buffer readOnlySlicedBuffer = bufferToCompress.readOnlySlice(offset, length).retainBuffer();
+		Buffer target = new NetworkBuffer(
+			MemorySegmentFactory.allocateUnpooledSegment(BUFFER_SIZE), FreeingBufferRecycler.INSTANCE);
+		Buffer compressedBuffer = compressor.compressToBuffer(readOnlySlicedBuffer, target);
+		assertTrue(compressedBuffer == target);
+		assertTrue(compressedBuffer.isCompressed());
+
+		// the compressed data must stay valid independently of the intermediate buffer of the compressor
+		compress(compressor, bufferToCompress.readOnlySlice(0, length), compressToOriginalBuffer).recycleBuffer();
+
+		Buffer decompressedBuffer = decompressor.decompressToNewBuffer(compressedBuffer);
+		assertFalse(decompressedBuffer.isCompressed());
+		verifyDecompressionResult(decompressedBuffer, NUM_LONGS / 4, NUM_LONGS / 2);
+	}
+
+	@Test
+	public void testTargetBufferIsRecycledIfDataIsNotCompressible() {
+		Buffer uncompressibleBuffer = new NetworkBuffer(
+			MemorySegmentFactory.wrap(new byte[] {1, 2, 3, 4}), FreeingBufferRecycler.INSTANCE, true, 4);
+		Buffer target = new NetworkBuffer(
+			MemorySegmentFactory.allocateUnpooledSegment(BUFFER_SIZE), FreeingBufferRecycler.INSTANCE);
+
+		Buffer result = compressor.compressToBuffer(uncompressibleBuffer, target);
+		assertTrue(result == uncompressibleBuffer);
+		assertFalse(result.isCompressed());
+		assertTrue(target.isRecycled());
+		assertFalse(uncompressibleBuffer.isRecycled());
+	}
+
+	@Test
+	public void testCompressionMetrics() {
+		int length = NUM_LONGS / 2 * 8;
+
+		Buffer compressedBuffer = compress(compressor, bufferToCompress.readOnlySlice(0, length), compressToOriginalBuffer);
+		assertTrue(compressedBuffer.isCompressed());
+
+		assertEquals(length, compressor.getNumBytesBeforeCompression());
+		assertEquals(compressedBuffer.readableBytes(), compressor.getNumBytesAfterCompression());
+		assertTrue(compressor.getCompressionTimeNanos() > 0);
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testCompressEmptyBuffer() {
 		compress(compressor, bufferToCompress.readOnlySlice(0, 0), compressToOriginalBuffer);
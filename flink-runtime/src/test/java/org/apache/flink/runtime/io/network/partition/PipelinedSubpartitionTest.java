@@ -26,7 +26,10 @@ import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferBuilder;
 import org.apache.flink.runtime.io.network.buffer.BufferBuilderTestUtils;
 import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
+import org.apache.flink.runtime.io.network.buffer.BufferDecompressor;
 import org.apache.flink.runtime.io.network.buffer.BufferProvider;
+import org.apache.flink.runtime.io.network.buffer.NetworkBufferPool;
+import org.apache.flink.runtime.io.network.partition.consumer.LocalInputChannel;
 import org.apache.flink.runtime.io.network.util.TestConsumerCallback;
 import org.apache.flink.runtime.io.network.util.TestPooledBufferProvider;
 import org.apache.flink.runtime.io.network.util.TestProducerSource;
@@ -39,13 +42,17 @@ import org.junit.Assert;
 import org.junit.Assume;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import static org.apache.flink.runtime.io.network.buffer.BufferBuilderTestUtils.createEventBufferConsumer;
 import static org.apache.flink.runtime.io.network.buffer.BufferBuilderTestUtils.createFilledFinishedBufferConsumer;
 import static org.apache.flink.util.Preconditions.checkState;
 import static org.junit.Assert.assertEquals;
@@ -291,6 +298,162 @@ public class PipelinedSubpartitionTest extends SubpartitionTestBase {
 		assertEquals(0, partition.getTotalNumberOfBytes()); // buffer data is never consumed
 	}
 
+	@Test
+	public void testPriorityEventOvertakesBuffers() throws Exception {
+		final PipelinedSubpartition subpartition = createSubpartition();
+		subpartition.add(createFilledFinishedBufferConsumer(1024));
+		subpartition.add(createFilledFinishedBufferConsumer(512));
+		subpartition.add(createEventBufferConsumer(16), true);
+
+		final ResultSubpartitionView view = subpartition.createReadView(new NoOpBufferAvailablityListener());
+
+		// the overtaken buffers are snapshotted, but still delivered after the event
+		ResultSubpartition.BufferAndBacklog next = view.getNextBuffer();
+		assertFalse(next.buffer().isBuffer());
+		next.buffer().recycleBuffer();
+
+		final List<Buffer> snapshot = subpartition.requestInflightBufferSnapshot();
+		assertEquals(2, snapshot.size());
+		assertEquals(1024, snapshot.get(0).readableBytes());
+		assertEquals(512, snapshot.get(1).readableBytes());
+		snapshot.forEach(Buffer::recycleBuffer);
+
+		// the snapshot is handed out only once
+		assertTrue(subpartition.requestInflightBufferSnapshot().isEmpty());
+
+		next = view.getNextBuffer();
+		assertEquals(1024, next.buffer().readableBytes());
+		next.buffer().recycleBuffer();
+		next = view.getNextBuffer();
+		assertEquals(512, next.buffer().readableBytes());
+		next.buffer().recycleBuffer();
+
+		subpartition.release();
+	}
+
+	@Test
+	public void testPriorityEventSnapshotsOnlyUnconsumedData() throws Exception {
+		final PipelinedSubpartition subpartition = createSubpartition();
+		final BufferBuilder bufferBuilder = BufferBuilderTestUtils.createBufferBuilder(1024);
+		subpartition.add(bufferBuilder.createBufferConsumer());
+		BufferBuilderTestUtils.fillBufferBuilder(bufferBuilder, 100);
+
+		final ResultSubpartitionView view = subpartition.createReadView(new NoOpBufferAvailablityListener());
+		ResultSubpartition.BufferAndBacklog next = view.getNextBuffer();
+		assertEquals(100, next.buffer().readableBytes());
+		next.buffer().recycleBuffer();
+
+		BufferBuilderTestUtils.fillBufferBuilder(bufferBuilder, 50);
+		subpartition.add(createEventBufferConsumer(16), true);
+
+		final List<Buffer> snapshot = subpartition.requestInflightBufferSnapshot();
+		assertEquals(1, snapshot.size());
+		assertEquals(50, snapshot.get(0).readableBytes());
+		snapshot.forEach(Buffer::recycleBuffer);
+
+		bufferBuilder.finish();
+		subpartition.release();
+	}
+
+	@Test
+	public void testCompressedBroadcastBuffersDoNotCorruptSharedMemory() throws Exception {
+		final int numInts = 1024;
+		final NetworkBufferPool networkBufferPool = new NetworkBufferPool(10, BufferBuilderTestUtils.BUFFER_SIZE, 1);
+		final ResultPartition parent = createCompressingPartition(networkBufferPool);
+		final PipelinedSubpartition subpartition1 = (PipelinedSubpartition) parent.getAllPartitions()[0];
+		final PipelinedSubpartition subpartition2 = (PipelinedSubpartition) parent.getAllPartitions()[1];
+
+		try {
+			// both subpartitions share the memory of the same buffer as for broadcasts
+			addSharedBuffer(numInts, subpartition1, subpartition2);
+
+			final BufferDecompressor decompressor = new BufferDecompressor(BufferBuilderTestUtils.BUFFER_SIZE, "LZ4");
+			for (PipelinedSubpartition subpartition : Arrays.asList(subpartition1, subpartition2)) {
+				final ResultSubpartitionView view = subpartition.createReadView(new NoOpBufferAvailablityListener());
+				final Buffer buffer = view.getNextBuffer().buffer();
+				assertTrue(buffer.isCompressed());
+				assertTrue(buffer.readableBytes() < 4 * numInts);
+
+				final Buffer decompressedBuffer = decompressor.decompressToIntermediateBuffer(buffer);
+				buffer.recycleBuffer();
+				verifyInts(decompressedBuffer, numInts);
+				decompressedBuffer.recycleBuffer();
+			}
+
+			assertEquals(2 * 4 * numInts, parent.getBufferCompressor().getNumBytesBeforeCompression());
+		} finally {
+			parent.release();
+			parent.close();
+			networkBufferPool.destroyAllBufferPools();
+			networkBufferPool.destroy();
+		}
+	}
+
+	@Test
+	public void testBuffersOfLocalConsumersAreNotCompressed() throws Exception {
+		final int numInts = 1024;
+		final NetworkBufferPool networkBufferPool = new NetworkBufferPool(10, BufferBuilderTestUtils.BUFFER_SIZE, 1);
+		final ResultPartition parent = createCompressingPartition(networkBufferPool);
+		final PipelinedSubpartition subpartition = (PipelinedSubpartition) parent.getAllPartitions()[0];
+
+		try {
+			addSharedBuffer(numInts, subpartition);
+
+			final ResultSubpartitionView view = subpartition.createReadView(mock(LocalInputChannel.class));
+			final Buffer buffer = view.getNextBuffer().buffer();
+			assertFalse(buffer.isCompressed());
+			verifyInts(buffer, numInts);
+			buffer.recycleBuffer();
+
+			assertEquals(0, parent.getBufferCompressor().getNumBytesBeforeCompression());
+		} finally {
+			parent.release();
+			parent.close();
+			networkBufferPool.destroyAllBufferPools();
+			networkBufferPool.destroy();
+		}
+	}
+
+	private static ResultPartition createCompressingPartition(NetworkBufferPool networkBufferPool) throws IOException {
+		final ResultPartition partition = new ResultPartitionBuilder()
+			.setResultPartitionType(ResultPartitionType.PIPELINED_BOUNDED)
+			.setNumberOfSubpartitions(2)
+			.setPipelinedShuffleCompressionEnabled(true)
+			.setNetworkBufferSize(BufferBuilderTestUtils.BUFFER_SIZE)
+			.setNetworkBufferPool(networkBufferPool)
+			.build();
+		partition.setup();
+		return partition;
+	}
+
+	/**
+	 * Adds a buffer with the given number of compressible ints to all the given subpartitions, which share
+	 * the memory of the buffer.
+	 */
+	private static void addSharedBuffer(int numInts, PipelinedSubpartition... subpartitions) {
+		final BufferBuilder bufferBuilder = BufferBuilderTestUtils.createBufferBuilder();
+		final BufferConsumer bufferConsumer = bufferBuilder.createBufferConsumer();
+		final ByteBuffer data = ByteBuffer.allocate(4 * numInts).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < numInts; i++) {
+			data.putInt(i % 16);
+		}
+		data.flip();
+		bufferBuilder.appendAndCommit(data);
+		bufferBuilder.finish();
+
+		for (int i = 0; i < subpartitions.length - 1; i++) {
+			subpartitions[i].add(bufferConsumer.copy());
+		}
+		subpartitions[subpartitions.length - 1].add(bufferConsumer);
+	}
+
+	private static void verifyInts(Buffer buffer, int numInts) {
+		final ByteBuffer data = buffer.getNioBufferReadable().order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < numInts; i++) {
+			assertEquals(i % 16, data.getInt());
+		}
+	}
+
 	@Test
 	public void testReleaseParent() throws Exception {
 		final ResultSubpartition partition = createSubpartition();
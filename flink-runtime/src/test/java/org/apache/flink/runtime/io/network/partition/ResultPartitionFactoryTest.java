@@ -20,6 +20,7 @@ package org.apache.flink.runtime.io.network.partition;
 import org.apache.flink.runtime.deployment.ResultPartitionDeploymentDescriptor;
 import org.apache.flink.runtime.io.disk.FileChannelManager;
 import org.apache.flink.runtime.io.disk.FileChannelManagerImpl;
+import org.apache.flink.runtime.io.network.buffer.BufferBuilderTestUtils;
 import org.apache.flink.runtime.io.network.buffer.NetworkBufferPool;
 import org.apache.flink.runtime.shuffle.PartitionDescriptorBuilder;
 import org.apache.flink.runtime.util.EnvironmentInformation;
@@ -35,6 +36,9 @@ import java.util.Arrays;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for the {@link ResultPartitionFactory}.
@@ -63,6 +67,26 @@ public class ResultPartitionFactoryTest extends TestLogger {
 		Arrays.stream(resultPartition.subpartitions).forEach(sp -> assertThat(sp, instanceOf(BoundedBlockingSubpartition.class)));
 	}
 
+	@Test
+	public void testSortMergeSubpartitionsCreated() throws Exception {
+		final ResultPartition resultPartition = createResultPartition(false, ResultPartitionType.BLOCKING, 1);
+		Arrays.stream(resultPartition.subpartitions).forEach(sp -> assertThat(sp, instanceOf(BoundedBlockingSubpartition.class)));
+
+		// write and read back through the shared sort-merge data
+		resultPartition.addBufferConsumer(BufferBuilderTestUtils.createFilledFinishedBufferConsumer(SEGMENT_SIZE), 0);
+		resultPartition.finish();
+
+		final ResultSubpartitionView view = resultPartition.createSubpartitionView(0, new NoOpBufferAvailablityListener());
+		final ResultSubpartition.BufferAndBacklog next = view.getNextBuffer();
+		assertNotNull(next);
+		assertTrue(next.buffer().isBuffer());
+		assertEquals(SEGMENT_SIZE, next.buffer().getSize());
+		next.buffer().recycleBuffer();
+
+		view.releaseAllResources();
+		resultPartition.release();
+	}
+
 	@Test
 	public void testPipelinedSubpartitionsCreated() {
 		final ResultPartition resultPartition = createResultPartition(false, ResultPartitionType.PIPELINED);
@@ -90,6 +114,13 @@ public class ResultPartitionFactoryTest extends TestLogger {
 	private static ResultPartition createResultPartition(
 			boolean releasePartitionOnConsumption,
 			ResultPartitionType partitionType) {
+		return createResultPartition(releasePartitionOnConsumption, partitionType, Integer.MAX_VALUE);
+	}
+
+	private static ResultPartition createResultPartition(
+			boolean releasePartitionOnConsumption,
+			ResultPartitionType partitionType,
+			int sortShuffleMinParallelism) {
 		ResultPartitionFactory factory = new ResultPartitionFactory(
 			new ResultPartitionManager(),
 			fileChannelManager,
@@ -100,7 +131,10 @@ public class ResultPartitionFactoryTest extends TestLogger {
 			SEGMENT_SIZE,
 			releasePartitionOnConsumption,
 			false,
-			"LZ4");
+			false,
+			"LZ4",
+			sortShuffleMinParallelism,
+			8 * 1024 * 1024);
 
 		final ResultPartitionDeploymentDescriptor descriptor = new ResultPartitionDeploymentDescriptor(
 			PartitionDescriptorBuilder
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferBuilderTestUtils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link SortMergeBoundedData}. The tests of the base class run against the data of
+ * a single subpartition.
+ */
+public class SortMergeBoundedDataTest extends BoundedDataTestBase {
+
+	private static final int NUM_INTS_PER_BUFFER = 1024;
+
+	private static final int SMALL_BUFFER_SIZE = NUM_INTS_PER_BUFFER * 4;
+
+	@Override
+	protected boolean isRegionBased() {
+		return true;
+	}
+
+	@Override
+	protected BoundedData createBoundedData(Path tempFilePath) throws IOException {
+		return createBoundedDataWithRegion(tempFilePath, 4 * BUFFER_SIZE);
+	}
+
+	@Override
+	protected BoundedData createBoundedDataWithRegion(Path tempFilePath, int regionSize) throws IOException {
+		return SortMergeBoundedData.create(tempFilePath, 1, regionSize, BUFFER_SIZE).getSubpartitionData(0);
+	}
+
+	@Test
+	public void testWriteAndReadInterleavedSubpartitions() throws Exception {
+		final int numSubpartitions = 3;
+		final int numBuffersPerSubpartition = 20;
+		// the sort buffer fits 4 buffers, so the data is spread over multiple regions
+		final SortMergeBoundedData data = createSortMergeData(numSubpartitions, 4 * (SMALL_BUFFER_SIZE + 8));
+
+		for (int i = 0; i < numBuffersPerSubpartition; i++) {
+			for (int subpartition = 0; subpartition < numSubpartitions; subpartition++) {
+				data.getSubpartitionData(subpartition).writeBuffer(BufferBuilderTestUtils.buildBufferWithAscendingInts(
+					SMALL_BUFFER_SIZE, NUM_INTS_PER_BUFFER, valueOf(subpartition, i)));
+			}
+		}
+		finishWrite(data, numSubpartitions);
+		assertEquals(numSubpartitions * numBuffersPerSubpartition / 4, data.getNumberOfRegions());
+
+		for (int subpartition = 0; subpartition < numSubpartitions; subpartition++) {
+			final BoundedData subpartitionData = data.getSubpartitionData(subpartition);
+			assertEquals(numBuffersPerSubpartition * (SMALL_BUFFER_SIZE + 8), subpartitionData.getSize());
+			readAndValidate(subpartitionData.createReader(), subpartition, numBuffersPerSubpartition);
+		}
+	}
+
+	@Test
+	public void testConcurrentReadersOfDifferentSubpartitions() throws Exception {
+		final int numSubpartitions = 2;
+		final int numBuffersPerSubpartition = 5;
+		final SortMergeBoundedData data = createSortMergeData(numSubpartitions, 3 * (SMALL_BUFFER_SIZE + 8));
+
+		for (int subpartition = 0; subpartition < numSubpartitions; subpartition++) {
+			for (int i = 0; i < numBuffersPerSubpartition; i++) {
+				data.getSubpartitionData(subpartition).writeBuffer(BufferBuilderTestUtils.buildBufferWithAscendingInts(
+					SMALL_BUFFER_SIZE, NUM_INTS_PER_BUFFER, valueOf(subpartition, i)));
+			}
+		}
+		finishWrite(data, numSubpartitions);
+
+		final BoundedData.Reader reader0 = data.getSubpartitionData(0).createReader();
+		final BoundedData.Reader reader1 = data.getSubpartitionData(1).createReader();
+		for (int i = 0; i < numBuffersPerSubpartition; i++) {
+			readAndValidateNext(reader1, 1, i);
+			readAndValidateNext(reader0, 0, i);
+		}
+		assertNull(reader0.nextBuffer());
+		assertNull(reader1.nextBuffer());
+	}
+
+	@Test
+	public void testSubpartitionWithoutData() throws Exception {
+		final SortMergeBoundedData data = createSortMergeData(2, 4 * (SMALL_BUFFER_SIZE + 8));
+
+		data.getSubpartitionData(1).writeBuffer(BufferBuilderTestUtils.buildBufferWithAscendingInts(
+			SMALL_BUFFER_SIZE, NUM_INTS_PER_BUFFER, valueOf(1, 0)));
+		finishWrite(data, 2);
+
+		assertEquals(0, data.getSubpartitionData(0).getSize());
+		assertNull(data.getSubpartitionData(0).createReader().nextBuffer());
+		readAndValidate(data.getSubpartitionData(1).createReader(), 1, 1);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testCannotReadBeforeAllSubpartitionsFinished() throws Exception {
+		final SortMergeBoundedData data = createSortMergeData(2, 4 * (SMALL_BUFFER_SIZE + 8));
+		data.getSubpartitionData(0).finishWrite();
+
+		data.getSubpartitionData(0).createReader();
+	}
+
+	@Test
+	public void testDeleteFilesAfterAllSubpartitionsClosed() throws Exception {
+		final Path dataFilePath = new File(TMP_FOLDER.newFolder(), "partitiondata").toPath();
+		final Path indexFilePath = Paths.get(dataFilePath + ".index");
+		final SortMergeBoundedData data = SortMergeBoundedData.create(dataFilePath, 2, 4 * (SMALL_BUFFER_SIZE + 8), SMALL_BUFFER_SIZE);
+		assertTrue(Files.exists(dataFilePath));
+		assertTrue(Files.exists(indexFilePath));
+
+		data.getSubpartitionData(0).close();
+		// closing the same subpartition again has no effect
+		data.getSubpartitionData(0).close();
+		assertTrue(Files.exists(dataFilePath));
+		assertTrue(Files.exists(indexFilePath));
+
+		data.getSubpartitionData(1).close();
+		assertFalse(Files.exists(dataFilePath));
+		assertFalse(Files.exists(indexFilePath));
+	}
+
+	// ------------------------------------------------------------------------
+	//  utils
+	// ------------------------------------------------------------------------
+
+	private static SortMergeBoundedData createSortMergeData(int numSubpartitions, int sortBufferSize) throws IOException {
+		final Path dataFilePath = new File(TMP_FOLDER.newFolder(), "partitiondata").toPath();
+		return SortMergeBoundedData.create(dataFilePath, numSubpartitions, sortBufferSize, SMALL_BUFFER_SIZE);
+	}
+
+	private static void finishWrite(SortMergeBoundedData data, int numSubpartitions) throws IOException {
+		for (int subpartition = 0; subpartition < numSubpartitions; subpartition++) {
+			data.getSubpartitionData(subpartition).finishWrite();
+		}
+	}
+
+	private static int valueOf(int subpartition, int bufferIndex) {
+		return (subpartition * 1000 + bufferIndex) * NUM_INTS_PER_BUFFER;
+	}
+
+	private static void readAndValidate(BoundedData.Reader reader, int subpartition, int numBuffers) throws IOException {
+		for (int i = 0; i < numBuffers; i++) {
+			readAndValidateNext(reader, subpartition, i);
+		}
+		assertNull(reader.nextBuffer());
+	}
+
+	private static void readAndValidateNext(BoundedData.Reader reader, int subpartition, int bufferIndex) throws IOException {
+		final Buffer buffer = reader.nextBuffer();
+		BufferBuilderTestUtils.validateBufferWithAscendingInts(buffer, NUM_INTS_PER_BUFFER, valueOf(subpartition, bufferIndex));
+		buffer.recycleBuffer();
+	}
+}
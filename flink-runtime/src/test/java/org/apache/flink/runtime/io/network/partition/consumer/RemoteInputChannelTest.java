@@ -20,6 +20,8 @@ package org.apache.flink.runtime.io.network.partition.consumer;
 
 import org.apache.flink.core.memory.MemorySegmentProvider;
 import org.apache.flink.core.testutils.OneShotLatch;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.checkpoint.CheckpointType;
 import org.apache.flink.runtime.execution.CancelTaskException;
 import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.io.network.ConnectionID;
@@ -29,6 +31,8 @@ import org.apache.flink.runtime.io.network.NettyShuffleEnvironmentBuilder;
 import org.apache.flink.runtime.io.network.PartitionRequestClient;
 import org.apache.flink.runtime.io.network.TestingConnectionManager;
 import org.apache.flink.runtime.io.network.TestingPartitionRequestClient;
+import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferListener.NotificationResult;
 import org.apache.flink.runtime.io.network.buffer.BufferPool;
@@ -38,6 +42,7 @@ import org.apache.flink.runtime.io.network.partition.PartitionNotFoundException;
 import org.apache.flink.runtime.io.network.partition.ProducerFailedException;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.io.network.util.TestBufferFactory;
+import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
 import org.apache.flink.runtime.taskexecutor.PartitionProducerStateChecker;
 import org.apache.flink.runtime.taskmanager.Task;
 import org.apache.flink.runtime.taskmanager.TestTaskBuilder;
@@ -119,6 +124,43 @@ public class RemoteInputChannelTest {
 		verify(inputGate, times(2)).notifyChannelNonEmpty(eq(inputChannel));
 	}
 
+	@Test
+	public void testUnalignedCheckpointBarrierOvertakesBuffers() throws Exception {
+		final SingleInputGate inputGate = mock(SingleInputGate.class);
+		final RemoteInputChannel inputChannel = createRemoteInputChannel(inputGate);
+		inputChannel.requestSubpartition(0);
+
+		final CheckpointOptions unalignedOptions = new CheckpointOptions(
+			CheckpointType.CHECKPOINT,
+			CheckpointStorageLocationReference.getDefault(),
+			true);
+		inputChannel.onBuffer(TestBufferFactory.createBuffer(32), 0, -1);
+		inputChannel.onBuffer(TestBufferFactory.createBuffer(64), 1, -1);
+		inputChannel.onBuffer(EventSerializer.toBuffer(new CheckpointBarrier(1L, 0L, unalignedOptions)), 2, -1);
+
+		// the barrier is consumed first
+		Buffer next = inputChannel.getNextBuffer().get().buffer();
+		assertFalse(next.isBuffer());
+		next.recycleBuffer();
+
+		// the overtaken buffers are snapshotted, but still consumed afterwards
+		final List<Buffer> snapshot = inputChannel.requestInflightBufferSnapshot();
+		assertEquals(2, snapshot.size());
+		assertEquals(32, snapshot.get(0).readableBytes());
+		assertEquals(64, snapshot.get(1).readableBytes());
+		snapshot.forEach(Buffer::recycleBuffer);
+		assertTrue(inputChannel.requestInflightBufferSnapshot().isEmpty());
+
+		next = inputChannel.getNextBuffer().get().buffer();
+		assertEquals(32, next.readableBytes());
+		next.recycleBuffer();
+		next = inputChannel.getNextBuffer().get().buffer();
+		assertEquals(64, next.readableBytes());
+		next.recycleBuffer();
+
+		inputChannel.releaseAllResources();
+	}
+
 	@Test
 	public void testConcurrentOnBufferAndRelease() throws Exception {
 		testConcurrentReleaseAndSomething(8192, (inputChannel, buffer, j) -> {
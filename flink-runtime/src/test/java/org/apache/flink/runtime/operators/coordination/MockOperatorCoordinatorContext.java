@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.coordination;
+
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.messages.Acknowledge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A mock {@link OperatorCoordinator.Context} that records the events sent to the subtasks
+ * and the failures reported by the coordinator.
+ */
+public class MockOperatorCoordinatorContext implements OperatorCoordinator.Context {
+
+	private final OperatorID operatorID;
+	private final int numSubtasks;
+
+	private final Map<Integer, List<OperatorEvent>> eventsToOperator;
+	private final List<Throwable> jobFailureReasons;
+	private final Map<Integer, Throwable> taskFailureReasons;
+
+	public MockOperatorCoordinatorContext(OperatorID operatorID, int numSubtasks) {
+		this.operatorID = operatorID;
+		this.numSubtasks = numSubtasks;
+		this.eventsToOperator = new HashMap<>();
+		this.jobFailureReasons = new ArrayList<>();
+		this.taskFailureReasons = new HashMap<>();
+	}
+
+	@Override
+	public OperatorID getOperatorId() {
+		return operatorID;
+	}
+
+	@Override
+	public synchronized CompletableFuture<Acknowledge> sendEvent(OperatorEvent evt, int targetSubtask) {
+		eventsToOperator.computeIfAbsent(targetSubtask, subtask -> new ArrayList<>()).add(evt);
+		return CompletableFuture.completedFuture(Acknowledge.get());
+	}
+
+	@Override
+	public synchronized void failTask(int subtask, Throwable cause) {
+		taskFailureReasons.put(subtask, cause);
+	}
+
+	@Override
+	public synchronized void failJob(Throwable cause) {
+		jobFailureReasons.add(cause);
+	}
+
+	@Override
+	public int currentParallelism() {
+		return numSubtasks;
+	}
+
+	// -------------------------------
+
+	public synchronized List<OperatorEvent> getEventsToOperatorBySubtaskId(int subtaskId) {
+		return new ArrayList<>(eventsToOperator.getOrDefault(subtaskId, new ArrayList<>()));
+	}
+
+	public synchronized Map<Integer, List<OperatorEvent>> getEventsToOperator() {
+		return new HashMap<>(eventsToOperator);
+	}
+
+	public synchronized List<Throwable> getJobFailureReasons() {
+		return new ArrayList<>(jobFailureReasons);
+	}
+
+	public synchronized Map<Integer, Throwable> getTaskFailureReasons() {
+		return new HashMap<>(taskFailureReasons);
+	}
+}
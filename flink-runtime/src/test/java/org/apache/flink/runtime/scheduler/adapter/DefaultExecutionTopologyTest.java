@@ -32,6 +32,7 @@ import org.apache.flink.runtime.jobmanager.scheduler.CoLocationGroup;
 import org.apache.flink.runtime.jobmanager.scheduler.SlotSharingGroup;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.ResultPartitionState;
+import org.apache.flink.runtime.topology.ConsumedPartitionGroup;
 import org.apache.flink.util.IterableUtils;
 import org.apache.flink.util.TestLogger;
 
@@ -57,6 +58,7 @@ import static org.apache.flink.runtime.io.network.partition.ResultPartitionType.
 import static org.apache.flink.runtime.jobgraph.DistributionPattern.ALL_TO_ALL;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -146,6 +148,30 @@ public class DefaultExecutionTopologyTest extends TestLogger {
 		}
 	}
 
+	@Test
+	public void testAllToAllConnectionSharesPartitionGroups() {
+		final List<DefaultExecutionVertex> vertices = IterableUtils.toStream(adapter.getVertices())
+			.collect(Collectors.toList());
+		final List<DefaultExecutionVertex> producers = vertices.subList(0, 3);
+		final List<DefaultExecutionVertex> consumers = vertices.subList(3, 6);
+
+		final ConsumedPartitionGroup<DefaultResultPartition> consumedPartitionGroup =
+			Iterables.getOnlyElement(consumers.get(0).getConsumedPartitionGroups());
+		assertEquals(3, consumedPartitionGroup.size());
+		assertEquals(PIPELINED, consumedPartitionGroup.getResultType());
+		for (DefaultExecutionVertex consumer : consumers) {
+			assertSame(consumedPartitionGroup, Iterables.getOnlyElement(consumer.getConsumedPartitionGroups()));
+		}
+
+		final List<DefaultExecutionVertex> consumerGroup =
+			Iterables.getOnlyElement(Iterables.getOnlyElement(producers.get(0).getProducedResults()).getConsumerGroups());
+		assertEquals(consumers, consumerGroup);
+		for (DefaultExecutionVertex producer : producers) {
+			final DefaultResultPartition partition = Iterables.getOnlyElement(producer.getProducedResults());
+			assertSame(consumerGroup, Iterables.getOnlyElement(partition.getConsumerGroups()));
+		}
+	}
+
 	@Test
 	public void testWithCoLocationConstraints() throws Exception {
 		ExecutionGraph executionGraph = createExecutionGraphWithCoLocationConstraint();
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.source.coordinator;
+
+import org.apache.flink.api.connector.source.ReaderInfo;
+import org.apache.flink.api.connector.source.SplitsAssignment;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplitSerializer;
+import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+import org.apache.flink.runtime.source.event.AddSplitEvent;
+import org.apache.flink.runtime.source.event.NoMoreSplitsEvent;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test for {@link SourceCoordinatorContext}.
+ */
+public class SourceCoordinatorContextTest extends SourceCoordinatorTestBase {
+
+	@Test
+	public void testRegisterReader() {
+		context.registerSourceReader(new ReaderInfo(0, "location_0"));
+		context.registerSourceReader(new ReaderInfo(1, "location_1"));
+
+		assertEquals(2, context.registeredReaders().size());
+		assertEquals(new ReaderInfo(1, "location_1"), context.registeredReaders().get(1));
+
+		context.unregisterSourceReader(0);
+		assertEquals(Collections.singleton(1), context.registeredReaders().keySet());
+	}
+
+	@Test
+	public void testAssignSplitsToUnregisteredReader() {
+		try {
+			context.assignSplits(new SplitsAssignment<>(
+				Collections.singletonMap(0, Collections.singletonList(new MockSourceSplit(0)))));
+			fail("Assigning splits to an unregistered reader should fail.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertTrue(operatorCoordinatorContext.getEventsToOperator().isEmpty());
+	}
+
+	@Test
+	public void testAssignSplits() throws Exception {
+		context.registerSourceReader(new ReaderInfo(0, "location_0"));
+		context.assignSplits(new SplitsAssignment<>(
+			Collections.singletonMap(0, Collections.singletonList(new MockSourceSplit(7)))));
+		context.signalNoMoreSplits(0);
+
+		final List<OperatorEvent> events = operatorCoordinatorContext.getEventsToOperatorBySubtaskId(0);
+		assertEquals(2, events.size());
+		@SuppressWarnings("unchecked")
+		final AddSplitEvent<MockSourceSplit> addSplitEvent = (AddSplitEvent<MockSourceSplit>) events.get(0);
+		assertEquals(Collections.singletonList(new MockSourceSplit(7)), addSplitEvent.splits(new MockSourceSplitSerializer()));
+		assertEquals(NoMoreSplitsEvent.INSTANCE, events.get(1));
+
+		assertEquals(1, splitSplitAssignmentTracker.uncheckpointedAssignments().get(0).size());
+	}
+
+	@Test
+	public void testCallAsyncRunsHandlerInCoordinatorThread() throws Exception {
+		final CompletableFuture<String> callableThreadName = new CompletableFuture<>();
+		final CompletableFuture<String> handlerThreadName = new CompletableFuture<>();
+		context.callAsync(
+			() -> Thread.currentThread().getName(),
+			(threadName, t) -> {
+				callableThreadName.complete(threadName);
+				handlerThreadName.complete(Thread.currentThread().getName());
+			});
+		assertEquals("SourceCoordinator-" + OPERATOR_NAME + "-worker", callableThreadName.get());
+		assertEquals("SourceCoordinator-" + OPERATOR_NAME, handlerThreadName.get());
+	}
+
+	@Test
+	public void testPeriodicCallAsync() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(3);
+		context.callAsync(() -> null, (ignored, t) -> latch.countDown(), 0L, 1L);
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testFailedCallAsyncHandlerFailsJob() throws Exception {
+		final RuntimeException failure = new RuntimeException("Test failure");
+		context.callAsync(() -> null, (ignored, t) -> {
+			throw failure;
+		});
+		waitForWorkerAndCoordinator();
+
+		assertEquals(Collections.singletonList(failure), operatorCoordinatorContext.getJobFailureReasons());
+	}
+
+	@Test
+	public void testSnapshotAndRestore() throws Exception {
+		context.registerSourceReader(new ReaderInfo(0, "location_0"));
+		context.assignSplits(new SplitsAssignment<>(
+			Collections.singletonMap(0, Collections.singletonList(new MockSourceSplit(0)))));
+
+		final byte[] bytes;
+		try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(baos)) {
+			context.snapshotState(100L, out);
+			out.flush();
+			bytes = baos.toByteArray();
+		}
+
+		final SplitAssignmentTracker<MockSourceSplit> restoredTracker = new SplitAssignmentTracker<>();
+		final SourceCoordinatorContext<MockSourceSplit> restoredContext = new SourceCoordinatorContext<>(
+			coordinatorExecutor,
+			workerExecutor,
+			operatorCoordinatorContext,
+			new MockSourceSplitSerializer(),
+			restoredTracker);
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			restoredContext.restoreState(in);
+		}
+
+		assertEquals(splitSplitAssignmentTracker.assignmentsByCheckpointId(), restoredTracker.assignmentsByCheckpointId());
+		assertEquals(
+			Collections.singletonList(new MockSourceSplit(0)),
+			restoredContext.getAndRemoveUncheckpointedAssignment(0));
+	}
+
+	// ------------------------
+
+	private void waitForWorkerAndCoordinator() throws Exception {
+		workerExecutor.submit(() -> {}).get();
+		waitForCoordinatorToProcessActions();
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.source.coordinator;
+
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplitSerializer;
+import org.apache.flink.api.connector.source.mocks.MockSplitEnumerator;
+import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+import org.apache.flink.runtime.source.event.AddSplitEvent;
+import org.apache.flink.runtime.source.event.NoMoreSplitsEvent;
+import org.apache.flink.runtime.source.event.ReaderRegistrationEvent;
+import org.apache.flink.runtime.source.event.RequestSplitEvent;
+import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.util.function.ThrowingRunnable;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link SourceCoordinator}.
+ */
+public class SourceCoordinatorTest extends SourceCoordinatorTestBase {
+
+	@Test
+	public void testThrowExceptionWhenNotStarted() {
+		// The following methods should only be invoked after the source coordinator has started.
+		String failureMessage = "Call should fail when source coordinator has not started yet.";
+		verifyException(() -> sourceCoordinator.checkpointComplete(100L), failureMessage);
+		verifyException(() -> sourceCoordinator.handleEventFromOperator(0, new RequestSplitEvent()), failureMessage);
+		verifyException(() -> sourceCoordinator.subtaskFailed(0), failureMessage);
+		verifyException(() -> sourceCoordinator.checkpointCoordinator(100L), failureMessage);
+	}
+
+	@Test
+	public void testRestCheckpointAfterCoordinatorStarted() throws Exception {
+		// The following methods should only be invoked after the source coordinator has started.
+		sourceCoordinator.start();
+		verifyException(
+			() -> sourceCoordinator.resetToCheckpoint(null),
+			"Reset to checkpoint should fail after the coordinator has started");
+	}
+
+	@Test
+	public void testStart() throws Exception {
+		assertNull(sourceCoordinator.getEnumerator());
+		sourceCoordinator.start();
+		waitForCoordinatorToProcessActions();
+		assertTrue(getEnumerator().started());
+	}
+
+	@Test
+	public void testClosed() throws Exception {
+		sourceCoordinator.start();
+		final MockSplitEnumerator enumerator = getEnumerator();
+		sourceCoordinator.close();
+		assertTrue(enumerator.closed());
+		assertTrue(coordinatorExecutor.isShutdown());
+	}
+
+	@Test
+	public void testReaderRegistration() throws Exception {
+		sourceCoordinator.start();
+		sourceCoordinator.handleEventFromOperator(0, new ReaderRegistrationEvent(0, "location_0"));
+		waitForCoordinatorToProcessActions();
+
+		assertEquals("There should be exactly one registered reader.", 1, context.registeredReaders().size());
+		assertEquals("location_0", context.registeredReaders().get(0).getLocation());
+	}
+
+	@Test
+	public void testHandleSplitRequest() throws Exception {
+		sourceCoordinator.start();
+		sourceCoordinator.handleEventFromOperator(1, new ReaderRegistrationEvent(1, "location_1"));
+		sourceCoordinator.handleEventFromOperator(1, new RequestSplitEvent("location_1"));
+		waitForCoordinatorToProcessActions();
+
+		final List<OperatorEvent> events = operatorCoordinatorContext.getEventsToOperatorBySubtaskId(1);
+		assertEquals(1, events.size());
+		assertTrue(events.get(0) instanceof AddSplitEvent);
+		@SuppressWarnings("unchecked")
+		final List<MockSourceSplit> splits = ((AddSplitEvent<MockSourceSplit>) events.get(0)).splits(new MockSourceSplitSerializer());
+		assertEquals(Collections.singletonList(new MockSourceSplit(0)), splits);
+		assertEquals(1, splitSplitAssignmentTracker.uncheckpointedAssignments().get(1).size());
+	}
+
+	@Test
+	public void testNoMoreSplitsSignalledWhenEnumeratorRunsOutOfSplits() throws Exception {
+		sourceCoordinator.start();
+		sourceCoordinator.handleEventFromOperator(0, new ReaderRegistrationEvent(0, "location_0"));
+		for (int i = 0; i <= NUM_SUBTASKS * 2; i++) {
+			sourceCoordinator.handleEventFromOperator(0, new RequestSplitEvent());
+		}
+		waitForCoordinatorToProcessActions();
+
+		final List<OperatorEvent> events = operatorCoordinatorContext.getEventsToOperatorBySubtaskId(0);
+		assertEquals(NUM_SUBTASKS * 2 + 1, events.size());
+		assertTrue(events.get(events.size() - 1) instanceof NoMoreSplitsEvent);
+	}
+
+	@Test
+	public void testHandleSourceEvent() throws Exception {
+		sourceCoordinator.start();
+		final SourceEvent sourceEvent = new SourceEvent() {};
+		sourceCoordinator.handleEventFromOperator(0, new SourceEventWrapper(sourceEvent));
+		waitForCoordinatorToProcessActions();
+
+		assertEquals(Collections.singletonList(sourceEvent), getEnumerator().getHandledSourceEvent());
+	}
+
+	@Test
+	public void testUnrecognizedEventFailsJob() throws Exception {
+		sourceCoordinator.start();
+		sourceCoordinator.handleEventFromOperator(0, new OperatorEvent() {});
+		waitForCoordinatorToProcessActions();
+
+		assertEquals(1, operatorCoordinatorContext.getJobFailureReasons().size());
+	}
+
+	@Test
+	public void testCheckpointCoordinatorAndRestore() throws Exception {
+		sourceCoordinator.start();
+		sourceCoordinator.handleEventFromOperator(0, new ReaderRegistrationEvent(0, "location_0"));
+		sourceCoordinator.handleEventFromOperator(0, new RequestSplitEvent());
+		final byte[] bytes = sourceCoordinator.checkpointCoordinator(100L).get();
+
+		// restore a new coordinator from the checkpoint.
+		sourceCoordinator.close();
+		cleanUp();
+		setup();
+		sourceCoordinator.resetToCheckpoint(bytes);
+
+		final MockSplitEnumerator restoredEnumerator = getEnumerator();
+		assertNotNull(restoredEnumerator);
+		assertFalse(restoredEnumerator.started());
+		assertEquals(NUM_SUBTASKS * 2 - 1, restoredEnumerator.getUnassignedSplits().size());
+
+		// the split assignment that is not part of a completed checkpoint is still tracked.
+		assertTrue(splitSplitAssignmentTracker.uncheckpointedAssignments().isEmpty());
+		assertEquals(Collections.singleton(100L), splitSplitAssignmentTracker.assignmentsByCheckpointId().keySet());
+		assertEquals(1, splitSplitAssignmentTracker.assignmentsByCheckpointId().get(100L).get(0).size());
+	}
+
+	@Test
+	public void testSubtaskFailedAndRevertUncompletedAssignments() throws Exception {
+		sourceCoordinator.start();
+		sourceCoordinator.handleEventFromOperator(0, new ReaderRegistrationEvent(0, "location_0"));
+
+		// assign a split and take a checkpoint that never completes.
+		sourceCoordinator.handleEventFromOperator(0, new RequestSplitEvent());
+		sourceCoordinator.checkpointCoordinator(100L).get();
+		// assign another split that is not in any checkpoint.
+		sourceCoordinator.handleEventFromOperator(0, new RequestSplitEvent());
+		waitForCoordinatorToProcessActions();
+		assertEquals(NUM_SUBTASKS * 2 - 2, getEnumerator().getUnassignedSplits().size());
+
+		sourceCoordinator.subtaskFailed(0);
+		waitForCoordinatorToProcessActions();
+
+		final Set<MockSourceSplit> unassignedSplits = getEnumerator().getUnassignedSplits();
+		assertEquals(NUM_SUBTASKS * 2, unassignedSplits.size());
+		assertTrue(unassignedSplits.containsAll(Arrays.asList(new MockSourceSplit(0), new MockSourceSplit(1))));
+		assertFalse(context.registeredReaders().containsKey(0));
+	}
+
+	@Test
+	public void testCheckpointCompleteDropsTrackedAssignments() throws Exception {
+		sourceCoordinator.start();
+		sourceCoordinator.handleEventFromOperator(0, new ReaderRegistrationEvent(0, "location_0"));
+		sourceCoordinator.handleEventFromOperator(0, new RequestSplitEvent());
+		sourceCoordinator.checkpointCoordinator(100L).get();
+		sourceCoordinator.checkpointComplete(100L);
+		waitForCoordinatorToProcessActions();
+
+		assertTrue(splitSplitAssignmentTracker.assignmentsByCheckpointId().isEmpty());
+		assertEquals(Collections.singletonList(100L), getEnumerator().getSuccessfulCheckpoints());
+
+		// the split assigned before the completed checkpoint is not added back on failure.
+		sourceCoordinator.subtaskFailed(0);
+		waitForCoordinatorToProcessActions();
+		assertEquals(NUM_SUBTASKS * 2 - 1, getEnumerator().getUnassignedSplits().size());
+	}
+
+	// -------------------------------
+
+	private MockSplitEnumerator getEnumerator() {
+		return (MockSplitEnumerator) sourceCoordinator.getEnumerator();
+	}
+
+	private void verifyException(ThrowingRunnable<Exception> runnable, String failureMessage) {
+		try {
+			runnable.run();
+			fail(failureMessage);
+		} catch (Exception e) {
+			// expected
+		}
+	}
+}
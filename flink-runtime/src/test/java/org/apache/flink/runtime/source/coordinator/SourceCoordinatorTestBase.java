@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.source.coordinator;
+
+import org.apache.flink.api.connector.source.Boundedness;
+import org.apache.flink.api.connector.source.mocks.MockSource;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplitSerializer;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.operators.coordination.MockOperatorCoordinatorContext;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.After;
+import org.junit.Before;
+
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The test base for SourceCoordinator related tests.
+ */
+public abstract class SourceCoordinatorTestBase extends TestLogger {
+
+	protected static final String OPERATOR_NAME = "TestOperator";
+	protected static final OperatorID TEST_OPERATOR_ID = new OperatorID(1234L, 5678L);
+	protected static final int NUM_SUBTASKS = 3;
+
+	protected ExecutorService coordinatorExecutor;
+	protected ScheduledExecutorService workerExecutor;
+	protected MockOperatorCoordinatorContext operatorCoordinatorContext;
+	protected SplitAssignmentTracker<MockSourceSplit> splitSplitAssignmentTracker;
+	protected SourceCoordinatorContext<MockSourceSplit> context;
+	protected SourceCoordinator<MockSourceSplit, Set<MockSourceSplit>> sourceCoordinator;
+
+	@Before
+	public void setup() throws Exception {
+		operatorCoordinatorContext = new MockOperatorCoordinatorContext(TEST_OPERATOR_ID, NUM_SUBTASKS);
+		splitSplitAssignmentTracker = new SplitAssignmentTracker<>();
+		coordinatorExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "SourceCoordinator-" + OPERATOR_NAME));
+		workerExecutor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "SourceCoordinator-" + OPERATOR_NAME + "-worker"));
+		context = new SourceCoordinatorContext<>(
+			coordinatorExecutor,
+			workerExecutor,
+			operatorCoordinatorContext,
+			new MockSourceSplitSerializer(),
+			splitSplitAssignmentTracker);
+		sourceCoordinator = getNewSourceCoordinator();
+	}
+
+	@After
+	public void cleanUp() throws InterruptedException {
+		coordinatorExecutor.shutdown();
+		workerExecutor.shutdown();
+	}
+
+	// ------------------------------------------------------------------------
+
+	protected SourceCoordinator<MockSourceSplit, Set<MockSourceSplit>> getNewSourceCoordinator() {
+		final MockSource mockSource = new MockSource(Boundedness.BOUNDED, NUM_SUBTASKS * 2);
+		return new SourceCoordinator<>(OPERATOR_NAME, coordinatorExecutor, mockSource, context);
+	}
+
+	/**
+	 * Blocks until all the actions submitted to the coordinator executor so far have been processed.
+	 */
+	protected void waitForCoordinatorToProcessActions() throws ExecutionException, InterruptedException {
+		coordinatorExecutor.submit(() -> {}).get();
+	}
+}
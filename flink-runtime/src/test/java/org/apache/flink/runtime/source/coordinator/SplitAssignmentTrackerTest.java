@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.source.coordinator;
+
+import org.apache.flink.api.connector.source.SplitsAssignment;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplitSerializer;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link SplitAssignmentTracker}.
+ */
+public class SplitAssignmentTrackerTest extends TestLogger {
+
+	@Test
+	public void testRecordIncrementalSplitAssignment() {
+		SplitAssignmentTracker<MockSourceSplit> tracker = new SplitAssignmentTracker<>();
+		tracker.recordSplitAssignment(getSplitsAssignment(3, 0));
+		tracker.recordSplitAssignment(getSplitsAssignment(2, 6));
+
+		verifyAssignment(Arrays.asList("0", "6"), tracker.uncheckpointedAssignments().get(0));
+		verifyAssignment(Arrays.asList("1", "2", "7", "8"), tracker.uncheckpointedAssignments().get(1));
+		verifyAssignment(Arrays.asList("3", "4", "5"), tracker.uncheckpointedAssignments().get(2));
+	}
+
+	@Test
+	public void testSnapshotAndRestore() throws Exception {
+		final long checkpointId = 123L;
+		SplitAssignmentTracker<MockSourceSplit> tracker = new SplitAssignmentTracker<>();
+		tracker.recordSplitAssignment(getSplitsAssignment(3, 0));
+
+		final byte[] bytes = takeSnapshot(tracker, checkpointId);
+		// the uncheckpointed assignments have been moved to the snapshot of the checkpoint.
+		assertTrue(tracker.uncheckpointedAssignments().isEmpty());
+		verifyAssignment(Arrays.asList("0"), tracker.assignmentsByCheckpointId().get(checkpointId).get(0));
+		verifyAssignment(Arrays.asList("1", "2"), tracker.assignmentsByCheckpointId().get(checkpointId).get(1));
+		verifyAssignment(Arrays.asList("3", "4", "5"), tracker.assignmentsByCheckpointId().get(checkpointId).get(2));
+
+		// restore the state into another tracker.
+		SplitAssignmentTracker<MockSourceSplit> restoredTracker = new SplitAssignmentTracker<>();
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			restoredTracker.restoreState(new MockSourceSplitSerializer(), in);
+		}
+		assertEquals(tracker.assignmentsByCheckpointId(), restoredTracker.assignmentsByCheckpointId());
+		assertTrue(restoredTracker.uncheckpointedAssignments().isEmpty());
+	}
+
+	@Test
+	public void testOnCheckpointComplete() throws Exception {
+		final long checkpointId1 = 100L;
+		final long checkpointId2 = 101L;
+		SplitAssignmentTracker<MockSourceSplit> tracker = new SplitAssignmentTracker<>();
+
+		// Assign some splits to subtask 0 and 1.
+		tracker.recordSplitAssignment(getSplitsAssignment(2, 0));
+		// Take the first snapshot.
+		takeSnapshot(tracker, checkpointId1);
+		// Assign additional splits to subtask 0 and 1.
+		tracker.recordSplitAssignment(getSplitsAssignment(2, 3));
+		// Take the second snapshot.
+		takeSnapshot(tracker, checkpointId2);
+
+		// Complete the first checkpoint.
+		tracker.onCheckpointComplete(checkpointId1);
+		assertNull(tracker.assignmentsByCheckpointId().get(checkpointId1));
+		verifyAssignment(Arrays.asList("3"), tracker.assignmentsByCheckpointId().get(checkpointId2).get(0));
+		verifyAssignment(Arrays.asList("4", "5"), tracker.assignmentsByCheckpointId().get(checkpointId2).get(1));
+
+		// Complete the second checkpoint.
+		tracker.onCheckpointComplete(checkpointId2);
+		assertTrue(tracker.assignmentsByCheckpointId().isEmpty());
+	}
+
+	@Test
+	public void testGetAndRemoveUncheckpointedAssignment() throws Exception {
+		final long checkpointId1 = 100L;
+		final long checkpointId2 = 101L;
+		SplitAssignmentTracker<MockSourceSplit> tracker = new SplitAssignmentTracker<>();
+
+		// Assign some splits and take a snapshot which is never completed.
+		tracker.recordSplitAssignment(getSplitsAssignment(2, 0));
+		takeSnapshot(tracker, checkpointId1);
+		// Assign additional splits and take a snapshot which is completed.
+		tracker.recordSplitAssignment(getSplitsAssignment(2, 3));
+		takeSnapshot(tracker, checkpointId2);
+		tracker.onCheckpointComplete(checkpointId1);
+		// Assign additional splits which are not in any checkpoint.
+		tracker.recordSplitAssignment(getSplitsAssignment(2, 6));
+
+		// Subtask 0 fails, so the splits assigned after the completed checkpoint 100 are returned.
+		verifyAssignment(Arrays.asList("3", "6"), tracker.getAndRemoveUncheckpointedAssignment(0));
+		assertTrue(tracker.getAndRemoveUncheckpointedAssignment(0).isEmpty());
+		verifyAssignment(Arrays.asList("4", "5", "7", "8"), tracker.getAndRemoveUncheckpointedAssignment(1));
+		assertTrue(tracker.assignmentsByCheckpointId().isEmpty());
+	}
+
+	// ---------------------
+
+	private byte[] takeSnapshot(SplitAssignmentTracker<MockSourceSplit> tracker, long checkpointId) throws Exception {
+		try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(baos)) {
+			tracker.snapshotState(checkpointId, new MockSourceSplitSerializer(), out);
+			out.flush();
+			return baos.toByteArray();
+		}
+	}
+
+	/**
+	 * Create a SplitsAssignment. The assignments looks like following:
+	 * Subtask 0: Splits {0}
+	 * Subtask 1: Splits {1, 2}
+	 * Subtask 2: Splits {3, 4, 5}
+	 * ...
+	 */
+	private static SplitsAssignment<MockSourceSplit> getSplitsAssignment(int numSubtasks, int startingSplitId) {
+		final Map<Integer, List<MockSourceSplit>> assignments = new HashMap<>();
+		int splitId = startingSplitId;
+		for (int subtaskIndex = 0; subtaskIndex < numSubtasks; subtaskIndex++) {
+			final List<MockSourceSplit> subtaskAssignment = new ArrayList<>();
+			for (int j = 0; j < subtaskIndex + 1; j++) {
+				subtaskAssignment.add(new MockSourceSplit(splitId++));
+			}
+			assignments.put(subtaskIndex, subtaskAssignment);
+		}
+		return new SplitsAssignment<>(assignments);
+	}
+
+	private static void verifyAssignment(List<String> expectedSplitIds, LinkedHashSet<MockSourceSplit> actualAssignment) {
+		verifyAssignment(expectedSplitIds, new ArrayList<>(actualAssignment));
+	}
+
+	private static void verifyAssignment(List<String> expectedSplitIds, List<MockSourceSplit> actualAssignment) {
+		final List<String> actualSplitIds = new ArrayList<>();
+		actualAssignment.forEach(split -> actualSplitIds.add(split.splitId()));
+		assertEquals(expectedSplitIds, actualSplitIds);
+	}
+}
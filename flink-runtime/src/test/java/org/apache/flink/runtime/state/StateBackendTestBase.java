@@ -2477,7 +2477,7 @@ public abstract class StateBackendTestBase<B extends AbstractStateBackend> exten
 		backend.dispose();
 		// restore the second snapshot and validate it
 		backend = restoreKeyedBackend(IntSerializer.INSTANCE, snapshot2);
-		snapshot1.discardState();
+		snapshot2.discardState();
 
 		@SuppressWarnings("unchecked")
 		FoldingState<Integer, String> restored2 = backend.getPartitionedState(VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
@@ -2782,6 +2782,63 @@ public abstract class StateBackendTestBase<B extends AbstractStateBackend> exten
 		backend.dispose();
 	}
 
+	/**
+	 * Verify that batched reads and writes of a {@code ValueState} are equivalent to
+	 * reads and writes for each key, and do not change the current key.
+	 */
+	@Test
+	public void testValueStateMultiGetAndMultiPut() throws Exception {
+		AbstractKeyedStateBackend<Integer> backend = createKeyedBackend(IntSerializer.INSTANCE);
+
+		try {
+			InternalValueState<Integer, String, String> state = backend.createInternalState(
+				StringSerializer.INSTANCE,
+				new ValueStateDescriptor<>("id", StringSerializer.INSTANCE, "default"));
+
+			state.setCurrentNamespace("ns-1");
+			backend.setCurrentKey(1);
+			state.update("one");
+			backend.setCurrentKey(2);
+			state.update("two");
+			state.setCurrentNamespace("ns-2");
+			backend.setCurrentKey(3);
+			state.update("three");
+
+			state.setCurrentNamespace("ns-1");
+			Map<Integer, String> values = state.multiGet(Arrays.asList(1, 2, 3));
+			assertEquals(3, values.size());
+			assertEquals("one", values.get(1));
+			assertEquals("two", values.get(2));
+			assertEquals("default", values.get(3));
+			assertEquals(3, (int) backend.getCurrentKey());
+
+			Map<Integer, String> updates = new HashMap<>();
+			updates.put(1, null);
+			updates.put(2, "two-updated");
+			for (int key = 10; key < 100; key++) {
+				updates.put(key, "value-" + key);
+			}
+			state.multiPut(updates);
+			assertEquals(3, (int) backend.getCurrentKey());
+
+			backend.setCurrentKey(1);
+			assertEquals("default", state.value());
+			backend.setCurrentKey(2);
+			assertEquals("two-updated", state.value());
+			for (int key = 10; key < 100; key++) {
+				backend.setCurrentKey(key);
+				assertEquals("value-" + key, state.value());
+			}
+
+			state.setCurrentNamespace("ns-2");
+			values = state.multiGet(Arrays.asList(2, 3));
+			assertEquals("default", values.get(2));
+			assertEquals("three", values.get(3));
+		} finally {
+			backend.dispose();
+		}
+	}
+
 	/**
 	 * Verify that an empty {@code ReduceState} yields {@code null}.
 	 */
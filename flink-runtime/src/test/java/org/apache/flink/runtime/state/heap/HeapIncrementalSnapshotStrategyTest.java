@@ -0,0 +1,376 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.state.ListState;
+import org.apache.flink.api.common.state.ListStateDescriptor;
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.core.fs.CloseableRegistry;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.checkpoint.CheckpointType;
+import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.AbstractStateBackend;
+import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.SnapshotResult;
+import org.apache.flink.runtime.state.StateHandleID;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.TestLocalRecoveryConfig;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.VoidNamespaceSerializer;
+import org.apache.flink.runtime.state.memory.MemCheckpointStreamFactory;
+import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.util.TestLogger;
+
+import org.apache.flink.shaded.guava18.com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.RunnableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the {@link HeapIncrementalSnapshotStrategy}.
+ */
+public class HeapIncrementalSnapshotStrategyTest extends TestLogger {
+
+	private static final ValueStateDescriptor<String> STATE_DESCRIPTOR =
+		new ValueStateDescriptor<>("test-state", String.class);
+
+	private static final ListStateDescriptor<String> LIST_STATE_DESCRIPTOR =
+		new ListStateDescriptor<>("test-list-state", String.class);
+
+	private static final MapStateDescriptor<String, Integer> MAP_STATE_DESCRIPTOR =
+		new MapStateDescriptor<>("test-map-state", String.class, Integer.class);
+
+	/** A maximum number of deltas other than the default, to verify that it is configurable. */
+	private static final int MAX_NUMBER_OF_DELTAS = 4;
+
+	private final CheckpointStreamFactory streamFactory = new MemCheckpointStreamFactory(4 * 1024 * 1024);
+
+	private final SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+
+	@Test
+	public void testDeltaOnlyContainsChangedEntries() throws Exception {
+		HeapKeyedStateBackend<Integer> backend = createKeyedBackend(Collections.emptyList());
+		try {
+			ValueState<String> state = getState(backend);
+			for (int i = 0; i < 100; i++) {
+				backend.setCurrentKey(i);
+				state.update("value-" + i);
+			}
+
+			IncrementalRemoteKeyedStateHandle first = snapshot(backend, 1L);
+			assertEquals(1, first.getSharedState().size());
+			backend.notifyCheckpointComplete(1L);
+
+			backend.setCurrentKey(5);
+			state.update("updated");
+			backend.setCurrentKey(7);
+			state.clear();
+			backend.setCurrentKey(100);
+			state.update("value-100");
+
+			IncrementalRemoteKeyedStateHandle second = snapshot(backend, 2L);
+			Map<StateHandleID, StreamStateHandle> sharedState = second.getSharedState();
+			assertEquals(2, sharedState.size());
+			assertTrue(sharedState.keySet().containsAll(first.getSharedState().keySet()));
+
+			StreamStateHandle baseFile = first.getSharedState().values().iterator().next();
+			StreamStateHandle deltaFile = sharedState.get(new StateHandleID("2.delta"));
+			assertTrue(deltaFile.getStateSize() < baseFile.getStateSize());
+			backend.notifyCheckpointComplete(2L);
+
+			backend.dispose();
+			backend = createKeyedBackend(Collections.singletonList(second));
+			state = getState(backend);
+
+			for (int i = 0; i <= 100; i++) {
+				backend.setCurrentKey(i);
+				if (i == 5) {
+					assertEquals("updated", state.value());
+				} else if (i == 7) {
+					assertNull(state.value());
+				} else {
+					assertEquals("value-" + i, state.value());
+				}
+			}
+		} finally {
+			backend.dispose();
+		}
+	}
+
+	@Test
+	public void testDeltaIsBasedOnLastCompletedCheckpoint() throws Exception {
+		HeapKeyedStateBackend<Integer> backend = createKeyedBackend(Collections.emptyList());
+		try {
+			ValueState<String> state = getState(backend);
+			backend.setCurrentKey(1);
+			state.update("a");
+			snapshot(backend, 1L);
+			backend.notifyCheckpointComplete(1L);
+
+			backend.setCurrentKey(2);
+			state.update("b");
+			// this checkpoint is never confirmed
+			snapshot(backend, 2L);
+
+			backend.setCurrentKey(3);
+			state.update("c");
+			backend.setCurrentKey(1);
+			state.clear();
+			IncrementalRemoteKeyedStateHandle third = snapshot(backend, 3L);
+			assertEquals(2, third.getSharedState().size());
+
+			backend.dispose();
+			backend = createKeyedBackend(Collections.singletonList(third));
+			state = getState(backend);
+
+			backend.setCurrentKey(1);
+			assertNull(state.value());
+			backend.setCurrentKey(2);
+			assertEquals("b", state.value());
+			backend.setCurrentKey(3);
+			assertEquals("c", state.value());
+		} finally {
+			backend.dispose();
+		}
+	}
+
+	@Test
+	public void testChainIsCompacted() throws Exception {
+		HeapKeyedStateBackend<Integer> backend = createKeyedBackend(Collections.emptyList());
+		try {
+			ValueState<String> state = getState(backend);
+			// the base snapshot is large, so that the chain is compacted because of the number of delta files
+			for (int i = 0; i < 1000; i++) {
+				backend.setCurrentKey(i);
+				state.update("value-" + i);
+			}
+
+			IncrementalRemoteKeyedStateHandle handle = null;
+			int maxChainLength = 0;
+			for (long checkpointId = 1L; checkpointId <= MAX_NUMBER_OF_DELTAS + 3; checkpointId++) {
+				backend.setCurrentKey(0);
+				state.update("checkpoint-" + checkpointId);
+
+				handle = snapshot(backend, checkpointId);
+				maxChainLength = Math.max(maxChainLength, handle.getSharedState().size());
+				backend.notifyCheckpointComplete(checkpointId);
+			}
+
+			assertEquals(MAX_NUMBER_OF_DELTAS + 1, maxChainLength);
+			assertTrue(handle.getSharedState().size() < maxChainLength);
+
+			backend.dispose();
+			backend = createKeyedBackend(Collections.singletonList(handle));
+			state = getState(backend);
+
+			backend.setCurrentKey(0);
+			assertEquals("checkpoint-" + (MAX_NUMBER_OF_DELTAS + 3), state.value());
+			backend.setCurrentKey(999);
+			assertEquals("value-999", state.value());
+		} finally {
+			backend.dispose();
+		}
+	}
+
+	/**
+	 * List states are modified in place after a lookup, these changes must be part of the delta even if no
+	 * snapshot is running while the state is modified.
+	 */
+	@Test
+	public void testDeltaContainsInPlaceListStateChanges() throws Exception {
+		HeapKeyedStateBackend<Integer> backend = createKeyedBackend(Collections.emptyList());
+		try {
+			ListState<String> state = getListState(backend);
+			// the base snapshot is large, so that the chain is not compacted
+			for (int i = 100; i < 200; i++) {
+				backend.setCurrentKey(i);
+				state.add("value-" + i);
+			}
+			backend.setCurrentKey(1);
+			state.add("a");
+			backend.setCurrentKey(2);
+			state.add("x");
+			snapshot(backend, 1L);
+			backend.notifyCheckpointComplete(1L);
+
+			backend.setCurrentKey(1);
+			state.add("b");
+			snapshot(backend, 2L);
+			backend.notifyCheckpointComplete(2L);
+
+			backend.setCurrentKey(1);
+			state.add("c");
+			backend.setCurrentKey(2);
+			state.add("y");
+			IncrementalRemoteKeyedStateHandle third = snapshot(backend, 3L);
+			assertEquals(3, third.getSharedState().size());
+
+			backend.dispose();
+			backend = createKeyedBackend(Collections.singletonList(third));
+			state = getListState(backend);
+
+			backend.setCurrentKey(1);
+			assertEquals(Arrays.asList("a", "b", "c"), Lists.newArrayList(state.get()));
+			backend.setCurrentKey(2);
+			assertEquals(Arrays.asList("x", "y"), Lists.newArrayList(state.get()));
+		} finally {
+			backend.dispose();
+		}
+	}
+
+	/**
+	 * Map states are modified in place after a lookup, these changes must be part of the delta even if no
+	 * snapshot is running while the state is modified.
+	 */
+	@Test
+	public void testDeltaContainsInPlaceMapStateChanges() throws Exception {
+		HeapKeyedStateBackend<Integer> backend = createKeyedBackend(Collections.emptyList());
+		try {
+			MapState<String, Integer> state = getMapState(backend);
+			// the base snapshot is large, so that the chain is not compacted
+			for (int i = 100; i < 200; i++) {
+				backend.setCurrentKey(i);
+				state.put("value-" + i, i);
+			}
+			backend.setCurrentKey(1);
+			state.put("a", 1);
+			state.put("b", 2);
+			snapshot(backend, 1L);
+			backend.notifyCheckpointComplete(1L);
+
+			backend.setCurrentKey(1);
+			state.put("c", 3);
+			snapshot(backend, 2L);
+			backend.notifyCheckpointComplete(2L);
+
+			backend.setCurrentKey(1);
+			state.put("a", 10);
+			state.remove("b");
+			IncrementalRemoteKeyedStateHandle third = snapshot(backend, 3L);
+			assertEquals(3, third.getSharedState().size());
+
+			backend.dispose();
+			backend = createKeyedBackend(Collections.singletonList(third));
+			state = getMapState(backend);
+
+			backend.setCurrentKey(1);
+			assertEquals(Integer.valueOf(10), state.get("a"));
+			assertFalse(state.contains("b"));
+			assertEquals(Integer.valueOf(3), state.get("c"));
+		} finally {
+			backend.dispose();
+		}
+	}
+
+	@Test
+	public void testSavepointIsFullSnapshot() throws Exception {
+		HeapKeyedStateBackend<Integer> backend = createKeyedBackend(Collections.emptyList());
+		try {
+			ValueState<String> state = getState(backend);
+			backend.setCurrentKey(1);
+			state.update("a");
+
+			RunnableFuture<SnapshotResult<KeyedStateHandle>> snapshot = backend.snapshot(
+				1L,
+				1L,
+				streamFactory,
+				new CheckpointOptions(CheckpointType.SAVEPOINT, CheckpointStorageLocationReference.getDefault()));
+			snapshot.run();
+
+			assertTrue(snapshot.get().getJobManagerOwnedSnapshot() instanceof KeyGroupsStateHandle);
+		} finally {
+			backend.dispose();
+		}
+	}
+
+	private ValueState<String> getState(HeapKeyedStateBackend<Integer> backend) throws Exception {
+		return backend.getPartitionedState(VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, STATE_DESCRIPTOR);
+	}
+
+	private ListState<String> getListState(HeapKeyedStateBackend<Integer> backend) throws Exception {
+		return backend.getPartitionedState(VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, LIST_STATE_DESCRIPTOR);
+	}
+
+	private MapState<String, Integer> getMapState(HeapKeyedStateBackend<Integer> backend) throws Exception {
+		return backend.getPartitionedState(VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, MAP_STATE_DESCRIPTOR);
+	}
+
+	private IncrementalRemoteKeyedStateHandle snapshot(
+		HeapKeyedStateBackend<Integer> backend,
+		long checkpointId) throws Exception {
+
+		RunnableFuture<SnapshotResult<KeyedStateHandle>> snapshot = backend.snapshot(
+			checkpointId,
+			checkpointId,
+			streamFactory,
+			CheckpointOptions.forCheckpointWithDefaultLocation());
+		snapshot.run();
+
+		KeyedStateHandle stateHandle = snapshot.get().getJobManagerOwnedSnapshot();
+		assertTrue(stateHandle instanceof IncrementalRemoteKeyedStateHandle);
+		stateHandle.registerSharedStates(sharedStateRegistry);
+		return (IncrementalRemoteKeyedStateHandle) stateHandle;
+	}
+
+	private HeapKeyedStateBackend<Integer> createKeyedBackend(
+		Collection<KeyedStateHandle> stateHandles) throws Exception {
+		final KeyGroupRange keyGroupRange = new KeyGroupRange(0, 15);
+		final int numKeyGroups = keyGroupRange.getNumberOfKeyGroups();
+		ExecutionConfig executionConfig = new ExecutionConfig();
+
+		return new HeapKeyedStateBackendBuilder<>(
+			mock(TaskKvStateRegistry.class),
+			IntSerializer.INSTANCE,
+			HeapIncrementalSnapshotStrategyTest.class.getClassLoader(),
+			numKeyGroups,
+			keyGroupRange,
+			executionConfig,
+			TtlTimeProvider.DEFAULT,
+			stateHandles,
+			AbstractStateBackend.getCompressionDecorator(executionConfig),
+			TestLocalRecoveryConfig.disabled(),
+			new HeapPriorityQueueSetFactory(keyGroupRange, numKeyGroups, 128),
+			true,
+			true,
+			MAX_NUMBER_OF_DELTAS,
+			new CloseableRegistry()).build();
+	}
+}
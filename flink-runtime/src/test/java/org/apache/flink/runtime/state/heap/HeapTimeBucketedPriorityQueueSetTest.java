@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.runtime.state.InternalPriorityQueueTestBase;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Test for {@link HeapTimeBucketedPriorityQueueSet}.
+ */
+public class HeapTimeBucketedPriorityQueueSetTest extends InternalPriorityQueueTestBase {
+
+	@Override
+	protected HeapTimeBucketedPriorityQueueSet<TestElement> newPriorityQueue(int initialCapacity) {
+		return newPriorityQueue(initialCapacity, 16L);
+	}
+
+	private static HeapTimeBucketedPriorityQueueSet<TestElement> newPriorityQueue(int initialCapacity, long bucketWidth) {
+		return new HeapTimeBucketedPriorityQueueSet<>(
+			TEST_ELEMENT_PRIORITY_COMPARATOR,
+			KEY_EXTRACTOR_FUNCTION,
+			TestElement::getPriority,
+			initialCapacity,
+			bucketWidth,
+			KEY_GROUP_RANGE,
+			KEY_GROUP_RANGE.getNumberOfKeyGroups());
+	}
+
+	@Override
+	protected boolean testSetSemanticsAgainstDuplicateElements() {
+		return true;
+	}
+
+	@Test
+	public void testElementsAreGroupedIntoBuckets() {
+		HeapTimeBucketedPriorityQueueSet<TestElement> priorityQueue = newPriorityQueue(1, 100L);
+
+		for (long priority = -100; priority < 300; ++priority) {
+			priorityQueue.add(new TestElement(priority, priority));
+		}
+		Assert.assertEquals(4, priorityQueue.getNumberOfBuckets());
+
+		for (long priority = -100; priority < 0; ++priority) {
+			Assert.assertEquals(priority, priorityQueue.poll().getPriority());
+		}
+		Assert.assertEquals(3, priorityQueue.getNumberOfBuckets());
+
+		for (long priority = 200; priority < 300; ++priority) {
+			priorityQueue.remove(new TestElement(priority, priority));
+		}
+		Assert.assertEquals(2, priorityQueue.getNumberOfBuckets());
+		Assert.assertEquals(200, priorityQueue.size());
+	}
+
+	@Test
+	public void testMixedOperationsWithinFewBuckets() {
+		final Random random = new Random(42L);
+		HeapTimeBucketedPriorityQueueSet<TestElement> priorityQueue = newPriorityQueue(1, 100L);
+		PriorityQueue<TestElement> expectedQueue = new PriorityQueue<>(Comparator.comparingLong(TestElement::getPriority));
+		List<TestElement> contained = new ArrayList<>();
+		Set<TestElement> containedSet = new HashSet<>();
+
+		for (int i = 0; i < 10_000; ++i) {
+			final int operation = random.nextInt(4);
+			if (operation < 2 || contained.isEmpty()) {
+				TestElement element = new TestElement(random.nextInt(100), random.nextInt(1000));
+				if (containedSet.add(element)) {
+					Assert.assertTrue(priorityQueue.add(element) || !element.equals(priorityQueue.peek()));
+					expectedQueue.add(element);
+					contained.add(element);
+				}
+			} else if (operation == 2) {
+				TestElement element = contained.remove(random.nextInt(contained.size()));
+				containedSet.remove(element);
+				Assert.assertTrue(expectedQueue.remove(element));
+				priorityQueue.remove(element.deepCopy());
+			} else {
+				TestElement polled = priorityQueue.poll();
+				Assert.assertEquals(expectedQueue.peek().getPriority(), polled.getPriority());
+				Assert.assertTrue(expectedQueue.remove(polled));
+				contained.remove(polled);
+				containedSet.remove(polled);
+			}
+			Assert.assertEquals(expectedQueue.size(), priorityQueue.size());
+		}
+
+		while (!expectedQueue.isEmpty()) {
+			Assert.assertEquals(expectedQueue.poll().getPriority(), priorityQueue.poll().getPriority());
+		}
+		Assert.assertTrue(priorityQueue.isEmpty());
+		Assert.assertEquals(0, priorityQueue.getNumberOfBuckets());
+	}
+
+	@Test
+	public void testHeadBucketStaysSorted() {
+		final Random random = new Random(42L);
+		HeapTimeBucketedPriorityQueueSet<TestElement> priorityQueue = newPriorityQueue(1, 1000L);
+		PriorityQueue<TestElement> expectedQueue = new PriorityQueue<>(Comparator.comparingLong(TestElement::getPriority));
+
+		for (long key = 0; key < 100; ++key) {
+			TestElement element = new TestElement(key, random.nextInt(1000));
+			priorityQueue.add(element);
+			expectedQueue.add(element);
+		}
+		Assert.assertFalse(priorityQueue.isHeadBucketSorted());
+		Assert.assertEquals(expectedQueue.peek().getPriority(), priorityQueue.peek().getPriority());
+		Assert.assertTrue(priorityQueue.isHeadBucketSorted());
+
+		for (long key = 100; key < 1000; ++key) {
+			TestElement element = new TestElement(key, random.nextInt(1000));
+			priorityQueue.add(element);
+			expectedQueue.add(element);
+			if (key % 3 == 0) {
+				// all elements are in the head bucket
+				final long keyToRemove = key - random.nextInt(100);
+				for (TestElement contained : expectedQueue) {
+					if (contained.getKey() == keyToRemove) {
+						expectedQueue.remove(contained);
+						Assert.assertTrue(priorityQueue.remove(contained.deepCopy()));
+						break;
+					}
+				}
+			}
+			Assert.assertTrue(priorityQueue.isHeadBucketSorted());
+		}
+
+		while (!expectedQueue.isEmpty()) {
+			Assert.assertEquals(expectedQueue.poll().getPriority(), priorityQueue.poll().getPriority());
+			Assert.assertTrue(priorityQueue.isHeadBucketSorted());
+		}
+		Assert.assertTrue(priorityQueue.isEmpty());
+	}
+
+	@Test
+	public void testSubsetForKeyGroup() {
+		HeapTimeBucketedPriorityQueueSet<TestElement> priorityQueue = newPriorityQueue(1, 10L);
+		Set<TestElement> allElements = new HashSet<>();
+		for (long key = 0; key < 100; ++key) {
+			TestElement element = new TestElement(key, key % 30);
+			priorityQueue.add(element);
+			allElements.add(element);
+		}
+
+		int totalSize = 0;
+		for (int keyGroup : KEY_GROUP_RANGE) {
+			Set<TestElement> subset = priorityQueue.getSubsetForKeyGroup(keyGroup);
+			for (TestElement element : subset) {
+				Assert.assertEquals(
+					keyGroup,
+					KeyGroupRangeAssignment.assignToKeyGroup(element.getKey(), KEY_GROUP_RANGE.getNumberOfKeyGroups()));
+				Assert.assertTrue(allElements.contains(element));
+			}
+			totalSize += subset.size();
+		}
+		Assert.assertEquals(allElements.size(), totalSize);
+	}
+}
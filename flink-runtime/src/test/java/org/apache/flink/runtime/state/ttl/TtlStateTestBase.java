@@ -27,6 +27,7 @@ import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.SnapshotResult;
 import org.apache.flink.runtime.state.heap.CopyOnWriteStateMap;
 import org.apache.flink.runtime.state.internal.InternalKvState;
+import org.apache.flink.runtime.state.internal.InternalValueState;
 import org.apache.flink.util.StateMigrationException;
 
 import org.junit.After;
@@ -36,7 +37,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.RunnableFuture;
 import java.util.function.Consumer;
 
@@ -44,6 +47,7 @@ import static org.apache.flink.runtime.state.ttl.StateBackendTestContext.NUMBER_
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assume.assumeThat;
 import static org.junit.Assume.assumeTrue;
 
@@ -164,6 +168,10 @@ public abstract class TtlStateTestBase {
 		return false;
 	}
 
+	protected boolean batchedAccessSupported() {
+		return true;
+	}
+
 	@Test
 	public void testNonExistentValue() throws Exception {
 		initTest();
@@ -313,6 +321,42 @@ public abstract class TtlStateTestBase {
 			mctx().getMergeResult(unexpiredUpdatesToMerge, finalUpdatesToMerge), mctx().get());
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testValueStateMultiGetAndMultiPut() throws Exception {
+		assumeThat(ctx, instanceOf(TtlValueStateTestContext.class));
+		assumeTrue(batchedAccessSupported());
+
+		initTest(StateTtlConfig.UpdateType.OnReadAndWrite, StateTtlConfig.StateVisibility.NeverReturnExpired);
+		InternalValueState<String, String, String> state =
+			(InternalValueState<String, String, String>) ctx().ttlState;
+
+		timeProvider.time = 0;
+		Map<String, String> updates = new HashMap<>();
+		updates.put("key1", "value1");
+		updates.put("key2", "value2");
+		state.multiPut(updates);
+
+		timeProvider.time = 50;
+		assertEquals(UNEXPIRED_AVAIL, "value1", state.multiGet(Arrays.asList("key1")).get("key1"));
+
+		timeProvider.time = 120;
+		Map<String, String> values = state.multiGet(Arrays.asList("key1", "key2", "key3"));
+		assertEquals(3, values.size());
+		assertEquals(UNEXPIRED_AVAIL, "value1", values.get("key1"));
+		assertNull(EXPIRED_UNAVAIL, values.get("key2"));
+		assertNull("Non-existing state should be empty", values.get("key3"));
+
+		sbetc.setCurrentKey("key2");
+		assertNull("Expired state should be cleared on access", ctx().getOriginal());
+
+		updates.clear();
+		updates.put("key1", null);
+		state.multiPut(updates);
+		sbetc.setCurrentKey("key1");
+		assertNull("Cleared state should be empty", ctx().get());
+	}
+
 	@Test
 	public void testMultipleKeys() throws Exception {
 		initTest();
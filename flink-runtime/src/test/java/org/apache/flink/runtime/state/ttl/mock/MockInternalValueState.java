@@ -23,6 +23,9 @@ import org.apache.flink.api.common.state.StateDescriptor;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.runtime.state.internal.InternalValueState;
 
+import java.util.Collection;
+import java.util.Map;
+
 /** In memory mock internal value state. */
 class MockInternalValueState<K, N, T>
 	extends MockInternalKvState<K, N, T> implements InternalValueState<K, N, T> {
@@ -37,6 +40,16 @@ class MockInternalValueState<K, N, T>
 		updateInternal(value);
 	}
 
+	@Override
+	public Map<K, T> multiGet(Collection<K> keys) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void multiPut(Map<K, T> values) {
+		throw new UnsupportedOperationException();
+	}
+
 	@SuppressWarnings({"unchecked", "unused"})
 	static <N, T, S extends State, IS extends S> IS createState(
 		TypeSerializer<N> namespaceSerializer,
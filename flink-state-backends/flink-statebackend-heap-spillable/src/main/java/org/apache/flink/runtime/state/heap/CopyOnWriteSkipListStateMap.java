@@ -39,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -82,14 +83,16 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 	static final float DEFAULT_LOGICAL_REMOVED_KEYS_RATIO = 0.2f;
 
 	/**
-	 * The serializer used to serialize the key and namespace to bytes stored in skip list.
+	 * The serializer used to serialize the key and namespace to bytes stored in skip list. The serializer is not
+	 * thread safe, so every thread accessing this map, e.g. for queryable state, uses its own instance.
 	 */
-	private final SkipListKeySerializer<K, N> skipListKeySerializer;
+	private final ThreadLocal<SkipListKeySerializer<K, N>> skipListKeySerializer;
 
 	/**
-	 * The serializer used to serialize the state to bytes stored in skip list.
+	 * The serializer used to serialize the state to bytes stored in skip list. The serializer is not
+	 * thread safe, so every thread accessing this map uses its own instance.
 	 */
-	private final SkipListValueSerializer<S> skipListValueSerializer;
+	private final ThreadLocal<SkipListValueSerializer<S>> skipListValueSerializer;
 
 	/**
 	 * Space allocator.
@@ -175,8 +178,10 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 			@Nonnull Allocator spaceAllocator,
 			int numKeysToDeleteOneTime,
 			float logicalRemovedKeysRatio) {
-		this.skipListKeySerializer = new SkipListKeySerializer<>(keySerializer, namespaceSerializer);
-		this.skipListValueSerializer = new SkipListValueSerializer<>(stateSerializer);
+		this.skipListKeySerializer = ThreadLocal.withInitial(
+			() -> new SkipListKeySerializer<>(keySerializer.duplicate(), namespaceSerializer.duplicate()));
+		this.skipListValueSerializer = ThreadLocal.withInitial(
+			() -> new SkipListValueSerializer<>(stateSerializer.duplicate()));
 		this.spaceAllocator = spaceAllocator;
 		Preconditions.checkArgument(numKeysToDeleteOneTime >= 0,
 			"numKeysToDeleteOneTime should be non-negative, but is "  + numKeysToDeleteOneTime);
@@ -242,7 +247,7 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 		updateStat();
 		MemorySegment keySegment = getKeySegment(key, namespace);
 		int keyLen = keySegment.size();
-		byte[] value = skipListValueSerializer.serialize(state);
+		byte[] value = skipListValueSerializer.get().serialize(state);
 
 		putValue(keySegment, 0, keyLen, value, false);
 	}
@@ -252,7 +257,7 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 		updateStat();
 		MemorySegment keySegment = getKeySegment(key, namespace);
 		int keyLen = keySegment.size();
-		byte[] value = skipListValueSerializer.serialize(state);
+		byte[] value = skipListValueSerializer.get().serialize(state);
 
 		return putValue(keySegment, 0, keyLen, value, true);
 	}
@@ -287,7 +292,7 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 
 		S oldState = getNode(keySegment, 0, keyLen);
 		S newState = transformation.apply(oldState, value);
-		byte[] stateBytes = skipListValueSerializer.serialize(newState);
+		byte[] stateBytes = skipListValueSerializer.get().serialize(newState);
 		putValue(keySegment, 0, keyLen, stateBytes, false);
 	}
 
@@ -879,6 +884,29 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 		doPhysicalRemove(currentNode, prevNode, nextNode);
 	}
 
+	/**
+	 * Copies all states of this map to the given map. The serialized keys and states are copied
+	 * as they are, without deserialization. This is used to move the states to another space.
+	 *
+	 * @param targetStateMap the map to copy states to.
+	 */
+	void copyTo(CopyOnWriteSkipListStateMap<K, N, S> targetStateMap) {
+		NodeIterator nodeIterator = new NodeIterator();
+		while (nodeIterator.hasNext()) {
+			long node = nodeIterator.next();
+			Node nodeStorage = getNodeSegmentAndOffset(node);
+			MemorySegment segment = nodeStorage.nodeSegment;
+			int offsetInSegment = nodeStorage.nodeOffset;
+
+			int level = SkipListUtils.getLevel(segment, offsetInSegment);
+			int keyDataLen = SkipListUtils.getKeyLen(segment, offsetInSegment);
+			int keyDataOffset = offsetInSegment + SkipListUtils.getKeyDataOffset(level);
+			long valuePointer = SkipListUtils.getValuePointer(segment, offsetInSegment);
+
+			targetStateMap.putValue(segment, keyDataOffset, keyDataLen, helpGetBytesForState(valuePointer), false);
+		}
+	}
+
 	/**
 	 * Release all resource used by the map.
 	 */
@@ -996,7 +1024,7 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 	 * @return the {@link MemorySegment} wrapping up the serialized key bytes.
 	 */
 	private MemorySegment getKeySegment(K key, N namespace) {
-		return skipListKeySerializer.serializeToSegment(key, namespace);
+		return skipListKeySerializer.get().serializeToSegment(key, namespace);
 	}
 
 	// Help methods ---------------------------------------------------------------
@@ -1071,7 +1099,7 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 		int level = SkipListUtils.getLevel(segment, offsetInSegment);
 		int keyDataOffset = offsetInSegment + SkipListUtils.getKeyDataOffset(level);
 
-		return skipListKeySerializer.getSerializedKeyAndNamespace(segment, keyDataOffset);
+		return skipListKeySerializer.get().getSerializedKeyAndNamespace(segment, keyDataOffset);
 	}
 
 	/**
@@ -1104,7 +1132,7 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 		int keyDataLen = SkipListUtils.getKeyLen(segment, offsetInSegment);
 		int keyDataOffset = offsetInSegment + SkipListUtils.getKeyDataOffset(level);
 
-		return skipListKeySerializer.deserializeKey(segment, keyDataOffset, keyDataLen);
+		return skipListKeySerializer.get().deserializeKey(segment, keyDataOffset, keyDataLen);
 	}
 
 	/**
@@ -1132,11 +1160,11 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 
 	/**
 	 * Return the state pointed by the given pointer. The serializer used is the
-	 * {@link #skipListValueSerializer}. Because serializer is not thread safe, so
+	 * {@link #skipListValueSerializer} of the current thread. Because serializer is not thread safe, so
 	 * this method should only be called in the state map synchronously.
 	 */
 	S helpGetState(long valuePointer) {
-		return helpGetState(valuePointer, skipListValueSerializer);
+		return helpGetState(valuePointer, skipListValueSerializer.get());
 	}
 
 	/**
@@ -1151,8 +1179,8 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 		int keyDataLen = SkipListUtils.getKeyLen(segment, offsetInSegment);
 		int keyDataOffset = offsetInSegment + SkipListUtils.getKeyDataOffset(level);
 
-		K key = skipListKeySerializer.deserializeKey(segment, keyDataOffset, keyDataLen);
-		N namespace = skipListKeySerializer.deserializeNamespace(segment, keyDataOffset, keyDataLen);
+		K key = skipListKeySerializer.get().deserializeKey(segment, keyDataOffset, keyDataLen);
+		N namespace = skipListKeySerializer.get().deserializeNamespace(segment, keyDataOffset, keyDataLen);
 		long valuePointer = SkipListUtils.getValuePointer(segment, offsetInSegment);
 		S state = helpGetState(valuePointer);
 
@@ -1164,7 +1192,7 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 	@Override
 	public Stream<K> getKeys(N namespace) {
 		updateStat();
-		MemorySegment namespaceSegment = skipListKeySerializer.serializeNamespaceToSegment(namespace);
+		MemorySegment namespaceSegment = skipListKeySerializer.get().serializeNamespaceToSegment(namespace);
 		Iterator<Long> nodeIter = new NamespaceNodeIterator(namespaceSegment, 0, namespaceSegment.size());
 		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(nodeIter, 0), false)
 			.map(this::helpGetKey);
@@ -1174,7 +1202,7 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 	@Override
 	public int sizeOfNamespace(Object namespace) {
 		updateStat();
-		MemorySegment namespaceSegment = skipListKeySerializer.serializeNamespaceToSegment((N) namespace);
+		MemorySegment namespaceSegment = skipListKeySerializer.get().serializeNamespaceToSegment((N) namespace);
 		Iterator<Long> nodeIter = new NamespaceNodeIterator(namespaceSegment, 0, namespaceSegment.size());
 		int size = 0;
 		while (nodeIter.hasNext()) {
@@ -1292,6 +1320,16 @@ public final class CopyOnWriteSkipListStateMap<K, N, S> extends StateMap<K, N, S
 		return closed.get();
 	}
 
+	/**
+	 * Acquires a lease which prevents that the space of this map is freed while the lease is held. This is used by
+	 * threads which access the map concurrently to the task thread.
+	 *
+	 * @throws IOException if the map has already been closed.
+	 */
+	ResourceGuard.Lease acquireLease() throws IOException {
+		return resourceGuard.acquireResource();
+	}
+
 	@Override
 	public void close() {
 		if (!closed.compareAndSet(false, true)) {
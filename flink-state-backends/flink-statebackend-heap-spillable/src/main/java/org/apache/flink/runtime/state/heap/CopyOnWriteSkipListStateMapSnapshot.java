@@ -31,6 +31,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.apache.flink.runtime.state.heap.SkipListUtils.HEAD_NODE;
 import static org.apache.flink.runtime.state.heap.SkipListUtils.NIL_NODE;
@@ -60,6 +61,11 @@ public class CopyOnWriteSkipListStateMapSnapshot<K, N, S>
 	 */
 	private final ResourceGuard.Lease lease;
 
+	/**
+	 * Whether this snapshot has been released.
+	 */
+	private final AtomicBoolean released;
+
 	/**
 	 * Creates a new {@link CopyOnWriteSkipListStateMap}.
 	 *
@@ -74,6 +80,7 @@ public class CopyOnWriteSkipListStateMapSnapshot<K, N, S>
 		this.snapshotVersion = owningStateMap.getStateMapVersion();
 		this.numberOfEntriesInSnapshotData = owningStateMap.size();
 		this.lease = lease;
+		this.released = new AtomicBoolean(false);
 	}
 
 	/**
@@ -85,8 +92,14 @@ public class CopyOnWriteSkipListStateMapSnapshot<K, N, S>
 
 	@Override
 	public void release() {
-		owningStateMap.releaseSnapshot(this);
-		lease.close();
+		if (released.compareAndSet(false, true)) {
+			owningStateMap.releaseSnapshot(this);
+			lease.close();
+		}
+	}
+
+	public boolean isReleased() {
+		return released.get();
 	}
 
 	@Override
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.state.heap.space.SpaceAllocator;
+import org.apache.flink.util.IOUtils;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Manages the space of the {@link SpillableStateTable}s of a backend. State maps are kept in memory
+ * as long as the used memory stays below the spill threshold. When the used memory crosses the spill
+ * threshold, the coldest state maps are spilled to local disk until the used memory drops to the load
+ * threshold. Spilled state maps which are accessed again are loaded back as long as the memory stays
+ * below the load threshold.
+ *
+ * <p>The heat of a state map is the number of requests per entry, decayed over the check intervals,
+ * so that small maps which are accessed frequently are kept in memory in favour of large maps whose
+ * entries are rarely accessed.
+ *
+ * <p>The used memory is checked periodically, and right away when the memory allocator acquired a new
+ * chunk which takes the memory above the spill threshold, so that a burst of writes between two
+ * periodic checks can not grow the memory far beyond the limit.
+ *
+ * <p>Resources are checked on the task thread while accessing state, so that state maps are never
+ * moved concurrently to an access of the task thread. Concurrent readers, e.g. queryable state, hold
+ * a lease on the state map they read, so that the space of a moved map is only freed after the read.
+ * State maps with a running snapshot or an open key stream are not moved.
+ */
+public class SpillAndLoadManager implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SpillAndLoadManager.class);
+
+	/**
+	 * The clock is only read on every this many state accesses, to keep the check cheap.
+	 */
+	private static final int CHECK_SAMPLE_MASK = 1023;
+
+	/**
+	 * Allocator of the memory state maps are kept in.
+	 */
+	private final SpaceAllocator memoryAllocator;
+
+	/**
+	 * Allocator of the disk space state maps are spilled to.
+	 */
+	private final SpaceAllocator spillAllocator;
+
+	/**
+	 * Used memory above which state maps are spilled.
+	 */
+	private final long spillThreshold;
+
+	/**
+	 * Used memory the spilling aims at, and below which spilled state maps are loaded.
+	 */
+	private final long loadThreshold;
+
+	private final long checkIntervalMillis;
+
+	private final List<SpillableStateTable<?, ?, ?>> stateTables;
+
+	private int accessCount;
+
+	private long lastCheckTime;
+
+	/**
+	 * Memory of the chunks of the memory allocator at the last access, to detect newly acquired chunks.
+	 */
+	private long lastTotalMemory;
+
+	public SpillAndLoadManager(
+		SpaceAllocator memoryAllocator,
+		SpaceAllocator spillAllocator,
+		long memoryLimit,
+		float spillThresholdRatio,
+		float loadThresholdRatio,
+		long checkIntervalMillis) {
+		Preconditions.checkArgument(memoryLimit > 0, "Memory limit must be positive.");
+		Preconditions.checkArgument(loadThresholdRatio > 0 && loadThresholdRatio <= spillThresholdRatio && spillThresholdRatio <= 1,
+			"Thresholds must satisfy 0 < load threshold <= spill threshold <= 1, but are %s and %s.",
+			loadThresholdRatio, spillThresholdRatio);
+		this.memoryAllocator = Preconditions.checkNotNull(memoryAllocator);
+		this.spillAllocator = Preconditions.checkNotNull(spillAllocator);
+		this.spillThreshold = (long) (memoryLimit * spillThresholdRatio);
+		this.loadThreshold = (long) (memoryLimit * loadThresholdRatio);
+		this.checkIntervalMillis = checkIntervalMillis;
+		this.stateTables = new ArrayList<>();
+		this.accessCount = 0;
+		this.lastCheckTime = System.currentTimeMillis();
+		this.lastTotalMemory = 0;
+	}
+
+	SpaceAllocator getMemoryAllocator() {
+		return memoryAllocator;
+	}
+
+	SpaceAllocator getSpillAllocator() {
+		return spillAllocator;
+	}
+
+	void register(SpillableStateTable<?, ?, ?> stateTable) {
+		stateTables.add(stateTable);
+	}
+
+	/**
+	 * Called on every state access, and checks the resources once the check interval has elapsed, or
+	 * immediately if a new chunk took the memory above the spill threshold.
+	 */
+	void checkResource() {
+		long totalMemory = memoryAllocator.getTotalMemory();
+		if (totalMemory != lastTotalMemory) {
+			boolean acquiredChunk = totalMemory > lastTotalMemory;
+			lastTotalMemory = totalMemory;
+			if (acquiredChunk && totalMemory > spillThreshold) {
+				lastCheckTime = System.currentTimeMillis();
+				runCheck();
+				return;
+			}
+		}
+
+		if ((++accessCount & CHECK_SAMPLE_MASK) != 0) {
+			return;
+		}
+
+		long currentTime = System.currentTimeMillis();
+		if (currentTime - lastCheckTime >= checkIntervalMillis) {
+			lastCheckTime = currentTime;
+			runCheck();
+		}
+	}
+
+	/**
+	 * Updates the heat of all state maps, and spills or loads state maps depending on the used memory.
+	 */
+	@VisibleForTesting
+	void runCheck() {
+		List<StateMapMeta> inMemory = new ArrayList<>();
+		List<StateMapMeta> onDisk = new ArrayList<>();
+		long inMemoryEntries = 0;
+		long onDiskEntries = 0;
+		for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+			stateTable.updateHeats();
+			for (int i = 0; i < stateTable.getNumberOfStateMaps(); i++) {
+				StateMapMeta meta = new StateMapMeta(stateTable, i);
+				if (stateTable.isSpilled(i)) {
+					onDisk.add(meta);
+					onDiskEntries += meta.size;
+				} else {
+					inMemory.add(meta);
+					inMemoryEntries += meta.size;
+				}
+			}
+		}
+
+		long usedMemory = memoryAllocator.getUsedMemory();
+		if (usedMemory > spillThreshold) {
+			spill(inMemory, usedMemory, bytesPerEntry(usedMemory, inMemoryEntries));
+		} else if (usedMemory < loadThreshold && !onDisk.isEmpty()) {
+			load(onDisk, usedMemory, bytesPerEntry(spillAllocator.getUsedMemory(), onDiskEntries));
+		}
+	}
+
+	private void spill(List<StateMapMeta> candidates, long usedMemory, float bytesPerEntry) {
+		candidates.sort(Comparator.comparingDouble(StateMapMeta::getHeatPerEntry));
+
+		long estimatedMemory = usedMemory;
+		int numSpilled = 0;
+		for (StateMapMeta meta : candidates) {
+			if (estimatedMemory <= loadThreshold) {
+				break;
+			}
+			if (meta.size == 0 || !meta.stateTable.isMovable(meta.index)) {
+				continue;
+			}
+			meta.stateTable.moveStateMap(meta.index, spillAllocator, true);
+			estimatedMemory -= (long) (meta.size * bytesPerEntry);
+			numSpilled++;
+		}
+
+		LOG.debug("Spilled {} state maps to disk, used memory was {} bytes and is {} bytes now.",
+			numSpilled, usedMemory, memoryAllocator.getUsedMemory());
+	}
+
+	private void load(List<StateMapMeta> candidates, long usedMemory, float bytesPerEntry) {
+		candidates.sort(Comparator.comparingDouble(StateMapMeta::getHeatPerEntry).reversed());
+
+		long estimatedMemory = usedMemory;
+		int numLoaded = 0;
+		for (StateMapMeta meta : candidates) {
+			if (meta.heat <= 0) {
+				break;
+			}
+			long estimatedSize = (long) (meta.size * bytesPerEntry);
+			if (estimatedMemory + estimatedSize > loadThreshold) {
+				continue;
+			}
+			if (!meta.stateTable.isMovable(meta.index)) {
+				continue;
+			}
+			meta.stateTable.moveStateMap(meta.index, memoryAllocator, false);
+			estimatedMemory += estimatedSize;
+			numLoaded++;
+		}
+
+		LOG.debug("Loaded {} state maps from disk, used memory was {} bytes and is {} bytes now.",
+			numLoaded, usedMemory, memoryAllocator.getUsedMemory());
+	}
+
+	private static float bytesPerEntry(long usedBytes, long numEntries) {
+		return numEntries == 0 ? 0 : (float) usedBytes / numEntries;
+	}
+
+	@Override
+	public void close() {
+		for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+			stateTable.close();
+		}
+		stateTables.clear();
+		IOUtils.closeQuietly(memoryAllocator);
+		IOUtils.closeQuietly(spillAllocator);
+	}
+
+	/**
+	 * Heat and size of a state map, captured at the time of a check.
+	 */
+	private static final class StateMapMeta {
+
+		private final SpillableStateTable<?, ?, ?> stateTable;
+
+		private final int index;
+
+		private final int size;
+
+		private final float heat;
+
+		StateMapMeta(SpillableStateTable<?, ?, ?> stateTable, int index) {
+			this.stateTable = stateTable;
+			this.index = index;
+			this.size = stateTable.getStateMap(index).size();
+			this.heat = stateTable.getHeat(index);
+		}
+
+		float getHeatPerEntry() {
+			return heat / (size + 1);
+		}
+	}
+}
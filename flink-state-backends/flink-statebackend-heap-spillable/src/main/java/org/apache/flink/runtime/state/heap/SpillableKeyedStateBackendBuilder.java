@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.fs.CloseableRegistry;
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.LocalRecoveryConfig;
+import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.heap.space.ManagedMemoryChunkAllocator;
+import org.apache.flink.runtime.state.heap.space.MmapChunkAllocator;
+import org.apache.flink.runtime.state.heap.space.SpaceAllocator;
+import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.util.IOUtils;
+
+import javax.annotation.Nonnull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Builder class for a {@link HeapKeyedStateBackend} which stores its key/value state in
+ * {@link SpillableStateTable}s. The memory of the state tables is taken from the managed memory
+ * of the slot, and the space of the state tables is released when the backend is disposed.
+ *
+ * @param <K> The data type that the key serializer serializes.
+ */
+public class SpillableKeyedStateBackendBuilder<K> extends HeapKeyedStateBackendBuilder<K> {
+
+	private final MemoryManager memoryManager;
+
+	private final long memoryLimit;
+
+	private final int chunkSize;
+
+	private final float spillThreshold;
+
+	private final float loadThreshold;
+
+	private final long checkIntervalMillis;
+
+	private final File[] spillDirectories;
+
+	public SpillableKeyedStateBackendBuilder(
+		TaskKvStateRegistry kvStateRegistry,
+		TypeSerializer<K> keySerializer,
+		ClassLoader userCodeClassLoader,
+		int numberOfKeyGroups,
+		KeyGroupRange keyGroupRange,
+		ExecutionConfig executionConfig,
+		TtlTimeProvider ttlTimeProvider,
+		@Nonnull Collection<KeyedStateHandle> stateHandles,
+		StreamCompressionDecorator keyGroupCompressionDecorator,
+		LocalRecoveryConfig localRecoveryConfig,
+		HeapPriorityQueueSetFactory priorityQueueSetFactory,
+		CloseableRegistry cancelStreamRegistry,
+		MemoryManager memoryManager,
+		long memoryLimit,
+		int chunkSize,
+		float spillThreshold,
+		float loadThreshold,
+		long checkIntervalMillis,
+		File[] spillDirectories) {
+		super(
+			kvStateRegistry,
+			keySerializer,
+			userCodeClassLoader,
+			numberOfKeyGroups,
+			keyGroupRange,
+			executionConfig,
+			ttlTimeProvider,
+			stateHandles,
+			keyGroupCompressionDecorator,
+			localRecoveryConfig,
+			priorityQueueSetFactory,
+			true,
+			cancelStreamRegistry);
+		this.memoryManager = memoryManager;
+		this.memoryLimit = memoryLimit;
+		this.chunkSize = chunkSize;
+		this.spillThreshold = spillThreshold;
+		this.loadThreshold = loadThreshold;
+		this.checkIntervalMillis = checkIntervalMillis;
+		this.spillDirectories = spillDirectories;
+	}
+
+	@Override
+	SnapshotStrategySynchronicityBehavior<K> createSnapshotStrategySynchronicityBehavior(
+		CloseableRegistry cancelStreamRegistryForBackend) throws IOException {
+		SpillAndLoadManager spillAndLoadManager = new SpillAndLoadManager(
+			new SpaceAllocator(new ManagedMemoryChunkAllocator(memoryManager), chunkSize),
+			new SpaceAllocator(new MmapChunkAllocator(spillDirectories), chunkSize),
+			memoryLimit,
+			spillThreshold,
+			loadThreshold,
+			checkIntervalMillis);
+		try {
+			cancelStreamRegistryForBackend.registerCloseable(spillAndLoadManager);
+		} catch (IOException e) {
+			IOUtils.closeQuietly(spillAndLoadManager);
+			throw e;
+		}
+		return new SpillableSnapshotStrategySynchronicityBehavior<>(spillAndLoadManager);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.configuration.ConfigOptions;
+import org.apache.flink.configuration.MemorySize;
+
+import java.time.Duration;
+
+/**
+ * Configuration options for the spillable heap state backend.
+ */
+public class SpillableOptions {
+
+	/**
+	 * Memory of a keyed state backend to store state in, which is taken from the managed memory of the slot.
+	 */
+	public static final ConfigOption<MemorySize> MEMORY_LIMIT = ConfigOptions
+		.key("state.backend.spillable.memory-limit")
+		.memoryType()
+		.noDefaultValue()
+		.withDescription("The memory of a keyed state backend to store state in. The memory is taken from the " +
+			"managed memory of the slot, and if not set, a keyed state backend may use all managed memory of the slot. " +
+			"Key groups are spilled to local disk when the used memory exceeds the spill threshold of this limit.");
+
+	/**
+	 * Ratio of the memory limit above which cold key groups are spilled to disk.
+	 */
+	public static final ConfigOption<Float> SPILL_THRESHOLD = ConfigOptions
+		.key("state.backend.spillable.spill-threshold")
+		.floatType()
+		.defaultValue(0.9f)
+		.withDescription("The ratio of the memory limit above which the coldest key groups are spilled to local disk, " +
+			"until the used memory drops to the load threshold.");
+
+	/**
+	 * Ratio of the memory limit below which spilled key groups are loaded back into memory.
+	 */
+	public static final ConfigOption<Float> LOAD_THRESHOLD = ConfigOptions
+		.key("state.backend.spillable.load-threshold")
+		.floatType()
+		.defaultValue(0.7f)
+		.withDescription("The ratio of the memory limit below which spilled key groups that are accessed again are " +
+			"loaded back into memory. Must not be larger than the spill threshold.");
+
+	/**
+	 * Interval to check the used memory and the heat of key groups.
+	 */
+	public static final ConfigOption<Duration> CHECK_INTERVAL = ConfigOptions
+		.key("state.backend.spillable.check-interval")
+		.durationType()
+		.defaultValue(Duration.ofSeconds(1))
+		.withDescription("The interval in which the used memory and the heat of key groups are checked to decide " +
+			"on spilling and loading key groups.");
+
+	/**
+	 * Size of the chunks memory and disk space is acquired in.
+	 */
+	public static final ConfigOption<MemorySize> CHUNK_SIZE = ConfigOptions
+		.key("state.backend.spillable.chunk-size")
+		.memoryType()
+		.defaultValue(MemorySize.parse("16m"))
+		.withDescription("The size of the chunks memory and disk space is acquired in. Must be a multiple of 1 mb.");
+
+	/**
+	 * Local directories key groups are spilled to.
+	 */
+	public static final ConfigOption<String> LOCAL_DIRECTORIES = ConfigOptions
+		.key("state.backend.spillable.localdir")
+		.stringType()
+		.noDefaultValue()
+		.withDescription("The local directories (on the TaskManager) key groups are spilled to, separated by ',' or the " +
+			"system's java.io.File.pathSeparator. If not set, the temporary directories of the TaskManager are used.");
+}
@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.ConfigurationUtils;
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.core.fs.CloseableRegistry;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.memory.MemoryType;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.execution.Environment;
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.AbstractKeyedStateBackend;
+import org.apache.flink.runtime.state.AbstractStateBackend;
+import org.apache.flink.runtime.state.BackendBuildingException;
+import org.apache.flink.runtime.state.CheckpointStorage;
+import org.apache.flink.runtime.state.ConfigurableStateBackend;
+import org.apache.flink.runtime.state.DefaultOperatorStateBackendBuilder;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.LocalRecoveryConfig;
+import org.apache.flink.runtime.state.OperatorStateBackend;
+import org.apache.flink.runtime.state.OperatorStateHandle;
+import org.apache.flink.runtime.state.filesystem.AbstractFileStateBackend;
+import org.apache.flink.runtime.state.filesystem.FsCheckpointStorage;
+import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A state backend which keeps the working state like the {@link HeapKeyedStateBackend}, but stores
+ * it in serialized form in the managed memory of the slot. Key groups are kept in memory up to a
+ * configured limit or the managed memory, beyond which the coldest key groups are spilled to local
+ * disk through memory-mapped files.
+ * Checkpoints are persisted to a file system, like with the
+ * {@link org.apache.flink.runtime.state.filesystem.FsStateBackend}.
+ *
+ * <p>Compared to the heap backend, state does not add to the garbage collection overhead and can grow
+ * beyond the available memory. Compared to a backend storing state in an embedded database, state
+ * in memory is accessed without any indirection. Snapshots are always asynchronous.
+ *
+ * <p>The memory and spilling behavior is configured with the {@link SpillableOptions}.
+ */
+@PublicEvolving
+public class SpillableStateBackend extends AbstractFileStateBackend implements ConfigurableStateBackend {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final long UNDEFINED_MEMORY_LIMIT = -1L;
+
+	/**
+	 * Memory limit of a keyed state backend, or {@link #UNDEFINED_MEMORY_LIMIT} to use the managed memory of the slot.
+	 */
+	private final long memoryLimit;
+
+	private final int chunkSize;
+
+	private final float spillThreshold;
+
+	private final float loadThreshold;
+
+	private final long checkIntervalMillis;
+
+	/**
+	 * Directories key groups are spilled to, null to use the temporary directories of the TaskManager.
+	 */
+	@Nullable
+	private final String[] localDirectories;
+
+	private final int fileStateThreshold;
+
+	private final int writeBufferSize;
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Creates a new state backend that stores its checkpoint data in the file system and location
+	 * defined by the given URI.
+	 *
+	 * @param checkpointDataUri URI describing the filesystem (scheme and optionally authority),
+	 *                          and the path to the checkpoint data directory.
+	 */
+	public SpillableStateBackend(String checkpointDataUri) {
+		this(new Path(checkpointDataUri).toUri());
+	}
+
+	/**
+	 * Creates a new state backend that stores its checkpoint data in the file system and location
+	 * defined by the given URI.
+	 *
+	 * @param checkpointDataUri URI describing the filesystem (scheme and optionally authority),
+	 *                          and the path to the checkpoint data directory.
+	 */
+	public SpillableStateBackend(URI checkpointDataUri) {
+		this(checkNotNull(checkpointDataUri, "checkpoint directory is null"), new Configuration());
+	}
+
+	private SpillableStateBackend(URI checkpointDataUri, Configuration configuration) {
+		super(new Path(checkpointDataUri), null, configuration);
+		MemorySize configuredMemoryLimit = configuration.get(SpillableOptions.MEMORY_LIMIT);
+		long memoryLimit = configuredMemoryLimit == null ? UNDEFINED_MEMORY_LIMIT : configuredMemoryLimit.getBytes();
+		long chunkSize = configuration.get(SpillableOptions.CHUNK_SIZE).getBytes();
+		float spillThreshold = configuration.get(SpillableOptions.SPILL_THRESHOLD);
+		float loadThreshold = configuration.get(SpillableOptions.LOAD_THRESHOLD);
+		long checkIntervalMillis = configuration.get(SpillableOptions.CHECK_INTERVAL).toMillis();
+
+		checkArgument(memoryLimit > 0 || memoryLimit == UNDEFINED_MEMORY_LIMIT, "The memory limit must be positive.");
+		checkArgument(chunkSize > 0 && chunkSize <= Integer.MAX_VALUE,
+			"The chunk size must be positive and smaller than 2 gb.");
+		checkArgument(loadThreshold > 0 && loadThreshold <= spillThreshold && spillThreshold <= 1,
+			"The thresholds must satisfy 0 < load threshold <= spill threshold <= 1, but are %s and %s.",
+			loadThreshold, spillThreshold);
+		checkArgument(checkIntervalMillis >= 0, "The check interval must not be negative.");
+
+		this.memoryLimit = memoryLimit;
+		this.chunkSize = (int) chunkSize;
+		this.spillThreshold = spillThreshold;
+		this.loadThreshold = loadThreshold;
+		this.checkIntervalMillis = checkIntervalMillis;
+
+		String localDirectories = configuration.get(SpillableOptions.LOCAL_DIRECTORIES);
+		this.localDirectories = localDirectories == null ? null : ConfigurationUtils.splitPaths(localDirectories);
+
+		this.fileStateThreshold = configuration.get(CheckpointingOptions.FS_SMALL_FILE_THRESHOLD);
+		this.writeBufferSize = Math.max(configuration.get(CheckpointingOptions.FS_WRITE_BUFFER_SIZE), fileStateThreshold);
+	}
+
+	// ------------------------------------------------------------------------
+	//  Reconfiguration
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Creates a copy of this state backend that uses the values defined in the configuration
+	 * for the checkpoint and spilling settings.
+	 *
+	 * @param config the configuration
+	 * @return The re-configured variant of the state backend
+	 */
+	@Override
+	public SpillableStateBackend configure(Configuration config, ClassLoader classLoader) {
+		return new SpillableStateBackend(getCheckpointPath().toUri(), config);
+	}
+
+	// ------------------------------------------------------------------------
+	//  Properties
+	// ------------------------------------------------------------------------
+
+	@Nonnull
+	@Override
+	public Path getCheckpointPath() {
+		// we know that this can never be null by the way of constructor checks
+		//noinspection ConstantConditions
+		return super.getCheckpointPath();
+	}
+
+	/**
+	 * Returns the configured memory limit of a keyed state backend, or -1 if the backend uses the
+	 * managed memory of the slot.
+	 */
+	public long getMemoryLimit() {
+		return memoryLimit;
+	}
+
+	public float getSpillThreshold() {
+		return spillThreshold;
+	}
+
+	public float getLoadThreshold() {
+		return loadThreshold;
+	}
+
+	// ------------------------------------------------------------------------
+	//  initialization and cleanup
+	// ------------------------------------------------------------------------
+
+	@Override
+	public CheckpointStorage createCheckpointStorage(JobID jobId) throws IOException {
+		checkNotNull(jobId, "jobId");
+		return new FsCheckpointStorage(
+			getCheckpointPath(),
+			getSavepointPath(),
+			jobId,
+			fileStateThreshold,
+			writeBufferSize);
+	}
+
+	// ------------------------------------------------------------------------
+	//  state holding structures
+	// ------------------------------------------------------------------------
+
+	@Override
+	public <K> AbstractKeyedStateBackend<K> createKeyedStateBackend(
+		Environment env,
+		JobID jobID,
+		String operatorIdentifier,
+		TypeSerializer<K> keySerializer,
+		int numberOfKeyGroups,
+		KeyGroupRange keyGroupRange,
+		TaskKvStateRegistry kvStateRegistry,
+		TtlTimeProvider ttlTimeProvider,
+		MetricGroup metricGroup,
+		@Nonnull Collection<KeyedStateHandle> stateHandles,
+		CloseableRegistry cancelStreamRegistry) throws BackendBuildingException {
+
+		MemoryManager memoryManager = env.getMemoryManager();
+		long managedMemory = memoryManager.getMemorySizeByType(MemoryType.OFF_HEAP);
+		if (managedMemory <= 0) {
+			throw new BackendBuildingException("The spillable state backend stores state in managed memory, " +
+				"but the slot has no managed memory.");
+		}
+
+		LocalRecoveryConfig localRecoveryConfig = env.getTaskStateManager().createLocalRecoveryConfig();
+		HeapPriorityQueueSetFactory priorityQueueSetFactory =
+			new HeapPriorityQueueSetFactory(keyGroupRange, numberOfKeyGroups, 128);
+
+		return new SpillableKeyedStateBackendBuilder<>(
+			kvStateRegistry,
+			keySerializer,
+			env.getUserClassLoader(),
+			numberOfKeyGroups,
+			keyGroupRange,
+			env.getExecutionConfig(),
+			ttlTimeProvider,
+			stateHandles,
+			AbstractStateBackend.getCompressionDecorator(env.getExecutionConfig()),
+			localRecoveryConfig,
+			priorityQueueSetFactory,
+			cancelStreamRegistry,
+			memoryManager,
+			memoryLimit == UNDEFINED_MEMORY_LIMIT ? managedMemory : Math.min(memoryLimit, managedMemory),
+			chunkSize,
+			spillThreshold,
+			loadThreshold,
+			checkIntervalMillis,
+			getSpillDirectories(env)).build();
+	}
+
+	@Override
+	public OperatorStateBackend createOperatorStateBackend(
+		Environment env,
+		String operatorIdentifier,
+		@Nonnull Collection<OperatorStateHandle> stateHandles,
+		CloseableRegistry cancelStreamRegistry) throws BackendBuildingException {
+
+		return new DefaultOperatorStateBackendBuilder(
+			env.getUserClassLoader(),
+			env.getExecutionConfig(),
+			true,
+			stateHandles,
+			cancelStreamRegistry).build();
+	}
+
+	private File[] getSpillDirectories(Environment env) {
+		if (localDirectories == null) {
+			return env.getIOManager().getSpillingDirectories();
+		}
+
+		File[] directories = new File[localDirectories.length];
+		for (int i = 0; i < localDirectories.length; i++) {
+			directories[i] = new File(localDirectories[i]);
+		}
+		return directories;
+	}
+
+	// ------------------------------------------------------------------------
+	//  utilities
+	// ------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return "Spillable State Backend (" +
+			"checkpoints: '" + getCheckpointPath() +
+			"', savepoints: '" + getSavepointPath() +
+			"', memoryLimit: " + memoryLimit +
+			", spillThreshold: " + spillThreshold +
+			", loadThreshold: " + loadThreshold + ")";
+	}
+}
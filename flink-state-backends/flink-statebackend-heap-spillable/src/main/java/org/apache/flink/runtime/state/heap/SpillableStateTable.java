@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
+import org.apache.flink.runtime.state.heap.space.Allocator;
+import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.ResourceGuard;
+
+import javax.annotation.Nonnull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This implementation of {@link StateTable} uses {@link CopyOnWriteSkipListStateMap}, which stores
+ * the serialized states outside of the Java heap. Each key group is either kept in memory or
+ * spilled to local disk, as decided by the {@link SpillAndLoadManager} based on the heat of the key
+ * group. This implementation supports asynchronous snapshots.
+ *
+ * @param <K> type of key.
+ * @param <N> type of namespace.
+ * @param <S> type of state.
+ */
+public class SpillableStateTable<K, N, S> extends StateTable<K, N, S> implements AutoCloseable {
+
+	/**
+	 * Weight of the heat of past check intervals.
+	 */
+	private static final float HEAT_DECAY_FACTOR = 0.5f;
+
+	private final SpillAndLoadManager spillAndLoadManager;
+
+	/**
+	 * The state maps of the key groups, which are safely published to readers concurrent to the task thread,
+	 * because moving a key group replaces its state map.
+	 */
+	private final AtomicReferenceArray<CopyOnWriteSkipListStateMap<K, N, S>> publishedStateMaps;
+
+	/**
+	 * Whether the state map of a key group is spilled to disk.
+	 */
+	private final boolean[] spilled;
+
+	/**
+	 * Request count of the state map of a key group at the last heat update.
+	 */
+	private final int[] lastRequestCounts;
+
+	/**
+	 * Heat of the state map of a key group, which is the number of requests in the last check
+	 * interval, plus the decayed heat of previous intervals.
+	 */
+	private final float[] heats;
+
+	/**
+	 * Number of key streams which are still open. The streams lazily iterate the state maps, so state maps are
+	 * not moved while any stream is open.
+	 */
+	private int numOpenKeyStreams;
+
+	/**
+	 * Constructs a new {@code SpillableStateTable}.
+	 *
+	 * @param keyContext          the key context.
+	 * @param metaInfo            the meta information, including the type serializer for state copy-on-write.
+	 * @param keySerializer       the serializer of the key.
+	 * @param spillAndLoadManager the manager that provides the space and decides on spilling key groups.
+	 */
+	SpillableStateTable(
+		InternalKeyContext<K> keyContext,
+		RegisteredKeyValueStateBackendMetaInfo<N, S> metaInfo,
+		TypeSerializer<K> keySerializer,
+		SpillAndLoadManager spillAndLoadManager) {
+		super(keyContext, metaInfo, keySerializer);
+		this.spillAndLoadManager = spillAndLoadManager;
+		this.spilled = new boolean[keyGroupedStateMaps.length];
+		this.lastRequestCounts = new int[keyGroupedStateMaps.length];
+		this.heats = new float[keyGroupedStateMaps.length];
+		this.publishedStateMaps = new AtomicReferenceArray<>(keyGroupedStateMaps.length);
+		for (int i = 0; i < keyGroupedStateMaps.length; i++) {
+			CopyOnWriteSkipListStateMap<K, N, S> stateMap = createStateMap(spillAndLoadManager.getMemoryAllocator());
+			keyGroupedStateMaps[i] = stateMap;
+			publishedStateMaps.set(i, stateMap);
+		}
+	}
+
+	/**
+	 * The state maps are created in the constructor of this class, once the allocator is known.
+	 */
+	@Override
+	protected CopyOnWriteSkipListStateMap<K, N, S> createStateMap() {
+		return null;
+	}
+
+	private CopyOnWriteSkipListStateMap<K, N, S> createStateMap(Allocator spaceAllocator) {
+		return new CopyOnWriteSkipListStateMap<>(
+			getKeySerializer(),
+			getNamespaceSerializer(),
+			getStateSerializer(),
+			spaceAllocator,
+			CopyOnWriteSkipListStateMap.DEFAULT_MAX_KEYS_TO_DELETE_ONE_TIME,
+			CopyOnWriteSkipListStateMap.DEFAULT_LOGICAL_REMOVED_KEYS_RATIO);
+	}
+
+	/**
+	 * The states are stored in serialized form, so modifications of a returned state are written back.
+	 */
+	@Override
+	public boolean requiresWriteBack() {
+		return true;
+	}
+
+	@Override
+	StateMap<K, N, S> getMapForKeyGroup(int keyGroupIndex) {
+		spillAndLoadManager.checkResource();
+		return super.getMapForKeyGroup(keyGroupIndex);
+	}
+
+	/**
+	 * Returns the state for the given key and namespace. This method is also called concurrently to the task
+	 * thread, e.g. by queryable state, so it never moves state maps itself. It holds a lease on the state map
+	 * while reading, so that a concurrent move of the map waits with freeing its space until the read is done.
+	 */
+	@Override
+	public S get(K key, N namespace) {
+		Preconditions.checkNotNull(key, "No key set. This method should not be called outside of a keyed context.");
+		Preconditions.checkNotNull(namespace, "Provided namespace is null.");
+
+		final int keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(key, keyContext.getNumberOfKeyGroups());
+		final int pos = keyGroup - keyGroupOffset;
+		if (pos < 0 || pos >= keyGroupedStateMaps.length) {
+			return null;
+		}
+
+		while (true) {
+			final CopyOnWriteSkipListStateMap<K, N, S> stateMap = publishedStateMaps.get(pos);
+			try (ResourceGuard.Lease ignored = stateMap.acquireLease()) {
+				return stateMap.get(key, namespace);
+			} catch (IOException e) {
+				// the state map was closed, which is fine if it was replaced by a moved map in the meantime
+				if (publishedStateMaps.get(pos) == stateMap) {
+					throw new IllegalStateException("The state table has been closed.", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the keys of the given namespace. State maps are not moved until the stream is closed or all
+	 * keys have been consumed, because the stream lazily reads the state maps.
+	 */
+	@Override
+	public Stream<K> getKeys(N namespace) {
+		final Stream<K> keys = super.getKeys(namespace);
+		final Iterator<K> keyIterator = keys.iterator();
+
+		numOpenKeyStreams++;
+		final Runnable release = new Runnable() {
+			private boolean released;
+
+			@Override
+			public void run() {
+				if (!released) {
+					released = true;
+					numOpenKeyStreams--;
+				}
+			}
+		};
+
+		final Iterator<K> releasingIterator = new Iterator<K>() {
+			@Override
+			public boolean hasNext() {
+				boolean hasNext = keyIterator.hasNext();
+				if (!hasNext) {
+					release.run();
+				}
+				return hasNext;
+			}
+
+			@Override
+			public K next() {
+				return keyIterator.next();
+			}
+		};
+
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(releasingIterator, 0), false)
+			.onClose(() -> {
+				release.run();
+				keys.close();
+			});
+	}
+
+	// Spilling and loading ------------------------------------------------------------------------
+
+	/**
+	 * Returns the number of key groups of this table.
+	 */
+	int getNumberOfStateMaps() {
+		return keyGroupedStateMaps.length;
+	}
+
+	@SuppressWarnings("unchecked")
+	CopyOnWriteSkipListStateMap<K, N, S> getStateMap(int index) {
+		return (CopyOnWriteSkipListStateMap<K, N, S>) keyGroupedStateMaps[index];
+	}
+
+	boolean isSpilled(int index) {
+		return spilled[index];
+	}
+
+	float getHeat(int index) {
+		return heats[index];
+	}
+
+	/**
+	 * Updates the heat of all state maps with the requests since the last update.
+	 */
+	void updateHeats() {
+		for (int i = 0; i < keyGroupedStateMaps.length; i++) {
+			int requestCount = getStateMap(i).getRequestCount();
+			heats[i] = heats[i] * HEAT_DECAY_FACTOR + (requestCount - lastRequestCounts[i]);
+			lastRequestCounts[i] = requestCount;
+		}
+	}
+
+	/**
+	 * Returns whether the state map of the given index can be moved, which is not the case while
+	 * a snapshot of the map is running or a key stream of this table is open.
+	 */
+	boolean isMovable(int index) {
+		return numOpenKeyStreams == 0 && getStateMap(index).getHighestRequiredSnapshotVersionPlusOne() == 0;
+	}
+
+	/**
+	 * Moves the state map of the given index to the given space. All states are copied to a new
+	 * map which replaces the current one, and the current map is closed to free its space. The new
+	 * map is published with a volatile write, so that concurrent readers see it fully copied.
+	 *
+	 * @param index          index of the state map.
+	 * @param spaceAllocator allocator of the space to move to.
+	 * @param spill          whether the space is on disk.
+	 */
+	void moveStateMap(int index, Allocator spaceAllocator, boolean spill) {
+		CopyOnWriteSkipListStateMap<K, N, S> stateMap = getStateMap(index);
+		CopyOnWriteSkipListStateMap<K, N, S> newStateMap = createStateMap(spaceAllocator);
+		stateMap.copyTo(newStateMap);
+
+		keyGroupedStateMaps[index] = newStateMap;
+		publishedStateMaps.set(index, newStateMap);
+		spilled[index] = spill;
+		lastRequestCounts[index] = newStateMap.getRequestCount();
+		stateMap.close();
+	}
+
+	@Override
+	public void close() {
+		for (int i = 0; i < keyGroupedStateMaps.length; i++) {
+			getStateMap(i).close();
+		}
+	}
+
+	// Snapshotting ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Creates a snapshot of this {@link SpillableStateTable}, to be written in checkpointing.
+	 *
+	 * @return a snapshot from this {@link SpillableStateTable}, for checkpointing.
+	 */
+	@Nonnull
+	@Override
+	public SpillableStateTableSnapshot<K, N, S> stateSnapshot() {
+		return new SpillableStateTableSnapshot<>(
+			this,
+			getKeySerializer().duplicate(),
+			getNamespaceSerializer().duplicate(),
+			getStateSerializer().duplicate(),
+			getMetaInfo().getStateSnapshotTransformFactory().createForDeserializedState().orElse(null));
+	}
+
+	List<CopyOnWriteSkipListStateMapSnapshot<K, N, S>> getStateMapSnapshotList() {
+		List<CopyOnWriteSkipListStateMapSnapshot<K, N, S>> snapshotList = new ArrayList<>(keyGroupedStateMaps.length);
+		for (int i = 0; i < keyGroupedStateMaps.length; i++) {
+			snapshotList.add(getStateMap(i).stateSnapshot());
+		}
+		return snapshotList;
+	}
+}
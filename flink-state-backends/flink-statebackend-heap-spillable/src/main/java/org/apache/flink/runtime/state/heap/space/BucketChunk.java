@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.util.Preconditions;
+
+import java.util.ArrayDeque;
+
+import static org.apache.flink.runtime.state.heap.space.Constants.BUCKET_SIZE;
+import static org.apache.flink.runtime.state.heap.space.Constants.NO_SPACE;
+
+/**
+ * A {@link Chunk} backed by a single {@link MemorySegment}. The chunk is divided into buckets
+ * of {@link Constants#BUCKET_SIZE} bytes, and each bucket in use serves allocations of exactly one
+ * power-of-two size class. Freed slots are linked into a free list of their bucket, whose pointers
+ * are stored in the freed slots themselves, and a bucket is returned to the chunk as soon as it
+ * holds no allocation any more.
+ *
+ * <p>An allocation larger than a bucket occupies the whole chunk, and can only be served by an
+ * empty chunk which is large enough.
+ *
+ * <p>This class is not thread safe, accesses must be synchronized by the owning {@link Allocator}.
+ */
+public class BucketChunk implements Chunk {
+
+	/**
+	 * Bits of the smallest slot, which must be able to hold the pointer of the free list.
+	 */
+	private static final int MIN_SLOT_SIZE_BITS = 4;
+
+	private static final int BUCKET_SIZE_BITS = Integer.numberOfTrailingZeros(BUCKET_SIZE);
+
+	private static final int NUM_SIZE_CLASSES = BUCKET_SIZE_BITS - MIN_SLOT_SIZE_BITS + 1;
+
+	private static final int NIL_SLOT = -1;
+
+	private final int chunkId;
+
+	private final MemorySegment segment;
+
+	private final int capacity;
+
+	private final int numBuckets;
+
+	/**
+	 * Size class of each bucket, -1 if the bucket is not in use.
+	 */
+	private final int[] bucketSizeClasses;
+
+	/**
+	 * Number of bytes of each bucket which have been handed out at least once.
+	 */
+	private final int[] bucketAllocatedBytes;
+
+	/**
+	 * Offset in chunk of the first freed slot of each bucket.
+	 */
+	private final int[] bucketFreeSlots;
+
+	/**
+	 * Number of slots in use of each bucket.
+	 */
+	private final int[] bucketUsedSlots;
+
+	/**
+	 * Whether the bucket is contained in {@link #availableBuckets} of its size class.
+	 */
+	private final boolean[] bucketAvailable;
+
+	/**
+	 * Buckets in use which still have free slots, per size class.
+	 */
+	private final ArrayDeque<Integer>[] availableBuckets;
+
+	/**
+	 * Buckets not in use.
+	 */
+	private final ArrayDeque<Integer> freeBuckets;
+
+	/**
+	 * Whether the whole chunk is occupied by a single allocation.
+	 */
+	private boolean wholeChunkAllocated;
+
+	private long usedBytes;
+
+	@SuppressWarnings("unchecked")
+	public BucketChunk(int chunkId, MemorySegment segment) {
+		Preconditions.checkArgument(segment.size() >= BUCKET_SIZE && segment.size() % BUCKET_SIZE == 0,
+			"Size of chunk must be a positive multiple of " + BUCKET_SIZE + ", but is " + segment.size());
+		this.chunkId = chunkId;
+		this.segment = segment;
+		this.capacity = segment.size();
+		this.numBuckets = capacity >>> BUCKET_SIZE_BITS;
+
+		this.bucketSizeClasses = new int[numBuckets];
+		this.bucketAllocatedBytes = new int[numBuckets];
+		this.bucketFreeSlots = new int[numBuckets];
+		this.bucketUsedSlots = new int[numBuckets];
+		this.bucketAvailable = new boolean[numBuckets];
+		this.availableBuckets = new ArrayDeque[NUM_SIZE_CLASSES];
+		for (int i = 0; i < NUM_SIZE_CLASSES; i++) {
+			availableBuckets[i] = new ArrayDeque<>();
+		}
+		this.freeBuckets = new ArrayDeque<>(numBuckets);
+		for (int i = 0; i < numBuckets; i++) {
+			bucketSizeClasses[i] = -1;
+			freeBuckets.add(i);
+		}
+		this.wholeChunkAllocated = false;
+		this.usedBytes = 0;
+	}
+
+	@Override
+	public int allocate(int len) {
+		Preconditions.checkArgument(len > 0, "Size to allocate must be positive, but is " + len);
+		if (wholeChunkAllocated) {
+			return NO_SPACE;
+		}
+
+		if (len > BUCKET_SIZE) {
+			if (len > capacity || freeBuckets.size() < numBuckets) {
+				return NO_SPACE;
+			}
+			freeBuckets.clear();
+			wholeChunkAllocated = true;
+			usedBytes = capacity;
+			return 0;
+		}
+
+		int sizeClass = getSizeClass(len);
+		ArrayDeque<Integer> buckets = availableBuckets[sizeClass];
+		Integer bucket = buckets.peekFirst();
+		if (bucket == null) {
+			bucket = freeBuckets.pollFirst();
+			if (bucket == null) {
+				return NO_SPACE;
+			}
+			bucketSizeClasses[bucket] = sizeClass;
+			bucketAllocatedBytes[bucket] = 0;
+			bucketFreeSlots[bucket] = NIL_SLOT;
+			bucketUsedSlots[bucket] = 0;
+			bucketAvailable[bucket] = true;
+			buckets.addFirst(bucket);
+		}
+
+		int slotSize = getSlotSize(sizeClass);
+		int offset;
+		if (bucketFreeSlots[bucket] != NIL_SLOT) {
+			offset = bucketFreeSlots[bucket];
+			bucketFreeSlots[bucket] = segment.getInt(offset);
+		} else {
+			offset = (bucket << BUCKET_SIZE_BITS) + bucketAllocatedBytes[bucket];
+			bucketAllocatedBytes[bucket] += slotSize;
+		}
+		bucketUsedSlots[bucket]++;
+		usedBytes += slotSize;
+
+		if (bucketFreeSlots[bucket] == NIL_SLOT && bucketAllocatedBytes[bucket] == BUCKET_SIZE) {
+			buckets.pollFirst();
+			bucketAvailable[bucket] = false;
+		}
+
+		return offset;
+	}
+
+	@Override
+	public void free(int interChunkOffset) {
+		if (wholeChunkAllocated) {
+			Preconditions.checkArgument(interChunkOffset == 0, "Invalid offset " + interChunkOffset);
+			wholeChunkAllocated = false;
+			usedBytes = 0;
+			for (int i = 0; i < numBuckets; i++) {
+				freeBuckets.add(i);
+			}
+			return;
+		}
+
+		int bucket = interChunkOffset >>> BUCKET_SIZE_BITS;
+		int sizeClass = bucketSizeClasses[bucket];
+		Preconditions.checkState(sizeClass >= 0, "Offset " + interChunkOffset + " is not allocated.");
+
+		usedBytes -= getSlotSize(sizeClass);
+		if (--bucketUsedSlots[bucket] == 0) {
+			if (bucketAvailable[bucket]) {
+				availableBuckets[sizeClass].remove(bucket);
+				bucketAvailable[bucket] = false;
+			}
+			bucketSizeClasses[bucket] = -1;
+			freeBuckets.addFirst(bucket);
+			return;
+		}
+
+		segment.putInt(interChunkOffset, bucketFreeSlots[bucket]);
+		bucketFreeSlots[bucket] = interChunkOffset;
+		if (!bucketAvailable[bucket]) {
+			availableBuckets[sizeClass].addLast(bucket);
+			bucketAvailable[bucket] = true;
+		}
+	}
+
+	@Override
+	public int getChunkId() {
+		return chunkId;
+	}
+
+	@Override
+	public int getChunkCapacity() {
+		return capacity;
+	}
+
+	@Override
+	public MemorySegment getMemorySegment(int chunkOffset) {
+		return segment;
+	}
+
+	@Override
+	public int getOffsetInSegment(int offsetInChunk) {
+		return offsetInChunk;
+	}
+
+	/**
+	 * Returns the number of bytes occupied by allocations, including the rounding to the slot size.
+	 */
+	public long getUsedBytes() {
+		return usedBytes;
+	}
+
+	/**
+	 * Returns whether there is no allocation in this chunk.
+	 */
+	public boolean isEmpty() {
+		return usedBytes == 0;
+	}
+
+	private static int getSizeClass(int len) {
+		int bits = 32 - Integer.numberOfLeadingZeros(len - 1);
+		return Math.max(bits, MIN_SLOT_SIZE_BITS) - MIN_SLOT_SIZE_BITS;
+	}
+
+	private static int getSlotSize(int sizeClass) {
+		return 1 << (sizeClass + MIN_SLOT_SIZE_BITS);
+	}
+}
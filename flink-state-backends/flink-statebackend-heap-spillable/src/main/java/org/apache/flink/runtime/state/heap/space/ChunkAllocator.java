@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Implementations are responsible for acquiring and releasing the memory backing a {@link Chunk}.
+ */
+public interface ChunkAllocator extends Closeable {
+
+	/**
+	 * Acquires the memory for the chunk with the given id.
+	 *
+	 * @param chunkId id of the chunk.
+	 * @param size size of the chunk in bytes.
+	 * @return the memory segment backing the chunk.
+	 * @throws IOException if the memory can not be acquired.
+	 */
+	MemorySegment allocate(int chunkId, int size) throws IOException;
+
+	/**
+	 * Releases the memory of the chunk with the given id. The memory segment returned
+	 * by {@link #allocate(int, int)} must not be accessed after this call.
+	 *
+	 * @param chunkId id of the chunk.
+	 */
+	void release(int chunkId);
+}
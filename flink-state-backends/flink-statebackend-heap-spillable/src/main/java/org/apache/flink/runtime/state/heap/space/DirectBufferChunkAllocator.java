@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link ChunkAllocator} which backs chunks with direct memory outside of the Java heap,
+ * so that the state stored in them is invisible to the garbage collector. The memory is accounted
+ * against the direct memory of the JVM, and not reserved from managed memory like by the
+ * {@link ManagedMemoryChunkAllocator}.
+ */
+public class DirectBufferChunkAllocator implements ChunkAllocator {
+
+	private final Map<Integer, MemorySegment> segments;
+
+	public DirectBufferChunkAllocator() {
+		this.segments = new HashMap<>();
+	}
+
+	@Override
+	public synchronized MemorySegment allocate(int chunkId, int size) {
+		MemorySegment segment = MemorySegmentFactory.allocateUnpooledOffHeapMemory(size);
+		segments.put(chunkId, segment);
+		return segment;
+	}
+
+	@Override
+	public synchronized void release(int chunkId) {
+		MemorySegment segment = segments.remove(chunkId);
+		if (segment != null) {
+			segment.free();
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		for (MemorySegment segment : segments.values()) {
+			segment.free();
+		}
+		segments.clear();
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.core.memory.MemoryType;
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.memory.MemoryReservationException;
+import org.apache.flink.util.Preconditions;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link ChunkAllocator} which backs chunks with managed memory of the {@link MemoryManager}.
+ * The memory of a chunk is reserved from the memory manager before it is allocated, so that the
+ * chunks never exceed the managed memory of the slot, and are not accounted against the direct
+ * memory of the JVM.
+ */
+public class ManagedMemoryChunkAllocator implements ChunkAllocator {
+
+	private final MemoryManager memoryManager;
+
+	private final Map<Integer, MemorySegment> segments;
+
+	public ManagedMemoryChunkAllocator(MemoryManager memoryManager) {
+		this.memoryManager = Preconditions.checkNotNull(memoryManager);
+		this.segments = new HashMap<>();
+	}
+
+	@Override
+	public synchronized MemorySegment allocate(int chunkId, int size) throws IOException {
+		try {
+			memoryManager.reserveMemory(this, MemoryType.OFF_HEAP, size);
+		} catch (MemoryReservationException e) {
+			throw new IOException("Could not reserve a chunk of " + size + " bytes from managed memory.", e);
+		}
+
+		MemorySegment segment;
+		try {
+			segment = MemorySegmentFactory.allocateOffHeapUnsafeMemory(size, this);
+		} catch (Throwable t) {
+			memoryManager.releaseMemory(this, MemoryType.OFF_HEAP, size);
+			throw t;
+		}
+		segments.put(chunkId, segment);
+		return segment;
+	}
+
+	@Override
+	public synchronized void release(int chunkId) {
+		MemorySegment segment = segments.remove(chunkId);
+		if (segment != null) {
+			free(segment);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		for (MemorySegment segment : segments.values()) {
+			free(segment);
+		}
+		segments.clear();
+	}
+
+	private void free(MemorySegment segment) {
+		int size = segment.size();
+		segment.free();
+		memoryManager.releaseMemory(this, MemoryType.OFF_HEAP, size);
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.util.FileUtils;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A {@link ChunkAllocator} which backs chunks with memory-mapped files on local disks. The
+ * operating system decides which pages of the files are kept in memory, so the state stored
+ * in these chunks can grow beyond the available memory. Chunks are distributed over the given
+ * directories in a round-robin fashion.
+ */
+public class MmapChunkAllocator implements ChunkAllocator {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MmapChunkAllocator.class);
+
+	/**
+	 * Directories the files of this allocator are created in.
+	 */
+	private final File[] directories;
+
+	private final Map<Integer, MappedChunk> chunks;
+
+	private boolean closed;
+
+	public MmapChunkAllocator(File[] baseDirectories) {
+		Preconditions.checkArgument(baseDirectories.length > 0, "No directory to map chunks into.");
+		String directoryName = "flink-spillable-state-" + UUID.randomUUID();
+		this.directories = new File[baseDirectories.length];
+		for (int i = 0; i < baseDirectories.length; i++) {
+			this.directories[i] = new File(baseDirectories[i], directoryName);
+		}
+		this.chunks = new HashMap<>();
+		this.closed = false;
+	}
+
+	@Override
+	public synchronized MemorySegment allocate(int chunkId, int size) throws IOException {
+		Preconditions.checkState(!closed, "Allocator has been closed.");
+
+		File directory = directories[chunkId % directories.length];
+		if (!directory.exists() && !directory.mkdirs()) {
+			throw new IOException("Could not create directory " + directory);
+		}
+		File file = new File(directory, "chunk-" + chunkId);
+
+		MappedByteBuffer buffer;
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.setLength(size);
+			// the mapping stays valid after the channel is closed
+			buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+		} catch (IOException e) {
+			deleteQuietly(file);
+			throw new IOException("Could not map chunk " + chunkId + " to file " + file, e);
+		}
+
+		MemorySegment segment = MemorySegmentFactory.wrapOffHeapMemory(buffer);
+		chunks.put(chunkId, new MappedChunk(file, segment));
+		return segment;
+	}
+
+	@Override
+	public synchronized void release(int chunkId) {
+		MappedChunk chunk = chunks.remove(chunkId);
+		if (chunk != null) {
+			chunk.release();
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		for (MappedChunk chunk : chunks.values()) {
+			chunk.release();
+		}
+		chunks.clear();
+
+		for (File directory : directories) {
+			try {
+				FileUtils.deleteDirectory(directory);
+			} catch (IOException e) {
+				LOG.warn("Failed to delete directory {}.", directory, e);
+			}
+		}
+	}
+
+	private static void deleteQuietly(File file) {
+		if (file.exists() && !file.delete()) {
+			LOG.warn("Failed to delete file {}.", file);
+		}
+	}
+
+	/**
+	 * A chunk mapped to a file. The mapping is released when the buffer is garbage collected.
+	 */
+	private static final class MappedChunk {
+
+		private final File file;
+
+		private final MemorySegment segment;
+
+		MappedChunk(File file, MemorySegment segment) {
+			this.file = file;
+			this.segment = segment;
+		}
+
+		void release() {
+			segment.free();
+			deleteQuietly(file);
+		}
+	}
+}
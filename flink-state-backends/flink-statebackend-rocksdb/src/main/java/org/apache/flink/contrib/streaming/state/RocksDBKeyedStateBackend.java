@@ -39,6 +39,7 @@ import org.apache.flink.contrib.streaming.state.ttl.RocksDbTtlCompactFiltersMana
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.memory.DataInputDeserializer;
 import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
 import org.apache.flink.runtime.state.AbstractKeyedStateBackend;
@@ -55,6 +56,7 @@ import org.apache.flink.runtime.state.StateSnapshotTransformer.StateSnapshotTran
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
 import org.apache.flink.runtime.state.heap.HeapPriorityQueueElement;
 import org.apache.flink.runtime.state.heap.HeapPriorityQueueSetFactory;
+import org.apache.flink.runtime.state.heap.HeapTimeBucketedPriorityQueueSetFactory;
 import org.apache.flink.runtime.state.heap.InternalKeyContext;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
 import org.apache.flink.util.FileUtils;
@@ -75,10 +77,12 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -202,6 +206,15 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 
 	private final RocksDbTtlCompactFiltersManager ttlCompactFiltersManager;
 
+	/** The maximum number of values cached per value state, or 0 if the values are not cached. */
+	private final int valueStateCacheSize;
+
+	/** The metric group to which the metrics of the value state caches are registered. */
+	private final MetricGroup metricGroup;
+
+	/** The caches of the value states, by state name. */
+	private final Map<String, RocksDBValueStateCache<K, ?, ?>> valueStateCaches;
+
 	public RocksDBKeyedStateBackend(
 		ClassLoader userCodeClassLoader,
 		File instanceBasePath,
@@ -226,7 +239,9 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 		PriorityQueueSetFactory priorityQueueFactory,
 		RocksDbTtlCompactFiltersManager ttlCompactFiltersManager,
 		InternalKeyContext<K> keyContext,
-		@Nonnegative long writeBatchSize) {
+		@Nonnegative long writeBatchSize,
+		@Nonnegative int valueStateCacheSize,
+		MetricGroup metricGroup) {
 
 		super(
 			kvStateRegistry,
@@ -262,6 +277,10 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 		this.nativeMetricMonitor = nativeMetricMonitor;
 		this.sharedRocksKeyBuilder = sharedRocksKeyBuilder;
 		this.priorityQueueFactory = priorityQueueFactory;
+		checkArgument(valueStateCacheSize >= 0, "Value state cache size have to be no negative value.");
+		this.valueStateCacheSize = valueStateCacheSize;
+		this.metricGroup = metricGroup;
+		this.valueStateCaches = new HashMap<>();
 	}
 
 	@SuppressWarnings("unchecked")
@@ -364,6 +383,9 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 
 			ttlCompactFiltersManager.disposeAndClearRegisteredCompactionFactories();
 
+			valueStateCaches.values().forEach(RocksDBValueStateCache::clear);
+			valueStateCaches.clear();
+
 			kvStateInformation.clear();
 
 			cleanInstanceBasePath();
@@ -411,6 +433,21 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 		return sharedRocksKeyBuilder;
 	}
 
+	/**
+	 * Returns the cache of the value state with the given name, which is shared by all instances
+	 * of the state, or null if the values of value states are not cached.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	<N, V> RocksDBValueStateCache<K, N, V> getValueStateCache(String stateName) {
+		if (valueStateCacheSize == 0) {
+			return null;
+		}
+		return (RocksDBValueStateCache<K, N, V>) valueStateCaches.computeIfAbsent(
+			stateName,
+			name -> new RocksDBValueStateCache<>(valueStateCacheSize, metricGroup.addGroup(name)));
+	}
+
 	@VisibleForTesting
 	boolean isDisposed() {
 		return this.disposed;
@@ -689,7 +726,8 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 
 	@Override
 	public boolean requiresLegacySynchronousTimerSnapshots() {
-		return priorityQueueFactory instanceof HeapPriorityQueueSetFactory;
+		return priorityQueueFactory instanceof HeapPriorityQueueSetFactory ||
+			priorityQueueFactory instanceof HeapTimeBucketedPriorityQueueSetFactory;
 	}
 
 	/** Rocks DB specific information about the k/v states. */
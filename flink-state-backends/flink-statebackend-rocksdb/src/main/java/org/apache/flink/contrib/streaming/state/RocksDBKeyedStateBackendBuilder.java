@@ -43,6 +43,7 @@ import org.apache.flink.runtime.state.PriorityQueueSetFactory;
 import org.apache.flink.runtime.state.StateHandleID;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
 import org.apache.flink.runtime.state.heap.HeapPriorityQueueSetFactory;
+import org.apache.flink.runtime.state.heap.HeapTimeBucketedPriorityQueueSetFactory;
 import org.apache.flink.runtime.state.heap.InternalKeyContext;
 import org.apache.flink.runtime.state.heap.InternalKeyContextImpl;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
@@ -113,6 +114,8 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 	private RocksDBNativeMetricOptions nativeMetricOptions;
 	private int numberOfTransferingThreads;
 	private long writeBatchSize = RocksDBConfigurableOptions.WRITE_BATCH_SIZE.defaultValue().getBytes();
+	private int valueStateCacheSize = RocksDBOptions.VALUE_STATE_CACHE_SIZE.defaultValue();
+	private long timerServiceBucketWidth = RocksDBOptions.TIMER_SERVICE_BUCKET_WIDTH.defaultValue().toMillis();
 
 	private RocksDB injectedTestDB; // for testing
 	private ColumnFamilyHandle injectedDefaultColumnFamilyHandle; // for testing
@@ -232,6 +235,18 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 		return this;
 	}
 
+	RocksDBKeyedStateBackendBuilder<K> setValueStateCacheSize(int valueStateCacheSize) {
+		checkArgument(valueStateCacheSize >= 0, "Value state cache size should be non negative.");
+		this.valueStateCacheSize = valueStateCacheSize;
+		return this;
+	}
+
+	RocksDBKeyedStateBackendBuilder<K> setTimerServiceBucketWidth(long timerServiceBucketWidth) {
+		checkArgument(timerServiceBucketWidth > 0, "Timer service bucket width should be positive.");
+		this.timerServiceBucketWidth = timerServiceBucketWidth;
+		return this;
+	}
+
 	private static void checkAndCreateDirectory(File directory) throws IOException {
 		if (directory.exists()) {
 			if (!directory.isDirectory()) {
@@ -364,7 +379,9 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 			priorityQueueFactory,
 			ttlCompactFiltersManager,
 			keyContext,
-			writeBatchSize);
+			writeBatchSize,
+			valueStateCacheSize,
+			metricGroup);
 	}
 
 	private AbstractRocksDBRestoreOperation<K> getRocksDBRestoreOperation(
@@ -485,6 +502,10 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 			case HEAP:
 				priorityQueueFactory = new HeapPriorityQueueSetFactory(keyGroupRange, numberOfKeyGroups, 128);
 				break;
+			case HEAP_BUCKETED:
+				priorityQueueFactory = new HeapTimeBucketedPriorityQueueSetFactory(
+					keyGroupRange, numberOfKeyGroups, 128, timerServiceBucketWidth);
+				break;
 			case ROCKSDB:
 				priorityQueueFactory = new RocksDBPriorityQueueSetFactory(
 					keyGroupRange,
@@ -23,11 +23,14 @@ import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ConfigOptions;
 import org.apache.flink.configuration.MemorySize;
 
+import java.time.Duration;
+
 import static org.apache.flink.contrib.streaming.state.PredefinedOptions.DEFAULT;
 import static org.apache.flink.contrib.streaming.state.PredefinedOptions.FLASH_SSD_OPTIMIZED;
 import static org.apache.flink.contrib.streaming.state.PredefinedOptions.SPINNING_DISK_OPTIMIZED;
 import static org.apache.flink.contrib.streaming.state.PredefinedOptions.SPINNING_DISK_OPTIMIZED_HIGH_MEM;
 import static org.apache.flink.contrib.streaming.state.RocksDBStateBackend.PriorityQueueStateType.HEAP;
+import static org.apache.flink.contrib.streaming.state.RocksDBStateBackend.PriorityQueueStateType.HEAP_BUCKETED;
 import static org.apache.flink.contrib.streaming.state.RocksDBStateBackend.PriorityQueueStateType.ROCKSDB;
 
 /**
@@ -51,8 +54,22 @@ public class RocksDBOptions {
 		.key("state.backend.rocksdb.timer-service.factory")
 		.defaultValue(ROCKSDB.name())
 		.withDescription(String.format("This determines the factory for timer service state implementation. Options " +
-			"are either %s (heap-based, default) or %s for an implementation based on RocksDB .",
-			HEAP.name(), ROCKSDB.name()));
+			"are either %s (heap-based, default), %s for a heap-based implementation that groups timers into " +
+			"buckets of timestamps, or %s for an implementation based on RocksDB .",
+			HEAP.name(), HEAP_BUCKETED.name(), ROCKSDB.name()));
+
+	/**
+	 * The range of timestamps covered by a bucket of the bucketed heap timer service.
+	 */
+	@Documentation.Section(Documentation.Sections.EXPERT_ROCKSDB)
+	public static final ConfigOption<Duration> TIMER_SERVICE_BUCKET_WIDTH = ConfigOptions
+		.key("state.backend.rocksdb.timer-service.bucket-width")
+		.durationType()
+		.defaultValue(Duration.ofMillis(100))
+		.withDescription(String.format("The range of timestamps covered by one bucket of timers, if the timer service " +
+			"factory is %s. Registering and deleting a timer only looks up its bucket, and the timers of a bucket " +
+			"are sorted at once when it is due. Wider buckets mean fewer buckets to keep ordered, but more timers " +
+			"to sort per bucket.", HEAP_BUCKETED.name()));
 
 	/**
 	 * The number of threads used to transfer (download and upload) files in RocksDBStateBackend.
@@ -63,6 +80,18 @@ public class RocksDBOptions {
 		.defaultValue(1)
 		.withDescription("The number of threads (per stateful operator) used to transfer (download and upload) files in RocksDBStateBackend.");
 
+	/**
+	 * The maximum number of deserialized values that are cached per value state.
+	 */
+	@Documentation.Section(Documentation.Sections.EXPERT_ROCKSDB)
+	public static final ConfigOption<Integer> VALUE_STATE_CACHE_SIZE = ConfigOptions
+		.key("state.backend.rocksdb.value-state-cache.size")
+		.intType()
+		.defaultValue(0)
+		.withDescription("The maximum number of deserialized values that are cached per value state, for the most " +
+			"recently accessed keys and namespaces. Reads of cached values skip the serialization of the key and the " +
+			"access to RocksDB, while writes go through the cache to RocksDB. The cache is disabled if set to 0.");
+
 	/**
 	 * This determines if compaction filter to cleanup state with TTL is enabled.
 	 *
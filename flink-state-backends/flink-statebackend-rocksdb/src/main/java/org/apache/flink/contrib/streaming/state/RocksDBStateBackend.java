@@ -64,6 +64,7 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -73,8 +74,10 @@ import java.util.UUID;
 
 import static org.apache.flink.contrib.streaming.state.RocksDBConfigurableOptions.WRITE_BATCH_SIZE;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.CHECKPOINT_TRANSFER_THREAD_NUM;
+import static org.apache.flink.contrib.streaming.state.RocksDBOptions.TIMER_SERVICE_BUCKET_WIDTH;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.TIMER_SERVICE_FACTORY;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.TTL_COMPACT_FILTER_ENABLED;
+import static org.apache.flink.contrib.streaming.state.RocksDBOptions.VALUE_STATE_CACHE_SIZE;
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
@@ -98,6 +101,7 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 	 */
 	public enum PriorityQueueStateType {
 		HEAP,
+		HEAP_BUCKETED,
 		ROCKSDB
 	}
 
@@ -113,6 +117,7 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 
 	private static final int UNDEFINED_NUMBER_OF_TRANSFER_THREADS = -1;
 	private static final long UNDEFINED_WRITE_BATCH_SIZE = -1;
+	private static final int UNDEFINED_VALUE_STATE_CACHE_SIZE = -1;
 
 	// ------------------------------------------------------------------------
 
@@ -156,6 +161,10 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 	@Nullable
 	private PriorityQueueStateType priorityQueueStateType;
 
+	/** The range of timestamps covered by a bucket of the bucketed heap priority queue state. */
+	@Nullable
+	private Duration timerServiceBucketWidth;
+
 	/** The default rocksdb metrics options. */
 	private final RocksDBNativeMetricOptions defaultMetricOptions;
 
@@ -178,6 +187,11 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 	 */
 	private long writeBatchSize;
 
+	/**
+	 * Max number of deserialized values cached per value state, default value 0 which disables the cache.
+	 */
+	private int valueStateCacheSize;
+
 	// ------------------------------------------------------------------------
 
 	/**
@@ -279,6 +293,7 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 		this.enableTtlCompactionFilter = TernaryBoolean.UNDEFINED;
 		this.memoryConfiguration = new RocksDBMemoryConfiguration();
 		this.writeBatchSize = UNDEFINED_WRITE_BATCH_SIZE;
+		this.valueStateCacheSize = UNDEFINED_VALUE_STATE_CACHE_SIZE;
 	}
 
 	/**
@@ -326,6 +341,12 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 		} else {
 			this.writeBatchSize = original.writeBatchSize;
 		}
+
+		if (original.valueStateCacheSize == UNDEFINED_VALUE_STATE_CACHE_SIZE) {
+			this.valueStateCacheSize = config.get(VALUE_STATE_CACHE_SIZE);
+		} else {
+			this.valueStateCacheSize = original.valueStateCacheSize;
+		}
 		this.enableTtlCompactionFilter = original.enableTtlCompactionFilter
 			.resolveUndefined(config.getBoolean(TTL_COMPACT_FILTER_ENABLED));
 
@@ -338,6 +359,12 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 			this.priorityQueueStateType = original.priorityQueueStateType;
 		}
 
+		if (null == original.timerServiceBucketWidth) {
+			this.timerServiceBucketWidth = config.get(TIMER_SERVICE_BUCKET_WIDTH);
+		} else {
+			this.timerServiceBucketWidth = original.timerServiceBucketWidth;
+		}
+
 		// configure local directories
 		if (original.localRocksDbDirectories != null) {
 			this.localRocksDbDirectories = original.localRocksDbDirectories;
@@ -544,7 +571,9 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 			.setEnableTtlCompactionFilter(isTtlCompactionFilterEnabled())
 			.setNumberOfTransferingThreads(getNumberOfTransferThreads())
 			.setNativeMetricOptions(resourceContainer.getMemoryWatcherOptions(defaultMetricOptions))
-			.setWriteBatchSize(getWriteBatchSize());
+			.setWriteBatchSize(getWriteBatchSize())
+			.setValueStateCacheSize(getValueStateCacheSize())
+			.setTimerServiceBucketWidth(getTimerServiceBucketWidth().toMillis());
 		return builder.build();
 	}
 
@@ -786,6 +815,24 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 		this.priorityQueueStateType = checkNotNull(priorityQueueStateType);
 	}
 
+	/**
+	 * Gets the range of timestamps covered by a bucket of timers, if the priority queue state type is
+	 * {@link PriorityQueueStateType#HEAP_BUCKETED}. It will fallback to the default value, if it is not explicitly set.
+	 */
+	public Duration getTimerServiceBucketWidth() {
+		return timerServiceBucketWidth == null ?
+			TIMER_SERVICE_BUCKET_WIDTH.defaultValue() : timerServiceBucketWidth;
+	}
+
+	/**
+	 * Sets the range of timestamps covered by a bucket of timers, if the priority queue state type is
+	 * {@link PriorityQueueStateType#HEAP_BUCKETED}.
+	 */
+	public void setTimerServiceBucketWidth(Duration timerServiceBucketWidth) {
+		checkArgument(timerServiceBucketWidth.toMillis() > 0, "Timer service bucket width must be at least 1 ms.");
+		this.timerServiceBucketWidth = timerServiceBucketWidth;
+	}
+
 	// ------------------------------------------------------------------------
 	//  Parametrize with RocksDB Options
 	// ------------------------------------------------------------------------
@@ -930,6 +977,24 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 		this.writeBatchSize = writeBatchSize;
 	}
 
+	/**
+	 * Gets the max number of deserialized values cached per value state.
+	 */
+	public int getValueStateCacheSize() {
+		return valueStateCacheSize == UNDEFINED_VALUE_STATE_CACHE_SIZE ?
+			VALUE_STATE_CACHE_SIZE.defaultValue() : valueStateCacheSize;
+	}
+
+	/**
+	 * Sets the max number of deserialized values cached per value state, for the most recently accessed
+	 * keys and namespaces. The value 0 disables the cache.
+	 * @param valueStateCacheSize The max number of cached values per value state.
+	 */
+	public void setValueStateCacheSize(int valueStateCacheSize) {
+		checkArgument(valueStateCacheSize >= 0, "Value state cache size have to be no negative.");
+		this.valueStateCacheSize = valueStateCacheSize;
+	}
+
 	// ------------------------------------------------------------------------
 	//  utilities
 	// ------------------------------------------------------------------------
@@ -957,6 +1022,7 @@ public class RocksDBStateBackend extends AbstractStateBackend implements Configu
 				", enableIncrementalCheckpointing=" + enableIncrementalCheckpointing +
 				", numberOfTransferThreads=" + numberOfTransferThreads +
 				", writeBatchSize=" + writeBatchSize +
+				", valueStateCacheSize=" + valueStateCacheSize +
 				'}';
 	}
 
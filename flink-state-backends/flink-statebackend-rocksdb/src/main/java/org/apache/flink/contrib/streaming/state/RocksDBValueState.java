@@ -23,6 +23,7 @@ import org.apache.flink.api.common.state.StateDescriptor;
 import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
 import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
 import org.apache.flink.runtime.state.internal.InternalValueState;
 import org.apache.flink.util.FlinkRuntimeException;
@@ -30,7 +31,15 @@ import org.apache.flink.util.FlinkRuntimeException;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDBException;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * {@link ValueState} implementation that stores state in RocksDB.
@@ -43,6 +52,13 @@ class RocksDBValueState<K, N, V>
 	extends AbstractRocksDBState<K, N, V>
 	implements InternalValueState<K, N, V> {
 
+	/** The write-through cache of the deserialized values, or null if the values are not cached. */
+	@Nullable
+	private final RocksDBValueStateCache<K, N, V> cache;
+
+	/** Builder of the composite keys of batched accesses, which must not change the current key of the backend. */
+	private final RocksDBSerializedCompositeKeyBuilder<K> batchKeyBuilder;
+
 	/**
 	 * Creates a new {@code RocksDBValueState}.
 	 *
@@ -51,15 +67,22 @@ class RocksDBValueState<K, N, V>
 	 * @param valueSerializer The serializer for the state.
 	 * @param defaultValue The default value for the state.
 	 * @param backend The backend for which this state is bind to.
+	 * @param cache The cache of the deserialized values, or null if the values are not cached.
 	 */
 	private RocksDBValueState(
 			ColumnFamilyHandle columnFamily,
 			TypeSerializer<N> namespaceSerializer,
 			TypeSerializer<V> valueSerializer,
 			V defaultValue,
-			RocksDBKeyedStateBackend<K> backend) {
+			RocksDBKeyedStateBackend<K> backend,
+			@Nullable RocksDBValueStateCache<K, N, V> cache) {
 
 		super(columnFamily, namespaceSerializer, valueSerializer, defaultValue, backend);
+		this.cache = cache;
+		this.batchKeyBuilder = new RocksDBSerializedCompositeKeyBuilder<>(
+			backend.getKeySerializer(),
+			backend.getKeyGroupPrefixBytes(),
+			32);
 	}
 
 	@Override
@@ -78,16 +101,36 @@ class RocksDBValueState<K, N, V>
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public V value() {
+		if (cache != null) {
+			Object cachedValue = cache.get(backend.getCurrentKey(), getCurrentNamespace());
+			if (cachedValue == RocksDBValueStateCache.ABSENT) {
+				return getDefaultValue();
+			} else if (cachedValue != null) {
+				// hand out a copy, so that modifications without an update are not visible in the cache
+				return valueSerializer.copy((V) cachedValue);
+			}
+		}
+
 		try {
 			byte[] valueBytes = backend.db.get(columnFamily,
 				serializeCurrentKeyWithGroupAndNamespace());
 
-			if (valueBytes == null) {
-				return getDefaultValue();
+			V value = null;
+			if (valueBytes != null) {
+				dataInputView.setBuffer(valueBytes);
+				value = valueSerializer.deserialize(dataInputView);
+			}
+
+			if (cache != null) {
+				cache.put(backend.getCurrentKey(), getCurrentNamespace(), value);
+				if (value != null) {
+					value = valueSerializer.copy(value);
+				}
 			}
-			dataInputView.setBuffer(valueBytes);
-			return valueSerializer.deserialize(dataInputView);
+
+			return value != null ? value : getDefaultValue();
 		} catch (IOException | RocksDBException e) {
 			throw new FlinkRuntimeException("Error while retrieving data from RocksDB.", e);
 		}
@@ -107,6 +150,108 @@ class RocksDBValueState<K, N, V>
 		} catch (Exception e) {
 			throw new FlinkRuntimeException("Error while adding data to RocksDB", e);
 		}
+
+		if (cache != null) {
+			cache.put(backend.getCurrentKey(), getCurrentNamespace(), valueSerializer.copy(value));
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<K, V> multiGet(Collection<K> keys) {
+		final N namespace = getCurrentNamespace();
+		final Map<K, V> result = new HashMap<>(keys.size());
+		final List<K> keysToRead = new ArrayList<>(keys.size());
+		final List<byte[]> rocksKeysToRead = new ArrayList<>(keys.size());
+
+		for (K key : keys) {
+			Object cachedValue = cache != null ? cache.get(key, namespace) : null;
+			if (cachedValue == RocksDBValueStateCache.ABSENT) {
+				result.put(key, getDefaultValue());
+			} else if (cachedValue != null) {
+				result.put(key, valueSerializer.copy((V) cachedValue));
+			} else {
+				keysToRead.add(key);
+				rocksKeysToRead.add(serializeKeyWithGroupAndNamespace(key, namespace));
+			}
+		}
+
+		if (rocksKeysToRead.isEmpty()) {
+			return result;
+		}
+
+		try {
+			// the returned map is keyed by the very same arrays as the looked up keys
+			Map<byte[], byte[]> rocksValues = backend.db.multiGet(
+				Collections.nCopies(rocksKeysToRead.size(), columnFamily),
+				rocksKeysToRead);
+
+			for (int i = 0; i < keysToRead.size(); i++) {
+				K key = keysToRead.get(i);
+				byte[] valueBytes = rocksValues.get(rocksKeysToRead.get(i));
+
+				V value = null;
+				if (valueBytes != null) {
+					dataInputView.setBuffer(valueBytes);
+					value = valueSerializer.deserialize(dataInputView);
+				}
+
+				if (cache != null) {
+					cache.put(key, namespace, value);
+					if (value != null) {
+						value = valueSerializer.copy(value);
+					}
+				}
+
+				result.put(key, value != null ? value : getDefaultValue());
+			}
+		} catch (IOException | RocksDBException e) {
+			throw new FlinkRuntimeException("Error while retrieving data from RocksDB.", e);
+		}
+
+		return result;
+	}
+
+	@Override
+	public void multiPut(Map<K, V> values) {
+		final N namespace = getCurrentNamespace();
+
+		try (RocksDBWriteBatchWrapper writeBatchWrapper =
+				new RocksDBWriteBatchWrapper(backend.db, writeOptions, backend.getWriteBatchSize())) {
+			for (Map.Entry<K, V> entry : values.entrySet()) {
+				byte[] rocksKey = serializeKeyWithGroupAndNamespace(entry.getKey(), namespace);
+				if (entry.getValue() == null) {
+					writeBatchWrapper.remove(columnFamily, rocksKey);
+				} else {
+					writeBatchWrapper.put(columnFamily, rocksKey, serializeValue(entry.getValue()));
+				}
+			}
+		} catch (Exception e) {
+			throw new FlinkRuntimeException("Error while adding data to RocksDB", e);
+		}
+
+		if (cache != null) {
+			for (Map.Entry<K, V> entry : values.entrySet()) {
+				V value = entry.getValue();
+				cache.put(entry.getKey(), namespace, value != null ? valueSerializer.copy(value) : null);
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+
+		if (cache != null) {
+			cache.put(backend.getCurrentKey(), getCurrentNamespace(), null);
+		}
+	}
+
+	private byte[] serializeKeyWithGroupAndNamespace(K key, N namespace) {
+		batchKeyBuilder.setKeyAndKeyGroup(
+			key,
+			KeyGroupRangeAssignment.assignToKeyGroup(key, backend.getNumberOfKeyGroups()));
+		return batchKeyBuilder.buildCompositeKeyNamespace(namespace, namespaceSerializer);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -119,6 +264,7 @@ class RocksDBValueState<K, N, V>
 			registerResult.f1.getNamespaceSerializer(),
 			registerResult.f1.getStateSerializer(),
 			stateDesc.getDefaultValue(),
-			backend);
+			backend,
+			backend.getValueStateCache(stateDesc.getName()));
 	}
 }
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.SimpleCounter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A size-bounded LRU cache of the deserialized values of a {@link RocksDBValueState}, by key and namespace.
+ * Reads of cached values skip the serialization of the key and namespace and the access to RocksDB.
+ *
+ * <p>The cache is write-through: all updates are written to RocksDB as well as to the cache, so RocksDB
+ * always holds the latest values and nothing needs to be flushed before a snapshot. Keys and namespaces
+ * which are known to have no value are cached as {@link #ABSENT}.
+ *
+ * <p>The cache is only accessed by the task thread, and is not thread-safe.
+ *
+ * @param <K> The type of the key.
+ * @param <N> The type of the namespace.
+ * @param <V> The type of the values.
+ */
+class RocksDBValueStateCache<K, N, V> {
+
+	/** Marker for a key and namespace which have no value in RocksDB. */
+	static final Object ABSENT = new Object();
+
+	static final String CACHE_GROUP = "valueStateCache";
+	static final String HITS_METRIC = "hits";
+	static final String MISSES_METRIC = "misses";
+	static final String EVICTIONS_METRIC = "evictions";
+	static final String SIZE_METRIC = "size";
+
+	/** The cached values, or {@link #ABSENT}, in the order of their last access. */
+	private final LinkedHashMap<CacheKey<K, N>, Object> entries;
+
+	private final Counter hits;
+
+	private final Counter misses;
+
+	private final Counter evictions;
+
+	RocksDBValueStateCache(int maxSize, @Nonnull MetricGroup metricGroup) {
+		this.hits = new SimpleCounter();
+		this.misses = new SimpleCounter();
+		this.evictions = new SimpleCounter();
+		this.entries = new LinkedHashMap<CacheKey<K, N>, Object>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CacheKey<K, N>, Object> eldest) {
+				if (size() > maxSize) {
+					evictions.inc();
+					return true;
+				}
+				return false;
+			}
+		};
+
+		MetricGroup cacheGroup = metricGroup.addGroup(CACHE_GROUP);
+		cacheGroup.counter(HITS_METRIC, hits);
+		cacheGroup.counter(MISSES_METRIC, misses);
+		cacheGroup.counter(EVICTIONS_METRIC, evictions);
+		cacheGroup.gauge(SIZE_METRIC, (Gauge<Integer>) entries::size);
+	}
+
+	/**
+	 * Returns the cached value of the given key and namespace.
+	 *
+	 * @return the cached value, {@link #ABSENT} if the key and namespace have no value, or null if
+	 * nothing is cached for the key and namespace.
+	 */
+	@Nullable
+	Object get(K key, N namespace) {
+		Object value = entries.get(new CacheKey<>(key, namespace));
+		if (value != null) {
+			hits.inc();
+		} else {
+			misses.inc();
+		}
+		return value;
+	}
+
+	/**
+	 * Caches the value of the given key and namespace, which must have been written to RocksDB.
+	 *
+	 * @param value the value, or null if the key and namespace have no value.
+	 */
+	void put(K key, N namespace, @Nullable V value) {
+		entries.put(new CacheKey<>(key, namespace), value != null ? value : ABSENT);
+	}
+
+	void clear() {
+		entries.clear();
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Key of the cache, composed of the key and the namespace of a state value.
+	 */
+	private static final class CacheKey<K, N> {
+
+		private final K key;
+
+		private final N namespace;
+
+		private final int hashCode;
+
+		CacheKey(K key, N namespace) {
+			this.key = key;
+			this.namespace = namespace;
+			this.hashCode = 31 * Objects.hashCode(key) + Objects.hashCode(namespace);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+
+			CacheKey<?, ?> that = (CacheKey<?, ?>) o;
+			return hashCode == that.hashCode &&
+				Objects.equals(key, that.key) &&
+				Objects.equals(namespace, that.namespace);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
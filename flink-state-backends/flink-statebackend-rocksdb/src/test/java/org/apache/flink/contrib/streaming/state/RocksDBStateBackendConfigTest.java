@@ -38,6 +38,7 @@ import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.StateBackend;
 import org.apache.flink.runtime.state.filesystem.FsStateBackend;
 import org.apache.flink.runtime.state.heap.HeapPriorityQueueSetFactory;
+import org.apache.flink.runtime.state.heap.HeapTimeBucketedPriorityQueueSetFactory;
 import org.apache.flink.runtime.state.memory.MemoryStateBackend;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
 import org.apache.flink.runtime.util.TestingTaskManagerRuntimeInfo;
@@ -55,6 +56,7 @@ import org.rocksdb.DBOptions;
 import org.rocksdb.util.SizeUnit;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -147,9 +149,10 @@ public class RocksDBStateBackendConfigTest {
 		Assert.assertEquals("state.backend.rocksdb.timer-service.factory", RocksDBOptions.TIMER_SERVICE_FACTORY.key());
 
 		// Fix the option value string and ensure all are covered
-		Assert.assertEquals(2, RocksDBStateBackend.PriorityQueueStateType.values().length);
+		Assert.assertEquals(3, RocksDBStateBackend.PriorityQueueStateType.values().length);
 		Assert.assertEquals("ROCKSDB", RocksDBStateBackend.PriorityQueueStateType.ROCKSDB.toString());
 		Assert.assertEquals("HEAP", RocksDBStateBackend.PriorityQueueStateType.HEAP.toString());
+		Assert.assertEquals("HEAP_BUCKETED", RocksDBStateBackend.PriorityQueueStateType.HEAP_BUCKETED.toString());
 
 		// Fix the default
 		Assert.assertEquals(
@@ -173,6 +176,23 @@ public class RocksDBStateBackendConfigTest {
 			HeapPriorityQueueSetFactory.class,
 			keyedBackend.getPriorityQueueFactory().getClass());
 		keyedBackend.dispose();
+
+		conf.setString(
+			RocksDBOptions.TIMER_SERVICE_FACTORY,
+			RocksDBStateBackend.PriorityQueueStateType.HEAP_BUCKETED.toString());
+		conf.set(RocksDBOptions.TIMER_SERVICE_BUCKET_WIDTH, Duration.ofSeconds(1));
+
+		rocksDbBackend = new RocksDBStateBackend(tempFolder.newFolder().toURI().toString())
+			.configure(conf, Thread.currentThread().getContextClassLoader());
+		keyedBackend = createKeyedStateBackend(rocksDbBackend, env);
+		Assert.assertEquals(
+			HeapTimeBucketedPriorityQueueSetFactory.class,
+			keyedBackend.getPriorityQueueFactory().getClass());
+		Assert.assertEquals(
+			1000L,
+			((HeapTimeBucketedPriorityQueueSetFactory) keyedBackend.getPriorityQueueFactory()).getBucketWidth());
+		Assert.assertTrue(keyedBackend.requiresLegacySynchronousTimerSnapshots());
+		keyedBackend.dispose();
 		env.close();
 	}
 
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state;
+
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.ListSerializer;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.state.StateBackendTestBase;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.VoidNamespaceSerializer;
+import org.apache.flink.runtime.state.filesystem.FsStateBackend;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for the keyed state backend of the {@link RocksDBStateBackend} with cached value states.
+ */
+public class RocksDBValueStateCacheBackendTest extends StateBackendTestBase<RocksDBStateBackend> {
+
+	private static final int CACHE_SIZE = 4;
+
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Override
+	protected RocksDBStateBackend getStateBackend() throws IOException {
+		String checkpointPath = tempFolder.newFolder().toURI().toString();
+		RocksDBStateBackend backend = new RocksDBStateBackend(new FsStateBackend(checkpointPath), true);
+		Configuration configuration = new Configuration();
+		configuration.set(RocksDBOptions.VALUE_STATE_CACHE_SIZE, CACHE_SIZE);
+		backend = backend.configure(configuration, Thread.currentThread().getContextClassLoader());
+		backend.setDbStoragePath(tempFolder.newFolder().getAbsolutePath());
+		return backend;
+	}
+
+	@Override
+	protected boolean isSerializerPresenceRequiredOnRestore() {
+		return false;
+	}
+
+	@Test
+	public void testCachedValuesAreConsistentWithRocksDB() throws Exception {
+		RocksDBKeyedStateBackend<Integer> backend =
+			(RocksDBKeyedStateBackend<Integer>) createKeyedBackend(IntSerializer.INSTANCE);
+		try {
+			ValueStateDescriptor<List<Integer>> stateDescriptor =
+				new ValueStateDescriptor<>("cached-state", new ListSerializer<>(IntSerializer.INSTANCE));
+			ValueState<List<Integer>> state = backend.getPartitionedState(
+				VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, stateDescriptor);
+
+			// more keys than the cache can hold, to also read evicted values from RocksDB
+			for (int key = 0; key < 3 * CACHE_SIZE; key++) {
+				backend.setCurrentKey(key);
+				assertNull(state.value());
+				List<Integer> value = new ArrayList<>();
+				value.add(key);
+				state.update(value);
+				// modifications without an update are neither visible in the cache nor in RocksDB
+				value.add(-1);
+			}
+
+			for (int key = 0; key < 3 * CACHE_SIZE; key++) {
+				backend.setCurrentKey(key);
+				List<Integer> value = state.value();
+				assertEquals(1, value.size());
+				assertEquals(key, (int) value.get(0));
+				value.add(-1);
+				assertEquals(1, state.value().size());
+
+				if (key % 2 == 0) {
+					state.clear();
+				}
+			}
+
+			for (int key = 3 * CACHE_SIZE - 1; key >= 0; key--) {
+				backend.setCurrentKey(key);
+				if (key % 2 == 0) {
+					assertNull(state.value());
+				} else {
+					assertEquals(key, (int) state.value().get(0));
+				}
+			}
+		} finally {
+			backend.dispose();
+		}
+	}
+}
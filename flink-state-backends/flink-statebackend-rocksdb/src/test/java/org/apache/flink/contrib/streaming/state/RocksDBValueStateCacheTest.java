@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Metric;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for the {@link RocksDBValueStateCache}.
+ */
+public class RocksDBValueStateCacheTest extends TestLogger {
+
+	@Test
+	public void testCachesValuesAndAbsentValues() {
+		RocksDBValueStateCache<Integer, VoidNamespace, String> cache =
+			new RocksDBValueStateCache<>(10, new UnregisteredMetricsGroup());
+
+		assertNull(cache.get(1, VoidNamespace.INSTANCE));
+
+		cache.put(1, VoidNamespace.INSTANCE, "a");
+		cache.put(2, VoidNamespace.INSTANCE, null);
+
+		assertEquals("a", cache.get(1, VoidNamespace.INSTANCE));
+		assertSame(RocksDBValueStateCache.ABSENT, cache.get(2, VoidNamespace.INSTANCE));
+
+		cache.put(1, VoidNamespace.INSTANCE, null);
+		assertSame(RocksDBValueStateCache.ABSENT, cache.get(1, VoidNamespace.INSTANCE));
+		assertEquals(2, cache.size());
+
+		cache.clear();
+		assertNull(cache.get(1, VoidNamespace.INSTANCE));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testDistinguishesNamespaces() {
+		RocksDBValueStateCache<Integer, Integer, String> cache =
+			new RocksDBValueStateCache<>(10, new UnregisteredMetricsGroup());
+
+		cache.put(1, 1, "a");
+		cache.put(1, 2, "b");
+
+		assertEquals("a", cache.get(1, 1));
+		assertEquals("b", cache.get(1, 2));
+		assertNull(cache.get(1, 3));
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsedValues() {
+		RocksDBValueStateCache<Integer, VoidNamespace, String> cache =
+			new RocksDBValueStateCache<>(2, new UnregisteredMetricsGroup());
+
+		cache.put(1, VoidNamespace.INSTANCE, "a");
+		cache.put(2, VoidNamespace.INSTANCE, "b");
+		// accessing the first value makes the second one the least recently used
+		assertEquals("a", cache.get(1, VoidNamespace.INSTANCE));
+		cache.put(3, VoidNamespace.INSTANCE, "c");
+
+		assertEquals(2, cache.size());
+		assertEquals("a", cache.get(1, VoidNamespace.INSTANCE));
+		assertNull(cache.get(2, VoidNamespace.INSTANCE));
+		assertEquals("c", cache.get(3, VoidNamespace.INSTANCE));
+	}
+
+	@Test
+	public void testMetrics() {
+		CapturingMetricGroup metricGroup = new CapturingMetricGroup();
+		RocksDBValueStateCache<Integer, VoidNamespace, String> cache =
+			new RocksDBValueStateCache<>(1, metricGroup);
+
+		cache.get(1, VoidNamespace.INSTANCE);
+		cache.put(1, VoidNamespace.INSTANCE, "a");
+		cache.get(1, VoidNamespace.INSTANCE);
+		cache.get(1, VoidNamespace.INSTANCE);
+		cache.put(2, VoidNamespace.INSTANCE, "b");
+
+		assertEquals(2L, ((Counter) metricGroup.getMetric(RocksDBValueStateCache.HITS_METRIC)).getCount());
+		assertEquals(1L, ((Counter) metricGroup.getMetric(RocksDBValueStateCache.MISSES_METRIC)).getCount());
+		assertEquals(1L, ((Counter) metricGroup.getMetric(RocksDBValueStateCache.EVICTIONS_METRIC)).getCount());
+		assertEquals(1, ((Gauge<?>) metricGroup.getMetric(RocksDBValueStateCache.SIZE_METRIC)).getValue());
+	}
+
+	/**
+	 * Metric group which captures the metrics of the cache group.
+	 */
+	private static class CapturingMetricGroup extends UnregisteredMetricsGroup {
+
+		private final Map<String, Metric> metrics = new HashMap<>();
+
+		@Override
+		public MetricGroup addGroup(String name) {
+			assertEquals(RocksDBValueStateCache.CACHE_GROUP, name);
+			return this;
+		}
+
+		@Override
+		public <C extends Counter> C counter(String name, C counter) {
+			metrics.put(name, counter);
+			return counter;
+		}
+
+		@Override
+		public <T, G extends Gauge<T>> G gauge(String name, G gauge) {
+			metrics.put(name, gauge);
+			return gauge;
+		}
+
+		Metric getMetric(String name) {
+			return metrics.get(name);
+		}
+	}
+}
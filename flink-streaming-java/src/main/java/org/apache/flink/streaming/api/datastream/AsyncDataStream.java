@@ -22,6 +22,7 @@ import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.java.Utils;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
+import org.apache.flink.streaming.api.functions.async.BatchAsyncFunction;
 import org.apache.flink.streaming.api.operators.async.AsyncWaitOperator;
 import org.apache.flink.streaming.api.operators.async.AsyncWaitOperatorFactory;
 
@@ -57,6 +58,8 @@ public class AsyncDataStream {
 	 * @param timeout for the asynchronous operation to complete
 	 * @param bufSize The max number of inputs the {@link AsyncWaitOperator} can hold inside.
 	 * @param mode Processing mode for {@link AsyncWaitOperator}.
+	 * @param batchSize The max number of inputs passed to a {@link BatchAsyncFunction} at once.
+	 * @param batchTimeout The max time an input waits for its batch to be triggered.
 	 * @param <IN> Input type.
 	 * @param <OUT> Output type.
 	 * @return A new {@link SingleOutputStreamOperator}
@@ -66,7 +69,9 @@ public class AsyncDataStream {
 			AsyncFunction<IN, OUT> func,
 			long timeout,
 			int bufSize,
-			OutputMode mode) {
+			OutputMode mode,
+			int batchSize,
+			long batchTimeout) {
 
 		TypeInformation<OUT> outTypeInfo = TypeExtractor.getUnaryOperatorReturnType(
 			func,
@@ -83,7 +88,9 @@ public class AsyncDataStream {
 			in.getExecutionEnvironment().clean(func),
 			timeout,
 			bufSize,
-			mode);
+			mode,
+			batchSize,
+			batchTimeout);
 
 		return in.transform("async wait operator", outTypeInfo, operatorFactory);
 	}
@@ -106,7 +113,7 @@ public class AsyncDataStream {
 			long timeout,
 			TimeUnit timeUnit,
 			int capacity) {
-		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.UNORDERED);
+		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.UNORDERED, 1, 0L);
 	}
 
 	/**
@@ -129,7 +136,9 @@ public class AsyncDataStream {
 			func,
 			timeUnit.toMillis(timeout),
 			DEFAULT_QUEUE_CAPACITY,
-			OutputMode.UNORDERED);
+			OutputMode.UNORDERED,
+			1,
+			0L);
 	}
 
 	/**
@@ -151,7 +160,7 @@ public class AsyncDataStream {
 			long timeout,
 			TimeUnit timeUnit,
 			int capacity) {
-		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.ORDERED);
+		return addOperator(in, func, timeUnit.toMillis(timeout), capacity, OutputMode.ORDERED, 1, 0L);
 	}
 
 	/**
@@ -176,6 +185,74 @@ public class AsyncDataStream {
 			func,
 			timeUnit.toMillis(timeout),
 			DEFAULT_QUEUE_CAPACITY,
-			OutputMode.ORDERED);
+			OutputMode.ORDERED,
+			1,
+			0L);
+	}
+
+	/**
+	 * Add an AsyncWaitOperator that passes the inputs to the {@link BatchAsyncFunction} in batches.
+	 * The order of output stream records may be reordered.
+	 *
+	 * @param in Input {@link DataStream}
+	 * @param func {@link BatchAsyncFunction}
+	 * @param timeout for the asynchronous operation of an input to complete, including the time it waits for its batch
+	 * @param timeUnit of the given timeout and batch timeout
+	 * @param capacity The max number of inputs whose async i/o operation can be pending
+	 * @param batchSize The max number of inputs of a batch
+	 * @param batchTimeout The max time an input waits for its batch to be triggered
+	 * @param <IN> Type of input record
+	 * @param <OUT> Type of output record
+	 * @return A new {@link SingleOutputStreamOperator}.
+	 */
+	public static <IN, OUT> SingleOutputStreamOperator<OUT> unorderedWaitBatched(
+			DataStream<IN> in,
+			BatchAsyncFunction<IN, OUT> func,
+			long timeout,
+			TimeUnit timeUnit,
+			int capacity,
+			int batchSize,
+			long batchTimeout) {
+		return addOperator(
+			in,
+			func,
+			timeUnit.toMillis(timeout),
+			capacity,
+			OutputMode.UNORDERED,
+			batchSize,
+			timeUnit.toMillis(batchTimeout));
+	}
+
+	/**
+	 * Add an AsyncWaitOperator that passes the inputs to the {@link BatchAsyncFunction} in batches.
+	 * The order to process input records is guaranteed to be the same as input ones.
+	 *
+	 * @param in Input {@link DataStream}
+	 * @param func {@link BatchAsyncFunction}
+	 * @param timeout for the asynchronous operation of an input to complete, including the time it waits for its batch
+	 * @param timeUnit of the given timeout and batch timeout
+	 * @param capacity The max number of inputs whose async i/o operation can be pending
+	 * @param batchSize The max number of inputs of a batch
+	 * @param batchTimeout The max time an input waits for its batch to be triggered
+	 * @param <IN> Type of input record
+	 * @param <OUT> Type of output record
+	 * @return A new {@link SingleOutputStreamOperator}.
+	 */
+	public static <IN, OUT> SingleOutputStreamOperator<OUT> orderedWaitBatched(
+			DataStream<IN> in,
+			BatchAsyncFunction<IN, OUT> func,
+			long timeout,
+			TimeUnit timeUnit,
+			int capacity,
+			int batchSize,
+			long batchTimeout) {
+		return addOperator(
+			in,
+			func,
+			timeUnit.toMillis(timeout),
+			capacity,
+			OutputMode.ORDERED,
+			batchSize,
+			timeUnit.toMillis(batchTimeout));
 	}
 }
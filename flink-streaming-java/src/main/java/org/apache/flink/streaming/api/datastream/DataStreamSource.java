@@ -20,7 +20,9 @@ package org.apache.flink.streaming.api.datastream;
 import org.apache.flink.annotation.Public;
 import org.apache.flink.api.common.operators.util.OperatorValidationUtils;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.connector.source.Source;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.operators.SourceOperatorFactory;
 import org.apache.flink.streaming.api.operators.StreamSource;
 import org.apache.flink.streaming.api.transformations.SourceTransformation;
 
@@ -45,6 +47,22 @@ public class DataStreamSource<T> extends SingleOutputStreamOperator<T> {
 		}
 	}
 
+	/**
+	 * Constructor for new Sources (FLIP-27).
+	 */
+	public DataStreamSource(
+			StreamExecutionEnvironment environment,
+			Source<T, ?, ?> source,
+			TypeInformation<T> outTypeInfo,
+			String sourceName) {
+		super(environment, new SourceTransformation<>(
+			sourceName,
+			new SourceOperatorFactory<>(source),
+			outTypeInfo,
+			environment.getParallelism()));
+		this.isParallel = true;
+	}
+
 	public DataStreamSource(SingleOutputStreamOperator<T> operator) {
 		super(operator.environment, operator.getTransformation());
 		this.isParallel = true;
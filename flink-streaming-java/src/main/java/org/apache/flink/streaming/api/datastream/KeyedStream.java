@@ -30,6 +30,7 @@ import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeinfo.BasicArrayTypeInfo;
 import org.apache.flink.api.common.typeinfo.PrimitiveArrayTypeInfo;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.Utils;
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.typeutils.ObjectArrayTypeInfo;
@@ -51,6 +52,7 @@ import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
 import org.apache.flink.streaming.api.operators.LegacyKeyedProcessOperator;
 import org.apache.flink.streaming.api.operators.StreamGroupedFold;
 import org.apache.flink.streaming.api.operators.StreamGroupedReduce;
+import org.apache.flink.streaming.api.operators.StreamLocalGroupedReduce;
 import org.apache.flink.streaming.api.operators.StreamOperatorFactory;
 import org.apache.flink.streaming.api.operators.co.IntervalJoinOperator;
 import org.apache.flink.streaming.api.transformations.OneInputTransformation;
@@ -693,6 +695,62 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
 				clean(reducer), getType().createSerializer(getExecutionConfig())));
 	}
 
+	/**
+	 * Applies a reduce transformation on the grouped data stream like {@link #reduce(ReduceFunction)},
+	 * but pre-combines the elements of each key before they are partitioned. The local phase runs
+	 * chained to the operator that produces this stream and keeps at most {@code maxBufferedKeys}
+	 * partial results in memory, which it emits when the buffer is full, every
+	 * {@code flushInterval}, on watermarks and on checkpoints. The global phase then reduces the
+	 * partial results per key.
+	 *
+	 * <p>This reduces the amount of data that is shuffled and the load on the subtasks of hot keys,
+	 * at the price of emitting fewer intermediate results: the result stream only contains the
+	 * reduced values after each partial result rather than after each input element.
+	 *
+	 * <p>Only the reduce transformation has a local phase. The built-in aggregations like
+	 * {@link #sum(int)}, {@link #min(int)} and {@link #max(int)} are not pre-combined.
+	 *
+	 * @param reducer
+	 *            The {@link ReduceFunction} that will be called for every
+	 *            element of the input values with the same key. It is applied
+	 *            both in the local and in the global phase.
+	 * @param maxBufferedKeys
+	 *            The maximum number of keys for which partial results are buffered.
+	 * @param flushInterval
+	 *            The processing time interval in which partial results are emitted,
+	 *            {@code null} or zero to only emit them when the buffer is full.
+	 * @return The transformed DataStream.
+	 */
+	@PublicEvolving
+	public SingleOutputStreamOperator<T> reduceWithLocalAggregation(
+			ReduceFunction<T> reducer,
+			int maxBufferedKeys,
+			Time flushInterval) {
+		if (!(getTransformation() instanceof PartitionTransformation)) {
+			// the stream is not shuffled, nothing to gain from a local phase
+			return reduce(reducer);
+		}
+
+		ReduceFunction<T> cleanedReducer = clean(reducer);
+		TypeSerializer<T> serializer = getType().createSerializer(getExecutionConfig());
+		DataStream<T> input = new DataStream<>(
+			getExecutionEnvironment(),
+			((PartitionTransformation<T>) getTransformation()).getInput());
+
+		StreamLocalGroupedReduce<KEY, T> localReduce = new StreamLocalGroupedReduce<>(
+			cleanedReducer,
+			keySelector,
+			serializer,
+			maxBufferedKeys,
+			flushInterval == null ? 0L : flushInterval.toMilliseconds());
+		SingleOutputStreamOperator<T> partials = input
+			.transform("Local Keyed Reduce", getType(), localReduce)
+			.setParallelism(input.getParallelism());
+
+		return new KeyedStream<>(partials, keySelector, keyType)
+			.transform("Keyed Reduce", getType(), new StreamGroupedReduce<>(cleanedReducer, serializer));
+	}
+
 	/**
 	 * Applies a fold transformation on the grouped data stream grouped on by
 	 * the given key position. The {@link FoldFunction} will receive input
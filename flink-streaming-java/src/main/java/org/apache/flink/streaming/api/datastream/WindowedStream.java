@@ -28,9 +28,11 @@ import org.apache.flink.api.common.functions.Function;
 import org.apache.flink.api.common.functions.ReduceFunction;
 import org.apache.flink.api.common.functions.RichFunction;
 import org.apache.flink.api.common.state.AggregatingStateDescriptor;
+import org.apache.flink.api.common.state.AppendingState;
 import org.apache.flink.api.common.state.FoldingStateDescriptor;
 import org.apache.flink.api.common.state.ListStateDescriptor;
 import org.apache.flink.api.common.state.ReducingStateDescriptor;
+import org.apache.flink.api.common.state.StateDescriptor;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.Utils;
@@ -51,12 +53,15 @@ import org.apache.flink.streaming.api.functions.windowing.WindowFunction;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.windowing.assigners.BaseAlignedWindowAssigner;
 import org.apache.flink.streaming.api.windowing.assigners.MergingWindowAssigner;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingProcessingTimeWindows;
 import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
 import org.apache.flink.streaming.api.windowing.evictors.Evictor;
 import org.apache.flink.streaming.api.windowing.time.Time;
 import org.apache.flink.streaming.api.windowing.triggers.Trigger;
 import org.apache.flink.streaming.api.windowing.windows.Window;
 import org.apache.flink.streaming.runtime.operators.windowing.EvictingWindowOperator;
+import org.apache.flink.streaming.runtime.operators.windowing.PanedWindowOperator;
 import org.apache.flink.streaming.runtime.operators.windowing.WindowOperator;
 import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalAggregateProcessWindowFunction;
 import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalIterableProcessWindowFunction;
@@ -122,6 +127,9 @@ public class WindowedStream<T, K, W extends Window> {
  	 */
 	private OutputTag<T> lateDataOutputTag;
 
+	/** Whether the windows may be sliced into panes which are shared between windows. */
+	private boolean panesEnabled = false;
+
 	@PublicEvolving
 	public WindowedStream(KeyedStream<T, K> input,
 			WindowAssigner<? super T, W> windowAssigner) {
@@ -195,6 +203,38 @@ public class WindowedStream<T, K, W extends Window> {
 		return this;
 	}
 
+	/**
+	 * Enables the slicing of sliding time windows into panes of the greatest common divisor of the
+	 * window size and slide. Incrementally aggregated elements are then only added to the
+	 * accumulator of their pane instead of to the accumulators of all the windows they belong to,
+	 * and the accumulators of the panes are merged when a window fires.
+	 *
+	 * <p>Panes are only used for {@link #reduce(ReduceFunction) reduce} and
+	 * {@link #aggregate(AggregateFunction) aggregate} operations on
+	 * {@link SlidingEventTimeWindows} and {@link SlidingProcessingTimeWindows} with their default
+	 * trigger and without an evictor, where the window size is larger than the slide. Otherwise,
+	 * this setting has no effect.
+	 *
+	 * <p><b>Important:</b> With panes, an {@link AggregateFunction} must implement
+	 * {@link AggregateFunction#merge(Object, Object)}, which is otherwise only needed for merging
+	 * windows, to combine the accumulators of the panes of a window when it fires. A job whose
+	 * function throws an {@link UnsupportedOperationException} in {@code merge()} fails when the
+	 * window operator is opened.
+	 *
+	 * <p>Note: The window state of a job with panes is not compatible with the window state of the
+	 * same job without panes, so a savepoint of one cannot be restored by the other.
+	 *
+	 * @throws UnsupportedOperationException if the window assigner does not assign sliding time windows.
+	 */
+	@PublicEvolving
+	public WindowedStream<T, K, W> enablePanes() {
+		if (!(windowAssigner instanceof SlidingEventTimeWindows || windowAssigner instanceof SlidingProcessingTimeWindows)) {
+			throw new UnsupportedOperationException("Cannot use panes with a " + windowAssigner.getClass().getSimpleName() + ".");
+		}
+		this.panesEnabled = true;
+		return this;
+	}
+
 
 	// ------------------------------------------------------------------------
 	//  Operations on the keyed windows
@@ -298,20 +338,11 @@ public class WindowedStream<T, K, W extends Window> {
 					lateDataOutputTag);
 
 		} else {
-			ReducingStateDescriptor<T> stateDesc = new ReducingStateDescriptor<>("window-contents",
+			ReducingStateDescriptor<T> stateDesc = new ReducingStateDescriptor<>(getIncrementalStateName(),
 				reduceFunction,
 				input.getType().createSerializer(getExecutionEnvironment().getConfig()));
 
-			operator =
-				new WindowOperator<>(windowAssigner,
-					windowAssigner.getWindowSerializer(getExecutionEnvironment().getConfig()),
-					keySel,
-					input.getKeyType().createSerializer(getExecutionEnvironment().getConfig()),
-					stateDesc,
-					new InternalSingleValueWindowFunction<>(function),
-					trigger,
-					allowedLateness,
-					lateDataOutputTag);
+			operator = createIncrementalWindowOperator(stateDesc, new InternalSingleValueWindowFunction<>(function));
 		}
 
 		return input.transform(opName, resultType, operator);
@@ -384,20 +415,11 @@ public class WindowedStream<T, K, W extends Window> {
 							lateDataOutputTag);
 
 		} else {
-			ReducingStateDescriptor<T> stateDesc = new ReducingStateDescriptor<>("window-contents",
+			ReducingStateDescriptor<T> stateDesc = new ReducingStateDescriptor<>(getIncrementalStateName(),
 					reduceFunction,
 					input.getType().createSerializer(getExecutionEnvironment().getConfig()));
 
-			operator =
-					new WindowOperator<>(windowAssigner,
-							windowAssigner.getWindowSerializer(getExecutionEnvironment().getConfig()),
-							keySel,
-							input.getKeyType().createSerializer(getExecutionEnvironment().getConfig()),
-							stateDesc,
-							new InternalSingleValueProcessWindowFunction<>(function),
-							trigger,
-							allowedLateness,
-							lateDataOutputTag);
+			operator = createIncrementalWindowOperator(stateDesc, new InternalSingleValueProcessWindowFunction<>(function));
 		}
 
 		return input.transform(opName, resultType, operator);
@@ -833,18 +855,10 @@ public class WindowedStream<T, K, W extends Window> {
 					lateDataOutputTag);
 
 		} else {
-			AggregatingStateDescriptor<T, ACC, V> stateDesc = new AggregatingStateDescriptor<>("window-contents",
+			AggregatingStateDescriptor<T, ACC, V> stateDesc = new AggregatingStateDescriptor<>(getIncrementalStateName(),
 					aggregateFunction, accumulatorType.createSerializer(getExecutionEnvironment().getConfig()));
 
-			operator = new WindowOperator<>(windowAssigner,
-					windowAssigner.getWindowSerializer(getExecutionEnvironment().getConfig()),
-					keySel,
-					input.getKeyType().createSerializer(getExecutionEnvironment().getConfig()),
-					stateDesc,
-					new InternalSingleValueWindowFunction<>(windowFunction),
-					trigger,
-					allowedLateness,
-					lateDataOutputTag);
+			operator = createIncrementalWindowOperator(stateDesc, new InternalSingleValueWindowFunction<>(windowFunction));
 		}
 
 		return input.transform(opName, resultType, operator);
@@ -887,6 +901,52 @@ public class WindowedStream<T, K, W extends Window> {
 		return aggregate(aggFunction, windowFunction, accumulatorType, aggResultType, resultType);
 	}
 
+	private boolean usePanes() {
+		return panesEnabled && evictor == null && PanedWindowOperator.canUsePanes(windowAssigner, trigger);
+	}
+
+	private String getIncrementalStateName() {
+		return usePanes() ? "window-panes" : "window-contents";
+	}
+
+	/**
+	 * Creates the operator for a window with incrementally aggregated contents, which slices the
+	 * windows into panes if possible and enabled.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private <ACC, R> OneInputStreamOperator<T, R> createIncrementalWindowOperator(
+			StateDescriptor<? extends AppendingState<T, ACC>, ?> stateDesc,
+			InternalWindowFunction<ACC, R, K, W> function) {
+
+		KeySelector<T, K> keySel = input.getKeySelector();
+		TypeSerializer<K> keySerializer = input.getKeyType().createSerializer(getExecutionEnvironment().getConfig());
+		TypeSerializer<W> windowSerializer = windowAssigner.getWindowSerializer(getExecutionEnvironment().getConfig());
+
+		if (usePanes()) {
+			// the assigner of panes always assigns time windows
+			return new PanedWindowOperator<>(
+				(WindowAssigner) windowAssigner,
+				(TypeSerializer) windowSerializer,
+				keySel,
+				keySerializer,
+				stateDesc,
+				(InternalWindowFunction) function,
+				(Trigger) trigger,
+				allowedLateness,
+				lateDataOutputTag);
+		}
+
+		return new WindowOperator<>(windowAssigner,
+			windowSerializer,
+			keySel,
+			keySerializer,
+			stateDesc,
+			function,
+			trigger,
+			allowedLateness,
+			lateDataOutputTag);
+	}
+
 	private static <IN, OUT, KEY> TypeInformation<OUT> getWindowFunctionReturnType(
 		WindowFunction<IN, OUT, KEY, ?> function,
 		TypeInformation<IN> inType) {
@@ -983,18 +1043,10 @@ public class WindowedStream<T, K, W extends Window> {
 					lateDataOutputTag);
 
 		} else {
-			AggregatingStateDescriptor<T, ACC, V> stateDesc = new AggregatingStateDescriptor<>("window-contents",
+			AggregatingStateDescriptor<T, ACC, V> stateDesc = new AggregatingStateDescriptor<>(getIncrementalStateName(),
 					aggregateFunction, accumulatorType.createSerializer(getExecutionEnvironment().getConfig()));
 
-			operator = new WindowOperator<>(windowAssigner,
-					windowAssigner.getWindowSerializer(getExecutionEnvironment().getConfig()),
-					keySel,
-					input.getKeyType().createSerializer(getExecutionEnvironment().getConfig()),
-					stateDesc,
-					new InternalSingleValueProcessWindowFunction<>(windowFunction),
-					trigger,
-					allowedLateness,
-					lateDataOutputTag);
+			operator = createIncrementalWindowOperator(stateDesc, new InternalSingleValueProcessWindowFunction<>(windowFunction));
 		}
 
 		return input.transform(opName, resultType, operator);
@@ -1191,20 +1243,11 @@ public class WindowedStream<T, K, W extends Window> {
 					lateDataOutputTag);
 
 		} else {
-			ReducingStateDescriptor<T> stateDesc = new ReducingStateDescriptor<>("window-contents",
+			ReducingStateDescriptor<T> stateDesc = new ReducingStateDescriptor<>(getIncrementalStateName(),
 				reduceFunction,
 				input.getType().createSerializer(getExecutionEnvironment().getConfig()));
 
-			operator =
-				new WindowOperator<>(windowAssigner,
-					windowAssigner.getWindowSerializer(getExecutionEnvironment().getConfig()),
-					keySel,
-					input.getKeyType().createSerializer(getExecutionEnvironment().getConfig()),
-					stateDesc,
-					new InternalSingleValueWindowFunction<>(function),
-					trigger,
-					allowedLateness,
-					lateDataOutputTag);
+			operator = createIncrementalWindowOperator(stateDesc, new InternalSingleValueWindowFunction<>(function));
 		}
 
 		return input.transform(opName, resultType, operator);
@@ -92,6 +92,9 @@ public class CheckpointConfig implements java.io.Serializable {
 	/** Determines if a job will fallback to checkpoint when there is a more recent savepoint. **/
 	private boolean preferCheckpointForRecovery = false;
 
+	/** Determines if checkpoint barriers overtake in-flight data instead of being aligned. */
+	private boolean unalignedCheckpointsEnabled = false;
+
 	/**
 	 * Determines the threshold that we tolerance declined checkpoint failure number.
 	 * The default value is -1 meaning undetermined and not set via {@link #setTolerableCheckpointFailureNumber(int)}.
@@ -378,6 +381,45 @@ public class CheckpointConfig implements java.io.Serializable {
 		this.preferCheckpointForRecovery = preferCheckpointForRecovery;
 	}
 
+	/**
+	 * Enables unaligned checkpoints, which greatly reduce checkpointing times under backpressure.
+	 *
+	 * <p>Unaligned checkpoints contain data stored in buffers as part of the checkpoint state, which
+	 * allows checkpoint barriers to overtake these buffers. Thus, the checkpoint duration becomes
+	 * independent of the current throughput as checkpoint barriers are effectively not embedded into
+	 * the stream of data anymore.
+	 *
+	 * <p>Unaligned checkpoints can only be enabled if {@link #getCheckpointingMode()} is
+	 * {@link CheckpointingMode#EXACTLY_ONCE}. A job that is restored from an unaligned checkpoint
+	 * cannot change the parallelism of its operators.
+	 *
+	 * @param enabled Flag to indicate whether unaligned are enabled.
+	 */
+	@PublicEvolving
+	public void enableUnalignedCheckpoints(boolean enabled) {
+		unalignedCheckpointsEnabled = enabled;
+	}
+
+	/**
+	 * Enables unaligned checkpoints, which greatly reduce checkpointing times under backpressure.
+	 *
+	 * @see #enableUnalignedCheckpoints(boolean)
+	 */
+	@PublicEvolving
+	public void enableUnalignedCheckpoints() {
+		enableUnalignedCheckpoints(true);
+	}
+
+	/**
+	 * Returns whether checkpoints should be unaligned.
+	 *
+	 * @return <code>true</code> if unaligned checkpoints are enabled.
+	 */
+	@PublicEvolving
+	public boolean isUnalignedCheckpointsEnabled() {
+		return unalignedCheckpointsEnabled;
+	}
+
 	/**
 	 * Returns the cleanup behaviour for externalized checkpoints.
 	 *
@@ -465,5 +507,7 @@ public class CheckpointConfig implements java.io.Serializable {
 			.ifPresent(this::setTolerableCheckpointFailureNumber);
 		configuration.getOptional(ExecutionCheckpointingOptions.EXTERNALIZED_CHECKPOINT)
 			.ifPresent(this::enableExternalizedCheckpoints);
+		configuration.getOptional(ExecutionCheckpointingOptions.ENABLE_UNALIGNED)
+			.ifPresent(this::enableUnalignedCheckpoints);
 	}
 }
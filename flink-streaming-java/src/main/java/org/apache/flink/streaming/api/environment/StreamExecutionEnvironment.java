@@ -17,6 +17,7 @@
 
 package org.apache.flink.streaming.api.environment;
 
+import org.apache.flink.annotation.Experimental;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.Public;
 import org.apache.flink.annotation.PublicEvolving;
@@ -32,6 +33,7 @@ import org.apache.flink.api.common.restartstrategy.RestartStrategies;
 import org.apache.flink.api.common.time.Time;
 import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.connector.source.Source;
 import org.apache.flink.api.dag.Transformation;
 import org.apache.flink.api.java.ClosureCleaner;
 import org.apache.flink.api.java.ExecutionEnvironment;
@@ -1586,6 +1588,65 @@ public class StreamExecutionEnvironment {
 		return new DataStreamSource<>(this, typeInfo, sourceOperator, isParallel, sourceName);
 	}
 
+	/**
+	 * Adds a data {@link Source} to the environment to get a {@link DataStream}.
+	 *
+	 * <p>Unlike a {@link SourceFunction}, the new source splits its input into
+	 * {@link org.apache.flink.api.connector.source.SourceSplit splits}, which are discovered by a
+	 * {@link org.apache.flink.api.connector.source.SplitEnumerator} running on the JobManager and
+	 * assigned dynamically to the parallel {@link org.apache.flink.api.connector.source.SourceReader readers}.
+	 *
+	 * @param source
+	 * 		the user defined source
+	 * @param sourceName
+	 * 		Name of the data source
+	 * @param <OUT>
+	 * 		type of the returned stream
+	 * @return the data stream constructed
+	 */
+	@Experimental
+	public <OUT> DataStreamSource<OUT> fromSource(Source<OUT, ?, ?> source, String sourceName) {
+		return fromSource(source, sourceName, null);
+	}
+
+	/**
+	 * Adds a data {@link Source} with a custom type information to the environment to get a
+	 * {@link DataStream}. Only in very special cases does the user need to support type information.
+	 * Otherwise use {@link #fromSource(Source, String)}.
+	 *
+	 * @param source
+	 * 		the user defined source
+	 * @param sourceName
+	 * 		Name of the data source
+	 * @param <OUT>
+	 * 		type of the returned stream
+	 * @param typeInfo
+	 * 		the user defined type information for the stream
+	 * @return the data stream constructed
+	 */
+	@Experimental
+	@SuppressWarnings("unchecked")
+	public <OUT> DataStreamSource<OUT> fromSource(
+			Source<OUT, ?, ?> source,
+			String sourceName,
+			TypeInformation<OUT> typeInfo) {
+
+		if (source instanceof ResultTypeQueryable) {
+			typeInfo = ((ResultTypeQueryable<OUT>) source).getProducedType();
+		}
+		if (typeInfo == null) {
+			try {
+				typeInfo = TypeExtractor.createTypeInfo(
+						Source.class,
+						source.getClass(), 0, null, null);
+			} catch (final InvalidTypesException e) {
+				typeInfo = (TypeInformation<OUT>) new MissingTypeInfo(sourceName, e);
+			}
+		}
+
+		return new DataStreamSource<>(this, checkNotNull(source), typeInfo, sourceName);
+	}
+
 	/**
 	 * Triggers the program execution. The environment will execute all parts of
 	 * the program that have resulted in a "sink" operation. Sink operations are
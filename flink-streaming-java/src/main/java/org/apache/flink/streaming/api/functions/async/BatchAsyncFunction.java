@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions.async;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An {@link AsyncFunction} that triggers one async I/O operation for a batch of stream inputs, for
+ * example a multi-get against an external store.
+ *
+ * <p>The async wait operator collects up to a batch size of inputs, or the inputs that arrived within
+ * the batch timeout, and passes them to {@link #asyncInvokeBatch(List, List)}. Each input still has its
+ * own {@link ResultFuture}, which has to be completed with the result data of that input. The output
+ * mode, the timeout of each input and the checkpointing of in-flight inputs are the same as for
+ * {@link AsyncFunction#asyncInvoke}.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * public class RedisAsyncFunc implements BatchAsyncFunction<String, String> {
+ *
+ *   public void asyncInvokeBatch(List<String> keys, List<ResultFuture<String>> results) {
+ *     redis.mget(keys).whenComplete((values, error) -> {
+ *       for (int i = 0; i < keys.size(); i++) {
+ *         if (error == null) {
+ *           results.get(i).complete(Collections.singleton(values.get(i)));
+ *         } else {
+ *           results.get(i).completeExceptionally(error);
+ *         }
+ *       }
+ *     });
+ *   }
+ * }
+ * }</pre>
+ *
+ * @param <IN> The type of the input elements.
+ * @param <OUT> The type of the returned elements.
+ */
+@PublicEvolving
+public interface BatchAsyncFunction<IN, OUT> extends AsyncFunction<IN, OUT> {
+
+	/**
+	 * Trigger async operation for a batch of stream inputs.
+	 *
+	 * @param inputs elements coming from an upstream task, in the order in which they arrived
+	 * @param resultFutures to be completed with the result data, the i-th one for the i-th input
+	 * @exception Exception in case of a user code error. An exception will make the task fail and
+	 * trigger fail-over process.
+	 */
+	void asyncInvokeBatch(List<IN> inputs, List<ResultFuture<OUT>> resultFutures) throws Exception;
+
+	/**
+	 * Trigger async operation for a single stream input, as a batch of one input.
+	 */
+	@Override
+	default void asyncInvoke(IN input, ResultFuture<OUT> resultFuture) throws Exception {
+		asyncInvokeBatch(Collections.singletonList(input), Collections.singletonList(resultFuture));
+	}
+}
@@ -44,12 +44,14 @@ import org.apache.flink.runtime.jobgraph.topology.DefaultLogicalTopology;
 import org.apache.flink.runtime.jobgraph.topology.LogicalPipelinedRegion;
 import org.apache.flink.runtime.jobmanager.scheduler.CoLocationGroup;
 import org.apache.flink.runtime.jobmanager.scheduler.SlotSharingGroup;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
 import org.apache.flink.runtime.operators.util.TaskConfig;
 import org.apache.flink.runtime.state.StateBackend;
 import org.apache.flink.streaming.api.CheckpointingMode;
 import org.apache.flink.streaming.api.checkpoint.WithMasterCheckpointHook;
 import org.apache.flink.streaming.api.environment.CheckpointConfig;
 import org.apache.flink.streaming.api.operators.ChainingStrategy;
+import org.apache.flink.streaming.api.operators.CoordinatedOperatorFactory;
 import org.apache.flink.streaming.api.operators.InputSelectable;
 import org.apache.flink.streaming.api.operators.StreamOperatorFactory;
 import org.apache.flink.streaming.api.operators.UdfStreamOperatorFactory;
@@ -126,6 +128,8 @@ public class StreamingJobGraphGenerator {
 
 	private final Map<Integer, InputOutputFormatContainer> chainedInputOutputFormats;
 
+	private final Map<Integer, List<SerializedValue<OperatorCoordinator.Provider>>> chainedOperatorCoordinators;
+
 	private final StreamGraphHasher defaultStreamGraphHasher;
 	private final List<StreamGraphHasher> legacyStreamGraphHashers;
 
@@ -142,6 +146,7 @@ public class StreamingJobGraphGenerator {
 		this.chainedMinResources = new HashMap<>();
 		this.chainedPreferredResources = new HashMap<>();
 		this.chainedInputOutputFormats = new HashMap<>();
+		this.chainedOperatorCoordinators = new HashMap<>();
 		this.physicalEdgesInOrder = new ArrayList<>();
 
 		jobGraph = new JobGraph(jobID, streamGraph.getJobName());
@@ -312,6 +317,20 @@ public class StreamingJobGraphGenerator {
 				getOrCreateFormatContainer(startNodeId).addOutputFormat(currentOperatorId, currentNode.getOutputFormat());
 			}
 
+			if (currentNode.getOperatorFactory() instanceof CoordinatedOperatorFactory) {
+				OperatorCoordinator.Provider coordinatorProvider =
+					((CoordinatedOperatorFactory<?>) currentNode.getOperatorFactory())
+						.getCoordinatorProvider(currentNode.getOperatorName(), currentOperatorId);
+				try {
+					chainedOperatorCoordinators
+						.computeIfAbsent(startNodeId, k -> new ArrayList<>())
+						.add(new SerializedValue<>(coordinatorProvider));
+				} catch (IOException e) {
+					throw new FlinkRuntimeException(String.format(
+						"Coordinator Provider for node %s is not serializable.", currentNode.getOperatorName()), e);
+				}
+			}
+
 			StreamConfig config = currentNodeId.equals(startNodeId)
 					? createJobVertex(startNodeId, hashes, legacyHashes, chainedOperatorHashes)
 					: new StreamConfig(new Configuration());
@@ -445,6 +464,11 @@ public class StreamingJobGraphGenerator {
 					userDefinedChainedOperatorVertexIds);
 		}
 
+		for (SerializedValue<OperatorCoordinator.Provider> coordinatorProvider :
+				chainedOperatorCoordinators.getOrDefault(streamNodeId, Collections.emptyList())) {
+			jobVertex.addOperatorCoordinator(coordinatorProvider);
+		}
+
 		jobVertex.setResources(chainedMinResources.get(streamNodeId), chainedPreferredResources.get(streamNodeId));
 
 		jobVertex.setInvokableClass(streamNode.getJobVertexClass());
@@ -518,6 +542,7 @@ public class StreamingJobGraphGenerator {
 		config.setCheckpointingEnabled(checkpointCfg.isCheckpointingEnabled());
 		if (checkpointCfg.isCheckpointingEnabled()) {
 			config.setCheckpointMode(checkpointCfg.getCheckpointingMode());
+			config.setUnalignedCheckpointsEnabled(checkpointCfg.isUnalignedCheckpointsEnabled());
 		}
 		else {
 			// the "at-least-once" input handler is slightly cheaper (in the absence of checkpoints),
@@ -893,6 +918,12 @@ public class StreamingJobGraphGenerator {
 				"exactly-once or at-least-once.");
 		}
 
+		boolean isUnalignedCheckpointsEnabled = cfg.isUnalignedCheckpointsEnabled();
+		if (isUnalignedCheckpointsEnabled && !isExactlyOnce) {
+			throw new IllegalStateException("Unaligned checkpoints are only supported with the " +
+				"exactly-once checkpointing mode.");
+		}
+
 		//  --- configure the master-side checkpoint hooks ---
 
 		final ArrayList<MasterTriggerRestoreHook.Factory> hooks = new ArrayList<>();
@@ -952,7 +983,8 @@ public class StreamingJobGraphGenerator {
 				retentionAfterTermination,
 				isExactlyOnce,
 				cfg.isPreferCheckpointForRecovery(),
-				cfg.getTolerableCheckpointFailureNumber()),
+				cfg.getTolerableCheckpointFailureNumber(),
+				isUnalignedCheckpointsEnabled),
 			serializedStateBackend,
 			serializedHooks);
 
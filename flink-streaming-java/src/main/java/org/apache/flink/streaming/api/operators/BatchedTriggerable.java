@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.annotation.Internal;
+
+/**
+ * A {@link Triggerable} that is invoked once with a batch of the timers that are due at a time, instead of once
+ * per timer. Operators implement this interface to opt into batched timer callbacks, e.g. to access the
+ * state of the keys of the timers in the order of their key-groups. The timers are only passed in batches
+ * if {@link #isTimerBatchingEnabled()} returns {@code true} when the timer service is started, otherwise
+ * they fire one by one in the order of their timestamps.
+ *
+ * <p>The timers of a batch are ordered by key-group. Timers of the same key-group are ordered by
+ * timestamp. The number of timers of a batch is bounded, if more timers are due they are passed in
+ * following batches. The timers of a key always fire in the order of their timestamps, but timers of
+ * different keys may fire out of the order of their timestamps. Unlike for {@link #onEventTime(InternalTimer)}
+ * and {@link #onProcessingTime(InternalTimer)}, the current key is not set to the key of a timer before
+ * the callback; implementations must set the key of each timer themselves before accessing keyed state.
+ *
+ * <p>The timers of a batch can be iterated only once, and implementations must iterate over all of them.
+ * Deleting a timer of the batch before the iteration reaches it skips the timer, and registering it again
+ * has no effect, just like for timers that were not fired yet. Timers that are registered in the callback
+ * and are already due are passed in a following batch.
+ *
+ * @param <K> Type of the keys to which timers are scoped.
+ * @param <N> Type of the namespace to which timers are scoped.
+ */
+@Internal
+public interface BatchedTriggerable<K, N> extends Triggerable<K, N> {
+
+	/**
+	 * Invoked with a batch of the event-time timers that fire for a watermark.
+	 */
+	void onEventTimeBatch(Iterable<InternalTimer<K, N>> timers) throws Exception;
+
+	/**
+	 * Invoked with a batch of the processing-time timers that fire at a processing time.
+	 */
+	void onProcessingTimeBatch(Iterable<InternalTimer<K, N>> timers) throws Exception;
+
+	/**
+	 * Returns whether the timers should be passed in batches. If not, they fire one by one through
+	 * {@link #onEventTime(InternalTimer)} and {@link #onProcessingTime(InternalTimer)}.
+	 */
+	default boolean isTimerBatchingEnabled() {
+		return true;
+	}
+}
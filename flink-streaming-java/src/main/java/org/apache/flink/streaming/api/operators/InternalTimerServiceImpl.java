@@ -23,6 +23,7 @@ import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
 import org.apache.flink.runtime.state.InternalPriorityQueue;
 import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
 import org.apache.flink.runtime.state.KeyGroupedInternalPriorityQueue;
 import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
 import org.apache.flink.util.CloseableIterator;
@@ -31,8 +32,12 @@ import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.function.BiConsumerWithException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 
@@ -65,6 +70,15 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N> {
 
 	private final int localKeyGroupRangeStartIdx;
 
+	/** The total number of key-groups, used to order timers that are fired in batches. */
+	private final int totalKeyGroups;
+
+	/** The maximum number of timers that are passed to a {@link BatchedTriggerable} at once. */
+	private int maxTimerBatchSize = DEFAULT_MAX_TIMER_BATCH_SIZE;
+
+	/** The batch of timers that is currently fired, {@code null} if no batch is fired. */
+	private TimerBatch currentTimerBatch;
+
 	/**
 	 * The local event time, as denoted by the last received
 	 * {@link org.apache.flink.streaming.api.watermark.Watermark Watermark}.
@@ -85,6 +99,9 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N> {
 
 	private Triggerable<K, N> triggerTarget;
 
+	/** The trigger target if it has timer batching enabled, {@code null} if the timers fire one by one. */
+	private BatchedTriggerable<K, N> batchedTriggerTarget;
+
 	private volatile boolean isInitialized;
 
 	private TypeSerializer<K> keyDeserializer;
@@ -94,8 +111,12 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N> {
 	/** The restored timers snapshot, if any. */
 	private InternalTimersSnapshot<K, N> restoredTimersSnapshot;
 
+	/** The default maximum number of timers that are passed to a {@link BatchedTriggerable} at once. */
+	static final int DEFAULT_MAX_TIMER_BATCH_SIZE = 1024;
+
 	InternalTimerServiceImpl(
 		KeyGroupRange localKeyGroupRange,
+		int totalKeyGroups,
 		KeyContext keyContext,
 		ProcessingTimeService processingTimeService,
 		KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> processingTimeTimersQueue,
@@ -104,6 +125,7 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N> {
 		this.keyContext = checkNotNull(keyContext);
 		this.processingTimeService = checkNotNull(processingTimeService);
 		this.localKeyGroupRange = checkNotNull(localKeyGroupRange);
+		this.totalKeyGroups = totalKeyGroups;
 		this.processingTimeTimersQueue = checkNotNull(processingTimeTimersQueue);
 		this.eventTimeTimersQueue = checkNotNull(eventTimeTimersQueue);
 
@@ -172,6 +194,9 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N> {
 			this.namespaceDeserializer = null;
 
 			this.triggerTarget = Preconditions.checkNotNull(triggerTarget);
+			this.batchedTriggerTarget =
+				triggerTarget instanceof BatchedTriggerable && ((BatchedTriggerable<K, N>) triggerTarget).isTimerBatchingEnabled() ?
+					(BatchedTriggerable<K, N>) triggerTarget : null;
 
 			// re-register the restored timers (if any)
 			final InternalTimer<K, N> headTimer = processingTimeTimersQueue.peek();
@@ -199,8 +224,13 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N> {
 
 	@Override
 	public void registerProcessingTimeTimer(N namespace, long time) {
+		TimerHeapInternalTimer<K, N> timer = new TimerHeapInternalTimer<>(time, (K) keyContext.getCurrentKey(), namespace);
+		if (isPendingInTimerBatch(processingTimeTimersQueue, timer)) {
+			return;
+		}
+
 		InternalTimer<K, N> oldHead = processingTimeTimersQueue.peek();
-		if (processingTimeTimersQueue.add(new TimerHeapInternalTimer<>(time, (K) keyContext.getCurrentKey(), namespace))) {
+		if (processingTimeTimersQueue.add(timer)) {
 			long nextTriggerTime = oldHead != null ? oldHead.getTimestamp() : Long.MAX_VALUE;
 			// check if we need to re-schedule our timer to earlier
 			if (time < nextTriggerTime) {
@@ -214,17 +244,46 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N> {
 
 	@Override
 	public void registerEventTimeTimer(N namespace, long time) {
-		eventTimeTimersQueue.add(new TimerHeapInternalTimer<>(time, (K) keyContext.getCurrentKey(), namespace));
+		TimerHeapInternalTimer<K, N> timer = new TimerHeapInternalTimer<>(time, (K) keyContext.getCurrentKey(), namespace);
+		if (!isPendingInTimerBatch(eventTimeTimersQueue, timer)) {
+			eventTimeTimersQueue.add(timer);
+		}
 	}
 
 	@Override
 	public void deleteProcessingTimeTimer(N namespace, long time) {
-		processingTimeTimersQueue.remove(new TimerHeapInternalTimer<>(time, (K) keyContext.getCurrentKey(), namespace));
+		TimerHeapInternalTimer<K, N> timer = new TimerHeapInternalTimer<>(time, (K) keyContext.getCurrentKey(), namespace);
+		if (!cancelPendingInTimerBatch(processingTimeTimersQueue, timer)) {
+			processingTimeTimersQueue.remove(timer);
+		}
 	}
 
 	@Override
 	public void deleteEventTimeTimer(N namespace, long time) {
-		eventTimeTimersQueue.remove(new TimerHeapInternalTimer<>(time, (K) keyContext.getCurrentKey(), namespace));
+		TimerHeapInternalTimer<K, N> timer = new TimerHeapInternalTimer<>(time, (K) keyContext.getCurrentKey(), namespace);
+		if (!cancelPendingInTimerBatch(eventTimeTimersQueue, timer)) {
+			eventTimeTimersQueue.remove(timer);
+		}
+	}
+
+	/**
+	 * Returns whether the timer was polled from the given queue for the batch that is currently fired, but was
+	 * not passed to the trigger target yet. Such a timer must not be registered again, it will still fire.
+	 */
+	private boolean isPendingInTimerBatch(
+			KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> queue,
+			TimerHeapInternalTimer<K, N> timer) {
+		return currentTimerBatch != null && currentTimerBatch.queue == queue && currentTimerBatch.pendingTimers.contains(timer);
+	}
+
+	/**
+	 * Cancels the timer if it is pending in the batch that is currently fired from the given queue, so that it
+	 * is skipped like a timer that is deleted from the queue.
+	 */
+	private boolean cancelPendingInTimerBatch(
+			KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> queue,
+			TimerHeapInternalTimer<K, N> timer) {
+		return currentTimerBatch != null && currentTimerBatch.queue == queue && currentTimerBatch.pendingTimers.remove(timer);
 	}
 
 	@Override
@@ -254,10 +313,24 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N> {
 
 		InternalTimer<K, N> timer;
 
-		while ((timer = processingTimeTimersQueue.peek()) != null && timer.getTimestamp() <= time) {
-			processingTimeTimersQueue.poll();
-			keyContext.setCurrentKey(timer.getKey());
-			triggerTarget.onProcessingTime(timer);
+		if (batchedTriggerTarget != null) {
+			// also fire the timers that became due since this callback was scheduled, e.g. when catching up
+			final long dueTime = Math.max(time, processingTimeService.getCurrentProcessingTime());
+			TimerBatch dueTimers;
+			while ((dueTimers = pollDueTimers(processingTimeTimersQueue, dueTime)) != null) {
+				try {
+					batchedTriggerTarget.onProcessingTimeBatch(dueTimers);
+				} finally {
+					finishTimerBatch();
+				}
+			}
+			timer = processingTimeTimersQueue.peek();
+		} else {
+			while ((timer = processingTimeTimersQueue.peek()) != null && timer.getTimestamp() <= time) {
+				processingTimeTimersQueue.poll();
+				keyContext.setCurrentKey(timer.getKey());
+				triggerTarget.onProcessingTime(timer);
+			}
 		}
 
 		if (timer != null && nextTimer == null) {
@@ -268,6 +341,18 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N> {
 	public void advanceWatermark(long time) throws Exception {
 		currentWatermark = time;
 
+		if (batchedTriggerTarget != null) {
+			TimerBatch dueTimers;
+			while ((dueTimers = pollDueTimers(eventTimeTimersQueue, time)) != null) {
+				try {
+					batchedTriggerTarget.onEventTimeBatch(dueTimers);
+				} finally {
+					finishTimerBatch();
+				}
+			}
+			return;
+		}
+
 		InternalTimer<K, N> timer;
 
 		while ((timer = eventTimeTimersQueue.peek()) != null && timer.getTimestamp() <= time) {
@@ -277,6 +362,118 @@ public class InternalTimerServiceImpl<K, N> implements InternalTimerService<N> {
 		}
 	}
 
+	/**
+	 * Removes up to {@link #maxTimerBatchSize} timers from the given queue that are due at the given time and
+	 * returns them ordered by key-group, or {@code null} if no timer is due. Timers of the same key-group remain
+	 * ordered by timestamp. Because the timers are polled in the order of their timestamps, the timers of a key
+	 * also fire in the order of their timestamps across batches.
+	 */
+	private TimerBatch pollDueTimers(
+			KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> queue,
+			long time) {
+
+		final List<TimerHeapInternalTimer<K, N>> dueTimers = new ArrayList<>();
+		InternalTimer<K, N> timer;
+		while (dueTimers.size() < maxTimerBatchSize && (timer = queue.peek()) != null && timer.getTimestamp() <= time) {
+			dueTimers.add(queue.poll());
+		}
+
+		final int numTimers = dueTimers.size();
+		if (numTimers == 0) {
+			return null;
+		}
+
+		// sort (key-group, position) pairs, so that the key-group of each timer is computed only once and
+		// the order by timestamp within a key-group is kept
+		final long[] order = new long[numTimers];
+		for (int i = 0; i < numTimers; i++) {
+			final int keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(dueTimers.get(i).getKey(), totalKeyGroups);
+			order[i] = ((long) keyGroup << 32) | i;
+		}
+		Arrays.sort(order);
+
+		final List<TimerHeapInternalTimer<K, N>> sortedTimers = new ArrayList<>(numTimers);
+		for (long entry : order) {
+			sortedTimers.add(dueTimers.get((int) entry));
+		}
+
+		currentTimerBatch = new TimerBatch(queue, sortedTimers);
+		return currentTimerBatch;
+	}
+
+	/**
+	 * Ends the batch that is currently fired. Timers which were not passed to the trigger target, because it did
+	 * not consume the whole batch, are put back into their queue, so that no timer is lost.
+	 */
+	private void finishTimerBatch() {
+		final TimerBatch timerBatch = currentTimerBatch;
+		currentTimerBatch = null;
+		for (TimerHeapInternalTimer<K, N> timer : timerBatch.pendingTimers) {
+			timerBatch.queue.add(timer);
+		}
+	}
+
+	@VisibleForTesting
+	void setMaxTimerBatchSize(int maxTimerBatchSize) {
+		checkArgument(maxTimerBatchSize > 0, "The maximum timer batch size must be positive.");
+		this.maxTimerBatchSize = maxTimerBatchSize;
+	}
+
+	/**
+	 * Due timers which were removed from a queue to be fired in one batch. The timers are passed to the trigger
+	 * target through a single iteration. Timers which are deleted before the iteration reaches them are skipped.
+	 */
+	private final class TimerBatch implements Iterable<InternalTimer<K, N>> {
+
+		/** The queue from which the timers were polled. */
+		private final KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> queue;
+
+		/** The timers of the batch, in the order in which they fire. */
+		private final List<TimerHeapInternalTimer<K, N>> timers;
+
+		/** The timers that were neither passed to the trigger target nor deleted yet. */
+		private final Set<TimerHeapInternalTimer<K, N>> pendingTimers;
+
+		private boolean iterated;
+
+		TimerBatch(
+				KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>> queue,
+				List<TimerHeapInternalTimer<K, N>> timers) {
+			this.queue = queue;
+			this.timers = timers;
+			this.pendingTimers = new HashSet<>(timers);
+		}
+
+		@Override
+		public Iterator<InternalTimer<K, N>> iterator() {
+			Preconditions.checkState(!iterated, "A batch of timers can only be iterated once.");
+			iterated = true;
+
+			return new Iterator<InternalTimer<K, N>>() {
+
+				private int position;
+
+				@Override
+				public boolean hasNext() {
+					while (position < timers.size() && !pendingTimers.contains(timers.get(position))) {
+						position++;
+					}
+					return position < timers.size();
+				}
+
+				@Override
+				public InternalTimer<K, N> next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					final TimerHeapInternalTimer<K, N> timer = timers.get(position++);
+					pendingTimers.remove(timer);
+					return timer;
+				}
+			};
+		}
+	}
+
 	/**
 	 * Snapshots the timers (both processing and event time ones) for a given {@code keyGroupIdx}.
 	 *
@@ -19,10 +19,14 @@
 package org.apache.flink.streaming.api.operators;
 
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.checkpoint.StateObjectCollection;
 import org.apache.flink.runtime.concurrent.FutureUtils;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.OperatorStateHandle;
+import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
 import org.apache.flink.runtime.state.SnapshotResult;
+import org.apache.flink.runtime.state.StateObject;
 
 import javax.annotation.Nonnull;
 
@@ -55,11 +59,19 @@ public class OperatorSnapshotFinalizer {
 		SnapshotResult<OperatorStateHandle> operatorRaw =
 			FutureUtils.runIfNotDoneAndGet(snapshotFutures.getOperatorStateRawFuture());
 
+		SnapshotResult<StateObjectCollection<InputChannelStateHandle>> inputChannel =
+			FutureUtils.runIfNotDoneAndGet(snapshotFutures.getInputChannelStateFuture());
+
+		SnapshotResult<StateObjectCollection<ResultSubpartitionStateHandle>> resultSubpartition =
+			FutureUtils.runIfNotDoneAndGet(snapshotFutures.getResultSubpartitionStateFuture());
+
 		jobManagerOwnedState = new OperatorSubtaskState(
-			operatorManaged.getJobManagerOwnedSnapshot(),
-			operatorRaw.getJobManagerOwnedSnapshot(),
-			keyedManaged.getJobManagerOwnedSnapshot(),
-			keyedRaw.getJobManagerOwnedSnapshot()
+			singletonOrEmptyOnNull(operatorManaged.getJobManagerOwnedSnapshot()),
+			singletonOrEmptyOnNull(operatorRaw.getJobManagerOwnedSnapshot()),
+			singletonOrEmptyOnNull(keyedManaged.getJobManagerOwnedSnapshot()),
+			singletonOrEmptyOnNull(keyedRaw.getJobManagerOwnedSnapshot()),
+			emptyOnNull(inputChannel.getJobManagerOwnedSnapshot()),
+			emptyOnNull(resultSubpartition.getJobManagerOwnedSnapshot())
 		);
 
 		taskLocalState = new OperatorSubtaskState(
@@ -70,6 +82,14 @@ public class OperatorSnapshotFinalizer {
 		);
 	}
 
+	private static <T extends StateObject> StateObjectCollection<T> singletonOrEmptyOnNull(T element) {
+		return element != null ? StateObjectCollection.singleton(element) : StateObjectCollection.empty();
+	}
+
+	private static <T extends StateObject> StateObjectCollection<T> emptyOnNull(StateObjectCollection<T> collection) {
+		return collection != null ? collection : StateObjectCollection.empty();
+	}
+
 	public OperatorSubtaskState getTaskLocalState() {
 		return taskLocalState;
 	}
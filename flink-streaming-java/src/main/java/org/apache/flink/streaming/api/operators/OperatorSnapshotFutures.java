@@ -18,9 +18,12 @@
 
 package org.apache.flink.streaming.api.operators;
 
+import org.apache.flink.runtime.checkpoint.StateObjectCollection;
 import org.apache.flink.runtime.state.DoneFuture;
+import org.apache.flink.runtime.state.InputChannelStateHandle;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.OperatorStateHandle;
+import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
 import org.apache.flink.runtime.state.SnapshotResult;
 import org.apache.flink.runtime.state.StateUtil;
 import org.apache.flink.util.ExceptionUtils;
@@ -46,6 +49,12 @@ public class OperatorSnapshotFutures {
 	@Nonnull
 	private RunnableFuture<SnapshotResult<OperatorStateHandle>> operatorStateRawFuture;
 
+	@Nonnull
+	private RunnableFuture<SnapshotResult<StateObjectCollection<InputChannelStateHandle>>> inputChannelStateFuture;
+
+	@Nonnull
+	private RunnableFuture<SnapshotResult<StateObjectCollection<ResultSubpartitionStateHandle>>> resultSubpartitionStateFuture;
+
 	public OperatorSnapshotFutures() {
 		this(
 			DoneFuture.of(SnapshotResult.empty()),
@@ -63,6 +72,8 @@ public class OperatorSnapshotFutures {
 		this.keyedStateRawFuture = keyedStateRawFuture;
 		this.operatorStateManagedFuture = operatorStateManagedFuture;
 		this.operatorStateRawFuture = operatorStateRawFuture;
+		this.inputChannelStateFuture = DoneFuture.of(SnapshotResult.empty());
+		this.resultSubpartitionStateFuture = DoneFuture.of(SnapshotResult.empty());
 	}
 
 	@Nonnull
@@ -105,6 +116,26 @@ public class OperatorSnapshotFutures {
 		this.operatorStateRawFuture = operatorStateRawFuture;
 	}
 
+	@Nonnull
+	public RunnableFuture<SnapshotResult<StateObjectCollection<InputChannelStateHandle>>> getInputChannelStateFuture() {
+		return inputChannelStateFuture;
+	}
+
+	public void setInputChannelStateFuture(
+		@Nonnull RunnableFuture<SnapshotResult<StateObjectCollection<InputChannelStateHandle>>> inputChannelStateFuture) {
+		this.inputChannelStateFuture = inputChannelStateFuture;
+	}
+
+	@Nonnull
+	public RunnableFuture<SnapshotResult<StateObjectCollection<ResultSubpartitionStateHandle>>> getResultSubpartitionStateFuture() {
+		return resultSubpartitionStateFuture;
+	}
+
+	public void setResultSubpartitionStateFuture(
+		@Nonnull RunnableFuture<SnapshotResult<StateObjectCollection<ResultSubpartitionStateHandle>>> resultSubpartitionStateFuture) {
+		this.resultSubpartitionStateFuture = resultSubpartitionStateFuture;
+	}
+
 	public void cancel() throws Exception {
 		Exception exception = null;
 
@@ -138,6 +169,22 @@ public class OperatorSnapshotFutures {
 				exception);
 		}
 
+		try {
+			StateUtil.discardStateFuture(getInputChannelStateFuture());
+		} catch (Exception e) {
+			exception = ExceptionUtils.firstOrSuppressed(
+				new Exception("Could not properly cancel input channel state future.", e),
+				exception);
+		}
+
+		try {
+			StateUtil.discardStateFuture(getResultSubpartitionStateFuture());
+		} catch (Exception e) {
+			exception = ExceptionUtils.firstOrSuppressed(
+				new Exception("Could not properly cancel result subpartition state future.", e),
+				exception);
+		}
+
 		if (exception != null) {
 			throw exception;
 		}
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.state.ListState;
+import org.apache.flink.api.common.state.ListStateDescriptor;
+import org.apache.flink.api.common.typeutils.base.array.BytePrimitiveArraySerializer;
+import org.apache.flink.api.connector.source.Source;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.SourceReader;
+import org.apache.flink.api.connector.source.SourceReaderContext;
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.core.io.InputStatus;
+import org.apache.flink.core.io.SimpleVersionedSerialization;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+import org.apache.flink.runtime.operators.coordination.OperatorEventGateway;
+import org.apache.flink.runtime.operators.coordination.OperatorEventHandler;
+import org.apache.flink.runtime.source.event.AddSplitEvent;
+import org.apache.flink.runtime.source.event.NoMoreSplitsEvent;
+import org.apache.flink.runtime.source.event.ReaderRegistrationEvent;
+import org.apache.flink.runtime.source.event.RequestSplitEvent;
+import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.runtime.state.StateInitializationContext;
+import org.apache.flink.runtime.state.StateSnapshotContext;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Base source operator only used for integrating the source reader which is proposed by FLIP-27. It implements
+ * the interface of {@link org.apache.flink.streaming.runtime.io.PushingAsyncDataInput} for naturally compatible
+ * with one input processing in runtime stack.
+ *
+ * <p>The operator hosts a {@link SourceReader} and connects it to the
+ * {@link org.apache.flink.runtime.source.coordinator.SourceCoordinator} running on the JobManager: it registers
+ * the reader with the coordinator when opened, receives the splits and the source events assigned by the
+ * {@link org.apache.flink.api.connector.source.SplitEnumerator}, and stores the splits of the reader in its
+ * operator state on checkpoints.
+ *
+ * @param <OUT> The output type of the operator.
+ * @param <SplitT> The type of the source splits.
+ */
+@Internal
+public class SourceOperator<OUT, SplitT extends SourceSplit>
+		extends SourceReaderOperator<OUT>
+		implements OperatorEventHandler {
+
+	private static final long serialVersionUID = 1405537676017904695L;
+
+	/** The location reported to the coordinator, until the task locations are exposed to the operators. */
+	static final String UNKNOWN_LOCATION = "UNKNOWN_LOCATION";
+
+	/** The state that holds the currently assigned splits. */
+	static final ListStateDescriptor<byte[]> SPLITS_STATE_DESC =
+		new ListStateDescriptor<>("SourceReaderState", BytePrimitiveArraySerializer.INSTANCE);
+
+	/** The Source that is the basis of this operator. */
+	private final Source<OUT, SplitT, ?> source;
+
+	/** The event gateway through which this operator talks to its coordinator. */
+	private transient OperatorEventGateway operatorEventGateway;
+
+	// ---- lazily initialized fields ----
+
+	/** The source reader that does most of the work. */
+	private transient SourceReader<OUT, SplitT> sourceReader;
+
+	/** The serializer for the splits, applied to the split types before storing them in the reader state. */
+	private transient SimpleVersionedSerializer<SplitT> splitSerializer;
+
+	/** The state that holds the currently assigned splits. */
+	private transient ListState<byte[]> readerState;
+
+	/** The output handed to the source reader, created on the first call to {@link #emitNext(DataOutput)}. */
+	private transient SourceOperatorReaderOutput<OUT> readerOutput;
+
+	public SourceOperator(Source<OUT, SplitT, ?> source) {
+		this.source = checkNotNull(source);
+	}
+
+	void setOperatorEventGateway(OperatorEventGateway operatorEventGateway) {
+		this.operatorEventGateway = checkNotNull(operatorEventGateway);
+	}
+
+	@Override
+	public void initializeState(StateInitializationContext context) throws Exception {
+		super.initializeState(context);
+		readerState = context.getOperatorStateStore().getListState(SPLITS_STATE_DESC);
+	}
+
+	@Override
+	public void open() throws Exception {
+		super.open();
+
+		final MetricGroup metricGroup = getMetricGroup();
+		final int subtaskIndex = getRuntimeContext().getIndexOfThisSubtask();
+		final SourceReaderContext context = new SourceReaderContext() {
+			@Override
+			public MetricGroup metricGroup() {
+				return metricGroup;
+			}
+
+			@Override
+			public int getIndexOfSubtask() {
+				return subtaskIndex;
+			}
+
+			@Override
+			public void sendSplitRequest() {
+				operatorEventGateway.sendEventToCoordinator(new RequestSplitEvent(UNKNOWN_LOCATION));
+			}
+
+			@Override
+			public void sendSourceEventToCoordinator(SourceEvent event) {
+				operatorEventGateway.sendEventToCoordinator(new SourceEventWrapper(event));
+			}
+		};
+
+		sourceReader = source.createReader(context);
+		splitSerializer = source.getSplitSerializer();
+
+		// restore the state if necessary.
+		final List<SplitT> splits = new ArrayList<>();
+		for (byte[] serializedSplit : readerState.get()) {
+			splits.add(SimpleVersionedSerialization.readVersionAndDeSerialize(splitSerializer, serializedSplit));
+		}
+		if (!splits.isEmpty()) {
+			sourceReader.addSplits(splits);
+		}
+
+		// register the reader to the coordinator.
+		operatorEventGateway.sendEventToCoordinator(new ReaderRegistrationEvent(subtaskIndex, UNKNOWN_LOCATION));
+
+		// start the reader.
+		sourceReader.start();
+	}
+
+	@Override
+	public InputStatus emitNext(DataOutput<OUT> output) throws Exception {
+		if (readerOutput == null) {
+			readerOutput = new SourceOperatorReaderOutput<>();
+		}
+		readerOutput.setDataOutput(output);
+		return sourceReader.pollNext(readerOutput);
+	}
+
+	@Override
+	public void snapshotState(StateSnapshotContext context) throws Exception {
+		super.snapshotState(context);
+		final List<byte[]> serializedSplits = new ArrayList<>();
+		for (SplitT split : sourceReader.snapshotState()) {
+			serializedSplits.add(SimpleVersionedSerialization.writeVersionAndSerialize(splitSerializer, split));
+		}
+		readerState.update(serializedSplits);
+	}
+
+	@Override
+	public CompletableFuture<?> getAvailableFuture() {
+		return sourceReader.isAvailable();
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (sourceReader != null) {
+			sourceReader.close();
+		}
+		super.close();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void handleOperatorEvent(OperatorEvent event) {
+		if (event instanceof AddSplitEvent) {
+			try {
+				sourceReader.addSplits(((AddSplitEvent<SplitT>) event).splits(splitSerializer));
+			} catch (IOException e) {
+				throw new FlinkRuntimeException("Failed to deserialize the splits.", e);
+			}
+		} else if (event instanceof SourceEventWrapper) {
+			sourceReader.handleSourceEvents(((SourceEventWrapper) event).getSourceEvent());
+		} else if (event instanceof NoMoreSplitsEvent) {
+			sourceReader.notifyNoMoreSplits();
+		} else {
+			throw new IllegalStateException("Received unexpected operator event " + event);
+		}
+	}
+
+	@VisibleForTesting
+	SourceReader<OUT, SplitT> getSourceReader() {
+		return sourceReader;
+	}
+}
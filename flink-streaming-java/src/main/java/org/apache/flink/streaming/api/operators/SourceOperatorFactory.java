@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.connector.source.Source;
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
+import org.apache.flink.runtime.operators.coordination.OperatorEventDispatcher;
+import org.apache.flink.runtime.source.coordinator.SourceCoordinatorProvider;
+import org.apache.flink.streaming.api.graph.StreamConfig;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTask;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The Factory class for {@link SourceOperator}.
+ */
+@Internal
+public class SourceOperatorFactory<OUT> extends AbstractStreamOperatorFactory<OUT>
+		implements CoordinatedOperatorFactory<OUT> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The {@link Source} to create the {@link SourceOperator}. */
+	private final Source<OUT, ?, ?> source;
+
+	/** The event dispatcher of the task, used to connect the operator with its coordinator. */
+	private transient OperatorEventDispatcher operatorEventDispatcher;
+
+	public SourceOperatorFactory(Source<OUT, ?, ?> source) {
+		this.source = checkNotNull(source);
+		this.chainingStrategy = ChainingStrategy.HEAD;
+	}
+
+	@Override
+	public void setOperatorEventDispatcher(OperatorEventDispatcher operatorEventDispatcher) {
+		this.operatorEventDispatcher = operatorEventDispatcher;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends StreamOperator<OUT>> T createStreamOperator(
+			StreamTask<?, ?> containingTask,
+			StreamConfig config,
+			Output<StreamRecord<OUT>> output) {
+		final SourceOperator<OUT, ?> sourceOperator = new SourceOperator<>(source);
+		sourceOperator.setOperatorEventGateway(
+			checkNotNull(operatorEventDispatcher, "The operator event dispatcher has not been set.")
+				.registerEventHandler(config.getOperatorID(), sourceOperator));
+		sourceOperator.setup(containingTask, config, output);
+		return (T) sourceOperator;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public OperatorCoordinator.Provider getCoordinatorProvider(String operatorName, OperatorID operatorID) {
+		return new SourceCoordinatorProvider<>(operatorName, operatorID, (Source<OUT, SourceSplit, ?>) source);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Class<? extends StreamOperator> getStreamOperatorClass(ClassLoader classLoader) {
+		return SourceOperator.class;
+	}
+}
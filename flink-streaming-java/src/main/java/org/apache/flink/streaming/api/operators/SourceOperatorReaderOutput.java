@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.api.connector.source.ReaderOutput;
+import org.apache.flink.api.connector.source.SourceOutput;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.io.PushingAsyncDataInput.DataOutput;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.streamstatus.StreamStatus;
+import org.apache.flink.util.ExceptionUtils;
+
+import javax.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * The {@link ReaderOutput} handed to the {@link org.apache.flink.api.connector.source.SourceReader}
+ * by the {@link SourceOperator}.
+ *
+ * <p>Each split output tracks the watermark of its split separately, and the watermark emitted
+ * downstream is the minimum of the watermarks of all the non-idle split outputs. This way a split
+ * that lags behind holds back the event time of the whole reader, while records of splits that
+ * are read ahead are not considered late. The reader-wide output takes part in the watermark
+ * combination only once a watermark has been emitted through it directly. When all the outputs
+ * are idle, the stream is marked as {@link StreamStatus#IDLE}.
+ *
+ * <p>This class is intended for single threaded use from the stream task mailbox.
+ */
+final class SourceOperatorReaderOutput<T> implements ReaderOutput<T> {
+
+	private final StreamRecord<T> reusedRecord = new StreamRecord<>(null);
+
+	private final Map<String, WatermarkTrackingOutput> splitOutputs = new HashMap<>();
+
+	private final WatermarkTrackingOutput mainOutput = new WatermarkTrackingOutput();
+
+	private DataOutput<T> dataOutput;
+
+	private long combinedWatermark = Long.MIN_VALUE;
+
+	private boolean streamIdle;
+
+	void setDataOutput(DataOutput<T> dataOutput) {
+		this.dataOutput = checkNotNull(dataOutput);
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public void collect(T record) {
+		mainOutput.collect(record);
+	}
+
+	@Override
+	public void collect(T record, long timestamp) {
+		mainOutput.collect(record, timestamp);
+	}
+
+	@Override
+	public void emitWatermark(long timestamp) {
+		mainOutput.emitWatermark(timestamp);
+	}
+
+	@Override
+	public void markIdle() {
+		mainOutput.markIdle();
+	}
+
+	@Override
+	public SourceOutput<T> createOutputForSplit(String splitId) {
+		final WatermarkTrackingOutput splitOutput = new WatermarkTrackingOutput();
+		checkState(splitOutputs.putIfAbsent(splitId, splitOutput) == null,
+			"Output for split %s has already been created.", splitId);
+		// a new split holds back the watermark until it emits one itself
+		splitOutput.participating = true;
+		return splitOutput;
+	}
+
+	@Override
+	public void releaseOutputForSplit(String splitId) {
+		if (splitOutputs.remove(splitId) != null) {
+			updateCombinedWatermark();
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private void emitRecord(@Nullable Long timestamp, T record) {
+		try {
+			if (streamIdle) {
+				streamIdle = false;
+				dataOutput.emitStreamStatus(StreamStatus.ACTIVE);
+			}
+			if (timestamp == null) {
+				reusedRecord.replace(record);
+				reusedRecord.eraseTimestamp();
+			} else {
+				reusedRecord.replace(record, timestamp);
+			}
+			dataOutput.emitRecord(reusedRecord);
+		} catch (Exception e) {
+			ExceptionUtils.rethrow(e);
+		}
+	}
+
+	private void updateCombinedWatermark() {
+		long minWatermark = Long.MAX_VALUE;
+		boolean allIdle = true;
+		if (mainOutput.participating && !mainOutput.idle) {
+			minWatermark = mainOutput.watermark;
+			allIdle = false;
+		}
+		for (WatermarkTrackingOutput splitOutput : splitOutputs.values()) {
+			if (!splitOutput.idle) {
+				minWatermark = Math.min(minWatermark, splitOutput.watermark);
+				allIdle = false;
+			}
+		}
+
+		try {
+			if (allIdle) {
+				if (!streamIdle && (mainOutput.participating || !splitOutputs.isEmpty())) {
+					streamIdle = true;
+					dataOutput.emitStreamStatus(StreamStatus.IDLE);
+				}
+				return;
+			}
+			if (streamIdle) {
+				streamIdle = false;
+				dataOutput.emitStreamStatus(StreamStatus.ACTIVE);
+			}
+			if (minWatermark > combinedWatermark) {
+				combinedWatermark = minWatermark;
+				dataOutput.emitWatermark(new Watermark(combinedWatermark));
+			}
+		} catch (Exception e) {
+			ExceptionUtils.rethrow(e);
+		}
+	}
+
+	/**
+	 * A {@link SourceOutput} that tracks the watermark and the idleness of the records emitted
+	 * through it.
+	 */
+	private final class WatermarkTrackingOutput implements SourceOutput<T> {
+
+		private long watermark = Long.MIN_VALUE;
+
+		private boolean idle;
+
+		/** Whether this output takes part in the calculation of the combined watermark. */
+		private boolean participating;
+
+		@Override
+		public void collect(T record) {
+			markActive();
+			emitRecord(null, record);
+		}
+
+		@Override
+		public void collect(T record, long timestamp) {
+			markActive();
+			emitRecord(timestamp, record);
+		}
+
+		@Override
+		public void emitWatermark(long timestamp) {
+			participating = true;
+			idle = false;
+			watermark = Math.max(watermark, timestamp);
+			updateCombinedWatermark();
+		}
+
+		@Override
+		public void markIdle() {
+			if (!idle) {
+				idle = true;
+				updateCombinedWatermark();
+			}
+		}
+
+		private void markActive() {
+			if (idle) {
+				idle = false;
+				updateCombinedWatermark();
+			}
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeCallback;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link StreamOperator} that pre-combines the elements of a not yet partitioned stream with a
+ * {@link ReduceFunction}, before they are shuffled to a
+ * {@link org.apache.flink.streaming.api.datastream.KeyedStream}. This is the local phase of a
+ * two-phase aggregation, the global phase is a regular {@link StreamGroupedReduce}.
+ *
+ * <p>Partial results are kept per key in an in-memory map of at most {@code maxBufferedKeys}
+ * entries. The map is flushed downstream when it is full, periodically every
+ * {@code flushInterval} milliseconds of processing time, before a watermark is forwarded, before
+ * a checkpoint barrier is emitted and at the end of the input. Because the map is always empty
+ * when a checkpoint is taken, the operator holds no state.
+ *
+ * <p>An emitted partial result carries the largest timestamp of the elements it combines.
+ */
+@Internal
+public class StreamLocalGroupedReduce<KEY, IN> extends AbstractUdfStreamOperator<IN, ReduceFunction<IN>>
+		implements OneInputStreamOperator<IN, IN>, BoundedOneInput, ProcessingTimeCallback {
+
+	private static final long serialVersionUID = 1L;
+
+	private final KeySelector<IN, KEY> keySelector;
+
+	private final TypeSerializer<IN> serializer;
+
+	private final int maxBufferedKeys;
+
+	private final long flushInterval;
+
+	/** Copy inputs before buffering them, upstream operators may reuse them otherwise. */
+	private transient boolean copyInputs;
+
+	private transient Map<KEY, StreamRecord<IN>> buffer;
+
+	private transient ScheduledFuture<?> flushTimer;
+
+	public StreamLocalGroupedReduce(
+			ReduceFunction<IN> reducer,
+			KeySelector<IN, KEY> keySelector,
+			TypeSerializer<IN> serializer,
+			int maxBufferedKeys,
+			long flushInterval) {
+		super(reducer);
+		checkArgument(maxBufferedKeys > 0, "The maximum number of buffered keys must be positive.");
+		checkArgument(flushInterval >= 0, "The flush interval must not be negative.");
+		this.keySelector = checkNotNull(keySelector);
+		this.serializer = checkNotNull(serializer);
+		this.maxBufferedKeys = maxBufferedKeys;
+		this.flushInterval = flushInterval;
+		this.chainingStrategy = ChainingStrategy.ALWAYS;
+	}
+
+	@Override
+	public void open() throws Exception {
+		super.open();
+		copyInputs = getExecutionConfig().isObjectReuseEnabled();
+		buffer = new LinkedHashMap<>();
+		if (flushInterval > 0) {
+			flushTimer = getProcessingTimeService().scheduleAtFixedRate(this, flushInterval, flushInterval);
+		}
+	}
+
+	@Override
+	public void processElement(StreamRecord<IN> element) throws Exception {
+		IN value = copyInputs ? serializer.copy(element.getValue()) : element.getValue();
+		KEY key = keySelector.getKey(value);
+
+		StreamRecord<IN> partial = buffer.get(key);
+		if (partial == null) {
+			if (buffer.size() >= maxBufferedKeys) {
+				flush();
+			}
+			buffer.put(key, element.copy(value));
+		} else {
+			IN reduced = userFunction.reduce(partial.getValue(), value);
+			boolean laterTimestamp = element.hasTimestamp()
+				&& (!partial.hasTimestamp() || element.getTimestamp() > partial.getTimestamp());
+			if (laterTimestamp) {
+				partial.replace(reduced, element.getTimestamp());
+			} else {
+				partial.replace(reduced);
+			}
+		}
+	}
+
+	@Override
+	public void processWatermark(Watermark mark) throws Exception {
+		// emit the partial results first, so they are not late with respect to the watermark
+		flush();
+		super.processWatermark(mark);
+	}
+
+	@Override
+	public void onProcessingTime(long timestamp) throws Exception {
+		flush();
+	}
+
+	@Override
+	public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {
+		super.prepareSnapshotPreBarrier(checkpointId);
+		flush();
+	}
+
+	@Override
+	public void endInput() throws Exception {
+		flush();
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (flushTimer != null) {
+			flushTimer.cancel(false);
+			flushTimer = null;
+		}
+		flush();
+		super.close();
+	}
+
+	private void flush() {
+		if (buffer == null || buffer.isEmpty()) {
+			return;
+		}
+		for (StreamRecord<IN> partial : buffer.values()) {
+			output.collect(partial);
+		}
+		buffer.clear();
+	}
+}
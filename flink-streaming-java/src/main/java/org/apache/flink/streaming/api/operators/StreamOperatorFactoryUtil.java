@@ -18,6 +18,7 @@
 package org.apache.flink.streaming.api.operators;
 
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.runtime.operators.coordination.OperatorEventDispatcher;
 import org.apache.flink.streaming.api.graph.StreamConfig;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
@@ -37,13 +38,15 @@ public class StreamOperatorFactoryUtil {
 	 * @param containingTask the containing task.
 	 * @param configuration the configuration of the operator.
 	 * @param output the output of the operator.
+	 * @param operatorEventDispatcher the operator event dispatcher for communication between operator and coordinators.
 	 * @return a newly created and configured operator, and the {@link ProcessingTimeService} instance it can access.
 	 */
 	public static <OUT, OP extends StreamOperator<OUT>> Tuple2<OP, Optional<ProcessingTimeService>> createOperator(
 			StreamOperatorFactory<OUT> operatorFactory,
 			StreamTask<OUT, ?> containingTask,
 			StreamConfig configuration,
-			Output<StreamRecord<OUT>> output) {
+			Output<StreamRecord<OUT>> output,
+			OperatorEventDispatcher operatorEventDispatcher) {
 
 		MailboxExecutor mailboxExecutor = containingTask.getMailboxExecutorFactory().createExecutor(configuration.getChainIndex());
 
@@ -57,6 +60,10 @@ public class StreamOperatorFactoryUtil {
 			((ProcessingTimeServiceAware) operatorFactory).setProcessingTimeService(processingTimeService);
 		}
 
+		if (operatorFactory instanceof CoordinatedOperatorFactory) {
+			((CoordinatedOperatorFactory) operatorFactory).setOperatorEventDispatcher(operatorEventDispatcher);
+		}
+
 		OP op = operatorFactory.createStreamOperator(containingTask, configuration, output);
 		return new Tuple2<>(op, Optional.ofNullable(processingTimeService));
 	}
@@ -206,6 +206,7 @@ public class StreamTaskStateInitializerImpl implements StreamTaskStateInitialize
 
 		final InternalTimeServiceManager<K> timeServiceManager = new InternalTimeServiceManager<>(
 			keyGroupRange,
+			keyedStatedBackend.getNumberOfKeyGroups(),
 			keyContext,
 			keyedStatedBackend,
 			processingTimeService,
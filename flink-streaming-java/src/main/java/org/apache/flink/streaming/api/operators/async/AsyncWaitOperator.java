@@ -27,6 +27,7 @@ import org.apache.flink.runtime.state.StateSnapshotContext;
 import org.apache.flink.streaming.api.datastream.AsyncDataStream;
 import org.apache.flink.streaming.api.datastream.AsyncDataStream.OutputMode;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
+import org.apache.flink.streaming.api.functions.async.BatchAsyncFunction;
 import org.apache.flink.streaming.api.functions.async.ResultFuture;
 import org.apache.flink.streaming.api.graph.StreamConfig;
 import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
@@ -49,8 +50,10 @@ import org.apache.flink.util.Preconditions;
 
 import javax.annotation.Nonnull;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -67,6 +70,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * operator stores all currently in-flight {@link StreamElement} in it's operator state. Upon
  * recovery the recorded set of stream elements is replayed.
  *
+ * <p>If the {@link AsyncFunction} is a {@link BatchAsyncFunction} and a batch size greater than 1 is
+ * given, the operator passes the inputs to the function in batches. A batch is triggered once it
+ * reached the batch size or once its first input waited for the batch timeout. The inputs of a
+ * batch are already in the stream element queue, so they are part of the operator state as well.
+ *
  * <p>In case of chaining of this operator, it has to be made sure that the operators in the chain are
  * opened tail to head. The reason for this is that an opened {@link AsyncWaitOperator} starts
  * already emitting recovered {@link StreamElement} to downstream operators.
@@ -91,6 +99,12 @@ public class AsyncWaitOperator<IN, OUT>
 	/** Timeout for the async collectors. */
 	private final long timeout;
 
+	/** Max number of inputs that are passed to a {@link BatchAsyncFunction} at once. */
+	private final int batchSize;
+
+	/** Max time in milliseconds that an input waits for its batch to be triggered. */
+	private final long batchTimeout;
+
 	/** {@link TypeSerializer} for inputs while making snapshots. */
 	private transient StreamElementSerializer<IN> inStreamElementSerializer;
 
@@ -105,11 +119,35 @@ public class AsyncWaitOperator<IN, OUT>
 
 	private transient TimestampedCollector<OUT> timestampedCollector;
 
+	/** Inputs of the current batch, or null if the inputs are not batched. */
+	private transient List<IN> batchInputs;
+
+	/** Result handlers of the inputs of the current batch. */
+	private transient List<ResultFuture<OUT>> batchResultHandlers;
+
+	/** Number of batches triggered so far, used to ignore the timeout timers of triggered batches. */
+	private transient long triggeredBatches;
+
+	/** Timer that triggers the current batch once its timeout is reached. */
+	private transient ScheduledFuture<?> batchTimer;
+
+	public AsyncWaitOperator(
+			@Nonnull AsyncFunction<IN, OUT> asyncFunction,
+			long timeout,
+			int capacity,
+			@Nonnull AsyncDataStream.OutputMode outputMode,
+			@Nonnull ProcessingTimeService processingTimeService,
+			@Nonnull MailboxExecutor mailboxExecutor) {
+		this(asyncFunction, timeout, capacity, outputMode, 1, 0L, processingTimeService, mailboxExecutor);
+	}
+
 	public AsyncWaitOperator(
 			@Nonnull AsyncFunction<IN, OUT> asyncFunction,
 			long timeout,
 			int capacity,
 			@Nonnull AsyncDataStream.OutputMode outputMode,
+			int batchSize,
+			long batchTimeout,
 			@Nonnull ProcessingTimeService processingTimeService,
 			@Nonnull MailboxExecutor mailboxExecutor) {
 		super(asyncFunction);
@@ -123,6 +161,12 @@ public class AsyncWaitOperator<IN, OUT>
 
 		this.timeout = timeout;
 
+		Preconditions.checkArgument(batchSize > 0, "The batch size should be greater than 0.");
+		Preconditions.checkArgument(batchSize == 1 || batchTimeout > 0L,
+			"The batch timeout should be greater than 0 if inputs are batched.");
+		this.batchSize = batchSize;
+		this.batchTimeout = batchTimeout;
+
 		this.processingTimeService = Preconditions.checkNotNull(processingTimeService);
 
 		this.mailboxExecutor = mailboxExecutor;
@@ -147,6 +191,11 @@ public class AsyncWaitOperator<IN, OUT>
 		}
 
 		this.timestampedCollector = new TimestampedCollector<>(output);
+
+		if (batchSize > 1 && userFunction instanceof BatchAsyncFunction) {
+			this.batchInputs = new ArrayList<>(batchSize);
+			this.batchResultHandlers = new ArrayList<>(batchSize);
+		}
 	}
 
 	@Override
@@ -192,7 +241,11 @@ public class AsyncWaitOperator<IN, OUT>
 			resultHandler.setTimeoutTimer(timeoutTimer);
 		}
 
-		userFunction.asyncInvoke(element.getValue(), resultHandler);
+		if (batchInputs != null) {
+			addToBatch(element.getValue(), resultHandler);
+		} else {
+			userFunction.asyncInvoke(element.getValue(), resultHandler);
+		}
 	}
 
 	@Override
@@ -240,6 +293,49 @@ public class AsyncWaitOperator<IN, OUT>
 		waitInFlightInputsFinished();
 	}
 
+	private void addToBatch(IN input, ResultFuture<OUT> resultHandler) throws Exception {
+		batchInputs.add(input);
+		batchResultHandlers.add(resultHandler);
+
+		if (batchInputs.size() >= batchSize) {
+			triggerBatch();
+		} else if (batchInputs.size() == 1) {
+			final long batch = triggeredBatches;
+			final long batchTimestamp = batchTimeout + getProcessingTimeService().getCurrentProcessingTime();
+
+			batchTimer = getProcessingTimeService().registerTimer(
+				batchTimestamp,
+				timestamp -> {
+					// the timer may fire after its batch has been triggered because it was full
+					if (batch == triggeredBatches) {
+						triggerBatch();
+					}
+				});
+		}
+	}
+
+	/**
+	 * Passes the inputs of the current batch to the {@link BatchAsyncFunction}, if there are any.
+	 */
+	private void triggerBatch() throws Exception {
+		if (batchInputs == null || batchInputs.isEmpty()) {
+			return;
+		}
+
+		if (batchTimer != null) {
+			batchTimer.cancel(false);
+			batchTimer = null;
+		}
+		triggeredBatches++;
+
+		final List<IN> inputs = batchInputs;
+		final List<ResultFuture<OUT>> resultHandlers = batchResultHandlers;
+		batchInputs = new ArrayList<>(batchSize);
+		batchResultHandlers = new ArrayList<>(batchSize);
+
+		((BatchAsyncFunction<IN, OUT>) userFunction).asyncInvokeBatch(inputs, resultHandlers);
+	}
+
 	/**
 	 * Add the given stream element to the operator's stream element queue. This operation blocks until the element
 	 * has been added.
@@ -248,20 +344,24 @@ public class AsyncWaitOperator<IN, OUT>
 	 * as asynchronous results can be processed.
 	 *
 	 * @param streamElement to add to the operator's queue
-	 * @throws InterruptedException if the current thread has been interrupted while yielding to mailbox
+	 * @throws Exception if the current thread has been interrupted while yielding to mailbox or the
+	 * pending batch could not be triggered
 	 * @return a handle that allows to set the result of the async computation for the given element.
 	 */
-	private ResultFuture<OUT> addToWorkQueue(StreamElement streamElement) throws InterruptedException {
+	private ResultFuture<OUT> addToWorkQueue(StreamElement streamElement) throws Exception {
 
 		Optional<ResultFuture<OUT>> queueEntry;
 		while (!(queueEntry = queue.tryPut(streamElement)).isPresent()) {
+			// the inputs of the pending batch occupy the queue until the batch is triggered
+			triggerBatch();
 			mailboxExecutor.yield();
 		}
 
 		return queueEntry.get();
 	}
 
-	private void waitInFlightInputsFinished() throws InterruptedException {
+	private void waitInFlightInputsFinished() throws Exception {
+		triggerBatch();
 
 		while (!queue.isEmpty()) {
 			mailboxExecutor.yield();
@@ -41,6 +41,8 @@ public class AsyncWaitOperatorFactory<IN, OUT> extends AbstractStreamOperatorFac
 	private final long timeout;
 	private final int capacity;
 	private final AsyncDataStream.OutputMode outputMode;
+	private final int batchSize;
+	private final long batchTimeout;
 	private MailboxExecutor mailboxExecutor;
 
 	public AsyncWaitOperatorFactory(
@@ -48,10 +50,22 @@ public class AsyncWaitOperatorFactory<IN, OUT> extends AbstractStreamOperatorFac
 			long timeout,
 			int capacity,
 			AsyncDataStream.OutputMode outputMode) {
+		this(asyncFunction, timeout, capacity, outputMode, 1, 0L);
+	}
+
+	public AsyncWaitOperatorFactory(
+			AsyncFunction<IN, OUT> asyncFunction,
+			long timeout,
+			int capacity,
+			AsyncDataStream.OutputMode outputMode,
+			int batchSize,
+			long batchTimeout) {
 		this.asyncFunction = asyncFunction;
 		this.timeout = timeout;
 		this.capacity = capacity;
 		this.outputMode = outputMode;
+		this.batchSize = batchSize;
+		this.batchTimeout = batchTimeout;
 		this.chainingStrategy = ChainingStrategy.ALWAYS;
 	}
 
@@ -67,6 +81,8 @@ public class AsyncWaitOperatorFactory<IN, OUT> extends AbstractStreamOperatorFac
 				timeout,
 				capacity,
 				outputMode,
+				batchSize,
+				batchTimeout,
 				processingTimeService,
 				mailboxExecutor);
 		asyncWaitOperator.setup(containingTask, config, output);
@@ -24,6 +24,7 @@ import org.apache.flink.runtime.checkpoint.CheckpointMetaData;
 import org.apache.flink.runtime.checkpoint.CheckpointMetrics;
 import org.apache.flink.runtime.io.network.api.CancelCheckpointMarker;
 import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -54,6 +55,15 @@ public abstract class CheckpointBarrierHandler {
 	 */
 	public abstract boolean isBlocked(int channelIndex);
 
+	/**
+	 * Called for every buffer of a non-blocked channel before it is handed to the task.
+	 *
+	 * @param buffer The buffer that is about to be consumed.
+	 * @param channelIndex The index of the channel the buffer was received from.
+	 */
+	public void processBuffer(Buffer buffer, int channelIndex) {
+	}
+
 	/**
 	 * @return true if some blocked data should be unblocked/rolled over.
 	 */
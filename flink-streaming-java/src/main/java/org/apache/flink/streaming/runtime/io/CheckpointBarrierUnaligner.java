@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.io;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.checkpoint.CheckpointException;
+import org.apache.flink.runtime.checkpoint.CheckpointFailureReason;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
+import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
+import org.apache.flink.runtime.io.network.api.CancelCheckpointMarker;
+import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.partition.consumer.InputGate;
+import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * {@link CheckpointBarrierUnaligner} is used for triggering checkpoints without aligning the
+ * barriers of the input channels.
+ *
+ * <p>The checkpoint is triggered as soon as the first barrier of a checkpoint is received. No
+ * channel is ever blocked. Instead, the in-flight data of the checkpoint is persisted as channel
+ * state: every buffer that is received from a channel after the checkpoint has been triggered,
+ * but before the barrier of that channel, is written to the {@link ChannelStateWriter}. Together
+ * with the buffers overtaken by the barrier in the input channel itself (see
+ * {@link org.apache.flink.runtime.io.network.partition.consumer.InputChannel#requestInflightBufferSnapshot()}),
+ * this is all data which the operators have not seen before their snapshot.
+ */
+@Internal
+public class CheckpointBarrierUnaligner extends CheckpointBarrierHandler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CheckpointBarrierUnaligner.class);
+
+	/** Flags that indicate whether the barrier of the current checkpoint was received on a channel. */
+	private final boolean[] hasReceivedBarrier;
+
+	/** The info of each channel, indexed by the channel index passed to the handler. */
+	private final InputChannelInfo[] channelInfos;
+
+	/** The input gates, indexed by the gate index of the {@link #channelInfos}. */
+	private final InputGate[] inputGates;
+
+	private final ChannelStateWriter channelStateWriter;
+
+	private final String taskName;
+
+	/** The ID of the checkpoint for which we expect barriers. */
+	private long currentCheckpointId = -1L;
+
+	/** The number of barriers received for the current checkpoint; zero if it was canceled or completed. */
+	private int numBarriersReceived;
+
+	CheckpointBarrierUnaligner(
+			InputChannelInfo[] channelInfos,
+			InputGate[] inputGates,
+			ChannelStateWriter channelStateWriter,
+			String taskName,
+			AbstractInvokable toNotifyOnCheckpoint) {
+		super(toNotifyOnCheckpoint);
+
+		checkArgument(channelInfos.length > 0, "There must be at least one input channel.");
+		this.channelInfos = channelInfos;
+		this.inputGates = checkNotNull(inputGates);
+		this.channelStateWriter = checkNotNull(channelStateWriter);
+		this.taskName = taskName;
+		this.hasReceivedBarrier = new boolean[channelInfos.length];
+	}
+
+	@Override
+	public void releaseBlocksAndResetBarriers() {
+		resetBarriers();
+	}
+
+	/**
+	 * Channels are never blocked by unaligned checkpoints.
+	 */
+	@Override
+	public boolean isBlocked(int channelIndex) {
+		return false;
+	}
+
+	@Override
+	public void processBuffer(Buffer buffer, int channelIndex) {
+		if (numBarriersReceived > 0 && !hasReceivedBarrier[channelIndex]) {
+			// the buffer is consumed by the task, so the writer only gets an additional reference to it
+			channelStateWriter.addInputData(currentCheckpointId, channelInfos[channelIndex], buffer.retainBuffer());
+		}
+	}
+
+	@Override
+	public boolean processBarrier(CheckpointBarrier receivedBarrier, int channelIndex, long bufferedBytes) throws Exception {
+		final long barrierId = receivedBarrier.getId();
+
+		if (numBarriersReceived > 0) {
+			// this is only true if a checkpoint is in progress and was not canceled
+			if (barrierId == currentCheckpointId) {
+				onBarrier(channelIndex);
+			}
+			else if (barrierId > currentCheckpointId) {
+				// we did not receive all barriers of the current checkpoint, another started before
+				LOG.warn("{}: Received checkpoint barrier for checkpoint {} before completing current checkpoint {}. " +
+						"Skipping current checkpoint.",
+					taskName,
+					barrierId,
+					currentCheckpointId);
+
+				resetBarriers();
+				notifyAbort(currentCheckpointId,
+					new CheckpointException(
+						"Barrier id: " + barrierId,
+						CheckpointFailureReason.CHECKPOINT_DECLINED_SUBSUMED));
+
+				beginNewCheckpoint(receivedBarrier, channelIndex);
+			}
+			// else: ignore trailing barrier from an earlier checkpoint (obsolete now)
+		}
+		else if (barrierId > currentCheckpointId) {
+			beginNewCheckpoint(receivedBarrier, channelIndex);
+		}
+		// else: either the current checkpoint was canceled or completed, or this barrier is from an
+		// old subsumed checkpoint
+
+		// the channels are never blocked, so there is never buffered data to roll over
+		return false;
+	}
+
+	private void beginNewCheckpoint(CheckpointBarrier receivedBarrier, int channelIndex) throws Exception {
+		markCheckpointStart(receivedBarrier.getTimestamp());
+		currentCheckpointId = receivedBarrier.getId();
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("{}: Received first barrier, triggering unaligned checkpoint {} at {}.",
+				taskName,
+				receivedBarrier.getId(),
+				receivedBarrier.getTimestamp());
+		}
+
+		// the checkpoint is triggered immediately, which starts the channel state of the checkpoint
+		notifyCheckpoint(receivedBarrier, 0L, 0L);
+		onBarrier(channelIndex);
+	}
+
+	/**
+	 * Marks the barrier of the given channel as received and persists the buffers of the channel which
+	 * have been overtaken by the barrier.
+	 */
+	private void onBarrier(int channelIndex) throws IOException {
+		if (hasReceivedBarrier[channelIndex]) {
+			throw new IOException("Stream corrupt: Repeated barrier for same checkpoint on input " + channelIndex);
+		}
+		hasReceivedBarrier[channelIndex] = true;
+		numBarriersReceived++;
+
+		InputChannelInfo channelInfo = channelInfos[channelIndex];
+		List<Buffer> overtakenBuffers = inputGates[channelInfo.getGateIdx()]
+			.getChannel(channelInfo.getInputChannelIdx())
+			.requestInflightBufferSnapshot();
+		if (!overtakenBuffers.isEmpty()) {
+			channelStateWriter.addInputData(
+				currentCheckpointId,
+				channelInfo,
+				overtakenBuffers.toArray(new Buffer[0]));
+		}
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("{}: Received barrier from channel {}.", taskName, channelIndex);
+		}
+
+		if (numBarriersReceived == hasReceivedBarrier.length) {
+			channelStateWriter.finishInput(currentCheckpointId);
+			resetBarriers();
+		}
+	}
+
+	private void resetBarriers() {
+		for (int i = 0; i < hasReceivedBarrier.length; i++) {
+			hasReceivedBarrier[i] = false;
+		}
+		numBarriersReceived = 0;
+	}
+
+	@Override
+	public boolean processCancellationBarrier(CancelCheckpointMarker cancelBarrier) throws Exception {
+		final long barrierId = cancelBarrier.getCheckpointId();
+
+		if (barrierId > currentCheckpointId || (barrierId == currentCheckpointId && numBarriersReceived > 0)) {
+			if (numBarriersReceived > 0 && barrierId > currentCheckpointId) {
+				LOG.warn("{}: Received cancellation barrier for checkpoint {} before completing current checkpoint {}. " +
+						"Skipping current checkpoint.",
+					taskName,
+					barrierId,
+					currentCheckpointId);
+
+				notifyAbort(currentCheckpointId,
+					new CheckpointException(
+						"Barrier id: " + barrierId,
+						CheckpointFailureReason.CHECKPOINT_DECLINED_SUBSUMED));
+			}
+			else if (LOG.isDebugEnabled()) {
+				LOG.debug("{}: Checkpoint {} canceled.", taskName, barrierId);
+			}
+
+			// by setting the currentCheckpointId to this checkpoint while keeping the number of
+			// barriers at zero, no barrier of this checkpoint can start it anymore
+			resetBarriers();
+			currentCheckpointId = barrierId;
+			notifyAbortOnCancellationBarrier(barrierId);
+		}
+		// else: trailing cancellation barrier of an earlier or already canceled checkpoint
+
+		return false;
+	}
+
+	@Override
+	public boolean processEndOfPartition() throws Exception {
+		if (numBarriersReceived > 0) {
+			// the barrier of the finished channel may be missing, so there is no chance to complete this checkpoint
+			resetBarriers();
+			notifyAbort(currentCheckpointId,
+				new CheckpointException(CheckpointFailureReason.CHECKPOINT_DECLINED_INPUT_END_OF_STREAM));
+		}
+		return false;
+	}
+
+	@Override
+	public long getLatestCheckpointId() {
+		return currentCheckpointId;
+	}
+
+	/**
+	 * Unaligned checkpoints do not align, so the alignment duration is always zero.
+	 */
+	@Override
+	public long getAlignmentDurationNanos() {
+		return 0L;
+	}
+
+	@Override
+	public void checkpointSizeLimitExceeded(long maxBufferedBytes) {
+		throw new UnsupportedOperationException("Unaligned checkpoints never buffer any data.");
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: last checkpoint: %d, current barriers: %d",
+			taskName,
+			currentCheckpointId,
+			numBarriersReceived);
+	}
+}
@@ -144,6 +144,7 @@ public class CheckpointedInputGate implements PullingAsyncDataInput<BufferOrEven
 				}
 			}
 			else if (bufferOrEvent.isBuffer()) {
+				barrierHandler.processBuffer(bufferOrEvent.getBuffer(), offsetChannelIndex(bufferOrEvent.getChannelIndex()));
 				return next;
 			}
 			else if (bufferOrEvent.getEvent().getClass() == CheckpointBarrier.class) {
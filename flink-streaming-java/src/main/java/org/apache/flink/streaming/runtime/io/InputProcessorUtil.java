@@ -21,6 +21,8 @@ import org.apache.flink.annotation.Internal;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.IllegalConfigurationException;
 import org.apache.flink.configuration.TaskManagerOptions;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
+import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
 import org.apache.flink.runtime.io.network.partition.consumer.InputGate;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.metrics.MetricNames;
@@ -40,6 +42,8 @@ public class InputProcessorUtil {
 	public static CheckpointedInputGate createCheckpointedInputGate(
 			AbstractInvokable toNotifyOnCheckpoint,
 			CheckpointingMode checkpointMode,
+			boolean unalignedCheckpointsEnabled,
+			ChannelStateWriter channelStateWriter,
 			InputGate inputGate,
 			Configuration taskManagerConfig,
 			TaskIOMetricGroup taskIOMetricGroup,
@@ -48,9 +52,14 @@ public class InputProcessorUtil {
 		int pageSize = ConfigurationParserUtils.getPageSize(taskManagerConfig);
 
 		BufferStorage bufferStorage = createBufferStorage(
-			checkpointMode, pageSize, taskManagerConfig, taskName);
+			checkpointMode, unalignedCheckpointsEnabled, pageSize, taskManagerConfig, taskName);
 		CheckpointBarrierHandler barrierHandler = createCheckpointBarrierHandler(
-			checkpointMode, inputGate.getNumberOfInputChannels(), taskName, toNotifyOnCheckpoint);
+			checkpointMode,
+			unalignedCheckpointsEnabled,
+			channelStateWriter,
+			new InputGate[] {inputGate},
+			taskName,
+			toNotifyOnCheckpoint);
 		registerCheckpointMetrics(taskIOMetricGroup, barrierHandler);
 
 		return new CheckpointedInputGate(inputGate, bufferStorage, barrierHandler);
@@ -63,6 +72,8 @@ public class InputProcessorUtil {
 	public static CheckpointedInputGate[] createCheckpointedInputGatePair(
 			AbstractInvokable toNotifyOnCheckpoint,
 			CheckpointingMode checkpointMode,
+			boolean unalignedCheckpointsEnabled,
+			ChannelStateWriter channelStateWriter,
 			Configuration taskManagerConfig,
 			TaskIOMetricGroup taskIOMetricGroup,
 			String taskName,
@@ -73,7 +84,7 @@ public class InputProcessorUtil {
 		BufferStorage[] mainBufferStorages = new BufferStorage[inputGates.length];
 		for (int i = 0; i < inputGates.length; i++) {
 			mainBufferStorages[i] = createBufferStorage(
-				checkpointMode, pageSize, taskManagerConfig, taskName);
+				checkpointMode, unalignedCheckpointsEnabled, pageSize, taskManagerConfig, taskName);
 		}
 
 		BufferStorage[] linkedBufferStorages = new BufferStorage[inputGates.length];
@@ -87,7 +98,9 @@ public class InputProcessorUtil {
 
 		CheckpointBarrierHandler barrierHandler = createCheckpointBarrierHandler(
 			checkpointMode,
-			Arrays.stream(inputGates).mapToInt(InputGate::getNumberOfInputChannels).sum(),
+			unalignedCheckpointsEnabled,
+			channelStateWriter,
+			inputGates,
 			taskName,
 			toNotifyOnCheckpoint);
 		registerCheckpointMetrics(taskIOMetricGroup, barrierHandler);
@@ -114,11 +127,22 @@ public class InputProcessorUtil {
 
 	private static CheckpointBarrierHandler createCheckpointBarrierHandler(
 			CheckpointingMode checkpointMode,
-			int numberOfInputChannels,
+			boolean unalignedCheckpointsEnabled,
+			ChannelStateWriter channelStateWriter,
+			InputGate[] inputGates,
 			String taskName,
 			AbstractInvokable toNotifyOnCheckpoint) {
+		int numberOfInputChannels = Arrays.stream(inputGates).mapToInt(InputGate::getNumberOfInputChannels).sum();
 		switch (checkpointMode) {
 			case EXACTLY_ONCE:
+				if (unalignedCheckpointsEnabled) {
+					return new CheckpointBarrierUnaligner(
+						createInputChannelInfos(inputGates, numberOfInputChannels),
+						inputGates,
+						channelStateWriter,
+						taskName,
+						toNotifyOnCheckpoint);
+				}
 				return new CheckpointBarrierAligner(
 					numberOfInputChannels,
 					taskName,
@@ -130,13 +154,33 @@ public class InputProcessorUtil {
 		}
 	}
 
+	/**
+	 * Maps the flat channel index seen by the {@link CheckpointBarrierHandler} to the index of the
+	 * input gate and the index of the channel within that gate.
+	 */
+	private static InputChannelInfo[] createInputChannelInfos(InputGate[] inputGates, int numberOfInputChannels) {
+		InputChannelInfo[] channelInfos = new InputChannelInfo[numberOfInputChannels];
+		int channelIndex = 0;
+		for (int gateIndex = 0; gateIndex < inputGates.length; gateIndex++) {
+			for (int i = 0; i < inputGates[gateIndex].getNumberOfInputChannels(); i++) {
+				channelInfos[channelIndex++] = new InputChannelInfo(gateIndex, i);
+			}
+		}
+		return channelInfos;
+	}
+
 	private static BufferStorage createBufferStorage(
 			CheckpointingMode checkpointMode,
+			boolean unalignedCheckpointsEnabled,
 			int pageSize,
 			Configuration taskManagerConfig,
 			String taskName) {
 		switch (checkpointMode) {
 			case EXACTLY_ONCE: {
+				if (unalignedCheckpointsEnabled) {
+					// channels are never blocked, so nothing needs to be buffered
+					return new EmptyBufferStorage();
+				}
 				long maxAlign = taskManagerConfig.getLong(TaskManagerOptions.TASK_CHECKPOINT_ALIGNMENT_BYTES_LIMIT);
 				if (!(maxAlign == -1 || maxAlign > 0)) {
 					throw new IllegalConfigurationException(
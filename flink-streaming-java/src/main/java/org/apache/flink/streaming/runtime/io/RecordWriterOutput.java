@@ -152,6 +152,10 @@ public class RecordWriterOutput<OUT> implements OperatorChain.WatermarkGaugeExpo
 		recordWriter.broadcastEvent(event);
 	}
 
+	public void broadcastEvent(AbstractEvent event, boolean isPriorityEvent) throws IOException {
+		recordWriter.broadcastEvent(event, isPriorityEvent);
+	}
+
 	public void flush() throws IOException {
 		recordWriter.flushAll();
 	}
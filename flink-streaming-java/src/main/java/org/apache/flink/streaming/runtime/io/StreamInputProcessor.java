@@ -19,9 +19,13 @@
 package org.apache.flink.streaming.runtime.io;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.io.InputStatus;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateReader;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
 import org.apache.flink.runtime.io.AvailabilityProvider;
 
 import java.io.Closeable;
+import java.io.IOException;
 
 /**
  * Interface for processing records by {@link org.apache.flink.streaming.runtime.tasks.StreamTask}.
@@ -34,4 +38,16 @@ public interface StreamInputProcessor extends AvailabilityProvider, Closeable {
 	 * state and/or {@link #getAvailableFuture()}.
 	 */
 	InputStatus processInput() throws Exception;
+
+	/**
+	 * Reads the recovered channel state of all inputs. Must be called before the first
+	 * {@link #processInput()}.
+	 */
+	void readRecoveredChannelState(ChannelStateReader channelStateReader) throws IOException;
+
+	/**
+	 * Writes the received but not yet processed data of all inputs as channel state of the given
+	 * unaligned checkpoint.
+	 */
+	void prepareSnapshot(ChannelStateWriter channelStateWriter, long checkpointId) throws IOException;
 }
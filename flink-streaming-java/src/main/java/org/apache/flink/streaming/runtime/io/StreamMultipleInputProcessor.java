@@ -20,7 +20,10 @@ package org.apache.flink.streaming.runtime.io;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.io.InputStatus;
 import org.apache.flink.metrics.Counter;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateReader;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.streaming.api.operators.Input;
 import org.apache.flink.streaming.api.operators.InputSelection;
@@ -154,6 +157,20 @@ public final class StreamMultipleInputProcessor implements StreamInputProcessor
 		}
 	}
 
+	@Override
+	public void readRecoveredChannelState(ChannelStateReader channelStateReader) throws IOException {
+		for (InputProcessor<?> input : inputProcessors) {
+			input.networkInput.readRecoveredChannelState(channelStateReader);
+		}
+	}
+
+	@Override
+	public void prepareSnapshot(ChannelStateWriter channelStateWriter, long checkpointId) throws IOException {
+		for (InputProcessor<?> input : inputProcessors) {
+			input.networkInput.prepareSnapshot(channelStateWriter, checkpointId);
+		}
+	}
+
 	@Override
 	public void close() throws IOException {
 		IOException ex = null;
@@ -19,6 +19,9 @@
 package org.apache.flink.streaming.runtime.io;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.io.InputStatus;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateReader;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
 import org.apache.flink.streaming.runtime.io.PushingAsyncDataInput.DataOutput;
 import org.apache.flink.streaming.runtime.tasks.OperatorChain;
 
@@ -71,6 +74,16 @@ public final class StreamOneInputProcessor<IN> implements StreamInputProcessor {
 		return status;
 	}
 
+	@Override
+	public void readRecoveredChannelState(ChannelStateReader channelStateReader) throws IOException {
+		input.readRecoveredChannelState(channelStateReader);
+	}
+
+	@Override
+	public void prepareSnapshot(ChannelStateWriter channelStateWriter, long checkpointId) throws IOException {
+		input.prepareSnapshot(channelStateWriter, checkpointId);
+	}
+
 	@Override
 	public void close() throws IOException {
 		input.close();
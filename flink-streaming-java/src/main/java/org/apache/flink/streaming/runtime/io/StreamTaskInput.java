@@ -18,8 +18,11 @@
 package org.apache.flink.streaming.runtime.io;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateReader;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
 
 import java.io.Closeable;
+import java.io.IOException;
 
 /**
  * Basic interface for inputs of stream operators.
@@ -32,4 +35,15 @@ public interface StreamTaskInput<T> extends PushingAsyncDataInput<T>, Closeable
 	 * Returns the input index of this input.
 	 */
 	int getInputIndex();
+
+	/**
+	 * Reads the recovered in-flight data of this input, which is processed before any new data.
+	 */
+	void readRecoveredChannelState(ChannelStateReader channelStateReader) throws IOException;
+
+	/**
+	 * Writes the data of this input which was received but not yet processed by the operators
+	 * as the channel state of the given unaligned checkpoint.
+	 */
+	void prepareSnapshot(ChannelStateWriter channelStateWriter, long checkpointId) throws IOException;
 }
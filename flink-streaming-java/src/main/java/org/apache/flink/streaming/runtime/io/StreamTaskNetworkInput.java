@@ -21,6 +21,10 @@ package org.apache.flink.streaming.runtime.io;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.io.InputStatus;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateReader;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
+import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
 import org.apache.flink.runtime.event.AbstractEvent;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
@@ -38,6 +42,7 @@ import org.apache.flink.streaming.runtime.streamstatus.StatusWatermarkValve;
 import org.apache.flink.streaming.runtime.streamstatus.StreamStatus;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -70,6 +75,9 @@ public final class StreamTaskNetworkInput<T> implements StreamTaskInput<T> {
 
 	private final int inputIndex;
 
+	/** The recovered in-flight data, which is processed before any data of the input gate. */
+	private final ArrayDeque<BufferOrEvent> recoveredBuffers = new ArrayDeque<>();
+
 	private int lastChannel = UNSPECIFIED;
 
 	private RecordDeserializer<DeserializationDelegate<StreamElement>> currentRecordDeserializer = null;
@@ -130,7 +138,8 @@ public final class StreamTaskNetworkInput<T> implements StreamTaskInput<T> {
 				}
 			}
 
-			Optional<BufferOrEvent> bufferOrEvent = checkpointedInputGate.pollNext();
+			Optional<BufferOrEvent> bufferOrEvent = recoveredBuffers.isEmpty() ?
+				checkpointedInputGate.pollNext() : Optional.of(recoveredBuffers.poll());
 			if (bufferOrEvent.isPresent()) {
 				processBufferOrEvent(bufferOrEvent.get());
 			} else {
@@ -191,14 +200,43 @@ public final class StreamTaskNetworkInput<T> implements StreamTaskInput<T> {
 
 	@Override
 	public CompletableFuture<?> getAvailableFuture() {
-		if (currentRecordDeserializer != null) {
+		if (currentRecordDeserializer != null || !recoveredBuffers.isEmpty()) {
 			return AVAILABLE;
 		}
 		return checkpointedInputGate.getAvailableFuture();
 	}
 
+	@Override
+	public void readRecoveredChannelState(ChannelStateReader channelStateReader) {
+		for (int channelIndex = 0; channelIndex < recordDeserializers.length; channelIndex++) {
+			for (Buffer buffer : channelStateReader.readInputData(new InputChannelInfo(inputIndex, channelIndex))) {
+				recoveredBuffers.add(new BufferOrEvent(buffer, channelIndex));
+			}
+		}
+	}
+
+	@Override
+	public void prepareSnapshot(ChannelStateWriter channelStateWriter, long checkpointId) throws IOException {
+		for (int channelIndex = 0; channelIndex < recordDeserializers.length; channelIndex++) {
+			RecordDeserializer<?> deserializer = recordDeserializers[channelIndex];
+			if (deserializer != null) {
+				Optional<Buffer> unconsumedBuffer = deserializer.getUnconsumedBuffer();
+				if (unconsumedBuffer.isPresent()) {
+					channelStateWriter.addInputData(
+						checkpointId,
+						new InputChannelInfo(inputIndex, channelIndex),
+						unconsumedBuffer.get());
+				}
+			}
+		}
+	}
+
 	@Override
 	public void close() throws IOException {
+		while (!recoveredBuffers.isEmpty()) {
+			recoveredBuffers.poll().getBuffer().recycleBuffer();
+		}
+
 		// release the deserializers . this part should not ever fail
 		for (int channelIndex = 0; channelIndex < recordDeserializers.length; channelIndex++) {
 			releaseDeserializer(channelIndex);
@@ -19,6 +19,9 @@
 package org.apache.flink.streaming.runtime.io;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.io.InputStatus;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateReader;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
 import org.apache.flink.streaming.api.operators.SourceReaderOperator;
 import org.apache.flink.util.IOUtils;
 
@@ -58,6 +61,20 @@ public final class StreamTaskSourceInput<T> implements StreamTaskInput<T> {
 		return -1;
 	}
 
+	/**
+	 * Sources have no input channels, so there is never any channel state to read.
+	 */
+	@Override
+	public void readRecoveredChannelState(ChannelStateReader channelStateReader) {
+	}
+
+	/**
+	 * Sources have no input channels, so there is never any channel state to write.
+	 */
+	@Override
+	public void prepareSnapshot(ChannelStateWriter channelStateWriter, long checkpointId) {
+	}
+
 	@Override
 	public void close() {
 		IOUtils.closeQuietly(operator::close);
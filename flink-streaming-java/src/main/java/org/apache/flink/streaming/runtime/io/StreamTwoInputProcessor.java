@@ -20,7 +20,10 @@ package org.apache.flink.streaming.runtime.io;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.io.InputStatus;
 import org.apache.flink.metrics.Counter;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateReader;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.streaming.api.operators.InputSelection;
 import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
@@ -220,6 +223,18 @@ public final class StreamTwoInputProcessor<IN1, IN2> implements StreamInputProce
 		return selectedStatus == InputStatus.END_OF_INPUT ? otherStatus : selectedStatus;
 	}
 
+	@Override
+	public void readRecoveredChannelState(ChannelStateReader channelStateReader) throws IOException {
+		input1.readRecoveredChannelState(channelStateReader);
+		input2.readRecoveredChannelState(channelStateReader);
+	}
+
+	@Override
+	public void prepareSnapshot(ChannelStateWriter channelStateWriter, long checkpointId) throws IOException {
+		input1.prepareSnapshot(channelStateWriter, checkpointId);
+		input2.prepareSnapshot(channelStateWriter, checkpointId);
+	}
+
 	@Override
 	public void close() throws IOException {
 		IOException ex = null;
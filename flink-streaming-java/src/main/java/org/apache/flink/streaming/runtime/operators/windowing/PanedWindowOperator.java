@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.state.AggregatingStateDescriptor;
+import org.apache.flink.api.common.state.AppendingState;
+import org.apache.flink.api.common.state.ReducingStateDescriptor;
+import org.apache.flink.api.common.state.StateDescriptor;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.runtime.state.internal.InternalAppendingState;
+import org.apache.flink.streaming.api.operators.InternalTimer;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingProcessingTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
+import org.apache.flink.streaming.api.windowing.triggers.EventTimeTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.ProcessingTimeTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.Trigger;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalWindowFunction;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.util.OutputTag;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A {@link WindowOperator} for sliding time windows that are incrementally aggregated with a
+ * {@link ReduceFunction} or an {@link AggregateFunction}.
+ *
+ * <p>Instead of adding each element to all the windows it belongs to, the time is sliced into
+ * panes of {@code gcd(size, slide)} and each element is only added to the accumulator of its pane.
+ * When a window fires, the accumulators of its panes are merged. This keeps the state size and the
+ * work per element independent of the number of windows an element belongs to.
+ *
+ * <p>The operator implements the behaviour of the default {@link EventTimeTrigger} or
+ * {@link ProcessingTimeTrigger} of the sliding window assigners itself, and therefore cannot be
+ * used with other triggers or with evictors. Only one timer is registered per element: the timer
+ * of the first window of its pane which has not fired yet. When a window fires, it registers the
+ * timer of the next window if any of the panes that the next window shares with it is non-empty.
+ *
+ * <p>Panes that are aggregated with an {@link AggregateFunction} require the function to implement
+ * {@link AggregateFunction#merge(Object, Object)}, which is not called by the {@link WindowOperator}
+ * for sliding windows. This is checked when the operator is opened.
+ *
+ * <p>Elements of processing time windows which arrive in the millisecond in which the window
+ * already fired are not only emitted by themselves like in the {@link WindowOperator}, but
+ * together with the panes of the window which are also part of later windows.
+ *
+ * @param <K> The type of key returned by the {@code KeySelector}.
+ * @param <IN> The type of the incoming elements.
+ * @param <ACC> The type of the window contents that are given to the {@code InternalWindowFunction}.
+ * @param <OUT> The type of elements emitted by the {@code InternalWindowFunction}.
+ */
+@Internal
+public class PanedWindowOperator<K, IN, ACC, OUT> extends WindowOperator<K, IN, ACC, OUT, TimeWindow> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long size;
+
+	private final long slide;
+
+	private final long offset;
+
+	private final long paneSize;
+
+	// ------------------------------------------------------------------------
+	// State that is not checkpointed
+	// ------------------------------------------------------------------------
+
+	/** The state in which the accumulators of the panes are stored. Each pane is a namespace. */
+	private transient InternalAppendingState<K, TimeWindow, IN, Object, ACC> paneState;
+
+	/** The serializer of the pane accumulators, used to copy them before merging. */
+	private transient TypeSerializer<Object> paneAccumulatorSerializer;
+
+	/** The function to merge pane accumulators, if the panes are reduced. */
+	private transient ReduceFunction<Object> reduceFunction;
+
+	/** The function to merge pane accumulators, if the panes are aggregated. */
+	private transient AggregateFunction<IN, Object, ACC> aggregateFunction;
+
+	/**
+	 * Creates a new {@code PanedWindowOperator} based on the given policies and user functions.
+	 * The window assigner and trigger must be supported, see {@link #canUsePanes(WindowAssigner, Trigger)}.
+	 */
+	public PanedWindowOperator(
+			WindowAssigner<? super IN, TimeWindow> windowAssigner,
+			TypeSerializer<TimeWindow> windowSerializer,
+			KeySelector<IN, K> keySelector,
+			TypeSerializer<K> keySerializer,
+			StateDescriptor<? extends AppendingState<IN, ACC>, ?> paneStateDescriptor,
+			InternalWindowFunction<ACC, OUT, K, TimeWindow> windowFunction,
+			Trigger<? super IN, ? super TimeWindow> trigger,
+			long allowedLateness,
+			OutputTag<IN> lateDataOutputTag) {
+
+		super(windowAssigner, windowSerializer, keySelector, keySerializer,
+			paneStateDescriptor, windowFunction, trigger, allowedLateness, lateDataOutputTag);
+
+		checkArgument(canUsePanes(windowAssigner, trigger),
+			"Panes can only be used for sliding time windows with their default trigger, " +
+				"where the window size is larger than the slide.");
+		checkArgument(paneStateDescriptor instanceof ReducingStateDescriptor ||
+				paneStateDescriptor instanceof AggregatingStateDescriptor,
+			"Panes can only be used for reducing or aggregating window state.");
+
+		if (windowAssigner instanceof SlidingEventTimeWindows) {
+			SlidingEventTimeWindows slidingWindows = (SlidingEventTimeWindows) windowAssigner;
+			this.size = slidingWindows.getSize();
+			this.slide = slidingWindows.getSlide();
+			this.offset = slidingWindows.getOffset();
+		} else {
+			SlidingProcessingTimeWindows slidingWindows = (SlidingProcessingTimeWindows) windowAssigner;
+			this.size = slidingWindows.getSize();
+			this.slide = slidingWindows.getSlide();
+			this.offset = slidingWindows.getOffset();
+		}
+		this.paneSize = gcd(size, slide);
+	}
+
+	/**
+	 * Returns {@code true} if the windows of the given assigner can be sliced into panes when they
+	 * are triggered by the given trigger.
+	 */
+	public static boolean canUsePanes(WindowAssigner<?, ?> windowAssigner, Trigger<?, ?> trigger) {
+		if (windowAssigner.getClass() == SlidingEventTimeWindows.class) {
+			SlidingEventTimeWindows slidingWindows = (SlidingEventTimeWindows) windowAssigner;
+			return trigger instanceof EventTimeTrigger && slidingWindows.getSize() > slidingWindows.getSlide();
+		} else if (windowAssigner.getClass() == SlidingProcessingTimeWindows.class) {
+			SlidingProcessingTimeWindows slidingWindows = (SlidingProcessingTimeWindows) windowAssigner;
+			return trigger instanceof ProcessingTimeTrigger && slidingWindows.getSize() > slidingWindows.getSlide();
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void open() throws Exception {
+		super.open();
+
+		StateDescriptor<? extends AppendingState<IN, ACC>, ?> paneStateDescriptor = getStateDescriptor();
+		paneState = (InternalAppendingState<K, TimeWindow, IN, Object, ACC>)
+			getOrCreateKeyedState(windowSerializer, paneStateDescriptor);
+		paneAccumulatorSerializer = (TypeSerializer<Object>) paneStateDescriptor.getSerializer();
+
+		if (paneStateDescriptor instanceof ReducingStateDescriptor) {
+			reduceFunction = ((ReducingStateDescriptor<Object>) paneStateDescriptor).getReduceFunction();
+		} else {
+			aggregateFunction = ((AggregatingStateDescriptor<IN, Object, ACC>) paneStateDescriptor).getAggregateFunction();
+			checkMergeSupported(aggregateFunction);
+		}
+	}
+
+	/**
+	 * Merges two new accumulators of the given function, so that a function which does not support
+	 * merging fails when the operator is opened instead of when the first window fires.
+	 */
+	private static void checkMergeSupported(AggregateFunction<?, Object, ?> function) {
+		try {
+			function.merge(function.createAccumulator(), function.createAccumulator());
+		} catch (UnsupportedOperationException e) {
+			throw new UnsupportedOperationException("Windows with panes merge the accumulators of their panes, " +
+				"but the AggregateFunction " + function.getClass().getName() + " does not support merge(). " +
+				"Implement merge() or do not enable panes for this window.", e);
+		}
+	}
+
+	@Override
+	public void processElement(StreamRecord<IN> element) throws Exception {
+		final long timestamp;
+		if (windowAssigner.isEventTime()) {
+			timestamp = element.getTimestamp();
+			if (timestamp == Long.MIN_VALUE) {
+				throw new RuntimeException("Record has Long.MIN_VALUE timestamp (= no timestamp marker). " +
+					"Is the time characteristic set to 'ProcessingTime', or did you forget to call " +
+					"'DataStream.assignTimestampsAndWatermarks(...)'?");
+			}
+		} else {
+			timestamp = internalTimerService.currentProcessingTime();
+		}
+
+		final TimeWindow pane = getPane(timestamp);
+		final long lastWindowStart = getLastWindowStart(pane);
+
+		// drop if all windows of the pane are already late
+		if (isWindowLate(getWindow(lastWindowStart))) {
+			if (isElementLate(element)) {
+				if (lateDataOutputTag != null) {
+					sideOutput(element);
+				} else {
+					this.numLateRecordsDropped.inc();
+				}
+			}
+			return;
+		}
+
+		paneState.setCurrentNamespace(pane);
+		paneState.add(element.getValue());
+
+		triggerContext.key = this.<K>getKeyedStateBackend().getCurrentKey();
+
+		for (long start = getFirstWindowStart(pane); start <= lastWindowStart; start += slide) {
+			TimeWindow window = getWindow(start);
+			if (isWindowLate(window)) {
+				continue;
+			}
+
+			triggerContext.window = window;
+			if (windowAssigner.isEventTime() && window.maxTimestamp() <= internalTimerService.currentWatermark()) {
+				// the window has already fired, but is still within the allowed lateness
+				emitPanes(window);
+				registerCleanupTimer(window);
+			} else {
+				// the following windows are fired through the timer of this window
+				registerFiringTimer(window);
+				break;
+			}
+		}
+	}
+
+	@Override
+	public void onEventTime(InternalTimer<K, TimeWindow> timer) throws Exception {
+		if (windowAssigner.isEventTime()) {
+			onTimer(timer);
+		}
+	}
+
+	@Override
+	public void onProcessingTime(InternalTimer<K, TimeWindow> timer) throws Exception {
+		if (!windowAssigner.isEventTime()) {
+			onTimer(timer);
+		}
+	}
+
+	private void onTimer(InternalTimer<K, TimeWindow> timer) throws Exception {
+		final TimeWindow window = timer.getNamespace();
+		triggerContext.key = timer.getKey();
+		triggerContext.window = window;
+
+		if (timer.getTimestamp() == window.maxTimestamp()) {
+			if (emitPanes(window)) {
+				triggerContext.window = getWindow(window.getStart() + slide);
+				registerFiringTimer(triggerContext.window);
+				triggerContext.window = window;
+			}
+			// without allowed lateness, this timer is also the cleanup timer
+			if (cleanupTime(window) > timer.getTimestamp()) {
+				registerCleanupTimer(window);
+			}
+		}
+
+		if (isCleanupTime(window, timer.getTimestamp())) {
+			clearPanes(window);
+		}
+	}
+
+	/**
+	 * Merges the accumulators of the panes of the given window and emits the result using the
+	 * {@link InternalWindowFunction}. Nothing is emitted if all panes are empty.
+	 *
+	 * <p>The caller must ensure that the correct key is set in the state backend and the
+	 * triggerContext object.
+	 *
+	 * @return {@code true} if any of the panes that the window shares with the next window is not empty.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean emitPanes(TimeWindow window) throws Exception {
+		final long nextWindowStart = window.getStart() + slide;
+
+		Object windowAccumulator = null;
+		boolean nextWindowHasContents = false;
+		for (long paneStart = window.getStart(); paneStart < window.getEnd(); paneStart += paneSize) {
+			paneState.setCurrentNamespace(new TimeWindow(paneStart, paneStart + paneSize));
+			Object paneAccumulator = paneState.getInternal();
+			if (paneAccumulator == null) {
+				continue;
+			}
+
+			nextWindowHasContents |= paneStart >= nextWindowStart;
+
+			// merging may modify the accumulators, which must not change the state of the pane
+			paneAccumulator = paneAccumulatorSerializer.copy(paneAccumulator);
+			if (windowAccumulator == null) {
+				windowAccumulator = paneAccumulator;
+			} else if (reduceFunction != null) {
+				windowAccumulator = reduceFunction.reduce(windowAccumulator, paneAccumulator);
+			} else {
+				windowAccumulator = aggregateFunction.merge(windowAccumulator, paneAccumulator);
+			}
+		}
+
+		if (windowAccumulator != null) {
+			ACC contents = reduceFunction != null ?
+				(ACC) windowAccumulator :
+				aggregateFunction.getResult(windowAccumulator);
+			emitWindowContents(window, contents);
+		}
+
+		return nextWindowHasContents;
+	}
+
+	/**
+	 * Drops the state of the panes for which the given window is the last window, and the
+	 * per-window state of the window.
+	 *
+	 * <p>The caller must ensure that the correct key is set in the state backend and the
+	 * triggerContext object.
+	 */
+	private void clearPanes(TimeWindow window) throws Exception {
+		for (long paneStart = window.getStart(); paneStart < window.getStart() + slide; paneStart += paneSize) {
+			paneState.setCurrentNamespace(new TimeWindow(paneStart, paneStart + paneSize));
+			paneState.clear();
+		}
+		processContext.window = window;
+		processContext.clear();
+	}
+
+	/**
+	 * Registers the timer at which the window fires, like the default trigger of the window assigner.
+	 * The triggerContext object must be set to the window.
+	 */
+	private void registerFiringTimer(TimeWindow window) {
+		if (windowAssigner.isEventTime()) {
+			triggerContext.registerEventTimeTimer(window.maxTimestamp());
+		} else {
+			triggerContext.registerProcessingTimeTimer(window.maxTimestamp());
+		}
+	}
+
+	private TimeWindow getPane(long timestamp) {
+		long start = TimeWindow.getWindowStartWithOffset(timestamp, offset, paneSize);
+		return new TimeWindow(start, start + paneSize);
+	}
+
+	private TimeWindow getWindow(long start) {
+		return new TimeWindow(start, start + size);
+	}
+
+	/**
+	 * Returns the start of the first window which contains the given pane.
+	 */
+	private long getFirstWindowStart(TimeWindow pane) {
+		// the earliest window start which is not before the end of the pane minus the window size
+		long lastWindowStart = getLastWindowStart(pane);
+		return lastWindowStart - (lastWindowStart + size - pane.getEnd()) / slide * slide;
+	}
+
+	/**
+	 * Returns the start of the last window which contains the given pane.
+	 */
+	private long getLastWindowStart(TimeWindow pane) {
+		return TimeWindow.getWindowStartWithOffset(pane.getStart(), offset, slide);
+	}
+
+	private static long gcd(long a, long b) {
+		return b == 0 ? a : gcd(b, a % b);
+	}
+
+	// ------------------------------------------------------------------------
+	// Getters for testing
+	// ------------------------------------------------------------------------
+
+	@VisibleForTesting
+	public long getPaneSize() {
+		return paneSize;
+	}
+}
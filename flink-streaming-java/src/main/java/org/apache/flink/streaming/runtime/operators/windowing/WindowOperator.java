@@ -54,12 +54,12 @@ import org.apache.flink.runtime.state.internal.InternalAppendingState;
 import org.apache.flink.runtime.state.internal.InternalListState;
 import org.apache.flink.runtime.state.internal.InternalMergingState;
 import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
+import org.apache.flink.streaming.api.operators.BatchedTriggerable;
 import org.apache.flink.streaming.api.operators.ChainingStrategy;
 import org.apache.flink.streaming.api.operators.InternalTimer;
 import org.apache.flink.streaming.api.operators.InternalTimerService;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.operators.TimestampedCollector;
-import org.apache.flink.streaming.api.operators.Triggerable;
 import org.apache.flink.streaming.api.windowing.assigners.BaseAlignedWindowAssigner;
 import org.apache.flink.streaming.api.windowing.assigners.MergingWindowAssigner;
 import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
@@ -99,7 +99,7 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
 @Internal
 public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 	extends AbstractUdfStreamOperator<OUT, InternalWindowFunction<ACC, OUT, K, W>>
-	implements OneInputStreamOperator<IN, OUT>, Triggerable<K, W> {
+	implements OneInputStreamOperator<IN, OUT>, BatchedTriggerable<K, W> {
 
 	private static final long serialVersionUID = 1L;
 
@@ -518,6 +518,39 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 		}
 	}
 
+	/**
+	 * Fires a batch of event-time timers. The timers are ordered by key-group, so the state of the windows is
+	 * accessed with a better locality than in the order of the timestamps of the timers when the watermark
+	 * advances by a lot. Windows of different keys are independent, so the order across keys does not matter.
+	 */
+	@Override
+	public void onEventTimeBatch(Iterable<InternalTimer<K, W>> timers) throws Exception {
+		for (InternalTimer<K, W> timer : timers) {
+			setCurrentKey(timer.getKey());
+			onEventTime(timer);
+		}
+	}
+
+	/**
+	 * Fires a batch of processing-time timers, see {@link #onEventTimeBatch(Iterable)}.
+	 */
+	@Override
+	public void onProcessingTimeBatch(Iterable<InternalTimer<K, W>> timers) throws Exception {
+		for (InternalTimer<K, W> timer : timers) {
+			setCurrentKey(timer.getKey());
+			onProcessingTime(timer);
+		}
+	}
+
+	/**
+	 * Batches the timers only if enabled in the {@link ExecutionConfig}, because
+	 * the windows of different keys then fire out of the order of their timestamps.
+	 */
+	@Override
+	public boolean isTimerBatchingEnabled() {
+		return getExecutionConfig().isBatchedTimersEnabled();
+	}
+
 	/**
 	 * Drops all state for the given window and calls
 	 * {@link Trigger#clear(Window, Trigger.TriggerContext)}.
@@ -543,7 +576,7 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 	 * Emits the contents of the given window using the {@link InternalWindowFunction}.
 	 */
 	@SuppressWarnings("unchecked")
-	private void emitWindowContents(W window, ACC contents) throws Exception {
+	protected void emitWindowContents(W window, ACC contents) throws Exception {
 		timestampedCollector.setAbsoluteTimestamp(window.maxTimestamp());
 		processContext.window = window;
 		userFunction.process(triggerContext.key, window, processContext, contents, timestampedCollector);
@@ -636,7 +669,7 @@ public class WindowOperator<K, IN, ACC, OUT, W extends Window>
 	 *
 	 * @param window the window whose cleanup time we are computing.
 	 */
-	private long cleanupTime(W window) {
+	protected long cleanupTime(W window) {
 		if (windowAssigner.isEventTime()) {
 			long cleanupTime = window.maxTimestamp() + allowedLateness;
 			return cleanupTime >= window.maxTimestamp() ? cleanupTime : Long.MAX_VALUE;
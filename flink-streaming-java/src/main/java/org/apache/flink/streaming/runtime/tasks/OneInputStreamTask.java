@@ -106,6 +106,8 @@ public class OneInputStreamTask<IN, OUT> extends StreamTask<OUT, OneInputStreamO
 		return InputProcessorUtil.createCheckpointedInputGate(
 			this,
 			configuration.getCheckpointMode(),
+			configuration.isUnalignedCheckpointsEnabled(),
+			channelStateWriter,
 			inputGate,
 			getEnvironment().getTaskManagerInfo().getConfiguration(),
 			getEnvironment().getMetricGroup().getIOMetricGroup(),
@@ -169,7 +169,8 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 						operatorFactory,
 						containingTask,
 						configuration,
-						output);
+						output,
+						operatorEventDispatcher);
 
 				OP headOperator = headOperatorAndTimeService.f0;
 				headOperator.getMetricGroup().gauge(MetricNames.IO_CURRENT_OUTPUT_WATERMARK, output.getWatermarkGauge());
@@ -251,7 +252,8 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 	public void broadcastCheckpointBarrier(long id, long timestamp, CheckpointOptions checkpointOptions) throws IOException {
 		CheckpointBarrier barrier = new CheckpointBarrier(id, timestamp, checkpointOptions);
 		for (RecordWriterOutput<?> streamOutput : streamOutputs) {
-			streamOutput.broadcastEvent(barrier);
+			// barriers of unaligned checkpoints overtake the in-flight data of the output
+			streamOutput.broadcastEvent(barrier, checkpointOptions.isUnalignedCheckpoint());
 		}
 	}
 
@@ -474,7 +476,8 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 				operatorConfig.getStreamOperatorFactory(userCodeClassloader),
 				containingTask,
 				operatorConfig,
-				chainedOperatorOutput);
+				chainedOperatorOutput,
+				operatorEventDispatcher);
 
 		OneInputStreamOperator<IN, OUT> chainedOperator = chainedOperatorAndTimeService.f0;
 		allOperatorWrappers.add(createOperatorWrapper(chainedOperator, containingTask, operatorConfig, chainedOperatorAndTimeService.f1));
@@ -23,6 +23,7 @@ import org.apache.flink.api.common.accumulators.Accumulator;
 import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.fs.FileSystemSafetyNet;
+import org.apache.flink.core.io.InputStatus;
 import org.apache.flink.metrics.Counter;
 import org.apache.flink.metrics.SimpleCounter;
 import org.apache.flink.runtime.checkpoint.CheckpointException;
@@ -30,7 +31,14 @@ import org.apache.flink.runtime.checkpoint.CheckpointFailureReason;
 import org.apache.flink.runtime.checkpoint.CheckpointMetaData;
 import org.apache.flink.runtime.checkpoint.CheckpointMetrics;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.checkpoint.PrioritizedOperatorSubtaskState;
+import org.apache.flink.runtime.checkpoint.StateObjectCollection;
 import org.apache.flink.runtime.checkpoint.TaskStateSnapshot;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateReader;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter.ChannelStateWriteResult;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriterImpl;
+import org.apache.flink.runtime.checkpoint.channel.ResultSubpartitionInfo;
 import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.execution.CancelTaskException;
 import org.apache.flink.runtime.execution.Environment;
@@ -42,6 +50,8 @@ import org.apache.flink.runtime.io.network.api.writer.RecordWriterBuilder;
 import org.apache.flink.runtime.io.network.api.writer.RecordWriterDelegate;
 import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
 import org.apache.flink.runtime.io.network.api.writer.SingleRecordWriter;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.metrics.groups.OperatorMetricGroup;
@@ -50,6 +60,7 @@ import org.apache.flink.runtime.operators.coordination.OperatorEventDispatcher;
 import org.apache.flink.runtime.plugable.SerializationDelegate;
 import org.apache.flink.runtime.state.CheckpointStorageWorkerView;
 import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.SnapshotResult;
 import org.apache.flink.runtime.state.StateBackend;
 import org.apache.flink.runtime.state.StateBackendLoader;
 import org.apache.flink.runtime.state.TaskStateManager;
@@ -65,7 +76,6 @@ import org.apache.flink.streaming.api.operators.OperatorSnapshotFutures;
 import org.apache.flink.streaming.api.operators.StreamOperator;
 import org.apache.flink.streaming.api.operators.StreamTaskStateInitializer;
 import org.apache.flink.streaming.api.operators.StreamTaskStateInitializerImpl;
-import org.apache.flink.streaming.runtime.io.InputStatus;
 import org.apache.flink.streaming.runtime.io.RecordWriterOutput;
 import org.apache.flink.streaming.runtime.io.StreamInputProcessor;
 import org.apache.flink.streaming.runtime.partitioner.ConfigurableStreamPartitioner;
@@ -88,6 +98,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -97,6 +108,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicReference;
@@ -219,6 +231,9 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 
 	protected final MailboxProcessor mailboxProcessor;
 
+	/** Persists the in-flight data of unaligned checkpoints; a no-op if they are disabled. */
+	protected final ChannelStateWriter channelStateWriter;
+
 	private Long syncSavepointId = null;
 
 	// ------------------------------------------------------------------------
@@ -286,6 +301,8 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 		this.actionExecutor = Preconditions.checkNotNull(actionExecutor);
 		this.mailboxProcessor = new MailboxProcessor(this::processInput, mailbox, actionExecutor);
 		this.asyncExceptionHandler = new StreamTaskAsyncExceptionHandler(environment);
+		this.channelStateWriter = configuration.isUnalignedCheckpointsEnabled() ?
+			new ChannelStateWriterImpl(getName()) : ChannelStateWriter.NO_OP;
 	}
 
 	// ------------------------------------------------------------------------
@@ -445,6 +462,9 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 			throw new CancelTaskException();
 		}
 
+		// the recovered in-flight data must be in place before any new data is processed or emitted
+		readRecoveredChannelState();
+
 		// -------- Invoke --------
 		LOG.debug("Invoking {}", getName());
 
@@ -460,6 +480,40 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 		isRunning = true;
 	}
 
+	private void readRecoveredChannelState() throws IOException {
+		if (headOperator == null) {
+			// tasks of feedback edges have no operators and therefore no state
+			return;
+		}
+
+		PrioritizedOperatorSubtaskState headOperatorState = getEnvironment()
+			.getTaskStateManager()
+			.prioritizedOperatorState(headOperator.getOperatorID());
+		if (headOperatorState.getInputChannelState().isEmpty() && headOperatorState.getResultSubpartitionState().isEmpty()) {
+			return;
+		}
+
+		ChannelStateReader reader = ChannelStateReader.read(
+			headOperatorState.getInputChannelState(),
+			headOperatorState.getResultSubpartitionState());
+
+		ResultPartitionWriter[] writers = getEnvironment().getAllWriters();
+		for (int partitionIndex = 0; partitionIndex < writers.length; partitionIndex++) {
+			ResultPartitionWriter writer = writers[partitionIndex];
+			for (int subpartitionIndex = 0; subpartitionIndex < writer.getNumberOfSubpartitions(); subpartitionIndex++) {
+				for (Buffer buffer : reader.readOutputData(new ResultSubpartitionInfo(partitionIndex, subpartitionIndex))) {
+					writer.addBufferConsumer(
+						new BufferConsumer(buffer.getMemorySegment(), buffer.getRecycler(), buffer.getSize(), true),
+						subpartitionIndex);
+				}
+			}
+		}
+
+		if (inputProcessor != null) {
+			inputProcessor.readRecoveredChannelState(reader);
+		}
+	}
+
 	@Override
 	public final void invoke() throws Exception {
 		try {
@@ -559,6 +613,13 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 			LOG.error("Could not shut down async checkpoint threads", t);
 		}
 
+		try {
+			channelStateWriter.close();
+		} catch (Throwable t) {
+			// catch and log the exception to not replace the original exception
+			LOG.error("Could not close the channel state writer", t);
+		}
+
 		// we must! perform this cleanup
 		try {
 			cleanup();
@@ -787,6 +848,9 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 	public void abortCheckpointOnBarrier(long checkpointId, Throwable cause) throws Exception {
 		LOG.debug("Aborting checkpoint via cancel-barrier {} for task {}", checkpointId, getName());
 
+		// drop the in-flight data persisted so far for this checkpoint
+		channelStateWriter.abort(checkpointId, cause);
+
 		// notify the coordinator that we decline this checkpoint
 		getEnvironment().declineCheckpoint(checkpointId, cause);
 
@@ -825,15 +889,36 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 				//           The pre-barrier work should be nothing or minimal in the common case.
 				operatorChain.prepareSnapshotPreBarrier(checkpointId);
 
+				CheckpointStreamFactory storage = checkpointStorage.resolveCheckpointStorageLocation(
+					checkpointId,
+					checkpointOptions.getTargetLocation());
+
+				// For unaligned checkpoints, the data received but not yet processed is persisted
+				// together with the data overtaken by the barrier on the way out.
+				CompletableFuture<ChannelStateWriteResult> channelStateWriteResult = null;
+				if (checkpointOptions.isUnalignedCheckpoint()) {
+					channelStateWriter.start(checkpointId, storage);
+					channelStateWriteResult = channelStateWriter.getWriteResult(checkpointId);
+					if (inputProcessor != null) {
+						inputProcessor.prepareSnapshot(channelStateWriter, checkpointId);
+					} else {
+						channelStateWriter.finishInput(checkpointId);
+					}
+				}
+
 				// Step (2): Send the checkpoint barrier downstream
 				operatorChain.broadcastCheckpointBarrier(
 						checkpointId,
 						checkpointMetaData.getTimestamp(),
 						checkpointOptions);
 
+				if (checkpointOptions.isUnalignedCheckpoint()) {
+					snapshotInflightOutputData(checkpointId);
+				}
+
 				// Step (3): Take the state snapshot. This should be largely asynchronous, to not
 				//           impact progress of the streaming topology
-				checkpointState(checkpointMetaData, checkpointOptions, checkpointMetrics);
+				checkpointState(checkpointMetaData, checkpointOptions, checkpointMetrics, storage, channelStateWriteResult);
 
 			});
 
@@ -853,6 +938,26 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 		}
 	}
 
+	/**
+	 * Writes the buffers which the unaligned checkpoint barrier has overtaken in the outputs.
+	 */
+	private void snapshotInflightOutputData(long checkpointId) {
+		ResultPartitionWriter[] writers = getEnvironment().getAllWriters();
+		for (int partitionIndex = 0; partitionIndex < writers.length; partitionIndex++) {
+			ResultPartitionWriter writer = writers[partitionIndex];
+			for (int subpartitionIndex = 0; subpartitionIndex < writer.getNumberOfSubpartitions(); subpartitionIndex++) {
+				List<Buffer> inflightBuffers = writer.requestInflightBufferSnapshot(subpartitionIndex);
+				if (!inflightBuffers.isEmpty()) {
+					channelStateWriter.addOutputData(
+						checkpointId,
+						new ResultSubpartitionInfo(partitionIndex, subpartitionIndex),
+						inflightBuffers.toArray(new Buffer[0]));
+				}
+			}
+		}
+		channelStateWriter.finishOutput(checkpointId);
+	}
+
 	protected void declineCheckpoint(long checkpointId) {
 		getEnvironment().declineCheckpoint(
 			checkpointId,
@@ -922,18 +1027,17 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 	private void checkpointState(
 			CheckpointMetaData checkpointMetaData,
 			CheckpointOptions checkpointOptions,
-			CheckpointMetrics checkpointMetrics) throws Exception {
-
-		CheckpointStreamFactory storage = checkpointStorage.resolveCheckpointStorageLocation(
-				checkpointMetaData.getCheckpointId(),
-				checkpointOptions.getTargetLocation());
+			CheckpointMetrics checkpointMetrics,
+			CheckpointStreamFactory storage,
+			@Nullable CompletableFuture<ChannelStateWriteResult> channelStateWriteResult) throws Exception {
 
 		CheckpointingOperation checkpointingOperation = new CheckpointingOperation(
 			this,
 			checkpointMetaData,
 			checkpointOptions,
 			storage,
-			checkpointMetrics);
+			checkpointMetrics,
+			channelStateWriteResult);
 
 		checkpointingOperation.executeCheckpointing();
 	}
@@ -1283,6 +1387,10 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 		private final CheckpointMetrics checkpointMetrics;
 		private final CheckpointStreamFactory storageLocation;
 
+		/** The result of persisting the in-flight data; null if this is not an unaligned checkpoint. */
+		@Nullable
+		private final CompletableFuture<ChannelStateWriteResult> channelStateWriteResult;
+
 		private final OperatorChain<?, ?> operatorChain;
 
 		private long startSyncPartNano;
@@ -1297,13 +1405,15 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 				CheckpointMetaData checkpointMetaData,
 				CheckpointOptions checkpointOptions,
 				CheckpointStreamFactory checkpointStorageLocation,
-				CheckpointMetrics checkpointMetrics) {
+				CheckpointMetrics checkpointMetrics,
+				@Nullable CompletableFuture<ChannelStateWriteResult> channelStateWriteResult) {
 
 			this.owner = Preconditions.checkNotNull(owner);
 			this.checkpointMetaData = Preconditions.checkNotNull(checkpointMetaData);
 			this.checkpointOptions = Preconditions.checkNotNull(checkpointOptions);
 			this.checkpointMetrics = Preconditions.checkNotNull(checkpointMetrics);
 			this.storageLocation = Preconditions.checkNotNull(checkpointStorageLocation);
+			this.channelStateWriteResult = channelStateWriteResult;
 			this.operatorChain = owner.operatorChain;
 			this.operatorSnapshotsInProgress = new HashMap<>(operatorChain.getNumberOfOperators());
 		}
@@ -1316,6 +1426,10 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 					checkpointStreamOperator(operatorWrapper.getStreamOperator());
 				}
 
+				if (channelStateWriteResult != null) {
+					attachChannelState(operatorSnapshotsInProgress.get(operatorChain.getHeadOperator().getOperatorID()));
+				}
+
 				if (LOG.isDebugEnabled()) {
 					LOG.debug("Finished synchronous checkpoints for checkpoint {} on task {}",
 						checkpointMetaData.getCheckpointId(), owner.getName());
@@ -1385,6 +1499,17 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 				operatorSnapshotsInProgress.put(op.getOperatorID(), snapshotInProgress);
 		}
 
+		/**
+		 * The channel state belongs to the task as a whole, so it is reported as part of the state
+		 * of the head operator. The futures only wait for the writes issued by the task thread.
+		 */
+		private void attachChannelState(OperatorSnapshotFutures headOperatorSnapshot) {
+			headOperatorSnapshot.setInputChannelStateFuture(new FutureTask<>(() ->
+				SnapshotResult.of(new StateObjectCollection<>(channelStateWriteResult.get().getInputChannelStateHandles()))));
+			headOperatorSnapshot.setResultSubpartitionStateFuture(new FutureTask<>(() ->
+				SnapshotResult.of(new StateObjectCollection<>(channelStateWriteResult.get().getResultSubpartitionStateHandles()))));
+		}
+
 		private enum AsyncCheckpointState {
 			RUNNING,
 			DISCARDED,
@@ -28,6 +28,8 @@ import org.apache.flink.api.common.operators.ResourceSpec;
 import org.apache.flink.api.common.operators.util.UserCodeWrapper;
 import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.connector.source.Boundedness;
+import org.apache.flink.api.connector.source.mocks.MockSource;
 import org.apache.flink.api.java.io.DiscardingOutputFormat;
 import org.apache.flink.api.java.io.TypeSerializerInputFormat;
 import org.apache.flink.api.java.tuple.Tuple2;
@@ -43,7 +45,9 @@ import org.apache.flink.runtime.jobgraph.ScheduleMode;
 import org.apache.flink.runtime.jobgraph.tasks.JobCheckpointingSettings;
 import org.apache.flink.runtime.jobmanager.scheduler.CoLocationGroup;
 import org.apache.flink.runtime.jobmanager.scheduler.SlotSharingGroup;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
 import org.apache.flink.runtime.operators.util.TaskConfig;
+import org.apache.flink.runtime.source.coordinator.SourceCoordinatorProvider;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.datastream.DataStreamSink;
 import org.apache.flink.streaming.api.datastream.DataStreamSource;
@@ -65,6 +69,7 @@ import org.apache.flink.streaming.api.transformations.ShuffleMode;
 import org.apache.flink.streaming.runtime.partitioner.ForwardPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.RebalancePartitioner;
 import org.apache.flink.streaming.runtime.partitioner.RescalePartitioner;
+import org.apache.flink.streaming.runtime.tasks.SourceReaderStreamTask;
 import org.apache.flink.streaming.util.TestAnyModeReadingStreamOperator;
 import org.apache.flink.util.Collector;
 import org.apache.flink.util.TestLogger;
@@ -890,6 +895,28 @@ public class StreamingJobGraphGeneratorTest extends TestLogger {
 		assertDistinctSharingGroups(source1Vertex, source2Vertex, map2Vertex);
 	}
 
+	@Test
+	public void testCoordinatedOperator() throws Exception {
+		final StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		final DataStream<Integer> source = env.fromSource(
+			new MockSource(Boundedness.BOUNDED, 1), "TestSource", BasicTypeInfo.INT_TYPE_INFO);
+		source.map(x -> x).addSink(new DiscardingSink<>());
+
+		final JobGraph jobGraph = StreamingJobGraphGenerator.createJobGraph(env.getStreamGraph());
+		final List<JobVertex> verticesSorted = jobGraph.getVerticesSortedTopologicallyFromSources();
+		assertEquals(1, verticesSorted.size());
+
+		// the source is run by the SourceReaderStreamTask, and its coordinator is attached to the job vertex.
+		final JobVertex sourceVertex = verticesSorted.get(0);
+		assertEquals(SourceReaderStreamTask.class, sourceVertex.getInvokableClass(getClass().getClassLoader()));
+		assertEquals(1, sourceVertex.getOperatorCoordinators().size());
+
+		final OperatorCoordinator.Provider provider =
+			sourceVertex.getOperatorCoordinators().get(0).deserializeValue(getClass().getClassLoader());
+		assertTrue(provider instanceof SourceCoordinatorProvider);
+		assertTrue(sourceVertex.getOperatorIDs().contains(provider.getOperatorId()));
+	}
+
 	private static List<JobVertex> getExpectedVerticesList(List<JobVertex> vertices) {
 		final List<JobVertex> verticesMatched = new ArrayList<JobVertex>();
 		final List<String> expectedOrder = Arrays.asList("source1", "source2", "map1", "map2");
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.io.PushingAsyncDataInput.DataOutput;
+import org.apache.flink.streaming.runtime.streamrecord.LatencyMarker;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.streamstatus.StreamStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link DataOutput} that collects all the emitted stream elements, copying the (reused)
+ * stream records.
+ */
+class CollectingDataOutput<E> implements DataOutput<E> {
+
+	final List<Object> events = new ArrayList<>();
+
+	@Override
+	public void emitRecord(StreamRecord<E> streamRecord) {
+		events.add(streamRecord.copy(streamRecord.getValue()));
+	}
+
+	@Override
+	public void emitWatermark(Watermark watermark) {
+		events.add(watermark);
+	}
+
+	@Override
+	public void emitStreamStatus(StreamStatus streamStatus) {
+		events.add(streamStatus);
+	}
+
+	@Override
+	public void emitLatencyMarker(LatencyMarker latencyMarker) {
+		events.add(latencyMarker);
+	}
+}
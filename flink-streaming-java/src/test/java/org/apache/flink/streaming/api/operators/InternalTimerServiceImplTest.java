@@ -41,8 +41,10 @@ import org.mockito.stubbing.Answer;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -60,6 +62,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests for {@link InternalTimerServiceImpl}.
@@ -92,6 +95,7 @@ public class InternalTimerServiceImplTest {
 
 		InternalTimerServiceImpl<Integer, String> service = createInternalTimerService(
 			testKeyGroupList,
+			maxParallelism,
 			keyContext,
 			processingTimeService,
 			IntSerializer.INSTANCE,
@@ -120,6 +124,7 @@ public class InternalTimerServiceImplTest {
 
 		InternalTimerServiceImpl<Integer, String> timerService = createInternalTimerService(
 			keyGroupRange,
+			totalNoOfKeyGroups,
 			keyContext,
 			new TestProcessingTimeService(),
 			IntSerializer.INSTANCE,
@@ -639,6 +644,130 @@ public class InternalTimerServiceImplTest {
 		Assert.assertEquals(timers, results);
 	}
 
+	/**
+	 * Verifies that the timers of a {@link BatchedTriggerable} that has timer batching disabled fire one by one
+	 * with the key of each timer set.
+	 */
+	@Test
+	public void testBatchedTriggerableWithBatchingDisabled() throws Exception {
+		@SuppressWarnings("unchecked")
+		BatchedTriggerable<Integer, String> mockTriggerable = mock(BatchedTriggerable.class);
+		when(mockTriggerable.isTimerBatchingEnabled()).thenReturn(false);
+
+		TestKeyContext keyContext = new TestKeyContext();
+		TestProcessingTimeService processingTimeService = new TestProcessingTimeService();
+		InternalTimerServiceImpl<Integer, String> timerService =
+			createAndStartInternalTimerService(mockTriggerable, keyContext, processingTimeService, testKeyGroupRange, createQueueFactory());
+
+		int key = getKeyInKeyGroupRange(testKeyGroupRange, maxParallelism);
+		keyContext.setCurrentKey(key);
+		timerService.registerEventTimeTimer("event", 10);
+		timerService.registerProcessingTimeTimer("processing", 10);
+		keyContext.setCurrentKey(null);
+
+		timerService.advanceWatermark(10);
+		processingTimeService.setCurrentTime(10);
+
+		verify(mockTriggerable, times(1)).onEventTime(eq(new TimerHeapInternalTimer<>(10, key, "event")));
+		verify(mockTriggerable, times(1)).onProcessingTime(eq(new TimerHeapInternalTimer<>(10, key, "processing")));
+		verify(mockTriggerable, never()).onEventTimeBatch(any());
+		verify(mockTriggerable, never()).onProcessingTimeBatch(any());
+		assertEquals(key, keyContext.getCurrentKey());
+	}
+
+	/**
+	 * Verifies that a {@link BatchedTriggerable} receives all due timers at once, ordered by key-group and
+	 * by timestamp within a key-group, and that due timers registered in the callback fire in a next batch.
+	 */
+	@Test
+	public void testBatchedTimers() throws Exception {
+		TestKeyContext keyContext = new TestKeyContext();
+		TestProcessingTimeService processingTimeService = new TestProcessingTimeService();
+		BatchCollectingTriggerable triggerable = new BatchCollectingTriggerable(keyContext);
+		InternalTimerServiceImpl<Integer, String> timerService =
+			createAndStartInternalTimerService(triggerable, keyContext, processingTimeService, testKeyGroupRange, createQueueFactory());
+		triggerable.timerService = timerService;
+
+		Set<Integer> keys = new HashSet<>();
+		while (keys.size() < 10) {
+			keys.add(getKeyInKeyGroupRange(testKeyGroupRange, maxParallelism));
+		}
+
+		Set<InternalTimer<Integer, String>> expectedTimers = new HashSet<>();
+		int i = 0;
+		for (Integer key : keys) {
+			keyContext.setCurrentKey(key);
+			for (long timestamp : new long[] {10 + i, 30 - i}) {
+				timerService.registerEventTimeTimer("event", timestamp);
+				timerService.registerProcessingTimeTimer("processing", timestamp);
+				expectedTimers.add(new TimerHeapInternalTimer<>(timestamp, key, "event"));
+				expectedTimers.add(new TimerHeapInternalTimer<>(timestamp, key, "processing"));
+			}
+			i++;
+		}
+		keyContext.setCurrentKey(null);
+
+		timerService.advanceWatermark(30);
+		processingTimeService.setCurrentTime(30);
+
+		// the timers that were registered in the callbacks of the first batches fire in separate batches
+		assertEquals(4, triggerable.batches.size());
+		assertEquals(20, triggerable.batches.get(0).size());
+		assertEquals(Collections.singletonList(new TimerHeapInternalTimer<>(30, 0, "event-reregistered")), triggerable.batches.get(1));
+		assertEquals(20, triggerable.batches.get(2).size());
+		assertEquals(Collections.singletonList(new TimerHeapInternalTimer<>(30, 0, "processing-reregistered")), triggerable.batches.get(3));
+
+		Set<InternalTimer<Integer, String>> firedTimers = new HashSet<>(triggerable.batches.get(0));
+		firedTimers.addAll(triggerable.batches.get(2));
+		assertEquals(expectedTimers, firedTimers);
+
+		assertOrderedByKeyGroupAndTimestamp(triggerable.batches.get(0));
+		assertOrderedByKeyGroupAndTimestamp(triggerable.batches.get(2));
+
+		assertEquals(0, timerService.numEventTimeTimers());
+		assertEquals(0, timerService.numProcessingTimeTimers());
+		assertEquals(0, processingTimeService.getNumActiveTimers());
+	}
+
+	/**
+	 * Verifies that batches of timers are bounded, and that deleting or registering again a timer of the
+	 * batch that is fired behaves like for a timer that was not polled from the queue yet.
+	 */
+	@Test
+	public void testBatchedTimersAreBoundedAndRespectDeletions() throws Exception {
+		TestKeyContext keyContext = new TestKeyContext();
+		DeletingBatchTriggerable triggerable = new DeletingBatchTriggerable(keyContext);
+		InternalTimerServiceImpl<Integer, String> timerService =
+			createAndStartInternalTimerService(triggerable, keyContext, new TestProcessingTimeService(), testKeyGroupRange, createQueueFactory());
+		timerService.setMaxTimerBatchSize(4);
+		triggerable.timerService = timerService;
+
+		keyContext.setCurrentKey(getKeyInKeyGroupRange(testKeyGroupRange, maxParallelism));
+		for (long timestamp = 1; timestamp <= 10; timestamp++) {
+			timerService.registerEventTimeTimer("event", timestamp);
+		}
+
+		timerService.advanceWatermark(10);
+
+		assertEquals(
+			Arrays.asList(Arrays.asList(1L, 3L, 4L), Arrays.asList(5L, 7L, 8L, 9L), Collections.singletonList(10L)),
+			triggerable.batches);
+		assertEquals(0, timerService.numEventTimeTimers());
+	}
+
+	private void assertOrderedByKeyGroupAndTimestamp(List<InternalTimer<Integer, String>> timers) {
+		for (int i = 1; i < timers.size(); i++) {
+			InternalTimer<Integer, String> previous = timers.get(i - 1);
+			InternalTimer<Integer, String> current = timers.get(i);
+			int previousKeyGroup = KeyGroupRangeAssignment.assignToKeyGroup(previous.getKey(), maxParallelism);
+			int currentKeyGroup = KeyGroupRangeAssignment.assignToKeyGroup(current.getKey(), maxParallelism);
+			Assert.assertTrue(previousKeyGroup <= currentKeyGroup);
+			if (previousKeyGroup == currentKeyGroup) {
+				Assert.assertTrue(previous.getTimestamp() <= current.getTimestamp());
+			}
+		}
+	}
+
 	@Test
 	public void testSnapshotAndRestore() throws Exception {
 		testSnapshotAndRestore(InternalTimerServiceSerializationProxy.VERSION);
@@ -860,6 +989,106 @@ public class InternalTimerServiceImplTest {
 		assertEquals(0, timerService2.numEventTimeTimers());
 	}
 
+	/**
+	 * A {@link BatchedTriggerable} that collects the batches of fired timers and registers one more due
+	 * timer for the first batch of each time domain.
+	 */
+	private static class BatchCollectingTriggerable implements BatchedTriggerable<Integer, String> {
+
+		private final List<List<InternalTimer<Integer, String>>> batches = new ArrayList<>();
+
+		private final KeyContext keyContext;
+
+		private InternalTimerServiceImpl<Integer, String> timerService;
+
+		BatchCollectingTriggerable(KeyContext keyContext) {
+			this.keyContext = keyContext;
+		}
+
+		@Override
+		public void onEventTimeBatch(Iterable<InternalTimer<Integer, String>> timers) {
+			if (batches.isEmpty()) {
+				keyContext.setCurrentKey(0);
+				timerService.registerEventTimeTimer("event-reregistered", timerService.currentWatermark());
+			}
+			collect(timers);
+		}
+
+		@Override
+		public void onProcessingTimeBatch(Iterable<InternalTimer<Integer, String>> timers) {
+			if (batches.size() == 2) {
+				keyContext.setCurrentKey(0);
+				timerService.registerProcessingTimeTimer("processing-reregistered", timerService.currentProcessingTime());
+			}
+			collect(timers);
+		}
+
+		private void collect(Iterable<InternalTimer<Integer, String>> timers) {
+			List<InternalTimer<Integer, String>> batch = new ArrayList<>();
+			timers.forEach(batch::add);
+			batches.add(batch);
+		}
+
+		@Override
+		public void onEventTime(InternalTimer<Integer, String> timer) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void onProcessingTime(InternalTimer<Integer, String> timer) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * A {@link BatchedTriggerable} that collects the timestamps of the fired event-time timers. When the timer
+	 * at 1 fires, it deletes the timers at 2 and 6 and registers the timer at 3 again.
+	 */
+	private static class DeletingBatchTriggerable implements BatchedTriggerable<Integer, String> {
+
+		private final List<List<Long>> batches = new ArrayList<>();
+
+		private final KeyContext keyContext;
+
+		private InternalTimerServiceImpl<Integer, String> timerService;
+
+		DeletingBatchTriggerable(KeyContext keyContext) {
+			this.keyContext = keyContext;
+		}
+
+		@Override
+		public void onEventTimeBatch(Iterable<InternalTimer<Integer, String>> timers) {
+			List<Long> batch = new ArrayList<>();
+			for (InternalTimer<Integer, String> timer : timers) {
+				if (timer.getTimestamp() == 1) {
+					keyContext.setCurrentKey(timer.getKey());
+					// the timer at 2 is pending in this batch, the timer at 6 is still in the queue
+					timerService.deleteEventTimeTimer("event", 2);
+					timerService.deleteEventTimeTimer("event", 6);
+					// the timer at 3 is pending in this batch and must not fire twice
+					timerService.registerEventTimeTimer("event", 3);
+				}
+				batch.add(timer.getTimestamp());
+			}
+			batches.add(batch);
+		}
+
+		@Override
+		public void onProcessingTimeBatch(Iterable<InternalTimer<Integer, String>> timers) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void onEventTime(InternalTimer<Integer, String> timer) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void onProcessingTime(InternalTimer<Integer, String> timer) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
 	private static class TestKeyContext implements KeyContext {
 
 		private Object key;
@@ -893,7 +1122,7 @@ public class InternalTimerServiceImplTest {
 		return result;
 	}
 
-	private static InternalTimerServiceImpl<Integer, String> createAndStartInternalTimerService(
+	private InternalTimerServiceImpl<Integer, String> createAndStartInternalTimerService(
 			Triggerable<Integer, String> triggerable,
 			KeyContext keyContext,
 			ProcessingTimeService processingTimeService,
@@ -901,6 +1130,7 @@ public class InternalTimerServiceImplTest {
 			PriorityQueueSetFactory priorityQueueSetFactory) {
 		InternalTimerServiceImpl<Integer, String> service = createInternalTimerService(
 			keyGroupList,
+			maxParallelism,
 			keyContext,
 			processingTimeService,
 			IntSerializer.INSTANCE,
@@ -911,7 +1141,7 @@ public class InternalTimerServiceImplTest {
 		return service;
 	}
 
-	private static InternalTimerServiceImpl<Integer, String> restoreTimerService(
+	private InternalTimerServiceImpl<Integer, String> restoreTimerService(
 			Map<Integer, byte[]> state,
 			int snapshotVersion,
 			Triggerable<Integer, String> triggerable,
@@ -923,6 +1153,7 @@ public class InternalTimerServiceImplTest {
 		// create an empty service
 		InternalTimerServiceImpl<Integer, String> service = createInternalTimerService(
 			keyGroupsList,
+			maxParallelism,
 			keyContext,
 			processingTimeService,
 			IntSerializer.INSTANCE,
@@ -975,6 +1206,7 @@ public class InternalTimerServiceImplTest {
 
 	private static <K, N> InternalTimerServiceImpl<K, N> createInternalTimerService(
 		KeyGroupRange keyGroupsList,
+		int totalKeyGroups,
 		KeyContext keyContext,
 		ProcessingTimeService processingTimeService,
 		TypeSerializer<K> keySerializer,
@@ -985,6 +1217,7 @@ public class InternalTimerServiceImplTest {
 
 		return new InternalTimerServiceImpl<>(
 			keyGroupsList,
+			totalKeyGroups,
 			keyContext,
 			processingTimeService,
 			createTimerQueue("__test_processing_timers", timerSerializer, priorityQueueSetFactory),
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.api.connector.source.SourceOutput;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.streamstatus.StreamStatus;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the per-split watermarking of the {@link SourceOperatorReaderOutput}.
+ */
+public class SourceOperatorReaderOutputTest extends TestLogger {
+
+	private CollectingDataOutput<Integer> dataOutput;
+	private SourceOperatorReaderOutput<Integer> readerOutput;
+
+	@Before
+	public void setup() {
+		dataOutput = new CollectingDataOutput<>();
+		readerOutput = new SourceOperatorReaderOutput<>();
+		readerOutput.setDataOutput(dataOutput);
+	}
+
+	@Test
+	public void testEmitRecords() {
+		readerOutput.collect(1);
+		readerOutput.collect(2, 42L);
+		readerOutput.createOutputForSplit("split").collect(3, 43L);
+
+		assertEquals(
+			Arrays.asList(new StreamRecord<>(1), new StreamRecord<>(2, 42L), new StreamRecord<>(3, 43L)),
+			dataOutput.events);
+	}
+
+	@Test
+	public void testWatermarkIsMinimumOfSplits() {
+		final SourceOutput<Integer> split1 = readerOutput.createOutputForSplit("split1");
+		final SourceOutput<Integer> split2 = readerOutput.createOutputForSplit("split2");
+
+		// split2 has not emitted a watermark yet, so it holds back the watermark.
+		split1.emitWatermark(100L);
+		assertTrue(dataOutput.events.isEmpty());
+
+		split2.emitWatermark(50L);
+		split2.emitWatermark(200L);
+		split1.emitWatermark(150L);
+		assertEquals(
+			Arrays.asList(new Watermark(50L), new Watermark(100L), new Watermark(150L)),
+			dataOutput.events);
+	}
+
+	@Test
+	public void testReleasedSplitDoesNotHoldBackWatermark() {
+		final SourceOutput<Integer> split1 = readerOutput.createOutputForSplit("split1");
+		final SourceOutput<Integer> split2 = readerOutput.createOutputForSplit("split2");
+		split1.emitWatermark(100L);
+		split2.emitWatermark(10L);
+
+		readerOutput.releaseOutputForSplit("split2");
+		assertEquals(Arrays.asList(new Watermark(10L), new Watermark(100L)), dataOutput.events);
+	}
+
+	@Test
+	public void testWatermarkNeverGoesBack() {
+		final SourceOutput<Integer> split1 = readerOutput.createOutputForSplit("split1");
+		split1.emitWatermark(100L);
+
+		// a new split starts behind the current watermark.
+		final SourceOutput<Integer> split2 = readerOutput.createOutputForSplit("split2");
+		split2.emitWatermark(50L);
+		split2.emitWatermark(120L);
+		split1.emitWatermark(130L);
+		assertEquals(Arrays.asList(new Watermark(100L), new Watermark(120L)), dataOutput.events);
+	}
+
+	@Test
+	public void testIdleSplits() {
+		final SourceOutput<Integer> split1 = readerOutput.createOutputForSplit("split1");
+		final SourceOutput<Integer> split2 = readerOutput.createOutputForSplit("split2");
+		split1.emitWatermark(100L);
+
+		// an idle split does not hold back the watermark.
+		split2.markIdle();
+		assertEquals(Collections.singletonList(new Watermark(100L)), dataOutput.events);
+
+		// the stream becomes idle once all splits are idle.
+		split1.markIdle();
+		assertEquals(StreamStatus.IDLE, dataOutput.events.get(dataOutput.events.size() - 1));
+
+		// a record activates the stream again.
+		split2.collect(1, 200L);
+		assertEquals(
+			Arrays.asList(
+				new Watermark(100L),
+				StreamStatus.IDLE,
+				StreamStatus.ACTIVE,
+				new StreamRecord<>(1, 200L)),
+			dataOutput.events);
+	}
+}
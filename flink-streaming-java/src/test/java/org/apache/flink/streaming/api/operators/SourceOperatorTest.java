@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.connector.source.Boundedness;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.SourceReaderContext;
+import org.apache.flink.api.connector.source.mocks.MockSource;
+import org.apache.flink.api.connector.source.mocks.MockSourceReader;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplitSerializer;
+import org.apache.flink.core.io.InputStatus;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+import org.apache.flink.runtime.operators.coordination.OperatorEventGateway;
+import org.apache.flink.runtime.source.event.AddSplitEvent;
+import org.apache.flink.runtime.source.event.NoMoreSplitsEvent;
+import org.apache.flink.runtime.source.event.ReaderRegistrationEvent;
+import org.apache.flink.runtime.source.event.RequestSplitEvent;
+import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.AbstractStreamOperatorTestHarness;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link SourceOperator}.
+ */
+public class SourceOperatorTest extends TestLogger {
+
+	private static final int SUBTASK_INDEX = 1;
+	private static final MockSourceSplit MOCK_SPLIT = new MockSourceSplit(1234, 10, 13);
+
+	private MockSource mockSource;
+	private MockOperatorEventGateway mockGateway;
+	private SourceOperator<Integer, MockSourceSplit> operator;
+	private AbstractStreamOperatorTestHarness<Integer> testHarness;
+
+	@Before
+	public void setup() throws Exception {
+		mockSource = new MockSource(Boundedness.BOUNDED, 2);
+		mockGateway = new MockOperatorEventGateway();
+		operator = createOperator();
+		testHarness = createTestHarness(operator);
+	}
+
+	@After
+	public void cleanUp() throws Exception {
+		testHarness.close();
+	}
+
+	@Test
+	public void testOpen() throws Exception {
+		testHarness.open();
+
+		final MockSourceReader mockSourceReader = getSourceReader(operator);
+		assertTrue(mockSourceReader.isStarted());
+		assertTrue(mockSourceReader.getAssignedSplits().isEmpty());
+
+		// the reader is registered with the coordinator.
+		assertEquals(1, mockGateway.getEventsSent().size());
+		final ReaderRegistrationEvent registrationEvent = (ReaderRegistrationEvent) mockGateway.getEventsSent().get(0);
+		assertEquals(SUBTASK_INDEX, registrationEvent.subtaskId());
+	}
+
+	@Test
+	public void testHandleAddSplitsEventAndEmitRecords() throws Exception {
+		testHarness.open();
+		final CollectingDataOutput<Integer> dataOutput = new CollectingDataOutput<>();
+		assertEquals(InputStatus.NOTHING_AVAILABLE, operator.emitNext(dataOutput));
+		assertFalse(operator.getAvailableFuture().isDone());
+
+		operator.handleOperatorEvent(
+			new AddSplitEvent<>(Collections.singletonList(MOCK_SPLIT), new MockSourceSplitSerializer()));
+		assertTrue(operator.getAvailableFuture().isDone());
+		assertEquals(Collections.singletonList(MOCK_SPLIT), getSourceReader(operator).getAssignedSplits());
+
+		operator.handleOperatorEvent(NoMoreSplitsEvent.INSTANCE);
+		while (operator.emitNext(dataOutput) != InputStatus.END_OF_INPUT) {
+			// keep reading
+		}
+		assertEquals(
+			Arrays.asList(new StreamRecord<>(10), new StreamRecord<>(11), new StreamRecord<>(12)),
+			dataOutput.events);
+	}
+
+	@Test
+	public void testHandleSourceEvents() throws Exception {
+		testHarness.open();
+		final SourceEvent event = new SourceEvent() {};
+		operator.handleOperatorEvent(new SourceEventWrapper(event));
+		assertEquals(Collections.singletonList(event), getSourceReader(operator).getReceivedSourceEvents());
+	}
+
+	@Test
+	public void testSplitRequestsAreSentToTheCoordinator() throws Exception {
+		testHarness.open();
+		getSourceReaderContext().sendSplitRequest();
+		getSourceReaderContext().sendSourceEventToCoordinator(new SourceEvent() {});
+
+		final List<OperatorEvent> events = mockGateway.getEventsSent();
+		assertEquals(3, events.size());
+		assertTrue(events.get(1) instanceof RequestSplitEvent);
+		assertTrue(events.get(2) instanceof SourceEventWrapper);
+	}
+
+	@Test
+	public void testSnapshotAndRestoreState() throws Exception {
+		testHarness.open();
+		operator.handleOperatorEvent(
+			new AddSplitEvent<>(Collections.singletonList(MOCK_SPLIT), new MockSourceSplitSerializer()));
+		final OperatorSubtaskState snapshot = testHarness.snapshot(100L, 100L);
+		testHarness.close();
+
+		// restore a new operator from the snapshot.
+		mockSource = new MockSource(Boundedness.BOUNDED, 2);
+		operator = createOperator();
+		testHarness = createTestHarness(operator);
+		testHarness.initializeState(snapshot);
+		testHarness.open();
+
+		assertEquals(Collections.singletonList(MOCK_SPLIT), getSourceReader(operator).getAssignedSplits());
+	}
+
+	// ---------------- helper methods -------------------------
+
+	private SourceOperator<Integer, MockSourceSplit> createOperator() {
+		final SourceOperator<Integer, MockSourceSplit> sourceOperator = new SourceOperator<>(mockSource);
+		sourceOperator.setOperatorEventGateway(mockGateway);
+		return sourceOperator;
+	}
+
+	private static AbstractStreamOperatorTestHarness<Integer> createTestHarness(
+			SourceOperator<Integer, MockSourceSplit> operator) throws Exception {
+		final AbstractStreamOperatorTestHarness<Integer> harness =
+			new AbstractStreamOperatorTestHarness<>(operator, 4, 4, SUBTASK_INDEX);
+		harness.setup(IntSerializer.INSTANCE);
+		return harness;
+	}
+
+	private MockSourceReader getSourceReader(SourceOperator<Integer, MockSourceSplit> sourceOperator) {
+		return (MockSourceReader) sourceOperator.getSourceReader();
+	}
+
+	private SourceReaderContext getSourceReaderContext() {
+		return mockSource.getReaderContexts().get(0);
+	}
+
+	/**
+	 * An {@link OperatorEventGateway} that records the events sent to the coordinator.
+	 */
+	private static class MockOperatorEventGateway implements OperatorEventGateway {
+
+		private final List<OperatorEvent> eventsSent = new ArrayList<>();
+
+		@Override
+		public void sendEventToCoordinator(OperatorEvent event) {
+			eventsSent.add(event);
+		}
+
+		List<OperatorEvent> getEventsSent() {
+			return eventsSent;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.TestHarnessUtil;
+
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Tests for {@link StreamLocalGroupedReduce}. These test that partial results are emitted with
+ * the largest timestamp of their inputs when the buffer is full, on watermarks, on checkpoints,
+ * periodically and at the end of the input.
+ */
+public class StreamLocalGroupedReduceTest {
+
+	@Test
+	public void testFlushWhenFullAndOnWatermark() throws Exception {
+		StreamLocalGroupedReduce<Integer, Integer> operator = new StreamLocalGroupedReduce<>(
+			new SumReducer(), new LastDigitKeySelector(), IntSerializer.INSTANCE, 2, 0L);
+
+		OneInputStreamOperatorTestHarness<Integer, Integer> testHarness =
+			new OneInputStreamOperatorTestHarness<>(operator);
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>(1, 1L));
+		testHarness.processElement(new StreamRecord<>(11, 2L));
+		testHarness.processElement(new StreamRecord<>(2, 3L));
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		// a third key does not fit into the buffer
+		testHarness.processElement(new StreamRecord<>(3, 4L));
+		expectedOutput.add(new StreamRecord<>(12, 2L));
+		expectedOutput.add(new StreamRecord<>(2, 3L));
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		testHarness.processWatermark(new Watermark(4L));
+		expectedOutput.add(new StreamRecord<>(3, 4L));
+		expectedOutput.add(new Watermark(4L));
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		testHarness.close();
+	}
+
+	@Test
+	public void testFlushOnCheckpointTimerAndEndOfInput() throws Exception {
+		StreamLocalGroupedReduce<Integer, Integer> operator = new StreamLocalGroupedReduce<>(
+			new SumReducer(), new LastDigitKeySelector(), IntSerializer.INSTANCE, 100, 10L);
+
+		OneInputStreamOperatorTestHarness<Integer, Integer> testHarness =
+			new OneInputStreamOperatorTestHarness<>(operator);
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.setProcessingTime(0L);
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>(11, 2L));
+		testHarness.processElement(new StreamRecord<>(1, 1L));
+		testHarness.prepareSnapshotPreBarrier(1L);
+		expectedOutput.add(new StreamRecord<>(12, 2L));
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		testHarness.processElement(new StreamRecord<>(2, 3L));
+		testHarness.processElement(new StreamRecord<>(12, 4L));
+		testHarness.setProcessingTime(10L);
+		expectedOutput.add(new StreamRecord<>(14, 4L));
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		testHarness.processElement(new StreamRecord<>(3, 5L));
+		testHarness.endInput();
+		expectedOutput.add(new StreamRecord<>(3, 5L));
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		testHarness.close();
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+	}
+
+	// Utilities
+
+	private static class SumReducer implements ReduceFunction<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Integer reduce(Integer value1, Integer value2) throws Exception {
+			return value1 + value2;
+		}
+	}
+
+	private static class LastDigitKeySelector implements KeySelector<Integer, Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Integer getKey(Integer value) throws Exception {
+			return value % 10;
+		}
+	}
+}
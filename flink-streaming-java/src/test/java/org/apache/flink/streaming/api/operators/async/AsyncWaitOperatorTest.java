@@ -42,6 +42,7 @@ import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
+import org.apache.flink.streaming.api.functions.async.BatchAsyncFunction;
 import org.apache.flink.streaming.api.functions.async.ResultFuture;
 import org.apache.flink.streaming.api.functions.async.RichAsyncFunction;
 import org.apache.flink.streaming.api.functions.sink.DiscardingSink;
@@ -76,6 +77,7 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -302,6 +304,66 @@ public class AsyncWaitOperatorTest extends TestLogger {
 		}
 	}
 
+	/**
+	 * Test the AsyncWaitOperator with ordered mode and batched inputs.
+	 */
+	@Test
+	public void testBatchedOrdered() throws Exception {
+		testBatched(AsyncDataStream.OutputMode.ORDERED);
+	}
+
+	/**
+	 * Test the AsyncWaitOperator with unordered mode and batched inputs.
+	 */
+	@Test
+	public void testBatchedUnordered() throws Exception {
+		testBatched(AsyncDataStream.OutputMode.UNORDERED);
+	}
+
+	private void testBatched(AsyncDataStream.OutputMode mode) throws Exception {
+		BatchRecordingAsyncFunction.BATCH_SIZES.clear();
+		final OneInputStreamOperatorTestHarness<Integer, Integer> testHarness = new OneInputStreamOperatorTestHarness<>(
+			new AsyncWaitOperatorFactory<>(new BatchRecordingAsyncFunction(), TIMEOUT, 10, mode, 3, 100L),
+			IntSerializer.INSTANCE);
+
+		testHarness.open();
+
+		synchronized (testHarness.getCheckpointLock()) {
+			for (int i = 1; i <= 4; i++) {
+				testHarness.processElement(new StreamRecord<>(i, i));
+			}
+		}
+
+		// the first batch is full, the second one waits for its timeout
+		assertEquals(Collections.singletonList(3), BatchRecordingAsyncFunction.BATCH_SIZES);
+		testHarness.setProcessingTime(100L);
+		assertEquals(Arrays.asList(3, 1), BatchRecordingAsyncFunction.BATCH_SIZES);
+
+		synchronized (testHarness.getCheckpointLock()) {
+			testHarness.processElement(new StreamRecord<>(5, 5));
+			// the pending batch is triggered at the end of the input
+			testHarness.endInput();
+			testHarness.close();
+		}
+
+		assertEquals(Arrays.asList(3, 1, 1), BatchRecordingAsyncFunction.BATCH_SIZES);
+
+		final ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+		for (int i = 1; i <= 5; i++) {
+			expectedOutput.add(new StreamRecord<>(2 * i, i));
+		}
+
+		if (AsyncDataStream.OutputMode.ORDERED == mode) {
+			TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+		} else {
+			TestHarnessUtil.assertOutputEqualsSorted(
+				"Output was not correct.",
+				expectedOutput,
+				testHarness.getOutput(),
+				new StreamRecordComparator());
+		}
+	}
+
 	/**
 	 * Test the AsyncWaitOperator with ordered mode and processing time.
 	 */
@@ -868,6 +930,21 @@ public class AsyncWaitOperatorTest extends TestLogger {
 		}
 	}
 
+	private static class BatchRecordingAsyncFunction implements BatchAsyncFunction<Integer, Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final List<Integer> BATCH_SIZES = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void asyncInvokeBatch(List<Integer> inputs, List<ResultFuture<Integer>> resultFutures) {
+			BATCH_SIZES.add(inputs.size());
+			for (int i = 0; i < inputs.size(); i++) {
+				resultFutures.get(i).complete(Collections.singleton(inputs.get(i) * 2));
+			}
+		}
+	}
+
 	private static class NoOpAsyncFunction<IN, OUT> implements AsyncFunction<IN, OUT> {
 		private static final long serialVersionUID = -3060481953330480694L;
 
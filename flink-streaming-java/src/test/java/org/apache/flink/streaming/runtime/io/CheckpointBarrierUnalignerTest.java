@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.io;
+
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.checkpoint.CheckpointException;
+import org.apache.flink.runtime.checkpoint.CheckpointFailureReason;
+import org.apache.flink.runtime.checkpoint.CheckpointMetaData;
+import org.apache.flink.runtime.checkpoint.CheckpointMetrics;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.checkpoint.CheckpointType;
+import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
+import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
+import org.apache.flink.runtime.checkpoint.channel.ResultSubpartitionInfo;
+import org.apache.flink.runtime.io.network.api.CancelCheckpointMarker;
+import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
+import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
+import org.apache.flink.runtime.io.network.buffer.NetworkBuffer;
+import org.apache.flink.runtime.io.network.partition.consumer.BufferOrEvent;
+import org.apache.flink.runtime.io.network.partition.consumer.InputChannelBuilder;
+import org.apache.flink.runtime.io.network.partition.consumer.InputGate;
+import org.apache.flink.runtime.io.network.partition.consumer.SingleInputGate;
+import org.apache.flink.runtime.io.network.partition.consumer.SingleInputGateBuilder;
+import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
+import org.apache.flink.runtime.operators.testutils.DummyEnvironment;
+import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link CheckpointBarrierUnaligner}.
+ */
+public class CheckpointBarrierUnalignerTest extends TestLogger {
+
+	private static final CheckpointOptions UNALIGNED = new CheckpointOptions(
+		CheckpointType.CHECKPOINT,
+		CheckpointStorageLocationReference.getDefault(),
+		true);
+
+	private static int sizeCounter = 1;
+
+	private final RecordingChannelStateWriter channelStateWriter = new RecordingChannelStateWriter();
+
+	private final RecordingCheckpointHandler handler = new RecordingCheckpointHandler();
+
+	private CheckpointedInputGate inputGate;
+
+	@After
+	public void ensureEmpty() throws Exception {
+		assertFalse(inputGate.pollNext().isPresent());
+		assertTrue(inputGate.isFinished());
+		assertTrue(inputGate.isEmpty());
+
+		inputGate.cleanup();
+	}
+
+	@Test
+	public void testSingleChannelWithBarriers() throws Exception {
+		BufferOrEvent[] sequence = {
+			createBuffer(0), createBuffer(0), createBarrier(1, 0),
+			createBuffer(0), createBarrier(2, 0), createBuffer(0)
+		};
+		inputGate = createInputGate(1, sequence);
+
+		assertOutput(sequence);
+		assertEquals(Arrays.asList(1L, 2L), handler.triggeredCheckpoints);
+		assertEquals(Arrays.asList(1L, 2L), channelStateWriter.finishedInputs);
+		assertTrue(channelStateWriter.inputData.isEmpty());
+		assertTrue(handler.abortedCheckpoints.isEmpty());
+	}
+
+	/**
+	 * Buffers received after the checkpoint was triggered are persisted until the barrier of their
+	 * channel has been received; no channel is ever blocked.
+	 */
+	@Test
+	public void testMultiChannelPersistsBuffersBeforeBarrier() throws Exception {
+		BufferOrEvent[] sequence = {
+			createBuffer(0), createBuffer(1), createBuffer(2),
+			createBarrier(1, 1),
+			createBuffer(1), createBuffer(0), createBuffer(2), createBuffer(0),
+			createBarrier(1, 0),
+			createBuffer(0), createBuffer(2),
+			createBarrier(1, 2),
+			createBuffer(2), createBuffer(0), createBuffer(1)
+		};
+		inputGate = createInputGate(3, sequence);
+
+		assertOutput(sequence);
+		assertEquals(Collections.singletonList(1L), handler.triggeredCheckpoints);
+		assertEquals(Collections.singletonList(1L), channelStateWriter.finishedInputs);
+		assertEquals(2, channelStateWriter.inputData.size());
+		assertEquals(
+			Arrays.asList(sequence[5].getBuffer().getSize(), sequence[7].getBuffer().getSize()),
+			channelStateWriter.inputData.get(new InputChannelInfo(0, 0)));
+		assertEquals(
+			Arrays.asList(sequence[6].getBuffer().getSize(), sequence[10].getBuffer().getSize()),
+			channelStateWriter.inputData.get(new InputChannelInfo(0, 2)));
+		assertEquals(0, inputGate.getAlignmentDurationNanos());
+	}
+
+	@Test
+	public void testSubsumedCheckpoint() throws Exception {
+		BufferOrEvent[] sequence = {
+			createBarrier(1, 0), createBuffer(1),
+			createBarrier(2, 1), createBuffer(0),
+			createBarrier(1, 1), createBarrier(2, 0),
+			createBuffer(1)
+		};
+		inputGate = createInputGate(2, sequence);
+
+		assertOutput(sequence);
+		assertEquals(Arrays.asList(1L, 2L), handler.triggeredCheckpoints);
+		assertEquals(Collections.singletonList(1L), handler.abortedCheckpoints);
+		assertEquals(
+			Collections.singletonList(CheckpointFailureReason.CHECKPOINT_DECLINED_SUBSUMED),
+			handler.failureReasons);
+		assertEquals(Collections.singletonList(2L), channelStateWriter.finishedInputs);
+		// the buffer of channel 0 belongs to checkpoint 2, the one of channel 1 to the aborted checkpoint 1
+		assertEquals(
+			Collections.singletonMap(new InputChannelInfo(0, 0), Collections.singletonList(sequence[3].getBuffer().getSize())),
+			channelStateWriter.inputData);
+	}
+
+	@Test
+	public void testCancellationBarrier() throws Exception {
+		BufferOrEvent[] sequence = {
+			createBarrier(1, 0), createBuffer(1),
+			createCancellationBarrier(1, 1), createBuffer(2),
+			createBarrier(1, 2), createBuffer(0)
+		};
+		inputGate = createInputGate(3, sequence);
+
+		assertOutput(sequence);
+		assertEquals(Collections.singletonList(1L), handler.triggeredCheckpoints);
+		assertEquals(Collections.singletonList(1L), handler.abortedCheckpoints);
+		assertEquals(
+			Collections.singletonList(CheckpointFailureReason.CHECKPOINT_DECLINED_ON_CANCELLATION_BARRIER),
+			handler.failureReasons);
+		assertTrue(channelStateWriter.finishedInputs.isEmpty());
+		// the buffers of the canceled checkpoint are discarded, later buffers are not persisted anymore
+		assertTrue(channelStateWriter.inputData.isEmpty());
+	}
+
+	@Test
+	public void testEndOfPartitionAbortsPendingCheckpoint() throws Exception {
+		BufferOrEvent[] sequence = {
+			createBarrier(1, 0), createBuffer(1),
+			createEndOfPartition(1), createBuffer(0),
+			createEndOfPartition(0)
+		};
+		inputGate = createInputGate(2, sequence);
+
+		assertOutput(sequence);
+		assertEquals(Collections.singletonList(1L), handler.triggeredCheckpoints);
+		assertEquals(Collections.singletonList(1L), handler.abortedCheckpoints);
+		assertEquals(
+			Collections.singletonList(CheckpointFailureReason.CHECKPOINT_DECLINED_INPUT_END_OF_STREAM),
+			handler.failureReasons);
+		assertTrue(channelStateWriter.finishedInputs.isEmpty());
+	}
+
+	// ------------------------------------------------------------------------
+	//  Utils
+	// ------------------------------------------------------------------------
+
+	private CheckpointedInputGate createInputGate(int numberOfChannels, BufferOrEvent[] sequence) {
+		// the channels are only used to look up the buffers overtaken by the barriers
+		SingleInputGate channelGate = new SingleInputGateBuilder().setNumberOfChannels(numberOfChannels).build();
+		InputChannelInfo[] channelInfos = new InputChannelInfo[numberOfChannels];
+		for (int i = 0; i < numberOfChannels; i++) {
+			InputChannelBuilder.newBuilder().setChannelIndex(i).buildLocalAndSetToGate(channelGate);
+			channelInfos[i] = new InputChannelInfo(0, i);
+		}
+
+		CheckpointBarrierUnaligner barrierHandler = new CheckpointBarrierUnaligner(
+			channelInfos,
+			new InputGate[] {channelGate},
+			channelStateWriter,
+			"test",
+			handler);
+		return new CheckpointedInputGate(
+			new MockInputGate(numberOfChannels, Arrays.asList(sequence)),
+			new EmptyBufferStorage(),
+			barrierHandler);
+	}
+
+	/**
+	 * Checks that every buffer and end of partition event is passed through in order.
+	 */
+	private void assertOutput(BufferOrEvent[] sequence) throws Exception {
+		for (BufferOrEvent boe : sequence) {
+			if (boe.isBuffer() || boe.getEvent().getClass() == EndOfPartitionEvent.class) {
+				assertEquals(boe, inputGate.pollNext().get());
+			}
+		}
+	}
+
+	private static BufferOrEvent createBarrier(long checkpointId, int channel) {
+		return new BufferOrEvent(new CheckpointBarrier(checkpointId, System.currentTimeMillis(), UNALIGNED), channel);
+	}
+
+	private static BufferOrEvent createCancellationBarrier(long checkpointId, int channel) {
+		return new BufferOrEvent(new CancelCheckpointMarker(checkpointId), channel);
+	}
+
+	private static BufferOrEvent createBuffer(int channel) {
+		final int size = sizeCounter++;
+		Buffer buffer = new NetworkBuffer(
+			MemorySegmentFactory.allocateUnpooledSegment(size),
+			FreeingBufferRecycler.INSTANCE,
+			true,
+			size);
+		return new BufferOrEvent(buffer, channel);
+	}
+
+	private static BufferOrEvent createEndOfPartition(int channel) {
+		return new BufferOrEvent(EndOfPartitionEvent.INSTANCE, channel);
+	}
+
+	// ------------------------------------------------------------------------
+	//  Testing Mocks
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Records the sizes of the persisted input buffers and the finished checkpoints.
+	 */
+	private static class RecordingChannelStateWriter implements ChannelStateWriter {
+
+		private final Map<InputChannelInfo, List<Integer>> inputData = new HashMap<>();
+
+		private final List<Long> finishedInputs = new ArrayList<>();
+
+		@Override
+		public void start(long checkpointId, CheckpointStreamFactory streamFactory) {
+		}
+
+		@Override
+		public void addInputData(long checkpointId, InputChannelInfo info, Buffer... data) {
+			for (Buffer buffer : data) {
+				inputData.computeIfAbsent(info, ignored -> new ArrayList<>()).add(buffer.getSize());
+				buffer.recycleBuffer();
+			}
+		}
+
+		@Override
+		public void addOutputData(long checkpointId, ResultSubpartitionInfo info, Buffer... data) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void finishInput(long checkpointId) {
+			finishedInputs.add(checkpointId);
+		}
+
+		@Override
+		public void finishOutput(long checkpointId) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void abort(long checkpointId, Throwable cause) {
+			// the aborted data is cleared
+			inputData.clear();
+		}
+
+		@Override
+		public CompletableFuture<ChannelStateWriteResult> getWriteResult(long checkpointId) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/**
+	 * Records the triggered and aborted checkpoints.
+	 */
+	private class RecordingCheckpointHandler extends AbstractInvokable {
+
+		private final List<Long> triggeredCheckpoints = new ArrayList<>();
+
+		private final List<Long> abortedCheckpoints = new ArrayList<>();
+
+		private final List<CheckpointFailureReason> failureReasons = new ArrayList<>();
+
+		RecordingCheckpointHandler() {
+			super(new DummyEnvironment("test", 1, 0));
+		}
+
+		@Override
+		public void invoke() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Future<Boolean> triggerCheckpointAsync(
+				CheckpointMetaData checkpointMetaData,
+				CheckpointOptions checkpointOptions,
+				boolean advanceToEndOfEventTime) {
+			throw new UnsupportedOperationException("should never be called");
+		}
+
+		@Override
+		public void triggerCheckpointOnBarrier(
+				CheckpointMetaData checkpointMetaData,
+				CheckpointOptions checkpointOptions,
+				CheckpointMetrics checkpointMetrics) {
+			assertTrue(checkpointOptions.isUnalignedCheckpoint());
+			assertEquals(0L, checkpointMetrics.getAlignmentDurationNanos());
+			triggeredCheckpoints.add(checkpointMetaData.getCheckpointId());
+		}
+
+		@Override
+		public void abortCheckpointOnBarrier(long checkpointId, Throwable cause) {
+			abortedCheckpoints.add(checkpointId);
+			failureReasons.add(((CheckpointException) cause).getCheckpointFailureReason());
+			channelStateWriter.abort(checkpointId, cause);
+		}
+
+		@Override
+		public Future<Void> notifyCheckpointCompleteAsync(long checkpointId) {
+			throw new UnsupportedOperationException("should never be called");
+		}
+	}
+}
@@ -21,6 +21,7 @@ package org.apache.flink.streaming.runtime.io;
 import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
 import org.apache.flink.runtime.io.network.partition.consumer.BufferOrEvent;
+import org.apache.flink.runtime.io.network.partition.consumer.InputChannel;
 import org.apache.flink.runtime.io.network.partition.consumer.InputGate;
 
 import java.util.ArrayDeque;
@@ -66,6 +67,11 @@ public class MockInputGate extends InputGate {
 		return numberOfChannels;
 	}
 
+	@Override
+	public InputChannel getChannel(int channelIndex) {
+		throw new UnsupportedOperationException();
+	}
+
 	@Override
 	public boolean isFinished() {
 		return finishAfterLastBuffer && bufferOrEvents.isEmpty();
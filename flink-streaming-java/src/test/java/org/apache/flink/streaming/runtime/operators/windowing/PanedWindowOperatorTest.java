@@ -0,0 +1,494 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.state.AggregatingStateDescriptor;
+import org.apache.flink.api.common.state.AppendingState;
+import org.apache.flink.api.common.state.ListStateDescriptor;
+import org.apache.flink.api.common.state.ReducingStateDescriptor;
+import org.apache.flink.api.common.state.StateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeHint;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.streaming.api.functions.windowing.PassThroughWindowFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.SlidingProcessingTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.TumblingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.api.windowing.triggers.CountTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.EventTimeTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.ProcessingTimeTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.Trigger;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.runtime.operators.windowing.functions.InternalSingleValueWindowFunction;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.util.OutputTag;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link PanedWindowOperator}. The results of the operator are compared with the results
+ * of a {@link WindowOperator} with the same window assigner and function.
+ */
+public class PanedWindowOperatorTest extends TestLogger {
+
+	private static final TypeInformation<Tuple2<String, Integer>> STRING_INT_TUPLE =
+		TypeInformation.of(new TypeHint<Tuple2<String, Integer>>(){});
+
+	private static final OutputTag<Tuple2<String, Integer>> LATE_OUTPUT_TAG =
+		new OutputTag<Tuple2<String, Integer>>("late-output") {};
+
+	@Test
+	public void testCanUsePanes() {
+		assertTrue(PanedWindowOperator.canUsePanes(
+			SlidingEventTimeWindows.of(Time.seconds(3), Time.seconds(1)), EventTimeTrigger.create()));
+		assertTrue(PanedWindowOperator.canUsePanes(
+			SlidingProcessingTimeWindows.of(Time.seconds(3), Time.seconds(1)), ProcessingTimeTrigger.create()));
+
+		assertFalse(PanedWindowOperator.canUsePanes(
+			SlidingEventTimeWindows.of(Time.seconds(3), Time.seconds(1)), CountTrigger.of(2)));
+		assertFalse(PanedWindowOperator.canUsePanes(
+			SlidingEventTimeWindows.of(Time.seconds(3), Time.seconds(1)), ProcessingTimeTrigger.create()));
+		assertFalse(PanedWindowOperator.canUsePanes(
+			SlidingEventTimeWindows.of(Time.seconds(1), Time.seconds(3)), EventTimeTrigger.create()));
+		assertFalse(PanedWindowOperator.canUsePanes(
+			TumblingEventTimeWindows.of(Time.seconds(3)), EventTimeTrigger.create()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsListState() {
+		new PanedWindowOperator<>(
+			SlidingEventTimeWindows.of(Time.seconds(3), Time.seconds(1)),
+			new TimeWindow.Serializer(),
+			new TupleKeySelector(),
+			BasicTypeInfo.STRING_TYPE_INFO.createSerializer(new ExecutionConfig()),
+			new ListStateDescriptor<>("window-panes", STRING_INT_TUPLE.createSerializer(new ExecutionConfig())),
+			new InternalSingleValueWindowFunction<>(new PassThroughWindowFunction<String, TimeWindow, Iterable<Tuple2<String, Integer>>>()),
+			EventTimeTrigger.create(),
+			0,
+			null);
+	}
+
+	@Test
+	public void testPaneSize() {
+		PanedWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> operator =
+			createReducingOperator(SlidingEventTimeWindows.of(Time.milliseconds(10), Time.milliseconds(4)), EventTimeTrigger.create(), 0, null);
+		assertEquals(2, operator.getPaneSize());
+	}
+
+	@Test
+	public void testEventTimeReduce() throws Exception {
+		SlidingEventTimeWindows assigner = SlidingEventTimeWindows.of(Time.milliseconds(10), Time.milliseconds(4));
+		testEventTime(
+			createReducingOperator(assigner, EventTimeTrigger.create(), 0, null),
+			createReferenceOperator(assigner, EventTimeTrigger.create(), reducingStateDescriptor(), 0, null));
+	}
+
+	@Test
+	public void testEventTimeAggregate() throws Exception {
+		SlidingEventTimeWindows assigner = SlidingEventTimeWindows.of(Time.milliseconds(9), Time.milliseconds(3), Time.milliseconds(1));
+		testEventTime(
+			createAggregatingOperator(assigner, EventTimeTrigger.create(), 0, null),
+			createReferenceOperator(assigner, EventTimeTrigger.create(), aggregatingStateDescriptor(), 0, null));
+	}
+
+	@Test
+	public void testAggregateFunctionWithoutMergeFailsOnOpen() throws Exception {
+		AggregatingStateDescriptor<Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> stateDescriptor =
+			new AggregatingStateDescriptor<>("window-panes",
+				new NonMergingSumAggregator(),
+				STRING_INT_TUPLE.createSerializer(new ExecutionConfig()));
+
+		KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+			createTestHarness(createOperator(
+				SlidingEventTimeWindows.of(Time.milliseconds(10), Time.milliseconds(4)),
+				EventTimeTrigger.create(),
+				stateDescriptor,
+				0,
+				null));
+
+		try {
+			testHarness.open();
+			fail("Expected an UnsupportedOperationException.");
+		} catch (UnsupportedOperationException e) {
+			assertTrue(e.getMessage().contains(NonMergingSumAggregator.class.getName()));
+		}
+	}
+
+	@Test
+	public void testEventTimeWithAllowedLateness() throws Exception {
+		SlidingEventTimeWindows assigner = SlidingEventTimeWindows.of(Time.milliseconds(12), Time.milliseconds(8));
+		testEventTime(
+			createReducingOperator(assigner, EventTimeTrigger.create(), 7, LATE_OUTPUT_TAG),
+			createReferenceOperator(assigner, EventTimeTrigger.create(), reducingStateDescriptor(), 7, LATE_OUTPUT_TAG));
+	}
+
+	@Test
+	public void testEventTimeAggregateWithAllowedLateness() throws Exception {
+		SlidingEventTimeWindows assigner = SlidingEventTimeWindows.of(Time.milliseconds(10), Time.milliseconds(5));
+		testEventTime(
+			createAggregatingOperator(assigner, EventTimeTrigger.create(), 4, null),
+			createReferenceOperator(assigner, EventTimeTrigger.create(), aggregatingStateDescriptor(), 4, null));
+	}
+
+	@Test
+	public void testProcessingTime() throws Exception {
+		SlidingProcessingTimeWindows assigner = SlidingProcessingTimeWindows.of(Time.milliseconds(10), Time.milliseconds(4));
+
+		KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+			createTestHarness(createReducingOperator(assigner, ProcessingTimeTrigger.create(), 0, null));
+		KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> referenceHarness =
+			createTestHarness(createReferenceOperator(assigner, ProcessingTimeTrigger.create(), reducingStateDescriptor(), 0, null));
+		testHarness.open();
+		referenceHarness.open();
+
+		Random random = new Random(42L);
+		long time = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (random.nextInt(5) == 0) {
+				// elements which arrive in the millisecond in which their window fired are
+				// emitted differently, so the time never hits the (odd) end of a window
+				time += 2 * random.nextInt(3);
+				testHarness.setProcessingTime(time);
+				referenceHarness.setProcessingTime(time);
+			}
+
+			Tuple2<String, Integer> value = new Tuple2<>("key" + random.nextInt(3), random.nextInt(10));
+			testHarness.processElement(new StreamRecord<>(value));
+			referenceHarness.processElement(new StreamRecord<>(value));
+		}
+
+		testHarness.setProcessingTime(time + 100);
+		referenceHarness.setProcessingTime(time + 100);
+
+		assertEquals(getResults(referenceHarness.getOutput()), getResults(testHarness.getOutput()));
+		assertEquals(0, testHarness.numKeyedStateEntries());
+
+		testHarness.close();
+		referenceHarness.close();
+	}
+
+	@Test
+	public void testSnapshotAndRestore() throws Exception {
+		SlidingEventTimeWindows assigner = SlidingEventTimeWindows.of(Time.milliseconds(10), Time.milliseconds(2));
+
+		KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+			createTestHarness(createReducingOperator(assigner, EventTimeTrigger.create(), 0, null));
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 0));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 2), 3));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 4), 5));
+		testHarness.processWatermark(new Watermark(3));
+
+		List<Tuple3Result> results = new ArrayList<>(getResults(testHarness.getOutput()));
+
+		OperatorSubtaskState snapshot = testHarness.snapshot(0L, 0L);
+		testHarness.close();
+
+		testHarness = createTestHarness(createReducingOperator(assigner, EventTimeTrigger.create(), 0, null));
+		testHarness.setup();
+		testHarness.initializeState(snapshot);
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 8), 9));
+		testHarness.processWatermark(new Watermark(100));
+		results.addAll(getResults(testHarness.getOutput()));
+		Collections.sort(results);
+
+		List<Tuple3Result> expected = new ArrayList<>();
+		// windows [-8, 2) and [-6, 4) fired before the snapshot
+		expected.add(new Tuple3Result(1, "key1", 1));
+		expected.add(new Tuple3Result(3, "key1", 3));
+		expected.add(new Tuple3Result(5, "key1", 3));
+		expected.add(new Tuple3Result(5, "key2", 4));
+		expected.add(new Tuple3Result(7, "key1", 3));
+		expected.add(new Tuple3Result(7, "key2", 4));
+		expected.add(new Tuple3Result(9, "key1", 11));
+		expected.add(new Tuple3Result(9, "key2", 4));
+		expected.add(new Tuple3Result(11, "key1", 10));
+		expected.add(new Tuple3Result(11, "key2", 4));
+		expected.add(new Tuple3Result(13, "key1", 8));
+		expected.add(new Tuple3Result(13, "key2", 4));
+		expected.add(new Tuple3Result(15, "key1", 8));
+		expected.add(new Tuple3Result(17, "key1", 8));
+		Collections.sort(expected);
+
+		assertEquals(expected, results);
+		assertEquals(0, testHarness.numKeyedStateEntries());
+
+		testHarness.close();
+	}
+
+	private void testEventTime(
+			PanedWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> operator,
+			WindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>, TimeWindow> referenceOperator) throws Exception {
+
+		KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+			createTestHarness(operator);
+		KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> referenceHarness =
+			createTestHarness(referenceOperator);
+		testHarness.open();
+		referenceHarness.open();
+
+		Random random = new Random(42L);
+		long watermark = 0;
+		for (int i = 0; i < 2000; i++) {
+			if (random.nextInt(10) == 0) {
+				watermark += random.nextInt(8);
+				testHarness.processWatermark(new Watermark(watermark));
+				referenceHarness.processWatermark(new Watermark(watermark));
+			}
+
+			// elements are out-of-order and some of them are late
+			long timestamp = Math.max(0, watermark + random.nextInt(30) - 12);
+			Tuple2<String, Integer> value = new Tuple2<>("key" + random.nextInt(3), random.nextInt(10));
+			testHarness.processElement(new StreamRecord<>(value, timestamp));
+			referenceHarness.processElement(new StreamRecord<>(value, timestamp));
+		}
+
+		testHarness.processWatermark(new Watermark(Long.MAX_VALUE));
+		referenceHarness.processWatermark(new Watermark(Long.MAX_VALUE));
+
+		assertEquals(getResults(referenceHarness.getOutput()), getResults(testHarness.getOutput()));
+		if (referenceHarness.getSideOutput(LATE_OUTPUT_TAG) != null) {
+			assertEquals(
+				getResults(referenceHarness.getSideOutput(LATE_OUTPUT_TAG)),
+				getResults(testHarness.getSideOutput(LATE_OUTPUT_TAG)));
+		}
+		assertEquals(0, testHarness.numKeyedStateEntries());
+
+		testHarness.close();
+		referenceHarness.close();
+	}
+
+	// ------------------------------------------------------------------------
+	//  Utilities
+	// ------------------------------------------------------------------------
+
+	private static KeyedOneInputStreamOperatorTestHarness<String, Tuple2<String, Integer>, Tuple2<String, Integer>> createTestHarness(
+			WindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>, TimeWindow> operator) throws Exception {
+		return new KeyedOneInputStreamOperatorTestHarness<>(operator, new TupleKeySelector(), BasicTypeInfo.STRING_TYPE_INFO);
+	}
+
+	private static PanedWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> createReducingOperator(
+			WindowAssigner<Object, TimeWindow> assigner,
+			Trigger<Object, TimeWindow> trigger,
+			long allowedLateness,
+			OutputTag<Tuple2<String, Integer>> lateDataOutputTag) {
+		return createOperator(assigner, trigger, reducingStateDescriptor(), allowedLateness, lateDataOutputTag);
+	}
+
+	private static PanedWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> createAggregatingOperator(
+			WindowAssigner<Object, TimeWindow> assigner,
+			Trigger<Object, TimeWindow> trigger,
+			long allowedLateness,
+			OutputTag<Tuple2<String, Integer>> lateDataOutputTag) {
+		return createOperator(assigner, trigger, aggregatingStateDescriptor(), allowedLateness, lateDataOutputTag);
+	}
+
+	private static PanedWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> createOperator(
+			WindowAssigner<Object, TimeWindow> assigner,
+			Trigger<Object, TimeWindow> trigger,
+			StateDescriptor<? extends AppendingState<Tuple2<String, Integer>, Tuple2<String, Integer>>, ?> stateDescriptor,
+			long allowedLateness,
+			OutputTag<Tuple2<String, Integer>> lateDataOutputTag) {
+		return new PanedWindowOperator<>(
+			assigner,
+			new TimeWindow.Serializer(),
+			new TupleKeySelector(),
+			BasicTypeInfo.STRING_TYPE_INFO.createSerializer(new ExecutionConfig()),
+			stateDescriptor,
+			new InternalSingleValueWindowFunction<>(new PassThroughWindowFunction<String, TimeWindow, Tuple2<String, Integer>>()),
+			trigger,
+			allowedLateness,
+			lateDataOutputTag);
+	}
+
+	private static WindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>, TimeWindow> createReferenceOperator(
+			WindowAssigner<Object, TimeWindow> assigner,
+			Trigger<Object, TimeWindow> trigger,
+			StateDescriptor<? extends AppendingState<Tuple2<String, Integer>, Tuple2<String, Integer>>, ?> stateDescriptor,
+			long allowedLateness,
+			OutputTag<Tuple2<String, Integer>> lateDataOutputTag) {
+		return new WindowOperator<>(
+			assigner,
+			new TimeWindow.Serializer(),
+			new TupleKeySelector(),
+			BasicTypeInfo.STRING_TYPE_INFO.createSerializer(new ExecutionConfig()),
+			stateDescriptor,
+			new InternalSingleValueWindowFunction<>(new PassThroughWindowFunction<String, TimeWindow, Tuple2<String, Integer>>()),
+			trigger,
+			allowedLateness,
+			lateDataOutputTag);
+	}
+
+	private static ReducingStateDescriptor<Tuple2<String, Integer>> reducingStateDescriptor() {
+		return new ReducingStateDescriptor<>("window-panes",
+			new SumReducer(),
+			STRING_INT_TUPLE.createSerializer(new ExecutionConfig()));
+	}
+
+	private static AggregatingStateDescriptor<Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> aggregatingStateDescriptor() {
+		return new AggregatingStateDescriptor<>("window-panes",
+			new SumAggregator(),
+			STRING_INT_TUPLE.createSerializer(new ExecutionConfig()));
+	}
+
+	/**
+	 * Returns the sorted results of the given output, without watermarks.
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<Tuple3Result> getResults(Collection<?> output) {
+		List<Tuple3Result> results = new ArrayList<>();
+		for (Object element : output) {
+			if (element instanceof StreamRecord) {
+				StreamRecord<Tuple2<String, Integer>> record = (StreamRecord<Tuple2<String, Integer>>) element;
+				results.add(new Tuple3Result(record.getTimestamp(), record.getValue().f0, record.getValue().f1));
+			}
+		}
+		Collections.sort(results);
+		return results;
+	}
+
+	/**
+	 * A result of a window, comparable by timestamp, key and value.
+	 */
+	private static class Tuple3Result implements Comparable<Tuple3Result> {
+
+		private final long timestamp;
+		private final String key;
+		private final int value;
+
+		Tuple3Result(long timestamp, String key, int value) {
+			this.timestamp = timestamp;
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public int compareTo(Tuple3Result other) {
+			if (timestamp != other.timestamp) {
+				return Long.compare(timestamp, other.timestamp);
+			}
+			int comparison = key.compareTo(other.key);
+			return comparison != 0 ? comparison : Integer.compare(value, other.value);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Tuple3Result)) {
+				return false;
+			}
+			return compareTo((Tuple3Result) obj) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * Long.hashCode(timestamp) + key.hashCode()) + value;
+		}
+
+		@Override
+		public String toString() {
+			return "(" + timestamp + ", " + key + ", " + value + ")";
+		}
+	}
+
+	private static class SumReducer implements ReduceFunction<Tuple2<String, Integer>> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Tuple2<String, Integer> reduce(Tuple2<String, Integer> value1, Tuple2<String, Integer> value2) {
+			return new Tuple2<>(value2.f0, value1.f1 + value2.f1);
+		}
+	}
+
+	/**
+	 * Sums the values in place in the accumulator, to verify that merging does not modify the panes.
+	 */
+	private static class SumAggregator implements AggregateFunction<Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Tuple2<String, Integer> createAccumulator() {
+			return new Tuple2<>("", 0);
+		}
+
+		@Override
+		public Tuple2<String, Integer> add(Tuple2<String, Integer> value, Tuple2<String, Integer> accumulator) {
+			accumulator.f0 = value.f0;
+			accumulator.f1 += value.f1;
+			return accumulator;
+		}
+
+		@Override
+		public Tuple2<String, Integer> getResult(Tuple2<String, Integer> accumulator) {
+			return new Tuple2<>(accumulator.f0, accumulator.f1);
+		}
+
+		@Override
+		public Tuple2<String, Integer> merge(Tuple2<String, Integer> a, Tuple2<String, Integer> b) {
+			a.f0 = b.f0;
+			a.f1 += b.f1;
+			return a;
+		}
+	}
+
+	/**
+	 * A {@link SumAggregator} which does not support merging.
+	 */
+	private static class NonMergingSumAggregator extends SumAggregator {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Tuple2<String, Integer> merge(Tuple2<String, Integer> a, Tuple2<String, Integer> b) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static class TupleKeySelector implements KeySelector<Tuple2<String, Integer>, String> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String getKey(Tuple2<String, Integer> value) {
+			return value.f0;
+		}
+	}
+}
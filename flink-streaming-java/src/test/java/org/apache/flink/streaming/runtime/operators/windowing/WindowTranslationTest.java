@@ -283,6 +283,96 @@ public class WindowTranslationTest {
 		processElementAndEnsureOutput(winOperator, winOperator.getKeySelector(), BasicTypeInfo.STRING_TYPE_INFO,  1);
 	}
 
+	@Test(expected = UnsupportedOperationException.class)
+	public void testPanesWithTumblingWindows() {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+		DataStream<Tuple2<String, Integer>> source = env.fromElements(Tuple2.of("hello", 1), Tuple2.of("hello", 2));
+
+		source
+			.keyBy(new TupleKeySelector())
+			.window(TumblingEventTimeWindows.of(Time.of(1, TimeUnit.SECONDS)))
+			.enablePanes();
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void testReduceWithPanes() throws Exception {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		env.setStreamTimeCharacteristic(TimeCharacteristic.IngestionTime);
+
+		DataStream<Tuple2<String, Integer>> source = env.fromElements(Tuple2.of("hello", 1), Tuple2.of("hello", 2));
+
+		DataStream<Tuple2<String, Integer>> window1 = source
+				.keyBy(new TupleKeySelector())
+				.window(SlidingEventTimeWindows.of(Time.of(1, TimeUnit.SECONDS), Time.of(100, TimeUnit.MILLISECONDS)))
+				.enablePanes()
+				.reduce(new DummyReducer());
+
+		OneInputTransformation<Tuple2<String, Integer>, Tuple2<String, Integer>> transform = (OneInputTransformation<Tuple2<String, Integer>, Tuple2<String, Integer>>) window1.getTransformation();
+		OneInputStreamOperator<Tuple2<String, Integer>, Tuple2<String, Integer>> operator = transform.getOperator();
+		Assert.assertTrue(operator instanceof PanedWindowOperator);
+		PanedWindowOperator<String, Tuple2<String, Integer>, ?, ?> winOperator = (PanedWindowOperator<String, Tuple2<String, Integer>, ?, ?>) operator;
+		Assert.assertEquals(100, winOperator.getPaneSize());
+		Assert.assertTrue(winOperator.getStateDescriptor() instanceof ReducingStateDescriptor);
+		Assert.assertEquals("window-panes", winOperator.getStateDescriptor().getName());
+
+		processElementAndEnsureOutput(winOperator, winOperator.getKeySelector(), BasicTypeInfo.STRING_TYPE_INFO, new Tuple2<>("hello", 1));
+	}
+
+	@Test
+	public void testAggregateWithPanes() throws Exception {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		env.setStreamTimeCharacteristic(TimeCharacteristic.ProcessingTime);
+
+		DataStream<Tuple3<String, String, Integer>> source = env.fromElements(
+			Tuple3.of("hello", "hallo", 1),
+			Tuple3.of("hello", "hallo", 2));
+
+		DataStream<String> window = source
+				.keyBy(new Tuple3KeySelector())
+				.window(SlidingProcessingTimeWindows.of(Time.of(1, TimeUnit.SECONDS), Time.of(300, TimeUnit.MILLISECONDS)))
+				.enablePanes()
+				.aggregate(new DummyAggregationFunction(), new TestProcessWindowFunction());
+
+		final OneInputTransformation<Tuple3<String, String, Integer>, String> transform =
+			(OneInputTransformation<Tuple3<String, String, Integer>, String>) window.getTransformation();
+
+		final OneInputStreamOperator<Tuple3<String, String, Integer>, String> operator = transform.getOperator();
+
+		Assert.assertTrue(operator instanceof PanedWindowOperator);
+		PanedWindowOperator<String, Tuple3<String, String, Integer>, ?, ?> winOperator =
+			(PanedWindowOperator<String, Tuple3<String, String, Integer>, ?, ?>) operator;
+
+		Assert.assertEquals(100, winOperator.getPaneSize());
+		Assert.assertTrue(winOperator.getStateDescriptor() instanceof AggregatingStateDescriptor);
+
+		processElementAndEnsureOutput(
+				operator, winOperator.getKeySelector(), BasicTypeInfo.STRING_TYPE_INFO, new Tuple3<>("hello", "hallo", 1));
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void testPanesAreNotUsedWithCustomTrigger() throws Exception {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		env.setStreamTimeCharacteristic(TimeCharacteristic.IngestionTime);
+
+		DataStream<Tuple2<String, Integer>> source = env.fromElements(Tuple2.of("hello", 1), Tuple2.of("hello", 2));
+
+		DataStream<Tuple2<String, Integer>> window1 = source
+				.keyBy(new TupleKeySelector())
+				.window(SlidingEventTimeWindows.of(Time.of(1, TimeUnit.SECONDS), Time.of(100, TimeUnit.MILLISECONDS)))
+				.enablePanes()
+				.trigger(CountTrigger.of(1))
+				.reduce(new DummyReducer());
+
+		OneInputTransformation<Tuple2<String, Integer>, Tuple2<String, Integer>> transform = (OneInputTransformation<Tuple2<String, Integer>, Tuple2<String, Integer>>) window1.getTransformation();
+		OneInputStreamOperator<Tuple2<String, Integer>, Tuple2<String, Integer>> operator = transform.getOperator();
+		Assert.assertTrue(operator instanceof WindowOperator);
+		Assert.assertFalse(operator instanceof PanedWindowOperator);
+		Assert.assertEquals("window-contents", ((WindowOperator<?, ?, ?, ?, ?>) operator).getStateDescriptor().getName());
+	}
+
 	// ------------------------------------------------------------------------
 	//  Reduce Translation Tests
 	// ------------------------------------------------------------------------
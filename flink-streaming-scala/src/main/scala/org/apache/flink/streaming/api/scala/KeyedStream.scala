@@ -317,6 +317,46 @@ class KeyedStream[T, K](javaStream: KeyedJavaStream[T, K]) extends DataStream[T]
     reduce(reducer)
   }
 
+  /**
+   * Creates a new [[DataStream]] by reducing the elements of this DataStream like
+   * `reduce`, but pre-combines the elements of each key before they are
+   * partitioned. The local phase keeps at most `maxBufferedKeys` partial results in memory,
+   * which it emits when the buffer is full, every `flushInterval`, on watermarks and on
+   * checkpoints. The global phase then reduces the partial results per key.
+   *
+   * The result stream only contains the reduced values after each partial result rather than
+   * after each input element.
+   */
+  @PublicEvolving
+  def reduceWithLocalAggregation(
+      reducer: ReduceFunction[T],
+      maxBufferedKeys: Int,
+      flushInterval: Time): DataStream[T] = {
+    if (reducer == null) {
+      throw new NullPointerException("Reduce function must not be null.")
+    }
+
+    asScalaStream(javaStream.reduceWithLocalAggregation(reducer, maxBufferedKeys, flushInterval))
+  }
+
+  /**
+   * Creates a new [[DataStream]] by reducing the elements of this DataStream with a local
+   * pre-aggregation phase, like the variant that takes a [[ReduceFunction]].
+   */
+  @PublicEvolving
+  def reduceWithLocalAggregation(
+      maxBufferedKeys: Int,
+      flushInterval: Time)(fun: (T, T) => T): DataStream[T] = {
+    if (fun == null) {
+      throw new NullPointerException("Reduce function must not be null.")
+    }
+    val cleanFun = clean(fun)
+    val reducer = new ReduceFunction[T] {
+      def reduce(v1: T, v2: T) : T = { cleanFun(v1, v2) }
+    }
+    reduceWithLocalAggregation(reducer, maxBufferedKeys, flushInterval)
+  }
+
   /**
    * Creates a new [[DataStream]] by folding the elements of this DataStream
    * using an associative fold function and an initial value. An independent 
@@ -19,10 +19,11 @@
 package org.apache.flink.streaming.api.scala
 
 import com.esotericsoftware.kryo.Serializer
-import org.apache.flink.annotation.{Internal, Public, PublicEvolving}
+import org.apache.flink.annotation.{Experimental, Internal, Public, PublicEvolving}
 import org.apache.flink.api.common.io.{FileInputFormat, FilePathFilter, InputFormat}
 import org.apache.flink.api.common.restartstrategy.RestartStrategies.RestartStrategyConfiguration
 import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.api.connector.source.{Source, SourceSplit}
 import org.apache.flink.api.java.typeutils.ResultTypeQueryable
 import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer
 import org.apache.flink.api.scala.ClosureCleaner
@@ -654,6 +655,21 @@ class StreamExecutionEnvironment(javaEnv: JavaEnv) {
     addSource(sourceFunction)
   }
 
+  /**
+   * Create a DataStream using a [[Source]]. Unlike a [[SourceFunction]], the source splits
+   * its input into splits, which are discovered by a split enumerator running on the JobManager
+   * and assigned dynamically to the parallel source readers.
+   */
+  @Experimental
+  def fromSource[T: TypeInformation](
+      source: Source[T, _ <: SourceSplit, _],
+      sourceName: String): DataStream[T] = {
+    require(source != null, "Source must not be null.")
+
+    val typeInfo = implicitly[TypeInformation[T]]
+    asScalaStream(javaEnv.fromSource(source, sourceName, typeInfo))
+  }
+
   /**
    * Triggers the program execution. The environment will execute all parts of
    * the program that have resulted in a "sink" operation. Sink operations are
@@ -87,6 +87,25 @@ class WindowedStream[T, K, W <: Window](javaStream: JavaWStream[T, K, W]) {
     this
   }
 
+  /**
+   * Enables the slicing of sliding time windows into panes of the greatest common divisor of the
+   * window size and slide. Incrementally aggregated elements are then only added to the
+   * accumulator of their pane, and the accumulators of the panes are merged when a window fires.
+   *
+   * Panes are only used for reduce and aggregate operations on sliding time windows with their
+   * default trigger and without an evictor. The window state of a job with panes is not
+   * compatible with the window state of the same job without panes.
+   *
+   * With panes, an [[AggregateFunction]] must implement `merge()`, which merges the accumulators
+   * of the panes of a window. A job whose function throws an [[UnsupportedOperationException]] in
+   * `merge()` fails when the window operator is opened.
+   */
+  @PublicEvolving
+  def enablePanes(): WindowedStream[T, K, W] = {
+    javaStream.enablePanes()
+    this
+  }
+
   /**
    * Sets the [[Trigger]] that should be used to trigger window emission.
    */
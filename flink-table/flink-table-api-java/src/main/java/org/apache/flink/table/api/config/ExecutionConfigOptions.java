@@ -168,6 +168,60 @@ public class ExecutionConfigOptions {
 			.defaultValue("3 min")
 			.withDescription("The async timeout for the asynchronous operation to complete.");
 
+	// ------------------------------------------------------------------------
+	//  Lookup Cache Options
+	// ------------------------------------------------------------------------
+	@Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+	public static final ConfigOption<Long> TABLE_EXEC_LOOKUP_CACHE_MAX_ROWS =
+		key("table.exec.lookup-cache.max-rows")
+			.defaultValue(0L)
+			.withDescription("The max number of lookup keys whose rows are cached by a lookup join. " +
+				"The cache is shared by the parallel instances of a lookup join that run in the same TaskManager. " +
+				"Concurrent lookups of a key that is not cached are merged into one lookup. " +
+				"The cache is disabled by default, which leaves the caching to the lookup function of the connector.");
+
+	@Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+	public static final ConfigOption<String> TABLE_EXEC_LOOKUP_CACHE_TTL =
+		key("table.exec.lookup-cache.ttl")
+			.defaultValue("10 min")
+			.withDescription("The time after which a cached lookup key expires, measured from the start of its lookup. " +
+				"An expired key is looked up again on its next access.");
+
+	@Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+	public static final ConfigOption<String> TABLE_EXEC_LOOKUP_CACHE_REFRESH_INTERVAL =
+		key("table.exec.lookup-cache.refresh-interval")
+			.defaultValue("0 ms")
+			.withDescription("The time after which the rows of a cached lookup key are refreshed on its next access. " +
+				"The cached rows are returned while the refresh is in progress. " +
+				"Only applies to asynchronous lookup functions, and should be less than '" +
+				TABLE_EXEC_LOOKUP_CACHE_TTL.key() + "'. 0 disables the refresh.");
+
+	// ------------------------------------------------------------------------
+	//  Runtime Filter Options
+	// ------------------------------------------------------------------------
+	@Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+	public static final ConfigOption<Boolean> TABLE_EXEC_RUNTIME_FILTER_ENABLED =
+		key("table.exec.runtime-filter.enabled")
+			.defaultValue(false)
+			.withDescription("Whether a hash join publishes a bloom filter of the join keys of its build side, " +
+				"which drops the rows of the probe side that cannot match before they are shuffled. " +
+				"Only applies to joins that do not output unmatched probe side rows.");
+
+	@Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+	public static final ConfigOption<Long> TABLE_EXEC_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT =
+		key("table.exec.runtime-filter.max-build-row-count")
+			.defaultValue(1000000L)
+			.withDescription("The max estimated row count of the build side of a hash join for which a runtime " +
+				"filter is built. The size of the bloom filter grows with the row count, " +
+				"and the filter is sent through the JobManager.");
+
+	@Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+	public static final ConfigOption<String> TABLE_EXEC_RUNTIME_FILTER_POLL_INTERVAL =
+		key("table.exec.runtime-filter.poll-interval")
+			.defaultValue("1 s")
+			.withDescription("The interval in which the probe side of a hash join asks the JobManager whether " +
+				"the runtime filter is complete. Probe side rows are not filtered until it is.");
+
 	// ------------------------------------------------------------------------
 	//  MiniBatch Options
 	// ------------------------------------------------------------------------
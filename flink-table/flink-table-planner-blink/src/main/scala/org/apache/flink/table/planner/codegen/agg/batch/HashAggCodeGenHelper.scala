@@ -33,10 +33,11 @@ import org.apache.flink.table.planner.expressions.converter.ExpressionConverter
 import org.apache.flink.table.planner.functions.aggfunctions.DeclarativeAggregateFunction
 import org.apache.flink.table.planner.plan.utils.SortUtil
 import org.apache.flink.table.runtime.generated.{NormalizedKeyComputer, RecordComparator}
-import org.apache.flink.table.runtime.operators.aggregate.{BytesHashMap, BytesHashMapSpillMemorySegmentPool}
+import org.apache.flink.table.runtime.operators.aggregate.{BytesHashMap, BytesHashMapSpillMemorySegmentPool, IntKeyBytesHashMap, LongKeyBytesHashMap}
 import org.apache.flink.table.runtime.operators.sort.BufferedKVExternalSorter
 import org.apache.flink.table.runtime.typeutils.BinaryRowSerializer
 import org.apache.flink.table.types.DataType
+import org.apache.flink.table.types.logical.LogicalTypeRoot.{BIGINT, DATE, INTEGER, INTERVAL_DAY_TIME, INTERVAL_YEAR_MONTH, TIME_WITHOUT_TIME_ZONE}
 import org.apache.flink.table.types.logical.{LogicalType, RowType}
 
 import org.apache.calcite.rel.core.AggregateCall
@@ -60,16 +61,35 @@ object HashAggCodeGenHelper {
       aggBufferTypesTerm)
   }
 
+  /**
+    * Returns the [[BytesHashMap]] for the given key type. A single integral key is stored
+    * directly in the bucket area by a [[LongKeyBytesHashMap]] or an [[IntKeyBytesHashMap]].
+    */
+  private[flink] def getHashAggMapClass(keyType: RowType): Class[_ <: BytesHashMap] = {
+    if (keyType.getFieldCount != 1) {
+      classOf[BytesHashMap]
+    } else {
+      keyType.getTypeAt(0).getTypeRoot match {
+        case BIGINT | INTERVAL_DAY_TIME => classOf[LongKeyBytesHashMap]
+        case INTEGER | DATE | TIME_WITHOUT_TIME_ZONE | INTERVAL_YEAR_MONTH =>
+          classOf[IntKeyBytesHashMap]
+        case _ => classOf[BytesHashMap]
+      }
+    }
+  }
+
   private[flink] def prepareHashAggMap(
       ctx: CodeGeneratorContext,
       groupKeyTypesTerm: String,
       aggBufferTypesTerm: String,
-      aggregateMapTerm: String): Unit = {
+      aggregateMapTerm: String,
+      groupKeyType: RowType): Unit = {
     // create aggregate map
     val mapTypeTerm = classOf[BytesHashMap].getName
+    val mapClassTerm = getHashAggMapClass(groupKeyType).getName
     ctx.addReusableMember(s"private transient $mapTypeTerm $aggregateMapTerm;")
     ctx.addReusableOpenStatement(s"$aggregateMapTerm " +
-        s"= new $mapTypeTerm(" +
+        s"= new $mapClassTerm(" +
         s"this.getContainingTask()," +
         s"this.getContainingTask().getEnvironment().getMemoryManager()," +
         s"computeMemorySize()," +
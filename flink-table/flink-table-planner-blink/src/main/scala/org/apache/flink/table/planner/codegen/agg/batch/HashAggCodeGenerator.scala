@@ -96,7 +96,8 @@ class HashAggCodeGenerator(
       ctx,
       groupKeyTypesTerm,
       aggBufferTypesTerm,
-      aggregateMapTerm)
+      aggregateMapTerm,
+      groupKeyRowType)
 
     val outputTerm = CodeGenUtils.newName("hashAggOutput")
     val (reuseAggMapEntryTerm, reuseGroupKeyTerm, reuseAggBufferTerm) =
@@ -737,7 +737,8 @@ class HashWindowCodeGenerator(
     prepareHashAggKVTypes(
       ctx, aggMapKeyTypesTerm, aggBufferTypesTerm, aggMapKeyRowType, aggBufferRowType)
     val aggregateMapTerm = CodeGenUtils.newName("aggregateMap")
-    prepareHashAggMap(ctx, aggMapKeyTypesTerm, aggBufferTypesTerm, aggregateMapTerm)
+    prepareHashAggMap(
+      ctx, aggMapKeyTypesTerm, aggBufferTypesTerm, aggregateMapTerm, aggMapKeyRowType)
 
     // gen code to do aggregate by window using aggregate map
     val currentAggBufferTerm =
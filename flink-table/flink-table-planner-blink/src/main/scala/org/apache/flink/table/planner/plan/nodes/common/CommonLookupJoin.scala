@@ -35,11 +35,11 @@ import org.apache.flink.table.planner.functions.utils.UserDefinedFunctionUtils.{
 import org.apache.flink.table.planner.plan.nodes.FlinkRelNode
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNode
 import org.apache.flink.table.planner.plan.utils.LookupJoinUtil._
-import org.apache.flink.table.planner.plan.utils.{JoinTypeUtil, RelExplainUtil}
+import org.apache.flink.table.planner.plan.utils.{JoinTypeUtil, KeySelectorUtil, RelExplainUtil}
 import org.apache.flink.table.planner.plan.utils.PythonUtil.containsPythonCall
 import org.apache.flink.table.planner.plan.utils.RelExplainUtil.preferExpressionFormat
 import org.apache.flink.table.planner.utils.TableConfigUtils.getMillisecondFromConfigDuration
-import org.apache.flink.table.runtime.operators.join.lookup.{AsyncLookupJoinRunner, AsyncLookupJoinWithCalcRunner, LookupJoinRunner, LookupJoinWithCalcRunner}
+import org.apache.flink.table.runtime.operators.join.lookup.{AsyncLookupJoinRunner, AsyncLookupJoinWithCalcRunner, LookupCacheDescriptor, LookupJoinRunner, LookupJoinWithCalcRunner}
 import org.apache.flink.table.runtime.types.ClassLogicalTypeConverter
 import org.apache.flink.table.runtime.types.ClassLogicalTypeConverter.getInternalClassForType
 import org.apache.flink.table.runtime.types.LogicalTypeDataTypeConverter.fromDataTypeToLogicalType
@@ -62,7 +62,7 @@ import org.apache.calcite.sql.validate.SqlValidatorUtil
 import org.apache.calcite.tools.RelBuilder
 import org.apache.calcite.util.mapping.IntPair
 
-import java.util.Collections
+import java.util.{Collections, UUID}
 import java.util.concurrent.CompletableFuture
 
 import scala.collection.JavaConverters._
@@ -236,6 +236,12 @@ abstract class CommonLookupJoin(
 
     val lookupableTableSource = tableSource.asInstanceOf[LookupableTableSource[_]]
     val leftOuterJoin = joinType == JoinRelType.LEFT
+    val lookupCacheDescriptor = createLookupCacheDescriptor(
+      config,
+      inputRowType,
+      tableSourceRowType,
+      lookupFieldsInOrder,
+      lookupableTableSource.isAsyncEnabled)
 
     val operatorFactory = if (lookupableTableSource.isAsyncEnabled) {
       val asyncBufferCapacity= config.getConfiguration
@@ -297,7 +303,8 @@ abstract class CommonLookupJoin(
           producedTypeInfo,
           BaseRowTypeInfo.of(rightRowType),
           leftOuterJoin,
-          asyncBufferCapacity)
+          asyncBufferCapacity,
+          lookupCacheDescriptor)
       } else {
         // right type is the same as table source row type, because no calc after temporal table
         val rightRowType = tableSourceRowType
@@ -313,7 +320,8 @@ abstract class CommonLookupJoin(
           producedTypeInfo,
           BaseRowTypeInfo.of(rightRowType),
           leftOuterJoin,
-          asyncBufferCapacity)
+          asyncBufferCapacity,
+          lookupCacheDescriptor)
       }
 
       // force ORDERED output mode currently, optimize it to UNORDERED
@@ -372,7 +380,8 @@ abstract class CommonLookupJoin(
           generatedCalc,
           generatedCollector,
           leftOuterJoin,
-          rightRowType.getFieldCount)
+          rightRowType.getFieldCount,
+          lookupCacheDescriptor)
       } else {
         // right type is the same as table source row type, because no calc after temporal table
         val rightRowType = tableSourceRowType
@@ -387,7 +396,8 @@ abstract class CommonLookupJoin(
           generatedFetcher,
           generatedCollector,
           leftOuterJoin,
-          rightRowType.getFieldCount)
+          rightRowType.getFieldCount,
+          lookupCacheDescriptor)
       }
       SimpleOperatorFactory.of(new ProcessOperator(processFunc))
     }
@@ -400,6 +410,47 @@ abstract class CommonLookupJoin(
       inputTransformation.getParallelism)
   }
 
+  /**
+    * Creates the descriptor of the cache of the lookup join, or null if the cache is disabled.
+    * The lookup key of the cache consists of the input fields that are lookup keys, as the
+    * constant lookup keys are the same for all input rows.
+    */
+  private def createLookupCacheDescriptor(
+      config: TableConfig,
+      inputRowType: RowType,
+      tableSourceRowType: RowType,
+      lookupFieldsInOrder: Array[Int],
+      isAsyncEnabled: Boolean): LookupCacheDescriptor = {
+    val maxRows = config.getConfiguration.getLong(
+      ExecutionConfigOptions.TABLE_EXEC_LOOKUP_CACHE_MAX_ROWS)
+    if (maxRows <= 0) {
+      null
+    } else {
+      val keyFields = lookupFieldsInOrder.map(allLookupKeys(_)).collect {
+        case fieldKey: FieldRefLookupKey => fieldKey.index
+      }
+      val keySelector = KeySelectorUtil.getBaseRowSelector(
+        keyFields, BaseRowTypeInfo.of(inputRowType))
+      val ttl = getMillisecondFromConfigDuration(
+        config, ExecutionConfigOptions.TABLE_EXEC_LOOKUP_CACHE_TTL)
+      // a synchronous lookup function can only be called by the task thread
+      val refreshInterval = if (isAsyncEnabled) {
+        getMillisecondFromConfigDuration(
+          config, ExecutionConfigOptions.TABLE_EXEC_LOOKUP_CACHE_REFRESH_INTERVAL).longValue()
+      } else {
+        0L
+      }
+
+      new LookupCacheDescriptor(
+        UUID.randomUUID().toString,
+        keySelector,
+        BaseRowTypeInfo.of(tableSourceRowType),
+        maxRows,
+        ttl,
+        refreshInterval)
+    }
+  }
+
   private def rowTypeEquals(expected: TypeInformation[_], actual: TypeInformation[_]): Boolean = {
     // check internal and external type, cause we will auto convert external class to internal
     // class (eg: Row => BaseRow).
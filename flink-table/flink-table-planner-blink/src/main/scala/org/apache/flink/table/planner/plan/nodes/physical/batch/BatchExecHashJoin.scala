@@ -20,7 +20,10 @@ package org.apache.flink.table.planner.plan.nodes.physical.batch
 import org.apache.flink.api.dag.Transformation
 import org.apache.flink.configuration.MemorySize
 import org.apache.flink.runtime.operators.DamBehavior
-import org.apache.flink.streaming.api.operators.SimpleOperatorFactory
+import org.apache.flink.runtime.operators.util.BloomFilter
+import org.apache.flink.streaming.api.operators.{OneInputStreamOperator, SimpleOperatorFactory}
+import org.apache.flink.streaming.api.transformations.PartitionTransformation
+import org.apache.flink.table.api.TableConfig
 import org.apache.flink.table.api.config.ExecutionConfigOptions
 import org.apache.flink.table.dataformat.BaseRow
 import org.apache.flink.table.planner.calcite.FlinkTypeFactory
@@ -32,7 +35,8 @@ import org.apache.flink.table.planner.plan.cost.{FlinkCost, FlinkCostFactory}
 import org.apache.flink.table.planner.plan.nodes.FlinkConventions
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNode
 import org.apache.flink.table.planner.plan.utils.{FlinkRelMdUtil, JoinUtil}
-import org.apache.flink.table.runtime.operators.join.{HashJoinOperator, HashJoinType}
+import org.apache.flink.table.planner.utils.TableConfigUtils.getMillisecondFromConfigDuration
+import org.apache.flink.table.runtime.operators.join.{HashJoinOperator, HashJoinType, RuntimeFilterBuilderOperator, RuntimeFilterOperator}
 import org.apache.flink.table.runtime.typeutils.{BaseRowTypeInfo, BinaryRowSerializer}
 import org.apache.flink.table.types.logical.RowType
 
@@ -44,6 +48,7 @@ import org.apache.calcite.rex.RexNode
 import org.apache.calcite.util.Util
 
 import java.util
+import java.util.UUID
 
 import scala.collection.JavaConversions._
 
@@ -222,6 +227,23 @@ class BatchExecHashJoin(
     val buildRowCount = Util.first(mq.getRowCount(buildRel), 200000).toLong
     val probeRowCount = Util.first(mq.getRowCount(probeRel), 200000).toLong
 
+    // drop the probe side rows that cannot match before they are shuffled
+    val (buildInput, probeInput) = if (supportRuntimeFilter(config, buildRowCount)) {
+      val aggregateName = s"RuntimeFilter-${UUID.randomUUID()}"
+      val expectedEntries = Math.max(1L, Math.min(buildRowCount, Int.MaxValue)).toInt
+      val numBits = BloomFilter.optimalNumOfBits(
+        expectedEntries, BatchExecHashJoin.RUNTIME_FILTER_FPP)
+      val filterSizeInBytes = Math.max(8, (numBits + 63) / 64 * 8)
+      val pollInterval = getMillisecondFromConfigDuration(
+        config, ExecutionConfigOptions.TABLE_EXEC_RUNTIME_FILTER_POLL_INTERVAL).longValue()
+      (insertBeforeExchange(build, "RuntimeFilterBuilder", new RuntimeFilterBuilderOperator(
+        aggregateName, bProj, expectedEntries, filterSizeInBytes)),
+        insertBeforeExchange(probe, "RuntimeFilter", new RuntimeFilterOperator(
+          aggregateName, pProj, expectedEntries, pollInterval)))
+    } else {
+      (build, probe)
+    }
+
     // operator
     val operator = if (LongHashJoinGenerator.support(hashJoinType, keyType, filterNulls)) {
       LongHashJoinGenerator.gen(
@@ -255,12 +277,62 @@ class BatchExecHashJoin(
     val managedMemory = MemorySize.parse(config.getConfiguration.getString(
       ExecutionConfigOptions.TABLE_EXEC_RESOURCE_HASH_JOIN_MEMORY)).getBytes
     ExecNode.createTwoInputTransformation(
-      build,
-      probe,
+      buildInput,
+      probeInput,
       getRelDetailedDescription,
       operator,
       BaseRowTypeInfo.of(FlinkTypeFactory.toLogicalRowType(getRowType)),
       probe.getParallelism,
       managedMemory)
   }
+
+  /**
+    * A runtime filter may only drop probe side rows that are not output without a match.
+    */
+  private def supportRuntimeFilter(config: TableConfig, buildRowCount: Long): Boolean = {
+    val conf = config.getConfiguration
+    val supportedJoinType = hashJoinType match {
+      case HashJoinType.INNER | HashJoinType.SEMI | HashJoinType.BUILD_OUTER |
+           HashJoinType.BUILD_LEFT_SEMI | HashJoinType.BUILD_LEFT_ANTI => true
+      case _ => false
+    }
+    supportedJoinType &&
+      conf.getBoolean(ExecutionConfigOptions.TABLE_EXEC_RUNTIME_FILTER_ENABLED) &&
+      buildRowCount <= conf.getLong(
+        ExecutionConfigOptions.TABLE_EXEC_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT)
+  }
+
+  /**
+    * Inserts the operator in front of the exchange of the input if there is one, so that it is
+    * chained to the producer of the rows.
+    */
+  private def insertBeforeExchange(
+      input: Transformation[BaseRow],
+      name: String,
+      operator: OneInputStreamOperator[BaseRow, BaseRow]): Transformation[BaseRow] = {
+    input match {
+      case exchange: PartitionTransformation[_] =>
+        val partition = exchange.asInstanceOf[PartitionTransformation[BaseRow]]
+        val transform = ExecNode.createOneInputTransformation(
+          partition.getInput,
+          name,
+          SimpleOperatorFactory.of(operator),
+          partition.getInput.getOutputType,
+          partition.getInput.getParallelism)
+        new PartitionTransformation(transform, partition.getPartitioner, partition.getShuffleMode)
+      case _ =>
+        ExecNode.createOneInputTransformation(
+          input,
+          name,
+          SimpleOperatorFactory.of(operator),
+          input.getOutputType,
+          input.getParallelism)
+    }
+  }
+}
+
+object BatchExecHashJoin {
+
+  /** The expected false positive probability of the bloom filter of a runtime filter. */
+  private val RUNTIME_FILTER_FPP = 0.05
 }
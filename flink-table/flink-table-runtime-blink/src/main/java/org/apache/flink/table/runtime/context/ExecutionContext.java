@@ -19,6 +19,9 @@
 package org.apache.flink.table.runtime.context;
 
 import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.internal.InternalValueState;
 import org.apache.flink.table.dataformat.BaseRow;
 
 /**
@@ -40,4 +43,12 @@ public interface ExecutionContext {
 	void setCurrentKey(BaseRow key);
 
 	RuntimeContext getRuntimeContext();
+
+	/**
+	 * Gets or creates the value state of the given descriptor from the keyed state backend. Unlike the
+	 * state of the {@link RuntimeContext}, the returned internal state can read and write the values
+	 * of many keys at once.
+	 */
+	<V> InternalValueState<BaseRow, VoidNamespace, V> getInternalValueState(
+		ValueStateDescriptor<V> descriptor) throws Exception;
 }
@@ -19,6 +19,11 @@
 package org.apache.flink.table.runtime.context;
 
 import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.runtime.state.KeyedStateBackend;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.VoidNamespaceSerializer;
+import org.apache.flink.runtime.state.internal.InternalValueState;
 import org.apache.flink.streaming.api.operators.AbstractStreamOperator;
 import org.apache.flink.table.dataformat.BaseRow;
 import org.apache.flink.util.Preconditions;
@@ -53,4 +58,18 @@ public final class ExecutionContextImpl implements ExecutionContext {
 	public RuntimeContext getRuntimeContext() {
 		return runtimeContext;
 	}
+
+	@Override
+	public <V> InternalValueState<BaseRow, VoidNamespace, V> getInternalValueState(
+			ValueStateDescriptor<V> descriptor) throws Exception {
+		KeyedStateBackend<BaseRow> keyedStateBackend = operator.getKeyedStateBackend();
+		Preconditions.checkState(keyedStateBackend != null,
+			"Cannot create keyed state, the operator is not keyed.");
+		// the keyed state backend always creates internal states
+		InternalValueState<BaseRow, VoidNamespace, V> state =
+			(InternalValueState<BaseRow, VoidNamespace, V>) keyedStateBackend.getOrCreateKeyedState(
+				VoidNamespaceSerializer.INSTANCE, descriptor);
+		state.setCurrentNamespace(VoidNamespace.INSTANCE);
+		return state;
+	}
 }
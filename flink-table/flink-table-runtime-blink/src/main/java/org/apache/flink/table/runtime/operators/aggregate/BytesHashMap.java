@@ -51,9 +51,9 @@ import static org.apache.flink.util.Preconditions.checkArgument;
  * The KeyValue form in hash map is designed to reduce the cost of key fetching in lookup.
  * The memory is divided into two areas:
  * <p/>
- * - Bucket area: this contains: pointer + hashcode.
+ * - Bucket area: this contains: pointer + key tag.
  * Bytes 0 to 8: a pointer to the record in the record area
- * Bytes 8 to 16: a holds key's full 32-bit hashcode
+ * Bytes 8 to 16: a tag of the key, by default the key's full 32-bit hashcode
  * <p/>
  * - Record area: this contains the actual data in linked list records.
  * A BytesHashMap's record has four parts:
@@ -62,6 +62,9 @@ import static org.apache.flink.util.Preconditions.checkArgument;
  * Bytes 4 + len(k) to 8 + len(k): len(v)
  * Bytes 8 + len(k) to 8 + len(k) + len(v): value data
  *
+ * <p>Subclasses can specialize how keys are hashed and which tag is stored in the bucket area,
+ * see {@link PrimitiveKeyBytesHashMap} which stores single integral keys directly in the buckets.
+ *
  * <p>{@code BytesHashMap} are influenced by Apache Spark BytesToBytesMap.
  */
 public class BytesHashMap {
@@ -245,7 +248,7 @@ public class BytesHashMap {
 	public LookupInfo lookup(BinaryRow key) {
 		// check the looking up key having only one memory segment
 		checkArgument(key.getSegments().length == 1);
-		final int hashCode1 = key.hashCode();
+		final int hashCode1 = hashKey(key);
 		int newPos = hashCode1 & numBucketsMask;
 		// which segment contains the bucket
 		int bucketSegmentIndex = newPos >>> numBucketsPerSegmentBits;
@@ -263,16 +266,13 @@ public class BytesHashMap {
 					// This is a new key.
 					break;
 				} else {
-					final int storedHashCode = bucketSegments.get(bucketSegmentIndex).getInt(
+					final long storedTag = bucketSegments.get(bucketSegmentIndex).getLong(
 							bucketOffset + ELEMENT_POINT_LENGTH);
-					if (hashCode1 == storedHashCode) {
-						recordArea.setReadPosition(findElementPtr);
-						if (recordArea.readKeyAndEquals(key)) {
-							// we found an element with a matching key, and not just a hash collision
-							found = true;
-							reusedValue = recordArea.readValue(reusedValue);
-							break;
-						}
+					if (keyMatches(key, hashCode1, storedTag, findElementPtr)) {
+						// we found an element with a matching key, and not just a hash collision
+						found = true;
+						reusedValue = recordArea.readValue(reusedValue);
+						break;
 					}
 				}
 				if (step == 1) {
@@ -294,6 +294,56 @@ public class BytesHashMap {
 		return reuseLookInfo;
 	}
 
+	/**
+	 * Computes the hash code of a lookup key, which determines the key's position in the bucket area.
+	 */
+	protected int hashKey(BinaryRow key) {
+		return key.hashCode();
+	}
+
+	/**
+	 * Computes the tag that is stored in the bucket area next to the pointer of a key's record.
+	 */
+	protected long bucketTag(BinaryRow key, int hashCode) {
+		return hashCode;
+	}
+
+	/**
+	 * Recovers the hash code of a key from its tag in the bucket area when rehashing.
+	 */
+	protected int hashCodeOfTag(long tag) {
+		return (int) tag;
+	}
+
+	/**
+	 * Checks whether the record behind {@code recordPointer} has the lookup key. If it has, the read
+	 * position of the record area must be left at the start of the record's value.
+	 */
+	protected boolean keyMatches(
+			BinaryRow key,
+			int hashCode,
+			long storedTag,
+			long recordPointer) throws IOException {
+		return hashCode == (int) storedTag && readKeyAndEquals(recordPointer, key);
+	}
+
+	/**
+	 * Reads the key of the record behind {@code recordPointer} and compares it with the given key.
+	 */
+	protected final boolean readKeyAndEquals(long recordPointer, BinaryRow key) throws IOException {
+		recordArea.setReadPosition(recordPointer);
+		return recordArea.readKeyAndEquals(key);
+	}
+
+	/**
+	 * Moves the read position of the record area to the value of the record behind
+	 * {@code recordPointer}.
+	 */
+	protected final void skipKey(long recordPointer) throws IOException {
+		recordArea.setReadPosition(recordPointer);
+		recordArea.skipKey();
+	}
+
 	// M(the num of buckets) is the nth power of 2,  so the second hash code must be odd, and always is
 	// H2(K) = 1 + 2 * ((H1(K)/M) mod (M-1))
 	private long calcSecondHashCode(final int firstHashCode) {
@@ -317,8 +367,8 @@ public class BytesHashMap {
 			BinaryRow toAppend = hashSetMode ? reusedValue : value;
 			long pointerToAppended = recordArea.appendRecord(info.key, toAppend);
 			bucketSegments.get(info.bucketSegmentIndex).putLong(info.bucketOffset, pointerToAppended);
-			bucketSegments.get(info.bucketSegmentIndex).putInt(
-					info.bucketOffset + ELEMENT_POINT_LENGTH, info.keyHashCode);
+			bucketSegments.get(info.bucketSegmentIndex).putLong(
+					info.bucketOffset + ELEMENT_POINT_LENGTH, bucketTag(info.key, info.keyHashCode));
 			numElements++;
 			recordArea.setReadPosition(pointerToAppended);
 			recordArea.skipKey();
@@ -401,12 +451,13 @@ public class BytesHashMap {
 		}
 		long reHashStartTime = System.currentTimeMillis();
 		resetBucketSegments(newBucketSegments);
-		// Re-mask (we don't recompute the hashcode because we stored all 32 bits of it)
+		// Re-mask (we don't read the keys because the hashcode can be recovered from the tag)
 		for (MemorySegment memorySegment : bucketSegments) {
 			for (int j = 0; j < numBucketsPerSegment; j++) {
 				final long recordPointer = memorySegment.getLong(j * BUCKET_SIZE);
 				if (recordPointer != END_OF_LIST) {
-					final int hashCode1 = memorySegment.getInt(j * BUCKET_SIZE + ELEMENT_POINT_LENGTH);
+					final long tag = memorySegment.getLong(j * BUCKET_SIZE + ELEMENT_POINT_LENGTH);
+					final int hashCode1 = hashCodeOfTag(tag);
 					int newPos = hashCode1 & numBucketsMask;
 					int bucketSegmentIndex = newPos >>> numBucketsPerSegmentBits;
 					int bucketOffset = (newPos & numBucketsPerSegmentMask) << BUCKET_SIZE_BITS;
@@ -424,7 +475,7 @@ public class BytesHashMap {
 						step += STEP_INCREMENT;
 					}
 					newBucketSegments.get(bucketSegmentIndex).putLong(bucketOffset, recordPointer);
-					newBucketSegments.get(bucketSegmentIndex).putInt(bucketOffset + ELEMENT_POINT_LENGTH, hashCode1);
+					newBucketSegments.get(bucketSegmentIndex).putLong(bucketOffset + ELEMENT_POINT_LENGTH, tag);
 				}
 			}
 		}
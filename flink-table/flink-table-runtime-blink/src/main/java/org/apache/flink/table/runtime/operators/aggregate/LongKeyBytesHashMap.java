@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.aggregate;
+
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.table.dataformat.BinaryRow;
+import org.apache.flink.table.types.logical.LogicalType;
+
+/**
+ * A {@link PrimitiveKeyBytesHashMap} for a single key column of type {@code BIGINT} or {@code INTERVAL DAY TO SECOND}.
+ */
+public class LongKeyBytesHashMap extends PrimitiveKeyBytesHashMap {
+
+	public LongKeyBytesHashMap(
+			final Object owner,
+			MemoryManager memoryManager,
+			long memorySize,
+			LogicalType[] keyTypes,
+			LogicalType[] valueTypes) {
+		this(owner, memoryManager, memorySize, keyTypes, valueTypes, false);
+	}
+
+	public LongKeyBytesHashMap(
+			final Object owner,
+			MemoryManager memoryManager,
+			long memorySize,
+			LogicalType[] keyTypes,
+			LogicalType[] valueTypes,
+			boolean inferBucketMemory) {
+		super(owner, memoryManager, memorySize, keyTypes, valueTypes, inferBucketMemory);
+	}
+
+	@Override
+	protected long getKey(BinaryRow key) {
+		return key.getLong(0);
+	}
+}
@@ -18,9 +18,10 @@
 
 package org.apache.flink.table.runtime.operators.aggregate;
 
-import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.internal.InternalValueState;
 import org.apache.flink.table.dataformat.BaseRow;
 import org.apache.flink.table.dataformat.JoinedRow;
 import org.apache.flink.table.runtime.context.ExecutionContext;
@@ -39,6 +40,7 @@ import org.apache.flink.util.Collector;
 import javax.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -100,7 +102,7 @@ public class MiniBatchGroupAggFunction extends MapBundleFunction<BaseRow, List<B
 	private transient RecordEqualiser equaliser = null;
 
 	// stores the accumulators
-	private transient ValueState<BaseRow> accState = null;
+	private transient InternalValueState<BaseRow, VoidNamespace, BaseRow> accState = null;
 
 	/**
 	 * Creates a {@link MiniBatchGroupAggFunction}.
@@ -140,7 +142,7 @@ public class MiniBatchGroupAggFunction extends MapBundleFunction<BaseRow, List<B
 
 		BaseRowTypeInfo accTypeInfo = new BaseRowTypeInfo(accTypes);
 		ValueStateDescriptor<BaseRow> accDesc = new ValueStateDescriptor<>("accState", accTypeInfo);
-		accState = ctx.getRuntimeContext().getState(accDesc);
+		accState = ctx.getInternalValueState(accDesc);
 
 		//noinspection unchecked
 		inputRowSerializer = (TypeSerializer) InternalSerializers.create(
@@ -162,6 +164,11 @@ public class MiniBatchGroupAggFunction extends MapBundleFunction<BaseRow, List<B
 
 	@Override
 	public void finishBundle(Map<BaseRow, List<BaseRow>> buffer, Collector<BaseRow> out) throws Exception {
+		// read the accumulators of all keys of the bundle at once
+		Map<BaseRow, BaseRow> accs = accState.multiGet(buffer.keySet());
+		// the updated accumulators, or null for cleared ones, which are written at once at the end
+		Map<BaseRow, BaseRow> updatedAccs = new HashMap<>(buffer.size());
+
 		for (Map.Entry<BaseRow, List<BaseRow>> entry : buffer.entrySet()) {
 			BaseRow currentKey = entry.getKey();
 			List<BaseRow> inputRows = entry.getValue();
@@ -170,9 +177,9 @@ public class MiniBatchGroupAggFunction extends MapBundleFunction<BaseRow, List<B
 
 			// step 1: get the accumulator for the current key
 
-			// set current key to access state under the key
+			// set current key to access the data views under the key
 			ctx.setCurrentKey(currentKey);
-			BaseRow acc = accState.value();
+			BaseRow acc = accs.get(currentKey);
 			if (acc == null) {
 				acc = function.createAccumulators();
 				firstRow = true;
@@ -202,7 +209,7 @@ public class MiniBatchGroupAggFunction extends MapBundleFunction<BaseRow, List<B
 				// we aggregated at least one record for this key
 
 				// update acc to state
-				accState.update(acc);
+				updatedAccs.put(currentKey, acc);
 
 				// if this was not the first row and we have to emit retractions
 				if (!firstRow) {
@@ -235,11 +242,13 @@ public class MiniBatchGroupAggFunction extends MapBundleFunction<BaseRow, List<B
 					out.collect(resultRow);
 				}
 				// and clear all state
-				accState.clear();
+				updatedAccs.put(currentKey, null);
 				// cleanup dataview under current key
 				function.cleanup();
 			}
 		}
+
+		accState.multiPut(updatedAccs);
 	}
 
 	@Override
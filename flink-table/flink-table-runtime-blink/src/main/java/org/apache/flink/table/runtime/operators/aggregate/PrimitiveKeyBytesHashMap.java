@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.aggregate;
+
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.table.dataformat.BinaryRow;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.util.MathUtils;
+
+import java.io.IOException;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A {@link BytesHashMap} for a key of a single integral column. The key itself is stored as the
+ * tag in the bucket area, so probing compares primitive values in the buckets and only visits the
+ * record area for a key that is found. Records are laid out like in {@link BytesHashMap}, which
+ * keeps iteration and spilling through {@link BytesHashMapSpillMemorySegmentPool} unchanged.
+ *
+ * <p>A null key is stored with the tag 0, so only for the tag 0 the keys in the record area have to
+ * be compared to tell a null key from the value 0.
+ */
+public abstract class PrimitiveKeyBytesHashMap extends BytesHashMap {
+
+	private static final long NULL_KEY_TAG = 0L;
+
+	public PrimitiveKeyBytesHashMap(
+			final Object owner,
+			MemoryManager memoryManager,
+			long memorySize,
+			LogicalType[] keyTypes,
+			LogicalType[] valueTypes,
+			boolean inferBucketMemory) {
+		super(owner, memoryManager, memorySize, keyTypes, valueTypes, inferBucketMemory);
+		checkArgument(keyTypes.length == 1, "Only a single key column is supported.");
+	}
+
+	/**
+	 * Reads the non-null key of the given key row as a long.
+	 */
+	protected abstract long getKey(BinaryRow key);
+
+	@Override
+	protected int hashKey(BinaryRow key) {
+		return hashCodeOfTag(bucketTag(key, 0));
+	}
+
+	@Override
+	protected long bucketTag(BinaryRow key, int hashCode) {
+		return key.isNullAt(0) ? NULL_KEY_TAG : getKey(key);
+	}
+
+	@Override
+	protected int hashCodeOfTag(long tag) {
+		return MathUtils.longToIntWithBitMixing(tag);
+	}
+
+	@Override
+	protected boolean keyMatches(
+			BinaryRow key,
+			int hashCode,
+			long storedTag,
+			long recordPointer) throws IOException {
+		long tag = bucketTag(key, hashCode);
+		if (tag != storedTag) {
+			return false;
+		} else if (tag == NULL_KEY_TAG) {
+			return readKeyAndEquals(recordPointer, key);
+		} else {
+			skipKey(recordPointer);
+			return true;
+		}
+	}
+}
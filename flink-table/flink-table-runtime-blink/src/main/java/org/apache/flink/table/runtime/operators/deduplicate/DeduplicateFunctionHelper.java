@@ -24,6 +24,8 @@ import org.apache.flink.table.dataformat.util.BaseRowUtil;
 import org.apache.flink.util.Collector;
 import org.apache.flink.util.Preconditions;
 
+import javax.annotation.Nullable;
+
 /**
  * Utility for deduplicate function.
  */
@@ -41,16 +43,28 @@ class DeduplicateFunctionHelper {
 	 */
 	static void processLastRow(BaseRow currentRow, boolean generateRetraction, ValueState<BaseRow> state,
 			Collector<BaseRow> out) throws Exception {
-		// Check message should be accumulate
-		Preconditions.checkArgument(BaseRowUtil.isAccumulateMsg(currentRow));
+		BaseRow preRow = null;
 		if (generateRetraction) {
 			// state stores complete row if generateRetraction is true
-			BaseRow preRow = state.value();
+			preRow = state.value();
 			state.update(currentRow);
-			if (preRow != null) {
-				preRow.setHeader(BaseRowUtil.RETRACT_MSG);
-				out.collect(preRow);
-			}
+		}
+		processLastRow(currentRow, preRow, out);
+	}
+
+	/**
+	 * Sends current element as last row, retracts the given previous element of the key if there is one.
+	 *
+	 * @param currentRow latest row received by deduplicate function
+	 * @param preRow previous row of the key, or null if there is none or no retraction is needed
+	 * @param out underlying collector
+	 */
+	static void processLastRow(BaseRow currentRow, @Nullable BaseRow preRow, Collector<BaseRow> out) {
+		// Check message should be accumulate
+		Preconditions.checkArgument(BaseRowUtil.isAccumulateMsg(currentRow));
+		if (preRow != null) {
+			preRow.setHeader(BaseRowUtil.RETRACT_MSG);
+			out.collect(preRow);
 		}
 		out.collect(currentRow);
 	}
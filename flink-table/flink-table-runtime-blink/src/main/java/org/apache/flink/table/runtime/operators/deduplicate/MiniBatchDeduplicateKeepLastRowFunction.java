@@ -18,9 +18,10 @@
 
 package org.apache.flink.table.runtime.operators.deduplicate;
 
-import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.internal.InternalValueState;
 import org.apache.flink.table.dataformat.BaseRow;
 import org.apache.flink.table.runtime.context.ExecutionContext;
 import org.apache.flink.table.runtime.operators.bundle.MapBundleFunction;
@@ -46,7 +47,7 @@ public class MiniBatchDeduplicateKeepLastRowFunction
 	private final TypeSerializer<BaseRow> typeSerializer;
 
 	// state stores complete row.
-	private ValueState<BaseRow> state;
+	private InternalValueState<BaseRow, VoidNamespace, BaseRow> state;
 
 	public MiniBatchDeduplicateKeepLastRowFunction(BaseRowTypeInfo rowTypeInfo, boolean generateRetraction,
 			TypeSerializer<BaseRow> typeSerializer) {
@@ -59,7 +60,7 @@ public class MiniBatchDeduplicateKeepLastRowFunction
 	public void open(ExecutionContext ctx) throws Exception {
 		super.open(ctx);
 		ValueStateDescriptor<BaseRow> stateDesc = new ValueStateDescriptor<>("preRowState", rowTypeInfo);
-		state = ctx.getRuntimeContext().getState(stateDesc);
+		state = ctx.getInternalValueState(stateDesc);
 	}
 
 	@Override
@@ -71,11 +72,22 @@ public class MiniBatchDeduplicateKeepLastRowFunction
 	@Override
 	public void finishBundle(
 			Map<BaseRow, BaseRow> buffer, Collector<BaseRow> out) throws Exception {
+		if (!generateRetraction) {
+			for (Map.Entry<BaseRow, BaseRow> entry : buffer.entrySet()) {
+				BaseRow currentKey = entry.getKey();
+				BaseRow currentRow = entry.getValue();
+				ctx.setCurrentKey(currentKey);
+				processLastRow(currentRow, false, state, out);
+			}
+			return;
+		}
+
+		// state stores complete row if generateRetraction is true,
+		// read and write the rows of all keys of the bundle at once
+		Map<BaseRow, BaseRow> preRows = state.multiGet(buffer.keySet());
 		for (Map.Entry<BaseRow, BaseRow> entry : buffer.entrySet()) {
-			BaseRow currentKey = entry.getKey();
-			BaseRow currentRow = entry.getValue();
-			ctx.setCurrentKey(currentKey);
-			processLastRow(currentRow, generateRetraction, state, out);
+			processLastRow(entry.getValue(), preRows.get(entry.getKey()), out);
 		}
+		state.multiPut(buffer);
 	}
 }
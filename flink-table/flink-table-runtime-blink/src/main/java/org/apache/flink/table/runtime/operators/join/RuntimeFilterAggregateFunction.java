@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join;
+
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.runtime.taskexecutor.GlobalAggregateManager;
+import org.apache.flink.util.InstantiationUtil;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.BitSet;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A global aggregate, see {@link GlobalAggregateManager}, which merges the bloom filters that the
+ * parallel instances of a {@link RuntimeFilterBuilderOperator} build over the join keys of the
+ * build side of a hash join. The result is the merged bloom filter once all instances published
+ * their filter, and an empty array before.
+ *
+ * <p>Updates and results are passed as serialized bytes, so the JobMaster does not need the
+ * classes of this aggregate to receive them.
+ */
+public class RuntimeFilterAggregateFunction
+		implements AggregateFunction<byte[], RuntimeFilterAggregateFunction.Accumulator, byte[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final byte[] NOT_READY = new byte[0];
+
+	@Override
+	public Accumulator createAccumulator() {
+		return new Accumulator();
+	}
+
+	@Override
+	public Accumulator add(byte[] value, Accumulator accumulator) {
+		Update update;
+		try {
+			update = InstantiationUtil.deserializeObject(value, getClass().getClassLoader());
+		} catch (IOException | ClassNotFoundException e) {
+			throw new RuntimeException("Could not deserialize runtime filter update.", e);
+		}
+		if (update.bits == null) {
+			// a query of the result
+			return accumulator;
+		}
+
+		if (accumulator.bits == null) {
+			accumulator.bits = update.bits.clone();
+			accumulator.numSubtasks = update.numSubtasks;
+		} else {
+			checkArgument(accumulator.bits.length == update.bits.length, "Bloom filters of different sizes.");
+			for (int i = 0; i < accumulator.bits.length; i++) {
+				accumulator.bits[i] |= update.bits[i];
+			}
+		}
+		// a restarted subtask publishes the same filter again, which is idempotent
+		accumulator.publishedSubtasks.set(update.subtaskIndex);
+		return accumulator;
+	}
+
+	@Override
+	public byte[] getResult(Accumulator accumulator) {
+		boolean ready = accumulator.bits != null
+			&& accumulator.publishedSubtasks.cardinality() == accumulator.numSubtasks;
+		return ready ? accumulator.bits.clone() : NOT_READY;
+	}
+
+	@Override
+	public Accumulator merge(Accumulator a, Accumulator b) {
+		// not required
+		throw new UnsupportedOperationException();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Serializes the bloom filter bits of a parallel instance of the builder.
+	 */
+	static byte[] publish(int subtaskIndex, int numSubtasks, byte[] bits) throws IOException {
+		return InstantiationUtil.serializeObject(new Update(subtaskIndex, numSubtasks, bits));
+	}
+
+	/**
+	 * Serializes a query of the merged bloom filter, which does not change the aggregate.
+	 */
+	static byte[] query() throws IOException {
+		return InstantiationUtil.serializeObject(new Update(-1, -1, null));
+	}
+
+	/**
+	 * Creates a bloom filter that reads and writes the given bits. The builder and the filter of a
+	 * join must use the same number of expected entries, which determines the hash functions.
+	 */
+	static BloomFilter createBloomFilter(int expectedEntries, byte[] bits) {
+		BloomFilter filter = new BloomFilter(expectedEntries, bits.length);
+		filter.setBitsLocation(MemorySegmentFactory.wrap(bits), 0);
+		return filter;
+	}
+
+	/**
+	 * The merged bloom filter and the parallel instances that published a filter.
+	 */
+	static final class Accumulator {
+		private byte[] bits;
+		private int numSubtasks;
+		private final BitSet publishedSubtasks = new BitSet();
+	}
+
+	/**
+	 * The bloom filter of a parallel instance, or a query if the bits are null.
+	 */
+	private static final class Update implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int subtaskIndex;
+		private final int numSubtasks;
+		private final byte[] bits;
+
+		private Update(int subtaskIndex, int numSubtasks, byte[] bits) {
+			this.subtaskIndex = subtaskIndex;
+			this.numSubtasks = numSubtasks;
+			this.bits = bits;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join;
+
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.dataformat.BaseRow;
+import org.apache.flink.table.dataformat.BinaryRow;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Builds a bloom filter over the join keys of the build side of a hash join, in front of the
+ * exchange of the build side. The rows are forwarded unchanged. When the input ends, the filter is
+ * published to the global aggregate {@code aggregateName}, where the filters of all parallel
+ * instances are merged by {@link RuntimeFilterAggregateFunction} for the
+ * {@link RuntimeFilterOperator} on the probe side.
+ */
+public class RuntimeFilterBuilderOperator extends TableStreamOperator<BaseRow>
+		implements OneInputStreamOperator<BaseRow, BaseRow>, BoundedOneInput {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger LOG = LoggerFactory.getLogger(RuntimeFilterBuilderOperator.class);
+
+	private final String aggregateName;
+	private final int expectedEntries;
+	private final int filterSizeInBytes;
+
+	private GeneratedProjection keyProjectionCode;
+
+	private transient Projection<BaseRow, BinaryRow> keyProjection;
+	private transient byte[] bits;
+	private transient BloomFilter filter;
+
+	public RuntimeFilterBuilderOperator(
+			String aggregateName,
+			GeneratedProjection keyProjectionCode,
+			int expectedEntries,
+			int filterSizeInBytes) {
+		checkArgument(expectedEntries > 0 && filterSizeInBytes > 0);
+		this.aggregateName = checkNotNull(aggregateName);
+		this.keyProjectionCode = checkNotNull(keyProjectionCode);
+		this.expectedEntries = expectedEntries;
+		this.filterSizeInBytes = filterSizeInBytes;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void open() throws Exception {
+		super.open();
+		this.keyProjection = keyProjectionCode.newInstance(getContainingTask().getUserCodeClassLoader());
+		this.bits = new byte[filterSizeInBytes];
+		this.filter = RuntimeFilterAggregateFunction.createBloomFilter(expectedEntries, bits);
+		this.keyProjectionCode = null;
+	}
+
+	@Override
+	public void processElement(StreamRecord<BaseRow> element) throws Exception {
+		filter.addHash(keyProjection.apply(element.getValue()).hashCode());
+		output.collect(element);
+	}
+
+	@Override
+	public void endInput() throws Exception {
+		int subtaskIndex = getRuntimeContext().getIndexOfThisSubtask();
+		int numSubtasks = getRuntimeContext().getNumberOfParallelSubtasks();
+		getRuntimeContext().getGlobalAggregateManager().updateGlobalAggregate(
+			aggregateName,
+			RuntimeFilterAggregateFunction.publish(subtaskIndex, numSubtasks, bits),
+			new RuntimeFilterAggregateFunction());
+		LOG.info("Published runtime filter {} of subtask {}/{}.", aggregateName, subtaskIndex + 1, numSubtasks);
+	}
+}
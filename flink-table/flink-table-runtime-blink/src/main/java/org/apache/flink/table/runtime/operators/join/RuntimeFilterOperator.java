@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.dataformat.BaseRow;
+import org.apache.flink.table.dataformat.BinaryRow;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Drops the rows of the probe side of a hash join whose join key is not contained in the bloom
+ * filter of the build side, in front of the exchange of the probe side. The bloom filter is
+ * published by the {@link RuntimeFilterBuilderOperator}s of the build side to the global
+ * aggregate {@code aggregateName}.
+ *
+ * <p>The operator never waits for the filter, which could deadlock when the build side depends on
+ * the same input. Until the filter is complete, rows are forwarded unfiltered and the aggregate is
+ * queried at most once per {@code pollIntervalMillis}.
+ */
+public class RuntimeFilterOperator extends TableStreamOperator<BaseRow>
+		implements OneInputStreamOperator<BaseRow, BaseRow> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger LOG = LoggerFactory.getLogger(RuntimeFilterOperator.class);
+
+	/** The number of rows between two checks whether the filter should be queried. */
+	private static final int POLL_CHECK_ROWS = 1024;
+
+	private final String aggregateName;
+	private final int expectedEntries;
+	private final long pollIntervalMillis;
+
+	private GeneratedProjection keyProjectionCode;
+
+	private transient Projection<BaseRow, BinaryRow> keyProjection;
+	private transient BloomFilter filter;
+	private transient RuntimeFilterAggregateFunction aggregateFunction;
+	private transient byte[] query;
+	private transient int rowsSinceCheck;
+	private transient long lastPollTime;
+	private transient Counter numFilteredRows;
+
+	public RuntimeFilterOperator(
+			String aggregateName,
+			GeneratedProjection keyProjectionCode,
+			int expectedEntries,
+			long pollIntervalMillis) {
+		checkArgument(expectedEntries > 0 && pollIntervalMillis >= 0);
+		this.aggregateName = checkNotNull(aggregateName);
+		this.keyProjectionCode = checkNotNull(keyProjectionCode);
+		this.expectedEntries = expectedEntries;
+		this.pollIntervalMillis = pollIntervalMillis;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void open() throws Exception {
+		super.open();
+		this.keyProjection = keyProjectionCode.newInstance(getContainingTask().getUserCodeClassLoader());
+		this.aggregateFunction = new RuntimeFilterAggregateFunction();
+		this.query = RuntimeFilterAggregateFunction.query();
+		this.rowsSinceCheck = 0;
+		this.lastPollTime = Long.MIN_VALUE;
+		this.numFilteredRows = getMetricGroup().counter("numRuntimeFilteredRows");
+		this.keyProjectionCode = null;
+		pollFilter();
+	}
+
+	@Override
+	public void processElement(StreamRecord<BaseRow> element) throws Exception {
+		if (filter == null) {
+			if (++rowsSinceCheck >= POLL_CHECK_ROWS) {
+				rowsSinceCheck = 0;
+				if (System.currentTimeMillis() - lastPollTime >= pollIntervalMillis) {
+					pollFilter();
+				}
+			}
+			if (filter == null) {
+				output.collect(element);
+				return;
+			}
+		}
+
+		if (filter.testHash(keyProjection.apply(element.getValue()).hashCode())) {
+			output.collect(element);
+		} else {
+			numFilteredRows.inc();
+		}
+	}
+
+	private void pollFilter() throws Exception {
+		lastPollTime = System.currentTimeMillis();
+		byte[] bits = getRuntimeContext().getGlobalAggregateManager().updateGlobalAggregate(
+			aggregateName, query, aggregateFunction);
+		if (bits.length > 0) {
+			filter = RuntimeFilterAggregateFunction.createBloomFilter(expectedEntries, bits);
+			LOG.info("Received runtime filter {}.", aggregateName);
+		}
+	}
+}
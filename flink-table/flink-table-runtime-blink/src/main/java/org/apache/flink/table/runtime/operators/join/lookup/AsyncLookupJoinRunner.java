@@ -20,6 +20,7 @@ package org.apache.flink.table.runtime.operators.join.lookup;
 
 import org.apache.flink.api.common.functions.util.FunctionUtils;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.typeutils.RowTypeInfo;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
@@ -44,6 +45,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 
 import static org.apache.flink.table.types.utils.TypeConversions.fromLegacyInfoToDataType;
 
@@ -59,8 +61,15 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<BaseRow, BaseRow> {
 	private final int asyncBufferCapacity;
 	private final TypeInformation<?> fetcherReturnType;
 	private final BaseRowTypeInfo rightRowTypeInfo;
+	@Nullable
+	private final LookupCacheDescriptor cacheDescriptor;
 
 	private transient AsyncFunction<BaseRow, Object> fetcher;
+	private transient RowConverter rowConverter;
+
+	private transient LookupCache cache;
+	private transient LookupCacheMetrics cacheMetrics;
+	private transient TypeSerializer<BaseRow> cachedRowSerializer;
 
 	/**
 	 * Buffers {@link ResultFuture} to avoid newInstance cost when processing elements every time.
@@ -82,12 +91,25 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<BaseRow, BaseRow> {
 			BaseRowTypeInfo rightRowTypeInfo,
 			boolean isLeftOuterJoin,
 			int asyncBufferCapacity) {
+		this(generatedFetcher, generatedResultFuture, fetcherReturnType, rightRowTypeInfo,
+			isLeftOuterJoin, asyncBufferCapacity, null);
+	}
+
+	public AsyncLookupJoinRunner(
+			GeneratedFunction<AsyncFunction<BaseRow, Object>> generatedFetcher,
+			GeneratedResultFuture<TableFunctionResultFuture<BaseRow>> generatedResultFuture,
+			TypeInformation<?> fetcherReturnType,
+			BaseRowTypeInfo rightRowTypeInfo,
+			boolean isLeftOuterJoin,
+			int asyncBufferCapacity,
+			@Nullable LookupCacheDescriptor cacheDescriptor) {
 		this.generatedFetcher = generatedFetcher;
 		this.generatedResultFuture = generatedResultFuture;
 		this.isLeftOuterJoin = isLeftOuterJoin;
 		this.asyncBufferCapacity = asyncBufferCapacity;
 		this.fetcherReturnType = fetcherReturnType;
 		this.rightRowTypeInfo = rightRowTypeInfo;
+		this.cacheDescriptor = cacheDescriptor;
 	}
 
 	@Override
@@ -101,17 +123,23 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<BaseRow, BaseRow> {
 		generatedResultFuture.compile(getRuntimeContext().getUserCodeClassLoader());
 
 		// row converter is stateless which is thread-safe
-		RowConverter rowConverter;
 		if (fetcherReturnType instanceof RowTypeInfo) {
-			rowConverter = (RowConverter) DataFormatConverters.getConverterForDataType(
+			this.rowConverter = (RowConverter) DataFormatConverters.getConverterForDataType(
 					fromLegacyInfoToDataType(fetcherReturnType));
 		} else if (fetcherReturnType instanceof BaseRowTypeInfo) {
-			rowConverter = null;
+			this.rowConverter = null;
 		} else {
 			throw new IllegalStateException("This should never happen, " +
 				"currently fetcherReturnType can only be BaseRowTypeInfo or RowTypeInfo");
 		}
 
+		if (cacheDescriptor != null) {
+			this.cache = LookupCache.acquire(cacheDescriptor);
+			this.cacheMetrics = new LookupCacheMetrics(getRuntimeContext().getMetricGroup());
+			this.cachedRowSerializer = cacheDescriptor.getRowTypeInfo().createSerializer(
+				getRuntimeContext().getExecutionConfig());
+		}
+
 		// asyncBufferCapacity + 1 as the queue size in order to avoid
 		// blocking on the queue when taking a collector.
 		this.resultFutureBuffer = new ArrayBlockingQueue<>(asyncBufferCapacity + 1);
@@ -135,8 +163,61 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<BaseRow, BaseRow> {
 		// the input row is copied when object reuse in AsyncWaitOperator
 		outResultFuture.reset(input, resultFuture);
 
-		// fetcher has copied the input field when object reuse is enabled
-		fetcher.asyncInvoke(input, outResultFuture);
+		if (cache == null) {
+			// fetcher has copied the input field when object reuse is enabled
+			fetcher.asyncInvoke(input, outResultFuture);
+		} else {
+			BaseRow key = cacheDescriptor.getKeySelector().getKey(input);
+			cache.get(key, ignored -> fetchRows(input), cacheMetrics).whenComplete((rows, throwable) -> {
+				if (throwable == null) {
+					outResultFuture.joinRightRows(rows);
+				} else {
+					outResultFuture.completeExceptionally(throwable);
+				}
+			});
+		}
+	}
+
+	private CompletableFuture<Collection<BaseRow>> fetchRows(BaseRow input) {
+		CompletableFuture<Collection<BaseRow>> rowsFuture = new CompletableFuture<>();
+		try {
+			fetcher.asyncInvoke(input, new ResultFuture<Object>() {
+				@Override
+				public void complete(Collection<Object> result) {
+					try {
+						List<BaseRow> rows = new ArrayList<>(result.size());
+						for (BaseRow row : toBaseRows(result, rowConverter)) {
+							rows.add(cachedRowSerializer.copy(row));
+						}
+						rowsFuture.complete(rows);
+					} catch (Throwable t) {
+						rowsFuture.completeExceptionally(t);
+					}
+				}
+
+				@Override
+				public void completeExceptionally(Throwable error) {
+					rowsFuture.completeExceptionally(error);
+				}
+			});
+		} catch (Exception e) {
+			rowsFuture.completeExceptionally(e);
+		}
+		return rowsFuture;
+	}
+
+	private static Collection<BaseRow> toBaseRows(Collection<Object> result, @Nullable RowConverter rowConverter) {
+		if (rowConverter == null) {
+			// result is BaseRow Collection
+			//noinspection unchecked
+			return (Collection) result;
+		}
+		Collection<BaseRow> baseRows = new ArrayList<>(result.size());
+		for (Object element : result) {
+			Row row = (Row) element;
+			baseRows.add(rowConverter.toInternal(row));
+		}
+		return baseRows;
 	}
 
 	public TableFunctionResultFuture<BaseRow> createFetcherResultFuture(Configuration parameters) throws Exception {
@@ -156,6 +237,10 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<BaseRow, BaseRow> {
 		for (JoinedRowResultFuture rf : allResultFutures) {
 			rf.close();
 		}
+		if (cache != null) {
+			cache.release();
+			cache = null;
+		}
 	}
 
 	/**
@@ -212,19 +297,13 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<BaseRow, BaseRow> {
 
 		@Override
 		public void complete(Collection<Object> result) {
-			Collection<BaseRow> baseRows;
-			if (rowConverter == null) {
-				// result is BaseRow Collection
-				//noinspection unchecked
-				baseRows = (Collection) result;
-			} else {
-				baseRows = new ArrayList<>(result.size());
-				for (Object element : result) {
-					Row row = (Row) element;
-					baseRows.add(rowConverter.toInternal(row));
-				}
-			}
+			joinRightRows(toBaseRows(result, rowConverter));
+		}
 
+		/**
+		 * Completes the future with the given rows returned by the lookup function.
+		 */
+		public void joinRightRows(Collection<BaseRow> baseRows) {
 			// call condition collector first,
 			// the filtered result will be routed to the delegateCollector
 			try {
@@ -32,6 +32,8 @@ import org.apache.flink.table.runtime.generated.GeneratedResultFuture;
 import org.apache.flink.table.runtime.typeutils.BaseRowTypeInfo;
 import org.apache.flink.util.Collector;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Collection;
 
@@ -54,8 +56,21 @@ public class AsyncLookupJoinWithCalcRunner extends AsyncLookupJoinRunner {
 			BaseRowTypeInfo rightRowTypeInfo,
 			boolean isLeftOuterJoin,
 			int asyncBufferCapacity) {
+		this(generatedFetcher, generatedCalc, generatedResultFuture, fetcherReturnType,
+			rightRowTypeInfo, isLeftOuterJoin, asyncBufferCapacity, null);
+	}
+
+	public AsyncLookupJoinWithCalcRunner(
+			GeneratedFunction<AsyncFunction<BaseRow, Object>> generatedFetcher,
+			GeneratedFunction<FlatMapFunction<BaseRow, BaseRow>> generatedCalc,
+			GeneratedResultFuture<TableFunctionResultFuture<BaseRow>> generatedResultFuture,
+			TypeInformation<?> fetcherReturnType,
+			BaseRowTypeInfo rightRowTypeInfo,
+			boolean isLeftOuterJoin,
+			int asyncBufferCapacity,
+			@Nullable LookupCacheDescriptor cacheDescriptor) {
 		super(generatedFetcher, generatedResultFuture, fetcherReturnType,
-			rightRowTypeInfo, isLeftOuterJoin, asyncBufferCapacity);
+			rightRowTypeInfo, isLeftOuterJoin, asyncBufferCapacity, cacheDescriptor);
 		this.rightRowTypeInfo = rightRowTypeInfo;
 		this.generatedCalc = generatedCalc;
 	}
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.concurrent.FutureUtils;
+import org.apache.flink.runtime.util.clock.Clock;
+import org.apache.flink.runtime.util.clock.SystemClock;
+import org.apache.flink.table.dataformat.BaseRow;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * A cache of the rows returned by the lookup function of a lookup join, by lookup key.
+ *
+ * <p>The cache is bounded by the number of lookup keys and evicts the least recently used key. A cached
+ * key expires after the ttl, and is refreshed in the background on access after the refresh interval.
+ * Concurrent lookups of a key that is not cached wait for the same load.
+ *
+ * <p>The parallel instances of a lookup join that run in the same JVM share a cache, which they
+ * {@link #acquire(LookupCacheDescriptor)} when they are opened and {@link #release()} when they are closed.
+ */
+public final class LookupCache {
+
+	/** The caches that are used by the lookup joins in this JVM, by cache id. */
+	private static final Map<String, LookupCache> SHARED_CACHES = new HashMap<>();
+
+	private final String cacheId;
+	private final long ttlMillis;
+	private final long refreshIntervalMillis;
+	private final Clock clock;
+
+	/** The cached rows by lookup key, in access order. Guarded by this. */
+	private final LinkedHashMap<BaseRow, CacheEntry> entries;
+
+	/** The lookups in progress by lookup key. Guarded by this. */
+	private final Map<BaseRow, CompletableFuture<Collection<BaseRow>>> pendingLoads = new HashMap<>();
+
+	/** The number of lookup joins that use this cache. Guarded by {@link #SHARED_CACHES}. */
+	private int references;
+
+	@VisibleForTesting
+	LookupCache(String cacheId, long maxRows, long ttlMillis, long refreshIntervalMillis, Clock clock) {
+		this.cacheId = cacheId;
+		this.ttlMillis = ttlMillis;
+		this.refreshIntervalMillis = refreshIntervalMillis;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<BaseRow, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<BaseRow, CacheEntry> eldest) {
+				return size() > maxRows;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cache of the given descriptor, which is created by the first lookup join that acquires it.
+	 */
+	public static LookupCache acquire(LookupCacheDescriptor descriptor) {
+		synchronized (SHARED_CACHES) {
+			LookupCache cache = SHARED_CACHES.computeIfAbsent(
+				descriptor.getCacheId(),
+				cacheId -> new LookupCache(
+					cacheId,
+					descriptor.getMaxRows(),
+					descriptor.getTtlMillis(),
+					descriptor.getRefreshIntervalMillis(),
+					SystemClock.getInstance()));
+			cache.references++;
+			return cache;
+		}
+	}
+
+	/**
+	 * Releases the cache, which is dropped when the last lookup join that acquired it releases it.
+	 */
+	public void release() {
+		synchronized (SHARED_CACHES) {
+			if (--references == 0) {
+				SHARED_CACHES.remove(cacheId);
+			}
+		}
+	}
+
+	/**
+	 * Returns the rows of the given lookup key.
+	 *
+	 * <p>If the key is cached, the returned future is completed. A cached key that is older than the refresh
+	 * interval is loaded again with the given loader, and the cached rows are returned until the load completes.
+	 * If the key is not cached and no load of the key is in progress, it is loaded with the given loader,
+	 * otherwise the returned future completes with the load in progress.
+	 *
+	 * @param key the lookup key, which must not be modified afterwards
+	 * @param loader looks up the rows of the key, it is called without holding the lock of the cache
+	 * @param metrics the metrics of the calling lookup join
+	 * @return the future rows of the key
+	 */
+	public CompletableFuture<Collection<BaseRow>> get(
+			BaseRow key,
+			Function<BaseRow, CompletableFuture<Collection<BaseRow>>> loader,
+			LookupCacheMetrics metrics) {
+		final CompletableFuture<Collection<BaseRow>> load;
+		final CompletableFuture<Collection<BaseRow>> result;
+		synchronized (this) {
+			final long now = clock.absoluteTimeMillis();
+			final CacheEntry entry = entries.get(key);
+			if (entry != null && (ttlMillis == 0 || now - entry.loadTime < ttlMillis)) {
+				metrics.hit();
+				result = CompletableFuture.completedFuture(entry.rows);
+				if (refreshIntervalMillis == 0 || now - entry.loadTime < refreshIntervalMillis ||
+						pendingLoads.containsKey(key)) {
+					return result;
+				}
+			} else {
+				metrics.miss();
+				final CompletableFuture<Collection<BaseRow>> pendingLoad = pendingLoads.get(key);
+				if (pendingLoad != null) {
+					return pendingLoad;
+				}
+				result = null;
+			}
+
+			load = new CompletableFuture<>();
+			pendingLoads.put(key, load);
+		}
+
+		load(key, load, loader, metrics);
+		return result != null ? result : load;
+	}
+
+	private void load(
+			BaseRow key,
+			CompletableFuture<Collection<BaseRow>> load,
+			Function<BaseRow, CompletableFuture<Collection<BaseRow>>> loader,
+			LookupCacheMetrics metrics) {
+		final long loadTime = clock.absoluteTimeMillis();
+		final long loadStartNanos = clock.relativeTimeNanos();
+
+		CompletableFuture<Collection<BaseRow>> rowsFuture;
+		try {
+			rowsFuture = loader.apply(key);
+		} catch (Throwable t) {
+			rowsFuture = FutureUtils.completedExceptionally(t);
+		}
+
+		rowsFuture.whenComplete((rows, throwable) -> {
+			synchronized (this) {
+				pendingLoads.remove(key);
+				if (throwable == null) {
+					// a failed refresh keeps the cached rows until they expire
+					entries.put(key, new CacheEntry(rows, loadTime));
+				}
+			}
+
+			if (throwable == null) {
+				metrics.loaded((clock.relativeTimeNanos() - loadStartNanos) / 1_000_000L);
+				load.complete(rows);
+			} else {
+				load.completeExceptionally(throwable);
+			}
+		});
+	}
+
+	@VisibleForTesting
+	synchronized int size() {
+		return entries.size();
+	}
+
+	@VisibleForTesting
+	static int getNumberOfSharedCaches() {
+		synchronized (SHARED_CACHES) {
+			return SHARED_CACHES.size();
+		}
+	}
+
+	private static final class CacheEntry {
+
+		private final Collection<BaseRow> rows;
+
+		/** The time at which the load of the rows started. */
+		private final long loadTime;
+
+		private CacheEntry(Collection<BaseRow> rows, long loadTime) {
+			this.rows = rows;
+			this.loadTime = loadTime;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup;
+
+import org.apache.flink.table.runtime.keyselector.BaseRowKeySelector;
+import org.apache.flink.table.runtime.typeutils.BaseRowTypeInfo;
+import org.apache.flink.util.Preconditions;
+
+import java.io.Serializable;
+
+/**
+ * Describes the {@link LookupCache} of a lookup join. All parallel instances of a lookup join
+ * get the same descriptor and share a cache with its id within a JVM.
+ */
+public class LookupCacheDescriptor implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String cacheId;
+	private final BaseRowKeySelector keySelector;
+	private final BaseRowTypeInfo rowTypeInfo;
+	private final long maxRows;
+	private final long ttlMillis;
+	private final long refreshIntervalMillis;
+
+	/**
+	 * @param cacheId the id of the cache, which is unique per lookup join
+	 * @param keySelector extracts the lookup key from an input row
+	 * @param rowTypeInfo the type of the rows returned by the lookup function
+	 * @param maxRows the max number of cached lookup keys
+	 * @param ttlMillis the time after which a cached key expires, 0 if it never expires
+	 * @param refreshIntervalMillis the time after which a cached key is refreshed on access, 0 if it is not refreshed
+	 */
+	public LookupCacheDescriptor(
+			String cacheId,
+			BaseRowKeySelector keySelector,
+			BaseRowTypeInfo rowTypeInfo,
+			long maxRows,
+			long ttlMillis,
+			long refreshIntervalMillis) {
+		Preconditions.checkArgument(maxRows > 0, "The max number of cached rows must be positive.");
+		Preconditions.checkArgument(ttlMillis >= 0 && refreshIntervalMillis >= 0,
+			"The ttl and the refresh interval must not be negative.");
+		this.cacheId = Preconditions.checkNotNull(cacheId);
+		this.keySelector = Preconditions.checkNotNull(keySelector);
+		this.rowTypeInfo = Preconditions.checkNotNull(rowTypeInfo);
+		this.maxRows = maxRows;
+		this.ttlMillis = ttlMillis;
+		this.refreshIntervalMillis = refreshIntervalMillis;
+	}
+
+	public String getCacheId() {
+		return cacheId;
+	}
+
+	public BaseRowKeySelector getKeySelector() {
+		return keySelector;
+	}
+
+	public BaseRowTypeInfo getRowTypeInfo() {
+		return rowTypeInfo;
+	}
+
+	public long getMaxRows() {
+		return maxRows;
+	}
+
+	public long getTtlMillis() {
+		return ttlMillis;
+	}
+
+	public long getRefreshIntervalMillis() {
+		return refreshIntervalMillis;
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
+
+/**
+ * The metrics of the {@link LookupCache} accesses of a parallel instance of a lookup join.
+ */
+public class LookupCacheMetrics {
+
+	public static final String LOOKUP_CACHE_HITS = "lookupCacheHits";
+	public static final String LOOKUP_CACHE_MISSES = "lookupCacheMisses";
+	public static final String LOOKUP_CACHE_LOAD_LATENCY = "lookupCacheLoadLatency";
+
+	private static final int LOAD_LATENCY_WINDOW_SIZE = 128;
+
+	private final Counter hits;
+	private final Counter misses;
+	private final Histogram loadLatency;
+
+	public LookupCacheMetrics(MetricGroup metricGroup) {
+		this.hits = metricGroup.counter(LOOKUP_CACHE_HITS);
+		this.misses = metricGroup.counter(LOOKUP_CACHE_MISSES);
+		this.loadLatency = metricGroup.histogram(
+			LOOKUP_CACHE_LOAD_LATENCY, new DescriptiveStatisticsHistogram(LOAD_LATENCY_WINDOW_SIZE));
+	}
+
+	void hit() {
+		hits.inc();
+	}
+
+	void miss() {
+		misses.inc();
+	}
+
+	/**
+	 * Records the latency of a lookup in milliseconds. Asynchronous lookups complete in other threads.
+	 */
+	synchronized void loaded(long latencyMillis) {
+		loadLatency.update(latencyMillis);
+	}
+
+	public long getHitCount() {
+		return hits.getCount();
+	}
+
+	public long getMissCount() {
+		return misses.getCount();
+	}
+}
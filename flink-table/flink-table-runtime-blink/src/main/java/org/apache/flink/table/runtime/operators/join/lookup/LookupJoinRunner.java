@@ -20,7 +20,9 @@ package org.apache.flink.table.runtime.operators.join.lookup;
 
 import org.apache.flink.api.common.functions.FlatMapFunction;
 import org.apache.flink.api.common.functions.util.FunctionUtils;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.streaming.api.functions.ProcessFunction;
 import org.apache.flink.table.dataformat.BaseRow;
 import org.apache.flink.table.dataformat.GenericRow;
@@ -30,6 +32,13 @@ import org.apache.flink.table.runtime.generated.GeneratedCollector;
 import org.apache.flink.table.runtime.generated.GeneratedFunction;
 import org.apache.flink.util.Collector;
 
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The join runner to lookup the dimension table.
  */
@@ -40,21 +49,37 @@ public class LookupJoinRunner extends ProcessFunction<BaseRow, BaseRow> {
 	private final GeneratedCollector<TableFunctionCollector<BaseRow>> generatedCollector;
 	private final boolean isLeftOuterJoin;
 	private final int tableFieldsCount;
+	@Nullable
+	private final LookupCacheDescriptor cacheDescriptor;
 
 	private transient FlatMapFunction<BaseRow, BaseRow> fetcher;
 	protected transient TableFunctionCollector<BaseRow> collector;
 	private transient GenericRow nullRow;
 	private transient JoinedRow outRow;
 
+	private transient LookupCache cache;
+	private transient LookupCacheMetrics cacheMetrics;
+	private transient TypeSerializer<BaseRow> cachedRowSerializer;
+
 	public LookupJoinRunner(
 			GeneratedFunction<FlatMapFunction<BaseRow, BaseRow>> generatedFetcher,
 			GeneratedCollector<TableFunctionCollector<BaseRow>> generatedCollector,
 			boolean isLeftOuterJoin,
 			int tableFieldsCount) {
+		this(generatedFetcher, generatedCollector, isLeftOuterJoin, tableFieldsCount, null);
+	}
+
+	public LookupJoinRunner(
+			GeneratedFunction<FlatMapFunction<BaseRow, BaseRow>> generatedFetcher,
+			GeneratedCollector<TableFunctionCollector<BaseRow>> generatedCollector,
+			boolean isLeftOuterJoin,
+			int tableFieldsCount,
+			@Nullable LookupCacheDescriptor cacheDescriptor) {
 		this.generatedFetcher = generatedFetcher;
 		this.generatedCollector = generatedCollector;
 		this.isLeftOuterJoin = isLeftOuterJoin;
 		this.tableFieldsCount = tableFieldsCount;
+		this.cacheDescriptor = cacheDescriptor;
 	}
 
 	@Override
@@ -70,6 +95,13 @@ public class LookupJoinRunner extends ProcessFunction<BaseRow, BaseRow> {
 
 		this.nullRow = new GenericRow(tableFieldsCount);
 		this.outRow = new JoinedRow();
+
+		if (cacheDescriptor != null) {
+			this.cache = LookupCache.acquire(cacheDescriptor);
+			this.cacheMetrics = new LookupCacheMetrics(getRuntimeContext().getMetricGroup());
+			this.cachedRowSerializer = cacheDescriptor.getRowTypeInfo().createSerializer(
+				getRuntimeContext().getExecutionConfig());
+		}
 	}
 
 	@Override
@@ -78,8 +110,15 @@ public class LookupJoinRunner extends ProcessFunction<BaseRow, BaseRow> {
 		collector.setInput(in);
 		collector.reset();
 
-		// fetcher has copied the input field when object reuse is enabled
-		fetcher.flatMap(in, getFetcherCollector());
+		if (cache == null) {
+			// fetcher has copied the input field when object reuse is enabled
+			fetcher.flatMap(in, getFetcherCollector());
+		} else {
+			Collector<BaseRow> fetcherCollector = getFetcherCollector();
+			for (BaseRow row : lookupCached(in)) {
+				fetcherCollector.collect(row);
+			}
+		}
 
 		if (isLeftOuterJoin && !collector.isCollected()) {
 			outRow.replace(in, nullRow);
@@ -92,6 +131,31 @@ public class LookupJoinRunner extends ProcessFunction<BaseRow, BaseRow> {
 		return collector;
 	}
 
+	private Collection<BaseRow> lookupCached(BaseRow in) throws Exception {
+		BaseRow key = cacheDescriptor.getKeySelector().getKey(in);
+		// waits for the lookup of another parallel instance if the key is being looked up already
+		return cache.get(key, ignored -> fetchRows(in), cacheMetrics).get();
+	}
+
+	private CompletableFuture<Collection<BaseRow>> fetchRows(BaseRow in) {
+		List<BaseRow> rows = new ArrayList<>();
+		try {
+			fetcher.flatMap(in, new Collector<BaseRow>() {
+				@Override
+				public void collect(BaseRow record) {
+					rows.add(cachedRowSerializer.copy(record));
+				}
+
+				@Override
+				public void close() {
+				}
+			});
+		} catch (Exception e) {
+			return FutureUtils.completedExceptionally(e);
+		}
+		return CompletableFuture.completedFuture(rows);
+	}
+
 	@Override
 	public void close() throws Exception {
 		super.close();
@@ -101,5 +165,9 @@ public class LookupJoinRunner extends ProcessFunction<BaseRow, BaseRow> {
 		if (collector != null) {
 			FunctionUtils.closeFunction(collector);
 		}
+		if (cache != null) {
+			cache.release();
+			cache = null;
+		}
 	}
 }
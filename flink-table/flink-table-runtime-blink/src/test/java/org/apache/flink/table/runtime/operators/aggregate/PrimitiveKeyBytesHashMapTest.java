@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.aggregate;
+
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.memory.MemoryManagerBuilder;
+import org.apache.flink.table.dataformat.BinaryRow;
+import org.apache.flink.table.dataformat.BinaryRowWriter;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.util.MutableObjectIterator;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LongKeyBytesHashMap} and {@link IntKeyBytesHashMap}.
+ */
+public class PrimitiveKeyBytesHashMapTest {
+
+	private static final long RANDOM_SEED = 76518743207143L;
+	private static final int PAGE_SIZE = 32 * 1024;
+	private static final int MEMORY_SIZE = 512 * PAGE_SIZE;
+	// more than the initial buckets can hold, to force a rehash
+	private static final int NUM_ENTRIES = 100000;
+
+	private static final LogicalType[] VALUE_TYPES = new LogicalType[] {new BigIntType()};
+
+	@Test
+	public void testLongKeys() throws IOException {
+		LogicalType[] keyTypes = new LogicalType[] {new BigIntType()};
+		MemoryManager memoryManager = MemoryManagerBuilder.newBuilder().setMemorySize(MEMORY_SIZE).build();
+		BytesHashMap table = new LongKeyBytesHashMap(this, memoryManager, MEMORY_SIZE, keyTypes, VALUE_TYPES);
+
+		Random rnd = new Random(RANDOM_SEED);
+		Long[] keys = new Long[NUM_ENTRIES];
+		keys[0] = null;
+		keys[1] = 0L;
+		for (int i = 2; i < NUM_ENTRIES; i++) {
+			keys[i] = rnd.nextLong();
+		}
+		verifyInsertUpdateAndIterate(table, keys);
+		table.free();
+	}
+
+	@Test
+	public void testIntKeys() throws IOException {
+		LogicalType[] keyTypes = new LogicalType[] {new IntType()};
+		MemoryManager memoryManager = MemoryManagerBuilder.newBuilder().setMemorySize(MEMORY_SIZE).build();
+		BytesHashMap table = new IntKeyBytesHashMap(this, memoryManager, MEMORY_SIZE, keyTypes, VALUE_TYPES);
+
+		Random rnd = new Random(RANDOM_SEED);
+		Long[] keys = new Long[NUM_ENTRIES];
+		keys[0] = null;
+		keys[1] = 0L;
+		for (int i = 2; i < NUM_ENTRIES; i++) {
+			keys[i] = (long) rnd.nextInt();
+		}
+		verifyInsertUpdateAndIterate(table, keys);
+		table.free();
+	}
+
+	private static void verifyInsertUpdateAndIterate(BytesHashMap table, Long[] keys) throws IOException {
+		boolean intKeys = table instanceof IntKeyBytesHashMap;
+		Map<Long, Long> expected = new HashMap<>();
+		BinaryRow value = new BinaryRow(1);
+		BinaryRowWriter valueWriter = new BinaryRowWriter(value);
+		valueWriter.writeLong(0, 0L);
+		valueWriter.complete();
+
+		// every key is seen twice, the second time its value is incremented
+		for (int round = 0; round < 2; round++) {
+			for (Long key : keys) {
+				BytesHashMap.LookupInfo info = table.lookup(keyRow(key, intKeys));
+				BinaryRow current;
+				if (round == 0 && !expected.containsKey(key)) {
+					assertFalse(info.isFound());
+					current = table.append(info, value);
+				} else {
+					assertTrue(info.isFound());
+					current = info.getValue();
+				}
+				current.setLong(0, current.getLong(0) + 1);
+				expected.merge(key, 1L, Long::sum);
+			}
+		}
+		assertEquals(expected.size(), table.getNumElements());
+
+		BytesHashMap.Entry entry = new BytesHashMap.Entry(new BinaryRow(1), new BinaryRow(1));
+		MutableObjectIterator<BytesHashMap.Entry> iterator = table.getEntryIterator();
+		int numEntries = 0;
+		while (iterator.next(entry) != null) {
+			BinaryRow key = entry.getKey();
+			Long javaKey = key.isNullAt(0) ? null : (intKeys ? (long) key.getInt(0) : key.getLong(0));
+			assertEquals(expected.get(javaKey), Long.valueOf(entry.getValue().getLong(0)));
+			numEntries++;
+		}
+		assertEquals(expected.size(), numEntries);
+	}
+
+	private static BinaryRow keyRow(Long key, boolean intKey) {
+		BinaryRow row = new BinaryRow(1);
+		BinaryRowWriter writer = new BinaryRowWriter(row);
+		if (key == null) {
+			writer.setNullAt(0);
+		} else if (intKey) {
+			writer.writeInt(0, key.intValue());
+		} else {
+			writer.writeLong(0, key);
+		}
+		writer.complete();
+		return row;
+	}
+}
@@ -33,9 +33,12 @@ import org.apache.flink.table.dataformat.JoinedRow;
 import org.apache.flink.table.runtime.collector.TableFunctionCollector;
 import org.apache.flink.table.runtime.generated.GeneratedCollectorWrapper;
 import org.apache.flink.table.runtime.generated.GeneratedFunctionWrapper;
+import org.apache.flink.table.runtime.keyselector.BaseRowKeySelector;
+import org.apache.flink.table.runtime.operators.join.lookup.LookupCacheDescriptor;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinRunner;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinWithCalcRunner;
 import org.apache.flink.table.runtime.typeutils.BaseRowSerializer;
+import org.apache.flink.table.runtime.typeutils.BaseRowTypeInfo;
 import org.apache.flink.table.runtime.util.BaseRowHarnessAssertor;
 import org.apache.flink.table.types.logical.IntType;
 import org.apache.flink.table.types.logical.VarCharType;
@@ -49,9 +52,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.flink.table.dataformat.BinaryString.fromString;
 import static org.apache.flink.table.runtime.util.StreamRecordUtils.record;
+import static org.junit.Assert.assertEquals;
 
 /**
  * Harness tests for {@link LookupJoinRunner} and {@link LookupJoinWithCalcRunner}.
@@ -168,6 +173,50 @@ public class LookupJoinHarnessTest {
 		testHarness.close();
 	}
 
+	@Test
+	public void testTemporalLeftJoinWithCache() throws Exception {
+		LookupCacheDescriptor cacheDescriptor = new LookupCacheDescriptor(
+			"testTemporalLeftJoinWithCache",
+			new FirstFieldKeySelector(),
+			new BaseRowTypeInfo(new IntType(), new VarCharType(VarCharType.MAX_LENGTH)),
+			10,
+			0,
+			0);
+		LookupJoinRunner joinRunner = new LookupJoinRunner(
+			new GeneratedFunctionWrapper<>(new CountingFetcherFunction()),
+			new GeneratedCollectorWrapper<>(new TestingFetcherCollector()),
+			true,
+			2,
+			cacheDescriptor);
+		OneInputStreamOperatorTestHarness<BaseRow, BaseRow> testHarness = new OneInputStreamOperatorTestHarness<>(
+			new ProcessOperator<>(joinRunner),
+			inSerializer);
+		CountingFetcherFunction.LOOKUPS.set(0);
+
+		testHarness.open();
+
+		testHarness.processElement(record(1, "a"));
+		testHarness.processElement(record(2, "b"));
+		testHarness.processElement(record(3, "c"));
+		testHarness.processElement(record(1, "d"));
+		testHarness.processElement(record(2, "e"));
+		testHarness.processElement(record(3, "f"));
+
+		List<Object> expectedOutput = new ArrayList<>();
+		expectedOutput.add(record(1, "a", 1, "Julian"));
+		expectedOutput.add(record(2, "b", null, null));
+		expectedOutput.add(record(3, "c", 3, "Jark"));
+		expectedOutput.add(record(3, "c", 3, "Jackson"));
+		expectedOutput.add(record(1, "d", 1, "Julian"));
+		expectedOutput.add(record(2, "e", null, null));
+		expectedOutput.add(record(3, "f", 3, "Jark"));
+		expectedOutput.add(record(3, "f", 3, "Jackson"));
+
+		assertor.assertOutputEquals("output wrong.", expectedOutput, testHarness.getOutput());
+		assertEquals(3, CountingFetcherFunction.LOOKUPS.get());
+		testHarness.close();
+	}
+
 	// ---------------------------------------------------------------------------------
 
 	@SuppressWarnings("unchecked")
@@ -247,6 +296,42 @@ public class LookupJoinHarnessTest {
 		}
 	}
 
+	/**
+	 * The {@link CountingFetcherFunction} counts the lookups of the {@link TestingFetcherFunction}.
+	 */
+	public static final class CountingFetcherFunction implements FlatMapFunction<BaseRow, BaseRow> {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final AtomicInteger LOOKUPS = new AtomicInteger();
+
+		private final TestingFetcherFunction fetcher = new TestingFetcherFunction();
+
+		@Override
+		public void flatMap(BaseRow value, Collector<BaseRow> out) throws Exception {
+			LOOKUPS.incrementAndGet();
+			fetcher.flatMap(value, out);
+		}
+	}
+
+	/**
+	 * The {@link FirstFieldKeySelector} selects the integer lookup key of the input.
+	 */
+	private static final class FirstFieldKeySelector implements BaseRowKeySelector {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public BaseRow getKey(BaseRow value) {
+			return GenericRow.of(value.getInt(0));
+		}
+
+		@Override
+		public BaseRowTypeInfo getProducedType() {
+			return new BaseRowTypeInfo(new IntType());
+		}
+	}
+
 	/**
 	 * The {@link TestingFetcherCollector} is a simple implementation of
 	 * {@link TableFunctionCollector} which combines left and right into a JoinedRow.
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join;
+
+import org.apache.flink.runtime.operators.util.BloomFilter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link RuntimeFilterAggregateFunction}.
+ */
+public class RuntimeFilterAggregateFunctionTest {
+
+	private static final int EXPECTED_ENTRIES = 100;
+	private static final int FILTER_SIZE_IN_BYTES = 128;
+
+	@Test
+	public void testMergeFiltersOfAllSubtasks() throws Exception {
+		RuntimeFilterAggregateFunction function = new RuntimeFilterAggregateFunction();
+		RuntimeFilterAggregateFunction.Accumulator accumulator = function.createAccumulator();
+
+		byte[] bits0 = new byte[FILTER_SIZE_IN_BYTES];
+		BloomFilter filter0 = RuntimeFilterAggregateFunction.createBloomFilter(EXPECTED_ENTRIES, bits0);
+		byte[] bits1 = new byte[FILTER_SIZE_IN_BYTES];
+		BloomFilter filter1 = RuntimeFilterAggregateFunction.createBloomFilter(EXPECTED_ENTRIES, bits1);
+		for (int i = 0; i < EXPECTED_ENTRIES; i++) {
+			(i % 2 == 0 ? filter0 : filter1).addHash(i * 31);
+		}
+
+		// nothing published yet
+		accumulator = function.add(RuntimeFilterAggregateFunction.query(), accumulator);
+		assertEquals(0, function.getResult(accumulator).length);
+
+		accumulator = function.add(RuntimeFilterAggregateFunction.publish(0, 2, bits0), accumulator);
+		assertEquals(0, function.getResult(accumulator).length);
+
+		// a restarted subtask publishes its filter again
+		accumulator = function.add(RuntimeFilterAggregateFunction.publish(0, 2, bits0), accumulator);
+		assertEquals(0, function.getResult(accumulator).length);
+
+		accumulator = function.add(RuntimeFilterAggregateFunction.publish(1, 2, bits1), accumulator);
+		byte[] merged = function.getResult(accumulator);
+		assertEquals(FILTER_SIZE_IN_BYTES, merged.length);
+
+		// queries do not change the result
+		accumulator = function.add(RuntimeFilterAggregateFunction.query(), accumulator);
+		assertArrayEquals(merged, function.getResult(accumulator));
+
+		BloomFilter filter = RuntimeFilterAggregateFunction.createBloomFilter(EXPECTED_ENTRIES, merged);
+		for (int i = 0; i < EXPECTED_ENTRIES; i++) {
+			assertTrue(filter.testHash(i * 31));
+		}
+		int numFalsePositives = 0;
+		for (int i = EXPECTED_ENTRIES; i < 2 * EXPECTED_ENTRIES; i++) {
+			if (filter.testHash(i * 31)) {
+				numFalsePositives++;
+			}
+		}
+		assertTrue(numFalsePositives < EXPECTED_ENTRIES / 2);
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup;
+
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.runtime.util.clock.Clock;
+import org.apache.flink.table.dataformat.BaseRow;
+import org.apache.flink.table.dataformat.GenericRow;
+import org.apache.flink.table.runtime.keyselector.NullBinaryRowKeySelector;
+import org.apache.flink.table.runtime.typeutils.BaseRowTypeInfo;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.util.FlinkException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LookupCache}.
+ */
+public class LookupCacheTest {
+
+	private static final BaseRow KEY_1 = GenericRow.of(1);
+	private static final BaseRow KEY_2 = GenericRow.of(2);
+	private static final BaseRow KEY_3 = GenericRow.of(3);
+
+	private final TestClock clock = new TestClock();
+
+	private LookupCacheMetrics metrics;
+
+	@Before
+	public void setup() {
+		metrics = new LookupCacheMetrics(new UnregisteredMetricsGroup());
+	}
+
+	@Test
+	public void testCachedRows() throws Exception {
+		LookupCache cache = new LookupCache("cache", 10, 0, 0, clock);
+		AtomicInteger loads = new AtomicInteger();
+
+		Collection<BaseRow> rows = cache.get(KEY_1, key -> load(loads, key), metrics).get();
+		assertSame(rows, cache.get(KEY_1, key -> load(loads, key), metrics).get());
+
+		assertEquals(1, loads.get());
+		assertEquals(1, metrics.getHitCount());
+		assertEquals(1, metrics.getMissCount());
+	}
+
+	@Test
+	public void testConcurrentLookupsShareLoad() throws Exception {
+		LookupCache cache = new LookupCache("cache", 10, 0, 0, clock);
+		CompletableFuture<Collection<BaseRow>> pendingRows = new CompletableFuture<>();
+		AtomicInteger loads = new AtomicInteger();
+
+		CompletableFuture<Collection<BaseRow>> first = cache.get(KEY_1, key -> {
+			loads.incrementAndGet();
+			return pendingRows;
+		}, metrics);
+		CompletableFuture<Collection<BaseRow>> second = cache.get(KEY_1, key -> load(loads, key), metrics);
+
+		assertEquals(1, loads.get());
+		assertFalse(second.isDone());
+
+		pendingRows.complete(Collections.singletonList(KEY_1));
+		assertSame(first.get(), second.get());
+		assertEquals(2, metrics.getMissCount());
+	}
+
+	@Test
+	public void testExpiredRowsAreLoadedAgain() throws Exception {
+		LookupCache cache = new LookupCache("cache", 10, 100, 0, clock);
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(KEY_1, key -> load(loads, key), metrics).get();
+		clock.advance(99);
+		cache.get(KEY_1, key -> load(loads, key), metrics).get();
+		assertEquals(1, loads.get());
+
+		clock.advance(1);
+		cache.get(KEY_1, key -> load(loads, key), metrics).get();
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testRefreshReturnsCachedRows() throws Exception {
+		LookupCache cache = new LookupCache("cache", 10, 1000, 100, clock);
+		Collection<BaseRow> cachedRows = cache.get(KEY_1, key -> load(new AtomicInteger(), key), metrics).get();
+
+		clock.advance(100);
+		CompletableFuture<Collection<BaseRow>> refreshedRows = new CompletableFuture<>();
+		AtomicInteger loads = new AtomicInteger();
+		assertSame(cachedRows, cache.get(KEY_1, key -> {
+			loads.incrementAndGet();
+			return refreshedRows;
+		}, metrics).get());
+		// no second refresh while the first one is in progress
+		assertSame(cachedRows, cache.get(KEY_1, key -> load(loads, key), metrics).get());
+		assertEquals(1, loads.get());
+
+		refreshedRows.complete(Collections.singletonList(KEY_2));
+		assertSame(refreshedRows.get(), cache.get(KEY_1, key -> load(loads, key), metrics).get());
+		assertEquals(1, loads.get());
+		assertEquals(3, metrics.getHitCount());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsedKey() throws Exception {
+		LookupCache cache = new LookupCache("cache", 2, 0, 0, clock);
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(KEY_1, key -> load(loads, key), metrics).get();
+		cache.get(KEY_2, key -> load(loads, key), metrics).get();
+		cache.get(KEY_1, key -> load(loads, key), metrics).get();
+		cache.get(KEY_3, key -> load(loads, key), metrics).get();
+		assertEquals(2, cache.size());
+
+		cache.get(KEY_1, key -> load(loads, key), metrics).get();
+		assertEquals(3, loads.get());
+		cache.get(KEY_2, key -> load(loads, key), metrics).get();
+		assertEquals(4, loads.get());
+	}
+
+	@Test
+	public void testFailedLoadIsNotCached() throws Exception {
+		LookupCache cache = new LookupCache("cache", 10, 0, 0, clock);
+		AtomicInteger loads = new AtomicInteger();
+
+		CompletableFuture<Collection<BaseRow>> failedRows = cache.get(KEY_1, key -> {
+			throw new RuntimeException(new FlinkException("Expected test exception."));
+		}, metrics);
+		assertTrue(failedRows.isCompletedExceptionally());
+		assertEquals(0, cache.size());
+
+		cache.get(KEY_1, key -> load(loads, key), metrics).get();
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testSharedCache() {
+		LookupCacheDescriptor descriptor = new LookupCacheDescriptor(
+			"shared-cache",
+			NullBinaryRowKeySelector.INSTANCE,
+			new BaseRowTypeInfo(new IntType()),
+			10,
+			0,
+			0);
+		int sharedCaches = LookupCache.getNumberOfSharedCaches();
+
+		LookupCache first = LookupCache.acquire(descriptor);
+		LookupCache second = LookupCache.acquire(descriptor);
+		assertSame(first, second);
+		assertEquals(sharedCaches + 1, LookupCache.getNumberOfSharedCaches());
+
+		first.release();
+		assertEquals(sharedCaches + 1, LookupCache.getNumberOfSharedCaches());
+		second.release();
+		assertEquals(sharedCaches, LookupCache.getNumberOfSharedCaches());
+	}
+
+	private static CompletableFuture<Collection<BaseRow>> load(AtomicInteger loads, BaseRow key) {
+		loads.incrementAndGet();
+		return CompletableFuture.completedFuture(Collections.singletonList(key));
+	}
+
+	private static final class TestClock extends Clock {
+
+		private long currentTime;
+
+		void advance(long millis) {
+			currentTime += millis;
+		}
+
+		@Override
+		public long absoluteTimeMillis() {
+			return currentTime;
+		}
+
+		@Override
+		public long relativeTimeMillis() {
+			return currentTime;
+		}
+
+		@Override
+		public long relativeTimeNanos() {
+			return currentTime * 1_000_000L;
+		}
+	}
+}
@@ -88,6 +88,7 @@ flink-connectors/flink-hcatalog,\
 flink-connectors/flink-hadoop-compatibility,\
 flink-connectors/flink-jdbc,\
 flink-connectors,\
+flink-connectors/flink-connector-base,\
 flink-connectors/flink-connector-cassandra,\
 flink-connectors/flink-connector-elasticsearch5,\
 flink-connectors/flink-connector-elasticsearch6,\